@@ -424,7 +424,7 @@ CREATE TABLE infra_file
     path        varchar(512)  NOT NULL,
     url         varchar(1024) NOT NULL,
     type        varchar(128)  NULL     DEFAULT NULL,
-    size        int4          NOT NULL,
+    size        int8          NOT NULL,
     creator     varchar(64)   NULL     DEFAULT '',
     create_time timestamp     NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updater     varchar(64)   NULL     DEFAULT '',
@@ -2386,6 +2386,94 @@ DROP SEQUENCE IF EXISTS system_notice_seq;
 CREATE SEQUENCE system_notice_seq
     START 5;
 
+-- ----------------------------
+-- Table structure for system_notify_broadcast
+-- ----------------------------
+DROP TABLE IF EXISTS system_notify_broadcast;
+CREATE TABLE system_notify_broadcast
+(
+    id                int8          NOT NULL,
+    user_type         int2          NOT NULL,
+    audience_type     int2          NOT NULL,
+    audience_ids      varchar(1024) NULL     DEFAULT NULL,
+    template_id       int8          NOT NULL,
+    template_code     varchar(64)   NOT NULL,
+    template_nickname varchar(63)   NOT NULL,
+    template_content  varchar(1024) NOT NULL,
+    template_type     int4          NOT NULL,
+    template_params   varchar(255)  NOT NULL,
+    creator           varchar(64)   NULL     DEFAULT '',
+    create_time       timestamp     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updater           varchar(64)   NULL     DEFAULT '',
+    update_time       timestamp     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted           int2          NOT NULL DEFAULT 0,
+    tenant_id         int8          NOT NULL DEFAULT 0
+);
+
+ALTER TABLE system_notify_broadcast
+    ADD CONSTRAINT pk_system_notify_broadcast PRIMARY KEY (id);
+
+COMMENT ON COLUMN system_notify_broadcast.id IS '编号';
+COMMENT ON COLUMN system_notify_broadcast.user_type IS '用户类型';
+COMMENT ON COLUMN system_notify_broadcast.audience_type IS '受众类型';
+COMMENT ON COLUMN system_notify_broadcast.audience_ids IS '受众编号数组';
+COMMENT ON COLUMN system_notify_broadcast.template_id IS '模版编号';
+COMMENT ON COLUMN system_notify_broadcast.template_code IS '模板编码';
+COMMENT ON COLUMN system_notify_broadcast.template_nickname IS '模版发送人名称';
+COMMENT ON COLUMN system_notify_broadcast.template_content IS '模版内容';
+COMMENT ON COLUMN system_notify_broadcast.template_type IS '模版类型';
+COMMENT ON COLUMN system_notify_broadcast.template_params IS '模版参数';
+COMMENT ON COLUMN system_notify_broadcast.creator IS '创建者';
+COMMENT ON COLUMN system_notify_broadcast.create_time IS '创建时间';
+COMMENT ON COLUMN system_notify_broadcast.updater IS '更新者';
+COMMENT ON COLUMN system_notify_broadcast.update_time IS '更新时间';
+COMMENT ON COLUMN system_notify_broadcast.deleted IS '是否删除';
+COMMENT ON COLUMN system_notify_broadcast.tenant_id IS '租户编号';
+COMMENT ON TABLE system_notify_broadcast IS '站内信广播表';
+
+DROP SEQUENCE IF EXISTS system_notify_broadcast_seq;
+CREATE SEQUENCE system_notify_broadcast_seq
+    START 1;
+
+-- ----------------------------
+-- Table structure for system_notify_broadcast_read
+-- ----------------------------
+DROP TABLE IF EXISTS system_notify_broadcast_read;
+CREATE TABLE system_notify_broadcast_read
+(
+    id                int8        NOT NULL,
+    user_id           int8        NOT NULL,
+    user_type         int2        NOT NULL,
+    read_broadcast_id int8        NOT NULL,
+    creator           varchar(64) NULL     DEFAULT '',
+    create_time       timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updater           varchar(64) NULL     DEFAULT '',
+    update_time       timestamp   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted           int2        NOT NULL DEFAULT 0,
+    tenant_id         int8        NOT NULL DEFAULT 0
+);
+
+ALTER TABLE system_notify_broadcast_read
+    ADD CONSTRAINT pk_system_notify_broadcast_read PRIMARY KEY (id);
+
+CREATE UNIQUE INDEX uk_system_notify_broadcast_read_01 ON system_notify_broadcast_read (user_id, user_type, tenant_id);
+
+COMMENT ON COLUMN system_notify_broadcast_read.id IS '编号';
+COMMENT ON COLUMN system_notify_broadcast_read.user_id IS '用户编号';
+COMMENT ON COLUMN system_notify_broadcast_read.user_type IS '用户类型';
+COMMENT ON COLUMN system_notify_broadcast_read.read_broadcast_id IS '已读到的广播编号';
+COMMENT ON COLUMN system_notify_broadcast_read.creator IS '创建者';
+COMMENT ON COLUMN system_notify_broadcast_read.create_time IS '创建时间';
+COMMENT ON COLUMN system_notify_broadcast_read.updater IS '更新者';
+COMMENT ON COLUMN system_notify_broadcast_read.update_time IS '更新时间';
+COMMENT ON COLUMN system_notify_broadcast_read.deleted IS '是否删除';
+COMMENT ON COLUMN system_notify_broadcast_read.tenant_id IS '租户编号';
+COMMENT ON TABLE system_notify_broadcast_read IS '站内信广播已读水位表';
+
+DROP SEQUENCE IF EXISTS system_notify_broadcast_read_seq;
+CREATE SEQUENCE system_notify_broadcast_read_seq
+    START 1;
+
 -- ----------------------------
 -- Table structure for system_notify_message
 -- ----------------------------
@@ -3929,6 +4017,8 @@ CREATE TABLE system_sms_log
 ALTER TABLE system_sms_log
     ADD CONSTRAINT pk_system_sms_log PRIMARY KEY (id);
 
+CREATE INDEX idx_system_sms_log_01 ON system_sms_log (api_serial_no);
+
 COMMENT ON COLUMN system_sms_log.id IS '编号';
 COMMENT ON COLUMN system_sms_log.channel_id IS '短信渠道编号';
 COMMENT ON COLUMN system_sms_log.channel_code IS '短信渠道编码';
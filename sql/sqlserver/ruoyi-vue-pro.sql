@@ -1179,7 +1179,7 @@ CREATE TABLE infra_file
     path        nvarchar(512)                           NOT NULL,
     url         nvarchar(1024)                          NOT NULL,
     type        nvarchar(128) DEFAULT NULL              NULL,
-    size        int                                     NOT NULL,
+    size        bigint                                  NOT NULL,
     creator     nvarchar(64)  DEFAULT ''                NULL,
     create_time datetime2     DEFAULT CURRENT_TIMESTAMP NOT NULL,
     updater     nvarchar(64)  DEFAULT ''                NULL,
@@ -5620,6 +5620,249 @@ COMMIT
 GO
 -- @formatter:on
 
+-- ----------------------------
+-- Table structure for system_notify_broadcast
+-- ----------------------------
+DROP TABLE IF EXISTS system_notify_broadcast
+GO
+CREATE TABLE system_notify_broadcast
+(
+    id                bigint         NOT NULL PRIMARY KEY IDENTITY,
+    user_type         tinyint        NOT NULL,
+    audience_type     tinyint        NOT NULL,
+    audience_ids      nvarchar(1024) DEFAULT NULL              NULL,
+    template_id       bigint         NOT NULL,
+    template_code     nvarchar(64)   NOT NULL,
+    template_nickname nvarchar(63)   NOT NULL,
+    template_content  nvarchar(1024) NOT NULL,
+    template_type     int            NOT NULL,
+    template_params   nvarchar(255)  NOT NULL,
+    creator           nvarchar(64)   DEFAULT ''                NULL,
+    create_time       datetime2      DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updater           nvarchar(64)   DEFAULT ''                NULL,
+    update_time       datetime2      DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    deleted           bit            DEFAULT 0                 NOT NULL,
+    tenant_id         bigint         DEFAULT 0                 NOT NULL
+)
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'用户类型',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'user_type'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'受众类型',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'audience_type'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'受众编号数组',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'audience_ids'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模版编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模板编码',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_code'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模版发送人名称',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_nickname'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模版内容',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_content'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模版类型',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_type'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'模版参数',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'template_params'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'创建者',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'creator'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'创建时间',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'create_time'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'更新者',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'updater'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'更新时间',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'update_time'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'是否删除',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'deleted'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'租户编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast',
+     'COLUMN', N'tenant_id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'站内信广播表',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast'
+GO
+
+-- ----------------------------
+-- Table structure for system_notify_broadcast_read
+-- ----------------------------
+DROP TABLE IF EXISTS system_notify_broadcast_read
+GO
+CREATE TABLE system_notify_broadcast_read
+(
+    id                bigint       NOT NULL PRIMARY KEY IDENTITY,
+    user_id           bigint       NOT NULL,
+    user_type         tinyint      NOT NULL,
+    read_broadcast_id bigint       NOT NULL,
+    creator           nvarchar(64) DEFAULT ''                NULL,
+    create_time       datetime2    DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    updater           nvarchar(64) DEFAULT ''                NULL,
+    update_time       datetime2    DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    deleted           bit          DEFAULT 0                 NOT NULL,
+    tenant_id         bigint       DEFAULT 0                 NOT NULL
+)
+GO
+
+CREATE UNIQUE INDEX uk_system_notify_broadcast_read_01 ON system_notify_broadcast_read (user_id, user_type, tenant_id)
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'用户编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'user_id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'用户类型',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'user_type'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'已读到的广播编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'read_broadcast_id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'创建者',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'creator'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'创建时间',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'create_time'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'更新者',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'updater'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'更新时间',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'update_time'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'是否删除',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'deleted'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'租户编号',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read',
+     'COLUMN', N'tenant_id'
+GO
+
+EXEC sp_addextendedproperty
+     'MS_Description', N'站内信广播已读水位表',
+     'SCHEMA', N'dbo',
+     'TABLE', N'system_notify_broadcast_read'
+GO
+
 -- ----------------------------
 -- Table structure for system_notify_message
 -- ----------------------------
@@ -9183,6 +9426,9 @@ CREATE TABLE system_sms_log
 )
 GO
 
+CREATE INDEX idx_system_sms_log_01 ON system_sms_log (api_serial_no)
+GO
+
 EXEC sp_addextendedproperty
      'MS_Description', N'编号',
      'SCHEMA', N'dbo',
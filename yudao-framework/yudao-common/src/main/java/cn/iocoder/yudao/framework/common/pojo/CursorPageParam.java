@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.framework.common.pojo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * 游标分页参数
+ *
+ * 相比 {@link PageParam} 的 LIMIT offset, size 分页，基于上一页最后一条记录的排序字段 + 编号继续查询，
+ * 翻到多深都只扫描 pageSize 条记录，适合日志、订单等数据量大的列表。
+ * 代价是只能逐页往后翻，不支持跳页，此时 pageNo 被忽略
+ *
+ * @author 芋道源码
+ */
+@Schema(description = "游标分页参数")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class CursorPageParam extends PageParam {
+
+    @Schema(description = "游标，使用上一页返回的 nextCursor；为空时，查询第一页", example = "MTAyNA")
+    private String cursor;
+
+    @Schema(description = "是否查询总数，只在第一页生效。默认为 false，不查询", example = "false")
+    private Boolean countEnabled;
+
+}
@@ -0,0 +1,41 @@
+package cn.iocoder.yudao.framework.common.pojo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页结果，和 {@link CursorPageParam} 配合使用
+ *
+ * @author 芋道源码
+ */
+@Schema(description = "游标分页结果")
+@Data
+public final class CursorPageResult<T> implements Serializable {
+
+    @Schema(description = "数据", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<T> list;
+
+    @Schema(description = "下一页的游标，为空时表示没有更多数据", example = "MTAyNA")
+    private String nextCursor;
+
+    @Schema(description = "总量，只有第一页且开启 countEnabled 时返回", example = "1024")
+    private Long total;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(List<T> list, String nextCursor, Long total) {
+        this.list = list;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public static <T> CursorPageResult<T> empty() {
+        return new CursorPageResult<>(new ArrayList<>(), null, null);
+    }
+
+}
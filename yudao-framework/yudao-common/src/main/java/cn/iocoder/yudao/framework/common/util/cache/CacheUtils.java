@@ -1,49 +1,195 @@
 package cn.iocoder.yudao.framework.common.util.cache;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.spring.SpringUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
-import java.util.concurrent.Executors;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
 
 /**
- * Cache 工具类
+ * Cache 工具类，基于 Caffeine 实现（W-TinyLFU 淘汰策略）
+ *
+ * 1. 所有缓存共享一个有界的 {@link #REFRESH_EXECUTOR} 刷新线程池，避免每个缓存创建一个无界线程池
+ * 2. 每个缓存有名字，默认限制 {@link #DEFAULT_MAXIMUM_SIZE} 最大数量，并记录命中、加载、淘汰等统计
+ * 3. 可通过 yudao.cache.local.specs.{name} 配置项，覆盖对应缓存的 Caffeine 规格，例如说：
+ *    yudao.cache.local.specs.tenant-valid=maximumSize=5000,refreshAfterWrite=30s
+ *    注意：配置项在 Spring 容器初始化后才能读取，所以不要在静态初始化中创建缓存，否则只能使用默认规格
+ * 4. 可通过 {@link #addCacheListener(BiConsumer)} 监听缓存的创建，例如说注册到 Micrometer 指标
  *
  * @author 芋道源码
  */
+@Slf4j
 public class CacheUtils {
 
+    /**
+     * 缓存规格的配置项前缀
+     */
+    private static final String SPEC_PROPERTY_PREFIX = "yudao.cache.local.specs.";
+
+    /**
+     * 默认的最大数量
+     */
+    private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 刷新线程池的线程数
+     */
+    private static final int REFRESH_EXECUTOR_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * 刷新线程池的队列大小
+     */
+    private static final int REFRESH_EXECUTOR_QUEUE_CAPACITY = 1000;
+
+    /**
+     * 共享的刷新线程池
+     *
+     * 队列满时，直接拒绝：Caffeine 会放弃本次刷新，继续返回旧值，等下次访问时再触发刷新
+     */
+    private static final ExecutorService REFRESH_EXECUTOR;
+
+    static {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(REFRESH_EXECUTOR_THREADS, REFRESH_EXECUTOR_THREADS,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(REFRESH_EXECUTOR_QUEUE_CAPACITY),
+                new NamedThreadFactory("cache-refresh-", true));
+        executor.allowCoreThreadTimeOut(true);
+        REFRESH_EXECUTOR = executor;
+    }
+
+    /**
+     * 已创建的缓存
+     *
+     * KEY：缓存名字
+     * VALUE：缓存
+     */
+    private static final Map<String, Cache<?, ?>> CACHES = new ConcurrentHashMap<>();
+    /**
+     * 缓存创建的监听器
+     */
+    private static final List<BiConsumer<String, Cache<?, ?>>> LISTENERS = new CopyOnWriteArrayList<>();
+
     /**
      * 构建异步刷新的 LoadingCache 对象
      *
-     * 注意：如果你的缓存和 ThreadLocal 有关系，要么自己处理 ThreadLocal 的传递，要么使用 {@link #buildCache(Duration, CacheLoader)} 方法
+     * 注意：如果你的缓存和 ThreadLocal 有关系，要么自己处理 ThreadLocal 的传递，要么使用 {@link #buildCache(String, Duration, CacheLoader)} 方法
      *
      * 或者简单理解：
-     * 1、和“人”相关的，使用 {@link #buildCache(Duration, CacheLoader)} 方法
+     * 1、和“人”相关的，使用 {@link #buildCache(String, Duration, CacheLoader)} 方法
      * 2、和“全局”、“系统”相关的，使用当前缓存方法
      *
+     * @param name 缓存名字，用于配置项、监控指标
      * @param duration 过期时间
      * @param loader  CacheLoader 对象
      * @return LoadingCache 对象
      */
-    public static <K, V> LoadingCache<K, V> buildAsyncReloadingCache(Duration duration, CacheLoader<K, V> loader) {
-        return CacheBuilder.newBuilder()
-                // 只阻塞当前数据加载线程，其他线程返回旧值
-                .refreshAfterWrite(duration)
-                // 通过 asyncReloading 实现全异步加载，包括 refreshAfterWrite 被阻塞的加载线程
-                .build(CacheLoader.asyncReloading(loader, Executors.newCachedThreadPool())); // TODO 芋艿：可能要思考下，未来要不要做成可配置
+    public static <K, V> LoadingCache<K, V> buildAsyncReloadingCache(String name, Duration duration, CacheLoader<K, V> loader) {
+        // 只阻塞当前数据加载线程，其他线程返回旧值；通过共享的 REFRESH_EXECUTOR 实现异步刷新
+        LoadingCache<K, V> cache = newBuilder(name, duration).executor(REFRESH_EXECUTOR).build(loader);
+        registerCache(name, cache);
+        return cache;
     }
 
     /**
      * 构建同步刷新的 LoadingCache 对象
      *
+     * @param name 缓存名字，用于配置项、监控指标
      * @param duration 过期时间
      * @param loader  CacheLoader 对象
      * @return LoadingCache 对象
      */
-    public static <K, V> LoadingCache<K, V> buildCache(Duration duration, CacheLoader<K, V> loader) {
-        return CacheBuilder.newBuilder().refreshAfterWrite(duration).build(loader);
+    public static <K, V> LoadingCache<K, V> buildCache(String name, Duration duration, CacheLoader<K, V> loader) {
+        // 使用当前线程执行刷新，保证 ThreadLocal 可用
+        LoadingCache<K, V> cache = newBuilder(name, duration).executor(Runnable::run).build(loader);
+        registerCache(name, cache);
+        return cache;
+    }
+
+    /**
+     * 注册缓存，用于自行构建的 Caffeine 缓存，也能被 {@link #addCacheListener(BiConsumer)} 监听到
+     *
+     * 同名的缓存已经存在时（例如说 Bean 被重新创建），替换为新的缓存，避免监控指标仍然指向旧的缓存
+     *
+     * @param name 缓存名字
+     * @param cache 缓存
+     */
+    public static void registerCache(String name, Cache<?, ?> cache) {
+        Cache<?, ?> oldCache = CACHES.put(name, cache);
+        if (oldCache == cache) {
+            return;
+        }
+        if (oldCache != null) {
+            log.warn("[registerCache][缓存({}) 已经存在，替换为新的缓存]", name);
+        }
+        LISTENERS.forEach(listener -> listener.accept(name, cache));
+    }
+
+    /**
+     * 添加缓存创建的监听器。对于已经创建的缓存，也会立即回调
+     *
+     * @param listener 监听器
+     */
+    public static void addCacheListener(BiConsumer<String, Cache<?, ?>> listener) {
+        LISTENERS.add(listener);
+        CACHES.forEach(listener);
+    }
+
+    /**
+     * 移除缓存创建的监听器
+     *
+     * @param listener 监听器
+     */
+    public static void removeCacheListener(BiConsumer<String, Cache<?, ?>> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 获得所有已创建的缓存
+     *
+     * @return 缓存，KEY 为缓存名字
+     */
+    public static Map<String, Cache<?, ?>> getCaches() {
+        return CACHES;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Caffeine<K, V> newBuilder(String name, Duration duration) {
+        // 默认规格
+        Map<String, String> specs = new LinkedHashMap<>();
+        specs.put("maximumSize", String.valueOf(DEFAULT_MAXIMUM_SIZE));
+        specs.put("refreshAfterWrite", duration.getSeconds() + "s");
+        // 配置项覆盖的规格
+        String customSpec = getCustomSpec(name);
+        if (StrUtil.isNotBlank(customSpec)) {
+            for (String item : StrUtil.splitTrim(customSpec, ',')) {
+                specs.put(StrUtil.subBefore(item, '=', false), StrUtil.subAfter(item, '=', false));
+            }
+        }
+        StringBuilder spec = new StringBuilder();
+        specs.forEach((key, value) -> {
+            if (spec.length() > 0) {
+                spec.append(',');
+            }
+            spec.append(StrUtil.isEmpty(value) ? key : key + "=" + value);
+        });
+        return (Caffeine<K, V>) (Caffeine<?, ?>) Caffeine.from(spec.toString()).recordStats();
+    }
+
+    private static String getCustomSpec(String name) {
+        // Spring 容器未初始化，例如说单元测试、静态初始化，使用默认规格即可
+        if (SpringUtils.getApplicationContext() == null) {
+            log.debug("[getCustomSpec][缓存({}) 创建时 Spring 容器未初始化，使用默认规格]", name);
+            return null;
+        }
+        return SpringUtils.getProperty(SPEC_PROPERTY_PREFIX + name);
     }
 
 }
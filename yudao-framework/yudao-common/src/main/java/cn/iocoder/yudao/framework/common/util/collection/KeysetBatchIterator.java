@@ -0,0 +1,82 @@
+package cn.iocoder.yudao.framework.common.util.collection;
+
+import cn.hutool.core.collection.CollUtil;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * 基于 keyset 分页的批量迭代器，适合导出、批处理等需要遍历大量数据的场景
+ *
+ * 每一批使用上一批最后一条记录的 key 作为查询起点（例如说 WHERE id &lt; #{lastKey} ORDER BY id DESC LIMIT #{batchSize}），
+ * 相比 LIMIT offset, size 的分页，不会随着遍历变深而变慢；也不需要像 MyBatis Cursor 那样，在遍历期间一直持有数据库连接
+ *
+ * 注意，key 需要唯一。如果排序字段可能重复，需要使用（排序字段, 编号）组合作为 key，否则批次边界上重复的记录会被跳过
+ *
+ * @param <T> 记录类型
+ * @param <K> key 类型，一般是编号
+ * @author 芋道源码
+ */
+public class KeysetBatchIterator<T, K> implements Iterator<List<T>> {
+
+    /**
+     * 批量查询的逻辑。参数为上一批最后一条记录的 key，第一批为 null
+     */
+    private final Function<K, List<T>> loader;
+    /**
+     * 记录的 key 获取逻辑
+     */
+    private final Function<T, K> keyGetter;
+    /**
+     * 每批数量。返回的记录数小于它时，说明已经是最后一批
+     */
+    private final int batchSize;
+
+    private List<T> next;
+    private K lastKey;
+    private boolean finished;
+
+    public KeysetBatchIterator(Function<K, List<T>> loader, Function<T, K> keyGetter, int batchSize) {
+        this.loader = loader;
+        this.keyGetter = keyGetter;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        List<T> list = loader.apply(lastKey);
+        if (CollUtil.isEmpty(list)) {
+            finished = true;
+            return false;
+        }
+        if (list.size() < batchSize) {
+            finished = true;
+        }
+        K key = keyGetter.apply(CollUtil.getLast(list));
+        if (key == null || key.equals(lastKey)) {
+            throw new IllegalStateException("批量查询没有推进，key(" + key + ") 为空或不唯一");
+        }
+        lastKey = key;
+        next = list;
+        return true;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> result = next;
+        next = null;
+        return result;
+    }
+
+}
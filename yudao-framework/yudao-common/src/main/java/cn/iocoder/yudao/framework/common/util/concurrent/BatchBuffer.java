@@ -0,0 +1,279 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.spring.SpringUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 批量写入的缓冲队列，适合日志等“允许少量丢失、写入量大”的场景
+ *
+ * 1. 生产者通过 {@link #offer(Object)} 写入有界队列，不阻塞；由一个后台线程按照 batchSize 条数、或 flushInterval 时间攒批，交给 writer 批量写入
+ * 2. 队列积压超过 sampleThreshold 比例时，按照 sampleRate 比例采样写入；队列满时，直接丢弃。均会记录丢弃数量
+ * 3. 可通过 yudao.buffer.{name}.{capacity | batch-size | flush-interval | sample-threshold | sample-rate} 配置项，覆盖默认值
+ * 4. 可通过 {@link #addBufferListener(BiConsumer)} 监听缓冲队列的创建，例如说注册到 Micrometer 指标
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class BatchBuffer<T> {
+
+    /**
+     * 配置项前缀
+     */
+    private static final String PROPERTY_PREFIX = "yudao.buffer.";
+
+    private static final int CAPACITY_DEFAULT = 10000;
+    private static final int BATCH_SIZE_DEFAULT = 200;
+    private static final Duration FLUSH_INTERVAL_DEFAULT = Duration.ofSeconds(1);
+    private static final double SAMPLE_THRESHOLD_DEFAULT = 0.8;
+    private static final double SAMPLE_RATE_DEFAULT = 1.0;
+
+    /**
+     * 已创建的缓冲队列
+     */
+    private static final Map<String, BatchBuffer<?>> BUFFERS = new ConcurrentHashMap<>();
+    /**
+     * 缓冲队列创建的监听器
+     */
+    private static final List<BiConsumer<String, BatchBuffer<?>>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * 名字，用于配置项、监控指标
+     */
+    @Getter
+    private final String name;
+    /**
+     * 队列容量
+     */
+    @Getter
+    private final int capacity;
+    /**
+     * 每批最大条数
+     */
+    private final int batchSize;
+    /**
+     * 攒批的最长等待时间
+     */
+    private final Duration flushInterval;
+    /**
+     * 开始采样的积压比例，例如说 0.8 表示积压超过 80% 容量后，开始采样
+     */
+    private final double sampleThreshold;
+    /**
+     * 采样比例，例如说 0.1 表示只保留 10%；1.0 表示不采样，只在队列满时丢弃
+     */
+    private final double sampleRate;
+    /**
+     * 批量写入的逻辑
+     */
+    private final Consumer<List<T>> writer;
+
+    private final BlockingQueue<T> queue;
+    private final Thread flushThread;
+    private volatile boolean running = true;
+
+    /**
+     * 丢弃的数量，包括采样丢弃、队列满丢弃
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+    /**
+     * 写入成功的数量
+     */
+    private final AtomicLong writtenCount = new AtomicLong();
+    /**
+     * 写入失败的数量
+     */
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * 创建缓冲队列，并启动后台写入线程
+     *
+     * @param name 名字，用于配置项、监控指标
+     * @param writer 批量写入的逻辑
+     * @return 缓冲队列
+     */
+    public static <T> BatchBuffer<T> create(String name, Consumer<List<T>> writer) {
+        BatchBuffer<T> buffer = new BatchBuffer<>(name,
+                getIntProperty(name, "capacity", CAPACITY_DEFAULT),
+                getIntProperty(name, "batch-size", BATCH_SIZE_DEFAULT),
+                getDurationProperty(name, "flush-interval", FLUSH_INTERVAL_DEFAULT),
+                getDoubleProperty(name, "sample-threshold", SAMPLE_THRESHOLD_DEFAULT),
+                getDoubleProperty(name, "sample-rate", SAMPLE_RATE_DEFAULT),
+                writer);
+        if (BUFFERS.putIfAbsent(name, buffer) != null) {
+            log.warn("[create][缓冲队列({}) 已经存在，新的缓冲队列不注册监控]", name);
+        } else {
+            LISTENERS.forEach(listener -> listener.accept(name, buffer));
+        }
+        return buffer;
+    }
+
+    public BatchBuffer(String name, int capacity, int batchSize, Duration flushInterval,
+                       double sampleThreshold, double sampleRate, Consumer<List<T>> writer) {
+        this.name = name;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.sampleThreshold = sampleThreshold;
+        this.sampleRate = sampleRate;
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushThread = new Thread(this::run, "batch-buffer-" + name);
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    /**
+     * 写入元素，不阻塞
+     *
+     * @param element 元素
+     * @return 是否写入成功。false 表示被采样或队列满丢弃
+     */
+    public boolean offer(T element) {
+        if (!running) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        // 积压超过阈值，按照比例采样
+        if (sampleRate < 1.0 && queue.size() >= capacity * sampleThreshold
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        // 队列满，直接丢弃
+        if (!queue.offer(element)) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 关闭缓冲队列，等待已积压的元素写入完成
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            flushThread.join(flushInterval.toMillis() * 2 + 5000);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        BUFFERS.remove(name, this);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private void run() {
+        long flushIntervalNanos = flushInterval.toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<T> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                // 攒批：凑满 batchSize，或者超过 flushInterval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException ex) {
+                // 被中断时，停止接收新元素，继续写完已积压的元素
+                running = false;
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        try {
+            writer.accept(batch);
+            writtenCount.addAndGet(batch.size());
+        } catch (Throwable ex) {
+            failedCount.addAndGet(batch.size());
+            log.error("[write][缓冲队列({}) 批量写入({}) 条失败]", name, batch.size(), ex);
+        }
+    }
+
+    // ========== 注册相关 ==========
+
+    /**
+     * 添加缓冲队列创建的监听器。对于已经创建的缓冲队列，也会立即回调
+     *
+     * @param listener 监听器
+     */
+    public static void addBufferListener(BiConsumer<String, BatchBuffer<?>> listener) {
+        LISTENERS.add(listener);
+        BUFFERS.forEach(listener);
+    }
+
+    private static String getProperty(String name, String key) {
+        try {
+            return SpringUtils.getProperty(PROPERTY_PREFIX + name + "." + key);
+        } catch (Exception ex) {
+            // Spring 容器未初始化，例如说单元测试，使用默认值即可
+            return null;
+        }
+    }
+
+    private static int getIntProperty(String name, String key, int defaultValue) {
+        String value = getProperty(name, key);
+        return NumberUtil.isInteger(value) ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static double getDoubleProperty(String name, String key, double defaultValue) {
+        String value = getProperty(name, key);
+        return NumberUtil.isNumber(value) ? Double.parseDouble(value) : defaultValue;
+    }
+
+    private static Duration getDurationProperty(String name, String key, Duration defaultValue) {
+        String value = getProperty(name, key);
+        if (StrUtil.isBlank(value)) {
+            return defaultValue;
+        }
+        // 支持 1000ms、1s 两种格式
+        if (StrUtil.endWithIgnoreCase(value, "ms")) {
+            return Duration.ofMillis(Long.parseLong(StrUtil.removeSuffixIgnoreCase(value, "ms").trim()));
+        }
+        if (StrUtil.endWithIgnoreCase(value, "s")) {
+            return Duration.ofSeconds(Long.parseLong(StrUtil.removeSuffixIgnoreCase(value, "s").trim()));
+        }
+        return Duration.ofMillis(Long.parseLong(value.trim()));
+    }
+
+}
@@ -10,6 +10,7 @@ import lombok.SneakyThrows;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.util.function.Supplier;
 
 /**
  * 文件工具类
@@ -71,14 +72,32 @@ public class FileUtils {
      * @return path，唯一不可重复
      */
     public static String generatePath(byte[] content, String originalName) {
-        String sha256Hex = DigestUtil.sha256Hex(content);
+        return generatePath(DigestUtil.sha256Hex(content), originalName,
+                () -> FileTypeUtil.getType(new ByteArrayInputStream(content)));
+    }
+
+    /**
+     * 生成文件路径，适合大文件
+     *
+     * 文件内容已经落盘，sha256 由调用方在写入时增量计算，避免把整个文件读入内存
+     *
+     * @param sha256Hex    文件内容的 sha256
+     * @param file         文件
+     * @param originalName 原始文件名
+     * @return path，唯一不可重复
+     */
+    public static String generatePath(String sha256Hex, File file, String originalName) {
+        return generatePath(sha256Hex, originalName, () -> FileTypeUtil.getType(file));
+    }
+
+    private static String generatePath(String sha256Hex, String originalName, Supplier<String> typeSupplier) {
         // 情况一：如果存在 name，则优先使用 name 的后缀
         if (StrUtil.isNotBlank(originalName)) {
             String extName = FileNameUtil.extName(originalName);
             return StrUtil.isBlank(extName) ? sha256Hex : sha256Hex + "." + extName;
         }
         // 情况二：基于 content 计算
-        return sha256Hex + '.' + FileTypeUtil.getType(new ByteArrayInputStream(content));
+        return sha256Hex + '.' + typeSupplier.get();
     }
 
 }
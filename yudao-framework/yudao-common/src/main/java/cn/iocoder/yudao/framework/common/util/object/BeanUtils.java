@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.framework.common.util.object;
 
 import cn.hutool.core.bean.BeanUtil;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 
@@ -59,6 +60,13 @@ public class BeanUtils {
         return new PageResult<>(list, source.getTotal());
     }
 
+    public static <S, T> CursorPageResult<T> toBean(CursorPageResult<S> source, Class<T> targetType) {
+        if (source == null) {
+            return null;
+        }
+        return new CursorPageResult<>(toBean(source.getList(), targetType), source.getNextCursor(), source.getTotal());
+    }
+
     public static void copyProperties(Object source, Object target) {
         if (source == null || target == null) {
             return;
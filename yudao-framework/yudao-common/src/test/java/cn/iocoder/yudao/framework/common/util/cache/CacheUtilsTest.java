@@ -0,0 +1,85 @@
+package cn.iocoder.yudao.framework.common.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link CacheUtils} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CacheUtilsTest {
+
+    @Test
+    public void testBuildCache_defaultSpec() {
+        // 调用
+        LoadingCache<String, String> cache = CacheUtils.buildCache("test-default-spec", Duration.ofSeconds(30),
+                key -> key + "-value");
+        // 断言：加载
+        assertEquals("a-value", cache.get("a"));
+        // 断言：默认规格
+        assertEquals(10000L, cache.policy().eviction().orElseThrow(AssertionError::new).getMaximum());
+        assertEquals(Duration.ofSeconds(30), cache.policy().refreshAfterWrite().orElseThrow(AssertionError::new)
+                .getRefreshesAfter());
+        assertTrue(cache.policy().isRecordingStats());
+        // 断言：已注册
+        assertSame(cache, CacheUtils.getCaches().get("test-default-spec"));
+    }
+
+    @Test
+    public void testRegisterCache_replace() {
+        // 准备参数
+        String name = "test-replace";
+        Cache<String, String> oldCache = Caffeine.newBuilder().build();
+        Cache<String, String> newCache = Caffeine.newBuilder().build();
+        List<Cache<?, ?>> notified = new ArrayList<>();
+        BiConsumer<String, Cache<?, ?>> listener = (cacheName, cache) -> {
+            if (name.equals(cacheName)) {
+                notified.add(cache);
+            }
+        };
+        CacheUtils.addCacheListener(listener);
+        try {
+            // 调用
+            CacheUtils.registerCache(name, oldCache);
+            CacheUtils.registerCache(name, oldCache); // 重复注册同一个缓存，不会重复回调
+            CacheUtils.registerCache(name, newCache);
+            // 断言：替换为新的缓存，并回调监听器
+            assertSame(newCache, CacheUtils.getCaches().get(name));
+            assertEquals(2, notified.size());
+            assertSame(oldCache, notified.get(0));
+            assertSame(newCache, notified.get(1));
+        } finally {
+            CacheUtils.removeCacheListener(listener);
+        }
+    }
+
+    @Test
+    public void testAddCacheListener() {
+        // 准备参数：已经创建的缓存
+        String name = "test-listener";
+        Cache<String, String> cache = Caffeine.newBuilder().build();
+        CacheUtils.registerCache(name, cache);
+        List<String> notified = new ArrayList<>();
+        BiConsumer<String, Cache<?, ?>> listener = (cacheName, c) -> notified.add(cacheName);
+
+        // 调用：添加时，立即回调已经创建的缓存
+        CacheUtils.addCacheListener(listener);
+        assertTrue(notified.contains(name));
+        // 调用：移除后，不再回调
+        CacheUtils.removeCacheListener(listener);
+        notified.clear();
+        CacheUtils.registerCache("test-listener-removed", Caffeine.newBuilder().build());
+        assertTrue(notified.isEmpty());
+    }
+
+}
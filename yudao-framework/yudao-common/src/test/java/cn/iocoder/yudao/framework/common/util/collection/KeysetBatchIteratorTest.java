@@ -0,0 +1,133 @@
+package cn.iocoder.yudao.framework.common.util.collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link KeysetBatchIterator} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class KeysetBatchIteratorTest {
+
+    /**
+     * 每次查询的 lastKey
+     */
+    private final List<Object> lastKeys = new ArrayList<>();
+
+    @Test
+    public void testIterator_empty() {
+        // 准备参数
+        KeysetBatchIterator<Long, Long> iterator = new KeysetBatchIterator<>(
+                buildIdLoader(Collections.emptyList(), 3), Function.identity(), 3);
+
+        // 调用，并断言
+        assertFalse(iterator.hasNext());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        // 断言：只查询一次
+        assertEquals(Collections.singletonList(null), lastKeys);
+    }
+
+    @Test
+    public void testIterator_exactPageBoundary() {
+        // 准备参数：记录数恰好是 batchSize 的整数倍
+        KeysetBatchIterator<Long, Long> iterator = new KeysetBatchIterator<>(
+                buildIdLoader(asList(1L, 2L, 3L, 4L, 5L, 6L), 3), Function.identity(), 3);
+
+        // 调用
+        List<List<Long>> batches = readAll(iterator);
+        // 断言：按照编号倒序分批，最后多查询一次空批次
+        assertEquals(asList(asList(6L, 5L, 4L), asList(3L, 2L, 1L)), batches);
+        assertEquals(asList(null, 4L, 1L), lastKeys);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testIterator_lastPageNotFull() {
+        // 准备参数
+        KeysetBatchIterator<Long, Long> iterator = new KeysetBatchIterator<>(
+                buildIdLoader(asList(1L, 2L, 3L, 4L, 5L), 3), Function.identity(), 3);
+
+        // 调用
+        List<List<Long>> batches = readAll(iterator);
+        // 断言：最后一批不满 batchSize，不再查询
+        assertEquals(asList(asList(5L, 4L, 3L), asList(2L, 1L)), batches);
+        assertEquals(asList(null, 3L), lastKeys);
+    }
+
+    @Test
+    public void testIterator_tiesOnKey() {
+        // 准备参数：score 并列的记录，跨越批次边界
+        List<Score> scores = asList(new Score(1L, 100), new Score(2L, 90), new Score(3L, 90),
+                new Score(4L, 90), new Score(5L, 80));
+        Comparator<Score> comparator = Comparator.comparing(Score::getScore).thenComparing(Score::getId).reversed();
+
+        // 调用：使用（score, id）组合作为 key
+        KeysetBatchIterator<Score, Score> iterator = new KeysetBatchIterator<>(lastKey -> scores.stream()
+                .filter(score -> lastKey == null || comparator.compare(score, lastKey) > 0)
+                .sorted(comparator).limit(2).collect(Collectors.toList()), Function.identity(), 2);
+        List<Long> ids = new ArrayList<>();
+        readAll(iterator).forEach(batch -> batch.forEach(score -> ids.add(score.getId())));
+        // 断言：每条记录遍历且只遍历一次
+        assertEquals(asList(1L, 4L, 3L, 2L, 5L), ids);
+
+        // 调用：只使用 score 作为 key
+        KeysetBatchIterator<Score, Integer> scoreIterator = new KeysetBatchIterator<>(lastScore -> scores.stream()
+                .filter(score -> lastScore == null || score.getScore() < lastScore)
+                .sorted(comparator).limit(2).collect(Collectors.toList()), Score::getScore, 2);
+        List<Long> scoreIds = new ArrayList<>();
+        readAll(scoreIterator).forEach(batch -> batch.forEach(score -> scoreIds.add(score.getId())));
+        // 断言：批次边界上并列的记录被跳过，所以 key 需要唯一
+        assertEquals(asList(1L, 4L, 5L), scoreIds);
+    }
+
+    @Test
+    public void testIterator_keyNotProgress() {
+        // 准备参数：查询逻辑忽略 lastKey，每次返回相同的批次
+        KeysetBatchIterator<Long, Long> iterator = new KeysetBatchIterator<>(
+                lastKey -> asList(3L, 2L), Function.identity(), 2);
+
+        // 调用，并断言：第一批正常返回，第二批没有推进，抛出异常而不是死循环
+        assertEquals(asList(3L, 2L), iterator.next());
+        assertThrows(IllegalStateException.class, iterator::hasNext);
+    }
+
+    private Function<Long, List<Long>> buildIdLoader(List<Long> ids, int batchSize) {
+        return lastKey -> {
+            lastKeys.add(lastKey);
+            return ids.stream().filter(id -> lastKey == null || id < lastKey)
+                    .sorted(Comparator.reverseOrder()).limit(batchSize).collect(Collectors.toList());
+        };
+    }
+
+    private static <T> List<List<T>> readAll(KeysetBatchIterator<T, ?> iterator) {
+        List<List<T>> batches = new ArrayList<>();
+        while (iterator.hasNext()) {
+            batches.add(iterator.next());
+        }
+        return batches;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Score {
+
+        private Long id;
+        private Integer score;
+
+    }
+
+}
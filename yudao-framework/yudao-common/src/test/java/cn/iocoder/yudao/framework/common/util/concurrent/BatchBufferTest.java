@@ -0,0 +1,165 @@
+package cn.iocoder.yudao.framework.common.util.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BatchBuffer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class BatchBufferTest {
+
+    /**
+     * 写入的批次
+     */
+    private final BlockingQueue<List<Integer>> batches = new LinkedBlockingQueue<>();
+
+    private final List<BatchBuffer<Integer>> buffers = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        buffers.forEach(BatchBuffer::shutdown);
+    }
+
+    @Test
+    public void testFlush_size() throws InterruptedException {
+        // 准备参数：攒批时间很长，只会因为凑满条数写入
+        BatchBuffer<Integer> buffer = createBuffer(100, 3, Duration.ofSeconds(3), batches::add);
+
+        // 调用
+        asList(1, 2, 3, 4).forEach(buffer::offer);
+        // 断言：凑满 3 条写入，剩余 1 条继续等待
+        assertEquals(asList(1, 2, 3), batches.poll(5, TimeUnit.SECONDS));
+        assertNull(batches.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(3, buffer.getWrittenCount());
+    }
+
+    @Test
+    public void testFlush_interval() throws InterruptedException {
+        // 准备参数：条数很大，只会因为超过攒批时间写入
+        BatchBuffer<Integer> buffer = createBuffer(100, 100, Duration.ofMillis(200), batches::add);
+
+        // 调用
+        long start = System.currentTimeMillis();
+        asList(1, 2).forEach(buffer::offer);
+        // 断言：超过攒批时间后写入
+        assertEquals(asList(1, 2), batches.poll(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start >= 150);
+    }
+
+    @Test
+    public void testOffer_full() throws InterruptedException {
+        // 准备参数：写入阻塞，使得队列积压
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchBuffer<Integer> buffer = createBuffer(2, 1, Duration.ofMillis(100), batch -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(batch);
+        });
+        assertTrue(buffer.offer(1));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // 调用：队列容量为 2，第 3 条被丢弃
+        assertTrue(buffer.offer(2));
+        assertTrue(buffer.offer(3));
+        assertFalse(buffer.offer(4));
+        // 断言
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals(2, buffer.getQueueSize());
+        // 断言：写入恢复后，积压的元素都被写入
+        release.countDown();
+        assertEquals(asList(1), batches.poll(5, TimeUnit.SECONDS));
+        assertEquals(asList(2), batches.poll(5, TimeUnit.SECONDS));
+        assertEquals(asList(3), batches.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOffer_sample() {
+        // 准备参数：一开始就采样，且采样比例为 0，即全部丢弃
+        BatchBuffer<Integer> buffer = new BatchBuffer<>("test-sample", 100, 10, Duration.ofMillis(100),
+                0.0, 0.0, batches::add);
+        buffers.add(buffer);
+
+        // 调用，并断言
+        assertFalse(buffer.offer(1));
+        assertFalse(buffer.offer(2));
+        assertEquals(2, buffer.getDroppedCount());
+        assertEquals(0, buffer.getQueueSize());
+    }
+
+    @Test
+    public void testShutdown_drain() throws InterruptedException {
+        // 准备参数：写入较慢，关闭时仍有积压
+        BatchBuffer<Integer> buffer = createBuffer(1000, 10, Duration.ofMillis(200), batch -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(batch);
+        });
+        for (int i = 0; i < 100; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // 调用
+        buffer.shutdown();
+        // 断言：关闭前积压的元素，都写入完成
+        assertEquals(100, buffer.getWrittenCount());
+        assertEquals(0, buffer.getQueueSize());
+        List<Integer> written = new ArrayList<>();
+        batches.forEach(written::addAll);
+        assertEquals(100, written.size());
+        // 断言：关闭后，不再接收新元素
+        assertFalse(buffer.offer(100));
+        assertEquals(1, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testWrite_failure() throws InterruptedException {
+        // 准备参数：第一批写入失败
+        CountDownLatch failed = new CountDownLatch(1);
+        BatchBuffer<Integer> buffer = createBuffer(100, 2, Duration.ofMillis(100), batch -> {
+            if (batch.contains(1)) {
+                failed.countDown();
+                throw new IllegalStateException("写入失败");
+            }
+            batches.add(batch);
+        });
+
+        // 调用
+        asList(1, 2).forEach(buffer::offer);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        asList(3, 4).forEach(buffer::offer);
+        // 断言：失败不影响后续写入
+        assertEquals(asList(3, 4), batches.poll(5, TimeUnit.SECONDS));
+        assertEquals(2, buffer.getFailedCount());
+    }
+
+    private BatchBuffer<Integer> createBuffer(int capacity, int batchSize, Duration flushInterval,
+                                              Consumer<List<Integer>> writer) {
+        BatchBuffer<Integer> buffer = new BatchBuffer<>("test", capacity, batchSize, flushInterval,
+                0.8, 1.0, writer);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+}
@@ -32,9 +32,9 @@ public class YudaoDataPermissionAutoConfiguration {
         // 创建 DataPermissionInterceptor 拦截器
         DataPermissionRuleHandler handler = new DataPermissionRuleHandler(ruleFactory);
         DataPermissionInterceptor inner = new DataPermissionInterceptor(handler);
-        // 添加到 interceptor 中
-        // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
-        MyBatisUtils.addInterceptor(interceptor, inner, 0);
+        // 添加到 interceptor 中，由 SqlRewriteCacheInnerInterceptor 缓存改写后的 SQL 模板
+        // 生效的数据权限规则，会影响改写的结构，所以作为缓存 KEY 的一部分
+        MyBatisUtils.addRewriteInterceptor(interceptor, inner, ruleFactory::getDataPermissionRule);
         return handler;
     }
 
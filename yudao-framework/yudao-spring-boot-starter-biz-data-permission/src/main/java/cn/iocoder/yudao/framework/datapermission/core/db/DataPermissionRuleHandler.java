@@ -3,9 +3,11 @@ package cn.iocoder.yudao.framework.datapermission.core.db;
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactory;
+import cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteContextHolder;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.extension.plugins.handler.MultiDataPermissionHandler;
 import lombok.RequiredArgsConstructor;
+import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.schema.Table;
@@ -33,17 +35,33 @@ public class DataPermissionRuleHandler implements MultiDataPermissionHandler {
             return null;
         }
 
+        // 录制 SQL 模板时，拼接占位符，执行时再根据当前用户生成条件
+        if (SqlRewriteContextHolder.isRecording()) {
+            String tableName = MyBatisUtils.getTableName(table);
+            if (rules.stream().noneMatch(rule -> rule.getTableNames().contains(tableName))) {
+                return null;
+            }
+            Alias tableAlias = table.getAlias();
+            return SqlRewriteContextHolder.addSlot(() -> {
+                Expression expression = buildExpression(rules, tableName, tableAlias);
+                // 规则未生成条件时（例如说，全部数据权限），使用恒真条件占位
+                return expression == null ? "1 = 1" : expression.toString();
+            });
+        }
+        return buildExpression(rules, MyBatisUtils.getTableName(table), table.getAlias());
+    }
+
+    private static Expression buildExpression(List<DataPermissionRule> rules, String tableName, Alias tableAlias) {
         // 生成条件
         Expression allExpression = null;
         for (DataPermissionRule rule : rules) {
             // 判断表名是否匹配
-            String tableName = MyBatisUtils.getTableName(table);
             if (!rule.getTableNames().contains(tableName)) {
                 continue;
             }
 
             // 单条规则的条件
-            Expression oneExpress = rule.getExpression(tableName, table.getAlias());
+            Expression oneExpress = rule.getExpression(tableName, tableAlias);
             if (oneExpress == null) {
                 continue;
             }
@@ -3,7 +3,9 @@ package cn.iocoder.yudao.framework.datapermission.core.rule.dept;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
@@ -14,7 +16,10 @@ import cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils;
 import cn.iocoder.yudao.module.system.api.permission.PermissionApi;
 import cn.iocoder.yudao.module.system.api.permission.dto.DeptDataPermissionRespDTO;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jsqlparser.expression.*;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
@@ -23,10 +28,8 @@ import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.time.Duration;
+import java.util.*;
 
 /**
  * 基于部门的 {@link DataPermissionRule} 数据权限规则实现
@@ -43,9 +46,13 @@ import java.util.Set;
  *  3）想要保证原 dept_id 和 user_id 都可以看的到，此时使用 dept_id 和 user_id 一起过滤；
  *      最终过滤条件是 WHERE dept_id = ? OR user_id IN (?, ?, ? ...)
  *
+ * 性能上，部门编号较多时，每次 SQL 都构建 dept_id IN (?, ?, ? ...) 条件的开销较大，所以使用 {@link #deptExpressionCache} 缓存：
+ * 1. 缓存 KEY 是用户编号 + 部门版本 + 表名 + 别名。部门版本是部门编号集合的摘要，每个请求只计算一次，
+ *    之后每条 SQL 查询缓存都是 O(1)；角色的数据范围变更后，自然对应新的版本，无需主动失效；旧的条件，由过期时间兜底淘汰
+ * 2. 缓存的是不可变的 IN 值列表，每次返回新的 InExpression，避免某条 SQL 修改条件，影响其它并发复用的 SQL
+ *
  * @author 芋道源码
  */
-@AllArgsConstructor
 @Slf4j
 public class DeptDataPermissionRule implements DataPermissionRule {
 
@@ -53,14 +60,39 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      * LoginUser 的 Context 缓存 Key
      */
     protected static final String CONTEXT_KEY = DeptDataPermissionRule.class.getSimpleName();
+    /**
+     * 部门版本的 Context 缓存 Key
+     */
+    protected static final String CONTEXT_KEY_DEPT_VERSION = CONTEXT_KEY + ".deptVersion";
 
     private static final String DEPT_COLUMN_NAME = "dept_id";
     private static final String USER_COLUMN_NAME = "user_id";
 
     static final Expression EXPRESSION_NULL = new NullValue();
 
+    /**
+     * 部门条件缓存的最大数量
+     */
+    private static final long DEPT_EXPRESSION_CACHE_MAXIMUM_SIZE = 1000;
+    /**
+     * 部门条件缓存的过期时间（基于访问）
+     */
+    private static final Duration DEPT_EXPRESSION_CACHE_EXPIRE = Duration.ofMinutes(10);
+
     private final PermissionApi permissionApi;
 
+    /**
+     * 部门条件的缓存
+     *
+     * KEY：用户编号 + 部门版本 + 表名 + 别名
+     * VALUE：dept_id IN (?, ?, ? ...) 条件的值列表，不可变
+     */
+    private final Cache<DeptExpressionKey, List<LongValue>> deptExpressionCache = Caffeine.newBuilder()
+            .maximumSize(DEPT_EXPRESSION_CACHE_MAXIMUM_SIZE)
+            .expireAfterAccess(DEPT_EXPRESSION_CACHE_EXPIRE)
+            .recordStats()
+            .build();
+
     /**
      * 基于部门的表字段配置
      * 一般情况下，每个表的部门编号字段是 dept_id，通过该配置自定义。
@@ -82,6 +114,11 @@ public class DeptDataPermissionRule implements DataPermissionRule {
      */
     private final Set<String> TABLE_NAMES = new HashSet<>();
 
+    public DeptDataPermissionRule(PermissionApi permissionApi) {
+        this.permissionApi = permissionApi;
+        CacheUtils.registerCache("data-permission-dept-expression", deptExpressionCache);
+    }
+
     @Override
     public Set<String> getTableNames() {
         return TABLE_NAMES;
@@ -125,7 +162,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         }
 
         // 情况三，拼接 Dept 和 User 的条件，最后组合
-        Expression deptExpression = buildDeptExpression(tableName,tableAlias, deptDataPermission.getDeptIds());
+        Expression deptExpression = buildDeptExpression(tableName, tableAlias, loginUser, deptDataPermission.getDeptIds());
         Expression userExpression = buildUserExpression(tableName, tableAlias, deptDataPermission.getSelf(), loginUser.getId());
         if (deptExpression == null && userExpression == null) {
             // TODO 芋艿：获得不到条件的时候，暂时不抛出异常，而是不返回数据
@@ -145,7 +182,7 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         return new ParenthesedExpressionList(new OrExpression(deptExpression, userExpression));
     }
 
-    private Expression buildDeptExpression(String tableName, Alias tableAlias, Set<Long> deptIds) {
+    private Expression buildDeptExpression(String tableName, Alias tableAlias, LoginUser loginUser, Set<Long> deptIds) {
         // 如果不存在配置，则无需作为条件
         String columnName = deptColumns.get(tableName);
         if (StrUtil.isEmpty(columnName)) {
@@ -155,10 +192,31 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         if (CollUtil.isEmpty(deptIds)) {
             return null;
         }
-        // 拼接条件
+        // 优先从缓存中获取；获取不到，则构建不可变的值列表，并写入缓存
+        String aliasName = tableAlias != null ? tableAlias.getName() : null;
+        List<LongValue> values = deptExpressionCache.get(new DeptExpressionKey(loginUser.getId(),
+                getDeptVersion(loginUser, deptIds), tableName, aliasName),
+                key -> Collections.unmodifiableList(CollectionUtils.convertList(deptIds, ImmutableLongValue::new)));
+        // 拼接条件：每次新建 InExpression，只共享不可变的值
         return new InExpression(MyBatisUtils.buildColumn(tableName, tableAlias, columnName),
                 // Parenthesis 的目的，是提供 (1,2,3) 的 () 左右括号
-                new ParenthesedExpressionList(new ExpressionList<LongValue>(CollectionUtils.convertList(deptIds, LongValue::new))));
+                new ParenthesedExpressionList(new ExpressionList<LongValue>(values)));
+    }
+
+    /**
+     * 获得部门版本，即部门编号集合的摘要。每个请求只计算一次，缓存到 LoginUser 的上下文中
+     *
+     * @param loginUser 登录用户
+     * @param deptIds 部门编号集合
+     * @return 部门版本
+     */
+    private static String getDeptVersion(LoginUser loginUser, Set<Long> deptIds) {
+        String deptVersion = loginUser.getContext(CONTEXT_KEY_DEPT_VERSION, String.class);
+        if (deptVersion == null) {
+            deptVersion = DigestUtil.md5Hex(StrUtil.join(",", new TreeSet<>(deptIds)));
+            loginUser.setContext(CONTEXT_KEY_DEPT_VERSION, deptVersion);
+        }
+        return deptVersion;
     }
 
     private Expression buildUserExpression(String tableName, Alias tableAlias, Boolean self, Long userId) {
@@ -204,4 +262,39 @@ public class DeptDataPermissionRule implements DataPermissionRule {
         TABLE_NAMES.add(tableName);
     }
 
+    /**
+     * {@link #deptExpressionCache} 的 KEY
+     */
+    @Data
+    @AllArgsConstructor
+    private static class DeptExpressionKey {
+
+        private final Long userId;
+        private final String deptVersion;
+        private final String tableName;
+        private final String aliasName;
+
+    }
+
+    /**
+     * 不可变的 {@link LongValue}，用于 {@link #deptExpressionCache} 中被多个 SQL 共享的值
+     */
+    private static class ImmutableLongValue extends LongValue {
+
+        ImmutableLongValue(long value) {
+            super(value);
+        }
+
+        @Override
+        public void setValue(long value) {
+            throw new UnsupportedOperationException("缓存的部门编号不允许修改");
+        }
+
+        @Override
+        public void setStringValue(String string) {
+            throw new UnsupportedOperationException("缓存的部门编号不允许修改");
+        }
+
+    }
+
 }
@@ -0,0 +1,259 @@
+package cn.iocoder.yudao.framework.datapermission.core.db;
+
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRule;
+import cn.iocoder.yudao.framework.datapermission.core.rule.DataPermissionRuleFactory;
+import cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteCacheInnerInterceptor;
+import cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteContextHolder;
+import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.schema.Column;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link DataPermissionRuleHandler} 配合 {@link SqlRewriteCacheInnerInterceptor} 缓存 SQL 模板的单元测试
+ *
+ * @author 芋道源码
+ */
+public class DataPermissionSqlRewriteCacheTest extends BaseMockitoUnitTest {
+
+    private static final String MAPPED_STATEMENT_ID = "cn.iocoder.yudao.module.crm.dal.mysql.customer.CrmCustomerMapper.selectPage";
+
+    private static final String TRADE_ORDER_SQL = "SELECT o.id, o.no, o.pay_price, i.spu_name FROM trade_order o"
+            + " LEFT JOIN trade_order_item i ON o.id = i.order_id WHERE o.user_id = ? AND o.status IN (?, ?)"
+            + " ORDER BY o.id DESC LIMIT ?";
+    private static final String CRM_CUSTOMER_SQL = "SELECT * FROM crm_customer WHERE (name LIKE ? OR mobile = ?)"
+            + " AND deal_status = ? AND id IN (SELECT biz_id FROM crm_permission WHERE user_id = ?)";
+    private static final String CRM_CUSTOMER_UPDATE_SQL = "UPDATE crm_customer SET deal_status = ? WHERE id = ?";
+    private static final String CRM_CUSTOMER_INSERT_SQL = "INSERT INTO crm_customer (name, dept_id) VALUES (?, ?)";
+
+    @InjectMocks
+    private DataPermissionRuleHandler handler;
+
+    @Mock
+    private DataPermissionRuleFactory ruleFactory;
+
+    private TenantLineInnerInterceptor tenantInterceptor;
+    private DataPermissionInterceptor dataPermissionInterceptor;
+    private SqlRewriteCacheInnerInterceptor rewriteInterceptor;
+
+    /**
+     * 当前的租户编号，模拟 TenantContextHolder
+     */
+    private Long tenantId;
+    /**
+     * 当前可查看的部门编号，模拟 DeptDataPermissionRule；为空时，表示全部数据权限
+     */
+    private List<Long> deptIds;
+
+    @BeforeEach
+    public void setUp() {
+        // 多租户的拦截器，与 TenantDatabaseInterceptor 一致：录制时拼接占位符
+        tenantInterceptor = new TenantLineInnerInterceptor(new TenantLineHandler() {
+
+            @Override
+            public Expression getTenantId() {
+                if (SqlRewriteContextHolder.isRecording()) {
+                    return SqlRewriteContextHolder.addSlot(() -> String.valueOf(tenantId));
+                }
+                return new LongValue(tenantId);
+            }
+
+            @Override
+            public boolean ignoreTable(String tableName) {
+                return false;
+            }
+
+        });
+        // 数据权限的拦截器
+        dataPermissionInterceptor = new DataPermissionInterceptor(handler);
+        DataPermissionRule deptRule = new DataPermissionRule() {
+
+            @Override
+            public Set<String> getTableNames() {
+                return asSet("trade_order", "crm_customer");
+            }
+
+            @Override
+            public Expression getExpression(String tableName, Alias tableAlias) {
+                if (deptIds == null) {
+                    return null;
+                }
+                Column column = MyBatisUtils.buildColumn(tableName, tableAlias, "dept_id");
+                ExpressionList<LongValue> values = new ExpressionList<>(convertList(deptIds, LongValue::new));
+                return new InExpression(column, new ParenthesedExpressionList((values)));
+            }
+
+        };
+        when(ruleFactory.getDataPermissionRule(any())).thenReturn(Collections.singletonList(deptRule));
+        // 包装到带缓存的拦截器中
+        rewriteInterceptor = new SqlRewriteCacheInnerInterceptor();
+        rewriteInterceptor.addInterceptor(dataPermissionInterceptor, ruleFactory::getDataPermissionRule);
+        rewriteInterceptor.addInterceptor(tenantInterceptor, mappedStatementId -> false);
+    }
+
+    @Test
+    public void testRewrite_bindCurrentContext() throws SQLException {
+        AtomicInteger parseCount = new AtomicInteger();
+        for (String sql : asList(TRADE_ORDER_SQL, CRM_CUSTOMER_SQL)) {
+            for (Long currentTenantId : asList(1L, 2L, 3L)) {
+                tenantId = currentTenantId;
+                deptIds = asList(currentTenantId * 10, currentTenantId * 10 + 1);
+                // 调用
+                String cachedSql = rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, sql, originSql -> {
+                    parseCount.incrementAndGet();
+                    return parse(originSql);
+                });
+                // 断言：和直接改写的结果一致
+                assertEquals(parse(sql), cachedSql);
+            }
+        }
+        // 断言：每条 SQL 只解析一次
+        assertEquals(2, parseCount.get());
+    }
+
+    @Test
+    public void testRewrite_ruleWithoutExpression() throws SQLException {
+        // 准备参数：先以有部门数据权限的用户，录制模板
+        tenantId = 1L;
+        deptIds = asList(10L, 20L);
+        rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, CRM_CUSTOMER_SQL, this::parse);
+        // 准备参数：切换到全部数据权限的用户
+        deptIds = null;
+
+        // 调用
+        String cachedSql = rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, CRM_CUSTOMER_SQL, this::parse);
+        // 断言：数据权限的条件，被替换成恒真条件
+        assertFalse(cachedSql.contains("dept_id"));
+        assertTrue(cachedSql.contains("AND 1 = 1"));
+        assertTrue(cachedSql.contains("tenant_id = 1"));
+    }
+
+    @Test
+    public void testBeforePrepare_update() throws SQLException {
+        // 准备参数：先以相同的 MappedStatement 编号，录制 SELECT 的模板
+        tenantId = 1L;
+        deptIds = asList(10L, 11L);
+        rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, CRM_CUSTOMER_SQL, this::parse);
+
+        for (Long currentTenantId : asList(1L, 2L, 3L)) {
+            tenantId = currentTenantId;
+            deptIds = asList(currentTenantId * 10, currentTenantId * 10 + 1);
+            StatementHandler sh = buildStatementHandler(SqlCommandType.UPDATE, CRM_CUSTOMER_UPDATE_SQL);
+            // 调用
+            rewriteInterceptor.beforePrepare(sh, null, null);
+            // 断言：不复用 SELECT 的模板，且和直接改写的结果一致
+            String expectedSql = dataPermissionInterceptor.parserMulti(
+                    tenantInterceptor.parserMulti(CRM_CUSTOMER_UPDATE_SQL, null), MAPPED_STATEMENT_ID);
+            assertEquals(expectedSql, sh.getBoundSql().getSql());
+            assertTrue(expectedSql.startsWith("UPDATE crm_customer"));
+            assertTrue(expectedSql.contains("tenant_id = " + currentTenantId));
+            assertTrue(expectedSql.contains("dept_id IN (" + currentTenantId * 10));
+        }
+
+        // 调用：SELECT 已经在 beforeQuery 中改写，beforePrepare 不处理
+        StatementHandler sh = buildStatementHandler(SqlCommandType.SELECT, CRM_CUSTOMER_SQL);
+        rewriteInterceptor.beforePrepare(sh, null, null);
+        // 断言
+        assertEquals(CRM_CUSTOMER_SQL, sh.getBoundSql().getSql());
+    }
+
+    @Test
+    public void testBeforePrepare_insert() {
+        for (Long currentTenantId : asList(1L, 2L)) {
+            tenantId = currentTenantId;
+            deptIds = asList(10L, 11L);
+            StatementHandler sh = buildStatementHandler(SqlCommandType.INSERT, CRM_CUSTOMER_INSERT_SQL);
+            // 调用
+            rewriteInterceptor.beforePrepare(sh, null, null);
+            // 断言：INSERT 只追加租户编号，绑定当前的租户
+            String expectedSql = tenantInterceptor.parserMulti(CRM_CUSTOMER_INSERT_SQL, null);
+            assertEquals(expectedSql, sh.getBoundSql().getSql());
+            assertTrue(expectedSql.contains("tenant_id"));
+            assertTrue(expectedSql.endsWith(", " + currentTenantId + ")"));
+        }
+    }
+
+    /**
+     * 对比直接解析改写、与缓存模板改写的耗时
+     *
+     * 仓库未引入 JMH，所以使用 JUnit 简单对比，默认不执行
+     */
+    @Test
+    @Disabled
+    public void benchmark() throws SQLException {
+        tenantId = 1L;
+        deptIds = asList(10L, 20L);
+        int warmup = 10000;
+        int count = 100000;
+        for (String sql : asList(TRADE_ORDER_SQL, CRM_CUSTOMER_SQL)) {
+            for (int i = 0; i < warmup; i++) {
+                parse(sql);
+                rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, sql, this::parse);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                parse(sql);
+            }
+            long parseTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                rewriteInterceptor.rewrite(MAPPED_STATEMENT_ID, sql, this::parse);
+            }
+            long cacheTime = System.nanoTime() - start;
+            System.out.printf("[benchmark][%s] 直接解析 %d ns/op，缓存模板 %d ns/op%n",
+                    sql.substring(0, 40), parseTime / count, cacheTime / count);
+        }
+    }
+
+    private static StatementHandler buildStatementHandler(SqlCommandType sqlCommandType, String sql) {
+        Configuration configuration = new Configuration();
+        MappedStatement ms = new MappedStatement.Builder(configuration, MAPPED_STATEMENT_ID,
+                new StaticSqlSource(configuration, sql), sqlCommandType).build();
+        BoundSql boundSql = new BoundSql(configuration, sql, Collections.emptyList(), null);
+        return new RoutingStatementHandler(mock(Executor.class), ms, null, RowBounds.DEFAULT, null, boundSql);
+    }
+
+    /**
+     * 依次执行多租户、数据权限的改写，与拦截器链的顺序一致
+     */
+    private String parse(String sql) {
+        return dataPermissionInterceptor.parserSingle(tenantInterceptor.parserSingle(sql, null), MAPPED_STATEMENT_ID);
+    }
+
+}
@@ -11,6 +11,9 @@ import cn.iocoder.yudao.module.system.api.permission.PermissionApi;
 import cn.iocoder.yudao.module.system.api.permission.dto.DeptDataPermissionRespDTO;
 import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -235,4 +238,61 @@ class DeptDataPermissionRuleTest extends BaseMockitoUnitTest {
         }
     }
 
+    @Test // 部门条件命中缓存
+    @SuppressWarnings("unchecked")
+    public void testGetExpression_deptExpressionCache() {
+        try (MockedStatic<SecurityFrameworkUtils> securityFrameworkUtilsMock
+                     = mockStatic(SecurityFrameworkUtils.class)) {
+            // 准备参数
+            String tableName = "t_user";
+            Alias tableAlias = new Alias("u");
+            // mock 方法（LoginUser）
+            LoginUser loginUser = randomPojo(LoginUser.class, o -> o.setId(1L)
+                    .setUserType(UserTypeEnum.ADMIN.getValue()));
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUser).thenReturn(loginUser);
+            // mock 方法（DeptDataPermissionRespDTO）
+            DeptDataPermissionRespDTO deptDataPermission = new DeptDataPermissionRespDTO()
+                    .setDeptIds(CollUtil.newLinkedHashSet(10L, 20L));
+            when(permissionApi.getDeptDataPermission(same(1L))).thenReturn(deptDataPermission);
+            // 添加 dept 字段配置
+            rule.addDeptColumn("t_user", "dept_id");
+
+            // 调用
+            Expression expression01 = rule.getExpression(tableName, tableAlias);
+            Expression expression02 = rule.getExpression(tableName, tableAlias);
+            // 断言：相同部门版本，复用缓存的值，但每次返回新的条件
+            assertEquals("u.dept_id IN (10, 20)", expression01.toString());
+            assertEquals(expression01.toString(), expression02.toString());
+            assertNotSame(expression01, expression02);
+            ExpressionList<?> values01 = getInValues(expression01);
+            ExpressionList<?> values02 = getInValues(expression02);
+            assertNotSame(values01, values02);
+            assertSame(values01.get(0), values02.get(0));
+            assertNotNull(loginUser.getContext(DeptDataPermissionRule.CONTEXT_KEY_DEPT_VERSION, String.class));
+
+            // 调用：修改返回的条件（例如说，其它拦截器改写 SQL）
+            assertThrows(UnsupportedOperationException.class, () -> ((LongValue) values01.get(0)).setValue(99L));
+            ((ExpressionList<Expression>) values01).add(new LongValue(99L));
+            Expression expression03 = rule.getExpression(tableName, tableAlias);
+            // 断言：不影响后续的条件
+            assertEquals("u.dept_id IN (10, 20)", expression03.toString());
+
+            // 调用：部门编号变化（例如说，角色的数据范围变更），下一个请求重新获取 LoginUser
+            LoginUser loginUser02 = randomPojo(LoginUser.class, o -> o.setId(1L)
+                    .setUserType(UserTypeEnum.ADMIN.getValue()));
+            securityFrameworkUtilsMock.when(SecurityFrameworkUtils::getLoginUser).thenReturn(loginUser02);
+            when(permissionApi.getDeptDataPermission(same(1L))).thenReturn(new DeptDataPermissionRespDTO()
+                    .setDeptIds(CollUtil.newLinkedHashSet(10L, 30L)));
+            Expression expression04 = rule.getExpression(tableName, tableAlias);
+            // 断言：新的部门版本，构建新的条件
+            assertEquals("u.dept_id IN (10, 30)", expression04.toString());
+            assertNotEquals(loginUser.getContext(DeptDataPermissionRule.CONTEXT_KEY_DEPT_VERSION, String.class),
+                    loginUser02.getContext(DeptDataPermissionRule.CONTEXT_KEY_DEPT_VERSION, String.class));
+        }
+    }
+
+    private static ExpressionList<?> getInValues(Expression expression) {
+        return (ExpressionList<?>) ((InExpression) expression).getRightExpression();
+    }
+
 }
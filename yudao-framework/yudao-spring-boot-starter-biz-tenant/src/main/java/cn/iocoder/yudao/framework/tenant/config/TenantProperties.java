@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.tenant.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Set;
 
@@ -46,4 +47,28 @@ public class TenantProperties {
      */
     private Set<String> ignoreCaches = Collections.emptySet();
 
+    /**
+     * 多租户 Job 的配置
+     */
+    private Job job = new Job();
+
+    @Data
+    public static class Job {
+
+        /**
+         * 并行执行的租户数量
+         *
+         * 超时被中断的租户，要等它的线程真正退出后，才会让出并行数量
+         */
+        private Integer parallelism = 8;
+
+        /**
+         * 每个租户的执行超时时间
+         *
+         * 超时后，中断该租户的执行，并记录为超时
+         */
+        private Duration timeout = Duration.ofMinutes(10);
+
+    }
+
 }
@@ -4,8 +4,10 @@ import cn.iocoder.yudao.framework.common.enums.WebFilterOrderEnum;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import cn.iocoder.yudao.framework.redis.config.YudaoCacheProperties;
 import cn.iocoder.yudao.framework.tenant.core.aop.TenantIgnoreAspect;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.tenant.core.db.TenantDatabaseInterceptor;
 import cn.iocoder.yudao.framework.tenant.core.job.TenantJobAspect;
+import cn.iocoder.yudao.framework.tenant.core.job.TenantJobExecutor;
 import cn.iocoder.yudao.framework.tenant.core.mq.rabbitmq.TenantRabbitMQInitializer;
 import cn.iocoder.yudao.framework.tenant.core.mq.redis.TenantRedisMessageInterceptor;
 import cn.iocoder.yudao.framework.tenant.core.mq.rocketmq.TenantRocketMQInitializer;
@@ -58,9 +60,9 @@ public class YudaoTenantAutoConfiguration {
     public TenantLineInnerInterceptor tenantLineInnerInterceptor(TenantProperties properties,
                                                                  MybatisPlusInterceptor interceptor) {
         TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(new TenantDatabaseInterceptor(properties));
-        // 添加到 interceptor 中
-        // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
-        MyBatisUtils.addInterceptor(interceptor, inner, 0);
+        // 添加到 interceptor 中，由 SqlRewriteCacheInnerInterceptor 缓存改写后的 SQL 模板
+        // 是否忽略多租户，会影响改写的结构，所以作为缓存 KEY 的一部分
+        MyBatisUtils.addRewriteInterceptor(interceptor, inner, mappedStatementId -> TenantContextHolder.isIgnore());
         return inner;
     }
 
@@ -109,9 +111,16 @@ public class YudaoTenantAutoConfiguration {
 
     // ========== Job ==========
 
+    @Bean(destroyMethod = "shutdown")
+    public TenantJobExecutor tenantJobExecutor(TenantProperties tenantProperties) {
+        TenantProperties.Job job = tenantProperties.getJob();
+        return new TenantJobExecutor(job.getParallelism(), job.getTimeout());
+    }
+
     @Bean
-    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService) {
-        return new TenantJobAspect(tenantFrameworkService);
+    public TenantJobAspect tenantJobAspect(TenantFrameworkService tenantFrameworkService,
+                                           TenantJobExecutor tenantJobExecutor) {
+        return new TenantJobAspect(tenantFrameworkService, tenantJobExecutor);
     }
 
     // ========== Redis ==========
@@ -0,0 +1,97 @@
+package cn.iocoder.yudao.framework.tenant.core.cache;
+
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按照租户隔离的本地缓存，每个租户缓存一份数据，例如说租户的活动匹配索引、部门树索引
+ *
+ * 1. 未开启多租户、或者忽略租户时，使用 {@link #TENANT_ID_GLOBAL} 作为 KEY，此时加载的数据包含所有租户
+ * 2. 数据变化时，通过 {@link #invalidate(Long)} 清理对应租户的数据，同时清理 {@link #TENANT_ID_GLOBAL} 的数据
+ * 3. 写入后到达过期时间自动清理，兜底 Redis Pub/Sub 广播的清理消息丢失的情况
+ *
+ * @author 芋道源码
+ */
+public class TenantLocalCache<V> {
+
+    /**
+     * 未开启多租户、或者忽略租户时，使用的 KEY
+     */
+    public static final Long TENANT_ID_GLOBAL = 0L;
+
+    /**
+     * 最大数量，即租户的数量
+     */
+    private static final long MAXIMUM_SIZE = 10000;
+    /**
+     * 默认的过期时间
+     */
+    private static final Duration EXPIRE_DEFAULT = Duration.ofMinutes(1);
+
+    /**
+     * KEY：租户编号
+     * VALUE：该租户的数据
+     */
+    private final Cache<Long, V> cache;
+
+    public TenantLocalCache(String name) {
+        this(name, EXPIRE_DEFAULT);
+    }
+
+    public TenantLocalCache(String name, Duration expire) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(expire)
+                .recordStats()
+                .build();
+        CacheUtils.registerCache(name, cache);
+    }
+
+    /**
+     * 获得当前租户的数据，不存在时加载
+     *
+     * @param loader 加载逻辑，在当前租户的上下文中执行，参数为 KEY
+     * @return 数据
+     */
+    public V get(Function<Long, V> loader) {
+        return cache.get(getKey(), loader);
+    }
+
+    /**
+     * 增量更新当前租户已经加载的数据；未加载时，不做处理，等下次访问时加载
+     *
+     * 因为 {@link #TENANT_ID_GLOBAL} 的数据包含所有租户，无法增量更新，所以直接清理
+     *
+     * @param updater 更新逻辑，返回新的数据
+     */
+    public void update(UnaryOperator<V> updater) {
+        Long key = getKey();
+        cache.asMap().computeIfPresent(key, (k, value) -> updater.apply(value));
+        if (!TENANT_ID_GLOBAL.equals(key)) {
+            cache.invalidate(TENANT_ID_GLOBAL);
+        }
+    }
+
+    /**
+     * 清理指定租户的数据
+     *
+     * @param tenantId 租户编号；为空时，只清理 {@link #TENANT_ID_GLOBAL} 的数据
+     */
+    public void invalidate(Long tenantId) {
+        cache.invalidate(tenantId != null ? tenantId : TENANT_ID_GLOBAL);
+        // 忽略租户时加载的数据，包含所有租户，所以也需要清理
+        cache.invalidate(TENANT_ID_GLOBAL);
+    }
+
+    private static Long getKey() {
+        Long tenantId = TenantContextHolder.getTenantId();
+        return tenantId != null && !TenantContextHolder.isIgnore() ? tenantId : TENANT_ID_GLOBAL;
+    }
+
+}
@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.framework.tenant.core.db;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteContextHolder;
 import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
@@ -32,6 +33,10 @@ public class TenantDatabaseInterceptor implements TenantLineHandler {
 
     @Override
     public Expression getTenantId() {
+        // 录制 SQL 模板时，拼接占位符，执行时再绑定当前的租户编号
+        if (SqlRewriteContextHolder.isRecording()) {
+            return SqlRewriteContextHolder.addSlot(() -> String.valueOf(TenantContextHolder.getRequiredTenantId()));
+        }
         return new LongValue(TenantContextHolder.getRequiredTenantId());
     }
 
@@ -1,26 +1,31 @@
 package cn.iocoder.yudao.framework.tenant.core.job;
 
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandlerContextHolder;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandlerInvoker;
 import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
-import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.quartz.JobExecutionContext;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 
 /**
  * 多租户 JobHandler AOP
- * 任务执行时，会按照租户逐个执行 Job 的逻辑
+ * 任务执行时，会通过 {@link TenantJobExecutor} 按照租户并行执行 Job 的逻辑
  *
- * 注意，需要保证 JobHandler 的幂等性。因为 Job 因为某个租户执行失败重试时，之前执行成功的租户也会再次执行。
+ * 任一租户执行失败或超时，会抛出异常，从而由 {@link JobHandlerInvoker} 记录为失败、并按照 Job 的配置重试。
+ * 重试时，会跳过之前已经执行成功的租户，只执行失败、超时的租户。
+ * 注意，仍然需要保证 JobHandler 的幂等性，因为租户超时被中断时，可能已经执行了一部分逻辑。
  *
  * @author 芋道源码
  */
@@ -29,31 +34,109 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class TenantJobAspect {
 
+    /**
+     * 记录在 {@link JobExecutionContext} 中，已经执行成功的租户编号的 KEY 前缀
+     */
+    private static final String SUCCESS_TENANT_IDS_KEY_PREFIX = "TENANT_JOB_SUCCESS_TENANT_IDS:";
+
+    /**
+     * 执行日志中，最多记录的失败租户数量
+     */
+    private static final int LOG_FAILURE_MAX_SIZE = 20;
+    /**
+     * 执行日志中，记录的最慢租户数量
+     */
+    private static final int LOG_SLOWEST_SIZE = 10;
+    /**
+     * 执行日志的最大长度，和 infra_job_log 表的 result 字段保持一致
+     */
+    private static final int LOG_RESULT_MAX_LENGTH = 4000;
+
     private final TenantFrameworkService tenantFrameworkService;
 
+    private final TenantJobExecutor tenantJobExecutor;
+
     @Around("@annotation(tenantJob)")
-    public String around(ProceedingJoinPoint joinPoint, TenantJob tenantJob) {
+    public String around(ProceedingJoinPoint joinPoint, TenantJob tenantJob) throws InterruptedException {
         // 获得租户列表
         List<Long> tenantIds = tenantFrameworkService.getTenantIds();
         if (CollUtil.isEmpty(tenantIds)) {
             return null;
         }
 
-        // 逐个租户，执行 Job
-        Map<Long, String> results = new ConcurrentHashMap<>();
-        tenantIds.parallelStream().forEach(tenantId -> {
-            // TODO 芋艿：先通过 parallel 实现并行；1）多个租户，是一条执行日志；2）异常的情况
-            TenantUtils.execute(tenantId, () -> {
-                try {
-                    Object result = joinPoint.proceed();
-                    results.put(tenantId, StrUtil.toStringOrEmpty(result));
-                } catch (Throwable e) {
-                    log.error("[execute][租户({}) 执行 Job 发生异常", tenantId, e);
-                    results.put(tenantId, ExceptionUtil.getRootCauseMessage(e));
-                }
-            });
+        // 重试时，跳过之前已经执行成功的租户
+        Set<Long> successTenantIds = getSuccessTenantIds(joinPoint);
+        List<Long> executeTenantIds = filterList(tenantIds, tenantId -> !successTenantIds.contains(tenantId));
+
+        // 按照租户并行执行 Job
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(executeTenantIds, () -> proceed(joinPoint));
+        results.values().forEach(result -> {
+            if (result.isSuccess()) {
+                successTenantIds.add(result.getTenantId());
+            }
         });
-        return JsonUtils.toJsonString(results);
+
+        // 汇总执行结果：有失败、超时的租户时，抛出异常，交给 JobHandlerInvoker 重试
+        String summary = StrUtil.maxLength(buildSummary(tenantIds.size(), tenantIds.size() - executeTenantIds.size(),
+                results.values()), LOG_RESULT_MAX_LENGTH - 100);
+        if (results.values().stream().anyMatch(result -> !result.isSuccess())) {
+            throw new IllegalStateException(summary);
+        }
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Long> getSuccessTenantIds(ProceedingJoinPoint joinPoint) {
+        JobExecutionContext context = JobHandlerContextHolder.get();
+        if (context == null) {
+            return ConcurrentHashMap.newKeySet();
+        }
+        String key = SUCCESS_TENANT_IDS_KEY_PREFIX + joinPoint.getSignature().toLongString();
+        Set<Long> successTenantIds = (Set<Long>) context.get(key);
+        if (successTenantIds == null) {
+            successTenantIds = ConcurrentHashMap.newKeySet();
+            context.put(key, successTenantIds);
+        }
+        return successTenantIds;
+    }
+
+    private static String proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return StrUtil.toStringOrEmpty(joinPoint.proceed());
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new ExecutionException(ex);
+        }
+    }
+
+    private static String buildSummary(int total, int skipped, Collection<TenantJobResult> results) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", total);
+        summary.put("skipped", skipped);
+        for (TenantJobResult.Status status : TenantJobResult.Status.values()) {
+            summary.put(status.name().toLowerCase(), results.stream().filter(result -> result.getStatus() == status).count());
+        }
+        // 租户较少时，记录每个租户的执行结果
+        if (results.size() <= LOG_FAILURE_MAX_SIZE) {
+            Map<Long, String> resultMap = new LinkedHashMap<>();
+            results.stream().filter(TenantJobResult::isSuccess)
+                    .forEach(result -> resultMap.put(result.getTenantId(), result.getResult()));
+            summary.put("results", resultMap);
+        }
+        // 失败、超时的租户，记录原因
+        Map<Long, String> failures = new LinkedHashMap<>();
+        results.stream().filter(result -> !result.isSuccess()).limit(LOG_FAILURE_MAX_SIZE)
+                .forEach(result -> failures.put(result.getTenantId(), result.getResult()));
+        if (!failures.isEmpty()) {
+            summary.put("failures", failures);
+        }
+        // 最慢的租户，记录执行时长
+        Map<Long, Long> slowest = new LinkedHashMap<>();
+        results.stream().sorted(Comparator.comparing(TenantJobResult::getDuration).reversed()).limit(LOG_SLOWEST_SIZE)
+                .forEach(result -> slowest.put(result.getTenantId(), result.getDuration()));
+        summary.put("slowest", slowest);
+        return JsonUtils.toJsonString(summary);
     }
 
 }
@@ -0,0 +1,142 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static cn.hutool.core.exceptions.ExceptionUtil.getRootCauseMessage;
+
+/**
+ * 多租户 Job 的执行器，按照租户并行执行 Job 的逻辑
+ *
+ * 1. 使用独立的线程池，并行度可配置，不占用公共的 ForkJoinPool，避免影响其它 parallelStream
+ * 2. 公平性：每个 Job 同时最多提交 parallelism 个租户，多个 Job 同时执行时，在线程池的队列中交替执行，
+ *    而不是租户多的 Job 一次性占满队列，饿死其它 Job
+ * 3. 每个租户执行超时后，中断执行，并记录为超时。注意，被中断的租户，要等它的线程真正退出后，才会归还许可，
+ *    从而保证同时执行的租户不超过 parallelism 个；不响应中断的逻辑，会一直占用许可，直到它执行结束
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class TenantJobExecutor {
+
+    private final int parallelism;
+    private final Duration timeout;
+
+    private final ThreadPoolExecutor executor;
+    /**
+     * 超时检测的线程池，到达超时时间后，取消租户的执行
+     */
+    private final ScheduledExecutorService timeoutScheduler;
+
+    public TenantJobExecutor(int parallelism, Duration timeout) {
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("tenant-job-", true));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("tenant-job-timeout-", true));
+    }
+
+    /**
+     * 按照租户并行执行，直到所有租户执行完成（成功、失败或超时）
+     *
+     * @param tenantIds 租户编号数组
+     * @param task      Job 的逻辑，会在对应租户的上下文中执行
+     * @return 每个租户的执行结果，KEY 为租户编号
+     * @throws InterruptedException 等待时被中断
+     */
+    public Map<Long, TenantJobResult> execute(Collection<Long> tenantIds, Callable<String> task) throws InterruptedException {
+        Map<Long, TenantJobResult> results = new ConcurrentHashMap<>(tenantIds.size());
+        Semaphore window = new Semaphore(parallelism);
+        for (Long tenantId : tenantIds) {
+            window.acquire();
+            TenantJobTask jobTask = new TenantJobTask(tenantId, task, results, window);
+            try {
+                executor.execute(jobTask);
+            } catch (RejectedExecutionException ex) {
+                // 执行器已关闭：取消后，由 done 方法记录结果、归还许可
+                jobTask.cancel(false);
+            }
+        }
+        // 所有许可都归还后，说明已提交的租户都执行完成
+        window.acquire(parallelism);
+        return results;
+    }
+
+    public void shutdown() {
+        // 取消尚未执行的租户，归还许可，避免等待中的 Job 无法结束
+        executor.shutdownNow().forEach(runnable -> ((TenantJobTask) runnable).cancel(false));
+        timeoutScheduler.shutdownNow();
+    }
+
+    private class TenantJobTask extends FutureTask<String> {
+
+        private final Long tenantId;
+        private final Map<Long, TenantJobResult> results;
+        private final Semaphore window;
+
+        private volatile long startTime;
+
+        TenantJobTask(Long tenantId, Callable<String> task, Map<Long, TenantJobResult> results, Semaphore window) {
+            super(() -> TenantUtils.execute(tenantId, task));
+            this.tenantId = tenantId;
+            this.results = results;
+            this.window = window;
+        }
+
+        @Override
+        public void run() {
+            startTime = System.currentTimeMillis();
+            ScheduledFuture<?> timeoutFuture = timeoutScheduler.schedule(() -> cancel(true),
+                    timeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                super.run();
+            } finally {
+                timeoutFuture.cancel(false);
+                // 在线程退出时，记录结果、归还许可。超时取消时，done 方法会先执行，而被中断的线程可能仍在执行
+                complete(System.currentTimeMillis() - startTime);
+            }
+        }
+
+        @Override
+        protected void done() {
+            // 执行器已关闭，未执行就被取消，不会进入 run 方法，所以在这里记录结果、归还许可
+            if (startTime == 0) {
+                results.put(tenantId, new TenantJobResult(tenantId, TenantJobResult.Status.FAILURE, 0L,
+                        "执行器已关闭，未执行"));
+                window.release();
+            }
+        }
+
+        private void complete(long duration) {
+            try {
+                if (isCancelled()) {
+                    log.warn("[complete][租户({}) 执行 Job 超时({} ms)]", tenantId, duration);
+                    results.put(tenantId, new TenantJobResult(tenantId, TenantJobResult.Status.TIMEOUT, duration,
+                            "执行超时"));
+                    return;
+                }
+                try {
+                    results.put(tenantId, new TenantJobResult(tenantId, TenantJobResult.Status.SUCCESS, duration, get()));
+                } catch (ExecutionException ex) {
+                    log.error("[complete][租户({}) 执行 Job 发生异常]", tenantId, ex.getCause());
+                    results.put(tenantId, new TenantJobResult(tenantId, TenantJobResult.Status.FAILURE, duration,
+                            getRootCauseMessage(ex.getCause())));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                window.release();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 多租户 Job 在某个租户的执行结果
+ *
+ * @author 芋道源码
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantJobResult {
+
+    /**
+     * 租户编号
+     */
+    private Long tenantId;
+    /**
+     * 执行状态
+     */
+    private Status status;
+    /**
+     * 执行时长，单位：毫秒
+     */
+    private Long duration;
+    /**
+     * 结果数据
+     *
+     * 成功时，为 Job 的返回结果；失败时，为异常信息
+     */
+    private String result;
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    public enum Status {
+
+        /**
+         * 成功
+         */
+        SUCCESS,
+        /**
+         * 失败
+         */
+        FAILURE,
+        /**
+         * 超时
+         */
+        TIMEOUT
+
+    }
+
+}
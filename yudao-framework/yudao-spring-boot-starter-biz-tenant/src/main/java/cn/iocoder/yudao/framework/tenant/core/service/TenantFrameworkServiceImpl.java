@@ -3,8 +3,8 @@ package cn.iocoder.yudao.framework.tenant.core.service;
 import cn.iocoder.yudao.framework.common.exception.ServiceException;
 import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
 import cn.iocoder.yudao.module.system.api.tenant.TenantApi;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
@@ -27,7 +27,7 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
      * 针对 {@link #getTenantIds()} 的缓存
      */
     private final LoadingCache<Object, List<Long>> getTenantIdsCache = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "tenant-ids", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<Object, List<Long>>() {
 
                 @Override
@@ -41,7 +41,7 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
      * 针对 {@link #validTenant(Long)} 的缓存
      */
     private final LoadingCache<Long, ServiceException> validTenantCache = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
+            "tenant-valid", Duration.ofMinutes(1L), // 过期时间 1 分钟
             new CacheLoader<Long, ServiceException>() {
 
                 @Override
@@ -64,7 +64,7 @@ public class TenantFrameworkServiceImpl implements TenantFrameworkService {
 
     @Override
     public void validTenant(Long id) {
-        ServiceException serviceException = validTenantCache.getUnchecked(id);
+        ServiceException serviceException = validTenantCache.get(id);
         if (serviceException != SERVICE_EXCEPTION_NULL) {
             throw serviceException;
         }
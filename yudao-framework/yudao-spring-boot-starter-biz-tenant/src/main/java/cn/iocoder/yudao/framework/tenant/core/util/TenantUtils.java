@@ -1,9 +1,11 @@
 package cn.iocoder.yudao.framework.tenant.core.util;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import static cn.iocoder.yudao.framework.web.core.util.WebFrameworkUtils.HEADER_TENANT_ID;
 
@@ -78,6 +80,28 @@ public class TenantUtils {
         }
     }
 
+    /**
+     * 按照租户分组，在对应租户的上下文中，执行对应的逻辑
+     *
+     * 适合后台线程批量处理带租户编号的数据，例如说批量插入缓冲队列中的日志。
+     * 注意，租户编号为空时，忽略租户上下文执行，避免插入失败！
+     *
+     * @param items    数据，KEY 为租户编号，可能为空
+     * @param consumer 逻辑，参数为同一租户的数据
+     */
+    public static <T> void executeByTenant(Collection<KeyValue<Long, T>> items, Consumer<List<T>> consumer) {
+        // 注意，租户编号可能为空，所以不使用 groupingBy 分组
+        Map<Long, List<T>> tenantItems = new LinkedHashMap<>();
+        items.forEach(item -> tenantItems.computeIfAbsent(item.getKey(), key -> new ArrayList<>()).add(item.getValue()));
+        tenantItems.forEach((tenantId, list) -> {
+            if (tenantId != null) {
+                execute(tenantId, () -> consumer.accept(list));
+            } else {
+                executeIgnore(() -> consumer.accept(list));
+            }
+        });
+    }
+
     /**
      * 将多租户编号，添加到 header 中
      *
@@ -0,0 +1,86 @@
+package cn.iocoder.yudao.framework.tenant.core.cache;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link TenantLocalCache} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantLocalCacheTest {
+
+    private final TenantLocalCache<String> cache = new TenantLocalCache<>("test-tenant-local-cache");
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testGet() {
+        // 调用，并断言：每个租户一份数据
+        assertEquals("1", getInTenant(1L));
+        assertEquals("1", getInTenant(1L));
+        assertEquals("2", getInTenant(2L));
+        assertEquals(2, loadCount.get());
+        // 调用，并断言：没有租户、或者忽略租户时，使用 TENANT_ID_GLOBAL
+        assertEquals("0", load());
+        TenantContextHolder.setTenantId(1L);
+        TenantUtils.executeIgnore(() -> assertEquals("0", load()));
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+        // mock 数据
+        getInTenant(1L);
+        getInTenant(2L);
+        load();
+
+        // 调用：清理租户 1，同时清理 TENANT_ID_GLOBAL
+        cache.invalidate(1L);
+        // 断言
+        getInTenant(1L);
+        getInTenant(2L);
+        load();
+        assertEquals(5, loadCount.get());
+    }
+
+    @Test
+    public void testUpdate() {
+        // mock 数据
+        getInTenant(1L);
+        load();
+
+        // 调用：增量更新租户 1 的数据，同时清理 TENANT_ID_GLOBAL
+        TenantUtils.execute(1L, () -> cache.update(value -> value + "-updated"));
+        // 断言
+        assertEquals("1-updated", getInTenant(1L));
+        load();
+        assertEquals(3, loadCount.get());
+        // 调用：未加载的租户，不做处理
+        TenantUtils.execute(2L, () -> cache.update(value -> value + "-updated"));
+        assertEquals("2", getInTenant(2L));
+    }
+
+    private String getInTenant(Long tenantId) {
+        return TenantUtils.execute(tenantId, this::load);
+    }
+
+    private String load() {
+        return cache.get(key -> {
+            loadCount.incrementAndGet();
+            return String.valueOf(key);
+        });
+    }
+
+}
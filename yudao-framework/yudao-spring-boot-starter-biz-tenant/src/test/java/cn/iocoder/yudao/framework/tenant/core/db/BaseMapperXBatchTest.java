@@ -0,0 +1,200 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
+import cn.iocoder.yudao.framework.tenant.config.TenantProperties;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.incrementer.IKeyGenerator;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BaseMapperX#insertBatch} 和 {@link BaseMapperX#upsertBatch} 的单元测试，基于 H2 的 MySQL 模式
+ *
+ * @author 芋道源码
+ */
+@Import(BaseMapperXBatchTest.Config.class)
+public class BaseMapperXBatchTest extends BaseDbUnitTest {
+
+    private static final Long TENANT_ID = 1L;
+    private static final Long OTHER_TENANT_ID = 2L;
+
+    @Resource
+    private TestBatchMapper testBatchMapper;
+    @Resource
+    private TestBatchSequenceMapper testBatchSequenceMapper;
+
+    @BeforeEach
+    public void setUp() {
+        TenantContextHolder.setTenantId(TENANT_ID);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
+
+    @Test
+    public void testInsertBatch_generatedKeys() {
+        // 准备参数
+        List<TestBatchDO> list = asList(new TestBatchDO().setName("a").setStatus(1),
+                new TestBatchDO().setName("b").setStatus(2),
+                new TestBatchDO().setName("c").setStatus(3));
+
+        // 调用
+        assertTrue(testBatchMapper.insertBatch(list));
+        // 断言：每一行都回填了自增编号，且与数据库一致
+        assertEquals(3, convertSet(list, TestBatchDO::getId).size());
+        list.forEach(item -> {
+            TestBatchDO dbItem = testBatchMapper.selectById(item.getId());
+            assertNotNull(dbItem);
+            assertEquals(item.getName(), dbItem.getName());
+            assertEquals(item.getStatus(), dbItem.getStatus());
+            assertEquals(TENANT_ID, dbItem.getTenantId()); // 多租户插件拼接 tenant_id
+        });
+    }
+
+    @Test
+    public void testInsertBatch_mixedNull() {
+        // 准备参数：部分字段为 null，会拆分成多条 INSERT
+        List<TestBatchDO> list = asList(new TestBatchDO().setName("a").setStatus(1),
+                new TestBatchDO().setStatus(2),
+                new TestBatchDO().setName("c"),
+                new TestBatchDO().setName("d").setStatus(4));
+
+        // 调用
+        assertTrue(testBatchMapper.insertBatch(list, 2));
+        // 断言
+        assertEquals(4L, testBatchMapper.selectCount());
+        list.forEach(item -> {
+            assertNotNull(item.getId());
+            TestBatchDO dbItem = testBatchMapper.selectById(item.getId());
+            assertEquals(item.getName(), dbItem.getName());
+            assertEquals(item.getStatus(), dbItem.getStatus());
+        });
+    }
+
+    @Test
+    public void testInsertBatch_sequence() {
+        // 准备参数：基于序列生成编号，走 Db.saveBatch 逐条 selectKey
+        List<TestBatchSequenceDO> list = asList(new TestBatchSequenceDO().setName("a"),
+                new TestBatchSequenceDO().setName("b"));
+
+        // 调用
+        assertTrue(testBatchSequenceMapper.insertBatch(list));
+        // 断言
+        assertEquals(2, convertSet(list, TestBatchSequenceDO::getId).size());
+        list.forEach(item -> {
+            TestBatchSequenceDO dbItem = testBatchSequenceMapper.selectById(item.getId());
+            assertEquals(item.getName(), dbItem.getName());
+            assertEquals(TENANT_ID, dbItem.getTenantId());
+        });
+    }
+
+    @Test
+    public void testInsertBatch_empty() {
+        assertFalse(testBatchMapper.insertBatch(new ArrayList<>()));
+        assertFalse(testBatchMapper.upsertBatch(new ArrayList<>()));
+    }
+
+    @Test
+    public void testUpsertBatch() {
+        // mock 数据
+        TestBatchDO a = new TestBatchDO().setName("a").setStatus(1);
+        TestBatchDO b = new TestBatchDO().setName("b").setStatus(2);
+        testBatchMapper.insertBatch(asList(a, b));
+
+        // 准备参数：更新 a；b 的 name 为 null，不更新该字段；新增 c（无编号）、d（指定编号）
+        TestBatchDO updateA = new TestBatchDO().setId(a.getId()).setName("a2").setStatus(10);
+        TestBatchDO updateB = new TestBatchDO().setId(b.getId()).setStatus(20);
+        TestBatchDO c = new TestBatchDO().setName("c").setStatus(3);
+        TestBatchDO d = new TestBatchDO().setId(1000L).setName("d").setStatus(4);
+
+        // 调用
+        assertTrue(testBatchMapper.upsertBatch(asList(updateA, updateB, c, d)));
+        // 断言
+        assertEquals(4L, testBatchMapper.selectCount());
+        TestBatchDO dbA = testBatchMapper.selectById(a.getId());
+        assertEquals("a2", dbA.getName());
+        assertEquals(10, dbA.getStatus());
+        TestBatchDO dbB = testBatchMapper.selectById(b.getId());
+        assertEquals("b", dbB.getName());
+        assertEquals(20, dbB.getStatus());
+        assertNotNull(c.getId());
+        assertEquals("c", testBatchMapper.selectById(c.getId()).getName());
+        TestBatchDO dbD = testBatchMapper.selectById(1000L);
+        assertEquals("d", dbD.getName());
+        assertEquals(TENANT_ID, dbD.getTenantId());
+    }
+
+    @Test
+    public void testUpsertBatch_otherTenant() {
+        // mock 数据：租户 1 的记录
+        TestBatchDO a = new TestBatchDO().setName("a").setStatus(1);
+        testBatchMapper.insertBatch(singletonList(a));
+
+        // 调用：租户 2 使用租户 1 的编号，不能覆盖它，而是主键冲突
+        TenantContextHolder.setTenantId(OTHER_TENANT_ID);
+        assertThrows(DuplicateKeyException.class, () -> testBatchMapper.upsertBatch(singletonList(
+                new TestBatchDO().setId(a.getId()).setName("hack").setStatus(2))));
+        // 断言：租户 1 的记录不变
+        TenantContextHolder.setIgnore(true);
+        TestBatchDO dbA = testBatchMapper.selectById(a.getId());
+        assertEquals("a", dbA.getName());
+        assertEquals(1, dbA.getStatus());
+        assertEquals(TENANT_ID, dbA.getTenantId());
+        assertEquals(1L, testBatchMapper.selectCount());
+    }
+
+    @Configuration
+    public static class Config {
+
+        @Bean
+        @Lazy(false) // 单元测试开启了懒加载，需要提前添加到 MybatisPlusInterceptor 中
+        public TenantLineInnerInterceptor tenantLineInnerInterceptor(MybatisPlusInterceptor interceptor) {
+            TenantLineInnerInterceptor inner = new TenantLineInnerInterceptor(
+                    new TenantDatabaseInterceptor(new TenantProperties()));
+            MyBatisUtils.addRewriteInterceptor(interceptor, inner, mappedStatementId -> TenantContextHolder.isIgnore());
+            return inner;
+        }
+
+        @Bean
+        public IKeyGenerator h2KeyGenerator() {
+            // 使用 H2 标准的 NEXT VALUE FOR 语法，MySQL 模式下不支持 xxx.nextval
+            return new IKeyGenerator() {
+
+                @Override
+                public String executeSql(String incrementerName) {
+                    return "SELECT NEXT VALUE FOR " + incrementerName;
+                }
+
+                @Override
+                public DbType dbType() {
+                    return DbType.H2;
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 批量插入测试 DO，使用自增编号
+ *
+ * @author 芋道源码
+ */
+@TableName("test_batch")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TestBatchDO extends TenantBaseDO {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+    private String name;
+    private Integer status;
+
+}
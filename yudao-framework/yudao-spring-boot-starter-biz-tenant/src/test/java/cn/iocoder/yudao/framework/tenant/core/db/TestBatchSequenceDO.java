@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 批量插入测试 DO，使用序列生成编号
+ *
+ * @author 芋道源码
+ */
+@TableName("test_batch_sequence")
+@KeySequence("test_batch_sequence_seq")
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TestBatchSequenceDO extends TenantBaseDO {
+
+    @TableId(type = IdType.INPUT)
+    private Long id;
+    private String name;
+
+}
@@ -0,0 +1,8 @@
+package cn.iocoder.yudao.framework.tenant.core.db;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface TestBatchSequenceMapper extends BaseMapperX<TestBatchSequenceDO> {
+}
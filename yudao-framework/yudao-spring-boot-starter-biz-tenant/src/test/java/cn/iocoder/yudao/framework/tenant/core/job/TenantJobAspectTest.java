@@ -0,0 +1,180 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.quartz.core.handler.JobHandlerContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.service.TenantFrameworkService;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.quartz.JobExecutionContext;
+
+import java.time.Duration;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link TenantJobAspect} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantJobAspectTest extends BaseMockitoUnitTest {
+
+    @Mock
+    private TenantFrameworkService tenantFrameworkService;
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+    @Mock
+    private Signature signature;
+    @Mock
+    private TenantJob tenantJob;
+
+    private TenantJobExecutor tenantJobExecutor;
+    private TenantJobAspect tenantJobAspect;
+
+    /**
+     * 执行过的租户编号
+     */
+    private final List<Long> executedTenantIds = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * 执行失败的租户编号
+     */
+    private final Set<Long> failureTenantIds = Collections.synchronizedSet(new HashSet<>());
+
+    @BeforeEach
+    public void setUp() {
+        tenantJobExecutor = new TenantJobExecutor(4, Duration.ofSeconds(10));
+        tenantJobAspect = new TenantJobAspect(tenantFrameworkService, tenantJobExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tenantJobExecutor.shutdown();
+        JobHandlerContextHolder.clear();
+    }
+
+    @Test
+    public void testAround_emptyTenant() throws InterruptedException {
+        // mock 方法
+        when(tenantFrameworkService.getTenantIds()).thenReturn(emptyList());
+
+        // 调用，并断言
+        assertNull(tenantJobAspect.around(joinPoint, tenantJob));
+    }
+
+    @Test
+    public void testAround_success() throws Throwable {
+        // mock 方法
+        when(tenantFrameworkService.getTenantIds()).thenReturn(asList(1L, 2L));
+        mockProceed(null);
+
+        // 调用
+        String summary = tenantJobAspect.around(joinPoint, tenantJob);
+        // 断言
+        assertTrue(summary.contains("\"total\":2"));
+        assertTrue(summary.contains("\"success\":2"));
+        assertTrue(summary.contains("\"1\":\"tenant-1\""));
+        assertEquals(2, executedTenantIds.size());
+    }
+
+    @Test
+    public void testAround_retrySkipSuccessTenant() throws Throwable {
+        // mock 方法：Quartz 重试时，复用同一个 JobExecutionContext
+        when(tenantFrameworkService.getTenantIds()).thenReturn(asList(1L, 2L, 3L));
+        mockProceed("testJob");
+        JobHandlerContextHolder.set(mockJobExecutionContext());
+        failureTenantIds.add(2L);
+
+        // 调用：第一次执行，租户 2 失败
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> tenantJobAspect.around(joinPoint, tenantJob));
+        assertTrue(ex.getMessage().contains("\"failure\":1"));
+        assertEquals(asList(1L, 2L, 3L), sort(executedTenantIds));
+
+        // 调用：重试，只执行之前失败的租户 2
+        executedTenantIds.clear();
+        failureTenantIds.clear();
+        String summary = tenantJobAspect.around(joinPoint, tenantJob);
+        // 断言
+        assertEquals(Collections.singletonList(2L), executedTenantIds);
+        assertTrue(summary.contains("\"total\":3"));
+        assertTrue(summary.contains("\"skipped\":2"));
+        assertTrue(summary.contains("\"success\":1"));
+    }
+
+    @Test
+    public void testAround_noJobContext() throws Throwable {
+        // mock 方法：不在 JobHandlerInvoker 中执行，不记录成功的租户
+        when(tenantFrameworkService.getTenantIds()).thenReturn(asList(1L, 2L));
+        mockProceed(null);
+        failureTenantIds.add(2L);
+
+        // 调用，两次都执行所有租户
+        assertThrows(IllegalStateException.class, () -> tenantJobAspect.around(joinPoint, tenantJob));
+        assertThrows(IllegalStateException.class, () -> tenantJobAspect.around(joinPoint, tenantJob));
+        // 断言
+        assertEquals(4, executedTenantIds.size());
+    }
+
+    @Test
+    public void testAround_summaryTruncate() throws Throwable {
+        // mock 方法：100 个租户都失败，且异常信息很长
+        List<Long> tenantIds = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            tenantIds.add(i);
+            failureTenantIds.add(i);
+        }
+        when(tenantFrameworkService.getTenantIds()).thenReturn(tenantIds);
+        mockProceed(null);
+
+        // 调用
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> tenantJobAspect.around(joinPoint, tenantJob));
+        // 断言：不超过 infra_job_log 表的 result 字段长度
+        assertTrue(ex.getMessage().length() <= 4000);
+        assertTrue(ex.getMessage().contains("\"total\":100"));
+        assertTrue(ex.getMessage().contains("\"failure\":100"));
+        assertFalse(ex.getMessage().contains("\"results\"")); // 租户较多时，不记录每个租户的结果
+        assertEquals(100, executedTenantIds.size());
+    }
+
+    private void mockProceed(String signatureString) throws Throwable {
+        if (signatureString != null) {
+            when(joinPoint.getSignature()).thenReturn(signature);
+            when(signature.toLongString()).thenReturn(signatureString);
+        }
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            Long tenantId = TenantContextHolder.getTenantId();
+            executedTenantIds.add(tenantId);
+            if (failureTenantIds.contains(tenantId)) {
+                throw new IllegalStateException(StrUtil.repeat('x', 500));
+            }
+            return "tenant-" + tenantId;
+        });
+    }
+
+    private static JobExecutionContext mockJobExecutionContext() {
+        Map<Object, Object> data = new HashMap<>();
+        JobExecutionContext context = mock(JobExecutionContext.class);
+        when(context.get(any())).thenAnswer(invocation -> data.get(invocation.getArgument(0)));
+        doAnswer(invocation -> data.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(context).put(any(), any());
+        return context;
+    }
+
+    private static List<Long> sort(List<Long> list) {
+        List<Long> result = new ArrayList<>(list);
+        Collections.sort(result);
+        return result;
+    }
+
+}
@@ -0,0 +1,185 @@
+package cn.iocoder.yudao.framework.tenant.core.job;
+
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TenantJobExecutor} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class TenantJobExecutorTest {
+
+    private TenantJobExecutor tenantJobExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        if (tenantJobExecutor != null) {
+            tenantJobExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecute_success() throws InterruptedException {
+        tenantJobExecutor = new TenantJobExecutor(2, Duration.ofSeconds(10));
+
+        // 调用
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(asList(1L, 2L, 3L),
+                () -> "tenant-" + TenantContextHolder.getTenantId());
+        // 断言：在对应租户的上下文中执行
+        assertEquals(3, results.size());
+        results.forEach((tenantId, result) -> {
+            assertEquals(tenantId, result.getTenantId());
+            assertEquals(TenantJobResult.Status.SUCCESS, result.getStatus());
+            assertEquals("tenant-" + tenantId, result.getResult());
+        });
+    }
+
+    @Test
+    public void testExecute_failure() throws InterruptedException {
+        tenantJobExecutor = new TenantJobExecutor(2, Duration.ofSeconds(10));
+
+        // 调用：租户 2 执行失败
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(asList(1L, 2L), () -> {
+            if (TenantContextHolder.getTenantId() == 2L) {
+                throw new IllegalStateException("boom");
+            }
+            return "ok";
+        });
+        // 断言
+        assertEquals(TenantJobResult.Status.SUCCESS, results.get(1L).getStatus());
+        assertEquals(TenantJobResult.Status.FAILURE, results.get(2L).getStatus());
+        assertTrue(results.get(2L).getResult().contains("boom"));
+    }
+
+    @Test
+    public void testExecute_timeout() throws InterruptedException {
+        tenantJobExecutor = new TenantJobExecutor(2, Duration.ofMillis(100));
+
+        // 调用：租户 1 执行超时
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(asList(1L, 2L), () -> {
+            if (TenantContextHolder.getTenantId() == 1L) {
+                Thread.sleep(10000L);
+            }
+            return "ok";
+        });
+        // 断言：超时被中断，记录为超时
+        assertEquals(TenantJobResult.Status.TIMEOUT, results.get(1L).getStatus());
+        assertEquals("执行超时", results.get(1L).getResult());
+        assertTrue(results.get(1L).getDuration() < 10000L);
+        assertEquals(TenantJobResult.Status.SUCCESS, results.get(2L).getStatus());
+    }
+
+    @Test
+    public void testExecute_timeoutWaitWorkerExit() throws InterruptedException {
+        tenantJobExecutor = new TenantJobExecutor(1, Duration.ofMillis(100));
+        AtomicLong exitTime = new AtomicLong();
+        AtomicLong startTime = new AtomicLong();
+
+        // 调用：租户 1 超时被中断后，仍然继续执行 300 ms 才退出
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(asList(1L, 2L), () -> {
+            if (TenantContextHolder.getTenantId() == 1L) {
+                try {
+                    Thread.sleep(10000L);
+                } catch (InterruptedException ex) {
+                    long deadline = System.currentTimeMillis() + 300L;
+                    while (System.currentTimeMillis() < deadline) {
+                        Thread.yield();
+                    }
+                    exitTime.set(System.currentTimeMillis());
+                }
+                return "timeout";
+            }
+            startTime.set(System.currentTimeMillis());
+            return "ok";
+        });
+        // 断言：租户 1 的线程退出后，才开始执行租户 2
+        assertEquals(TenantJobResult.Status.TIMEOUT, results.get(1L).getStatus());
+        assertEquals(TenantJobResult.Status.SUCCESS, results.get(2L).getStatus());
+        assertTrue(startTime.get() >= exitTime.get());
+    }
+
+    @Test
+    public void testExecute_parallelism() throws InterruptedException {
+        tenantJobExecutor = new TenantJobExecutor(2, Duration.ofSeconds(10));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // 调用
+        Map<Long, TenantJobResult> results = tenantJobExecutor.execute(asList(1L, 2L, 3L, 4L, 5L, 6L), () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50L);
+            running.decrementAndGet();
+            return "ok";
+        });
+        // 断言：同时执行的租户，不超过 parallelism
+        assertEquals(6, results.size());
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void testExecute_fairness() throws Exception {
+        tenantJobExecutor = new TenantJobExecutor(2, Duration.ofSeconds(10));
+        ExecutorService jobExecutor = Executors.newFixedThreadPool(2);
+        try {
+            // 调用：Job A 有 6 个租户，每个 100 ms
+            Future<Long> jobA = jobExecutor.submit(() -> {
+                tenantJobExecutor.execute(asList(1L, 2L, 3L, 4L, 5L, 6L), () -> {
+                    Thread.sleep(100L);
+                    return "a";
+                });
+                return System.currentTimeMillis();
+            });
+            Thread.sleep(20L);
+            // 调用：Job B 只有 1 个租户，不会排在 Job A 所有租户的后面
+            Future<Long> jobB = jobExecutor.submit(() -> {
+                tenantJobExecutor.execute(asList(1L), () -> "b");
+                return System.currentTimeMillis();
+            });
+            // 断言
+            assertTrue(jobB.get(5, TimeUnit.SECONDS) < jobA.get(5, TimeUnit.SECONDS));
+        } finally {
+            jobExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        tenantJobExecutor = new TenantJobExecutor(1, Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+        try {
+            // 调用：租户 1 阻塞执行，租户 2、3 等待许可
+            Future<Map<Long, TenantJobResult>> future = jobExecutor.submit(() ->
+                    tenantJobExecutor.execute(asList(1L, 2L, 3L), () -> {
+                        started.countDown();
+                        Thread.sleep(10000L);
+                        return "ok";
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 调用：关闭执行器
+            tenantJobExecutor.shutdown();
+            // 断言：等待中的 Job 可以结束，未执行的租户记录为失败
+            Map<Long, TenantJobResult> results = future.get(5, TimeUnit.SECONDS);
+            assertEquals(3, results.size());
+            assertEquals(TenantJobResult.Status.FAILURE, results.get(1L).getStatus()); // 被中断
+            assertEquals(TenantJobResult.Status.FAILURE, results.get(2L).getStatus());
+            assertEquals("执行器已关闭，未执行", results.get(2L).getResult());
+            assertEquals(TenantJobResult.Status.FAILURE, results.get(3L).getStatus());
+            assertEquals("执行器已关闭，未执行", results.get(3L).getResult());
+        } finally {
+            jobExecutor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,2 @@
+DELETE FROM "test_batch";
+DELETE FROM "test_batch_sequence";
@@ -0,0 +1,26 @@
+CREATE TABLE IF NOT EXISTS "test_batch" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "name" varchar(64) DEFAULT NULL,
+    "status" tinyint DEFAULT NULL,
+    "creator" varchar(64) DEFAULT '',
+    "create_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar(64) DEFAULT '',
+    "update_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY ("id")
+) COMMENT '批量插入测试表';
+
+CREATE SEQUENCE IF NOT EXISTS "test_batch_sequence_seq" START WITH 1;
+
+CREATE TABLE IF NOT EXISTS "test_batch_sequence" (
+    "id" bigint NOT NULL,
+    "name" varchar(64) DEFAULT NULL,
+    "creator" varchar(64) DEFAULT '',
+    "create_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar(64) DEFAULT '',
+    "update_time" timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY ("id")
+) COMMENT '批量插入序列测试表';
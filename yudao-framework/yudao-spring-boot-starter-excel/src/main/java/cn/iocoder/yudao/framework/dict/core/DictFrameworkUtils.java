@@ -5,8 +5,8 @@ import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
 import cn.iocoder.yudao.module.system.api.dict.DictDataApi;
 import cn.iocoder.yudao.module.system.api.dict.dto.DictDataRespDTO;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,47 +29,57 @@ public class DictFrameworkUtils {
     /**
      * 针对 {@link #getDictDataLabel(String, String)} 的缓存
      */
-    private static final LoadingCache<KeyValue<String, String>, DictDataRespDTO> GET_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
-            new CacheLoader<KeyValue<String, String>, DictDataRespDTO>() {
-
-                @Override
-                public DictDataRespDTO load(KeyValue<String, String> key) {
-                    return ObjectUtil.defaultIfNull(dictDataApi.getDictData(key.getKey(), key.getValue()), DICT_DATA_NULL);
-                }
-
-            });
+    private static LoadingCache<KeyValue<String, String>, DictDataRespDTO> GET_DICT_DATA_CACHE;
 
     /**
      * 针对 {@link #getDictDataLabelList(String)} 的缓存
      */
-    private static final LoadingCache<String, List<String>> GET_DICT_DATA_LIST_CACHE = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
-            new CacheLoader<String, List<String>>() {
-
-                @Override
-                public List<String> load(String dictType) {
-                    return dictDataApi.getDictDataLabelList(dictType);
-                }
-
-            });
+    private static LoadingCache<String, List<String>> GET_DICT_DATA_LIST_CACHE;
 
     /**
      * 针对 {@link #parseDictDataValue(String, String)} 的缓存
      */
-    private static final LoadingCache<KeyValue<String, String>, DictDataRespDTO> PARSE_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofMinutes(1L), // 过期时间 1 分钟
-            new CacheLoader<KeyValue<String, String>, DictDataRespDTO>() {
-
-                @Override
-                public DictDataRespDTO load(KeyValue<String, String> key) {
-                    return ObjectUtil.defaultIfNull(dictDataApi.parseDictData(key.getKey(), key.getValue()), DICT_DATA_NULL);
-                }
-
-            });
+    private static LoadingCache<KeyValue<String, String>, DictDataRespDTO> PARSE_DICT_DATA_CACHE;
 
+    /**
+     * 初始化
+     *
+     * 缓存在这里创建，而不是静态初始化，从而 Spring 容器已经初始化，yudao.cache.local.specs.{name} 配置项可以生效
+     *
+     * @param dictDataApi 字典数据 API
+     */
     public static void init(DictDataApi dictDataApi) {
         DictFrameworkUtils.dictDataApi = dictDataApi;
+        GET_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
+                "dict-data-get", Duration.ofMinutes(1L), // 过期时间 1 分钟
+                new CacheLoader<KeyValue<String, String>, DictDataRespDTO>() {
+
+                    @Override
+                    public DictDataRespDTO load(KeyValue<String, String> key) {
+                        return ObjectUtil.defaultIfNull(dictDataApi.getDictData(key.getKey(), key.getValue()), DICT_DATA_NULL);
+                    }
+
+                });
+        GET_DICT_DATA_LIST_CACHE = CacheUtils.buildAsyncReloadingCache(
+                "dict-data-list-get", Duration.ofMinutes(1L), // 过期时间 1 分钟
+                new CacheLoader<String, List<String>>() {
+
+                    @Override
+                    public List<String> load(String dictType) {
+                        return dictDataApi.getDictDataLabelList(dictType);
+                    }
+
+                });
+        PARSE_DICT_DATA_CACHE = CacheUtils.buildAsyncReloadingCache(
+                "dict-data-parse", Duration.ofMinutes(1L), // 过期时间 1 分钟
+                new CacheLoader<KeyValue<String, String>, DictDataRespDTO>() {
+
+                    @Override
+                    public DictDataRespDTO load(KeyValue<String, String> key) {
+                        return ObjectUtil.defaultIfNull(dictDataApi.parseDictData(key.getKey(), key.getValue()), DICT_DATA_NULL);
+                    }
+
+                });
         log.info("[init][初始化 DictFrameworkUtils 成功]");
     }
 
@@ -2,15 +2,23 @@ package cn.iocoder.yudao.framework.excel.core.util;
 
 import cn.iocoder.yudao.framework.excel.core.handler.SelectSheetWriteHandler;
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.converters.longconverter.LongStringConverter;
+import com.alibaba.excel.read.listener.PageReadListener;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Excel 工具类
@@ -44,10 +52,95 @@ public class ExcelUtils {
         response.setContentType("application/vnd.ms-excel;charset=UTF-8");
     }
 
+    /**
+     * 将分批的数据以 Excel 响应给前端，适合数据量大的导出
+     *
+     * 每次只从 batches 拉取一批数据写入，EasyExcel 基于 SXSSF 只在内存中保留少量行，所以内存占用和总行数无关。
+     * batches 一般使用 BaseMapperX 的 selectBatchIterator 方法，基于 keyset 分页获得
+     *
+     * @param response  响应
+     * @param filename  文件名
+     * @param sheetName Excel sheet 名
+     * @param head      Excel head 头
+     * @param batches   分批的数据
+     * @param converter 每批数据的转换逻辑，例如说 DO 转换成 VO，并拼接关联数据
+     * @param <S>       原始数据的类型
+     * @param <T>       泛型，保证 head 和 data 类型的一致性
+     * @throws IOException 写入失败的情况
+     */
+    public static <S, T> void write(HttpServletResponse response, String filename, String sheetName, Class<T> head,
+                                    Iterator<List<S>> batches, Function<List<S>, List<T>> converter) throws IOException {
+        try (ExcelWriter writer = buildWriter(response.getOutputStream(), head)) {
+            write(writer, sheetName, batches, converter);
+            // 设置 header 和 contentType。写在 close 之前的原因是：
+            // 1. 查询数据报错时，响应 contentType 还没有被修改
+            // 2. close 时才真正输出 Excel 文件，输出过程中响应会被提交，之后再设置 header 无效
+            response.addHeader("Content-Disposition", "attachment;filename=" + URLEncoder.encode(filename, StandardCharsets.UTF_8.name()));
+            response.setContentType("application/vnd.ms-excel;charset=UTF-8");
+        }
+    }
+
+    /**
+     * 将分批的数据写入 Excel 输出流，适合数据量大的导出
+     *
+     * @param out       输出流，不会被关闭
+     * @param sheetName Excel sheet 名
+     * @param head      Excel head 头
+     * @param batches   分批的数据
+     * @param converter 每批数据的转换逻辑
+     * @return 写入的行数
+     */
+    public static <S, T> long write(OutputStream out, String sheetName, Class<T> head,
+                                    Iterator<List<S>> batches, Function<List<S>, List<T>> converter) {
+        try (ExcelWriter writer = buildWriter(out, head)) {
+            return write(writer, sheetName, batches, converter);
+        }
+    }
+
+    private static <S, T> long write(ExcelWriter writer, String sheetName,
+                                     Iterator<List<S>> batches, Function<List<S>, List<T>> converter) {
+        WriteSheet sheet = EasyExcel.writerSheet(sheetName).build();
+        long count = 0;
+        // 至少写入一次，保证没有数据时，也能输出表头
+        writer.write(Collections.emptyList(), sheet);
+        while (batches.hasNext()) {
+            List<T> list = converter.apply(batches.next());
+            writer.write(list, sheet);
+            count += list.size();
+        }
+        return count;
+    }
+
+    private static ExcelWriter buildWriter(OutputStream out, Class<?> head) {
+        return EasyExcel.write(out, head)
+                .autoCloseStream(false) // 不要自动关闭，交给 Servlet 自己处理
+                .registerWriteHandler(new LongestMatchColumnWidthStyleStrategy()) // 基于 column 长度，自动适配。最大 255 宽度
+                .registerWriteHandler(new SelectSheetWriteHandler(head)) // 基于固定 sheet 实现下拉框
+                .registerConverter(new LongStringConverter()) // 避免 Long 类型丢失精度
+                .build();
+    }
+
     public static <T> List<T> read(MultipartFile file, Class<T> head) throws IOException {
         return EasyExcel.read(file.getInputStream(), head, null)
                 .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
                 .doReadAllSync();
     }
 
+    /**
+     * 分批读取 Excel，适合数据量大的导入
+     *
+     * 基于 SAX 逐行解析，每读满 batchSize 行回调一次 consumer，内存中最多只有一批数据。
+     * consumer 中一般使用 insertBatch 等方法批量写入
+     *
+     * @param file      文件
+     * @param head      Excel head 头
+     * @param batchSize 每批数量
+     * @param consumer  每批数据的处理逻辑
+     */
+    public static <T> void read(MultipartFile file, Class<T> head, int batchSize, Consumer<List<T>> consumer) throws IOException {
+        EasyExcel.read(file.getInputStream(), head, new PageReadListener<>(consumer, batchSize))
+                .autoCloseStream(false)  // 不要自动关闭，交给 Servlet 自己处理
+                .doReadAll();
+    }
+
 }
@@ -0,0 +1,168 @@
+package cn.iocoder.yudao.framework.excel.core.util;
+
+import cn.iocoder.yudao.framework.common.util.collection.KeysetBatchIterator;
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ExcelUtils} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class ExcelUtilsTest {
+
+    @Test
+    public void testWriteAndRead_batch() throws Exception {
+        // 准备参数：共 2500 条，每批 1000 条
+        int total = 2500;
+        Iterator<List<Long>> batches = mockBatches(total, 1000);
+
+        // 调用：分批写入
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = ExcelUtils.write(out, "数据", DemoRow.class, batches, convertRows());
+        assertEquals(total, count);
+
+        // 调用：分批读取
+        MockMultipartFile file = new MockMultipartFile("file", "demo.xlsx", null, out.toByteArray());
+        List<Integer> batchSizes = new ArrayList<>();
+        List<DemoRow> rows = new ArrayList<>();
+        ExcelUtils.read(file, DemoRow.class, 1000, list -> {
+            batchSizes.add(list.size());
+            rows.addAll(list);
+        });
+        // 断言：按照 1000 条一批回调，且数据与写入的一致（编号倒序）
+        assertEquals(3, batchSizes.size());
+        assertEquals(1000, batchSizes.get(0));
+        assertEquals(500, batchSizes.get(2));
+        assertEquals(total, rows.size());
+        assertEquals(total, rows.get(0).getId());
+        assertEquals("name-" + total, rows.get(0).getName());
+        assertEquals(1L, rows.get(total - 1).getId());
+    }
+
+    @Test
+    public void testWrite_response() throws Exception {
+        // 准备参数
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // 调用：没有数据时，也输出表头
+        ExcelUtils.write(response, "demo.xls", "数据", DemoRow.class, mockBatches(0, 1000), convertRows());
+        // 断言
+        assertEquals("application/vnd.ms-excel;charset=UTF-8", response.getContentType());
+        assertTrue(response.getHeader("Content-Disposition").contains("demo.xls"));
+        MockMultipartFile file = new MockMultipartFile("file", "demo.xlsx", null, response.getContentAsByteArray());
+        assertEquals(0, ExcelUtils.read(file, DemoRow.class).size());
+    }
+
+    /**
+     * 导出 100 万行的基准测试，输出 rows/sec 和堆内存峰值
+     *
+     * 建议使用 -Xmx256m 运行，验证内存占用与行数无关
+     */
+    @Test
+    @Disabled
+    public void testWrite_1m() {
+        int total = 1000000;
+        System.gc();
+        resetPeakUsage();
+        long start = System.nanoTime();
+        long count = ExcelUtils.write(new DiscardOutputStream(), "数据", DemoRow.class,
+                mockBatches(total, 1000), convertRows());
+        long cost = System.nanoTime() - start;
+        assertEquals(total, count);
+        System.out.printf("[testWrite_1m][rows=%d, cost=%dms, rows/sec=%d, peak heap=%dMB]%n", count, cost / 1000000,
+                count * 1000000000L / cost, getPeakUsage() / 1024 / 1024);
+    }
+
+    /**
+     * 模拟 keyset 分页：编号从 total 倒序到 1
+     */
+    private static Iterator<List<Long>> mockBatches(int total, int batchSize) {
+        return new KeysetBatchIterator<Long, Long>(lastId -> {
+            long from = lastId != null ? lastId - 1 : total;
+            List<Long> list = new ArrayList<>(batchSize);
+            for (long id = from; id >= 1 && list.size() < batchSize; id--) {
+                list.add(id);
+            }
+            return list;
+        }, id -> id, batchSize);
+    }
+
+    private static Function<List<Long>, List<DemoRow>> convertRows() {
+        return ids -> {
+            List<DemoRow> rows = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                DemoRow row = new DemoRow();
+                row.setId(id);
+                row.setName("name-" + id);
+                row.setRemark("remark");
+                rows.add(row);
+            }
+            return rows;
+        };
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * 丢弃所有写入的输出流，只测量导出本身的开销
+     */
+    private static class DiscardOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+    }
+
+    @Data
+    @Accessors(chain = false) // 设置 chain = false，避免 EasyExcel 读取时无法设置属性
+    public static class DemoRow {
+
+        @ExcelProperty("编号")
+        private Long id;
+        @ExcelProperty("名字")
+        private String name;
+        @ExcelProperty("备注")
+        private String remark;
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package cn.iocoder.yudao.framework.quartz.core.handler;
+
+import org.quartz.JobExecutionContext;
+
+/**
+ * {@link JobHandler} 执行时的 {@link JobExecutionContext} 上下文 Holder
+ *
+ * Job 失败重试时，Quartz 复用同一个 {@link JobExecutionContext}，所以可以通过它的 put / get 方法，
+ * 在多次重试之间传递数据。例如说，多租户 Job 记录已经执行成功的租户，重试时跳过
+ *
+ * @author 芋道源码
+ */
+public class JobHandlerContextHolder {
+
+    private static final ThreadLocal<JobExecutionContext> CONTEXT = new ThreadLocal<>();
+
+    /**
+     * 获得当前 Job 的执行上下文
+     *
+     * @return 执行上下文；不在 {@link JobHandlerInvoker} 中执行时，返回 null
+     */
+    public static JobExecutionContext get() {
+        return CONTEXT.get();
+    }
+
+    public static void set(JobExecutionContext context) {
+        CONTEXT.set(context);
+    }
+
+    public static void clear() {
+        CONTEXT.remove();
+    }
+
+}
@@ -54,7 +54,7 @@ public class JobHandlerInvoker extends QuartzJobBean {
             // 记录 Job 日志（初始）
             jobLogId = jobLogFrameworkService.createJobLog(jobId, startTime, jobHandlerName, jobHandlerParam, refireCount + 1);
             // 执行任务
-            data = this.executeInternal(jobHandlerName, jobHandlerParam);
+            data = this.executeInternal(executionContext, jobHandlerName, jobHandlerParam);
         } catch (Throwable ex) {
             exception = ex;
         }
@@ -66,12 +66,18 @@ public class JobHandlerInvoker extends QuartzJobBean {
         handleException(exception, refireCount, retryCount, retryInterval);
     }
 
-    private String executeInternal(String jobHandlerName, String jobHandlerParam) throws Exception {
+    private String executeInternal(JobExecutionContext executionContext,
+                                   String jobHandlerName, String jobHandlerParam) throws Exception {
         // 获得 JobHandler 对象
         JobHandler jobHandler = applicationContext.getBean(jobHandlerName, JobHandler.class);
         Assert.notNull(jobHandler, "JobHandler 不会为空");
-        // 执行任务
-        return jobHandler.execute(jobHandlerParam);
+        // 执行任务。设置执行上下文，用于 JobHandler 在多次重试之间传递数据
+        JobHandlerContextHolder.set(executionContext);
+        try {
+            return jobHandler.execute(jobHandlerParam);
+        } finally {
+            JobHandlerContextHolder.clear();
+        }
     }
 
     private void updateJobLogResultAsync(Long jobLogId, LocalDateTime startTime, String data, Throwable exception,
@@ -1,6 +1,11 @@
 package cn.iocoder.yudao.framework.tracer.config;
 
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
+import cn.iocoder.yudao.framework.tracer.core.metrics.LocalCacheMetricsBinder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -24,4 +29,33 @@ public class YudaoMetricsAutoConfiguration {
         return registry -> registry.config().commonTags("application", applicationName);
     }
 
+    /**
+     * 本地缓存的 Metrics，包括命中率、加载耗时、淘汰数量等
+     */
+    @Bean
+    public LocalCacheMetricsBinder localCacheMetrics() {
+        return new LocalCacheMetricsBinder();
+    }
+
+    /**
+     * 批量写入缓冲队列的 Metrics，包括积压数量、丢弃数量、写入数量等
+     *
+     * 通过 {@link BatchBuffer#addBufferListener} 监听，后续创建的缓冲队列也会被注册
+     */
+    @Bean
+    public MeterBinder batchBufferMetrics() {
+        return registry -> BatchBuffer.addBufferListener((name, buffer) -> {
+            Gauge.builder("yudao.buffer.size", buffer, BatchBuffer::getQueueSize)
+                    .tag("name", name).register(registry);
+            Gauge.builder("yudao.buffer.capacity", buffer, BatchBuffer::getCapacity)
+                    .tag("name", name).register(registry);
+            FunctionCounter.builder("yudao.buffer.dropped", buffer, BatchBuffer::getDroppedCount)
+                    .tag("name", name).register(registry);
+            FunctionCounter.builder("yudao.buffer.written", buffer, BatchBuffer::getWrittenCount)
+                    .tag("name", name).register(registry);
+            FunctionCounter.builder("yudao.buffer.failed", buffer, BatchBuffer::getFailedCount)
+                    .tag("name", name).register(registry);
+        });
+    }
+
 }
@@ -0,0 +1,56 @@
+package cn.iocoder.yudao.framework.tracer.core.metrics;
+
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.search.Search;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 本地缓存的 Metrics 绑定器，包括命中率、加载耗时、淘汰数量等
+ *
+ * 1. 通过 {@link CacheUtils#addCacheListener} 监听，后续创建的缓存也会被注册。每个 {@link MeterRegistry} 只添加一个监听器，重复绑定不会累积
+ * 2. 同名缓存被替换时，先移除旧缓存的指标，再注册新缓存的指标
+ * 3. 销毁时，移除添加的监听器，避免 Spring 容器重启后，仍然回调旧的 {@link MeterRegistry}
+ *
+ * @author 芋道源码
+ */
+public class LocalCacheMetricsBinder implements MeterBinder, DisposableBean {
+
+    /**
+     * 已添加的监听器
+     *
+     * KEY：MeterRegistry
+     * VALUE：监听器
+     */
+    private final Map<MeterRegistry, BiConsumer<String, Cache<?, ?>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        listeners.computeIfAbsent(registry, key -> {
+            BiConsumer<String, Cache<?, ?>> listener = (name, cache) -> monitor(registry, name, cache);
+            CacheUtils.addCacheListener(listener);
+            return listener;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void monitor(MeterRegistry registry, String name, Cache<?, ?> cache) {
+        // 移除同名缓存已有的指标，否则 MeterRegistry 会复用旧的指标，仍然指向旧的缓存
+        Search.in(registry).tag("cache", name).meters().forEach(registry::remove);
+        CaffeineCacheMetrics.monitor(registry, (Cache<Object, Object>) cache, name);
+    }
+
+    @Override
+    public void destroy() {
+        listeners.values().forEach(CacheUtils::removeCacheListener);
+        listeners.clear();
+    }
+
+}
@@ -6,15 +6,24 @@ import cn.hutool.system.SystemUtil;
 import cn.iocoder.yudao.framework.common.enums.DocumentEnum;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
 import cn.iocoder.yudao.framework.mq.redis.core.job.RedisPendingMessageResendJob;
+import cn.iocoder.yudao.framework.mq.redis.core.job.RedisRetryMessageResendJob;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamBatchMessageListener;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.RedisStreamBatchMessageListenerContainer;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisServerCommands;
 import org.springframework.data.redis.connection.stream.Consumer;
 import org.springframework.data.redis.connection.stream.ObjectRecord;
@@ -29,6 +38,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.function.ToLongFunction;
 
 /**
  * Redis 消息队列 Consumer 配置类
@@ -38,6 +48,7 @@ import java.util.Properties;
 @Slf4j
 @EnableScheduling // 启用定时任务，用于 RedisPendingMessageResendJob 重发消息
 @AutoConfiguration(after = YudaoRedisAutoConfiguration.class)
+@EnableConfigurationProperties(YudaoRedisMQProperties.class)
 public class YudaoRedisMQConsumerAutoConfiguration {
 
     /**
@@ -73,6 +84,15 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         return new RedisPendingMessageResendJob(listeners, redisTemplate, groupName, redissonClient);
     }
 
+    /**
+     * 创建 Redis Stream 延迟重试消息的重新投递任务
+     */
+    @Bean
+    @ConditionalOnBean(AbstractRedisStreamMessageListener.class)
+    public RedisRetryMessageResendJob redisRetryMessageResendJob(List<AbstractRedisStreamMessageListener<?>> listeners) {
+        return new RedisRetryMessageResendJob(listeners);
+    }
+
     /**
      * 创建 Redis Stream 集群消费的容器
      *
@@ -81,14 +101,16 @@ public class YudaoRedisMQConsumerAutoConfiguration {
     @Bean(initMethod = "start", destroyMethod = "stop")
     @ConditionalOnBean(AbstractRedisStreamMessageListener.class) // 只有 AbstractStreamMessageListener 存在的时候，才需要注册 Redis pubsub 监听
     public StreamMessageListenerContainer<String, ObjectRecord<String, String>> redisStreamMessageListenerContainer(
-            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners) {
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamMessageListener<?>> listeners,
+            YudaoRedisMQProperties properties) {
         RedisTemplate<String, ?> redisTemplate = redisMQTemplate.getRedisTemplate();
         checkRedisVersion(redisTemplate);
         // 第一步，创建 StreamMessageListenerContainer 容器
         // 创建 options 配置
         StreamMessageListenerContainer.StreamMessageListenerContainerOptions<String, ObjectRecord<String, String>> containerOptions =
                 StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
-                        .batchSize(10) // 一次性最多拉取多少条消息
+                        .batchSize(properties.getStream().getBatchSize()) // 一次性最多拉取多少条消息
+                        .pollTimeout(properties.getStream().getPollTimeout()) // 拉取的阻塞时间
                         .targetType(String.class) // 目标类型。统一使用 String，通过自己封装的 AbstractStreamMessageListener 去反序列化
                         .build();
         // 创建 container 对象
@@ -98,31 +120,81 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         // 第二步，注册监听器，消费对应的 Stream 主题
         String consumerName = buildConsumerName();
         listeners.parallelStream().forEach(listener -> {
+            // 批量监听器，由 redisStreamBatchMessageListenerContainer 负责注册
+            if (listener instanceof AbstractRedisStreamBatchMessageListener) {
+                return;
+            }
             log.info("[redisStreamMessageListenerContainer][开始注册 StreamKey({}) 对应的监听器({})]",
                     listener.getStreamKey(), listener.getClass().getName());
             // 创建 listener 对应的消费者分组
-            try {
-                redisTemplate.opsForStream().createGroup(listener.getStreamKey(), listener.getGroup());
-            } catch (Exception ignore) {
+            createGroup(redisTemplate, listener);
+            // 设置 listener 对应的 redisTemplate
+            listener.setRedisMQTemplate(redisMQTemplate);
+            // 按照并发数，创建多个 Consumer 对象，每个 Consumer 对应一个拉取线程
+            int concurrency = properties.getStream().getConcurrency(listener.getStreamKey());
+            for (int i = 0; i < concurrency; i++) {
+                Consumer consumer = Consumer.from(listener.getGroup(), buildConsumerName(consumerName, i));
+                // 设置 Consumer 消费进度，以最小消费进度为准
+                StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+                // 设置 Consumer 监听
+                StreamMessageListenerContainer.StreamReadRequestBuilder<String> builder = StreamMessageListenerContainer.StreamReadRequest
+                        .builder(streamOffset).consumer(consumer)
+                        .autoAcknowledge(false) // 不自动 ack
+                        .cancelOnError(throwable -> false); // 默认配置，发生异常就取消消费，显然不符合预期；因此，我们设置为 false
+                container.register(builder.build(), listener);
             }
+            log.info("[redisStreamMessageListenerContainer][完成注册 StreamKey({}) 对应的监听器({})，并发数({})]",
+                    listener.getStreamKey(), listener.getClass().getName(), concurrency);
+        });
+        return container;
+    }
+
+    /**
+     * 创建 Redis Stream 批量集群消费的容器
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnBean(AbstractRedisStreamBatchMessageListener.class) // 只有 AbstractRedisStreamBatchMessageListener 存在的时候，才需要注册
+    public RedisStreamBatchMessageListenerContainer redisStreamBatchMessageListenerContainer(
+            RedisMQTemplate redisMQTemplate, List<AbstractRedisStreamBatchMessageListener<?>> listeners,
+            YudaoRedisMQProperties properties) {
+        RedisTemplate<String, ?> redisTemplate = redisMQTemplate.getRedisTemplate();
+        RedisStreamBatchMessageListenerContainer container = new RedisStreamBatchMessageListenerContainer(redisMQTemplate,
+                properties.getStream().getBatchSize(), properties.getStream().getPollTimeout());
+        String consumerName = buildConsumerName();
+        listeners.forEach(listener -> {
+            // 创建 listener 对应的消费者分组
+            createGroup(redisTemplate, listener);
             // 设置 listener 对应的 redisTemplate
             listener.setRedisMQTemplate(redisMQTemplate);
-            // 创建 Consumer 对象
-            Consumer consumer = Consumer.from(listener.getGroup(), consumerName);
-            // 设置 Consumer 消费进度，以最小消费进度为准
-            StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
-            // 设置 Consumer 监听
-            StreamMessageListenerContainer.StreamReadRequestBuilder<String> builder = StreamMessageListenerContainer.StreamReadRequest
-                    .builder(streamOffset).consumer(consumer)
-                    .autoAcknowledge(false) // 不自动 ack
-                    .cancelOnError(throwable -> false); // 默认配置，发生异常就取消消费，显然不符合预期；因此，我们设置为 false
-            container.register(builder.build(), listener);
-            log.info("[redisStreamMessageListenerContainer][完成注册 StreamKey({}) 对应的监听器({})]",
-                    listener.getStreamKey(), listener.getClass().getName());
+            // 按照并发数，创建多个 Consumer 对象
+            int concurrency = properties.getStream().getConcurrency(listener.getStreamKey());
+            for (int i = 0; i < concurrency; i++) {
+                container.register(listener, Consumer.from(listener.getGroup(), buildConsumerName(consumerName, i)));
+            }
+            log.info("[redisStreamBatchMessageListenerContainer][完成注册 StreamKey({}) 对应的批量监听器({})，并发数({})]",
+                    listener.getStreamKey(), listener.getClass().getName(), concurrency);
         });
         return container;
     }
 
+    private static void createGroup(RedisTemplate<String, ?> redisTemplate, AbstractRedisStreamMessageListener<?> listener) {
+        try {
+            redisTemplate.opsForStream().createGroup(listener.getStreamKey(), listener.getGroup());
+        } catch (Exception ignore) {
+        }
+    }
+
+    /**
+     * 构建第 index 个并发的消费者名字。第 0 个保持原有名字，兼容已有的 pending 消息
+     *
+     * @param consumerName 消费者名字
+     * @param index 并发序号
+     * @return 消费者名字
+     */
+    private static String buildConsumerName(String consumerName, int index) {
+        return index == 0 ? consumerName : consumerName + "#" + index;
+    }
+
     /**
      * 构建消费者名字，使用本地 IP + 进程编号的方式。
      * 参考自 RocketMQ clientId 的实现
@@ -148,4 +220,39 @@ public class YudaoRedisMQConsumerAutoConfiguration {
         }
     }
 
+    /**
+     * Redis Stream 的 Metrics 配置类，暴露 pending、延迟重试、死信的消息数量
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterBinder.class)
+    static class RedisStreamMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnBean(AbstractRedisStreamMessageListener.class)
+        public MeterBinder redisStreamMetrics(List<AbstractRedisStreamMessageListener<?>> listeners) {
+            return registry -> listeners.forEach(listener -> {
+                registerGauge(registry, "yudao.mq.redis.stream.pending", listener, AbstractRedisStreamMessageListener::getPendingCount);
+                registerGauge(registry, "yudao.mq.redis.stream.retry", listener, AbstractRedisStreamMessageListener::getRetryCount);
+                registerGauge(registry, "yudao.mq.redis.stream.dead-letter", listener, AbstractRedisStreamMessageListener::getDeadLetterCount);
+            });
+        }
+
+        private static void registerGauge(MeterRegistry registry, String name,
+                                          AbstractRedisStreamMessageListener<?> listener,
+                                          ToLongFunction<AbstractRedisStreamMessageListener<?>> function) {
+            Gauge.builder(name, listener, obj -> {
+                        try {
+                            return function.applyAsLong(obj);
+                        } catch (Exception ex) {
+                            // Redis 不可用等情况，不影响 Metrics 的其它指标
+                            return Double.NaN;
+                        }
+                    })
+                    .tag("stream", listener.getStreamKey())
+                    .tag("group", listener.getGroup())
+                    .register(registry);
+        }
+
+    }
+
 }
@@ -0,0 +1,64 @@
+package cn.iocoder.yudao.framework.mq.redis.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis 消息队列配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties("yudao.mq.redis")
+@Data
+@Validated
+public class YudaoRedisMQProperties {
+
+    /**
+     * Redis Stream 配置项
+     */
+    private Stream stream = new Stream();
+
+    @Data
+    public static class Stream {
+
+        /**
+         * 一次性最多拉取多少条消息
+         */
+        @NotNull(message = "拉取数量不能为空")
+        @Min(value = 1, message = "拉取数量不能小于 1")
+        private Integer batchSize = 10;
+        /**
+         * 拉取的阻塞时间
+         */
+        @NotNull(message = "拉取阻塞时间不能为空")
+        private Duration pollTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 默认的消费并发数，即每个节点上，每个 Stream 的消费者数量
+         */
+        @NotNull(message = "消费并发数不能为空")
+        @Min(value = 1, message = "消费并发数不能小于 1")
+        private Integer concurrency = 1;
+        /**
+         * 按照 StreamKey 覆盖的消费并发数
+         *
+         * key：StreamKey
+         * value：消费并发数
+         */
+        private Map<String, Integer> concurrencies = new HashMap<>();
+
+        public int getConcurrency(String streamKey) {
+            Integer value = concurrencies.get(streamKey);
+            return value != null && value > 0 ? value : concurrency;
+        }
+
+    }
+
+}
@@ -5,14 +5,19 @@ import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageIntercep
 import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
 import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Redis MQ 操作模板类
@@ -53,6 +58,7 @@ public class RedisMQTemplate {
      */
     public <T extends AbstractRedisStreamMessage> RecordId send(T message) {
         try {
+            addMessageId(message);
             sendMessageBefore(message);
             // 发送消息
             return redisTemplate.opsForStream().add(StreamRecords.newRecord()
@@ -63,6 +69,70 @@ public class RedisMQTemplate {
         }
     }
 
+    /**
+     * 批量发送 Redis 消息，基于 Redis Stream 实现
+     *
+     * @param messages 消息数组
+     * @return 消息记录的编号对象数组
+     */
+    public <T extends AbstractRedisStreamMessage> List<RecordId> sendBatch(List<T> messages) {
+        return sendBatch(messages, null);
+    }
+
+    /**
+     * 批量发送 Redis 消息，基于 Redis Stream 实现
+     *
+     * 通过 pipeline 管道，将多条 XADD 合并成一次网络往返；如果传递了 maxLength，
+     * 则额外对涉及的 Stream 执行一次 XTRIM MAXLEN ~ 近似裁剪，避免 Stream 无限增长
+     *
+     * @param messages 消息数组
+     * @param maxLength Stream 的最大长度（近似），为空时不裁剪
+     * @return 消息记录的编号对象数组，和 messages 顺序一致
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractRedisStreamMessage> List<RecordId> sendBatch(List<T> messages, Long maxLength) {
+        if (CollUtil.isEmpty(messages)) {
+            return Collections.emptyList();
+        }
+        try {
+            messages.forEach(message -> {
+                addMessageId(message);
+                sendMessageBefore(message);
+            });
+            // 发送消息
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    StreamOperations<String, Object, Object> streamOps = ((RedisOperations<String, Object>) operations).opsForStream();
+                    Set<String> streamKeys = new LinkedHashSet<>();
+                    messages.forEach(message -> {
+                        streamOps.add(StreamRecords.newRecord()
+                                .ofObject(JsonUtils.toJsonString(message)) // 设置内容
+                                .withStreamKey(message.getStreamKey())); // 设置 stream key
+                        streamKeys.add(message.getStreamKey());
+                    });
+                    // 近似裁剪
+                    if (maxLength != null) {
+                        streamKeys.forEach(streamKey -> streamOps.trim(streamKey, maxLength, true));
+                    }
+                    return null;
+                }
+
+            });
+            // 过滤出 XADD 的结果
+            List<RecordId> recordIds = new ArrayList<>(messages.size());
+            for (Object result : results) {
+                if (result instanceof RecordId) {
+                    recordIds.add((RecordId) result);
+                }
+            }
+            return recordIds;
+        } finally {
+            messages.forEach(this::sendMessageAfter);
+        }
+    }
+
     /**
      * 添加拦截器
      *
@@ -72,6 +142,17 @@ public class RedisMQTemplate {
         interceptors.add(interceptor);
     }
 
+    /**
+     * 添加消息编号，用于消费幂等
+     *
+     * @param message 消息
+     */
+    private static void addMessageId(AbstractRedisStreamMessage message) {
+        if (StrUtil.isEmpty(message.getHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID))) {
+            message.addHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID, IdUtil.fastSimpleUUID());
+        }
+    }
+
     private void sendMessageBefore(AbstractRedisMessage message) {
         // 正序
         interceptors.forEach(interceptor -> interceptor.sendMessageBefore(message));
@@ -18,6 +18,8 @@ import java.util.Objects;
 
 /**
  * 这个任务用于处理，crash 之后的消费者未消费完的消息
+ *
+ * 超时的消息，交给 {@link AbstractRedisStreamMessageListener#retryOrDeadLetter(String, String)} 延迟重试，超过最大重试次数后进入死信
  */
 @Slf4j
 @AllArgsConstructor
@@ -81,18 +83,18 @@ public class RedisPendingMessageResendJob {
                         return;
                     }
                     // 获取指定 id 的消息体
-                    List<MapRecord<String, Object, Object>> records = ops.range(listener.getStreamKey(),
+                    List<ObjectRecord<String, String>> records = ops.range(String.class, listener.getStreamKey(),
                             Range.of(Range.Bound.inclusive(pendingMessage.getIdAsString()), Range.Bound.inclusive(pendingMessage.getIdAsString())));
                     if (CollUtil.isEmpty(records)) {
+                        // 消息已经被 XTRIM 裁剪，直接 ack，避免一直 pending
+                        ops.acknowledge(listener.getStreamKey(), groupName, pendingMessage.getId());
                         return;
                     }
-                    // 重新投递消息
-                    redisTemplate.getRedisTemplate().opsForStream().add(StreamRecords.newRecord()
-                            .ofObject(records.get(0).getValue()) // 设置内容
-                            .withStreamKey(listener.getStreamKey()));
+                    // 延迟重试，或者进入死信。通过重试次数，避免消息无限重新投递
+                    listener.retryOrDeadLetter(records.get(0).getValue(), "消费超时");
                     // ack 消息消费完成
-                    redisTemplate.getRedisTemplate().opsForStream().acknowledge(groupName, records.get(0));
-                    log.info("[processPendingMessage][消息({})重新投递成功]", records.get(0).getId());
+                    ops.acknowledge(groupName, records.get(0));
+                    log.info("[processPendingMessage][消息({})超时，写入延迟重试]", records.get(0).getId());
                 });
             });
         });
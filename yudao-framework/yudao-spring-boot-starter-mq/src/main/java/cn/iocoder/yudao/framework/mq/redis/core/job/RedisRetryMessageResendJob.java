@@ -0,0 +1,43 @@
+package cn.iocoder.yudao.framework.mq.redis.core.job;
+
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessageListener;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * 这个任务用于处理，消费失败后写入延迟重试 ZSET 的消息，到期后重新投递
+ *
+ * 多个节点同时执行时，由 {@link AbstractRedisStreamMessageListener#resendRetryMessages(int)} 保证不重复投递，所以无需加锁
+ */
+@Slf4j
+@AllArgsConstructor
+public class RedisRetryMessageResendJob {
+
+    /**
+     * 每次每个 Stream 最多投递的消息数量
+     */
+    private static final int RESEND_LIMIT = 100;
+
+    private final List<AbstractRedisStreamMessageListener<?>> listeners;
+
+    /**
+     * 每秒执行一次
+     */
+    @Scheduled(fixedDelay = 1000, initialDelay = 10000)
+    public void messageResend() {
+        listeners.forEach(listener -> {
+            try {
+                int count = listener.resendRetryMessages(RESEND_LIMIT);
+                if (count > 0) {
+                    log.info("[messageResend][StreamKey({}) 重新投递 {} 条延迟重试的消息]", listener.getStreamKey(), count);
+                }
+            } catch (Exception ex) {
+                log.error("[messageResend][StreamKey({}) 执行异常]", listener.getStreamKey(), ex);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,105 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+
+import java.util.*;
+
+/**
+ * Redis Stream 批量监听器抽象类，用于实现集群消费
+ *
+ * 相比 {@link AbstractRedisStreamMessageListener} 每条消息消费一次、ack 一次，
+ * 批量监听器每次拉取到的多条消息，一次性交给 {@link #onMessage(List)} 处理，并通过一次 XACK 批量确认
+ *
+ * 注意，拦截器的 consumeMessageBefore / consumeMessageAfter 针对 headers 相同的一组消息执行一次。
+ * 例如说，多租户场景下，同一批次的消息会按照租户分组后，再交给 {@link #onMessage(List)} 处理
+ *
+ * 另外，批量消费不支持 {@link #isConsumeIdempotent()} 幂等，需要业务自行保证
+ *
+ * @param <T> 消息类型。一定要填写噢，不然会报错
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public abstract class AbstractRedisStreamBatchMessageListener<T extends AbstractRedisStreamMessage>
+        extends AbstractRedisStreamMessageListener<T> {
+
+    /**
+     * 批量消费消息，由 {@link RedisStreamBatchMessageListenerContainer} 调用
+     *
+     * 某一组消息消费失败时，不进行 ack，等待 RedisPendingMessageResendJob 重新投递；其它组的消息正常 ack
+     *
+     * @param records 消息记录数组
+     */
+    public void onRecords(List<ObjectRecord<String, String>> records) {
+        if (CollUtil.isEmpty(records)) {
+            return;
+        }
+        // 1. 解析消息，并按照 headers 分组。注意，重试次数不同的消息，也会被分到不同组
+        Map<Map<String, String>, List<T>> messageGroups = new LinkedHashMap<>();
+        Map<Map<String, String>, List<ObjectRecord<String, String>>> recordGroups = new LinkedHashMap<>();
+        for (ObjectRecord<String, String> record : records) {
+            T messageObj = JsonUtils.parseObject(record.getValue(), messageType);
+            Map<String, String> headers = new HashMap<>(messageObj.getHeaders());
+            headers.remove(AbstractRedisStreamMessage.HEADER_MESSAGE_ID); // 消息编号每条不同，不参与分组
+            messageGroups.computeIfAbsent(headers, key -> new ArrayList<>()).add(messageObj);
+            recordGroups.computeIfAbsent(headers, key -> new ArrayList<>()).add(record);
+        }
+
+        // 2. 逐组消费
+        List<RecordId> ackRecordIds = new ArrayList<>(records.size());
+        messageGroups.forEach((headers, messages) -> {
+            T first = messages.get(0);
+            List<ObjectRecord<String, String>> groupRecords = recordGroups.get(headers);
+            try {
+                consumeMessageBefore(first);
+                // 消费消息
+                this.onMessage(messages);
+            } catch (Exception ex) {
+                log.error("[onRecords][StreamKey({}) 消费消息({}) 条失败]", getStreamKey(), messages.size(), ex);
+                // 延迟重试，或者进入死信。写入失败的消息不进行 ack，由 RedisPendingMessageResendJob 兜底
+                groupRecords.removeIf(record -> !tryRetryOrDeadLetter(record, ex));
+            } finally {
+                consumeMessageAfter(first);
+            }
+            groupRecords.forEach(record -> ackRecordIds.add(record.getId()));
+        });
+
+        // 3. 一次 XACK 批量确认
+        if (CollUtil.isNotEmpty(ackRecordIds)) {
+            redisMQTemplate.getRedisTemplate().opsForStream().acknowledge(getStreamKey(), getGroup(),
+                    ackRecordIds.toArray(new RecordId[0]));
+        }
+    }
+
+    private boolean tryRetryOrDeadLetter(ObjectRecord<String, String> record, Exception cause) {
+        try {
+            retryOrDeadLetter(record.getValue(), cause.getMessage());
+            return true;
+        } catch (Exception ex) {
+            log.error("[tryRetryOrDeadLetter][StreamKey({}) 消息({}) 写入延迟重试失败]", getStreamKey(), record.getId(), ex);
+            return false;
+        }
+    }
+
+    @Override
+    public void onMessage(ObjectRecord<String, String> message) {
+        onRecords(Collections.singletonList(message));
+    }
+
+    @Override
+    public void onMessage(T message) {
+        onMessage(Collections.singletonList(message));
+    }
+
+    /**
+     * 批量处理消息
+     *
+     * @param messages 消息数组
+     */
+    public abstract void onMessage(List<T> messages);
+
+}
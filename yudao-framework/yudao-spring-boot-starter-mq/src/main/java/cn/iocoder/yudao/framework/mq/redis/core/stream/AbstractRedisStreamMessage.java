@@ -10,6 +10,19 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
  */
 public abstract class AbstractRedisStreamMessage extends AbstractRedisMessage {
 
+    /**
+     * Header - 消息编号，发送时生成，重试时保持不变，用于消费幂等
+     */
+    public static final String HEADER_MESSAGE_ID = "message-id";
+    /**
+     * Header - 已重试次数
+     */
+    public static final String HEADER_RETRY_TIMES = "retry-times";
+    /**
+     * Header - 进入死信的原因
+     */
+    public static final String HEADER_DEAD_LETTER_REASON = "dead-letter-reason";
+
     /**
      * 获得 Redis Stream Key，默认使用类名
      *
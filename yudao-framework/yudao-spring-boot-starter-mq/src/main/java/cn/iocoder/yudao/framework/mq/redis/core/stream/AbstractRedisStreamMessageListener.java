@@ -1,5 +1,7 @@
 package cn.iocoder.yudao.framework.mq.redis.core.stream;
 
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.core.util.TypeUtil;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
@@ -8,27 +10,101 @@ import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.stream.StreamListener;
 
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Redis Stream 监听器抽象类，用于实现集群消费
  *
+ * 消费失败时，不会立即重新投递，而是：
+ * 1. 未超过 {@link #getMaxRetryTimes()} 最大重试次数时，按照 {@link #getRetryDelay(int)} 指数退避，
+ *    写入延迟重试的 ZSET，到期后由 RedisRetryMessageResendJob 重新投递
+ * 2. 超过最大重试次数时，写入死信 Stream，不再投递，避免“毒消息”无限循环
+ * 3. {@link #isConsumeIdempotent()} 为 true 时，基于消息编号去重，避免重复投递导致的重复消费。
+ *    消费前通过 SET NX PX 原子抢占消费标记，消费失败时删除，从而重试时可以再次消费
+ *
  * @param <T> 消息类型。一定要填写噢，不然会报错
  *
  * @author 芋道源码
  */
+@Slf4j
 public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedisStreamMessage>
         implements StreamListener<String, ObjectRecord<String, String>> {
 
+    /**
+     * 延迟重试的消息
+     *
+     * KEY 格式：redis:stream:retry:%s:{%s} // 参数为 group、streamKey 的 hash tag
+     * VALUE 数据格式：ZSET // member 为消息 JSON，score 为重新投递的时间（毫秒）
+     *
+     * 使用 streamKey 作为 hash tag，和 Stream 位于 Redis Cluster 的同一个 slot，从而 {@link #RESEND_SCRIPT} 可以同时操作两者
+     */
+    private static final String RETRY_KEY = "redis:stream:retry:%s:{%s}";
+    /**
+     * 死信消息
+     *
+     * KEY 格式：redis:stream:dlq:%s:%s // 参数为 group、streamKey
+     * VALUE 数据格式：STREAM
+     */
+    private static final String DEAD_LETTER_KEY = "redis:stream:dlq:%s:%s";
+    /**
+     * 已消费（或正在消费）的消息，用于幂等
+     *
+     * KEY 格式：redis:stream:consumed:%s:%s:%s // 参数为 group、streamKey、消息编号
+     * VALUE 数据格式：String
+     * 过期时间：{@link #getConsumedExpire()}
+     */
+    private static final String CONSUMED_KEY = "redis:stream:consumed:%s:%s:%s";
+
+    /**
+     * 将到期的延迟重试消息，从 ZSET 移动到 Stream
+     *
+     * KEYS[1]：延迟重试的 ZSET
+     * KEYS[2]：Stream
+     * ARGV[1]：当前时间（毫秒）
+     * ARGV[2]：最大数量
+     *
+     * 返回：移动的数量
+     */
+    private static final RedisScript<Long> RESEND_SCRIPT = new DefaultRedisScript<>(
+            "local values = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))\n" +
+            "for _, value in ipairs(values) do\n" +
+            // 与 ObjectRecord 的序列化保持一致：简单类型的值，存储在 payload 字段
+            "  redis.call('XADD', KEYS[2], '*', 'payload', value)\n" +
+            "  redis.call('ZREM', KEYS[1], value)\n" +
+            "end\n" +
+            "return #values", Long.class);
+
+    /**
+     * 默认的最大重试次数
+     */
+    private static final int MAX_RETRY_TIMES_DEFAULT = 3;
+    /**
+     * 默认的首次重试延迟
+     */
+    private static final Duration RETRY_DELAY_BASE = Duration.ofSeconds(10);
+    /**
+     * 默认的最大重试延迟
+     */
+    private static final Duration RETRY_DELAY_MAX = Duration.ofMinutes(10);
+
     /**
      * 消息类型
      */
-    private final Class<T> messageType;
+    protected final Class<T> messageType;
     /**
      * Redis Channel
      */
@@ -45,7 +121,7 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
      * RedisMQTemplate
      */
     @Setter
-    private RedisMQTemplate redisMQTemplate;
+    protected RedisMQTemplate redisMQTemplate;
 
     @SneakyThrows
     protected AbstractRedisStreamMessageListener() {
@@ -57,20 +133,29 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
     public void onMessage(ObjectRecord<String, String> message) {
         // 消费消息
         T messageObj = JsonUtils.parseObject(message.getValue(), messageType);
+        String messageId = getMessageId(messageObj, message.getId());
         try {
             consumeMessageBefore(messageObj);
-            // 消费消息
-            this.onMessage(messageObj);
-            // ack 消息消费完成
-            redisMQTemplate.getRedisTemplate().opsForStream().acknowledge(group, message);
-            // TODO 芋艿：需要额外考虑以下几个点：
-            // 1. 处理异常的情况
-            // 2. 发送日志；以及事务的结合
-            // 3. 消费日志；以及通用的幂等性
-            // 4. 消费失败的重试，https://zhuanlan.zhihu.com/p/60501638
+            // 幂等：抢占消费标记失败，说明已经消费过、或者其它消费者正在消费，则跳过
+            if (tryMarkConsumed(messageId)) {
+                try {
+                    // 消费消息
+                    this.onMessage(messageObj);
+                } catch (Exception ex) {
+                    // 消费失败，删除消费标记，从而重试时可以再次消费
+                    unmarkConsumed(messageId);
+                    throw ex;
+                }
+            }
+        } catch (Exception ex) {
+            log.error("[onMessage][StreamKey({}) 消息({}) 消费失败]", streamKey, message.getId(), ex);
+            // 延迟重试，或者进入死信
+            retryOrDeadLetter(message.getValue(), ex.getMessage());
         } finally {
             consumeMessageAfter(messageObj);
         }
+        // ack 消息消费完成。注意，如果延迟重试写入失败，则不进行 ack，由 RedisPendingMessageResendJob 兜底
+        redisMQTemplate.getRedisTemplate().opsForStream().acknowledge(group, message);
     }
 
     /**
@@ -80,6 +165,180 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
      */
     public abstract void onMessage(T message);
 
+    // ========== 重试、死信 ==========
+
+    /**
+     * 获得最大重试次数，超过后进入死信。子类可重写，自定义重试策略
+     *
+     * @return 最大重试次数
+     */
+    protected int getMaxRetryTimes() {
+        return MAX_RETRY_TIMES_DEFAULT;
+    }
+
+    /**
+     * 获得第 retryTimes 次重试的延迟，默认指数退避：10s、20s、40s ... 最大 10 分钟。子类可重写，自定义重试策略
+     *
+     * @param retryTimes 第几次重试，从 1 开始
+     * @return 延迟
+     */
+    protected Duration getRetryDelay(int retryTimes) {
+        long delay = RETRY_DELAY_BASE.toMillis() << Math.min(retryTimes - 1, 20);
+        return Duration.ofMillis(Math.min(delay, RETRY_DELAY_MAX.toMillis()));
+    }
+
+    /**
+     * 消费失败时，写入延迟重试的 ZSET；超过最大重试次数时，写入死信 Stream
+     *
+     * @param value 消息内容
+     * @param reason 失败原因
+     */
+    public void retryOrDeadLetter(String value, String reason) {
+        T messageObj = JsonUtils.parseObject(value, messageType);
+        int retryTimes = NumberUtil.parseInt(messageObj.getHeader(AbstractRedisStreamMessage.HEADER_RETRY_TIMES), 0);
+        // 情况一：超过最大重试次数，写入死信
+        if (retryTimes >= getMaxRetryTimes()) {
+            messageObj.addHeader(AbstractRedisStreamMessage.HEADER_DEAD_LETTER_REASON, StrUtil.maxLength(reason, 200));
+            redisMQTemplate.getRedisTemplate().opsForStream().add(StreamRecords.newRecord()
+                    .ofObject(JsonUtils.toJsonString(messageObj))
+                    .withStreamKey(getDeadLetterKey()));
+            log.warn("[retryOrDeadLetter][StreamKey({}) 消息({}) 重试 {} 次后，写入死信]", streamKey, value, retryTimes);
+            return;
+        }
+        // 情况二：写入延迟重试的 ZSET
+        messageObj.addHeader(AbstractRedisStreamMessage.HEADER_RETRY_TIMES, String.valueOf(retryTimes + 1));
+        long resendTime = System.currentTimeMillis() + getRetryDelay(retryTimes + 1).toMillis();
+        getStringRedisTemplate().opsForZSet().add(getRetryKey(), JsonUtils.toJsonString(messageObj), resendTime);
+    }
+
+    /**
+     * 重新投递到期的延迟重试消息
+     *
+     * 通过 {@link #RESEND_SCRIPT} 在一个 Lua 脚本中完成 ZSET 到 Stream 的移动：
+     * 1. 多个节点同时执行时，每条消息只会被一个节点投递
+     * 2. 进程在中途退出时，消息要么仍在 ZSET 中，要么已经在 Stream 中，不会丢失
+     *
+     * @param limit 最大数量
+     * @return 投递的数量
+     */
+    public int resendRetryMessages(int limit) {
+        Long count = getStringRedisTemplate().execute(RESEND_SCRIPT, Arrays.asList(getRetryKey(), streamKey),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(limit));
+        return count != null ? count.intValue() : 0;
+    }
+
+    // ========== 幂等 ==========
+
+    /**
+     * 是否开启消费幂等，基于消息编号去重。子类可重写
+     *
+     * @return 是否开启
+     */
+    protected boolean isConsumeIdempotent() {
+        return false;
+    }
+
+    /**
+     * 获得已消费记录的过期时间，即幂等的有效期。子类可重写
+     *
+     * @return 过期时间
+     */
+    protected Duration getConsumedExpire() {
+        return Duration.ofDays(1);
+    }
+
+    /**
+     * 抢占消费标记，通过 SET NX PX 保证同一条消息只有一个消费者消费
+     *
+     * @param messageId 消息编号
+     * @return 是否抢占成功；未开启幂等时，总是成功
+     */
+    private boolean tryMarkConsumed(String messageId) {
+        if (!isConsumeIdempotent()) {
+            return true;
+        }
+        return Boolean.TRUE.equals(getStringRedisTemplate().opsForValue()
+                .setIfAbsent(getConsumedKey(messageId), "", getConsumedExpire()));
+    }
+
+    private void unmarkConsumed(String messageId) {
+        if (!isConsumeIdempotent()) {
+            return;
+        }
+        getStringRedisTemplate().delete(getConsumedKey(messageId));
+    }
+
+    private static String getMessageId(AbstractRedisStreamMessage message, RecordId recordId) {
+        String messageId = message.getHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID);
+        return StrUtil.isNotEmpty(messageId) ? messageId : recordId.getValue();
+    }
+
+    // ========== 监控 ==========
+
+    /**
+     * 获得 pending 消息的数量，即已投递、未 ack 的消息
+     *
+     * @return 数量
+     */
+    public long getPendingCount() {
+        PendingMessagesSummary summary = redisMQTemplate.getRedisTemplate().opsForStream().pending(streamKey, group);
+        return summary != null ? summary.getTotalPendingMessages() : 0;
+    }
+
+    /**
+     * 获得延迟重试消息的数量
+     *
+     * @return 数量
+     */
+    public long getRetryCount() {
+        Long count = getStringRedisTemplate().opsForZSet().zCard(getRetryKey());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 获得死信消息的数量
+     *
+     * @return 数量
+     */
+    public long getDeadLetterCount() {
+        Long count = redisMQTemplate.getRedisTemplate().opsForStream().size(getDeadLetterKey());
+        return count != null ? count : 0;
+    }
+
+    public String getRetryKey() {
+        return String.format(RETRY_KEY, group, getHashTag(streamKey));
+    }
+
+    public String getDeadLetterKey() {
+        return String.format(DEAD_LETTER_KEY, group, streamKey);
+    }
+
+    private String getConsumedKey(String messageId) {
+        return String.format(CONSUMED_KEY, group, streamKey, messageId);
+    }
+
+    /**
+     * 获得 key 在 Redis Cluster 中参与 slot 计算的部分：有 {...} hash tag 时为 tag 内容，否则为整个 key
+     *
+     * @param key key
+     * @return hash tag
+     */
+    private static String getHashTag(String key) {
+        int start = key.indexOf('{');
+        if (start >= 0) {
+            int end = key.indexOf('}', start + 1);
+            if (end > start + 1) {
+                return key.substring(start + 1, end);
+            }
+        }
+        return key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisTemplate<String, String> getStringRedisTemplate() {
+        return (RedisTemplate<String, String>) redisMQTemplate.getRedisTemplate();
+    }
+
     /**
      * 通过解析类上的泛型，获得消息类型
      *
@@ -94,14 +353,14 @@ public abstract class AbstractRedisStreamMessageListener<T extends AbstractRedis
         return (Class<T>) type;
     }
 
-    private void consumeMessageBefore(AbstractRedisMessage message) {
+    protected void consumeMessageBefore(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 正序
         interceptors.forEach(interceptor -> interceptor.consumeMessageBefore(message));
     }
 
-    private void consumeMessageAfter(AbstractRedisMessage message) {
+    protected void consumeMessageAfter(AbstractRedisMessage message) {
         assert redisMQTemplate != null;
         List<RedisMessageInterceptor> interceptors = redisMQTemplate.getInterceptors();
         // 倒序
@@ -0,0 +1,117 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.stream.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AbstractRedisStreamBatchMessageListener} 的消费容器
+ *
+ * 每个订阅对应一个线程，循环执行 XREADGROUP COUNT n BLOCK t，将拉取到的消息整批交给监听器处理
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisStreamBatchMessageListenerContainer {
+
+    /**
+     * 拉取失败后的休眠时间，避免 Redis 异常时空转
+     */
+    private static final long ERROR_SLEEP_MILLIS = 1000;
+
+    private final RedisMQTemplate redisMQTemplate;
+    /**
+     * 一次性最多拉取多少条消息
+     */
+    private final int batchSize;
+    /**
+     * 拉取的阻塞时间
+     */
+    private final Duration pollTimeout;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public RedisStreamBatchMessageListenerContainer(RedisMQTemplate redisMQTemplate, int batchSize, Duration pollTimeout) {
+        this.redisMQTemplate = redisMQTemplate;
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+    }
+
+    /**
+     * 注册订阅，需要在 {@link #start()} 之前调用
+     *
+     * @param listener 监听器
+     * @param consumer 消费者
+     */
+    public synchronized void register(AbstractRedisStreamBatchMessageListener<?> listener, Consumer consumer) {
+        subscriptions.add(new Subscription(listener, consumer));
+    }
+
+    public synchronized void start() {
+        if (running || subscriptions.isEmpty()) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(subscriptions.size(),
+                new NamedThreadFactory("redis-stream-batch-", true));
+        subscriptions.forEach(subscription -> executor.execute(() -> poll(subscription)));
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(pollTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void poll(Subscription subscription) {
+        AbstractRedisStreamBatchMessageListener<?> listener = subscription.listener;
+        StreamReadOptions readOptions = StreamReadOptions.empty().count(batchSize).block(pollTimeout);
+        StreamOffset<String> streamOffset = StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed());
+        while (running) {
+            try {
+                List<ObjectRecord<String, String>> records = redisMQTemplate.getRedisTemplate().opsForStream()
+                        .read(String.class, subscription.consumer, readOptions, streamOffset);
+                if (CollUtil.isEmpty(records)) {
+                    continue;
+                }
+                listener.onRecords(records);
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.error("[poll][StreamKey({}) Consumer({}) 拉取消息失败]", listener.getStreamKey(),
+                        subscription.consumer.getName(), ex);
+                ThreadUtil.sleep(ERROR_SLEEP_MILLIS);
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Subscription {
+
+        private final AbstractRedisStreamBatchMessageListener<?> listener;
+        private final Consumer consumer;
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package cn.iocoder.yudao.framework.mq.redis.core;
+
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
+import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
+import cn.iocoder.yudao.framework.mq.redis.core.stream.AbstractRedisStreamMessage;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RedisMQTemplate} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RedisMQTemplateTest extends BaseRedisUnitTest {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new RedisMQTemplate(stringRedisTemplate);
+        // 清理数据
+        stringRedisTemplate.delete(new TestMessage().getStreamKey());
+    }
+
+    @Test
+    public void testSendBatch_empty() {
+        assertTrue(redisMQTemplate.sendBatch(Collections.<TestMessage>emptyList()).isEmpty());
+        assertTrue(redisMQTemplate.sendBatch(null).isEmpty());
+    }
+
+    @Test
+    public void testSendBatch() {
+        // 准备参数
+        List<String> events = new ArrayList<>();
+        redisMQTemplate.addInterceptor(new RedisMessageInterceptor() {
+
+            @Override
+            public void sendMessageBefore(AbstractRedisMessage message) {
+                events.add("before:" + ((TestMessage) message).getContent());
+            }
+
+            @Override
+            public void sendMessageAfter(AbstractRedisMessage message) {
+                events.add("after:" + ((TestMessage) message).getContent());
+            }
+
+        });
+        TestMessage message01 = new TestMessage().setContent("a");
+        TestMessage message02 = new TestMessage().setContent("b");
+        message02.addHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID, "fixed-id");
+
+        // 调用
+        List<RecordId> recordIds = redisMQTemplate.sendBatch(Arrays.asList(message01, message02));
+        // 断言：返回的编号，和消息顺序一致
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream()
+                .range(String.class, message01.getStreamKey(), Range.unbounded());
+        assertNotNull(records);
+        assertEquals(2, records.size());
+        assertEquals(2, recordIds.size());
+        assertEquals(records.get(0).getId(), recordIds.get(0));
+        assertEquals(records.get(1).getId(), recordIds.get(1));
+        // 断言：内容、消息编号。已有的消息编号保持不变
+        TestMessage result01 = JsonUtils.parseObject(records.get(0).getValue(), TestMessage.class);
+        TestMessage result02 = JsonUtils.parseObject(records.get(1).getValue(), TestMessage.class);
+        assertEquals("a", result01.getContent());
+        assertNotNull(result01.getHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID));
+        assertEquals("b", result02.getContent());
+        assertEquals("fixed-id", result02.getHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID));
+        // 断言：拦截器每条消息执行一次
+        assertEquals(Arrays.asList("before:a", "before:b", "after:a", "after:b"), events);
+    }
+
+    @Test
+    public void testSendBatch_maxLength() {
+        // 准备参数
+        int count = 300;
+        long maxLength = 10;
+        List<TestMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new TestMessage().setContent(String.valueOf(i)));
+        }
+
+        // 调用
+        List<RecordId> recordIds = redisMQTemplate.sendBatch(messages, maxLength);
+        // 断言：XTRIM 的结果不混入返回值
+        assertEquals(count, recordIds.size());
+        // 断言：近似裁剪，长度不小于 maxLength，且最新的消息保留
+        Long size = stringRedisTemplate.opsForStream().size(messages.get(0).getStreamKey());
+        assertNotNull(size);
+        assertTrue(size >= maxLength && size <= count);
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream()
+                .reverseRange(String.class, messages.get(0).getStreamKey(), Range.unbounded());
+        assertNotNull(records);
+        assertEquals(recordIds.get(count - 1), records.get(0).getId());
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private String content;
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.mq.redis.core.interceptor.RedisMessageInterceptor;
+import cn.iocoder.yudao.framework.mq.redis.core.message.AbstractRedisMessage;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AbstractRedisStreamBatchMessageListener} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class AbstractRedisStreamBatchMessageListenerTest extends BaseRedisUnitTest {
+
+    private static final String GROUP = "unit-test";
+    private static final String HEADER_TENANT_ID = "tenant-id";
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+
+    private TestBatchMessageListener listener;
+
+    /**
+     * 拦截器的调用记录
+     */
+    private final List<String> interceptorEvents = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new RedisMQTemplate(stringRedisTemplate);
+        redisMQTemplate.addInterceptor(new RedisMessageInterceptor() {
+
+            @Override
+            public void consumeMessageBefore(AbstractRedisMessage message) {
+                interceptorEvents.add("before:" + message.getHeader(HEADER_TENANT_ID));
+            }
+
+            @Override
+            public void consumeMessageAfter(AbstractRedisMessage message) {
+                interceptorEvents.add("after:" + message.getHeader(HEADER_TENANT_ID));
+            }
+
+        });
+        listener = new TestBatchMessageListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+        ReflectUtil.setFieldValue(listener, "group", GROUP);
+        // 清理数据
+        stringRedisTemplate.delete(listener.getStreamKey());
+        stringRedisTemplate.delete(listener.getRetryKey());
+        stringRedisTemplate.delete(listener.getDeadLetterKey());
+        stringRedisTemplate.opsForStream().createGroup(listener.getStreamKey(), ReadOffset.from("0"), GROUP);
+    }
+
+    @Test
+    public void testOnRecords_groupByHeaders() {
+        // 准备参数：租户 1、2 交错
+        redisMQTemplate.sendBatch(Arrays.asList(buildMessage("1", "a"), buildMessage("2", "b"),
+                buildMessage("1", "c"), buildMessage("2", "d")));
+        List<ObjectRecord<String, String>> records = readGroup(10);
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：按照 headers 分组，每组调用一次 onMessage，组内保持顺序
+        assertEquals(2, listener.batches.size());
+        assertEquals(Arrays.asList("a", "c"), listener.batches.get(0));
+        assertEquals(Arrays.asList("b", "d"), listener.batches.get(1));
+        // 断言：拦截器每组执行一次
+        assertEquals(Arrays.asList("before:1", "after:1", "before:2", "after:2"), interceptorEvents);
+        // 断言：全部 ack
+        assertEquals(0, listener.getPendingCount());
+    }
+
+    @Test
+    public void testOnRecords_partialFailure() {
+        // 准备参数：租户 1 消费失败，租户 2 消费成功
+        listener.failTenantId = "1";
+        redisMQTemplate.sendBatch(Arrays.asList(buildMessage("1", "a"), buildMessage("2", "b"),
+                buildMessage("1", "c")));
+        List<ObjectRecord<String, String>> records = readGroup(10);
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：失败的一组写入延迟重试，拦截器仍然成对执行
+        assertEquals(Collections.singletonList(Arrays.asList("b")), listener.batches);
+        assertEquals(2, listener.getRetryCount());
+        assertEquals(Arrays.asList("before:1", "after:1", "before:2", "after:2"), interceptorEvents);
+        // 断言：写入延迟重试后，全部 ack
+        assertEquals(0, listener.getPendingCount());
+    }
+
+    @Test
+    public void testOnRecords_retryWriteFailure() {
+        // 准备参数：租户 1 消费失败，且延迟重试写入失败
+        listener.failTenantId = "1";
+        listener.failRetry = true;
+        redisMQTemplate.sendBatch(Arrays.asList(buildMessage("1", "a"), buildMessage("2", "b"),
+                buildMessage("1", "c")));
+        List<ObjectRecord<String, String>> records = readGroup(10);
+
+        // 调用
+        listener.onRecords(records);
+        // 断言：写入延迟重试失败的消息不 ack，留给 RedisPendingMessageResendJob 重新投递；成功的一组正常 ack
+        assertEquals(0, listener.getRetryCount());
+        PendingMessages pending = stringRedisTemplate.opsForStream().pending(listener.getStreamKey(), GROUP,
+                Range.unbounded(), 10);
+        assertEquals(2, pending.size());
+        assertEquals(records.get(0).getId(), pending.get(0).getId());
+        assertEquals(records.get(2).getId(), pending.get(1).getId());
+    }
+
+    @Test
+    public void testOnRecords_empty() {
+        listener.onRecords(Collections.emptyList());
+        listener.onRecords(null);
+        assertTrue(listener.batches.isEmpty());
+        assertTrue(interceptorEvents.isEmpty());
+    }
+
+    @Test
+    public void testOnMessage_single() {
+        // 准备参数
+        redisMQTemplate.send(buildMessage("1", "a"));
+        List<ObjectRecord<String, String>> records = readGroup(10);
+
+        // 调用：单条投递时，也按照批量处理
+        listener.onMessage(records.get(0));
+        // 断言
+        assertEquals(Collections.singletonList(Arrays.asList("a")), listener.batches);
+        assertEquals(0, listener.getPendingCount());
+    }
+
+    private List<ObjectRecord<String, String>> readGroup(int count) {
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream().read(String.class,
+                Consumer.from(GROUP, "consumer-0"), StreamReadOptions.empty().count(count),
+                StreamOffset.create(listener.getStreamKey(), ReadOffset.lastConsumed()));
+        assertNotNull(records);
+        return records;
+    }
+
+    private static TestMessage buildMessage(String tenantId, String content) {
+        TestMessage message = new TestMessage().setContent(content);
+        message.addHeader(HEADER_TENANT_ID, tenantId);
+        return message;
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private String content;
+
+    }
+
+    public static class TestBatchMessageListener extends AbstractRedisStreamBatchMessageListener<TestMessage> {
+
+        /**
+         * 每次 onMessage 收到的消息内容
+         */
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile String failTenantId;
+        private volatile boolean failRetry;
+
+        @Override
+        public void onMessage(List<TestMessage> messages) {
+            if (Objects.equals(failTenantId, messages.get(0).getHeader(HEADER_TENANT_ID))) {
+                throw new IllegalStateException("消费失败");
+            }
+            List<String> contents = new ArrayList<>(messages.size());
+            messages.forEach(message -> contents.add(message.getContent()));
+            batches.add(contents);
+        }
+
+        @Override
+        public void retryOrDeadLetter(String value, String reason) {
+            if (failRetry) {
+                throw new IllegalStateException("写入延迟重试失败");
+            }
+            super.retryOrDeadLetter(value, reason);
+        }
+
+    }
+
+}
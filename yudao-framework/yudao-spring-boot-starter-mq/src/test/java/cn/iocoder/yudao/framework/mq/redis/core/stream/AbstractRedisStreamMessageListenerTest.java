@@ -0,0 +1,282 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import lombok.Data;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.stream.ObjectRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AbstractRedisStreamMessageListener} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class AbstractRedisStreamMessageListenerTest extends BaseRedisUnitTest {
+
+    private static final String GROUP = "unit-test";
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+
+    private TestMessageListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new RedisMQTemplate(stringRedisTemplate);
+        listener = new TestMessageListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+        ReflectUtil.setFieldValue(listener, "group", GROUP);
+        // 清理数据
+        stringRedisTemplate.delete(listener.getStreamKey());
+        stringRedisTemplate.delete(listener.getRetryKey());
+        stringRedisTemplate.delete(listener.getDeadLetterKey());
+        Set<String> consumedKeys = stringRedisTemplate.keys("redis:stream:consumed:*");
+        if (consumedKeys != null) {
+            stringRedisTemplate.delete(consumedKeys);
+        }
+        stringRedisTemplate.opsForStream().createGroup(listener.getStreamKey(), ReadOffset.from("0"), GROUP);
+    }
+
+    @Test
+    public void testOnMessage_success() {
+        // 调用
+        listener.onMessage(sendAndRead(new TestMessage().setContent("ok")));
+        // 断言
+        assertEquals(1, listener.consumeCount.get());
+        assertEquals(0, listener.getRetryCount());
+        assertEquals(0, listener.getDeadLetterCount());
+    }
+
+    @Test
+    public void testOnMessage_retry() {
+        // 准备参数
+        listener.fail = true;
+        ObjectRecord<String, String> record = sendAndRead(new TestMessage().setContent("retry"));
+
+        // 调用
+        long now = System.currentTimeMillis();
+        listener.onMessage(record);
+        // 断言：写入延迟重试的 ZSET，重试次数为 1，按照第 1 次的延迟调度
+        Set<String> values = stringRedisTemplate.opsForZSet().range(listener.getRetryKey(), 0, -1);
+        assertNotNull(values);
+        assertEquals(1, values.size());
+        String value = values.iterator().next();
+        TestMessage retryMessage = JsonUtils.parseObject(value, TestMessage.class);
+        assertEquals("retry", retryMessage.getContent());
+        assertEquals("1", retryMessage.getHeader(AbstractRedisStreamMessage.HEADER_RETRY_TIMES));
+        Double score = stringRedisTemplate.opsForZSet().score(listener.getRetryKey(), value);
+        assertNotNull(score);
+        assertTrue(score >= now + Duration.ofSeconds(10).toMillis());
+        assertTrue(score <= System.currentTimeMillis() + Duration.ofSeconds(10).toMillis());
+        assertEquals(0, listener.getDeadLetterCount());
+    }
+
+    @Test
+    public void testOnMessage_deadLetter() {
+        // 准备参数：已经重试到最大次数
+        listener.fail = true;
+        TestMessage message = new TestMessage().setContent("dead");
+        message.addHeader(AbstractRedisStreamMessage.HEADER_RETRY_TIMES, "3");
+        ObjectRecord<String, String> record = sendAndRead(message);
+
+        // 调用
+        listener.onMessage(record);
+        // 断言：写入死信，不再重试
+        assertEquals(0, listener.getRetryCount());
+        List<ObjectRecord<String, String>> deadLetters = stringRedisTemplate.opsForStream()
+                .range(String.class, listener.getDeadLetterKey(), Range.unbounded());
+        assertNotNull(deadLetters);
+        assertEquals(1, deadLetters.size());
+        TestMessage deadLetter = JsonUtils.parseObject(deadLetters.get(0).getValue(), TestMessage.class);
+        assertEquals("dead", deadLetter.getContent());
+        assertEquals("消费失败", deadLetter.getHeader(AbstractRedisStreamMessage.HEADER_DEAD_LETTER_REASON));
+    }
+
+    @Test
+    public void testGetRetryDelay() {
+        assertEquals(Duration.ofSeconds(10), listener.getRetryDelay(1));
+        assertEquals(Duration.ofSeconds(20), listener.getRetryDelay(2));
+        assertEquals(Duration.ofSeconds(40), listener.getRetryDelay(3));
+        assertEquals(Duration.ofMinutes(10), listener.getRetryDelay(10)); // 最大 10 分钟
+        assertEquals(Duration.ofMinutes(10), listener.getRetryDelay(100));
+    }
+
+    @Test
+    public void testResendRetryMessages() {
+        // mock 数据：一条已到期、一条未到期
+        long now = System.currentTimeMillis();
+        String dueValue = JsonUtils.toJsonString(new TestMessage().setContent("due"));
+        String notDueValue = JsonUtils.toJsonString(new TestMessage().setContent("not-due"));
+        stringRedisTemplate.opsForZSet().add(listener.getRetryKey(), dueValue, now - 1000);
+        stringRedisTemplate.opsForZSet().add(listener.getRetryKey(), notDueValue, now + 60000);
+
+        // 调用
+        int count = listener.resendRetryMessages(10);
+        // 断言：只投递到期的消息，并从 ZSET 移除
+        assertEquals(1, count);
+        assertEquals(1, listener.getRetryCount());
+        assertNotNull(stringRedisTemplate.opsForZSet().score(listener.getRetryKey(), notDueValue));
+        // 断言：投递到 Stream 的消息，可以按照 ObjectRecord 正常读取
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream()
+                .range(String.class, listener.getStreamKey(), Range.unbounded());
+        assertNotNull(records);
+        assertEquals(1, records.size());
+        assertEquals(dueValue, records.get(0).getValue());
+
+        // 调用：再次投递，没有到期的消息
+        assertEquals(0, listener.resendRetryMessages(10));
+    }
+
+    @Test
+    public void testResendRetryMessages_limit() {
+        // mock 数据：三条已到期
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            stringRedisTemplate.opsForZSet().add(listener.getRetryKey(),
+                    JsonUtils.toJsonString(new TestMessage().setContent("due-" + i)), now - 1000 + i);
+        }
+
+        // 调用，并断言：按照 limit 分批投递
+        assertEquals(2, listener.resendRetryMessages(2));
+        assertEquals(1, listener.getRetryCount());
+        assertEquals(1, listener.resendRetryMessages(2));
+        assertEquals(0, listener.getRetryCount());
+        assertEquals(3L, stringRedisTemplate.opsForStream().size(listener.getStreamKey()));
+    }
+
+    @Test
+    public void testRetryThenResend_consumeAgain() {
+        // 准备参数：第一次消费失败
+        listener.fail = true;
+        listener.onMessage(sendAndRead(new TestMessage().setContent("again")));
+        assertEquals(1, listener.getRetryCount());
+        // 到期：调整 score 为已到期
+        String value = stringRedisTemplate.opsForZSet().range(listener.getRetryKey(), 0, -1).iterator().next();
+        stringRedisTemplate.opsForZSet().add(listener.getRetryKey(), value, 0);
+
+        // 调用：重新投递后，再次消费成功
+        assertEquals(1, listener.resendRetryMessages(10));
+        listener.fail = false;
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream()
+                .range(String.class, listener.getStreamKey(), Range.unbounded());
+        listener.onMessage(records.get(records.size() - 1).withStreamKey(listener.getStreamKey()));
+        // 断言
+        assertEquals(1, listener.consumeCount.get());
+        assertEquals(0, listener.getRetryCount());
+    }
+
+    @Test
+    public void testOnMessage_idempotent() {
+        // 准备参数
+        listener.idempotent = true;
+        ObjectRecord<String, String> record = sendAndRead(new TestMessage().setContent("once"));
+
+        // 调用：同一条消息投递两次
+        listener.onMessage(record);
+        listener.onMessage(record);
+        // 断言：只消费一次
+        assertEquals(1, listener.consumeCount.get());
+    }
+
+    @Test
+    public void testOnMessage_idempotentDisabled() {
+        // 准备参数
+        ObjectRecord<String, String> record = sendAndRead(new TestMessage().setContent("twice"));
+
+        // 调用：同一条消息投递两次
+        listener.onMessage(record);
+        listener.onMessage(record);
+        // 断言：未开启幂等时，消费两次
+        assertEquals(2, listener.consumeCount.get());
+    }
+
+    @Test
+    public void testOnMessage_idempotentFailure() {
+        // 准备参数：开启幂等，第一次消费失败
+        listener.idempotent = true;
+        listener.fail = true;
+        ObjectRecord<String, String> record = sendAndRead(new TestMessage().setContent("fail-then-ok"));
+        String messageId = JsonUtils.parseObject(record.getValue(), TestMessage.class)
+                .getHeader(AbstractRedisStreamMessage.HEADER_MESSAGE_ID);
+
+        // 调用：消费失败
+        listener.onMessage(record);
+        // 断言：消费标记被删除，写入延迟重试
+        assertEquals(0, listener.consumeCount.get());
+        assertFalse(stringRedisTemplate.hasKey(String.format("redis:stream:consumed:%s:%s:%s",
+                GROUP, listener.getStreamKey(), messageId)));
+        assertEquals(1, listener.getRetryCount());
+
+        // 调用：再次投递，消费成功；之后重复投递，不再消费
+        listener.fail = false;
+        listener.onMessage(record);
+        listener.onMessage(record);
+        // 断言
+        assertEquals(1, listener.consumeCount.get());
+    }
+
+    @Test
+    public void testGetRetryKey_sameSlot() {
+        // 断言：延迟重试的 ZSET 和 Stream 在同一个 slot，从而 RESEND_SCRIPT 在 Redis Cluster 下可以执行
+        assertEquals(ClusterSlotHashUtil.calculateSlot(listener.getStreamKey()),
+                ClusterSlotHashUtil.calculateSlot(listener.getRetryKey()));
+        assertEquals("redis:stream:retry:" + GROUP + ":{" + listener.getStreamKey() + "}", listener.getRetryKey());
+    }
+
+    /**
+     * 发送消息，并从 Stream 中读取出来，模拟监听容器的投递
+     */
+    private ObjectRecord<String, String> sendAndRead(TestMessage message) {
+        redisMQTemplate.send(message);
+        List<ObjectRecord<String, String>> records = stringRedisTemplate.opsForStream()
+                .range(String.class, listener.getStreamKey(), Range.unbounded());
+        assertNotNull(records);
+        return records.get(records.size() - 1).withStreamKey(listener.getStreamKey());
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private String content;
+
+    }
+
+    public static class TestMessageListener extends AbstractRedisStreamMessageListener<TestMessage> {
+
+        private final AtomicInteger consumeCount = new AtomicInteger();
+        private volatile boolean fail;
+        private volatile boolean idempotent;
+
+        @Override
+        public void onMessage(TestMessage message) {
+            if (fail) {
+                throw new IllegalStateException("消费失败");
+            }
+            consumeCount.incrementAndGet();
+        }
+
+        @Override
+        protected boolean isConsumeIdempotent() {
+            return idempotent;
+        }
+
+    }
+
+}
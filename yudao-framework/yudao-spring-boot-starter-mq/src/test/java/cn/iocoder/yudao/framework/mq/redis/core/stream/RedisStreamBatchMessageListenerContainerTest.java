@@ -0,0 +1,138 @@
+package cn.iocoder.yudao.framework.mq.redis.core.stream;
+
+import cn.hutool.core.util.ReflectUtil;
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RedisStreamBatchMessageListenerContainer} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RedisStreamBatchMessageListenerContainerTest extends BaseRedisUnitTest {
+
+    private static final String GROUP = "unit-test";
+    private static final int BATCH_SIZE = 10;
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RedisMQTemplate redisMQTemplate;
+
+    private TestBatchMessageListener listener;
+
+    private RedisStreamBatchMessageListenerContainer container;
+
+    @BeforeEach
+    public void setUp() {
+        redisMQTemplate = new RedisMQTemplate(stringRedisTemplate);
+        listener = new TestBatchMessageListener();
+        listener.setRedisMQTemplate(redisMQTemplate);
+        ReflectUtil.setFieldValue(listener, "group", GROUP);
+        // 清理数据
+        stringRedisTemplate.delete(listener.getStreamKey());
+        stringRedisTemplate.opsForStream().createGroup(listener.getStreamKey(), ReadOffset.from("0"), GROUP);
+        // 创建容器
+        container = new RedisStreamBatchMessageListenerContainer(redisMQTemplate, BATCH_SIZE, POLL_TIMEOUT);
+        container.register(listener, Consumer.from(GROUP, "consumer-0"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        container.stop();
+    }
+
+    @Test
+    public void testPoll_batchSize() throws InterruptedException {
+        // 准备参数：启动前堆积 25 条消息
+        int count = 25;
+        redisMQTemplate.sendBatch(buildMessages(count));
+
+        // 调用
+        container.start();
+        waitConsumed(count);
+        // 断言：每批不超过 batchSize，且所有消息都被消费、ack
+        assertEquals(count, listener.getConsumedCount());
+        assertTrue(listener.batchSizes.size() >= 3);
+        listener.batchSizes.forEach(size -> assertTrue(size <= BATCH_SIZE, "批次大小(" + size + ") 超过 batchSize"));
+        assertEquals(BATCH_SIZE, (int) listener.batchSizes.get(0));
+        assertEquals(0, listener.getPendingCount());
+    }
+
+    @Test
+    public void testPoll_pollTimeout() throws InterruptedException {
+        // 调用：没有消息时，阻塞 pollTimeout 后继续拉取
+        container.start();
+        Thread.sleep(POLL_TIMEOUT.toMillis() * 3);
+        assertTrue(listener.batchSizes.isEmpty());
+        // 调用：阻塞期间到达的消息，可以被消费
+        redisMQTemplate.sendBatch(buildMessages(3));
+        waitConsumed(3);
+        assertEquals(3, listener.getConsumedCount());
+
+        // 调用：停止时，最多等待一次拉取的阻塞
+        long start = System.currentTimeMillis();
+        container.stop();
+        assertTrue(System.currentTimeMillis() - start <= POLL_TIMEOUT.toMillis() * 2 + 500);
+        // 断言：停止后，不再消费
+        redisMQTemplate.sendBatch(buildMessages(1));
+        Thread.sleep(POLL_TIMEOUT.toMillis() * 2);
+        assertEquals(3, listener.getConsumedCount());
+    }
+
+    private void waitConsumed(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && listener.getConsumedCount() < count; i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static List<TestMessage> buildMessages(int count) {
+        List<TestMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new TestMessage().setContent(String.valueOf(i)));
+        }
+        return messages;
+    }
+
+    @Data
+    public static class TestMessage extends AbstractRedisStreamMessage {
+
+        private String content;
+
+    }
+
+    public static class TestBatchMessageListener extends AbstractRedisStreamBatchMessageListener<TestMessage> {
+
+        /**
+         * 每次 onMessage 收到的消息数量
+         */
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onMessage(List<TestMessage> messages) {
+            batchSizes.add(messages.size());
+        }
+
+        public int getConsumedCount() {
+            return batchSizes.stream().mapToInt(Integer::intValue).sum();
+        }
+
+    }
+
+}
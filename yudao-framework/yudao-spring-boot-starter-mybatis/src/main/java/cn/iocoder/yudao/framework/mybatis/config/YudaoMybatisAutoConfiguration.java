@@ -2,6 +2,7 @@ package cn.iocoder.yudao.framework.mybatis.config;
 
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.mybatis.core.handler.DefaultDBFieldHandler;
+import cn.iocoder.yudao.framework.mybatis.core.injector.YudaoSqlInjector;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.autoconfigure.MybatisPlusAutoConfiguration;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
@@ -45,6 +46,11 @@ public class YudaoMybatisAutoConfiguration {
         return mybatisPlusInterceptor;
     }
 
+    @Bean
+    public YudaoSqlInjector yudaoSqlInjector() { // 声明为 MPJSqlInjector 子类，避免 MyBatis Plus Join 再创建
+        return new YudaoSqlInjector();
+    }
+
     @Bean
     public MetaObjectHandler defaultMetaObjectHandler() {
         return new DefaultDBFieldHandler(); // 自动填充参数类
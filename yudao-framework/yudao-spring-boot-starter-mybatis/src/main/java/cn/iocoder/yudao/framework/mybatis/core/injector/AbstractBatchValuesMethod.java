@@ -0,0 +1,86 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import cn.iocoder.yudao.framework.mybatis.core.util.BatchSqlUtils;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+
+import java.util.function.Function;
+
+/**
+ * 多行 INSERT、UPSERT 的 {@link AbstractMethod} 基类
+ *
+ * 参数名固定为 list，且调用方需要通过 {@link BatchSqlUtils#splitBatch} 分批，保证每行值为 null 的字段相同：
+ * 以第一行 list[0] 判断字段是否插入，每一行 et 提供字段的值
+ *
+ * @author 芋道源码
+ */
+public abstract class AbstractBatchValuesMethod extends AbstractMethod {
+
+    /**
+     * 第一行的前缀，用于判断字段是否插入
+     */
+    protected static final String FIRST_PREFIX = "list[0].";
+    /**
+     * 每一行的前缀，用于获得字段的值
+     */
+    protected static final String ITEM_PREFIX = ENTITY_DOT;
+
+    protected AbstractBatchValuesMethod(String methodName) {
+        super(methodName);
+    }
+
+    /**
+     * 构建插入的字段，例如说 (id, name, create_time)
+     */
+    protected String buildInsertColumns(TableInfo tableInfo) {
+        return SqlScriptUtils.convertTrim(buildFields(tableInfo, TableFieldInfo::getInsertSqlColumn,
+                tableInfo.getKeyColumn() + COMMA), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+    }
+
+    /**
+     * 构建一行插入的值，例如说 (#{et.id}, #{et.name}, #{et.createTime})
+     */
+    protected String buildInsertValues(TableInfo tableInfo) {
+        return SqlScriptUtils.convertTrim(buildFields(tableInfo, field -> field.getInsertSqlProperty(ITEM_PREFIX),
+                SqlScriptUtils.safeParam(ITEM_PREFIX + tableInfo.getKeyProperty()) + COMMA), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+    }
+
+    /**
+     * 按照插入的字段，逐个构建以逗号结尾的 SQL 片段
+     *
+     * @param tableInfo 表信息
+     * @param fieldSql  字段的 SQL 片段
+     * @param keySql    主键的 SQL 片段
+     * @return SQL 片段
+     */
+    protected String buildFields(TableInfo tableInfo, Function<TableFieldInfo, String> fieldSql, String keySql) {
+        StringBuilder sql = new StringBuilder();
+        if (tableInfo.havePK()) {
+            // 自增编号为 null 时不插入，由数据库生成；其它情况，由 MyBatis Plus 填充或者调用方设置
+            sql.append(tableInfo.getIdType() == IdType.AUTO
+                    ? SqlScriptUtils.convertIf(keySql, FIRST_PREFIX + tableInfo.getKeyProperty() + " != null", false)
+                    : keySql);
+        }
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (!BatchSqlUtils.isInsertable(field)) {
+                continue;
+            }
+            sql.append(buildIf(field, fieldSql.apply(field)));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 对可能不插入的字段，使用第一行的值进行 if 判断
+     */
+    protected String buildIf(TableFieldInfo field, String sql) {
+        if (!BatchSqlUtils.isOptional(field)) {
+            return sql;
+        }
+        return SqlScriptUtils.convertIf(sql, BatchSqlUtils.buildIfTest(field, FIRST_PREFIX), false);
+    }
+
+}
@@ -0,0 +1,45 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 多行插入：INSERT INTO table (...) VALUES (...), (...)
+ *
+ * 对应 {@link BaseMapperX#insertBatchValues(java.util.List)} 方法，自增编号会通过 getGeneratedKeys 回填
+ *
+ * @author 芋道源码
+ */
+public class InsertBatchValues extends AbstractBatchValuesMethod {
+
+    public static final String METHOD_NAME = "insertBatchValues";
+
+    public InsertBatchValues() {
+        super(METHOD_NAME);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String values = SqlScriptUtils.convertForeach(buildInsertValues(tableInfo), "list", null, ENTITY, COMMA);
+        String sql = "<script>\nINSERT INTO " + tableInfo.getTableName() + " " + buildInsertColumns(tableInfo)
+                + " VALUES " + values + "\n</script>";
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+        KeyGenerator keyGenerator = NoKeyGenerator.INSTANCE;
+        String keyProperty = null;
+        String keyColumn = null;
+        if (tableInfo.havePK() && tableInfo.getIdType() == IdType.AUTO) {
+            keyGenerator = Jdbc3KeyGenerator.INSTANCE;
+            keyProperty = tableInfo.getKeyProperty();
+            keyColumn = tableInfo.getKeyColumn();
+        }
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+}
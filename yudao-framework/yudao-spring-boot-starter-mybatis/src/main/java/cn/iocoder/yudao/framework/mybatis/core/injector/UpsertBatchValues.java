@@ -0,0 +1,100 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.util.BatchSqlUtils;
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.function.Function;
+
+/**
+ * 多行插入或更新，按照主键判断记录是否存在，不同数据库的语法不同：
+ * 1. MySQL：INSERT ... ON DUPLICATE KEY UPDATE
+ * 2. PostgreSQL：INSERT ... ON CONFLICT (主键) DO UPDATE
+ * 3. Oracle、达梦：MERGE INTO ... USING (SELECT ... FROM DUAL UNION ALL ...)
+ *
+ * 对应 {@link BaseMapperX#upsertBatchValues(java.util.List, String)} 方法，要求每一行都有主键。
+ * 更新时，不更新主键、仅在插入时填充的字段（例如说，creator、create_time）
+ *
+ * @author 芋道源码
+ */
+public class UpsertBatchValues extends AbstractBatchValuesMethod {
+
+    public static final String METHOD_NAME = "upsertBatchValues";
+
+    /**
+     * MERGE 语法中，USING 子查询的别名
+     */
+    private static final String SOURCE_ALIAS = "s";
+
+    public UpsertBatchValues() {
+        super(METHOD_NAME);
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String sql = "<script>\n<choose>\n"
+                + "<when test=\"dialect == '" + BatchSqlUtils.DIALECT_MYSQL + "'\">" + buildMySQL(tableInfo) + "</when>\n"
+                + "<when test=\"dialect == '" + BatchSqlUtils.DIALECT_POSTGRESQL + "'\">" + buildPostgreSQL(tableInfo) + "</when>\n"
+                + "<otherwise>" + buildMerge(tableInfo) + "</otherwise>\n"
+                + "</choose>\n</script>";
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+        return addInsertMappedStatement(mapperClass, modelClass, methodName, sqlSource, NoKeyGenerator.INSTANCE, null, null);
+    }
+
+    private String buildMySQL(TableInfo tableInfo) {
+        return buildInsert(tableInfo) + " ON DUPLICATE KEY UPDATE "
+                + buildUpdateSets(tableInfo, column -> column + " = VALUES(" + column + ")");
+    }
+
+    private String buildPostgreSQL(TableInfo tableInfo) {
+        return buildInsert(tableInfo) + " ON CONFLICT (" + tableInfo.getKeyColumn() + ") DO UPDATE SET "
+                + buildUpdateSets(tableInfo, column -> column + " = EXCLUDED." + column);
+    }
+
+    private String buildMerge(TableInfo tableInfo) {
+        // USING (SELECT #{et.id} id, #{et.name} name FROM DUAL UNION ALL ...) s
+        String selectColumns = SqlScriptUtils.convertTrim(buildFields(tableInfo,
+                field -> SqlScriptUtils.safeParam(ITEM_PREFIX + field.getEl()) + " " + field.getColumn() + COMMA,
+                SqlScriptUtils.safeParam(ITEM_PREFIX + tableInfo.getKeyProperty()) + " " + tableInfo.getKeyColumn() + COMMA),
+                null, null, null, COMMA);
+        String using = SqlScriptUtils.convertForeach("SELECT " + selectColumns + " FROM DUAL",
+                "list", null, ENTITY, " UNION ALL ");
+        String sourceColumns = SqlScriptUtils.convertTrim(buildFields(tableInfo,
+                field -> SOURCE_ALIAS + DOT + field.getColumn() + COMMA,
+                SOURCE_ALIAS + DOT + tableInfo.getKeyColumn() + COMMA), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        return "MERGE INTO " + tableInfo.getTableName() + " t USING (" + using + ") " + SOURCE_ALIAS
+                + " ON (t." + tableInfo.getKeyColumn() + " = " + SOURCE_ALIAS + DOT + tableInfo.getKeyColumn() + ")"
+                + " WHEN MATCHED THEN UPDATE SET "
+                + buildUpdateSets(tableInfo, column -> "t." + column + " = " + SOURCE_ALIAS + DOT + column)
+                + " WHEN NOT MATCHED THEN INSERT " + buildInsertColumns(tableInfo) + " VALUES " + sourceColumns;
+    }
+
+    private String buildInsert(TableInfo tableInfo) {
+        return "INSERT INTO " + tableInfo.getTableName() + " " + buildInsertColumns(tableInfo) + " VALUES "
+                + SqlScriptUtils.convertForeach(buildInsertValues(tableInfo), "list", null, ENTITY, COMMA);
+    }
+
+    /**
+     * 构建更新的字段，例如说 name = VALUES(name), update_time = VALUES(update_time)
+     */
+    private String buildUpdateSets(TableInfo tableInfo, Function<String, String> setSql) {
+        StringBuilder sql = new StringBuilder();
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (!BatchSqlUtils.isInsertable(field)
+                    || field.getUpdateStrategy() == FieldStrategy.NEVER
+                    || field.getFieldFill() == FieldFill.INSERT) {
+                continue;
+            }
+            sql.append(buildIf(field, setSql.apply(field.getColumn()) + COMMA));
+        }
+        return SqlScriptUtils.convertTrim(sql.toString(), null, null, null, COMMA);
+    }
+
+}
@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.framework.mybatis.core.injector;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.github.yulichang.injector.MPJSqlInjector;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 芋道的 SQL 注入器，在 MyBatis Plus Join 的基础上，注入 {@link InsertBatchValues}、{@link UpsertBatchValues} 方法
+ *
+ * 注意，MyBatis Plus Join 要求自定义的 SQL 注入器，需要继承 {@link MPJSqlInjector}
+ *
+ * @author 芋道源码
+ */
+public class YudaoSqlInjector extends MPJSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Configuration configuration, Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methods = new ArrayList<>(super.getMethodList(configuration, mapperClass, tableInfo));
+        methods.add(new InsertBatchValues());
+        if (tableInfo.havePK()) {
+            methods.add(new UpsertBatchValues());
+        }
+        return methods;
+    }
+
+}
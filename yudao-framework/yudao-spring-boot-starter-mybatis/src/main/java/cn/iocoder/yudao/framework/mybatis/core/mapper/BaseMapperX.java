@@ -1,10 +1,18 @@
 package cn.iocoder.yudao.framework.mybatis.core.mapper;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.SortablePageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
+import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
+import cn.iocoder.yudao.framework.common.util.collection.KeysetBatchIterator;
+import cn.iocoder.yudao.framework.mybatis.core.injector.InsertBatchValues;
+import cn.iocoder.yudao.framework.mybatis.core.injector.UpsertBatchValues;
+import cn.iocoder.yudao.framework.mybatis.core.util.BatchSqlUtils;
 import cn.iocoder.yudao.framework.mybatis.core.util.JdbcUtils;
 import cn.iocoder.yudao.framework.mybatis.core.util.MyBatisUtils;
 import com.baomidou.mybatisplus.annotation.DbType;
@@ -13,15 +21,18 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.toolkit.Db;
 import com.github.yulichang.base.MPJBaseMapper;
 import com.github.yulichang.interfaces.MPJBaseJoin;
 import com.github.yulichang.wrapper.MPJLambdaWrapper;
 import org.apache.ibatis.annotations.Param;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * 在 MyBatis Plus 的 BaseMapper 的基础上拓展，提供更多的能力
@@ -74,6 +85,106 @@ public interface BaseMapperX<T> extends MPJBaseMapper<T> {
         return new PageResult<>(mpPage.getRecords(), mpPage.getTotal());
     }
 
+    /**
+     * 游标分页查询，按照编号倒序
+     *
+     * @param pageParam    游标分页参数
+     * @param queryWrapper 查询条件；不要设置排序，统一按照编号倒序
+     * @param idField      编号字段
+     * @return 游标分页结果
+     */
+    default CursorPageResult<T> selectCursorPage(CursorPageParam pageParam, LambdaQueryWrapper<T> queryWrapper,
+                                                 SFunction<T, Long> idField) {
+        return selectCursorPage(pageParam, queryWrapper, null, idField);
+    }
+
+    /**
+     * 游标分页查询，按照排序字段 + 编号倒序
+     *
+     * 第二页开始，拼接 (sortField, id) &lt; (上一页最后一条的 sortField, id) 的条件，配合 (sortField, id) 索引，
+     * 每页只扫描 pageSize 条记录；不查询 count，也不随页码变深而变慢
+     *
+     * @param pageParam    游标分页参数
+     * @param queryWrapper 查询条件；不要设置排序，统一按照 sortField + 编号倒序
+     * @param sortField    排序字段，例如说创建时间；为空时，只按照编号排序
+     * @param idField      编号字段，保证排序字段相同时，顺序稳定
+     * @return 游标分页结果
+     */
+    default CursorPageResult<T> selectCursorPage(CursorPageParam pageParam, LambdaQueryWrapper<T> queryWrapper,
+                                                 SFunction<T, ?> sortField, SFunction<T, Long> idField) {
+        // 1. 第一页，按需查询总数
+        String cursor = pageParam.getCursor();
+        Long total = null;
+        if (StrUtil.isEmpty(cursor) && Boolean.TRUE.equals(pageParam.getCountEnabled())) {
+            total = selectCount(queryWrapper);
+        }
+
+        // 2.1 拼接游标条件
+        if (StrUtil.isNotEmpty(cursor)) {
+            Long lastId = MyBatisUtils.parseCursorId(cursor);
+            if (sortField == null) {
+                queryWrapper.lt(idField, lastId);
+            } else {
+                Object lastSortValue = MyBatisUtils.parseCursorSortValue(cursor, sortField);
+                queryWrapper.and(w -> w.lt(sortField, lastSortValue)
+                        .or(o -> o.eq(sortField, lastSortValue).lt(idField, lastId)));
+            }
+        }
+        // 2.2 拼接排序
+        if (sortField != null) {
+            queryWrapper.orderByDesc(sortField);
+        }
+        queryWrapper.orderByDesc(idField);
+
+        // 3. 多查询一条，判断是否有下一页
+        int pageSize = pageParam.getPageSize();
+        List<T> list = selectPage(new Page<T>(1, pageSize + 1, false), queryWrapper).getRecords();
+        if (list.size() <= pageSize) {
+            return new CursorPageResult<>(list, null, total);
+        }
+        list = new ArrayList<>(list.subList(0, pageSize));
+        T last = CollUtil.getLast(list);
+        String nextCursor = MyBatisUtils.buildCursor(sortField != null ? sortField.apply(last) : null, idField.apply(last));
+        return new CursorPageResult<>(list, nextCursor, total);
+    }
+
+    /**
+     * 按照编号倒序，分批遍历满足条件的记录，适合导出等数据量大的场景
+     *
+     * 基于 {@link KeysetBatchIterator} 实现：每批都是 id &lt; 上一批最小 id 的索引查询，不查询 count，也不随遍历变深而变慢
+     *
+     * @param querySupplier 查询条件的构建，每批调用一次；不要设置排序，统一按照编号倒序
+     * @param idField 编号字段
+     * @param batchSize 每批数量
+     * @return 批量迭代器
+     */
+    default Iterator<List<T>> selectBatchIterator(Supplier<? extends LambdaQueryWrapper<T>> querySupplier,
+                                                  SFunction<T, Long> idField, int batchSize) {
+        return new KeysetBatchIterator<>(lastId -> {
+            LambdaQueryWrapper<T> query = querySupplier.get();
+            query.lt(lastId != null, idField, lastId).orderByDesc(idField);
+            return selectPage(new Page<T>(1, batchSize, false), query).getRecords();
+        }, idField, batchSize);
+    }
+
+    /**
+     * 连表查询版本的 {@link #selectBatchIterator(Supplier, SFunction, int)}
+     *
+     * @param clazz 结果类型
+     * @param querySupplier 连表查询条件的构建，每批调用一次；不要设置排序，统一按照编号倒序
+     * @param idField 编号字段
+     * @param batchSize 每批数量
+     * @return 批量迭代器
+     */
+    default Iterator<List<T>> selectJoinBatchIterator(Class<T> clazz, Supplier<? extends MPJLambdaWrapper<T>> querySupplier,
+                                                      SFunction<T, Long> idField, int batchSize) {
+        return new KeysetBatchIterator<>(lastId -> {
+            MPJLambdaWrapper<T> query = querySupplier.get();
+            query.lt(lastId != null, idField, lastId).orderByDesc(idField);
+            return selectJoinPage(new Page<T>(1, batchSize, false), clazz, query).getRecords();
+        }, idField, batchSize);
+    }
+
     default T selectOne(String field, Object value) {
         return selectOne(new QueryWrapper<T>().eq(field, value));
     }
@@ -144,31 +255,110 @@ public interface BaseMapperX<T> extends MPJBaseMapper<T> {
      * @param entities 实体们
      */
     default Boolean insertBatch(Collection<T> entities) {
-        // 特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
-        DbType dbType = JdbcUtils.getDbType();
-        if (JdbcUtils.isSQLServer(dbType)) {
-            entities.forEach(this::insert);
-            return CollUtil.isNotEmpty(entities);
-        }
-        return Db.saveBatch(entities);
+        return insertBatch(entities, BatchSqlUtils.DEFAULT_BATCH_SIZE);
     }
 
     /**
      * 批量插入，适合大量数据插入
      *
+     * 支持的数据库，使用 INSERT ... VALUES (...), (...) 多行插入，每批一次请求；否则，使用 Db.saveBatch 批量插入
+     *
      * @param entities 实体们
      * @param size     插入数量 Db.saveBatch 默认为 1000
      */
     default Boolean insertBatch(Collection<T> entities, int size) {
-        // 特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
+        if (CollUtil.isEmpty(entities)) {
+            return false;
+        }
         DbType dbType = JdbcUtils.getDbType();
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(CollUtil.getFirst(entities).getClass());
+        // 情况一：多行插入
+        if (BatchSqlUtils.isInsertValuesSupported(dbType, tableInfo, entities)) {
+            BatchSqlUtils.splitBatch(dbType, tableInfo, entities, size).forEach(this::insertBatchValues);
+            return true;
+        }
+        // 情况二：特殊：SQL Server 批量插入后，获取 id 会报错，因此通过循环处理
         if (JdbcUtils.isSQLServer(dbType)) {
             entities.forEach(this::insert);
-            return CollUtil.isNotEmpty(entities);
+            return true;
         }
+        // 情况三：JDBC 批量插入
         return Db.saveBatch(entities, size);
     }
 
+    /**
+     * 批量插入或更新，按照主键判断记录是否存在
+     *
+     * @param entities 实体们
+     */
+    default Boolean upsertBatch(Collection<T> entities) {
+        return upsertBatch(entities, BatchSqlUtils.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 批量插入或更新，按照主键判断记录是否存在
+     *
+     * 1. 先查询主键已存在的记录。因为查询会被多租户插件拼接 tenant_id 条件，所以只能查到当前租户的记录
+     * 2. 不存在的实体，通过 {@link #insertBatch(Collection, int)} 插入。如果主键已被其它租户的记录占用，插入时会主键冲突，而不会覆盖它
+     * 3. 已存在的实体，支持的数据库，使用 ON DUPLICATE KEY UPDATE、ON CONFLICT、MERGE 语法，每批一次请求；否则，使用 Db.saveOrUpdateBatch 处理
+     *
+     * 注意，与 updateById 一致，值为 null 的字段不更新
+     *
+     * @param entities 实体们
+     * @param size     每批数量
+     */
+    default Boolean upsertBatch(Collection<T> entities, int size) {
+        if (CollUtil.isEmpty(entities)) {
+            return false;
+        }
+        DbType dbType = JdbcUtils.getDbType();
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(CollUtil.getFirst(entities).getClass());
+        String dialect = BatchSqlUtils.getUpsertDialect(dbType);
+        if (dialect == null || tableInfo == null || !tableInfo.havePK()) {
+            return Db.saveOrUpdateBatch(entities, size);
+        }
+        // 1. 查询已存在的主键
+        Set<Object> existsKeys = new HashSet<>();
+        List<Object> keys = CollectionUtils.convertList(entities, entity -> BatchSqlUtils.getKeyValue(tableInfo, entity),
+                entity -> BatchSqlUtils.getKeyValue(tableInfo, entity) != null);
+        for (List<Object> list : CollUtil.split(keys, BatchSqlUtils.DEFAULT_BATCH_SIZE)) { // Oracle 的 IN 最多 1000 个
+            selectList(new QueryWrapper<T>().select(tableInfo.getKeyColumn()).in(tableInfo.getKeyColumn(), list))
+                    .forEach(entity -> existsKeys.add(BatchSqlUtils.getKeyValue(tableInfo, entity)));
+        }
+        // 2. 不存在的实体，插入
+        List<T> insertList = CollectionUtils.filterList(entities,
+                entity -> !existsKeys.contains(BatchSqlUtils.getKeyValue(tableInfo, entity)));
+        if (CollUtil.isNotEmpty(insertList)) {
+            insertBatch(insertList, size);
+        }
+        // 3. 已存在的实体，插入或更新
+        List<T> upsertList = CollectionUtils.filterList(entities,
+                entity -> existsKeys.contains(BatchSqlUtils.getKeyValue(tableInfo, entity)));
+        BatchSqlUtils.splitBatch(dbType, tableInfo, upsertList, size).forEach(list -> upsertBatchValues(list, dialect));
+        return true;
+    }
+
+    /**
+     * 多行插入，由 {@link InsertBatchValues} 注入
+     *
+     * 注意，需要通过 {@link BatchSqlUtils#splitBatch} 分批，建议使用 {@link #insertBatch(Collection, int)} 方法
+     *
+     * @param entities 实体们
+     * @return 插入条数
+     */
+    int insertBatchValues(@Param("list") List<T> entities);
+
+    /**
+     * 多行插入或更新，由 {@link UpsertBatchValues} 注入
+     *
+     * 注意，需要通过 {@link BatchSqlUtils#splitBatch} 分批，建议使用 {@link #upsertBatch(Collection, int)} 方法
+     *
+     * @param entities 实体们，主键不能为空
+     * @param dialect  方言，见 {@link BatchSqlUtils#getUpsertDialect(DbType)}
+     * @return 影响条数
+     */
+    int upsertBatchValues(@Param("list") List<T> entities, @Param("dialect") String dialect);
+
     default int updateBatch(T update) {
         return update(update, new QueryWrapper<>());
     }
@@ -0,0 +1,179 @@
+package cn.iocoder.yudao.framework.mybatis.core.rewrite;
+
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * 带缓存的 SQL 改写拦截器，包装多租户、数据权限等基于 JSqlParser 改写 SQL 的 {@link InnerInterceptor}
+ *
+ * 未包装时，每条 SQL 执行前，每个拦截器都要解析一次 SQL、改写、再生成 SQL 字符串，在高并发下开销较大。包装后：
+ * 1. 缓存 KEY 为 MappedStatement 编号 + 原始 SQL + 各拦截器影响改写结构的参数（例如说，是否忽略租户、生效的数据权限规则）
+ * 2. 缓存 VALUE 为 {@link SqlRewriteTemplate} 模板，租户编号、数据权限条件等具体值以槽位的形式存在
+ * 3. 命中缓存时，不再执行被包装的拦截器，只需要将当前的租户编号、数据权限条件绑定到模板中
+ *
+ * 被包装的拦截器，需要在 {@link SqlRewriteContextHolder#isRecording()} 时，通过 {@link SqlRewriteContextHolder#addSlot(SqlRewriteSlot)}
+ * 拼接占位符，而不是具体值；否则，具体值会被缓存到模板中
+ *
+ * @author 芋道源码
+ */
+public class SqlRewriteCacheInnerInterceptor implements InnerInterceptor {
+
+    /**
+     * 模板缓存的最大数量
+     */
+    private static final long TEMPLATE_CACHE_MAXIMUM_SIZE = 10000;
+    /**
+     * 模板缓存的过期时间（基于访问）
+     *
+     * SQL 的数量是有限的，所以可以长期缓存；过期时间，只是为了淘汰不再执行的 SQL
+     */
+    private static final Duration TEMPLATE_CACHE_EXPIRE = Duration.ofHours(1);
+
+    /**
+     * 被包装的拦截器
+     */
+    private final List<InnerInterceptor> interceptors = new CopyOnWriteArrayList<>();
+    /**
+     * 各拦截器影响改写结构的参数，参数为 MappedStatement 编号
+     */
+    private final List<Function<String, Object>> keyFunctions = new CopyOnWriteArrayList<>();
+
+    private final Cache<TemplateKey, SqlRewriteTemplate> templateCache = Caffeine.newBuilder()
+            .maximumSize(TEMPLATE_CACHE_MAXIMUM_SIZE)
+            .expireAfterAccess(TEMPLATE_CACHE_EXPIRE)
+            .recordStats()
+            .build();
+
+    public SqlRewriteCacheInnerInterceptor() {
+        CacheUtils.registerCache("mybatis-sql-rewrite-template", templateCache);
+    }
+
+    /**
+     * 添加被包装的拦截器，添加到首个，和 MyBatisUtils#addInterceptor(interceptor, inner, 0) 的顺序保持一致
+     *
+     * @param interceptor 拦截器
+     * @param keyFunction 影响改写结构的参数
+     */
+    public void addInterceptor(InnerInterceptor interceptor, Function<String, Object> keyFunction) {
+        interceptors.add(0, interceptor);
+        keyFunctions.add(0, keyFunction);
+        templateCache.invalidateAll();
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        for (InnerInterceptor interceptor : interceptors) {
+            if (!interceptor.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        PluginUtils.MPBoundSql mpBs = PluginUtils.mpBoundSql(boundSql);
+        mpBs.sql(rewrite(ms.getId(), mpBs.sql(), sql -> {
+            for (InnerInterceptor interceptor : interceptors) {
+                interceptor.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+            return mpBs.sql();
+        }));
+    }
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        PluginUtils.MPStatementHandler mpSh = PluginUtils.mpStatementHandler(sh);
+        MappedStatement ms = mpSh.mappedStatement();
+        SqlCommandType sct = ms.getSqlCommandType();
+        // 查询已经在 beforeQuery 中处理，这里只处理增删改
+        if (sct != SqlCommandType.INSERT && sct != SqlCommandType.UPDATE && sct != SqlCommandType.DELETE) {
+            return;
+        }
+        PluginUtils.MPBoundSql mpBs = mpSh.mPBoundSql();
+        try {
+            mpBs.sql(rewrite(ms.getId(), mpBs.sql(), sql -> {
+                for (InnerInterceptor interceptor : interceptors) {
+                    interceptor.beforePrepare(sh, connection, transactionTimeout);
+                }
+                return mpBs.sql();
+            }));
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex); // 被包装的 beforePrepare 不会抛出 SQLException，仅为满足编译
+        }
+    }
+
+    /**
+     * 改写 SQL：优先使用缓存的模板；未命中时，录制被包装的拦截器的改写结果，编译成模板并缓存
+     *
+     * @param mappedStatementId MappedStatement 编号
+     * @param sql               原始 SQL
+     * @param rewriter          执行被包装的拦截器，返回改写后的 SQL
+     * @return 改写后的 SQL
+     * @throws SQLException 改写失败
+     */
+    public String rewrite(String mappedStatementId, String sql, SqlRewriter rewriter) throws SQLException {
+        List<Object> params = new ArrayList<>(keyFunctions.size());
+        keyFunctions.forEach(keyFunction -> params.add(keyFunction.apply(mappedStatementId)));
+        TemplateKey key = new TemplateKey(mappedStatementId, sql, params);
+        SqlRewriteTemplate template = templateCache.getIfPresent(key);
+        if (template == null) {
+            // 未命中时，允许多个线程同时录制同一条 SQL，结果相同，后写入的覆盖即可
+            SqlRewriteContextHolder.start();
+            String rewrittenSql;
+            List<SqlRewriteSlot> slots;
+            try {
+                rewrittenSql = rewriter.rewrite(sql);
+            } finally {
+                slots = SqlRewriteContextHolder.stop();
+            }
+            template = SqlRewriteTemplate.compile(rewrittenSql, slots);
+            templateCache.put(key, template);
+        }
+        return template.bind();
+    }
+
+    /**
+     * 执行被包装的拦截器，返回改写后的 SQL
+     */
+    @FunctionalInterface
+    public interface SqlRewriter {
+
+        String rewrite(String sql) throws SQLException;
+
+    }
+
+    /**
+     * {@link #templateCache} 的 KEY
+     */
+    @Data
+    private static class TemplateKey {
+
+        private final String mappedStatementId;
+        private final String sql;
+        private final List<Object> params;
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package cn.iocoder.yudao.framework.mybatis.core.rewrite;
+
+import net.sf.jsqlparser.schema.Column;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL 改写模板的录制上下文 Holder
+ *
+ * {@link SqlRewriteCacheInnerInterceptor} 未命中缓存时，会开启录制，再执行多租户、数据权限等改写 SQL 的拦截器。
+ * 录制期间，这些拦截器不直接拼接租户编号、过滤条件，而是通过 {@link #addSlot(SqlRewriteSlot)} 拼接占位符，
+ * 从而生成与具体值无关、可被缓存的 SQL 模板
+ *
+ * @author 芋道源码
+ */
+public class SqlRewriteContextHolder {
+
+    /**
+     * 占位符的前缀、后缀，中间为槽位的序号
+     */
+    static final String MARKER_PREFIX = "__yudao_slot_";
+    static final String MARKER_SUFFIX = "__";
+
+    private static final ThreadLocal<List<SqlRewriteSlot>> SLOTS = new ThreadLocal<>();
+
+    /**
+     * 是否正在录制 SQL 模板
+     *
+     * @return 是否录制
+     */
+    public static boolean isRecording() {
+        return SLOTS.get() != null;
+    }
+
+    /**
+     * 添加槽位
+     *
+     * @param slot 槽位
+     * @return 占位符，用于拼接到 SQL 中
+     */
+    public static Column addSlot(SqlRewriteSlot slot) {
+        List<SqlRewriteSlot> slots = SLOTS.get();
+        slots.add(slot);
+        return new Column(MARKER_PREFIX + (slots.size() - 1) + MARKER_SUFFIX);
+    }
+
+    static void start() {
+        SLOTS.set(new ArrayList<>());
+    }
+
+    static List<SqlRewriteSlot> stop() {
+        List<SqlRewriteSlot> slots = SLOTS.get();
+        SLOTS.remove();
+        return slots;
+    }
+
+}
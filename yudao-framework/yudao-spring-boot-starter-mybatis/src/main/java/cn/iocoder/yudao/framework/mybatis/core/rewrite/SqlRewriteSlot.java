@@ -0,0 +1,20 @@
+package cn.iocoder.yudao.framework.mybatis.core.rewrite;
+
+/**
+ * SQL 改写模板中的参数槽位，在每次执行 SQL 时，解析出当前上下文对应的 SQL 片段
+ *
+ * 例如说，多租户的槽位，解析为当前租户编号；数据权限的槽位，解析为当前登录用户的过滤条件
+ *
+ * @author 芋道源码
+ */
+@FunctionalInterface
+public interface SqlRewriteSlot {
+
+    /**
+     * 解析出当前上下文对应的 SQL 片段
+     *
+     * @return SQL 片段
+     */
+    String resolve();
+
+}
@@ -0,0 +1,79 @@
+package cn.iocoder.yudao.framework.mybatis.core.rewrite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteContextHolder.MARKER_PREFIX;
+import static cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteContextHolder.MARKER_SUFFIX;
+
+/**
+ * 改写后的 SQL 模板
+ *
+ * 由固定的 SQL 文本、与 {@link SqlRewriteSlot} 槽位交替组成。执行 SQL 时，只需要解析各个槽位、拼接字符串，无需再解析 SQL
+ *
+ * @author 芋道源码
+ */
+public class SqlRewriteTemplate {
+
+    private static final Pattern MARKER_PATTERN = Pattern.compile(
+            Pattern.quote(MARKER_PREFIX) + "(\\d+)" + Pattern.quote(MARKER_SUFFIX));
+
+    /**
+     * 固定的 SQL 文本，比 {@link #slots} 多一个
+     */
+    private final List<String> texts;
+    /**
+     * 槽位
+     */
+    private final List<SqlRewriteSlot> slots;
+    /**
+     * 固定的 SQL 文本的总长度，用于预估拼接后的长度
+     */
+    private final int length;
+
+    private SqlRewriteTemplate(List<String> texts, List<SqlRewriteSlot> slots) {
+        this.texts = texts;
+        this.slots = slots;
+        this.length = texts.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * 编译 SQL 模板
+     *
+     * @param sql   包含占位符的 SQL
+     * @param slots 录制的槽位，下标即占位符的序号
+     * @return SQL 模板
+     */
+    public static SqlRewriteTemplate compile(String sql, List<SqlRewriteSlot> slots) {
+        List<String> texts = new ArrayList<>();
+        List<SqlRewriteSlot> orderedSlots = new ArrayList<>();
+        Matcher matcher = MARKER_PATTERN.matcher(sql);
+        int start = 0;
+        while (matcher.find()) {
+            texts.add(sql.substring(start, matcher.start()));
+            orderedSlots.add(slots.get(Integer.parseInt(matcher.group(1))));
+            start = matcher.end();
+        }
+        texts.add(sql.substring(start));
+        return new SqlRewriteTemplate(texts, orderedSlots);
+    }
+
+    /**
+     * 绑定当前上下文的参数，获得最终执行的 SQL
+     *
+     * @return SQL
+     */
+    public String bind() {
+        if (slots.isEmpty()) {
+            return texts.get(0);
+        }
+        StringBuilder sql = new StringBuilder(length + slots.size() * 16);
+        for (int i = 0; i < slots.size(); i++) {
+            sql.append(texts.get(i)).append(slots.get(i).resolve());
+        }
+        return sql.append(texts.get(slots.size())).toString();
+    }
+
+}
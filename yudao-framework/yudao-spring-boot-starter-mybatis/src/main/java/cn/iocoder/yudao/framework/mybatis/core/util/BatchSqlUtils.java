@@ -0,0 +1,219 @@
+package cn.iocoder.yudao.framework.mybatis.core.util;
+
+import cn.hutool.core.collection.CollUtil;
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
+
+/**
+ * 多行 INSERT、UPSERT 的工具类
+ *
+ * 配合 {@link cn.iocoder.yudao.framework.mybatis.core.injector.InsertBatchValues}、
+ * {@link cn.iocoder.yudao.framework.mybatis.core.injector.UpsertBatchValues} 使用：
+ * 1. 与 MyBatis Plus 的单条插入一致，值为 null 的字段不插入，从而使用数据库的默认值、并由多租户插件补充 tenant_id 字段
+ * 2. 多行插入要求每行的字段相同，所以先按照“哪些字段为 null”分组，再按照参数数量的上限分批
+ *
+ * @author 芋道源码
+ */
+public class BatchSqlUtils {
+
+    /**
+     * 默认的每批数量，与 Db.saveBatch 保持一致
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * UPSERT 方言：INSERT ... ON DUPLICATE KEY UPDATE
+     */
+    public static final String DIALECT_MYSQL = "mysql";
+    /**
+     * UPSERT 方言：INSERT ... ON CONFLICT (主键) DO UPDATE
+     */
+    public static final String DIALECT_POSTGRESQL = "postgresql";
+    /**
+     * UPSERT 方言：MERGE INTO ... USING (SELECT ... FROM DUAL UNION ALL ...)
+     */
+    public static final String DIALECT_ORACLE = "oracle";
+
+    /**
+     * 支持 INSERT ... VALUES (...), (...) 多行插入的数据库
+     *
+     * Oracle 不支持，需要使用 INSERT ALL 语法，而它无法被多租户插件解析
+     */
+    private static final Set<DbType> INSERT_VALUES_DB_TYPES = asSet(DbType.MYSQL, DbType.H2,
+            DbType.POSTGRE_SQL, DbType.KINGBASE_ES, DbType.DM, DbType.SQL_SERVER);
+    /**
+     * 多行插入时，可以通过 getGeneratedKeys 返回每一行自增编号的数据库
+     *
+     * SQL Server、达梦只返回最后一行的编号，所以自增编号的记录，不使用多行插入
+     */
+    private static final Set<DbType> GENERATED_KEYS_DB_TYPES = asSet(DbType.MYSQL, DbType.H2,
+            DbType.POSTGRE_SQL, DbType.KINGBASE_ES);
+    /**
+     * 各数据库的 UPSERT 方言
+     *
+     * SQL Server 的 MERGE 必须以分号结尾，而多租户插件改写 SQL 后会丢失分号，所以暂不支持
+     */
+    private static final Map<DbType, String> UPSERT_DIALECTS = new HashMap<>();
+
+    /**
+     * 单条 SQL 的参数数量上限：SQL Server 最多 2100 个，其它数据库（PostgreSQL 最多 32767 个）取一个保守值
+     */
+    private static final int SQL_SERVER_MAX_PARAMETERS = 2000;
+    private static final int MAX_PARAMETERS = 30000;
+
+    static {
+        UPSERT_DIALECTS.put(DbType.MYSQL, DIALECT_MYSQL);
+        UPSERT_DIALECTS.put(DbType.H2, DIALECT_MYSQL); // 单元测试使用 H2 的 MySQL 模式
+        UPSERT_DIALECTS.put(DbType.POSTGRE_SQL, DIALECT_POSTGRESQL);
+        UPSERT_DIALECTS.put(DbType.KINGBASE_ES, DIALECT_POSTGRESQL);
+        UPSERT_DIALECTS.put(DbType.ORACLE, DIALECT_ORACLE);
+        UPSERT_DIALECTS.put(DbType.DM, DIALECT_ORACLE);
+    }
+
+    /**
+     * 判断是否可以使用多行插入
+     *
+     * @param dbType    DB 类型
+     * @param tableInfo 表信息
+     * @param entities  实体们
+     * @return 是否可以
+     */
+    public static boolean isInsertValuesSupported(DbType dbType, TableInfo tableInfo, Collection<?> entities) {
+        if (tableInfo == null || !INSERT_VALUES_DB_TYPES.contains(dbType)) {
+            return false;
+        }
+        if (!tableInfo.havePK() || !hasNullKey(tableInfo, entities)) {
+            return true;
+        }
+        // 情况一：基于序列生成编号，需要逐条 selectKey，交给 Db.saveBatch 处理
+        if (tableInfo.getKeySequence() != null) {
+            return false;
+        }
+        // 情况二：自增编号，需要数据库返回每一行的编号
+        return tableInfo.getIdType() != IdType.AUTO || GENERATED_KEYS_DB_TYPES.contains(dbType);
+    }
+
+    /**
+     * 获得 UPSERT 方言
+     *
+     * @param dbType DB 类型
+     * @return 方言；null 表示不支持
+     */
+    public static String getUpsertDialect(DbType dbType) {
+        return UPSERT_DIALECTS.get(dbType);
+    }
+
+    /**
+     * 判断是否有实体的主键为 null
+     *
+     * @param tableInfo 表信息
+     * @param entities  实体们
+     * @return 是否有
+     */
+    public static boolean hasNullKey(TableInfo tableInfo, Collection<?> entities) {
+        return CollUtil.anyMatch(entities, entity -> getKeyValue(tableInfo, entity) == null);
+    }
+
+    /**
+     * 获得实体的主键
+     *
+     * @param tableInfo 表信息
+     * @param entity    实体
+     * @return 主键
+     */
+    public static Object getKeyValue(TableInfo tableInfo, Object entity) {
+        return tableInfo.getPropertyValue(entity, tableInfo.getKeyProperty());
+    }
+
+    /**
+     * 将实体们拆分成多批：每批内，值为 null 的字段相同，且参数数量不超过数据库的上限
+     *
+     * @param dbType    DB 类型
+     * @param tableInfo 表信息
+     * @param entities  实体们
+     * @param size      每批的最大数量
+     * @return 多批实体
+     */
+    public static <T> List<List<T>> splitBatch(DbType dbType, TableInfo tableInfo, Collection<T> entities, int size) {
+        // 按照值为 null 的字段分组
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        for (T entity : entities) {
+            groups.computeIfAbsent(buildNullSignature(tableInfo, entity), key -> new ArrayList<>()).add(entity);
+        }
+        // 按照参数数量的上限分批
+        int maxParameters = JdbcUtils.isSQLServer(dbType) ? SQL_SERVER_MAX_PARAMETERS : MAX_PARAMETERS;
+        int batchSize = Math.max(1, Math.min(size, maxParameters / (tableInfo.getFieldList().size() + 1)));
+        List<List<T>> batches = new ArrayList<>();
+        groups.values().forEach(group -> batches.addAll(CollUtil.split(group, batchSize)));
+        return batches;
+    }
+
+    private static String buildNullSignature(TableInfo tableInfo, Object entity) {
+        StringBuilder signature = new StringBuilder(tableInfo.getFieldList().size() + 1);
+        if (tableInfo.havePK()) {
+            signature.append(getKeyValue(tableInfo, entity) == null ? '0' : '1');
+        }
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            signature.append(isOptional(field) && isNull(field, tableInfo.getPropertyValue(entity, field.getProperty()))
+                    ? '0' : '1');
+        }
+        return signature.toString();
+    }
+
+    // ========== 生成 SQL 脚本 ==========
+
+    /**
+     * 判断字段是否可能不插入，即需要 if 判断
+     *
+     * 有插入填充的字段，在生成 SQL 之后才会填充，所以总是插入
+     *
+     * @param field 字段
+     * @return 是否
+     */
+    public static boolean isOptional(TableFieldInfo field) {
+        return !field.isWithInsertFill()
+                && field.getInsertStrategy() != FieldStrategy.ALWAYS
+                && field.getInsertStrategy() != FieldStrategy.IGNORED;
+    }
+
+    /**
+     * 判断字段是否插入
+     *
+     * @param field 字段
+     * @return 是否
+     */
+    public static boolean isInsertable(TableFieldInfo field) {
+        return field.getInsertStrategy() != FieldStrategy.NEVER;
+    }
+
+    /**
+     * 构建字段的 if 判断条件，和 {@link #isNull(TableFieldInfo, Object)} 保持一致
+     *
+     * @param field  字段
+     * @param prefix 属性的前缀，例如说 list[0].
+     * @return 判断条件
+     */
+    public static String buildIfTest(TableFieldInfo field, String prefix) {
+        String property = prefix + field.getProperty();
+        if (field.getInsertStrategy() == FieldStrategy.NOT_EMPTY && field.isCharSequence()) {
+            return property + " != null and " + property + " != ''";
+        }
+        return property + " != null";
+    }
+
+    private static boolean isNull(TableFieldInfo field, Object value) {
+        if (value == null) {
+            return true;
+        }
+        return field.getInsertStrategy() == FieldStrategy.NOT_EMPTY
+                && value instanceof CharSequence && ((CharSequence) value).length() == 0;
+    }
+
+}
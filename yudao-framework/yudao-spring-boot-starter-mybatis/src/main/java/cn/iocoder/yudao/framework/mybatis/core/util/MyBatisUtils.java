@@ -1,25 +1,36 @@
 package cn.iocoder.yudao.framework.mybatis.core.util;
 
 import cn.hutool.core.collection.CollectionUtil;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.util.ReflectUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
 import cn.iocoder.yudao.framework.mybatis.core.enums.DbTypeEnum;
+import cn.iocoder.yudao.framework.mybatis.core.rewrite.SqlRewriteCacheInnerInterceptor;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import net.sf.jsqlparser.expression.Alias;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
+import org.apache.ibatis.reflection.property.PropertyNamer;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.invalidParamException;
+
 /**
  * MyBatis 工具类
  */
@@ -27,6 +38,8 @@ public class MyBatisUtils {
 
     private static final String MYSQL_ESCAPE_CHARACTER = "`";
 
+    private static final String CURSOR_SEPARATOR = ",";
+
     public static <T> Page<T> buildPage(PageParam pageParam) {
         return buildPage(pageParam, null);
     }
@@ -44,6 +57,73 @@ public class MyBatisUtils {
         return page;
     }
 
+    /**
+     * 构建游标分页的游标
+     *
+     * 格式为 Base64(id[,sortValue])，对前端而言是不透明的字符串，只需原样回传
+     *
+     * @param sortValue 最后一条记录的排序字段的值；为空时，表示只按照编号排序
+     * @param id        最后一条记录的编号
+     * @return 游标
+     */
+    public static String buildCursor(Object sortValue, Long id) {
+        String cursor = String.valueOf(id);
+        if (sortValue != null) {
+            cursor += CURSOR_SEPARATOR + (sortValue instanceof Date ? ((Date) sortValue).getTime() : sortValue.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标中的编号
+     *
+     * @param cursor 游标
+     * @return 编号
+     */
+    public static Long parseCursorId(String cursor) {
+        try {
+            return Long.valueOf(decodeCursor(cursor)[0]);
+        } catch (NumberFormatException ex) {
+            throw invalidParamException("无效的游标({})", cursor);
+        }
+    }
+
+    /**
+     * 解析游标中的排序字段的值，并转换成排序字段的类型
+     *
+     * @param cursor    游标
+     * @param sortField 排序字段
+     * @return 排序字段的值
+     */
+    public static Object parseCursorSortValue(String cursor, SFunction<?, ?> sortField) {
+        String[] parts = decodeCursor(cursor);
+        if (parts.length < 2) {
+            throw invalidParamException("无效的游标({})", cursor);
+        }
+        LambdaMeta meta = LambdaUtils.extract(sortField);
+        Field field = ReflectUtil.getField(meta.getInstantiatedClass(), PropertyNamer.methodToProperty(meta.getImplMethodName()));
+        try {
+            if (field.getType() == LocalDateTime.class) {
+                return LocalDateTime.parse(parts[1]);
+            }
+            if (field.getType() == Date.class) {
+                return new Date(Long.parseLong(parts[1]));
+            }
+            return Convert.convert(field.getType(), parts[1]);
+        } catch (Exception ex) {
+            throw invalidParamException("无效的游标({})", cursor);
+        }
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 2);
+        } catch (IllegalArgumentException ex) {
+            throw invalidParamException("无效的游标({})", cursor);
+        }
+    }
+
     /**
      * 将拦截器添加到链中
      * 由于 MybatisPlusInterceptor 不支持添加拦截器，所以只能全量设置
@@ -58,6 +138,25 @@ public class MyBatisUtils {
         interceptor.setInterceptors(inners);
     }
 
+    /**
+     * 添加基于 JSqlParser 改写 SQL 的拦截器，统一包装到首个 {@link SqlRewriteCacheInnerInterceptor} 中，缓存改写结果
+     *
+     * @param interceptor MybatisPlusInterceptor 拦截器
+     * @param inner       改写 SQL 的拦截器
+     * @param keyFunction 影响改写结构的参数，参数为 MappedStatement 编号
+     */
+    public static void addRewriteInterceptor(MybatisPlusInterceptor interceptor, InnerInterceptor inner,
+                                             Function<String, Object> keyFunction) {
+        SqlRewriteCacheInnerInterceptor rewriteInterceptor = (SqlRewriteCacheInnerInterceptor) CollectionUtil.findOne(
+                interceptor.getInterceptors(), item -> item instanceof SqlRewriteCacheInnerInterceptor);
+        if (rewriteInterceptor == null) {
+            rewriteInterceptor = new SqlRewriteCacheInnerInterceptor();
+            // 需要加在首个，主要是为了在分页插件前面。这个是 MyBatis Plus 的规定
+            addInterceptor(interceptor, rewriteInterceptor, 0);
+        }
+        rewriteInterceptor.addInterceptor(inner, keyFunction);
+    }
+
     /**
      * 获得 Table 对应的表名
      * <p>
@@ -0,0 +1,154 @@
+package cn.iocoder.yudao.framework.mybatis.core.util;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import lombok.Data;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link BatchSqlUtils} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class BatchSqlUtilsTest {
+
+    private static TableInfo autoTableInfo;
+    private static TableInfo sequenceTableInfo;
+
+    @BeforeAll
+    public static void init() {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        autoTableInfo = TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, ""), AutoDO.class);
+        sequenceTableInfo = TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, ""), SequenceDO.class);
+    }
+
+    @Test
+    public void testSplitBatch_nullSignature() {
+        // 准备参数：name 为 null 与否、id 为 null 与否，分成不同的组
+        AutoDO a = new AutoDO().setName("a").setStatus(1);
+        AutoDO b = new AutoDO().setStatus(2); // name 为 null
+        AutoDO c = new AutoDO().setName("c").setStatus(3);
+        AutoDO d = new AutoDO().setId(4L).setName("d").setStatus(4); // id 不为 null
+        AutoDO e = new AutoDO().setStatus(5); // name 为 null
+
+        // 调用
+        List<List<AutoDO>> batches = BatchSqlUtils.splitBatch(DbType.MYSQL, autoTableInfo, asList(a, b, c, d, e), 1000);
+        // 断言：同一组内的字段相同，且保持原有顺序
+        assertEquals(3, batches.size());
+        assertEquals(asList(a, c), batches.get(0));
+        assertEquals(asList(b, e), batches.get(1));
+        assertEquals(singletonList(d), batches.get(2));
+    }
+
+    @Test
+    public void testSplitBatch_size() {
+        // 调用，并断言：按照 size 分批
+        List<List<AutoDO>> batches = BatchSqlUtils.splitBatch(DbType.MYSQL, autoTableInfo, buildList(25), 10);
+        assertEquals(asList(10, 10, 5), getSizes(batches));
+    }
+
+    @Test
+    public void testSplitBatch_parameterLimit() {
+        // 准备参数：每行 3 个参数（id + 2 个字段）
+        List<AutoDO> list = buildList(1500);
+
+        // 调用，并断言：SQL Server 最多 2000 个参数，每批 666 行
+        assertEquals(asList(666, 666, 168), getSizes(BatchSqlUtils.splitBatch(DbType.SQL_SERVER, autoTableInfo, list, 1000)));
+        // 调用，并断言：其它数据库最多 30000 个参数，每批 10000 行
+        list = buildList(25000);
+        assertEquals(asList(10000, 10000, 5000), getSizes(BatchSqlUtils.splitBatch(DbType.MYSQL, autoTableInfo, list, 20000)));
+        // 调用，并断言：size 更小时，以 size 为准
+        assertEquals(asList(1000, 1000), getSizes(BatchSqlUtils.splitBatch(DbType.MYSQL, autoTableInfo,
+                buildList(2000), 1000)));
+    }
+
+    @Test
+    public void testIsInsertValuesSupported_auto() {
+        List<AutoDO> nullKeys = singletonList(new AutoDO().setName("a"));
+        List<AutoDO> keys = singletonList(new AutoDO().setId(1L).setName("a"));
+        // 自增编号：需要数据库返回每一行的编号
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.MYSQL, autoTableInfo, nullKeys));
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.H2, autoTableInfo, nullKeys));
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.POSTGRE_SQL, autoTableInfo, nullKeys));
+        assertFalse(BatchSqlUtils.isInsertValuesSupported(DbType.SQL_SERVER, autoTableInfo, nullKeys));
+        assertFalse(BatchSqlUtils.isInsertValuesSupported(DbType.DM, autoTableInfo, nullKeys));
+        // 已经设置编号：不需要返回编号
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.SQL_SERVER, autoTableInfo, keys));
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.DM, autoTableInfo, keys));
+        // Oracle：不支持多行插入
+        assertFalse(BatchSqlUtils.isInsertValuesSupported(DbType.ORACLE, autoTableInfo, keys));
+        // 表信息不存在
+        assertFalse(BatchSqlUtils.isInsertValuesSupported(DbType.MYSQL, null, keys));
+    }
+
+    @Test
+    public void testIsInsertValuesSupported_sequence() {
+        // 基于序列生成编号：需要逐条 selectKey
+        assertFalse(BatchSqlUtils.isInsertValuesSupported(DbType.POSTGRE_SQL, sequenceTableInfo,
+                singletonList(new SequenceDO().setName("a"))));
+        // 已经设置编号：不需要 selectKey
+        assertTrue(BatchSqlUtils.isInsertValuesSupported(DbType.POSTGRE_SQL, sequenceTableInfo,
+                singletonList(new SequenceDO().setId(1L).setName("a"))));
+    }
+
+    @Test
+    public void testGetUpsertDialect() {
+        assertEquals(BatchSqlUtils.DIALECT_MYSQL, BatchSqlUtils.getUpsertDialect(DbType.MYSQL));
+        assertEquals(BatchSqlUtils.DIALECT_MYSQL, BatchSqlUtils.getUpsertDialect(DbType.H2));
+        assertEquals(BatchSqlUtils.DIALECT_POSTGRESQL, BatchSqlUtils.getUpsertDialect(DbType.KINGBASE_ES));
+        assertEquals(BatchSqlUtils.DIALECT_ORACLE, BatchSqlUtils.getUpsertDialect(DbType.DM));
+        assertNull(BatchSqlUtils.getUpsertDialect(DbType.SQL_SERVER));
+    }
+
+    private static List<AutoDO> buildList(int size) {
+        List<AutoDO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new AutoDO().setName("name-" + i).setStatus(i));
+        }
+        return list;
+    }
+
+    private static List<Integer> getSizes(List<? extends List<?>> batches) {
+        List<Integer> sizes = new ArrayList<>(batches.size());
+        batches.forEach(batch -> sizes.add(batch.size()));
+        return sizes;
+    }
+
+    @Data
+    @TableName("test_auto")
+    public static class AutoDO {
+
+        @TableId(type = IdType.AUTO)
+        private Long id;
+        private String name;
+        private Integer status;
+
+    }
+
+    @Data
+    @TableName("test_sequence")
+    @KeySequence("test_sequence_seq")
+    public static class SequenceDO {
+
+        @TableId(type = IdType.INPUT)
+        private Long id;
+        private String name;
+
+    }
+
+}
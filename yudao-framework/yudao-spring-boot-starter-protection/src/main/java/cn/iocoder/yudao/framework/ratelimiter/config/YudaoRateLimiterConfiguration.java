@@ -3,6 +3,7 @@ package cn.iocoder.yudao.framework.ratelimiter.config;
 import cn.iocoder.yudao.framework.ratelimiter.core.aop.RateLimiterAspect;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.RateLimiterKeyResolver;
 import cn.iocoder.yudao.framework.ratelimiter.core.keyresolver.impl.*;
+import cn.iocoder.yudao.framework.ratelimiter.core.local.LocalTokenBucketRateLimiter;
 import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
 import cn.iocoder.yudao.framework.redis.config.YudaoRedisAutoConfiguration;
 import org.redisson.api.RedissonClient;
@@ -15,8 +16,9 @@ import java.util.List;
 public class YudaoRateLimiterConfiguration {
 
     @Bean
-    public RateLimiterAspect rateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO) {
-        return new RateLimiterAspect(keyResolvers, rateLimiterRedisDAO);
+    public RateLimiterAspect rateLimiterAspect(List<RateLimiterKeyResolver> keyResolvers, RateLimiterRedisDAO rateLimiterRedisDAO,
+                                               LocalTokenBucketRateLimiter localTokenBucketRateLimiter) {
+        return new RateLimiterAspect(keyResolvers, rateLimiterRedisDAO, localTokenBucketRateLimiter);
     }
 
     @Bean
@@ -25,6 +27,11 @@ public class YudaoRateLimiterConfiguration {
         return new RateLimiterRedisDAO(redissonClient);
     }
 
+    @Bean
+    public LocalTokenBucketRateLimiter localTokenBucketRateLimiter(RateLimiterRedisDAO rateLimiterRedisDAO) {
+        return new LocalTokenBucketRateLimiter(rateLimiterRedisDAO);
+    }
+
     // ========== 各种 RateLimiterRedisDAO Bean ==========
 
     @Bean
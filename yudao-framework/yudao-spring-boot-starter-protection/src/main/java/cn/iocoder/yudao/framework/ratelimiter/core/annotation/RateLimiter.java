@@ -37,6 +37,16 @@ public @interface RateLimiter {
      */
     int count() default 100;
 
+    /**
+     * 是否使用本地令牌桶模式，默认为 false
+     *
+     * false 时，每次请求都访问 Redis 进行限流，精度最高
+     * true 时，每个节点维护本地令牌桶，批量从 Redis 租借令牌，绝大多数请求无需访问 Redis，适合 count 较大的高频接口
+     *
+     * @see cn.iocoder.yudao.framework.ratelimiter.core.local.LocalTokenBucketRateLimiter
+     */
+    boolean local() default false;
+
     /**
      * 提示信息，请求过快的提示
      *
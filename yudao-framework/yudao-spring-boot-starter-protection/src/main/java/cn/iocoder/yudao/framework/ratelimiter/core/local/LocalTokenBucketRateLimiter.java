@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import cn.iocoder.yudao.framework.ratelimiter.core.annotation.RateLimiter;
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地令牌桶的限流器，对应 {@link RateLimiter#local()} 为 true 的情况
+ *
+ * 1. 每个节点、每个限流 KEY，维护一个本地令牌桶，绝大多数请求通过 CAS 扣减本地令牌，无需访问 Redis
+ * 2. 本地令牌用尽时，通过 {@link RateLimiterRedisDAO#lease(String, int, int, TimeUnit, int)} 从 Redis 批量租借，保证全局速率有上限
+ * 3. 租借到的令牌，只在一个限流时间内有效，避免节点囤积令牌后突发放量
+ * 4. Redis 中的令牌不足时，在补充出新令牌之前，不再重复访问 Redis
+ *
+ * 代价是，令牌会被“预分配”到各个节点，某个节点被限流时，其它节点可能还有剩余令牌。所以适合 count 较大的高频接口
+ *
+ * @author 芋道源码
+ */
+public class LocalTokenBucketRateLimiter {
+
+    /**
+     * 每次租借的令牌数，占限流次数的比例的倒数。例如说，count 为 100 时，每次租借 10 个
+     */
+    private static final int LEASE_BATCH_DIVISOR = 10;
+    /**
+     * 每次租借的最大令牌数
+     */
+    private static final int LEASE_BATCH_MAX = 1000;
+
+    private final RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    /**
+     * 本地令牌桶的缓存
+     *
+     * KEY：限流 KEY
+     * VALUE：本地令牌桶
+     */
+    private final Cache<String, Bucket> buckets = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .recordStats()
+            .build();
+
+    public LocalTokenBucketRateLimiter(RateLimiterRedisDAO rateLimiterRedisDAO) {
+        this.rateLimiterRedisDAO = rateLimiterRedisDAO;
+        CacheUtils.registerCache("rate-limiter-local-bucket", buckets);
+    }
+
+    public boolean tryAcquire(String key, int count, int time, TimeUnit timeUnit) {
+        Bucket bucket = buckets.get(key, k -> new Bucket());
+        // 快速路径：扣减本地令牌
+        long now = System.currentTimeMillis();
+        if (bucket.tryConsume(now)) {
+            return true;
+        }
+        // 慢路径：从 Redis 租借令牌。同一个令牌桶，只允许一个线程租借，其它线程等待后重新扣减
+        synchronized (bucket) {
+            now = System.currentTimeMillis();
+            if (bucket.tryConsume(now)) {
+                return true;
+            }
+            // Redis 中的令牌不足时，等待补充出新令牌，避免被限流时，每个请求都访问 Redis
+            if (now < bucket.nextLeaseTime) {
+                return false;
+            }
+            long intervalMillis = Math.max(1, timeUnit.toMillis(time));
+            long granted = rateLimiterRedisDAO.lease(key, count, time, timeUnit, getLeaseBatchSize(count));
+            if (granted <= 0) {
+                bucket.nextLeaseTime = now + Math.max(1, intervalMillis / Math.max(1, count));
+                return false;
+            }
+            // 当前请求消耗 1 个，剩余的放入本地令牌桶
+            bucket.refill(granted - 1, now + intervalMillis);
+            return true;
+        }
+    }
+
+    private static int getLeaseBatchSize(int count) {
+        return Math.min(LEASE_BATCH_MAX, Math.max(1, count / LEASE_BATCH_DIVISOR));
+    }
+
+    /**
+     * 本地令牌桶
+     */
+    private static class Bucket {
+
+        /**
+         * 剩余令牌数
+         */
+        private final AtomicLong tokens = new AtomicLong();
+        /**
+         * 令牌的过期时间（毫秒）
+         */
+        private volatile long expireTime;
+        /**
+         * 下次允许租借的时间（毫秒），只在 synchronized 中读写
+         */
+        private long nextLeaseTime;
+
+        boolean tryConsume(long now) {
+            if (now >= expireTime) {
+                return false;
+            }
+            while (true) {
+                long current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void refill(long count, long expireTime) {
+            // 先置零，再设置过期时间，最后放入令牌，保证并发扣减时，不会用到过期的令牌
+            tokens.set(0);
+            this.expireTime = expireTime;
+            tokens.set(count);
+        }
+
+    }
+
+}
@@ -1,8 +1,15 @@
 package cn.iocoder.yudao.framework.ratelimiter.core.redis;
 
-import lombok.AllArgsConstructor;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.redisson.api.*;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -11,7 +18,6 @@ import java.util.concurrent.TimeUnit;
  *
  * @author 芋道源码
  */
-@AllArgsConstructor
 public class RateLimiterRedisDAO {
 
     /**
@@ -23,37 +29,145 @@ public class RateLimiterRedisDAO {
      */
     private static final String RATE_LIMITER = "rate_limiter:%s";
 
+    /**
+     * 限流令牌桶，用于本地令牌桶模式的批量租借
+     *
+     * KEY 格式：rate_limiter_lease:%s // 参数为 uuid
+     * VALUE 数据格式：HASH // tokens：剩余令牌数；timestamp：上次补充令牌的时间（毫秒）
+     * 过期时间：2 倍的限流时间
+     */
+    private static final String RATE_LIMITER_LEASE = "rate_limiter_lease:%s";
+
+    /**
+     * 租借令牌的 Lua 脚本：按照流逝的时间补充令牌，再从中取出至多 ARGV[3] 个令牌
+     *
+     * 当前时间使用 Redis 服务端的 TIME，而不是各节点的时钟，避免节点之间的时钟偏差导致多补充或少补充令牌。
+     * 因为 TIME 是非确定性命令，所以需要 redis.replicate_commands() 按照执行效果复制（Redis 5.0+ 默认开启）
+     *
+     * KEYS[1]：令牌桶 KEY
+     * ARGV[1]：令牌桶容量；ARGV[2]：限流时间（毫秒）；ARGV[3]：租借数量
+     * 返回：实际租借到的令牌数
+     */
+    private static final String LEASE_SCRIPT =
+            "redis.replicate_commands()\n" +
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local interval = tonumber(ARGV[2])\n" +
+            "local requested = tonumber(ARGV[3])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'timestamp')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local timestamp = tonumber(bucket[2])\n" +
+            "if tokens == nil or timestamp == nil then\n" +
+            "  tokens = capacity\n" +
+            "  timestamp = now\n" +
+            "end\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - timestamp) * capacity / interval)\n" +
+            "local granted = math.min(requested, math.floor(tokens))\n" +
+            "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens - granted), 'timestamp', tostring(math.max(now, timestamp)))\n" +
+            "redis.call('PEXPIRE', KEYS[1], interval * 2)\n" +
+            "return granted";
+
+    /**
+     * 已设置速率的本地缓存，避免每次都读取 Redis 中的 RateLimiterConfig
+     *
+     * 过期后重新比对一次 Redis 中的配置，兜底 Redis 数据被清理的情况
+     */
+    private static final Duration CONFIG_CACHE_EXPIRE = Duration.ofMinutes(1);
+
+    /**
+     * Redis 中的 RateLimiterConfig 不存在时，Redisson 获取令牌抛出的异常信息
+     */
+    private static final String RATE_LIMITER_NOT_INITIALIZED = "RateLimiter is not initialized";
+
     private final RedissonClient redissonClient;
 
+    /**
+     * 已设置速率的本地缓存
+     *
+     * KEY：Redis KEY
+     * VALUE：速率，格式为 count:rateInterval
+     */
+    private final Cache<String, String> configCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(CONFIG_CACHE_EXPIRE)
+            .recordStats()
+            .build();
+
+    public RateLimiterRedisDAO(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+        CacheUtils.registerCache("rate-limiter-config", configCache);
+    }
+
     public Boolean tryAcquire(String key, int count, int time, TimeUnit timeUnit) {
         // 1. 获得 RRateLimiter，并设置 rate 速率
         RRateLimiter rateLimiter = getRRateLimiter(key, count, time, timeUnit);
         // 2. 尝试获取 1 个
-        return rateLimiter.tryAcquire();
+        try {
+            return rateLimiter.tryAcquire();
+        } catch (RedisException ex) {
+            // 本地缓存认为已经设置过速率，但 Redis 中的配置已经被清理（例如说 KEY 被淘汰），则重新设置速率后再获取
+            if (!StrUtil.contains(ex.getMessage(), RATE_LIMITER_NOT_INITIALIZED)) {
+                throw ex;
+            }
+            configCache.invalidate(formatKey(key));
+            return getRRateLimiter(key, count, time, timeUnit).tryAcquire();
+        }
+    }
+
+    /**
+     * 从 Redis 令牌桶中，批量租借令牌
+     *
+     * @param key 限流 KEY
+     * @param count 限流次数
+     * @param time 限流时间
+     * @param timeUnit 时间单位
+     * @param batchSize 租借数量
+     * @return 实际租借到的令牌数，可能小于 batchSize
+     */
+    public long lease(String key, int count, int time, TimeUnit timeUnit, int batchSize) {
+        String redisKey = formatLeaseKey(key);
+        Long granted = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, LEASE_SCRIPT,
+                RScript.ReturnType.INTEGER, Collections.singletonList(redisKey),
+                String.valueOf(count), String.valueOf(Math.max(1, timeUnit.toMillis(time))),
+                String.valueOf(batchSize));
+        return granted != null ? granted : 0;
     }
 
     private static String formatKey(String key) {
         return String.format(RATE_LIMITER, key);
     }
 
+    private static String formatLeaseKey(String key) {
+        return String.format(RATE_LIMITER_LEASE, key);
+    }
+
     private RRateLimiter getRRateLimiter(String key, long count, int time, TimeUnit timeUnit) {
         String redisKey = formatKey(key);
         RRateLimiter rateLimiter = redissonClient.getRateLimiter(redisKey);
         long rateInterval = timeUnit.toSeconds(time);
+        // 0. 如果本地缓存中，已经设置过相同的速率，则直接返回
+        String rate = count + ":" + rateInterval;
+        if (Objects.equals(configCache.getIfPresent(redisKey), rate)) {
+            return rateLimiter;
+        }
         // 1. 如果不存在，设置 rate 速率
         RateLimiterConfig config = rateLimiter.getConfig();
         if (config == null) {
             rateLimiter.trySetRate(RateType.OVERALL, count, rateInterval, RateIntervalUnit.SECONDS);
+            configCache.put(redisKey, rate);
             return rateLimiter;
         }
         // 2. 如果存在，并且配置相同，则直接返回
         if (config.getRateType() == RateType.OVERALL
                 && Objects.equals(config.getRate(), count)
                 && Objects.equals(config.getRateInterval(), TimeUnit.SECONDS.toMillis(rateInterval))) {
+            configCache.put(redisKey, rate);
             return rateLimiter;
         }
         // 3. 如果存在，并且配置不同，则进行新建
         rateLimiter.setRate(RateType.OVERALL, count, rateInterval, RateIntervalUnit.SECONDS);
+        configCache.put(redisKey, rate);
         return rateLimiter;
     }
 
@@ -0,0 +1,57 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.local;
+
+import cn.iocoder.yudao.framework.ratelimiter.core.redis.RateLimiterRedisDAO;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link LocalTokenBucketRateLimiter} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class LocalTokenBucketRateLimiterTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private LocalTokenBucketRateLimiter rateLimiter;
+
+    @Mock
+    private RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    @Test
+    public void testTryAcquire_leaseOnce() {
+        // mock 方法：每次租借 10 个
+        when(rateLimiterRedisDAO.lease(eq("test"), eq(100), eq(1), eq(TimeUnit.MINUTES), eq(10)))
+                .thenReturn(10L);
+
+        // 调用 10 次，都成功
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire("test", 100, 1, TimeUnit.MINUTES));
+        }
+        // 断言：只租借了 1 次
+        verify(rateLimiterRedisDAO, times(1)).lease(eq("test"), eq(100), eq(1), eq(TimeUnit.MINUTES), eq(10));
+    }
+
+    @Test
+    public void testTryAcquire_exhausted() {
+        // mock 方法：租借 1 个，之后 Redis 令牌不足
+        when(rateLimiterRedisDAO.lease(eq("test"), eq(5), eq(1), eq(TimeUnit.MINUTES), eq(1)))
+                .thenReturn(1L, 0L);
+
+        // 调用：第 1 次成功，第 2 次失败
+        assertTrue(rateLimiter.tryAcquire("test", 5, 1, TimeUnit.MINUTES));
+        assertFalse(rateLimiter.tryAcquire("test", 5, 1, TimeUnit.MINUTES));
+        // 调用：在补充出新令牌之前，不再访问 Redis
+        assertFalse(rateLimiter.tryAcquire("test", 5, 1, TimeUnit.MINUTES));
+        verify(rateLimiterRedisDAO, times(2)).lease(eq("test"), eq(5), eq(1), eq(TimeUnit.MINUTES), eq(1));
+    }
+
+}
@@ -0,0 +1,62 @@
+package cn.iocoder.yudao.framework.ratelimiter.core.redis;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link RateLimiterRedisDAO} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class RateLimiterRedisDAOTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private RateLimiterRedisDAO rateLimiterRedisDAO;
+
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RRateLimiter rateLimiter;
+
+    @Test
+    public void testTryAcquire_notInitialized() {
+        // mock 方法：第 1 次获取时，Redis 中的配置已经被清理
+        when(redissonClient.getRateLimiter(eq("rate_limiter:test"))).thenReturn(rateLimiter);
+        when(rateLimiter.tryAcquire())
+                .thenThrow(new RedisException("ERR Error running script: RateLimiter is not initialized"))
+                .thenReturn(true);
+
+        // 调用
+        assertTrue(rateLimiterRedisDAO.tryAcquire("test", 10, 1, TimeUnit.SECONDS));
+        // 断言：清理本地缓存后，重新设置速率
+        verify(rateLimiter, times(2)).trySetRate(eq(RateType.OVERALL), eq(10L), eq(1L),
+                eq(RateIntervalUnit.SECONDS));
+        verify(rateLimiter, times(2)).tryAcquire();
+    }
+
+    @Test
+    public void testTryAcquire_otherException() {
+        // mock 方法
+        when(redissonClient.getRateLimiter(eq("rate_limiter:test"))).thenReturn(rateLimiter);
+        when(rateLimiter.tryAcquire()).thenThrow(new RedisException("READONLY"));
+
+        // 调用，并断言：其它异常直接抛出
+        assertThrows(RedisException.class, () -> rateLimiterRedisDAO.tryAcquire("test", 10, 1, TimeUnit.SECONDS));
+        verify(rateLimiter, times(1)).tryAcquire();
+    }
+
+}
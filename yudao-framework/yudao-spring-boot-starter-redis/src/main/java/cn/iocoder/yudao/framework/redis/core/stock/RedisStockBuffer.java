@@ -0,0 +1,638 @@
+package cn.iocoder.yudao.framework.redis.core.stock;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadUtil;
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 基于 Redis 的库存缓冲
+ *
+ * 热点库存（例如说热门 SKU、秒杀活动）直接扣减数据库，会在少量记录上排队等待行锁。因此，库存先在 Redis 中扣减，
+ * 数据库只按照增量批量写回。每个分组（例如说 SKU、秒杀活动）对应一个 HASH，每个库存字段 xxx 有 4 个属性：
+ * 1. s:xxx：可用库存，仅在加载后存在
+ * 2. r:xxx：已预扣减、但下单事务尚未提交的数量
+ * 3. d:xxx：事务已提交、尚未写回数据库的增量
+ * 4. p:xxx：正在写回数据库的增量
+ *
+ * 从而始终满足：可用库存 = 数据库库存 + d + p - r。因为：
+ * 1. 写回时，通过 Lua 脚本原子地将 d 转移到 p，再按照增量（stock = stock + ?）更新数据库，不会覆盖其它节点的写回
+ * 2. 删除（例如说管理后台修改了库存）时，只删除可用库存 s，尚未写回的 d、p、r 保留，由写回任务继续写回，重新加载时也会计入
+ * 3. 下单事务回滚时，只归还 r 中仍存在的数量，即使期间 Redis 被重新加载，也不会多归还
+ *
+ * 所有 KEY 使用相同的 hash tag（{name}），从而在 Redis Cluster 下位于同一个 slot，一个 Lua 脚本可以同时操作多个分组。
+ * 代价是，同一个库存缓冲的所有分组，集中在同一个节点上
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class RedisStockBuffer {
+
+    /**
+     * 预扣减结果：库存未加载到 Redis
+     */
+    public static final long RESERVE_NOT_LOADED = -1;
+    /**
+     * 预扣减结果：库存不足
+     */
+    public static final long RESERVE_INSUFFICIENT = -2;
+    /**
+     * 预扣减结果：已售罄
+     */
+    public static final long RESERVE_SOLD_OUT = -3;
+
+    /**
+     * 加载时，与写回冲突的最大尝试次数
+     */
+    private static final int LOAD_MAX_ATTEMPTS = 3;
+
+    /**
+     * 公共函数：
+     * 1. now：Redis 服务端的当前时间（毫秒），避免节点之间的时钟偏差
+     * 2. parse：解析 ARGV，从 argIndex 开始，依次为每个 KEY 的字段数量 n、以及 n 组字段与数量
+     * 3. hget：获得数值，不存在时为 0
+     * 4. hincr：增加数值，为 0 时删除字段
+     * 5. cleanup：可用库存、增量都不存在时，删除分组
+     *
+     * 因为 TIME、HGETALL 是非确定性命令，所以需要 redis.replicate_commands() 按照执行效果复制（Redis 5.0+ 默认开启，7.0 起废弃，所以先判断是否存在）
+     */
+    private static final String FUNCTIONS =
+            "if redis.replicate_commands then\n" +
+            "    redis.replicate_commands()\n" +
+            "end\n" +
+            "local function now()\n" +
+            "    local time = redis.call('TIME')\n" +
+            "    return tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "end\n" +
+            "local function parse(keyIndex, argIndex)\n" +
+            "    local items = {}\n" +
+            "    for k = keyIndex, #KEYS do\n" +
+            "        local n = tonumber(ARGV[argIndex])\n" +
+            "        argIndex = argIndex + 1\n" +
+            "        local fields = {}\n" +
+            "        for j = 1, n do\n" +
+            "            fields[j] = { ARGV[argIndex], tonumber(ARGV[argIndex + 1]) }\n" +
+            "            argIndex = argIndex + 2\n" +
+            "        end\n" +
+            "        items[k] = fields\n" +
+            "    end\n" +
+            "    return items\n" +
+            "end\n" +
+            "local function hget(key, field)\n" +
+            "    return tonumber(redis.call('HGET', key, field) or '0')\n" +
+            "end\n" +
+            "local function hincr(key, field, delta)\n" +
+            "    if delta ~= 0 and redis.call('HINCRBY', key, field, delta) == 0 then\n" +
+            "        redis.call('HDEL', key, field)\n" +
+            "    end\n" +
+            "end\n" +
+            "local function cleanup(key, groupsKey)\n" +
+            "    for _, name in ipairs(redis.call('HKEYS', key)) do\n" +
+            "        local prefix = string.sub(name, 1, 2)\n" +
+            "        if prefix == 's:' or prefix == 'r:' or prefix == 'd:' or prefix == 'p:' then\n" +
+            "            return\n" +
+            "        end\n" +
+            "    end\n" +
+            "    redis.call('DEL', key)\n" +
+            "    redis.call('SREM', groupsKey, key)\n" +
+            "end\n";
+
+    /**
+     * 加载可用库存：已加载的字段忽略；字段正在写回、或期间有写回完成时，返回 -1，由调用方重新读取数据库后重试
+     *
+     * KEYS[1]：写回版本 KEY；KEYS[2]：分组集合 KEY；KEYS[3...]：分组 KEY
+     * ARGV[1]：读取数据库前的写回版本；ARGV[2]：过期时间（秒），为 0 时不过期；ARGV[3...]：字段、数据库库存
+     * 返回：加载的字段数量
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then\n" +
+            "    return -1\n" +
+            "end\n" +
+            "local items = parse(3, 3)\n" +
+            "for k = 3, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        if hget(KEYS[k], 'p:' .. item[1]) ~= 0 then\n" +
+            "            return -1\n" +
+            "        end\n" +
+            "    end\n" +
+            "end\n" +
+            "local count = 0\n" +
+            "for k = 3, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        if redis.call('HEXISTS', KEYS[k], 's:' .. item[1]) == 0 then\n" +
+            "            local stock = item[2] + hget(KEYS[k], 'd:' .. item[1]) - hget(KEYS[k], 'r:' .. item[1])\n" +
+            "            redis.call('HSET', KEYS[k], 's:' .. item[1], stock)\n" +
+            "            count = count + 1\n" +
+            "        end\n" +
+            "    end\n" +
+            "    if tonumber(ARGV[2]) > 0 then\n" +
+            "        redis.call('EXPIRE', KEYS[k], ARGV[2])\n" +
+            "    end\n" +
+            "    redis.call('SADD', KEYS[2], KEYS[k])\n" +
+            "end\n" +
+            "return count", Long.class);
+
+    /**
+     * 预扣减库存：先校验所有字段，再统一扣减，保证要么全部成功、要么全部失败
+     *
+     * KEYS[1...]：分组 KEY；ARGV：字段、扣减数量
+     * 返回：成功时，为扣减后的剩余库存（所有字段的最小值）；失败时，为负数的 RESERVE_XXX 结果
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(1, 1)\n" +
+            "local remain = nil\n" +
+            "for k = 1, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        local stock = redis.call('HGET', KEYS[k], 's:' .. item[1])\n" +
+            "        if not stock then\n" +
+            "            return -1\n" +
+            "        end\n" +
+            "        stock = tonumber(stock)\n" +
+            "        if stock <= 0 then\n" +
+            "            return -3\n" +
+            "        end\n" +
+            "        if stock < item[2] then\n" +
+            "            return -2\n" +
+            "        end\n" +
+            "        if remain == nil or stock - item[2] < remain then\n" +
+            "            remain = stock - item[2]\n" +
+            "        end\n" +
+            "    end\n" +
+            "end\n" +
+            "local time = now()\n" +
+            "for k = 1, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        redis.call('HINCRBY', KEYS[k], 's:' .. item[1], -item[2])\n" +
+            "        hincr(KEYS[k], 'r:' .. item[1], item[2])\n" +
+            "    end\n" +
+            "    redis.call('HSET', KEYS[k], 't', time)\n" +
+            "end\n" +
+            "return remain or 0", Long.class);
+
+    /**
+     * 确认预扣减（下单事务已提交）：r 转为 d，等待写回数据库
+     *
+     * 如果 r 已被对账当作超时归还，则重新从可用库存中扣减，避免多卖
+     *
+     * KEYS[1]：待写回分组 KEY；KEYS[2]：分组集合 KEY；KEYS[3...]：分组 KEY；ARGV：字段、数量
+     */
+    private static final RedisScript<Long> CONFIRM_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(3, 1)\n" +
+            "for k = 3, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        local reserved = math.min(hget(KEYS[k], 'r:' .. item[1]), item[2])\n" +
+            "        hincr(KEYS[k], 'r:' .. item[1], -reserved)\n" +
+            "        if reserved < item[2] and redis.call('HEXISTS', KEYS[k], 's:' .. item[1]) == 1 then\n" +
+            "            redis.call('HINCRBY', KEYS[k], 's:' .. item[1], reserved - item[2])\n" +
+            "        end\n" +
+            "        hincr(KEYS[k], 'd:' .. item[1], -item[2])\n" +
+            "    end\n" +
+            "    redis.call('SADD', KEYS[1], KEYS[k])\n" +
+            "    redis.call('SADD', KEYS[2], KEYS[k])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 取消预扣减（下单事务已回滚）：只归还 r 中仍存在的数量
+     *
+     * KEYS[1]：分组集合 KEY；KEYS[2...]：分组 KEY；ARGV：字段、数量
+     */
+    private static final RedisScript<Long> CANCEL_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(2, 1)\n" +
+            "for k = 2, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        local reserved = math.min(hget(KEYS[k], 'r:' .. item[1]), item[2])\n" +
+            "        hincr(KEYS[k], 'r:' .. item[1], -reserved)\n" +
+            "        if reserved > 0 and redis.call('HEXISTS', KEYS[k], 's:' .. item[1]) == 1 then\n" +
+            "            redis.call('HINCRBY', KEYS[k], 's:' .. item[1], reserved)\n" +
+            "        end\n" +
+            "    end\n" +
+            "    cleanup(KEYS[k], KEYS[1])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 增加库存（例如说订单取消，在事务提交后归还）：未加载时，只记录增量，等待写回数据库
+     *
+     * KEYS[1]：待写回分组 KEY；KEYS[2]：分组集合 KEY；KEYS[3...]：分组 KEY；ARGV：字段、数量
+     */
+    private static final RedisScript<Long> INCR_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(3, 1)\n" +
+            "for k = 3, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        if redis.call('HEXISTS', KEYS[k], 's:' .. item[1]) == 1 then\n" +
+            "            redis.call('HINCRBY', KEYS[k], 's:' .. item[1], item[2])\n" +
+            "        end\n" +
+            "        hincr(KEYS[k], 'd:' .. item[1], item[2])\n" +
+            "    end\n" +
+            "    redis.call('SADD', KEYS[1], KEYS[k])\n" +
+            "    redis.call('SADD', KEYS[2], KEYS[k])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 弹出待写回的增量：d 原子转移到 p，并记录开始写回的时间
+     *
+     * KEYS[1...]：分组 KEY
+     * 返回：分组 KEY、字段、增量，依次排列
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POP_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local time = now()\n" +
+            "local result = {}\n" +
+            "for k = 1, #KEYS do\n" +
+            "    local values = redis.call('HGETALL', KEYS[k])\n" +
+            "    local popped = false\n" +
+            "    for i = 1, #values, 2 do\n" +
+            "        if string.sub(values[i], 1, 2) == 'd:' then\n" +
+            "            local field = string.sub(values[i], 3)\n" +
+            "            redis.call('HDEL', KEYS[k], values[i])\n" +
+            "            hincr(KEYS[k], 'p:' .. field, tonumber(values[i + 1]))\n" +
+            "            table.insert(result, KEYS[k])\n" +
+            "            table.insert(result, field)\n" +
+            "            table.insert(result, values[i + 1])\n" +
+            "            popped = true\n" +
+            "        end\n" +
+            "    end\n" +
+            "    if popped then\n" +
+            "        redis.call('HSET', KEYS[k], 'pt', time)\n" +
+            "    end\n" +
+            "end\n" +
+            "return result", List.class);
+
+    /**
+     * 写回成功（事务已提交）：扣除 p，并增加写回版本，使并发读取了旧数据库库存的加载失败重试
+     *
+     * KEYS[1]：写回版本 KEY；KEYS[2]：分组集合 KEY；KEYS[3...]：分组 KEY；ARGV：字段、增量
+     */
+    private static final RedisScript<Long> COMMIT_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(3, 1)\n" +
+            "for k = 3, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        hincr(KEYS[k], 'p:' .. item[1], -item[2])\n" +
+            "    end\n" +
+            "    cleanup(KEYS[k], KEYS[2])\n" +
+            "end\n" +
+            "redis.call('INCR', KEYS[1])\n" +
+            "return 1", Long.class);
+
+    /**
+     * 写回失败（事务已回滚）：p 归还到 d，等待下次写回
+     *
+     * KEYS[1]：待写回分组 KEY；KEYS[2...]：分组 KEY；ARGV：字段、增量
+     */
+    private static final RedisScript<Long> ROLLBACK_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local items = parse(2, 1)\n" +
+            "for k = 2, #KEYS do\n" +
+            "    for _, item in ipairs(items[k]) do\n" +
+            "        hincr(KEYS[k], 'p:' .. item[1], -item[2])\n" +
+            "        hincr(KEYS[k], 'd:' .. item[1], item[2])\n" +
+            "    end\n" +
+            "    redis.call('SADD', KEYS[1], KEYS[k])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 删除可用库存，保留尚未写回的增量
+     *
+     * KEYS[1]：分组集合 KEY；KEYS[2...]：分组 KEY
+     */
+    private static final RedisScript<Long> UNLOAD_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "for k = 2, #KEYS do\n" +
+            "    for _, name in ipairs(redis.call('HKEYS', KEYS[k])) do\n" +
+            "        if string.sub(name, 1, 2) == 's:' then\n" +
+            "            redis.call('HDEL', KEYS[k], name)\n" +
+            "        end\n" +
+            "    end\n" +
+            "    cleanup(KEYS[k], KEYS[1])\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    /**
+     * 对账：
+     * 1. 超时未确认的预扣减 r，例如说下单的进程在事务完成前退出，归还到可用库存
+     * 2. 超时未完成的写回 p，例如说写回的进程在事务完成前退出，归还到 d
+     * 3. 存在 d 的分组，重新标记为待写回，例如说弹出分组后、弹出增量前进程退出
+     *
+     * KEYS[1]：待写回分组 KEY；KEYS[2]：分组集合 KEY；KEYS[3...]：分组 KEY；ARGV[1]：超时时间（毫秒）
+     * 返回：归还的字段数量
+     */
+    private static final RedisScript<Long> RECONCILE_SCRIPT = new DefaultRedisScript<>(FUNCTIONS +
+            "local time = now()\n" +
+            "local timeout = tonumber(ARGV[1])\n" +
+            "local count = 0\n" +
+            "for k = 3, #KEYS do\n" +
+            "    local values = redis.call('HGETALL', KEYS[k])\n" +
+            "    local hash = {}\n" +
+            "    for i = 1, #values, 2 do\n" +
+            "        hash[values[i]] = values[i + 1]\n" +
+            "    end\n" +
+            "    local reserveTimeout = time - tonumber(hash['t'] or '0') > timeout\n" +
+            "    local flushTimeout = time - tonumber(hash['pt'] or '0') > timeout\n" +
+            "    local dirty = false\n" +
+            "    for name, value in pairs(hash) do\n" +
+            "        local prefix = string.sub(name, 1, 2)\n" +
+            "        local field = string.sub(name, 3)\n" +
+            "        if prefix == 'r:' and reserveTimeout then\n" +
+            "            redis.call('HDEL', KEYS[k], name)\n" +
+            "            if hash['s:' .. field] then\n" +
+            "                redis.call('HINCRBY', KEYS[k], 's:' .. field, value)\n" +
+            "            end\n" +
+            "            count = count + 1\n" +
+            "        elseif prefix == 'p:' and flushTimeout then\n" +
+            "            redis.call('HDEL', KEYS[k], name)\n" +
+            "            hincr(KEYS[k], 'd:' .. field, tonumber(value))\n" +
+            "            dirty = true\n" +
+            "            count = count + 1\n" +
+            "        elseif prefix == 'd:' then\n" +
+            "            dirty = true\n" +
+            "        end\n" +
+            "    end\n" +
+            "    if dirty then\n" +
+            "        redis.call('SADD', KEYS[1], KEYS[k])\n" +
+            "    end\n" +
+            "    cleanup(KEYS[k], KEYS[2])\n" +
+            "end\n" +
+            "return count", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 分组 KEY 的前缀，格式为 {name}:
+     */
+    private final String keyPrefix;
+    /**
+     * 待写回的分组集合 KEY，VALUE 为分组 KEY
+     */
+    private final String dirtyKey;
+    /**
+     * 分组集合 KEY，VALUE 为分组 KEY，用于对账
+     */
+    private final String groupsKey;
+    /**
+     * 写回版本 KEY，每次写回成功时加一
+     */
+    private final String versionKey;
+
+    public RedisStockBuffer(StringRedisTemplate stringRedisTemplate, String name) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyPrefix = "{" + name + "}:";
+        this.dirtyKey = keyPrefix + "dirty";
+        this.groupsKey = keyPrefix + "groups";
+        this.versionKey = keyPrefix + "version";
+    }
+
+    /**
+     * 从数据库加载可用库存；已加载的字段忽略
+     *
+     * 先读取写回版本、再读取数据库，与写回并发时重新读取数据库，避免加载到未包含写回增量的旧库存
+     *
+     * @param groupIds 分组编号数组
+     * @param loader 从数据库读取库存，KEY 为分组编号，VALUE 为字段与库存
+     * @param expire 过期时间，为 null 时不过期
+     * @return 加载的字段数量
+     */
+    public int load(Collection<Long> groupIds, Function<Collection<Long>, Map<Long, Map<String, Integer>>> loader,
+                    Duration expire) {
+        if (CollUtil.isEmpty(groupIds)) {
+            return 0;
+        }
+        for (int attempt = 1; attempt <= LOAD_MAX_ATTEMPTS; attempt++) {
+            String version = StrUtil.blankToDefault(stringRedisTemplate.opsForValue().get(versionKey), "0");
+            Map<Long, Map<String, Integer>> stocks = loader.apply(groupIds);
+            if (CollUtil.isEmpty(stocks)) {
+                return 0;
+            }
+            List<String> keys = new ArrayList<>(stocks.size() + 2);
+            keys.add(versionKey);
+            keys.add(groupsKey);
+            List<String> args = new ArrayList<>();
+            args.add(version);
+            args.add(String.valueOf(expire != null ? expire.getSeconds() : 0));
+            buildItems(stocks, keys, args);
+            Long result = stringRedisTemplate.execute(LOAD_SCRIPT, keys, args.toArray());
+            if (result != null && result >= 0) {
+                return result.intValue();
+            }
+            ThreadUtil.sleep(10L * attempt);
+        }
+        log.warn("[load][groups({}) 与写回冲突，加载失败]", groupIds);
+        return 0;
+    }
+
+    /**
+     * 预扣减库存
+     *
+     * @param counts 扣减数量（正数），KEY 为分组编号，VALUE 为字段与数量
+     * @return 成功时，为剩余库存；失败时，为 RESERVE_XXX 结果
+     */
+    public long reserve(Map<Long, Map<String, Integer>> counts) {
+        List<String> keys = new ArrayList<>(counts.size());
+        List<String> args = new ArrayList<>();
+        buildItems(counts, keys, args);
+        Long result = stringRedisTemplate.execute(RESERVE_SCRIPT, keys, args.toArray());
+        return result != null ? result : RESERVE_NOT_LOADED;
+    }
+
+    /**
+     * 确认预扣减，在下单事务提交后调用
+     *
+     * @param counts 数量（正数），同 {@link #reserve(Map)}
+     */
+    public void confirm(Map<Long, Map<String, Integer>> counts) {
+        execute(CONFIRM_SCRIPT, Arrays.asList(dirtyKey, groupsKey), counts);
+    }
+
+    /**
+     * 取消预扣减，在下单事务回滚后调用
+     *
+     * @param counts 数量（正数），同 {@link #reserve(Map)}
+     */
+    public void cancel(Map<Long, Map<String, Integer>> counts) {
+        execute(CANCEL_SCRIPT, Collections.singletonList(groupsKey), counts);
+    }
+
+    /**
+     * 增加库存，在事务提交后调用
+     *
+     * @param counts 数量（正数），KEY 为分组编号，VALUE 为字段与数量
+     */
+    public void incr(Map<Long, Map<String, Integer>> counts) {
+        execute(INCR_SCRIPT, Arrays.asList(dirtyKey, groupsKey), counts);
+    }
+
+    /**
+     * 弹出待写回数据库的增量
+     *
+     * 写回的事务提交后，需要调用 {@link #commit(Map)}；回滚后，需要调用 {@link #rollback(Map)}
+     *
+     * @param count 分组数量
+     * @return 增量，KEY 为分组编号，VALUE 为字段与增量
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, Map<String, Integer>> pop(int count) {
+        List<String> keys = stringRedisTemplate.opsForSet().pop(dirtyKey, count);
+        if (CollUtil.isEmpty(keys)) {
+            return Collections.emptyMap();
+        }
+        List<Object> values = stringRedisTemplate.execute(POP_SCRIPT, keys);
+        if (CollUtil.isEmpty(values)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Map<String, Integer>> result = new LinkedHashMap<>();
+        for (int i = 0; i + 2 < values.size(); i += 3) {
+            Long groupId = parseGroupId(values.get(i).toString());
+            if (groupId == null) {
+                continue;
+            }
+            result.computeIfAbsent(groupId, key -> new LinkedHashMap<>())
+                    .put(values.get(i + 1).toString(), Integer.valueOf(values.get(i + 2).toString()));
+        }
+        return result;
+    }
+
+    /**
+     * 写回数据库成功，在写回的事务提交后调用
+     *
+     * @param deltas 增量，即 {@link #pop(int)} 的结果
+     */
+    public void commit(Map<Long, Map<String, Integer>> deltas) {
+        execute(COMMIT_SCRIPT, Arrays.asList(versionKey, groupsKey), deltas);
+    }
+
+    /**
+     * 写回数据库失败，在写回的事务回滚后调用
+     *
+     * @param deltas 增量，即 {@link #pop(int)} 的结果
+     */
+    public void rollback(Map<Long, Map<String, Integer>> deltas) {
+        execute(ROLLBACK_SCRIPT, Collections.singletonList(dirtyKey), deltas);
+    }
+
+    /**
+     * 删除可用库存，例如说管理后台修改了库存，后续从数据库重新加载
+     *
+     * 尚未写回的增量保留，由写回任务继续写回数据库
+     *
+     * @param groupIds 分组编号数组
+     */
+    public void unload(Collection<Long> groupIds) {
+        if (CollUtil.isEmpty(groupIds)) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(groupIds.size() + 1);
+        keys.add(groupsKey);
+        groupIds.forEach(groupId -> keys.add(formatKey(groupId)));
+        stringRedisTemplate.execute(UNLOAD_SCRIPT, keys);
+    }
+
+    /**
+     * 对账：归还超时未确认的预扣减、超时未完成的写回
+     *
+     * 超时时间需要大于事务的最长执行时间。如果事务在超时后才提交，确认时会重新扣减，但期间归还的库存可能已被卖出
+     *
+     * @param groupIds 分组编号数组
+     * @param timeout 超时时间
+     * @return 归还的字段数量
+     */
+    public int reconcile(Collection<Long> groupIds, Duration timeout) {
+        if (CollUtil.isEmpty(groupIds)) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>(groupIds.size() + 2);
+        keys.add(dirtyKey);
+        keys.add(groupsKey);
+        groupIds.forEach(groupId -> keys.add(formatKey(groupId)));
+        Long result = stringRedisTemplate.execute(RECONCILE_SCRIPT, keys, String.valueOf(timeout.toMillis()));
+        return result != null ? result.intValue() : 0;
+    }
+
+    /**
+     * 获得可用库存
+     *
+     * @param groupId 分组编号
+     * @return 字段与可用库存；未加载的字段不返回
+     */
+    public Map<String, Integer> getStock(Long groupId) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(formatKey(groupId));
+        Map<String, Integer> result = new LinkedHashMap<>(entries.size());
+        entries.forEach((name, value) -> {
+            String field = StrUtil.removePrefix(name.toString(), "s:");
+            if (!Objects.equals(field, name.toString())) {
+                result.put(field, Integer.valueOf(value.toString()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 是否已加载可用库存
+     *
+     * @param groupId 分组编号
+     * @param field 字段
+     * @return 是否加载
+     */
+    public boolean isLoaded(Long groupId, String field) {
+        return stringRedisTemplate.opsForHash().hasKey(formatKey(groupId), "s:" + field);
+    }
+
+    /**
+     * 获得 Redis 中的分组编号，包括仅有增量、未加载可用库存的分组
+     *
+     * @return 分组编号
+     */
+    public Set<Long> getGroupIds() {
+        Set<String> keys = stringRedisTemplate.opsForSet().members(groupsKey);
+        if (CollUtil.isEmpty(keys)) {
+            return Collections.emptySet();
+        }
+        Set<Long> result = new LinkedHashSet<>(keys.size());
+        keys.forEach(key -> {
+            Long groupId = parseGroupId(key);
+            if (groupId != null) {
+                result.add(groupId);
+            }
+        });
+        return result;
+    }
+
+    private void execute(RedisScript<Long> script, List<String> headKeys, Map<Long, Map<String, Integer>> items) {
+        if (CollUtil.isEmpty(items)) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(headKeys.size() + items.size());
+        keys.addAll(headKeys);
+        List<String> args = new ArrayList<>();
+        buildItems(items, keys, args);
+        stringRedisTemplate.execute(script, keys, args.toArray());
+    }
+
+    private void buildItems(Map<Long, Map<String, Integer>> items, List<String> keys, List<String> args) {
+        items.forEach((groupId, fields) -> {
+            keys.add(formatKey(groupId));
+            args.add(String.valueOf(fields.size()));
+            fields.forEach((field, count) -> {
+                args.add(field);
+                args.add(String.valueOf(count));
+            });
+        });
+    }
+
+    private String formatKey(Long groupId) {
+        return keyPrefix + groupId;
+    }
+
+    private Long parseGroupId(String key) {
+        String groupId = StrUtil.removePrefix(key, keyPrefix);
+        return NumberUtil.isLong(groupId) ? Long.valueOf(groupId) : null;
+    }
+
+}
@@ -39,10 +39,10 @@ public class LogRecordServiceImpl implements ILogRecordService {
             // 补全请求信息
             fillRequestFields(reqDTO);
 
-            // 2. 异步记录日志
+            // 2. 异步记录日志，写入批量缓冲队列
             operateLogApi.createOperateLogAsync(reqDTO);
         } catch (Throwable ex) {
-            // 由于 @Async 异步调用，这里打印下日志，更容易跟进
+            // 由于异步批量写入，这里打印下日志，更容易跟进
             log.error("[record][url({}) log({}) 发生异常]", reqDTO.getRequestUrl(), reqDTO, ex);
         }
     }
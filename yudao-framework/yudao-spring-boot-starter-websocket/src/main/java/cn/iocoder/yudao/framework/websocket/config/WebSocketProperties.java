@@ -1,11 +1,13 @@
 package cn.iocoder.yudao.framework.websocket.config;
 
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSlowConsumerPolicy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 
 /**
  * WebSocket 配置项
@@ -31,4 +33,30 @@ public class WebSocketProperties {
     @NotNull(message = "WebSocket 的消息发送者不能为空")
     private String senderType = "local";
 
+    /**
+     * 写线程池的线程数，所有 Session 共享
+     */
+    @NotNull(message = "WebSocket 的写线程数不能为空")
+    private Integer sendThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * 每个 Session 的发送队列大小，单位：条
+     */
+    @NotNull(message = "WebSocket 的发送队列大小不能为空")
+    private Integer sendQueueCapacity = 256;
+
+    /**
+     * 单条消息的发送时间限制，超过后视为慢消费者
+     */
+    @NotNull(message = "WebSocket 的发送时间限制不能为空")
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+
+    /**
+     * 慢消费者的处理策略
+     *
+     * 默认 CLOSE，和之前 ConcurrentWebSocketSessionDecorator 超限后关闭连接的行为保持一致
+     */
+    @NotNull(message = "WebSocket 的慢消费者策略不能为空")
+    private WebSocketSlowConsumerPolicy slowConsumerPolicy = WebSocketSlowConsumerPolicy.CLOSE;
+
 }
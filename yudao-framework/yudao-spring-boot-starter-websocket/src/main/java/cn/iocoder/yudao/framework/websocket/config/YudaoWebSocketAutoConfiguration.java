@@ -65,11 +65,12 @@ public class YudaoWebSocketAutoConfiguration {
 
     @Bean
     public WebSocketHandler webSocketHandler(WebSocketSessionManager sessionManager,
-                                             List<? extends WebSocketMessageListener<?>> messageListeners) {
+                                             List<? extends WebSocketMessageListener<?>> messageListeners,
+                                             WebSocketProperties webSocketProperties) {
         // 1. 创建 JsonWebSocketMessageHandler 对象，处理消息
         JsonWebSocketMessageHandler messageHandler = new JsonWebSocketMessageHandler(messageListeners);
         // 2. 创建 WebSocketSessionHandlerDecorator 对象，处理连接
-        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager);
+        return new WebSocketSessionHandlerDecorator(messageHandler, sessionManager, webSocketProperties);
     }
 
     @Bean
@@ -13,7 +13,6 @@ import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 
 /**
  * WebSocketMessageSender 实现类
@@ -52,16 +51,16 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
      */
     public void send(String sessionId, Integer userType, Long userId, String messageType, String messageContent) {
         // 1. 获得 Session 列表
-        List<WebSocketSession> sessions = Collections.emptyList();
+        Collection<WebSocketSession> sessions = Collections.emptyList();
         if (StrUtil.isNotEmpty(sessionId)) {
             WebSocketSession session = sessionManager.getSession(sessionId);
             if (session != null) {
                 sessions = Collections.singletonList(session);
             }
         } else if (userType != null && userId != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType, userId);
+            sessions = sessionManager.getSessionList(userType, userId);
         } else if (userType != null) {
-            sessions = (List<WebSocketSession>) sessionManager.getSessionList(userType);
+            sessions = sessionManager.getSessionList(userType);
         }
         if (CollUtil.isEmpty(sessions)) {
             if (log.isDebugEnabled()) {
@@ -83,6 +82,7 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
     public void doSend(Collection<WebSocketSession> sessions, String messageType, String messageContent) {
         JsonWebSocketMessage message = new JsonWebSocketMessage().setType(messageType).setContent(messageContent);
         String payload = JsonUtils.toJsonString(message); // 关键，使用 JSON 序列化
+        TextMessage textMessage = new TextMessage(payload); // 只创建一次，所有 Session 共享
         sessions.forEach(session -> {
             // 1. 各种校验，保证 Session 可以被发送
             if (session == null) {
@@ -93,10 +93,12 @@ public abstract class AbstractWebSocketMessageSender implements WebSocketMessage
                 log.error("[doSend][session({}) 已关闭, message({})]", session.getId(), message);
                 return;
             }
-            // 2. 执行发送
+            // 2. 执行发送：只写入 Session 的发送队列，由写线程池异步发送，见 QueuedWebSocketSessionDecorator
             try {
-                session.sendMessage(new TextMessage(payload));
-                log.info("[doSend][session({}) 发送消息成功，message({})]", session.getId(), message);
+                session.sendMessage(textMessage);
+                if (log.isDebugEnabled()) {
+                    log.debug("[doSend][session({}) 写入发送队列成功，message({})]", session.getId(), message);
+                }
             } catch (IOException ex) {
                 log.error("[doSend][session({}) 发送消息失败，message({})]", session.getId(), message, ex);
             }
@@ -0,0 +1,178 @@
+package cn.iocoder.yudao.framework.websocket.core.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带有发送队列的 {@link WebSocketSession} 装饰类
+ *
+ * 1. {@link #sendMessage(WebSocketMessage)} 只是写入有界的发送队列，不阻塞调用方，从而一个慢客户端不会拖慢整个广播
+ * 2. 发送队列由共享的 {@link #executor} 写线程池消费；通过 {@link #scheduled} 保证同一个 Session 同一时刻只有一个线程在写
+ * 3. 发送队列已满、或者单条消息发送超过 {@link #sendTimeLimit} 时，视为慢消费者，按照 {@link #slowConsumerPolicy} 处理
+ *
+ * @author 芋道源码
+ */
+@Slf4j
+public class QueuedWebSocketSessionDecorator extends WebSocketSessionDecorator {
+
+    /**
+     * 每次消费的最大条数，消费完后让出写线程，避免消息多的 Session 饿死其它 Session
+     */
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private final Executor executor;
+    private final WebSocketSlowConsumerPolicy slowConsumerPolicy;
+    /**
+     * 单条消息的发送时间限制，单位：毫秒
+     */
+    private final long sendTimeLimit;
+
+    private final BlockingQueue<WebSocketMessage<?>> queue;
+    /**
+     * 是否已经提交到写线程池，等待或正在消费
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    /**
+     * 是否已经因为慢消费而关闭
+     */
+    private final AtomicBoolean closing = new AtomicBoolean(false);
+    /**
+     * 当前消息的开始发送时间，0 表示未在发送
+     */
+    private volatile long sendStartTime;
+
+    /**
+     * 丢弃的消息数量
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public QueuedWebSocketSessionDecorator(WebSocketSession delegate, Executor executor, int queueCapacity,
+                                           long sendTimeLimit, WebSocketSlowConsumerPolicy slowConsumerPolicy) {
+        super(delegate);
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sendTimeLimit = sendTimeLimit;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        if (closing.get()) {
+            return;
+        }
+        // 1. 正在发送的消息已经超时，说明客户端读得太慢，按照策略处理
+        if (isSendTimeout()) {
+            handleSlowConsumer(message, "发送超时");
+        // 2. 写入发送队列；队列满时，按照策略处理
+        } else if (!queue.offer(message)) {
+            handleSlowConsumer(message, "发送队列已满");
+        }
+        // 3. 提交到写线程池
+        schedule();
+    }
+
+    private boolean isSendTimeout() {
+        long startTime = sendStartTime;
+        return startTime > 0 && System.currentTimeMillis() - startTime > sendTimeLimit;
+    }
+
+    private void handleSlowConsumer(WebSocketMessage<?> message, String reason) {
+        switch (slowConsumerPolicy) {
+            case COALESCE:
+                // 丢弃最早的消息，腾出位置给新消息；并发下仍然写不进去，则丢弃新消息
+                if (queue.poll() != null) {
+                    recordDropped(reason);
+                }
+                if (!queue.offer(message)) {
+                    recordDropped(reason);
+                }
+                break;
+            case CLOSE:
+                closeSlowConsumer(reason);
+                break;
+            default:
+                recordDropped(reason);
+        }
+    }
+
+    private void schedule() {
+        if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            // 写线程池已关闭，例如说应用正在停止
+            scheduled.set(false);
+            log.warn("[schedule][session({}) 写线程池拒绝执行，丢弃 {} 条消息]", getId(), queue.size());
+            queue.clear();
+        }
+    }
+
+    private void drain() {
+        try {
+            for (int i = 0; i < DRAIN_BATCH_SIZE; i++) {
+                WebSocketMessage<?> message = queue.poll();
+                if (message == null) {
+                    break;
+                }
+                if (closing.get() || !isOpen()) {
+                    queue.clear();
+                    break;
+                }
+                sendStartTime = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(message);
+                } catch (Exception ex) {
+                    log.error("[drain][session({}) 发送消息失败]", getId(), ex);
+                } finally {
+                    sendStartTime = 0;
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            // 释放后再检查一次：避免在 poll 为空、到 scheduled 释放之间写入的消息，无人消费
+            schedule();
+        }
+    }
+
+    private void closeSlowConsumer(String reason) {
+        if (!closing.compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("[closeSlowConsumer][session({}) {}，关闭连接，丢弃 {} 条消息]", getId(), reason, queue.size());
+        queue.clear();
+        // 在调用方线程同步关闭：返回后 Session 已关闭，不依赖可能已被慢客户端占满、或者已关闭的写线程池
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception ex) {
+            log.warn("[closeSlowConsumer][session({}) 关闭失败]", getId(), ex);
+        }
+    }
+
+    private void recordDropped(String reason) {
+        // 只打印第一次，避免慢客户端刷屏
+        if (droppedCount.incrementAndGet() == 1) {
+            log.warn("[recordDropped][session({}) {}，开始丢弃消息]", getId(), reason);
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+}
@@ -1,42 +1,55 @@
 package cn.iocoder.yudao.framework.websocket.core.session;
 
+import cn.hutool.core.thread.NamedThreadFactory;
+import cn.iocoder.yudao.framework.websocket.config.WebSocketProperties;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * {@link WebSocketHandler} 的装饰类，实现了以下功能：
  *
  * 1. {@link WebSocketSession} 连接或关闭时，使用 {@link #sessionManager} 进行管理
- * 2. 封装 {@link WebSocketSession} 支持并发操作
+ * 2. 封装 {@link WebSocketSession} 为 {@link QueuedWebSocketSessionDecorator}，支持并发、异步发送
  *
  * @author 芋道源码
  */
-public class WebSocketSessionHandlerDecorator extends WebSocketHandlerDecorator {
+public class WebSocketSessionHandlerDecorator extends WebSocketHandlerDecorator implements DisposableBean {
+
+    private final WebSocketSessionManager sessionManager;
+
+    private final WebSocketProperties properties;
 
     /**
-     * 发送时间的限制，单位：毫秒
-     */
-    private static final Integer SEND_TIME_LIMIT = 1000 * 5;
-    /**
-     * 发送消息缓冲上线，单位：bytes
+     * 写线程池，所有 Session 共享
+     *
+     * 每个 Session 同一时刻最多提交一个任务，所以任务队列的长度不会超过 Session 数量，使用无界队列即可。
+     * 注意：不注册成 Spring Bean，避免 Spring Boot 默认的 applicationTaskExecutor 因为已存在 Executor Bean 而不创建
      */
-    private static final Integer BUFFER_SIZE_LIMIT = 1024 * 100;
-
-    private final WebSocketSessionManager sessionManager;
+    private final ThreadPoolExecutor sendExecutor;
 
     public WebSocketSessionHandlerDecorator(WebSocketHandler delegate,
-                                            WebSocketSessionManager sessionManager) {
+                                            WebSocketSessionManager sessionManager,
+                                            WebSocketProperties properties) {
         super(delegate);
         this.sessionManager = sessionManager;
+        this.properties = properties;
+        this.sendExecutor = new ThreadPoolExecutor(properties.getSendThreads(), properties.getSendThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new NamedThreadFactory("websocket-send-", true));
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        // 实现 session 支持并发，可参考 https://blog.csdn.net/abu935009066/article/details/131218149
-        session = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT, BUFFER_SIZE_LIMIT);
+        // 实现 session 支持并发：发送只写入队列，由写线程池串行发送
+        session = new QueuedWebSocketSessionDecorator(session, sendExecutor, properties.getSendQueueCapacity(),
+                properties.getSendTimeLimit().toMillis(), properties.getSlowConsumerPolicy());
         // 添加到 WebSocketSessionManager 中
         sessionManager.addSession(session);
     }
@@ -46,4 +59,9 @@ public class WebSocketSessionHandlerDecorator extends WebSocketHandlerDecorator
         sessionManager.removeSession(session);
     }
 
+    @Override
+    public void destroy() {
+        sendExecutor.shutdown();
+    }
+
 }
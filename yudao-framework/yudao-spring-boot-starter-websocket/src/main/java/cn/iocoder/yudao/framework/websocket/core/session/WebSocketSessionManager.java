@@ -36,6 +36,8 @@ public interface WebSocketSessionManager {
     /**
      * 获得指定用户类型的 Session 列表
      *
+     * 如果有租户上下文，则只返回该租户的 Session。返回的是只读视图，调用方不要修改
+     *
      * @param userType 用户类型
      * @return Session 列表
      */
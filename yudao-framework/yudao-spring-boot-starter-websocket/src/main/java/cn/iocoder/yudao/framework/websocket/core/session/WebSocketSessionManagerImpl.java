@@ -8,8 +8,7 @@ import org.springframework.web.socket.WebSocketSession;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -17,6 +16,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 /**
  * 默认的 {@link WebSocketSessionManager} 实现类
  *
+ * 广播时不再遍历所有用户构建列表，而是直接返回按照“用户类型”、“用户类型 + 租户”维护的索引视图。
+ * 索引基于 {@link ConcurrentHashMap}，遍历是弱一致的：广播过程中新增、移除的 Session，可能收到、也可能收不到本次消息
+ *
  * @author 芋道源码
  */
 public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
@@ -37,6 +39,25 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
     private final ConcurrentMap<Integer, ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>>> userSessions
             = new ConcurrentHashMap<>();
 
+    /**
+     * userType 与 WebSocketSession 映射，用于无租户上下文的广播
+     *
+     * key1：用户类型
+     * key2：Session 编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<String, WebSocketSession>> userTypeSessions
+            = new ConcurrentHashMap<>();
+
+    /**
+     * userType + tenant 与 WebSocketSession 映射，用于有租户上下文的广播
+     *
+     * key1：用户类型
+     * key2：租户编号
+     * key3：Session 编号
+     */
+    private final ConcurrentMap<Integer, ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>>> tenantSessions
+            = new ConcurrentHashMap<>();
+
     @Override
     public void addSession(WebSocketSession session) {
         // 添加到 idSessions 中
@@ -61,22 +82,45 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
             }
         }
         sessions.add(session);
+        // 添加到 userTypeSessions、tenantSessions 中
+        userTypeSessions.computeIfAbsent(user.getUserType(), key -> new ConcurrentHashMap<>())
+                .put(session.getId(), session);
+        if (user.getTenantId() != null) {
+            tenantSessions.computeIfAbsent(user.getUserType(), key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(user.getTenantId(), key -> new ConcurrentHashMap<>())
+                    .put(session.getId(), session);
+        }
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         // 移除从 idSessions 中
         idSessions.remove(session.getId());
-        // 移除从 idSessions 中
+        // 移除从 userTypeSessions、tenantSessions 中
         LoginUser user = WebSocketFrameworkUtils.getLoginUser(session);
         if (user == null) {
             return;
         }
+        ConcurrentMap<String, WebSocketSession> userTypeSessionsMap = userTypeSessions.get(user.getUserType());
+        if (userTypeSessionsMap != null) {
+            userTypeSessionsMap.remove(session.getId());
+        }
+        ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> tenantSessionsMap = tenantSessions.get(user.getUserType());
+        if (tenantSessionsMap != null && user.getTenantId() != null) {
+            ConcurrentMap<String, WebSocketSession> sessionsMap = tenantSessionsMap.get(user.getTenantId());
+            if (sessionsMap != null) {
+                sessionsMap.remove(session.getId());
+            }
+        }
+        // 移除从 userSessions 中
         ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(user.getUserType());
         if (userSessionsMap == null) {
             return;
         }
         CopyOnWriteArrayList<WebSocketSession> sessions = userSessionsMap.get(user.getId());
+        if (sessions == null) {
+            return;
+        }
         sessions.removeIf(session0 -> session0.getId().equals(session.getId()));
         if (CollUtil.isEmpty(sessions)) {
             userSessionsMap.remove(user.getId(), sessions);
@@ -90,26 +134,20 @@ public class WebSocketSessionManagerImpl implements WebSocketSessionManager {
 
     @Override
     public Collection<WebSocketSession> getSessionList(Integer userType) {
-        ConcurrentMap<Long, CopyOnWriteArrayList<WebSocketSession>> userSessionsMap = userSessions.get(userType);
-        if (CollUtil.isEmpty(userSessionsMap)) {
-            return new ArrayList<>();
-        }
-        LinkedList<WebSocketSession> result = new LinkedList<>(); // 避免扩容
+        // 特殊：如果有租户上下文，则只返回该租户的 Session
         Long contextTenantId = TenantContextHolder.getTenantId();
-        for (List<WebSocketSession> sessions : userSessionsMap.values()) {
-            if (CollUtil.isEmpty(sessions)) {
-                continue;
-            }
-            // 特殊：如果租户不匹配，则直接排除
-            if (contextTenantId != null) {
-                Long userTenantId = WebSocketFrameworkUtils.getTenantId(sessions.get(0));
-                if (!contextTenantId.equals(userTenantId)) {
-                    continue;
-                }
-            }
-            result.addAll(sessions);
+        ConcurrentMap<String, WebSocketSession> sessionsMap;
+        if (contextTenantId != null) {
+            ConcurrentMap<Long, ConcurrentMap<String, WebSocketSession>> tenantSessionsMap = tenantSessions.get(userType);
+            sessionsMap = tenantSessionsMap != null ? tenantSessionsMap.get(contextTenantId) : null;
+        } else {
+            sessionsMap = userTypeSessions.get(userType);
+        }
+        if (CollUtil.isEmpty(sessionsMap)) {
+            return Collections.emptyList();
         }
-        return result;
+        // 直接返回只读视图，避免每次广播都复制一份
+        return Collections.unmodifiableCollection(sessionsMap.values());
     }
 
     @Override
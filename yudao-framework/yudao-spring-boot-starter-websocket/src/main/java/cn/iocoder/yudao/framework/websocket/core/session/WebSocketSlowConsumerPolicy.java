@@ -0,0 +1,25 @@
+package cn.iocoder.yudao.framework.websocket.core.session;
+
+/**
+ * 慢消费者的处理策略
+ *
+ * 当 Session 的发送队列已满，或者单条消息发送超过时间限制时，按照该策略处理
+ *
+ * @author 芋道源码
+ */
+public enum WebSocketSlowConsumerPolicy {
+
+    /**
+     * 丢弃新的消息，保留队列中已有的消息
+     */
+    DROP,
+    /**
+     * 丢弃队列中最早的消息，保留新的消息。适合“只关心最新状态”的推送，例如说在线人数、行情
+     */
+    COALESCE,
+    /**
+     * 关闭 Session，由客户端重连后恢复
+     */
+    CLOSE
+
+}
@@ -0,0 +1,337 @@
+package cn.iocoder.yudao.framework.websocket.core.sender;
+
+import cn.iocoder.yudao.framework.security.core.LoginUser;
+import cn.iocoder.yudao.framework.websocket.config.WebSocketProperties;
+import cn.iocoder.yudao.framework.websocket.core.sender.local.LocalWebSocketMessageSender;
+import cn.iocoder.yudao.framework.websocket.core.session.QueuedWebSocketSessionDecorator;
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionHandlerDecorator;
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSessionManagerImpl;
+import cn.iocoder.yudao.framework.websocket.core.session.WebSocketSlowConsumerPolicy;
+import cn.iocoder.yudao.framework.websocket.core.util.WebSocketFrameworkUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.*;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * WebSocket 广播的基准测试，使用模拟的 Session，测量 1 万、5 万个 Session 的广播延迟
+ *
+ * 基准测试只输出耗时、不做断言，默认跳过，需要时手动执行；慢消费者的测试，正常执行
+ *
+ * @author 芋道源码
+ */
+public class WebSocketBroadcastBenchmarkTest {
+
+    private static final Integer USER_TYPE = 2;
+    private static final Long TENANT_ID = 1L;
+
+    private final WebSocketSessionManagerImpl sessionManager = new WebSocketSessionManagerImpl();
+    private final LocalWebSocketMessageSender sender = new LocalWebSocketMessageSender(sessionManager);
+    private WebSocketSessionHandlerDecorator handler;
+
+    @AfterEach
+    public void tearDown() {
+        if (handler != null) {
+            handler.destroy();
+        }
+    }
+
+    @Test
+    @Disabled("基准测试，手动执行")
+    public void testBroadcast_10k() throws Exception {
+        benchmark(10000);
+    }
+
+    @Test
+    @Disabled("基准测试，手动执行")
+    public void testBroadcast_50k() throws Exception {
+        benchmark(50000);
+    }
+
+    @Test
+    public void testSlowConsumer_close() throws Exception {
+        // 准备参数：一个慢客户端，一个正常客户端
+        handler = createHandler(WebSocketSlowConsumerPolicy.CLOSE, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        SimulatedSession slowSession = connect(1L, blocker);
+        SimulatedSession fastSession = connect(2L, null);
+        int count = 50;
+        fastSession.expect(count);
+
+        // 调用
+        for (int i = 0; i < count; i++) {
+            sender.send(USER_TYPE, "demo", String.valueOf(i));
+        }
+        // 断言：慢客户端在发送的调用方线程中，已经被同步关闭
+        assertFalse(slowSession.isOpen());
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, slowSession.closeStatus);
+        // 断言：正常客户端不受影响
+        assertTrue(fastSession.await(5));
+        assertEquals(count, fastSession.received.get());
+        blocker.countDown();
+    }
+
+    @Test
+    public void testSlowConsumer_sendTimeLimit_drop() throws Exception {
+        // 准备参数：一个慢客户端，队列足够大，只会触发发送超时
+        handler = createHandler(WebSocketSlowConsumerPolicy.DROP, 100, Duration.ofMillis(100));
+        CountDownLatch blocker = new CountDownLatch(1);
+        SimulatedSession slowSession = connect(1L, blocker);
+        slowSession.expect(1);
+        // 第 1 条阻塞在发送中，等待超过发送时间限制
+        sender.send(USER_TYPE, "demo", "0");
+        Thread.sleep(300);
+
+        // 调用
+        int count = 5;
+        for (int i = 1; i <= count; i++) {
+            sender.send(USER_TYPE, "demo", String.valueOf(i));
+        }
+        // 断言：超时后的消息都被丢弃，没有写入队列
+        QueuedWebSocketSessionDecorator session = (QueuedWebSocketSessionDecorator) sessionManager.getSession(slowSession.getId());
+        assertEquals(count, session.getDroppedCount());
+        assertEquals(0, session.getQueueSize());
+        // 断言：放行后，只收到第 1 条，且连接没有被关闭
+        blocker.countDown();
+        assertTrue(slowSession.await(5));
+        assertEquals(1, slowSession.received.get());
+        assertTrue(slowSession.isOpen());
+    }
+
+    @Test
+    public void testSlowConsumer_coalesce() throws Exception {
+        // 准备参数：一个慢客户端
+        handler = createHandler(WebSocketSlowConsumerPolicy.COALESCE, 10);
+        CountDownLatch blocker = new CountDownLatch(1);
+        SimulatedSession slowSession = connect(1L, blocker);
+
+        // 调用：第 1 条阻塞在发送中，后续写满队列后开始丢弃最早的消息
+        int count = 50;
+        for (int i = 0; i < count; i++) {
+            sender.send(USER_TYPE, "demo", String.valueOf(i));
+        }
+        QueuedWebSocketSessionDecorator session = (QueuedWebSocketSessionDecorator) sessionManager.getSession(slowSession.getId());
+        assertTrue(session.getDroppedCount() > 0);
+        // 断言：放行后，收到的最后一条是最新的消息，且连接没有被关闭
+        blocker.countDown();
+        String lastContent = "\"" + (count - 1) + "\"";
+        for (int i = 0; i < 100 && (slowSession.lastPayload == null || !slowSession.lastPayload.contains(lastContent)); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(slowSession.lastPayload.contains(lastContent));
+        assertTrue(slowSession.received.get() <= 1 + 10);
+        assertTrue(slowSession.isOpen());
+    }
+
+    private void benchmark(int sessionCount) throws Exception {
+        handler = createHandler(WebSocketSlowConsumerPolicy.CLOSE, 256);
+        List<SimulatedSession> sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            sessions.add(connect((long) i, null));
+        }
+        // 预热
+        broadcast(sessions, 3);
+
+        // 调用
+        int rounds = 5;
+        long[] latencies = new long[rounds];
+        long[] callerCosts = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long[] result = broadcast(sessions, 1);
+            callerCosts[i] = result[0];
+            latencies[i] = result[1];
+        }
+        // 输出结果
+        System.out.printf("[benchmark][%d sessions] caller(ms)=%s, delivered(ms)=%s%n", sessionCount,
+                toMillis(callerCosts), toMillis(latencies));
+    }
+
+    /**
+     * 广播 times 条消息，并等待所有 Session 收到
+     *
+     * @return [调用方耗时, 全部送达耗时]，单位：纳秒
+     */
+    private long[] broadcast(List<SimulatedSession> sessions, int times) throws InterruptedException {
+        sessions.forEach(session -> session.expect(times));
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            sender.send(USER_TYPE, "demo", "hello");
+        }
+        long callerCost = System.nanoTime() - start;
+        for (SimulatedSession session : sessions) {
+            assertTrue(session.await(30), "Session(" + session.getId() + ") 未收到广播");
+        }
+        return new long[]{callerCost, System.nanoTime() - start};
+    }
+
+    private WebSocketSessionHandlerDecorator createHandler(WebSocketSlowConsumerPolicy policy, int queueCapacity) {
+        return createHandler(policy, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private WebSocketSessionHandlerDecorator createHandler(WebSocketSlowConsumerPolicy policy, int queueCapacity,
+                                                          Duration sendTimeLimit) {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.setSendTimeLimit(sendTimeLimit);
+        properties.setSlowConsumerPolicy(policy);
+        properties.setSendQueueCapacity(queueCapacity);
+        return new WebSocketSessionHandlerDecorator(mock(WebSocketHandler.class), sessionManager, properties);
+    }
+
+    private SimulatedSession connect(Long userId, CountDownLatch blocker) {
+        SimulatedSession session = new SimulatedSession(String.valueOf(userId), blocker);
+        WebSocketFrameworkUtils.setLoginUser(new LoginUser().setId(userId).setUserType(USER_TYPE).setTenantId(TENANT_ID),
+                session.getAttributes());
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private static List<Long> toMillis(long[] nanos) {
+        List<Long> result = new ArrayList<>(nanos.length);
+        for (long nano : nanos) {
+            result.add(TimeUnit.NANOSECONDS.toMillis(nano));
+        }
+        return result;
+    }
+
+    /**
+     * 模拟的 WebSocketSession，只记录收到的消息
+     */
+    private static class SimulatedSession implements WebSocketSession {
+
+        private final String id;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        /**
+         * 非空时，发送阻塞到放行，模拟慢客户端
+         */
+        private final CountDownLatch blocker;
+
+        private final AtomicInteger received = new AtomicInteger();
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+        private volatile String lastPayload;
+        private volatile CloseStatus closeStatus;
+
+        SimulatedSession(String id, CountDownLatch blocker) {
+            this.id = id;
+            this.blocker = blocker;
+        }
+
+        void expect(int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        boolean await(int seconds) throws InterruptedException {
+            return latch.await(seconds, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            if (blocker != null) {
+                try {
+                    blocker.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            lastPayload = ((TextMessage) message).getPayload();
+            received.incrementAndGet();
+            latch.countDown();
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return closeStatus == null;
+        }
+
+        @Override
+        public void close() {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+            closeStatus = status;
+        }
+
+    }
+
+}
@@ -34,16 +34,20 @@ import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
+import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 import static cn.iocoder.yudao.framework.common.pojo.PageParam.PAGE_SIZE_NONE;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.framework.security.core.util.SecurityFrameworkUtils.getLoginUserId;
+import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.CUSTOMER_IMPORT_LIST_IS_EMPTY;
 import static java.util.Collections.singletonList;
 
 @Tag(name = "管理后台 - CRM 客户")
@@ -52,6 +56,11 @@ import static java.util.Collections.singletonList;
 @Validated
 public class CrmCustomerController {
 
+    /**
+     * 导入、导出 Excel 时，每批处理的数量
+     */
+    private static final int EXCEL_BATCH_SIZE = 1000;
+
     @Resource
     private CrmCustomerService customerService;
     @Resource
@@ -237,11 +246,10 @@ public class CrmCustomerController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportCustomerExcel(@Valid CrmCustomerPageReqVO pageVO,
                                     HttpServletResponse response) throws IOException {
-        pageVO.setPageSize(PAGE_SIZE_NONE); // 不分页
-        List<CrmCustomerDO> list = customerService.getCustomerPage(pageVO, getLoginUserId()).getList();
-        // 导出 Excel
+        // 分批查询、分批写入，避免数据量大时一次性加载到内存
         ExcelUtils.write(response, "客户.xls", "数据", CrmCustomerRespVO.class,
-                buildCustomerDetailList(list));
+                customerService.getCustomerBatchIterator(pageVO, getLoginUserId(), EXCEL_BATCH_SIZE),
+                this::buildCustomerDetailList);
     }
 
     @GetMapping("/get-import-template")
@@ -265,8 +273,16 @@ public class CrmCustomerController {
     @PreAuthorize("@ss.hasPermission('crm:customer:import')")
     public CommonResult<CrmCustomerImportRespVO> importExcel(@Valid CrmCustomerImportReqVO importReqVO)
             throws Exception {
-        List<CrmCustomerImportExcelVO> list = ExcelUtils.read(importReqVO.getFile(), CrmCustomerImportExcelVO.class);
-        return success(customerService.importCustomerList(list, importReqVO));
+        // 分批读取、分批导入，避免数据量大时一次性加载到内存
+        CrmCustomerImportRespVO respVO = CrmCustomerImportRespVO.builder().createCustomerNames(new ArrayList<>())
+                .updateCustomerNames(new ArrayList<>()).failureCustomerNames(new LinkedHashMap<>()).build();
+        ExcelUtils.read(importReqVO.getFile(), CrmCustomerImportExcelVO.class, EXCEL_BATCH_SIZE,
+                list -> customerService.importCustomerList(list, importReqVO, respVO));
+        if (CollUtil.isEmpty(respVO.getCreateCustomerNames()) && CollUtil.isEmpty(respVO.getUpdateCustomerNames())
+                && CollUtil.isEmpty(respVO.getFailureCustomerNames())) {
+            throw exception(CUSTOMER_IMPORT_LIST_IS_EMPTY);
+        }
+        return success(respVO);
     }
 
     @PutMapping("/transfer")
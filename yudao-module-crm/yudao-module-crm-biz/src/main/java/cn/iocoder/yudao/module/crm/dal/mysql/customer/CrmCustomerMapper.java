@@ -20,6 +20,8 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -49,6 +51,16 @@ public interface CrmCustomerMapper extends BaseMapperX<CrmCustomerDO> {
     }
 
     default PageResult<CrmCustomerDO> selectPage(CrmCustomerPageReqVO pageReqVO, Long ownerUserId) {
+        return selectJoinPage(pageReqVO, CrmCustomerDO.class, buildCustomerQuery(pageReqVO, ownerUserId));
+    }
+
+    default Iterator<List<CrmCustomerDO>> selectBatchIterator(CrmCustomerPageReqVO pageReqVO, Long ownerUserId,
+                                                              int batchSize) {
+        return selectJoinBatchIterator(CrmCustomerDO.class, () -> buildCustomerQuery(pageReqVO, ownerUserId),
+                CrmCustomerDO::getId, batchSize);
+    }
+
+    static MPJLambdaWrapperX<CrmCustomerDO> buildCustomerQuery(CrmCustomerPageReqVO pageReqVO, Long ownerUserId) {
         MPJLambdaWrapperX<CrmCustomerDO> query = new MPJLambdaWrapperX<>();
         // 拼接数据权限的查询条件
         if (Boolean.TRUE.equals(pageReqVO.getPool())) {
@@ -81,13 +93,17 @@ public interface CrmCustomerMapper extends BaseMapperX<CrmCustomerDO> {
                 throw new IllegalArgumentException("未知联系状态：" + pageReqVO.getContactStatus());
             }
         }
-        return selectJoinPage(pageReqVO, CrmCustomerDO.class, query);
+        return query;
     }
 
     default CrmCustomerDO selectByCustomerName(String name) {
         return selectOne(CrmCustomerDO::getName, name);
     }
 
+    default List<CrmCustomerDO> selectListByName(Collection<String> names) {
+        return selectList(CrmCustomerDO::getName, names);
+    }
+
     default PageResult<CrmCustomerDO> selectPutPoolRemindCustomerPage(CrmCustomerPageReqVO pageReqVO,
                                                                       CrmCustomerPoolConfigDO poolConfig,
                                                                       Long ownerUserId) {
@@ -8,6 +8,7 @@ import cn.iocoder.yudao.module.crm.service.customer.bo.CrmCustomerCreateReqBO;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -96,6 +97,16 @@ public interface CrmCustomerService {
      */
     PageResult<CrmCustomerDO> getCustomerPage(CrmCustomerPageReqVO pageReqVO, Long userId);
 
+    /**
+     * 分批获得客户列表，用于导出
+     *
+     * @param pageReqVO 查询条件，忽略分页参数
+     * @param userId    用户编号
+     * @param batchSize 每批数量
+     * @return 客户的批量迭代器
+     */
+    Iterator<List<CrmCustomerDO>> getCustomerBatchIterator(CrmCustomerPageReqVO pageReqVO, Long userId, int batchSize);
+
     /**
      * 获得放入公海提醒的客户分页
      *
@@ -164,11 +175,14 @@ public interface CrmCustomerService {
     /**
      * 批量导入客户
      *
+     * 导入的 Excel 较大时，可分批调用，导入结果累加到 respVO 中
+     *
      * @param importCustomers 导入客户列表
      * @param importReqVO     请求
-     * @return 导入结果
+     * @param respVO          导入结果
      */
-    CrmCustomerImportRespVO importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO);
+    void importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO,
+                            CrmCustomerImportRespVO respVO);
 
     // ==================== 公海相关操作 ====================
 
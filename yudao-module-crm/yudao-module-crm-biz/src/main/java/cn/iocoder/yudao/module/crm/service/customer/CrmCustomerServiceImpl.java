@@ -47,6 +47,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.*;
@@ -297,47 +299,45 @@ public class CrmCustomerServiceImpl implements CrmCustomerService {
     }
 
     @Override
-    public CrmCustomerImportRespVO importCustomerList(List<CrmCustomerImportExcelVO> importCustomers,
-                                                      CrmCustomerImportReqVO importReqVO) {
-        // 校验非空
+    public void importCustomerList(List<CrmCustomerImportExcelVO> importCustomers, CrmCustomerImportReqVO importReqVO,
+                                   CrmCustomerImportRespVO respVO) {
         importCustomers = filterList(importCustomers, item -> Objects.nonNull(item.getName()));
         if (CollUtil.isEmpty(importCustomers)) {
-            throw exception(CUSTOMER_IMPORT_LIST_IS_EMPTY);
+            return;
         }
+        // 批量查询已存在的客户，避免逐条查询
+        Map<String, CrmCustomerDO> existCustomerMap = convertMap(customerMapper.selectListByName(
+                convertSet(importCustomers, CrmCustomerImportExcelVO::getName)), CrmCustomerDO::getName);
 
-        // 逐条处理
-        CrmCustomerImportRespVO respVO = CrmCustomerImportRespVO.builder().createCustomerNames(new ArrayList<>())
-                .updateCustomerNames(new ArrayList<>()).failureCustomerNames(new LinkedHashMap<>()).build();
-        importCustomers.forEach(importCustomer -> {
+        // 逐条处理：新增的客户暂存到 createCustomers 中，最后批量插入
+        List<CrmCustomerDO> createCustomers = new ArrayList<>();
+        for (CrmCustomerImportExcelVO importCustomer : importCustomers) {
             // 校验，判断是否有不符合的原因
             try {
                 validateCustomerForCreate(importCustomer);
             } catch (ServiceException ex) {
                 respVO.getFailureCustomerNames().put(importCustomer.getName(), ex.getMessage());
-                return;
+                continue;
+            }
+            CrmCustomerDO existCustomer = existCustomerMap.get(importCustomer.getName());
+            if (existCustomer == null && CollUtil.contains(createCustomers,
+                    customer -> customer.getName().equals(importCustomer.getName()))) {
+                // 同一批次中客户名重复：先插入暂存的客户，再按照已存在的客户处理
+                createImportCustomers(createCustomers, importReqVO, existCustomerMap);
+                existCustomer = existCustomerMap.get(importCustomer.getName());
             }
             // 情况一：判断如果不存在，在进行插入
-            CrmCustomerDO existCustomer = customerMapper.selectByCustomerName(importCustomer.getName());
             if (existCustomer == null) {
-                // 1.1 插入客户信息
-                CrmCustomerDO customer = initCustomer(importCustomer, importReqVO.getOwnerUserId());
-                customerMapper.insert(customer);
+                createCustomers.add(initCustomer(importCustomer, importReqVO.getOwnerUserId()));
                 respVO.getCreateCustomerNames().add(importCustomer.getName());
-                // 1.2 创建数据权限
-                if (importReqVO.getOwnerUserId() != null) {
-                    permissionService.createPermission(new CrmPermissionCreateReqBO().setBizType(CrmBizTypeEnum.CRM_CUSTOMER.getType())
-                            .setBizId(customer.getId()).setUserId(importReqVO.getOwnerUserId()).setLevel(CrmPermissionLevelEnum.OWNER.getLevel()));
-                }
-                // 1.3 记录操作日志
-                getSelf().importCustomerLog(customer, false);
-                return;
+                continue;
             }
 
             // 情况二：如果存在，判断是否允许更新
             if (!importReqVO.getUpdateSupport()) {
                 respVO.getFailureCustomerNames().put(importCustomer.getName(),
                         StrUtil.format(CUSTOMER_NAME_EXISTS.getMsg(), importCustomer.getName()));
-                return;
+                continue;
             }
             // 2.1 更新客户信息
             CrmCustomerDO updateCustomer = BeanUtils.toBean(importCustomer, CrmCustomerDO.class)
@@ -346,8 +346,36 @@ public class CrmCustomerServiceImpl implements CrmCustomerService {
             respVO.getUpdateCustomerNames().add(importCustomer.getName());
             // 2.2 记录操作日志
             getSelf().importCustomerLog(updateCustomer, true);
+        }
+        createImportCustomers(createCustomers, importReqVO, existCustomerMap);
+    }
+
+    /**
+     * 批量插入导入的客户，并创建数据权限、记录操作日志
+     *
+     * @param createCustomers 待插入的客户，插入后清空
+     * @param importReqVO 导入请求
+     * @param existCustomerMap 已存在的客户，插入后加入
+     */
+    private void createImportCustomers(List<CrmCustomerDO> createCustomers, CrmCustomerImportReqVO importReqVO,
+                                       Map<String, CrmCustomerDO> existCustomerMap) {
+        if (CollUtil.isEmpty(createCustomers)) {
+            return;
+        }
+        // 1.1 插入客户信息
+        customerMapper.insertBatch(createCustomers);
+        // 1.2 创建数据权限
+        if (importReqVO.getOwnerUserId() != null) {
+            permissionService.createPermissionBatch(convertList(createCustomers, customer -> new CrmPermissionCreateReqBO()
+                    .setBizType(CrmBizTypeEnum.CRM_CUSTOMER.getType()).setBizId(customer.getId())
+                    .setUserId(importReqVO.getOwnerUserId()).setLevel(CrmPermissionLevelEnum.OWNER.getLevel())));
+        }
+        // 1.3 记录操作日志
+        createCustomers.forEach(customer -> {
+            getSelf().importCustomerLog(customer, false);
+            existCustomerMap.put(customer.getName(), customer);
         });
-        return respVO;
+        createCustomers.clear();
     }
 
     /**
@@ -504,6 +532,12 @@ public class CrmCustomerServiceImpl implements CrmCustomerService {
         return customerMapper.selectPage(pageReqVO, userId);
     }
 
+    @Override
+    public Iterator<List<CrmCustomerDO>> getCustomerBatchIterator(CrmCustomerPageReqVO pageReqVO, Long userId,
+                                                                  int batchSize) {
+        return customerMapper.selectBatchIterator(pageReqVO, userId, batchSize);
+    }
+
     @Override
     public PageResult<CrmCustomerDO> getPutPoolRemindCustomerPage(CrmCustomerPageReqVO pageVO, Long userId) {
         CrmCustomerPoolConfigDO poolConfig = customerPoolConfigService.getCustomerPoolConfig();
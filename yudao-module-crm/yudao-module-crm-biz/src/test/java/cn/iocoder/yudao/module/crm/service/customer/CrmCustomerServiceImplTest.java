@@ -0,0 +1,144 @@
+package cn.iocoder.yudao.module.crm.service.customer;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.crm.controller.admin.customer.vo.customer.CrmCustomerImportExcelVO;
+import cn.iocoder.yudao.module.crm.controller.admin.customer.vo.customer.CrmCustomerImportReqVO;
+import cn.iocoder.yudao.module.crm.controller.admin.customer.vo.customer.CrmCustomerImportRespVO;
+import cn.iocoder.yudao.module.crm.dal.dataobject.customer.CrmCustomerDO;
+import cn.iocoder.yudao.module.crm.dal.mysql.customer.CrmCustomerMapper;
+import cn.iocoder.yudao.module.crm.service.permission.CrmPermissionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.module.crm.enums.ErrorCodeConstants.CUSTOMER_NAME_EXISTS;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link CrmCustomerServiceImpl} 的单元测试
+ *
+ * @author 芋道源码
+ */
+public class CrmCustomerServiceImplTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private CrmCustomerServiceImpl customerService;
+
+    @Mock
+    private CrmCustomerMapper customerMapper;
+    @Mock
+    private CrmPermissionService permissionService;
+
+    private MockedStatic<SpringUtil> springUtilMock;
+
+    /**
+     * 模拟数据库中的客户
+     */
+    private final List<CrmCustomerDO> customers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        // mock 方法（getSelf）
+        springUtilMock = mockStatic(SpringUtil.class);
+        springUtilMock.when(() -> SpringUtil.getBean(CrmCustomerServiceImpl.class)).thenReturn(customerService);
+        // mock 方法（按照客户名批量查询、批量插入）
+        when(customerMapper.selectListByName(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return customers.stream().filter(customer -> names.contains(customer.getName()))
+                    .collect(Collectors.toList());
+        });
+        when(customerMapper.insertBatch(anyCollection())).thenAnswer(invocation -> {
+            Collection<CrmCustomerDO> entities = invocation.getArgument(0);
+            entities.forEach(customer -> customers.add(customer.setId(customers.size() + 1L)));
+            return true;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        springUtilMock.close();
+    }
+
+    @Test
+    public void testImportCustomerList_duplicateInBatch() {
+        // 准备参数：同一批次中，A 重复
+        CrmCustomerImportReqVO importReqVO = CrmCustomerImportReqVO.builder().updateSupport(false).ownerUserId(1L).build();
+        CrmCustomerImportRespVO respVO = buildRespVO();
+
+        // 调用
+        customerService.importCustomerList(asList(buildImportCustomer("A"), buildImportCustomer("B"),
+                buildImportCustomer("A")), importReqVO, respVO);
+        // 断言：A 只插入一次，第二个 A 按照已存在处理
+        assertEquals(asList("A", "B"), respVO.getCreateCustomerNames());
+        assertTrue(respVO.getUpdateCustomerNames().isEmpty());
+        assertEquals(Collections.singletonMap("A", StrUtil.format(CUSTOMER_NAME_EXISTS.getMsg(), "A")),
+                respVO.getFailureCustomerNames());
+        assertEquals(asList("A", "B"), getCustomerNames());
+        verify(permissionService).createPermissionBatch(argThat(list -> list.size() == 2));
+        verify(customerMapper, never()).updateById(any(CrmCustomerDO.class));
+    }
+
+    @Test
+    public void testImportCustomerList_duplicateInBatch_updateSupport() {
+        // 准备参数：同一批次中，A 重复，且允许更新
+        CrmCustomerImportReqVO importReqVO = CrmCustomerImportReqVO.builder().updateSupport(true).build();
+        CrmCustomerImportRespVO respVO = buildRespVO();
+
+        // 调用
+        customerService.importCustomerList(asList(buildImportCustomer("A"), buildImportCustomer("A")),
+                importReqVO, respVO);
+        // 断言：第一个 A 插入，第二个 A 更新刚插入的客户
+        assertEquals(Collections.singletonList("A"), respVO.getCreateCustomerNames());
+        assertEquals(Collections.singletonList("A"), respVO.getUpdateCustomerNames());
+        assertTrue(respVO.getFailureCustomerNames().isEmpty());
+        assertEquals(Collections.singletonList("A"), getCustomerNames());
+        verify(customerMapper).updateById(argThat((CrmCustomerDO customer) -> customer.getId() == 1L));
+        // 断言：没有负责人，不创建数据权限
+        verify(permissionService, never()).createPermissionBatch(any());
+    }
+
+    @Test
+    public void testImportCustomerList_duplicateAcrossBatches() {
+        // 准备参数：两个批次中，B 重复
+        CrmCustomerImportReqVO importReqVO = CrmCustomerImportReqVO.builder().updateSupport(true).ownerUserId(1L).build();
+        CrmCustomerImportRespVO respVO = buildRespVO();
+
+        // 调用：分批导入，结果累加到同一个 respVO
+        customerService.importCustomerList(asList(buildImportCustomer("A"), buildImportCustomer("B")),
+                importReqVO, respVO);
+        customerService.importCustomerList(asList(buildImportCustomer("B"), buildImportCustomer("C")),
+                importReqVO, respVO);
+        // 断言：第二批的 B，查询到第一批插入的客户，更新而不是重复插入
+        assertEquals(asList("A", "B", "C"), respVO.getCreateCustomerNames());
+        assertEquals(Collections.singletonList("B"), respVO.getUpdateCustomerNames());
+        assertTrue(respVO.getFailureCustomerNames().isEmpty());
+        assertEquals(asList("A", "B", "C"), getCustomerNames());
+        verify(customerMapper).updateById(argThat((CrmCustomerDO customer) -> customer.getId() == 2L));
+        verify(customerMapper, times(2)).insertBatch(anyCollection());
+    }
+
+    private List<String> getCustomerNames() {
+        return customers.stream().map(CrmCustomerDO::getName).collect(Collectors.toList());
+    }
+
+    private static CrmCustomerImportExcelVO buildImportCustomer(String name) {
+        return CrmCustomerImportExcelVO.builder().name(name).build();
+    }
+
+    private static CrmCustomerImportRespVO buildRespVO() {
+        return CrmCustomerImportRespVO.builder().createCustomerNames(new ArrayList<>())
+                .updateCustomerNames(new ArrayList<>()).failureCustomerNames(new LinkedHashMap<>()).build();
+    }
+
+}
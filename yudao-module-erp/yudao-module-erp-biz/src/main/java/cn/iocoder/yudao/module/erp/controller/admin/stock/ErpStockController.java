@@ -3,7 +3,6 @@ package cn.iocoder.yudao.module.erp.controller.admin.stock;
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.MapUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -32,7 +31,6 @@ import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.apilog.core.enums.OperateTypeEnum.EXPORT;
@@ -45,6 +43,11 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 @Validated
 public class ErpStockController {
 
+    /**
+     * 导出时，每批查询的数量
+     */
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
     @Resource
     private ErpStockService stockService;
     @Resource
@@ -88,10 +91,10 @@ public class ErpStockController {
     @ApiAccessLog(operateType = EXPORT)
     public void exportStockExcel(@Valid ErpStockPageReqVO pageReqVO,
               HttpServletResponse response) throws IOException {
-        pageReqVO.setPageSize(PageParam.PAGE_SIZE_NONE);
-        List<ErpStockRespVO> list = buildStockVOPageResult(stockService.getStockPage(pageReqVO)).getList();
-        // 导出 Excel
-        ExcelUtils.write(response, "产品库存.xls", "数据", ErpStockRespVO.class, list);
+        // 分批查询、分批写入，避免数据量大时一次性加载到内存
+        ExcelUtils.write(response, "产品库存.xls", "数据", ErpStockRespVO.class,
+                stockService.getStockBatchIterator(pageReqVO, EXPORT_BATCH_SIZE),
+                list -> buildStockVOPageResult(new PageResult<>(list, (long) list.size())).getList());
     }
 
     private PageResult<ErpStockRespVO> buildStockVOPageResult(PageResult<ErpStockDO> pageResult) {
@@ -12,6 +12,7 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +25,17 @@ import java.util.Map;
 public interface ErpStockMapper extends BaseMapperX<ErpStockDO> {
 
     default PageResult<ErpStockDO> selectPage(ErpStockPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<ErpStockDO>()
+        return selectPage(reqVO, buildStockQuery(reqVO).orderByDesc(ErpStockDO::getId));
+    }
+
+    default Iterator<List<ErpStockDO>> selectBatchIterator(ErpStockPageReqVO reqVO, int batchSize) {
+        return selectBatchIterator(() -> buildStockQuery(reqVO), ErpStockDO::getId, batchSize);
+    }
+
+    static LambdaQueryWrapperX<ErpStockDO> buildStockQuery(ErpStockPageReqVO reqVO) {
+        return new LambdaQueryWrapperX<ErpStockDO>()
                 .eqIfPresent(ErpStockDO::getProductId, reqVO.getProductId())
-                .eqIfPresent(ErpStockDO::getWarehouseId, reqVO.getWarehouseId())
-                .orderByDesc(ErpStockDO::getId));
+                .eqIfPresent(ErpStockDO::getWarehouseId, reqVO.getWarehouseId());
     }
 
     default ErpStockDO selectByProductIdAndWarehouseId(Long productId, Long warehouseId) {
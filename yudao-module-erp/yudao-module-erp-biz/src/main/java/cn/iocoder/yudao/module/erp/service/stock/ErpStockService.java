@@ -5,6 +5,8 @@ import cn.iocoder.yudao.module.erp.controller.admin.stock.vo.stock.ErpStockPageR
 import cn.iocoder.yudao.module.erp.dal.dataobject.stock.ErpStockDO;
 
 import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * ERP 产品库存 Service 接口
@@ -48,6 +50,15 @@ public interface ErpStockService {
      */
     PageResult<ErpStockDO> getStockPage(ErpStockPageReqVO pageReqVO);
 
+    /**
+     * 分批获得产品库存列表，用于导出
+     *
+     * @param pageReqVO 查询条件，忽略分页参数
+     * @param batchSize 每批数量
+     * @return 库存的批量迭代器
+     */
+    Iterator<List<ErpStockDO>> getStockBatchIterator(ErpStockPageReqVO pageReqVO, int batchSize);
+
     /**
      * 增量更新产品库存数量
      *
@@ -10,6 +10,8 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.erp.enums.ErrorCodeConstants.STOCK_COUNT_NEGATIVE;
@@ -60,6 +62,11 @@ public class ErpStockServiceImpl implements ErpStockService {
         return stockMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public Iterator<List<ErpStockDO>> getStockBatchIterator(ErpStockPageReqVO pageReqVO, int batchSize) {
+        return stockMapper.selectBatchIterator(pageReqVO, batchSize);
+    }
+
     @Override
     public BigDecimal updateStockCountIncrement(Long productId, Long warehouseId, BigDecimal count) {
         // 1.1 查询当前库存
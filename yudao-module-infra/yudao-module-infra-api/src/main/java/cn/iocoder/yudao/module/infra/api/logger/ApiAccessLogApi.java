@@ -1,7 +1,6 @@
 package cn.iocoder.yudao.module.infra.api.logger;
 
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
-import org.springframework.scheduling.annotation.Async;
 
 import javax.validation.Valid;
 
@@ -22,11 +21,10 @@ public interface ApiAccessLogApi {
     /**
      * 【异步】创建 API 访问日志
      *
+     * 由实现类写入批量缓冲队列，避免每条日志占用一个异步线程、执行一次单条插入
+     *
      * @param createDTO 访问日志 DTO
      */
-    @Async
-    default void createApiAccessLogAsync(ApiAccessLogCreateReqDTO createDTO) {
-        createApiAccessLog(createDTO);
-    }
+    void createApiAccessLogAsync(ApiAccessLogCreateReqDTO createDTO);
 
 }
@@ -1,7 +1,6 @@
 package cn.iocoder.yudao.module.infra.api.logger;
 
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiErrorLogCreateReqDTO;
-import org.springframework.scheduling.annotation.Async;
 
 import javax.validation.Valid;
 
@@ -22,11 +21,10 @@ public interface ApiErrorLogApi {
     /**
      * 【异步】创建 API 异常日志
      *
+     * 由实现类保证异步，例如说写入批量缓冲队列
+     *
      * @param createDTO 异常日志 DTO
      */
-    @Async
-    default void createApiErrorLogAsync(ApiErrorLogCreateReqDTO createDTO) {
-        createApiErrorLog(createDTO);
-    }
+    void createApiErrorLogAsync(ApiErrorLogCreateReqDTO createDTO);
 
 }
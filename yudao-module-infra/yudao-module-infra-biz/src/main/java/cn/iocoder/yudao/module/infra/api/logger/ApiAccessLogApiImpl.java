@@ -24,4 +24,9 @@ public class ApiAccessLogApiImpl implements ApiAccessLogApi {
         apiAccessLogService.createApiAccessLog(createDTO);
     }
 
+    @Override
+    public void createApiAccessLogAsync(ApiAccessLogCreateReqDTO createDTO) {
+        apiAccessLogService.createApiAccessLogAsync(createDTO);
+    }
+
 }
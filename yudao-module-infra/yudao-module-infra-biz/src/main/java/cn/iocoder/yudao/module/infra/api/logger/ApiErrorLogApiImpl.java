@@ -24,4 +24,9 @@ public class ApiErrorLogApiImpl implements ApiErrorLogApi {
         apiErrorLogService.createApiErrorLog(createDTO);
     }
 
+    @Override
+    public void createApiErrorLogAsync(ApiErrorLogCreateReqDTO createDTO) {
+        apiErrorLogService.createApiErrorLogAsync(createDTO);
+    }
+
 }
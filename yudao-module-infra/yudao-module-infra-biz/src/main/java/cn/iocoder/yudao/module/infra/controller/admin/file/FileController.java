@@ -1,6 +1,5 @@
 package cn.iocoder.yudao.module.infra.controller.admin.file;
 
-import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.core.util.URLUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
@@ -24,6 +23,7 @@ import javax.annotation.security.PermitAll;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.InputStream;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 import static cn.iocoder.yudao.module.infra.framework.file.core.utils.FileTypeUtils.writeAttachment;
@@ -43,7 +43,10 @@ public class FileController {
     public CommonResult<String> uploadFile(FileUploadReqVO uploadReqVO) throws Exception {
         MultipartFile file = uploadReqVO.getFile();
         String path = uploadReqVO.getPath();
-        return success(fileService.createFile(file.getOriginalFilename(), path, IoUtil.readBytes(file.getInputStream())));
+        // 流式上传，避免大文件整个读入内存
+        try (InputStream content = file.getInputStream()) {
+            return success(fileService.createFile(file.getOriginalFilename(), path, content, file.getSize()));
+        }
     }
 
     @GetMapping("/presigned-url")
@@ -82,14 +85,17 @@ public class FileController {
         // 解码，解决中文路径的问题 https://gitee.com/zhijiantianya/ruoyi-vue-pro/pulls/807/
         path = URLUtil.decode(path);
 
-        // 读取内容
-        byte[] content = fileService.getFileContent(configId, path);
-        if (content == null) {
+        // 读取大小
+        Long size = fileService.getFileContentLength(configId, path);
+        if (size == null) {
             log.warn("[getFileContent][configId({}) path({}) 文件不存在]", configId, path);
             response.setStatus(HttpStatus.NOT_FOUND.value());
             return;
         }
-        writeAttachment(response, path, content);
+        // 流式输出内容，支持 Range 分段下载
+        String filePath = path;
+        writeAttachment(request, response, path, size,
+                (offset, length, out) -> fileService.writeFileContent(configId, filePath, offset, length, out));
     }
 
     @GetMapping("/page")
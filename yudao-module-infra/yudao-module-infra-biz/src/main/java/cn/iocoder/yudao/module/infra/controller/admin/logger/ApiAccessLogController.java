@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.infra.controller.admin.logger;
 
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -44,6 +45,14 @@ public class ApiAccessLogController {
         return success(BeanUtils.toBean(pageResult, ApiAccessLogRespVO.class));
     }
 
+    @GetMapping("/cursor-page")
+    @Operation(summary = "获得API 访问日志游标分页", description = "不支持跳页，翻页深度不影响查询速度")
+    @PreAuthorize("@ss.hasPermission('infra:api-access-log:query')")
+    public CommonResult<CursorPageResult<ApiAccessLogRespVO>> getApiAccessLogCursorPage(@Valid ApiAccessLogPageReqVO pageReqVO) {
+        CursorPageResult<ApiAccessLogDO> pageResult = apiAccessLogService.getApiAccessLogCursorPage(pageReqVO);
+        return success(BeanUtils.toBean(pageResult, ApiAccessLogRespVO.class));
+    }
+
     @GetMapping("/export-excel")
     @Operation(summary = "导出API 访问日志 Excel")
     @PreAuthorize("@ss.hasPermission('infra:api-access-log:export')")
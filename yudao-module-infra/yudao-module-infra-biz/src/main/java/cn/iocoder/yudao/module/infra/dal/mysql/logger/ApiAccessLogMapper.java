@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.infra.dal.mysql.logger;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
@@ -20,16 +21,22 @@ import java.time.LocalDateTime;
 public interface ApiAccessLogMapper extends BaseMapperX<ApiAccessLogDO> {
 
     default PageResult<ApiAccessLogDO> selectPage(ApiAccessLogPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<ApiAccessLogDO>()
+        return selectPage(reqVO, buildQuery(reqVO).orderByDesc(ApiAccessLogDO::getId));
+    }
+
+    default CursorPageResult<ApiAccessLogDO> selectCursorPage(ApiAccessLogPageReqVO reqVO) {
+        return selectCursorPage(reqVO, buildQuery(reqVO), ApiAccessLogDO::getId);
+    }
+
+    static LambdaQueryWrapperX<ApiAccessLogDO> buildQuery(ApiAccessLogPageReqVO reqVO) {
+        return new LambdaQueryWrapperX<ApiAccessLogDO>()
                 .eqIfPresent(ApiAccessLogDO::getUserId, reqVO.getUserId())
                 .eqIfPresent(ApiAccessLogDO::getUserType, reqVO.getUserType())
                 .eqIfPresent(ApiAccessLogDO::getApplicationName, reqVO.getApplicationName())
                 .likeIfPresent(ApiAccessLogDO::getRequestUrl, reqVO.getRequestUrl())
                 .betweenIfPresent(ApiAccessLogDO::getBeginTime, reqVO.getBeginTime())
                 .geIfPresent(ApiAccessLogDO::getDuration, reqVO.getDuration())
-                .eqIfPresent(ApiAccessLogDO::getResultCode, reqVO.getResultCode())
-                .orderByDesc(ApiAccessLogDO::getId)
-        );
+                .eqIfPresent(ApiAccessLogDO::getResultCode, reqVO.getResultCode());
     }
 
     /**
@@ -3,6 +3,10 @@ package cn.iocoder.yudao.module.infra.framework.file.core.client;
 import cn.hutool.core.util.StrUtil;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * 文件客户端的抽象类，提供模板方法，减少子类的冗余代码
  *
@@ -11,6 +15,11 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public abstract class AbstractFileClient<Config extends FileClientConfig> implements FileClient {
 
+    /**
+     * 流式复制的缓冲区大小
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     /**
      * 配置编号
      */
@@ -66,4 +75,28 @@ public abstract class AbstractFileClient<Config extends FileClientConfig> implem
         return StrUtil.format("{}/admin-api/infra/file/{}/get/{}", domain, getId(), path);
     }
 
+    /**
+     * 从输入流中，复制最多 length 个字节到输出流
+     *
+     * 用于 ftp、sftp 等只能从 offset 开始读到文件末尾的场景，读够 length 后即停止
+     *
+     * @param in     输入流
+     * @param out    输出流
+     * @param length 复制的长度
+     * @return 实际复制的长度
+     */
+    protected static long copyRange(InputStream in, OutputStream out, long length) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                break;
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+        return length - remaining;
+    }
+
 }
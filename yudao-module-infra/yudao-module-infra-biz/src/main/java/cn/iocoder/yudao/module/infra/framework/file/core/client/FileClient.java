@@ -1,7 +1,11 @@
 package cn.iocoder.yudao.module.infra.framework.file.core.client;
 
+import cn.hutool.core.io.IoUtil;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.s3.FilePresignedUrlRespDTO;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * 文件客户端
  *
@@ -26,6 +30,22 @@ public interface FileClient {
      */
     String upload(byte[] content, String path, String type) throws Exception;
 
+    /**
+     * 上传文件，基于文件流，适合大文件
+     *
+     * 默认实现会读入内存后，调用 {@link #upload(byte[], String, String)} 方法；支持流式上传的客户端，需要重写该方法
+     *
+     * @param content 文件流，由调用方负责关闭
+     * @param size    文件大小，单位：字节
+     * @param path    相对路径
+     * @param type    文件类型
+     * @return 完整路径，即 HTTP 访问地址
+     * @throws Exception 上传文件时，抛出 Exception 异常
+     */
+    default String upload(InputStream content, long size, String path, String type) throws Exception {
+        return upload(IoUtil.readBytes(content, false), path, type);
+    }
+
     /**
      * 删除文件
      *
@@ -42,6 +62,37 @@ public interface FileClient {
      */
     byte[] getContent(String path) throws Exception;
 
+    /**
+     * 获得文件的大小
+     *
+     * 默认实现会读取文件的内容；支持流式下载的客户端，需要重写该方法
+     *
+     * @param path 相对路径
+     * @return 文件大小，单位：字节；文件不存在时，返回 null
+     */
+    default Long getContentLength(String path) throws Exception {
+        byte[] content = getContent(path);
+        return content != null ? (long) content.length : null;
+    }
+
+    /**
+     * 将文件的指定区间，写入到输出流，用于大文件下载、HTTP Range 分段下载
+     *
+     * 默认实现会读取文件的内容；支持流式下载的客户端，需要重写该方法
+     *
+     * @param path   相对路径
+     * @param offset 起始位置
+     * @param length 写入的长度
+     * @param out    输出流，由调用方负责关闭
+     */
+    default void writeContent(String path, long offset, long length, OutputStream out) throws Exception {
+        byte[] content = getContent(path);
+        if (content == null) {
+            throw new IllegalArgumentException("文件(" + path + ") 不存在");
+        }
+        out.write(content, (int) offset, (int) length);
+    }
+
     /**
      * 获得文件预签名地址
      *
@@ -7,9 +7,15 @@ import cn.hutool.extra.ftp.Ftp;
 import cn.hutool.extra.ftp.FtpException;
 import cn.hutool.extra.ftp.FtpMode;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.AbstractFileClient;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Ftp 文件客户端
@@ -52,6 +58,21 @@ public class FtpFileClient extends AbstractFileClient<FtpFileClientConfig> {
         return super.formatFileUrl(config.getDomain(), path);
     }
 
+    @Override
+    public String upload(InputStream content, long size, String path, String type) {
+        // 执行写入
+        String filePath = getFilePath(path);
+        String fileName = FileUtil.getName(filePath);
+        String dir = StrUtil.removeSuffix(filePath, fileName);
+        ftp.reconnectIfTimeout();
+        boolean success = ftp.upload(dir, fileName, content);
+        if (!success) {
+            throw new FtpException(StrUtil.format("上传文件到目标目录 ({}) 失败", filePath));
+        }
+        // 拼接返回路径
+        return super.formatFileUrl(config.getDomain(), path);
+    }
+
     @Override
     public void delete(String path) {
         String filePath = getFilePath(path);
@@ -70,6 +91,37 @@ public class FtpFileClient extends AbstractFileClient<FtpFileClientConfig> {
         return out.toByteArray();
     }
 
+    @Override
+    public Long getContentLength(String path) throws IOException {
+        String filePath = getFilePath(path);
+        ftp.reconnectIfTimeout();
+        FTPFile[] files = ftp.getClient().listFiles(filePath);
+        if (files == null || files.length != 1 || !files[0].isFile()) {
+            return null;
+        }
+        return files[0].getSize();
+    }
+
+    @Override
+    public void writeContent(String path, long offset, long length, OutputStream out) throws IOException {
+        String filePath = getFilePath(path);
+        ftp.reconnectIfTimeout();
+        FTPClient client = ftp.getClient();
+        client.setFileType(FTP.BINARY_FILE_TYPE);
+        // 通过 REST 命令，从 offset 开始下载
+        client.setRestartOffset(offset);
+        try (InputStream in = client.retrieveFileStream(filePath)) {
+            if (in == null) {
+                throw new FtpException(StrUtil.format("下载文件 ({}) 失败：{}", filePath, client.getReplyString()));
+            }
+            copyRange(in, out, length);
+        } finally {
+            client.setRestartOffset(0);
+        }
+        // 提前关闭数据连接时，服务端可能返回 426 传输中止，忽略即可
+        client.completePendingCommand();
+    }
+
     private String getFilePath(String path) {
         return config.getBasePath() + path;
     }
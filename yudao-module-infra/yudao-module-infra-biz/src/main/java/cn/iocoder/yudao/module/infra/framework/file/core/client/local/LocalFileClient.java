@@ -4,6 +4,14 @@ import cn.hutool.core.io.FileUtil;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.AbstractFileClient;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * 本地文件客户端
@@ -33,6 +41,15 @@ public class LocalFileClient extends AbstractFileClient<LocalFileClientConfig> {
         return super.formatFileUrl(config.getDomain(), path);
     }
 
+    @Override
+    public String upload(InputStream content, long size, String path, String type) {
+        // 执行写入：边读边写，不占用堆内存
+        String filePath = getFilePath(path);
+        FileUtil.writeFromStream(content, FileUtil.file(filePath), false);
+        // 拼接返回路径
+        return super.formatFileUrl(config.getDomain(), path);
+    }
+
     @Override
     public void delete(String path) {
         String filePath = getFilePath(path);
@@ -45,6 +62,31 @@ public class LocalFileClient extends AbstractFileClient<LocalFileClientConfig> {
         return FileUtil.readBytes(filePath);
     }
 
+    @Override
+    public Long getContentLength(String path) {
+        File file = FileUtil.file(getFilePath(path));
+        return file.isFile() ? file.length() : null;
+    }
+
+    @Override
+    public void writeContent(String path, long offset, long length, OutputStream out) throws IOException {
+        File file = FileUtil.file(getFilePath(path));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // 目标是文件时，使用 FileChannel 零拷贝；否则（例如说 Servlet 输出流），由 JDK 使用固定大小的缓冲区复制
+            WritableByteChannel target = out instanceof FileOutputStream ? ((FileOutputStream) out).getChannel()
+                    : Channels.newChannel(out);
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
     private String getFilePath(String path) {
         return config.getBasePath() + path;
     }
@@ -10,10 +10,15 @@ import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
+import org.springframework.http.HttpStatus;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
@@ -95,6 +100,18 @@ public class S3FileClient extends AbstractFileClient<S3FileClientConfig> {
         return config.getDomain() + "/" + path;
     }
 
+    @Override
+    public String upload(InputStream content, long size, String path, String type) throws Exception {
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentType(type);
+        objectMetadata.setContentLength(size); // 必须设置，否则 SDK 会把整个流缓冲到内存中，用于计算长度
+        // 执行上传
+        client.putObject(config.getBucket(), path, content, objectMetadata);
+
+        // 拼接返回路径
+        return config.getDomain() + "/" + path;
+    }
+
     @Override
     public void delete(String path) throws Exception {
         client.deleteObject(config.getBucket(), path);
@@ -106,6 +123,31 @@ public class S3FileClient extends AbstractFileClient<S3FileClientConfig> {
         return IoUtil.readBytes(tempS3Object.getObjectContent());
     }
 
+    @Override
+    public Long getContentLength(String path) {
+        try {
+            return client.getObjectMetadata(config.getBucket(), path).getContentLength();
+        } catch (AmazonS3Exception ex) {
+            if (ex.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void writeContent(String path, long offset, long length, OutputStream out) throws Exception {
+        if (length <= 0) {
+            return;
+        }
+        // 通过 Range 只下载需要的区间
+        GetObjectRequest request = new GetObjectRequest(config.getBucket(), path)
+                .withRange(offset, offset + length - 1);
+        try (S3Object s3Object = client.getObject(request)) {
+            IoUtil.copy(s3Object.getObjectContent(), out);
+        }
+    }
+
     @Override
     public FilePresignedUrlRespDTO getPresignedObjectUrl(String path) throws Exception {
         // 设定过期时间为 10 分钟。取值范围：1 秒 ~ 7 天
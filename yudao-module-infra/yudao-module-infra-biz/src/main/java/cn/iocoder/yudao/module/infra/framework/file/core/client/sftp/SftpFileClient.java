@@ -1,11 +1,16 @@
 package cn.iocoder.yudao.module.infra.framework.file.core.client.sftp;
 
 import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.ssh.Sftp;
 import cn.iocoder.yudao.framework.common.util.io.FileUtils;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.AbstractFileClient;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.SftpException;
 
 import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Sftp 文件客户端
@@ -40,6 +45,17 @@ public class SftpFileClient extends AbstractFileClient<SftpFileClientConfig> {
         return super.formatFileUrl(config.getDomain(), path);
     }
 
+    @Override
+    public String upload(InputStream content, long size, String path, String type) throws SftpException {
+        // 执行写入：直接写入远程文件，无需先落地临时文件
+        String filePath = getFilePath(path);
+        String fileName = FileUtil.getName(filePath);
+        sftp.mkDirs(StrUtil.removeSuffix(filePath, fileName));
+        sftp.getClient().put(content, filePath);
+        // 拼接返回路径
+        return super.formatFileUrl(config.getDomain(), path);
+    }
+
     @Override
     public void delete(String path) {
         String filePath = getFilePath(path);
@@ -54,6 +70,28 @@ public class SftpFileClient extends AbstractFileClient<SftpFileClientConfig> {
         return FileUtil.readBytes(destFile);
     }
 
+    @Override
+    public Long getContentLength(String path) throws SftpException {
+        String filePath = getFilePath(path);
+        try {
+            return sftp.getClient().lstat(filePath).getSize();
+        } catch (SftpException ex) {
+            if (ex.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void writeContent(String path, long offset, long length, OutputStream out) throws Exception {
+        String filePath = getFilePath(path);
+        // 从 offset 开始读取，读够 length 后即停止
+        try (InputStream in = sftp.getClient().get(filePath, null, offset)) {
+            copyRange(in, out, length);
+        }
+    }
+
     private String getFilePath(String path) {
         return config.getBasePath() + path;
     }
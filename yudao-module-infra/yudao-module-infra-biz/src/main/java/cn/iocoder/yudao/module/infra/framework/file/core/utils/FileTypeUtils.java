@@ -6,8 +6,11 @@ import com.alibaba.ttl.TransmittableThreadLocal;
 import lombok.SneakyThrows;
 import org.apache.tika.Tika;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 
 /**
@@ -51,6 +54,20 @@ public class FileTypeUtils {
         return TIKA.get().detect(data, name);
     }
 
+    /**
+     * 基于文件流和文件名，获得文件的 mineType，适合大文件
+     *
+     * 只读取文件头部若干字节，要求文件流支持 mark/reset，例如说 {@link java.io.BufferedInputStream}
+     *
+     * @param in   文件流
+     * @param name 文件名
+     * @return mineType 无法识别时会返回“application/octet-stream”
+     */
+    @SneakyThrows
+    public static String getMineType(InputStream in, String name) {
+        return TIKA.get().detect(in, name);
+    }
+
     /**
      * 返回附件
      *
@@ -73,4 +90,81 @@ public class FileTypeUtils {
         IoUtil.write(response.getOutputStream(), false, content);
     }
 
+    /**
+     * 返回附件，基于流式写入，支持 HTTP Range 分段下载，适合大文件、视频
+     *
+     * 只支持单个区间的 Range；多个区间、或者格式不合法时，返回完整内容
+     *
+     * @param request  请求
+     * @param response 响应
+     * @param filename 文件名
+     * @param size     文件大小
+     * @param writer   内容的写入逻辑
+     */
+    public static void writeAttachment(HttpServletRequest request, HttpServletResponse response, String filename,
+                                       long size, ContentWriter writer) throws Exception {
+        // 设置 header 和 contentType
+        response.setHeader("Content-Disposition", "attachment;filename=" + URLEncoder.encode(filename, "UTF-8"));
+        response.setContentType(getMineType(filename));
+        response.setHeader("Accept-Ranges", "bytes");
+        // 解析 Range
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader("Range");
+        boolean partial = StrUtil.startWith(range, "bytes=") && !StrUtil.contains(range, ',');
+        if (partial) {
+            String spec = StrUtil.removePrefix(range, "bytes=").trim();
+            String startStr = StrUtil.subBefore(spec, '-', false).trim();
+            String endStr = StrUtil.subAfter(spec, '-', false).trim();
+            try {
+                if (StrUtil.isEmpty(startStr)) {
+                    // 情况一：bytes=-500，表示最后 500 个字节
+                    start = Math.max(0, size - Long.parseLong(endStr));
+                } else {
+                    // 情况二：bytes=500-、bytes=500-999
+                    start = Long.parseLong(startStr);
+                    if (StrUtil.isNotEmpty(endStr)) {
+                        end = Math.min(Long.parseLong(endStr), size - 1);
+                    }
+                }
+            } catch (NumberFormatException ex) {
+                partial = false;
+                start = 0;
+                end = size - 1;
+            }
+        }
+        if (partial && (start > end || start >= size)) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader("Content-Range", "bytes */" + size);
+            return;
+        }
+        long length = end - start + 1;
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        // 输出附件
+        if (length > 0) {
+            writer.write(start, length, response.getOutputStream());
+        }
+    }
+
+    /**
+     * 文件内容的写入逻辑
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * 将文件的指定区间，写入到输出流
+         *
+         * @param offset 起始位置
+         * @param length 写入的长度
+         * @param out    输出流
+         */
+        void write(long offset, long length, OutputStream out) throws Exception;
+
+    }
+
 }
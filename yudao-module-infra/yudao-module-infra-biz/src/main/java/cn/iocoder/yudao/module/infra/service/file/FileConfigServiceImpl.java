@@ -15,8 +15,8 @@ import cn.iocoder.yudao.module.infra.controller.admin.file.vo.config.FileConfigS
 import cn.iocoder.yudao.module.infra.convert.file.FileConfigConvert;
 import cn.iocoder.yudao.module.infra.dal.dataobject.file.FileConfigDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.file.FileConfigMapper;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -50,7 +50,7 @@ public class FileConfigServiceImpl implements FileConfigService {
      * {@link FileClient} 缓存，通过它异步刷新 fileClientFactory
      */
     @Getter
-    private final LoadingCache<Long, FileClient> clientCache = buildAsyncReloadingCache(Duration.ofSeconds(10L),
+    private final LoadingCache<Long, FileClient> clientCache = buildAsyncReloadingCache("infra-file-client", Duration.ofSeconds(10L),
             new CacheLoader<Long, FileClient>() {
 
                 @Override
@@ -179,12 +179,12 @@ public class FileConfigServiceImpl implements FileConfigService {
 
     @Override
     public FileClient getFileClient(Long id) {
-        return clientCache.getUnchecked(id);
+        return clientCache.get(id);
     }
 
     @Override
     public FileClient getMasterFileClient() {
-        return clientCache.getUnchecked(CACHE_MASTER_ID);
+        return clientCache.get(CACHE_MASTER_ID);
     }
 
 }
@@ -6,6 +6,9 @@ import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.FilePageReqVO
 import cn.iocoder.yudao.module.infra.controller.admin.file.vo.file.FilePresignedUrlRespVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.file.FileDO;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * 文件 Service 接口
  *
@@ -31,6 +34,17 @@ public interface FileService {
      */
     String createFile(String name, String path, byte[] content);
 
+    /**
+     * 保存文件，并返回文件的访问路径。基于文件流，适合大文件
+     *
+     * @param name    文件名称
+     * @param path    文件路径
+     * @param content 文件流，由调用方负责关闭
+     * @param size    文件大小
+     * @return 文件路径
+     */
+    String createFile(String name, String path, InputStream content, long size);
+
     /**
      * 创建文件
      *
@@ -55,6 +69,26 @@ public interface FileService {
      */
     byte[] getFileContent(Long configId, String path) throws Exception;
 
+    /**
+     * 获得文件大小
+     *
+     * @param configId 配置编号
+     * @param path     文件路径
+     * @return 文件大小；文件不存在时，返回 null
+     */
+    Long getFileContentLength(Long configId, String path) throws Exception;
+
+    /**
+     * 将文件的指定区间，写入到输出流
+     *
+     * @param configId 配置编号
+     * @param path     文件路径
+     * @param offset   起始位置
+     * @param length   写入的长度
+     * @param out      输出流
+     */
+    void writeFileContent(Long configId, String path, long offset, long length, OutputStream out) throws Exception;
+
     /**
      * 生成文件预签名地址信息
      *
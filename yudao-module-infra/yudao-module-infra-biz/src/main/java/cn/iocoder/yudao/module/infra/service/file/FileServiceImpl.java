@@ -1,6 +1,9 @@
 package cn.iocoder.yudao.module.infra.service.file;
 
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
 import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.HexUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.io.FileUtils;
@@ -17,6 +20,9 @@ import lombok.SneakyThrows;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.FILE_NOT_EXISTS;
@@ -65,7 +71,52 @@ public class FileServiceImpl implements FileService {
         file.setPath(path);
         file.setUrl(url);
         file.setType(type);
-        file.setSize(content.length);
+        file.setSize((long) content.length);
+        fileMapper.insert(file);
+        return url;
+    }
+
+    @Override
+    @SneakyThrows
+    public String createFile(String name, String path, InputStream content, long size) {
+        // 计算文件类型：Tika 只读取头部若干字节，依赖 mark/reset 回退
+        BufferedInputStream in = new BufferedInputStream(content);
+        String type = FileTypeUtils.getMineType(in, name);
+        FileClient client = fileConfigService.getMasterFileClient();
+        Assert.notNull(client, "客户端(master) 不能为空");
+        String url;
+        if (StrUtil.isNotEmpty(path)) {
+            // 情况一：已指定 path，直接流式上传
+            url = client.upload(in, size, path, type);
+        } else {
+            // 情况二：需要基于 sha256 生成 path，先边读边算写入临时文件，再从临时文件上传，全程不把文件读入内存
+            File tempFile = FileUtils.createTempFile();
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (OutputStream out = new FileOutputStream(tempFile)) {
+                    IoUtil.copy(new DigestInputStream(in, digest), out);
+                }
+                path = FileUtils.generatePath(HexUtil.encodeHexStr(digest.digest()), tempFile, name);
+                try (InputStream tempIn = new FileInputStream(tempFile)) {
+                    url = client.upload(tempIn, tempFile.length(), path, type);
+                }
+            } finally {
+                FileUtil.del(tempFile);
+            }
+        }
+        // 如果 name 为空，则使用 path 填充
+        if (StrUtil.isEmpty(name)) {
+            name = path;
+        }
+
+        // 保存到数据库
+        FileDO file = new FileDO();
+        file.setConfigId(client.getId());
+        file.setName(name);
+        file.setPath(path);
+        file.setUrl(url);
+        file.setType(type);
+        file.setSize(size);
         fileMapper.insert(file);
         return url;
     }
@@ -106,6 +157,20 @@ public class FileServiceImpl implements FileService {
         return client.getContent(path);
     }
 
+    @Override
+    public Long getFileContentLength(Long configId, String path) throws Exception {
+        FileClient client = fileConfigService.getFileClient(configId);
+        Assert.notNull(client, "客户端({}) 不能为空", configId);
+        return client.getContentLength(path);
+    }
+
+    @Override
+    public void writeFileContent(Long configId, String path, long offset, long length, OutputStream out) throws Exception {
+        FileClient client = fileConfigService.getFileClient(configId);
+        Assert.notNull(client, "客户端({}) 不能为空", configId);
+        client.writeContent(path, offset, length, out);
+    }
+
     @Override
     public FilePresignedUrlRespVO getFilePresignedUrl(String path) throws Exception {
         FileClient fileClient = fileConfigService.getMasterFileClient();
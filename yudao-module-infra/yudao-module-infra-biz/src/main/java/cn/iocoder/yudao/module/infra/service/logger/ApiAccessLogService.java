@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.infra.service.logger;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
@@ -19,6 +20,15 @@ public interface ApiAccessLogService {
      */
     void createApiAccessLog(ApiAccessLogCreateReqDTO createReqDTO);
 
+    /**
+     * 【异步】创建 API 访问日志
+     *
+     * 写入批量缓冲队列，由后台线程批量插入；积压过多时，会被采样或丢弃
+     *
+     * @param createReqDTO API 访问日志
+     */
+    void createApiAccessLogAsync(ApiAccessLogCreateReqDTO createReqDTO);
+
     /**
      * 获得 API 访问日志分页
      *
@@ -27,6 +37,14 @@ public interface ApiAccessLogService {
      */
     PageResult<ApiAccessLogDO> getApiAccessLogPage(ApiAccessLogPageReqVO pageReqVO);
 
+    /**
+     * 获得 API 访问日志游标分页
+     *
+     * @param pageReqVO 游标分页查询
+     * @return API 访问日志游标分页
+     */
+    CursorPageResult<ApiAccessLogDO> getApiAccessLogCursorPage(ApiAccessLogPageReqVO pageReqVO);
+
     /**
      * 清理 exceedDay 天前的访问日志
      *
@@ -1,7 +1,10 @@
 package cn.iocoder.yudao.module.infra.service.logger;
 
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
@@ -13,8 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO.REQUEST_PARAMS_MAX_LENGTH;
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO.RESULT_MSG_MAX_LENGTH;
@@ -32,11 +38,27 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
     @Resource
     private ApiAccessLogMapper apiAccessLogMapper;
 
+    /**
+     * API 访问日志的批量缓冲队列
+     *
+     * KEY：租户编号，因为后台线程没有租户上下文，所以需要在写入时记录
+     * VALUE：API 访问日志
+     */
+    private BatchBuffer<KeyValue<Long, ApiAccessLogDO>> apiAccessLogBuffer;
+
+    @PostConstruct
+    public void initApiAccessLogBuffer() {
+        apiAccessLogBuffer = BatchBuffer.create("infra-api-access-log", this::createApiAccessLogList);
+    }
+
+    @PreDestroy
+    public void destroyApiAccessLogBuffer() {
+        apiAccessLogBuffer.shutdown();
+    }
+
     @Override
     public void createApiAccessLog(ApiAccessLogCreateReqDTO createDTO) {
-        ApiAccessLogDO apiAccessLog = BeanUtils.toBean(createDTO, ApiAccessLogDO.class);
-        apiAccessLog.setRequestParams(StrUtil.maxLength(apiAccessLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
-        apiAccessLog.setResultMsg(StrUtil.maxLength(apiAccessLog.getResultMsg(), RESULT_MSG_MAX_LENGTH));
+        ApiAccessLogDO apiAccessLog = buildApiAccessLog(createDTO);
         if (TenantContextHolder.getTenantId() != null) {
             apiAccessLogMapper.insert(apiAccessLog);
         } else {
@@ -45,11 +67,40 @@ public class ApiAccessLogServiceImpl implements ApiAccessLogService {
         }
     }
 
+    @Override
+    public void createApiAccessLogAsync(ApiAccessLogCreateReqDTO createDTO) {
+        ApiAccessLogDO apiAccessLog = buildApiAccessLog(createDTO);
+        if (!apiAccessLogBuffer.offer(new KeyValue<>(TenantContextHolder.getTenantId(), apiAccessLog))) {
+            log.debug("[createApiAccessLogAsync][url({}) 缓冲队列积压，丢弃访问日志]", apiAccessLog.getRequestUrl());
+        }
+    }
+
+    /**
+     * 批量插入 API 访问日志，按照租户分组插入
+     *
+     * @param apiAccessLogs API 访问日志（带租户编号）
+     */
+    private void createApiAccessLogList(List<KeyValue<Long, ApiAccessLogDO>> apiAccessLogs) {
+        TenantUtils.executeByTenant(apiAccessLogs, apiAccessLogMapper::insertBatch);
+    }
+
+    private static ApiAccessLogDO buildApiAccessLog(ApiAccessLogCreateReqDTO createDTO) {
+        ApiAccessLogDO apiAccessLog = BeanUtils.toBean(createDTO, ApiAccessLogDO.class);
+        apiAccessLog.setRequestParams(StrUtil.maxLength(apiAccessLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        apiAccessLog.setResultMsg(StrUtil.maxLength(apiAccessLog.getResultMsg(), RESULT_MSG_MAX_LENGTH));
+        return apiAccessLog;
+    }
+
     @Override
     public PageResult<ApiAccessLogDO> getApiAccessLogPage(ApiAccessLogPageReqVO pageReqVO) {
         return apiAccessLogMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public CursorPageResult<ApiAccessLogDO> getApiAccessLogCursorPage(ApiAccessLogPageReqVO pageReqVO) {
+        return apiAccessLogMapper.selectCursorPage(pageReqVO);
+    }
+
     @Override
     @SuppressWarnings("DuplicatedCode")
     public Integer cleanAccessLog(Integer exceedDay, Integer deleteLimit) {
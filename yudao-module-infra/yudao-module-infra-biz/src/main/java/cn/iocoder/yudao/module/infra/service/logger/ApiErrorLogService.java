@@ -19,6 +19,15 @@ public interface ApiErrorLogService {
      */
     void createApiErrorLog(ApiErrorLogCreateReqDTO createReqDTO);
 
+    /**
+     * 【异步】创建 API 错误日志
+     *
+     * 写入批量缓冲队列，由后台线程批量插入；积压过多时，会被采样或丢弃
+     *
+     * @param createReqDTO API 错误日志
+     */
+    void createApiErrorLogAsync(ApiErrorLogCreateReqDTO createReqDTO);
+
     /**
      * 获得 API 错误日志分页
      *
@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.infra.service.logger;
 
 import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
@@ -14,8 +16,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiErrorLogDO.REQUEST_PARAMS_MAX_LENGTH;
@@ -35,11 +40,27 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
     @Resource
     private ApiErrorLogMapper apiErrorLogMapper;
 
+    /**
+     * API 错误日志的批量缓冲队列
+     *
+     * KEY：租户编号，因为后台线程没有租户上下文，所以需要在写入时记录
+     * VALUE：API 错误日志
+     */
+    private BatchBuffer<KeyValue<Long, ApiErrorLogDO>> apiErrorLogBuffer;
+
+    @PostConstruct
+    public void initApiErrorLogBuffer() {
+        apiErrorLogBuffer = BatchBuffer.create("infra-api-error-log", this::createApiErrorLogList);
+    }
+
+    @PreDestroy
+    public void destroyApiErrorLogBuffer() {
+        apiErrorLogBuffer.shutdown();
+    }
+
     @Override
     public void createApiErrorLog(ApiErrorLogCreateReqDTO createDTO) {
-        ApiErrorLogDO apiErrorLog = BeanUtils.toBean(createDTO, ApiErrorLogDO.class)
-                .setProcessStatus(ApiErrorLogProcessStatusEnum.INIT.getStatus());
-        apiErrorLog.setRequestParams(StrUtil.maxLength(apiErrorLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        ApiErrorLogDO apiErrorLog = buildApiErrorLog(createDTO);
         if (TenantContextHolder.getTenantId() != null) {
             apiErrorLogMapper.insert(apiErrorLog);
         } else {
@@ -48,6 +69,30 @@ public class ApiErrorLogServiceImpl implements ApiErrorLogService {
         }
     }
 
+    @Override
+    public void createApiErrorLogAsync(ApiErrorLogCreateReqDTO createDTO) {
+        ApiErrorLogDO apiErrorLog = buildApiErrorLog(createDTO);
+        if (!apiErrorLogBuffer.offer(new KeyValue<>(TenantContextHolder.getTenantId(), apiErrorLog))) {
+            log.warn("[createApiErrorLogAsync][url({}) 缓冲队列积压，丢弃错误日志]", apiErrorLog.getRequestUrl());
+        }
+    }
+
+    /**
+     * 批量插入 API 错误日志，按照租户分组插入
+     *
+     * @param apiErrorLogs API 错误日志（带租户编号）
+     */
+    private void createApiErrorLogList(List<KeyValue<Long, ApiErrorLogDO>> apiErrorLogs) {
+        TenantUtils.executeByTenant(apiErrorLogs, apiErrorLogMapper::insertBatch);
+    }
+
+    private static ApiErrorLogDO buildApiErrorLog(ApiErrorLogCreateReqDTO createDTO) {
+        ApiErrorLogDO apiErrorLog = BeanUtils.toBean(createDTO, ApiErrorLogDO.class)
+                .setProcessStatus(ApiErrorLogProcessStatusEnum.INIT.getStatus());
+        apiErrorLog.setRequestParams(StrUtil.maxLength(apiErrorLog.getRequestParams(), REQUEST_PARAMS_MAX_LENGTH));
+        return apiErrorLog;
+    }
+
     @Override
     public PageResult<ApiErrorLogDO> getApiErrorLogPage(ApiErrorLogPageReqVO pageReqVO) {
         return apiErrorLogMapper.selectPage(pageReqVO);
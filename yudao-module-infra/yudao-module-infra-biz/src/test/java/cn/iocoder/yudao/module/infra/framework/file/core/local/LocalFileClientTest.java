@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.infra.framework.file.core.local;
 
+import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.io.resource.ResourceUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.local.LocalFileClient;
@@ -7,6 +8,14 @@ import cn.iocoder.yudao.module.infra.framework.file.core.client.local.LocalFileC
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class LocalFileClientTest {
 
     @Test
@@ -26,4 +35,157 @@ public class LocalFileClientTest {
         client.delete(path);
     }
 
+    @Test
+    public void testStream() throws Exception {
+        // 创建客户端
+        LocalFileClient client = createClient();
+        // 上传文件
+        String path = IdUtil.fastSimpleUUID() + ".jpg";
+        byte[] content = ResourceUtil.readBytes("file/erweima.jpg");
+        client.upload(new ByteArrayInputStream(content), content.length, path, "image/jpeg");
+        try {
+            // 断言：文件大小
+            assertEquals((long) content.length, client.getContentLength(path));
+            assertNull(client.getContentLength(IdUtil.fastSimpleUUID()));
+            // 断言：分段读取
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            client.writeContent(path, 100, 200, out);
+            assertArrayEquals(Arrays.copyOfRange(content, 100, 300), out.toByteArray());
+        } finally {
+            client.delete(path);
+        }
+    }
+
+    /**
+     * 2 GB 文件的流式上传、下载，观察堆内存不随文件大小增长
+     *
+     * 需要 2 GB 磁盘空间，耗时较长，手动执行
+     */
+    @Test
+    @Disabled
+    public void testStream_2g() throws Exception {
+        // 创建客户端
+        LocalFileClient client = createClient();
+        long size = 2L * 1024 * 1024 * 1024;
+        String path = IdUtil.fastSimpleUUID() + ".bin";
+        HeapSampler sampler = new HeapSampler();
+        try {
+            // 上传：生成的内容不落在内存中
+            client.upload(new GeneratedInputStream(size, sampler), size, path, "application/octet-stream");
+            assertEquals(size, client.getContentLength(path));
+            // 下载：写入丢弃型输出流
+            DiscardOutputStream out = new DiscardOutputStream(sampler);
+            client.writeContent(path, 0, size, out);
+            assertEquals(size, out.count);
+        } finally {
+            client.delete(path);
+        }
+        System.out.printf("[testStream_2g][堆内存基线(%d MB) 峰值(%d MB)]%n",
+                sampler.baseline >> 20, sampler.peak >> 20);
+        assertTrue(sampler.peak - sampler.baseline < 256L * 1024 * 1024, "堆内存不应随文件大小增长");
+    }
+
+    private static LocalFileClient createClient() {
+        LocalFileClientConfig config = new LocalFileClientConfig();
+        config.setDomain("http://127.0.0.1:48080");
+        config.setBasePath(FileUtil.getTmpDirPath());
+        LocalFileClient client = new LocalFileClient(0L, config);
+        client.init();
+        return client;
+    }
+
+    /**
+     * 堆内存采样
+     */
+    private static class HeapSampler {
+
+        private final long baseline;
+        private long peak;
+
+        HeapSampler() {
+            System.gc();
+            this.baseline = used();
+            this.peak = baseline;
+        }
+
+        void sample() {
+            peak = Math.max(peak, used());
+        }
+
+        private static long used() {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+
+    }
+
+    /**
+     * 按需生成内容的输入流，每 64 MB 采样一次堆内存
+     */
+    private static class GeneratedInputStream extends InputStream {
+
+        private static final long SAMPLE_INTERVAL = 64L * 1024 * 1024;
+
+        private final long size;
+        private final HeapSampler sampler;
+        private long position;
+
+        GeneratedInputStream(long size, HeapSampler sampler) {
+            this.size = size;
+            this.sampler = sampler;
+        }
+
+        @Override
+        public int read() {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= size) {
+                return -1;
+            }
+            int n = (int) Math.min(len, size - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) (position + i);
+            }
+            if ((position + n) / SAMPLE_INTERVAL != position / SAMPLE_INTERVAL) {
+                sampler.sample();
+            }
+            position += n;
+            return n;
+        }
+
+    }
+
+    /**
+     * 只计数、不保存内容的输出流，每 64 MB 采样一次堆内存
+     */
+    private static class DiscardOutputStream extends OutputStream {
+
+        private static final long SAMPLE_INTERVAL = 64L * 1024 * 1024;
+
+        private final HeapSampler sampler;
+        private long count;
+
+        DiscardOutputStream(HeapSampler sampler) {
+            this.sampler = sampler;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if ((count + len) / SAMPLE_INTERVAL != count / SAMPLE_INTERVAL) {
+                sampler.sample();
+            }
+            count += len;
+        }
+
+    }
+
 }
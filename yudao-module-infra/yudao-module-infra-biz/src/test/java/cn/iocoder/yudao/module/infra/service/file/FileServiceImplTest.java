@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.infra.service.file;
 
 import cn.hutool.core.io.resource.ResourceUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.io.FileUtils;
 import cn.iocoder.yudao.framework.common.util.object.ObjectUtils;
 import cn.iocoder.yudao.module.infra.framework.file.core.client.FileClient;
 import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
@@ -14,6 +15,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 
 import java.time.LocalDateTime;
 
@@ -22,6 +25,7 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServic
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.infra.enums.ErrorCodeConstants.FILE_NOT_EXISTS;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.*;
 
@@ -92,7 +96,32 @@ public class FileServiceImplTest extends BaseDbUnitTest {
         assertEquals(path, file.getPath());
         assertEquals(url, file.getUrl());
         assertEquals("image/jpeg", file.getType());
-        assertEquals(content.length, file.getSize());
+        assertEquals((long) content.length, file.getSize());
+    }
+
+    @Test
+    public void testCreateFile_stream() throws Exception {
+        // 准备参数
+        byte[] content = ResourceUtil.readBytes("file/erweima.jpg");
+        String name = "单测文件名.jpg";
+        // mock Master 文件客户端
+        FileClient client = mock(FileClient.class);
+        when(fileConfigService.getMasterFileClient()).thenReturn(client);
+        String url = randomString();
+        String path = FileUtils.generatePath(content, name); // 和 byte[] 方式生成的 path 一致
+        when(client.upload(any(InputStream.class), eq((long) content.length), eq(path), eq("image/jpeg"))).thenReturn(url);
+        when(client.getId()).thenReturn(10L);
+        // 调用
+        String result = fileService.createFile(name, null, new ByteArrayInputStream(content), content.length);
+        // 断言
+        assertEquals(result, url);
+        // 校验数据
+        FileDO file = fileMapper.selectOne(FileDO::getPath, path);
+        assertEquals(10L, file.getConfigId());
+        assertEquals(name, file.getName());
+        assertEquals(url, file.getUrl());
+        assertEquals("image/jpeg", file.getType());
+        assertEquals((long) content.length, file.getSize());
     }
 
     @Test
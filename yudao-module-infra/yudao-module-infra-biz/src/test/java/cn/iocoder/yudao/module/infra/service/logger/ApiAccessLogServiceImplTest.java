@@ -2,24 +2,28 @@ package cn.iocoder.yudao.module.infra.service.logger;
 
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.framework.common.exception.enums.GlobalErrorCodeConstants;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
 import cn.iocoder.yudao.module.infra.api.logger.dto.ApiAccessLogCreateReqDTO;
 import cn.iocoder.yudao.module.infra.controller.admin.logger.vo.apiaccesslog.ApiAccessLogPageReqVO;
 import cn.iocoder.yudao.module.infra.dal.dataobject.logger.ApiAccessLogDO;
 import cn.iocoder.yudao.module.infra.dal.mysql.logger.ApiAccessLogMapper;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
 import java.time.Duration;
-import java.util.List;
+import java.util.*;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.*;
 import static cn.iocoder.yudao.framework.common.util.object.ObjectUtils.cloneIgnoreId;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @Import(ApiAccessLogServiceImpl.class)
 public class ApiAccessLogServiceImplTest extends BaseDbUnitTest {
@@ -74,6 +78,115 @@ public class ApiAccessLogServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(apiAccessLogDO, pageResult.getList().get(0));
     }
 
+    @Test
+    public void testGetApiAccessLogCursorPage() {
+        // mock 数据：5 条符合条件的，1 条不符合条件的
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ApiAccessLogDO log = randomPojo(ApiAccessLogDO.class, o -> o.setUserId(2233L));
+            apiAccessLogMapper.insert(log);
+            ids.add(log.getId());
+        }
+        ids.sort(Comparator.reverseOrder()); // 按照编号倒序
+        apiAccessLogMapper.insert(randomPojo(ApiAccessLogDO.class, o -> o.setUserId(3344L)));
+        // 准备参数
+        ApiAccessLogPageReqVO reqVO = new ApiAccessLogPageReqVO();
+        reqVO.setUserId(2233L);
+        reqVO.setPageSize(2);
+        reqVO.setCountEnabled(true);
+
+        // 调用：第一页，查询总数
+        CursorPageResult<ApiAccessLogDO> page01 = apiAccessLogService.getApiAccessLogCursorPage(reqVO);
+        assertEquals(5, page01.getTotal());
+        assertEquals(ids.subList(0, 2), convertList(page01.getList(), ApiAccessLogDO::getId));
+        assertNotNull(page01.getNextCursor());
+        // 调用：第二页，不查询总数
+        reqVO.setCursor(page01.getNextCursor());
+        CursorPageResult<ApiAccessLogDO> page02 = apiAccessLogService.getApiAccessLogCursorPage(reqVO);
+        assertNull(page02.getTotal());
+        assertEquals(ids.subList(2, 4), convertList(page02.getList(), ApiAccessLogDO::getId));
+        // 调用：最后一页，没有下一页
+        reqVO.setCursor(page02.getNextCursor());
+        CursorPageResult<ApiAccessLogDO> page03 = apiAccessLogService.getApiAccessLogCursorPage(reqVO);
+        assertEquals(ids.subList(4, 5), convertList(page03.getList(), ApiAccessLogDO::getId));
+        assertNull(page03.getNextCursor());
+    }
+
+    @Test
+    public void testSelectCursorPage_sortField() {
+        // mock 数据：beginTime 有重复，需要按照 beginTime + id 保证顺序稳定
+        ApiAccessLogDO log01 = randomPojo(ApiAccessLogDO.class, o -> o.setBeginTime(buildTime(2021, 3, 13)));
+        apiAccessLogMapper.insert(log01);
+        ApiAccessLogDO log02 = randomPojo(ApiAccessLogDO.class, o -> o.setBeginTime(buildTime(2021, 3, 14)));
+        apiAccessLogMapper.insert(log02);
+        ApiAccessLogDO log03 = randomPojo(ApiAccessLogDO.class, o -> o.setBeginTime(buildTime(2021, 3, 13)));
+        apiAccessLogMapper.insert(log03);
+        // 准备参数
+        ApiAccessLogPageReqVO reqVO = new ApiAccessLogPageReqVO();
+        reqVO.setPageSize(1);
+
+        // 调用：逐页查询
+        List<Long> ids = new ArrayList<>();
+        do {
+            CursorPageResult<ApiAccessLogDO> page = apiAccessLogMapper.selectCursorPage(reqVO,
+                    new LambdaQueryWrapperX<>(), ApiAccessLogDO::getBeginTime, ApiAccessLogDO::getId);
+            ids.addAll(convertList(page.getList(), ApiAccessLogDO::getId));
+            reqVO.setCursor(page.getNextCursor());
+        } while (reqVO.getCursor() != null);
+        // 断言：beginTime 倒序，相同时按照编号倒序
+        assertEquals(Arrays.asList(log02.getId(), Math.max(log01.getId(), log03.getId()),
+                Math.min(log01.getId(), log03.getId())), ids);
+    }
+
+    /**
+     * 对比 offset 分页、游标分页，翻到第 10000 页的延迟
+     *
+     * 插入 10 万条数据较慢，所以默认不执行
+     */
+    @Test
+    @Disabled
+    public void testCursorPage_benchmark() {
+        // mock 数据：10 万条，每页 10 条，共 10000 页
+        int pageSize = 10;
+        int pageCount = 10000;
+        List<ApiAccessLogDO> logs = new ArrayList<>(1000);
+        for (int i = 0; i < pageSize * pageCount; i++) {
+            logs.add(randomPojo(ApiAccessLogDO.class, o -> o.setId(null)));
+            if (logs.size() == 1000) {
+                apiAccessLogMapper.insertBatch(logs);
+                logs.clear();
+            }
+        }
+        Set<Integer> samplePages = new HashSet<>(Arrays.asList(1, 10, 100, 1000, 5000, pageCount));
+
+        // 调用：offset 分页，直接跳到采样页
+        ApiAccessLogPageReqVO offsetReqVO = new ApiAccessLogPageReqVO();
+        offsetReqVO.setPageSize(pageSize);
+        Map<Integer, Long> offsetCosts = new TreeMap<>();
+        for (Integer pageNo : samplePages) {
+            offsetReqVO.setPageNo(pageNo);
+            long start = System.nanoTime();
+            apiAccessLogService.getApiAccessLogPage(offsetReqVO);
+            offsetCosts.put(pageNo, (System.nanoTime() - start) / 1000);
+        }
+        // 调用：游标分页，只能逐页往后翻，记录采样页的耗时
+        ApiAccessLogPageReqVO cursorReqVO = new ApiAccessLogPageReqVO();
+        cursorReqVO.setPageSize(pageSize);
+        Map<Integer, Long> cursorCosts = new TreeMap<>();
+        for (int pageNo = 1; pageNo <= pageCount; pageNo++) {
+            long start = System.nanoTime();
+            CursorPageResult<ApiAccessLogDO> page = apiAccessLogService.getApiAccessLogCursorPage(cursorReqVO);
+            if (samplePages.contains(pageNo)) {
+                cursorCosts.put(pageNo, (System.nanoTime() - start) / 1000);
+            }
+            assertEquals(pageSize, page.getList().size());
+            cursorReqVO.setCursor(page.getNextCursor());
+        }
+        // 输出结果
+        System.out.printf("[testCursorPage_benchmark][offset(us)=%s]%n", offsetCosts);
+        System.out.printf("[testCursorPage_benchmark][cursor(us)=%s]%n", cursorCosts);
+    }
+
     @Test
     public void testCleanJobLog() {
         // mock 数据
@@ -58,4 +58,21 @@ public interface ProductSkuMapper extends BaseMapperX<ProductSkuDO> {
         return update(null, updateWrapper);
     }
 
+    /**
+     * 按照增量，更新 SKU 库存、销量，用于将 Redis 中的库存增量写回数据库
+     *
+     * 与 {@link #updateStockDecr(Long, Integer)} 不同，不校验库存是否充足，因为 Redis 中已经扣减成功
+     *
+     * @param id        编号
+     * @param incrCount 库存增量（可为负数），销量的增量与之相反
+     * @return 更新条数
+     */
+    default int updateStockAndSalesCountIncr(Long id, Integer incrCount) {
+        LambdaUpdateWrapper<ProductSkuDO> updateWrapper = new LambdaUpdateWrapper<ProductSkuDO>()
+                .setSql(" stock = stock + (" + incrCount + ")"
+                    + ", sales_count = sales_count - (" + incrCount + ")")
+                .eq(ProductSkuDO::getId, id);
+        return update(null, updateWrapper);
+    }
+
 }
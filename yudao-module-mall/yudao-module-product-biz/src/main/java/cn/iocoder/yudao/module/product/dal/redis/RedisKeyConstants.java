@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.product.dal.redis;
+
+/**
+ * 商品 Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 商品 SKU 的库存缓冲，由 RedisStockBuffer 管理
+     *
+     * KEY 格式：{product_sku_stock}:{skuId}，以及 {product_sku_stock}:dirty 等辅助 KEY，使用相同的 hash tag
+     * VALUE 数据格式：HASH // s:stock 字段为可用库存，r:stock、d:stock、p:stock 字段为预扣减、待写回、写回中的数量
+     * 过期时间：不过期，由管理后台修改 SKU 时删除可用库存
+     */
+    String SKU_STOCK = "product_sku_stock";
+
+}
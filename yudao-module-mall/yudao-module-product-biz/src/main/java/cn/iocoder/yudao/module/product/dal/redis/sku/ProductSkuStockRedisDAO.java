@@ -0,0 +1,193 @@
+package cn.iocoder.yudao.module.product.dal.redis.sku;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.redis.core.stock.RedisStockBuffer;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+
+import static cn.iocoder.yudao.module.product.dal.redis.RedisKeyConstants.SKU_STOCK;
+
+/**
+ * 商品 SKU 库存的 Redis DAO
+ *
+ * 大部分订单集中在少量热门 SKU 时，直接扣减数据库会在这几行记录上排队等待行锁，吞吐量随并发增加而下降。因此：
+ * 1. 首次扣减时，将 SKU 的库存加载到 Redis 中
+ * 2. 通过 Lua 脚本原子预扣减一个订单的所有 SKU，下单事务提交后确认，由定时任务按照增量批量写回数据库
+ *
+ * 使用 Redis 而不是本地内存计数，是因为库存需要在多个节点之间共享。具体实现，见 {@link RedisStockBuffer}。
+ * 销量与库存的增量相反，所以只记录库存的增量
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class ProductSkuStockRedisDAO {
+
+    /**
+     * 扣减结果：成功
+     */
+    public static final long DECR_SUCCESS = 1;
+    /**
+     * 扣减结果：库存未加载到 Redis
+     */
+    public static final long DECR_NOT_LOADED = RedisStockBuffer.RESERVE_NOT_LOADED;
+    /**
+     * 扣减结果：库存不足
+     */
+    public static final long DECR_INSUFFICIENT = RedisStockBuffer.RESERVE_INSUFFICIENT;
+
+    private static final String FIELD_STOCK = "stock";
+
+    private final RedisStockBuffer stockBuffer;
+
+    public ProductSkuStockRedisDAO(StringRedisTemplate stringRedisTemplate) {
+        this.stockBuffer = new RedisStockBuffer(stringRedisTemplate, SKU_STOCK);
+    }
+
+    /**
+     * 从数据库加载 SKU 的库存到 Redis；已加载的 SKU 忽略
+     *
+     * @param skuIds SKU 编号数组
+     * @param loader 从数据库读取 SKU，需要在每次调用时重新读取
+     * @return 加载的 SKU 数量
+     */
+    public int load(Collection<Long> skuIds, Function<Collection<Long>, List<ProductSkuDO>> loader) {
+        return stockBuffer.load(skuIds, ids -> {
+            Map<Long, Map<String, Integer>> stocks = new LinkedHashMap<>();
+            loader.apply(ids).forEach(sku -> stocks.put(sku.getId(),
+                    Collections.singletonMap(FIELD_STOCK, sku.getStock() != null ? sku.getStock() : 0)));
+            return stocks;
+        }, null);
+    }
+
+    /**
+     * 预扣减库存
+     *
+     * @param skuCounts SKU 扣减数量，KEY 为 SKU 编号，VALUE 为扣减数量（正数）
+     * @return DECR_XXX 结果
+     */
+    public long decr(Map<Long, Integer> skuCounts) {
+        long result = stockBuffer.reserve(buildCounts(skuCounts));
+        if (result >= 0) {
+            return DECR_SUCCESS;
+        }
+        return result == DECR_NOT_LOADED ? DECR_NOT_LOADED : DECR_INSUFFICIENT;
+    }
+
+    /**
+     * 确认预扣减，在下单事务提交后调用，由定时任务写回数据库
+     *
+     * @param skuCounts SKU 扣减数量，同 {@link #decr(Map)}
+     */
+    public void confirmDecr(Map<Long, Integer> skuCounts) {
+        stockBuffer.confirm(buildCounts(skuCounts));
+    }
+
+    /**
+     * 取消预扣减，在下单事务回滚后调用
+     *
+     * @param skuCounts SKU 扣减数量，同 {@link #decr(Map)}
+     */
+    public void cancelDecr(Map<Long, Integer> skuCounts) {
+        stockBuffer.cancel(buildCounts(skuCounts));
+    }
+
+    /**
+     * 增加库存，在事务提交后调用，由定时任务写回数据库
+     *
+     * @param skuCounts SKU 增加数量，KEY 为 SKU 编号，VALUE 为增加数量（正数）
+     */
+    public void incr(Map<Long, Integer> skuCounts) {
+        stockBuffer.incr(buildCounts(skuCounts));
+    }
+
+    /**
+     * 弹出待写回数据库的库存增量
+     *
+     * @param count SKU 数量
+     * @return KEY 为 SKU 编号，VALUE 为库存增量（销量增量与之相反）
+     */
+    public Map<Long, Integer> popDeltas(int count) {
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        stockBuffer.pop(count).forEach((skuId, deltas) -> {
+            Integer delta = deltas.get(FIELD_STOCK);
+            if (delta != null && delta != 0) {
+                result.put(skuId, delta);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 写回数据库成功，在写回的事务提交后调用
+     *
+     * @param deltas 库存增量，即 {@link #popDeltas(int)} 的结果
+     */
+    public void commitDeltas(Map<Long, Integer> deltas) {
+        stockBuffer.commit(buildCounts(deltas));
+    }
+
+    /**
+     * 写回数据库失败，在写回的事务回滚后调用，下次重新写回
+     *
+     * @param deltas 库存增量，即 {@link #popDeltas(int)} 的结果
+     */
+    public void rollbackDeltas(Map<Long, Integer> deltas) {
+        stockBuffer.rollback(buildCounts(deltas));
+    }
+
+    /**
+     * 获得 Redis 中的可用库存
+     *
+     * @param skuId SKU 编号
+     * @return 可用库存；未加载时，返回 null
+     */
+    public Integer getStock(Long skuId) {
+        return stockBuffer.getStock(skuId).get(FIELD_STOCK);
+    }
+
+    /**
+     * 获得 Redis 中的 SKU 编号，包括仅有待写回增量的 SKU
+     *
+     * @return SKU 编号
+     */
+    public Set<Long> getSkuIds() {
+        return stockBuffer.getGroupIds();
+    }
+
+    /**
+     * 删除可用库存，例如说管理后台修改了 SKU 库存，后续从数据库重新加载
+     *
+     * 尚未写回的增量保留，由定时任务继续写回数据库
+     *
+     * @param skuIds SKU 编号数组
+     */
+    public void delete(Collection<Long> skuIds) {
+        stockBuffer.unload(skuIds);
+    }
+
+    /**
+     * 对账：归还超时未确认的预扣减、超时未完成的写回
+     *
+     * @param skuIds SKU 编号数组
+     * @param timeout 超时时间
+     * @return 归还的 SKU 数量
+     */
+    public int reconcile(Collection<Long> skuIds, Duration timeout) {
+        return stockBuffer.reconcile(skuIds, timeout);
+    }
+
+    private static Map<Long, Map<String, Integer>> buildCounts(Map<Long, Integer> skuCounts) {
+        if (CollUtil.isEmpty(skuCounts)) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Map<String, Integer>> counts = new LinkedHashMap<>(skuCounts.size());
+        skuCounts.forEach((skuId, count) -> counts.put(skuId, Collections.singletonMap(FIELD_STOCK, count)));
+        return counts;
+    }
+
+}
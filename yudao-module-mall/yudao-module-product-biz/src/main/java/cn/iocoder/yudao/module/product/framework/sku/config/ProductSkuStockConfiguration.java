@@ -0,0 +1,14 @@
+package cn.iocoder.yudao.module.product.framework.sku.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 商品 SKU 库存的配置类
+ *
+ * @author 芋道源码
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ProductSkuStockProperties.class)
+public class ProductSkuStockConfiguration {
+}
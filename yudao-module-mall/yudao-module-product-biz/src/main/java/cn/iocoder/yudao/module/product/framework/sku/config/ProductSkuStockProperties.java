@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.product.framework.sku.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * 商品 SKU 库存的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.product.sku-stock")
+@Data
+@Validated
+public class ProductSkuStockProperties {
+
+    /**
+     * 是否开启库存缓冲
+     *
+     * 开启后，下单扣减的 SKU 库存先在 Redis 中原子预扣减，再由定时任务批量写回数据库，
+     * 适合大部分订单集中在少量热门 SKU 的场景；关闭时，直接更新数据库
+     */
+    @NotNull(message = "是否开启库存缓冲不能为空")
+    private Boolean bufferEnable = false;
+
+}
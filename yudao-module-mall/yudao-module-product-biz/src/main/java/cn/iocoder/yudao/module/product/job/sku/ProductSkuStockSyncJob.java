@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.module.product.job.sku;
+
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuStockProperties;
+import cn.iocoder.yudao.module.product.service.sku.ProductSkuService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 商品 SKU 库存的同步 Job，仅在开启库存缓冲时执行
+ *
+ * 1. 写回：每 1 秒，将 Redis 中 SKU 库存的增量，在一个事务中批量写回数据库
+ * 2. 对账：每 1 分钟，归还 Redis 中超时未确认的预扣减、超时未完成的写回
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class ProductSkuStockSyncJob {
+
+    @Resource
+    private ProductSkuService productSkuService;
+
+    @Resource
+    private ProductSkuStockProperties skuStockProperties;
+
+    @Scheduled(fixedDelay = 1000, initialDelay = 10000)
+    public void flush() {
+        if (!Boolean.TRUE.equals(skuStockProperties.getBufferEnable())) {
+            return;
+        }
+        TenantUtils.executeIgnore(() -> {
+            try {
+                productSkuService.flushSkuStock();
+            } catch (Exception ex) {
+                log.error("[flush][写回 SKU 库存异常]", ex);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void reconcile() {
+        if (!Boolean.TRUE.equals(skuStockProperties.getBufferEnable())) {
+            return;
+        }
+        TenantUtils.executeIgnore(() -> {
+            try {
+                int count = productSkuService.reconcileSkuStock();
+                if (count > 0) {
+                    log.warn("[reconcile][对账归还 {} 个 SKU 超时的预扣减或写回]", count);
+                }
+            } catch (Exception ex) {
+                log.error("[reconcile][对账 SKU 库存异常]", ex);
+            }
+        });
+    }
+
+}
@@ -69,6 +69,20 @@ public interface ProductSkuService {
      */
     void updateSkuStock(ProductSkuUpdateStockReqDTO updateStockReqDTO);
 
+    /**
+     * 将 Redis 中 SKU 库存的增量，批量写回数据库
+     *
+     * @return 写回的 SKU 数量
+     */
+    int flushSkuStock();
+
+    /**
+     * 对账 Redis 中的 SKU 库存，归还超时未确认的预扣减、超时未完成的写回
+     *
+     * @return 归还的 SKU 数量
+     */
+    int reconcileSkuStock();
+
     /**
      * 获得商品 SKU 集合
      *
@@ -11,21 +11,26 @@ import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyDO
 import cn.iocoder.yudao.module.product.dal.dataobject.property.ProductPropertyValueDO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.redis.sku.ProductSkuStockRedisDAO;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuStockProperties;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.*;
 
 /**
@@ -35,10 +40,25 @@ import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.*;
  */
 @Service
 @Validated
+@Slf4j
 public class ProductSkuServiceImpl implements ProductSkuService {
 
+    /**
+     * 每次写回数据库的 SKU 数量
+     */
+    private static final int STOCK_FLUSH_BATCH_SIZE = 500;
+    /**
+     * 预扣减、写回的超时时间，需要大于下单、写回事务的最长执行时间
+     */
+    private static final Duration STOCK_RECONCILE_TIMEOUT = Duration.ofMinutes(10);
+
     @Resource
     private ProductSkuMapper productSkuMapper;
+    @Resource
+    private ProductSkuStockRedisDAO skuStockRedisDAO;
+
+    @Resource
+    private ProductSkuStockProperties skuStockProperties;
 
     @Resource
     @Lazy // 循环依赖，避免报错
@@ -55,6 +75,7 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         validateSkuExists(id);
         // 删除
         productSkuMapper.deleteById(id);
+        deleteSkuStockBuffer(Collections.singletonList(id));
     }
 
     private void validateSkuExists(Long id) {
@@ -155,6 +176,9 @@ public class ProductSkuServiceImpl implements ProductSkuService {
 
     @Override
     public void deleteSkuBySpuId(Long spuId) {
+        if (isStockBufferEnable()) {
+            deleteSkuStockBuffer(convertList(productSkuMapper.selectListBySpuId(spuId), ProductSkuDO::getId));
+        }
         productSkuMapper.deleteBySpuId(spuId);
     }
 
@@ -242,13 +266,40 @@ public class ProductSkuServiceImpl implements ProductSkuService {
         if (CollUtil.isNotEmpty(existsSkuMap)) {
             productSkuMapper.deleteBatchIds(existsSkuMap.values());
         }
+        // 修改、删除的 SKU，删除 Redis 中的库存，后续按照最新的库存重新加载
+        deleteSkuStockBuffer(CollUtil.addAll(convertList(updateSkus, ProductSkuDO::getId), existsSkuMap.values()));
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateSkuStock(ProductSkuUpdateStockReqDTO updateStockReqDTO) {
-        // 更新 SKU 库存
+        // 情况一：未开启库存缓冲，直接更新数据库
+        if (!isStockBufferEnable()) {
+            updateSkuStockInDb(updateStockReqDTO.getItems());
+            return;
+        }
+
+        // 情况二：开启库存缓冲，以 Redis 为准，由定时任务按照增量写回数据库
+        Map<Long, Integer> decrCounts = new LinkedHashMap<>();
+        Map<Long, Integer> incrCounts = new LinkedHashMap<>();
         updateStockReqDTO.getItems().forEach(item -> {
+            if (item.getIncrCount() < 0) {
+                decrCounts.merge(item.getId(), -item.getIncrCount(), Integer::sum);
+            } else if (item.getIncrCount() > 0) {
+                incrCounts.merge(item.getId(), item.getIncrCount(), Integer::sum);
+            }
+        });
+        if (CollUtil.isNotEmpty(decrCounts)) {
+            updateSkuStockDecrInRedis(decrCounts);
+        }
+        if (CollUtil.isNotEmpty(incrCounts)) {
+            updateSkuStockIncrInRedis(incrCounts);
+        }
+    }
+
+    private void updateSkuStockInDb(List<ProductSkuUpdateStockReqDTO.Item> items) {
+        // 更新 SKU 库存
+        items.forEach(item -> {
             if (item.getIncrCount() > 0) {
                 productSkuMapper.updateStockIncr(item.getId(), item.getIncrCount());
             } else if (item.getIncrCount() < 0) {
@@ -261,10 +312,133 @@ public class ProductSkuServiceImpl implements ProductSkuService {
 
         // 更新 SPU 库存
         List<ProductSkuDO> skus = productSkuMapper.selectBatchIds(
-                convertSet(updateStockReqDTO.getItems(), ProductSkuUpdateStockReqDTO.Item::getId));
-        Map<Long, Integer> spuStockIncrCounts = ProductSkuConvert.INSTANCE.convertSpuStockMap(
-                updateStockReqDTO.getItems(), skus);
+                convertSet(items, ProductSkuUpdateStockReqDTO.Item::getId));
+        Map<Long, Integer> spuStockIncrCounts = ProductSkuConvert.INSTANCE.convertSpuStockMap(items, skus);
         productSpuService.updateSpuStock(spuStockIncrCounts);
     }
 
+    private void updateSkuStockDecrInRedis(Map<Long, Integer> decrCounts) {
+        // 1. 通过 Redis 原子预扣减库存；库存未加载时，从数据库加载后再扣减
+        long result = skuStockRedisDAO.decr(decrCounts);
+        if (result == ProductSkuStockRedisDAO.DECR_NOT_LOADED) {
+            skuStockRedisDAO.load(decrCounts.keySet(), productSkuMapper::selectBatchIds);
+            result = skuStockRedisDAO.decr(decrCounts);
+        }
+        if (result != ProductSkuStockRedisDAO.DECR_SUCCESS) {
+            throw exception(SKU_STOCK_NOT_ENOUGH);
+        }
+
+        // 2. 下单的事务提交后，确认预扣减，等待写回数据库；回滚后，归还预扣减的库存
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            skuStockRedisDAO.confirmDecr(decrCounts);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    skuStockRedisDAO.confirmDecr(decrCounts);
+                } else {
+                    skuStockRedisDAO.cancelDecr(decrCounts);
+                }
+            }
+
+        });
+    }
+
+    private void updateSkuStockIncrInRedis(Map<Long, Integer> incrCounts) {
+        // 在事务提交后归还，等待写回数据库；库存未加载到 Redis 时，也只记录增量，避免与写回并发更新数据库
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            skuStockRedisDAO.incr(incrCounts);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                skuStockRedisDAO.incr(incrCounts);
+            }
+
+        });
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int flushSkuStock() {
+        // 1. 原子弹出待写回的库存增量
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(STOCK_FLUSH_BATCH_SIZE);
+        if (CollUtil.isEmpty(deltas)) {
+            return 0;
+        }
+        // 写回的事务提交后，清理写回中的增量；回滚后，归还增量，下次重试
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    skuStockRedisDAO.commitDeltas(deltas);
+                } else {
+                    skuStockRedisDAO.rollbackDeltas(deltas);
+                }
+            }
+
+        });
+
+        // 2. 在一个事务中，按照增量更新这一批 SKU 的库存、销量，以及 SPU 的库存
+        // 每个增量只会被一个节点弹出，所以多个节点并发写回时，不会覆盖、也不会重复累加
+        Map<Long, ProductSkuDO> skuMap = convertMap(productSkuMapper.selectBatchIds(deltas.keySet()), ProductSkuDO::getId);
+        Map<Long, Integer> spuStockIncrCounts = new HashMap<>();
+        deltas.forEach((skuId, delta) -> {
+            ProductSkuDO sku = skuMap.get(skuId);
+            if (sku == null) { // SKU 已删除，忽略
+                return;
+            }
+            productSkuMapper.updateStockAndSalesCountIncr(skuId, delta);
+            spuStockIncrCounts.merge(sku.getSpuId(), delta, Integer::sum);
+        });
+        productSpuService.updateSpuStock(spuStockIncrCounts);
+        return deltas.size();
+    }
+
+    @Override
+    public int reconcileSkuStock() {
+        int count = 0;
+        for (List<Long> skuIds : CollUtil.split(skuStockRedisDAO.getSkuIds(), STOCK_FLUSH_BATCH_SIZE)) {
+            // 数据库中已删除的 SKU，删除 Redis 中的可用库存
+            Set<Long> existsSkuIds = convertSet(productSkuMapper.selectBatchIds(skuIds), ProductSkuDO::getId);
+            skuStockRedisDAO.delete(filterList(skuIds, skuId -> !existsSkuIds.contains(skuId)));
+            // 归还超时未确认的预扣减（例如说下单的进程在事务完成前退出）、超时未完成的写回
+            count += skuStockRedisDAO.reconcile(skuIds, STOCK_RECONCILE_TIMEOUT);
+        }
+        return count;
+    }
+
+    /**
+     * 删除 Redis 中的 SKU 库存，在事务提交后执行，后续从数据库重新加载
+     *
+     * @param skuIds SKU 编号数组
+     */
+    private void deleteSkuStockBuffer(Collection<Long> skuIds) {
+        if (!isStockBufferEnable() || CollUtil.isEmpty(skuIds)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            skuStockRedisDAO.delete(skuIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                skuStockRedisDAO.delete(skuIds);
+            }
+
+        });
+    }
+
+    private boolean isStockBufferEnable() {
+        return Boolean.TRUE.equals(skuStockProperties.getBufferEnable());
+    }
+
 }
@@ -0,0 +1,285 @@
+package cn.iocoder.yudao.module.product.dal.redis.sku;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.module.product.dal.redis.RedisKeyConstants.SKU_STOCK;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ProductSkuStockRedisDAO} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(ProductSkuStockRedisDAO.class)
+public class ProductSkuStockRedisDAOTest extends BaseRedisUnitTest {
+
+    @Resource
+    private ProductSkuStockRedisDAO skuStockRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("{" + SKU_STOCK + "}*"));
+    }
+
+    @Test
+    public void testLoad_notOverwrite() {
+        // 调用，首次加载
+        assertEquals(1, load(buildSku(1L, 10)));
+        decrAndConfirm(1L, 3);
+        // 调用，再次加载，不覆盖未写回数据库的库存
+        assertEquals(0, load(buildSku(1L, 10)));
+        // 断言
+        assertEquals(7, skuStockRedisDAO.getStock(1L));
+        assertEquals(Collections.singleton(1L), skuStockRedisDAO.getSkuIds());
+    }
+
+    @Test
+    public void testDecr() {
+        // 调用，未加载
+        assertEquals(ProductSkuStockRedisDAO.DECR_NOT_LOADED, skuStockRedisDAO.decr(singletonMap(1L, 1)));
+        // 准备参数
+        load(buildSku(1L, 3), buildSku(2L, 3));
+        Map<Long, Integer> counts = new LinkedHashMap<>();
+        counts.put(1L, 1);
+        counts.put(2L, 4);
+
+        // 调用，其中一个 SKU 库存不足，全部不扣减
+        assertEquals(ProductSkuStockRedisDAO.DECR_INSUFFICIENT, skuStockRedisDAO.decr(counts));
+        assertEquals(3, skuStockRedisDAO.getStock(1L));
+        // 调用，成功
+        counts.put(2L, 3);
+        assertEquals(ProductSkuStockRedisDAO.DECR_SUCCESS, skuStockRedisDAO.decr(counts));
+        // 断言：预扣减后，可用库存减少；事务未提交，没有待写回的增量
+        assertEquals(2, skuStockRedisDAO.getStock(1L));
+        assertEquals(0, skuStockRedisDAO.getStock(2L));
+        assertTrue(skuStockRedisDAO.popDeltas(10).isEmpty());
+
+        // 调用，确认预扣减
+        skuStockRedisDAO.confirmDecr(counts);
+        // 断言：待写回的增量
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(10);
+        assertEquals(2, deltas.size());
+        assertEquals(-1, deltas.get(1L));
+        assertEquals(-3, deltas.get(2L));
+    }
+
+    @Test
+    public void testCancelDecr() {
+        // 准备参数
+        load(buildSku(1L, 1));
+        assertEquals(ProductSkuStockRedisDAO.DECR_SUCCESS, skuStockRedisDAO.decr(singletonMap(1L, 1)));
+
+        // 调用，下单事务回滚，归还库存
+        skuStockRedisDAO.cancelDecr(singletonMap(1L, 1));
+        // 断言：可用库存恢复，没有待写回的增量
+        assertEquals(1, skuStockRedisDAO.getStock(1L));
+        assertTrue(skuStockRedisDAO.popDeltas(10).isEmpty());
+        // 调用，重复归还，不会多归还
+        skuStockRedisDAO.cancelDecr(singletonMap(1L, 1));
+        assertEquals(1, skuStockRedisDAO.getStock(1L));
+    }
+
+    @Test
+    public void testCancelDecr_afterReload() {
+        // 准备参数：预扣减 3 个后，管理后台修改了 SKU，删除 Redis 中的可用库存，再从数据库（仍为 10）重新加载
+        load(buildSku(1L, 10));
+        assertEquals(ProductSkuStockRedisDAO.DECR_SUCCESS, skuStockRedisDAO.decr(singletonMap(1L, 3)));
+        skuStockRedisDAO.delete(singletonList(1L));
+        assertNull(skuStockRedisDAO.getStock(1L));
+        assertEquals(1, load(buildSku(1L, 10)));
+        // 断言：重新加载时，计入尚未提交的预扣减
+        assertEquals(7, skuStockRedisDAO.getStock(1L));
+
+        // 调用，下单事务回滚
+        skuStockRedisDAO.cancelDecr(singletonMap(1L, 3));
+        // 断言：只归还预扣减的 3 个，不会多归还
+        assertEquals(10, skuStockRedisDAO.getStock(1L));
+    }
+
+    @Test
+    public void testIncr() {
+        // 调用，未加载时，只记录增量
+        skuStockRedisDAO.incr(singletonMap(1L, 2));
+        assertNull(skuStockRedisDAO.getStock(1L));
+        // 调用，已加载时，同时增加可用库存
+        load(buildSku(2L, 1));
+        skuStockRedisDAO.incr(singletonMap(2L, 3));
+        assertEquals(4, skuStockRedisDAO.getStock(2L));
+
+        // 断言
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(10);
+        assertEquals(2, deltas.get(1L));
+        assertEquals(3, deltas.get(2L));
+    }
+
+    @Test
+    public void testPopDeltas_commit() {
+        // 准备参数
+        load(buildSku(1L, 10));
+        decrAndConfirm(1L, 3);
+
+        // 调用，弹出增量
+        assertEquals(singletonMap(1L, -3), skuStockRedisDAO.popDeltas(10));
+        // 调用，写回期间又卖出 2 个
+        decrAndConfirm(1L, 2);
+        // 调用，写回成功
+        skuStockRedisDAO.commitDeltas(singletonMap(1L, -3));
+        // 断言：只弹出写回期间新增的增量
+        assertEquals(singletonMap(1L, -2), skuStockRedisDAO.popDeltas(10));
+        assertEquals(5, skuStockRedisDAO.getStock(1L));
+    }
+
+    @Test
+    public void testPopDeltas_rollback() {
+        // 准备参数
+        load(buildSku(1L, 10));
+        decrAndConfirm(1L, 3);
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(10);
+
+        // 调用，写回的事务回滚
+        skuStockRedisDAO.rollbackDeltas(deltas);
+        // 断言：增量归还，下次重新写回
+        assertEquals(singletonMap(1L, -3), skuStockRedisDAO.popDeltas(10));
+    }
+
+    @Test
+    public void testDelete_keepDeltas() {
+        // 准备参数
+        load(buildSku(1L, 10), buildSku(2L, 10));
+        decrAndConfirm(1L, 2);
+
+        // 调用
+        skuStockRedisDAO.delete(Arrays.asList(1L, 2L));
+        // 断言：可用库存被删除；尚未写回的增量保留
+        assertNull(skuStockRedisDAO.getStock(1L));
+        assertNull(skuStockRedisDAO.getStock(2L));
+        assertEquals(singletonMap(1L, -2), skuStockRedisDAO.popDeltas(10));
+        assertEquals(Collections.singleton(1L), skuStockRedisDAO.getSkuIds());
+    }
+
+    @Test
+    public void testLoad_whileFlushing() {
+        // 准备参数：卖出 2 个，增量正在写回时，管理后台修改了 SKU
+        load(buildSku(1L, 10));
+        decrAndConfirm(1L, 2);
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(10);
+        skuStockRedisDAO.delete(singletonList(1L));
+
+        // 调用，写回完成前加载，数据库可能还是写回前的库存，加载失败
+        assertEquals(0, load(buildSku(1L, 10)));
+        assertNull(skuStockRedisDAO.getStock(1L));
+        // 调用，写回完成后加载
+        skuStockRedisDAO.commitDeltas(deltas);
+        assertEquals(1, load(buildSku(1L, 8)));
+        // 断言
+        assertEquals(8, skuStockRedisDAO.getStock(1L));
+    }
+
+    @Test
+    public void testReconcile() {
+        // 准备参数：SKU 1 预扣减后，下单的进程退出，没有确认；SKU 2 弹出增量后，写回的进程退出
+        load(buildSku(1L, 10), buildSku(2L, 10));
+        assertEquals(ProductSkuStockRedisDAO.DECR_SUCCESS, skuStockRedisDAO.decr(singletonMap(1L, 3)));
+        decrAndConfirm(2L, 2);
+        assertEquals(singletonMap(2L, -2), skuStockRedisDAO.popDeltas(10));
+        ThreadUtil.sleep(10);
+
+        // 调用，未超时，不处理
+        assertEquals(0, skuStockRedisDAO.reconcile(Arrays.asList(1L, 2L), Duration.ofMinutes(1)));
+        // 调用，超时
+        assertEquals(2, skuStockRedisDAO.reconcile(Arrays.asList(1L, 2L), Duration.ofMillis(1)));
+        // 断言：SKU 1 的预扣减归还；SKU 2 的增量重新待写回
+        assertEquals(10, skuStockRedisDAO.getStock(1L));
+        assertEquals(singletonMap(2L, -2), skuStockRedisDAO.popDeltas(10));
+    }
+
+    /**
+     * 并发测试：80% 的订单集中在 10 个热门 SKU 上，每个订单购买 2 个 SKU，成功扣减的数量恰好等于库存的减少量，不超卖
+     */
+    @Test
+    public void testDecr_concurrentHotSku() throws InterruptedException {
+        // 准备参数：10 个热门 SKU，各 100 库存；90 个普通 SKU，各 1000 库存
+        int skuCount = 100;
+        int hotSkuCount = 10;
+        int orderCount = 5000;
+        List<ProductSkuDO> skus = new ArrayList<>(skuCount);
+        for (long i = 0; i < skuCount; i++) {
+            skus.add(buildSku(i, i < hotSkuCount ? 100 : 1000));
+        }
+        load(skus.toArray(new ProductSkuDO[0]));
+
+        // 调用
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(orderCount);
+        AtomicIntegerArray soldCounts = new AtomicIntegerArray(skuCount);
+        Random random = new Random(0);
+        for (int i = 0; i < orderCount; i++) {
+            Map<Long, Integer> counts = new LinkedHashMap<>();
+            for (int j = 0; j < 2; j++) {
+                long skuId = random.nextInt(10) < 8 ? random.nextInt(hotSkuCount)
+                        : hotSkuCount + random.nextInt(skuCount - hotSkuCount);
+                counts.merge(skuId, 1 + random.nextInt(2), Integer::sum);
+            }
+            executor.execute(() -> {
+                try {
+                    startLatch.await();
+                    if (skuStockRedisDAO.decr(counts) == ProductSkuStockRedisDAO.DECR_SUCCESS) {
+                        skuStockRedisDAO.confirmDecr(counts);
+                        counts.forEach((skuId, count) -> soldCounts.addAndGet(skuId.intValue(), count));
+                    }
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertTrue(endLatch.await(2, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        // 断言：每个 SKU 的剩余库存 = 初始库存 - 成功扣减数量 >= 0，待写回的增量 = -成功扣减数量
+        Map<Long, Integer> deltas = skuStockRedisDAO.popDeltas(skuCount);
+        skus.forEach(sku -> {
+            Integer stock = skuStockRedisDAO.getStock(sku.getId());
+            int soldCount = soldCounts.get(sku.getId().intValue());
+            assertTrue(stock >= 0);
+            assertEquals(sku.getStock() - soldCount, stock);
+            assertEquals(soldCount == 0 ? null : -soldCount, deltas.get(sku.getId()));
+        });
+    }
+
+    private int load(ProductSkuDO... skus) {
+        List<ProductSkuDO> list = Arrays.asList(skus);
+        return skuStockRedisDAO.load(convertList(list, ProductSkuDO::getId), ids -> list);
+    }
+
+    private void decrAndConfirm(Long skuId, int count) {
+        assertEquals(ProductSkuStockRedisDAO.DECR_SUCCESS, skuStockRedisDAO.decr(singletonMap(skuId, count)));
+        skuStockRedisDAO.confirmDecr(singletonMap(skuId, count));
+    }
+
+    private static ProductSkuDO buildSku(Long id, int stock) {
+        return ProductSkuDO.builder().id(id).stock(stock).build();
+    }
+
+}
@@ -0,0 +1,210 @@
+package cn.iocoder.yudao.module.product.service.sku;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
+import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuUpdateStockReqDTO;
+import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
+import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.redis.sku.ProductSkuStockRedisDAO;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuStockProperties;
+import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
+import static cn.iocoder.yudao.module.product.enums.ErrorCodeConstants.SKU_STOCK_NOT_ENOUGH;
+import static java.util.Arrays.asList;
+import static java.util.Collections.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ProductSkuServiceImpl} 库存缓冲（增量写回、对账、确认与取消预扣减）的单元测试
+ *
+ * 事务同步由测试手动初始化、并触发完成回调，从而覆盖事务提交、回滚两种情况
+ *
+ * @author 芋道源码
+ */
+public class ProductSkuServiceStockBufferTest extends BaseMockitoUnitTest {
+
+    @InjectMocks
+    private ProductSkuServiceImpl productSkuService;
+
+    @Mock
+    private ProductSkuMapper productSkuMapper;
+    @Mock
+    private ProductSkuStockRedisDAO skuStockRedisDAO;
+    @Mock
+    private ProductSkuStockProperties skuStockProperties;
+    @Mock
+    private ProductSpuService productSpuService;
+
+    @BeforeEach
+    public void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testFlushSkuStock_commit() {
+        // mock 方法：SKU 1、2 属于 SPU 10，SKU 3 已删除
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        deltas.put(1L, -3);
+        deltas.put(2L, 2);
+        deltas.put(3L, -1);
+        when(skuStockRedisDAO.popDeltas(anyInt())).thenReturn(deltas);
+        when(productSkuMapper.selectBatchIds(eq(deltas.keySet()))).thenReturn(asList(
+                buildSku(1L, 10L), buildSku(2L, 10L)));
+
+        // 调用
+        assertEquals(3, productSkuService.flushSkuStock());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        // 断言：按照增量更新 SKU 库存、销量；已删除的 SKU 3 不更新
+        verify(productSkuMapper).updateStockAndSalesCountIncr(eq(1L), eq(-3));
+        verify(productSkuMapper).updateStockAndSalesCountIncr(eq(2L), eq(2));
+        verify(productSkuMapper, never()).updateStockAndSalesCountIncr(eq(3L), any());
+        // 断言：SPU 库存累加 SKU 的增量
+        verify(productSpuService).updateSpuStock(eq(singletonMap(10L, -1)));
+        // 断言：事务提交后，清理写回中的增量
+        verify(skuStockRedisDAO).commitDeltas(same(deltas));
+        verify(skuStockRedisDAO, never()).rollbackDeltas(any());
+    }
+
+    @Test
+    public void testFlushSkuStock_rollback() {
+        // mock 方法
+        Map<Long, Integer> deltas = singletonMap(1L, -3);
+        when(skuStockRedisDAO.popDeltas(anyInt())).thenReturn(deltas);
+        when(productSkuMapper.selectBatchIds(any())).thenReturn(singletonList(buildSku(1L, 10L)));
+
+        // 调用：写回的事务回滚
+        productSkuService.flushSkuStock();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        // 断言：弹出的增量归还，下次重试
+        verify(skuStockRedisDAO).rollbackDeltas(same(deltas));
+        verify(skuStockRedisDAO, never()).commitDeltas(any());
+    }
+
+    @Test
+    public void testFlushSkuStock_empty() {
+        // mock 方法
+        when(skuStockRedisDAO.popDeltas(anyInt())).thenReturn(emptyMap());
+
+        // 调用，并断言
+        assertEquals(0, productSkuService.flushSkuStock());
+        verifyNoInteractions(productSkuMapper, productSpuService);
+    }
+
+    @Test
+    public void testReconcileSkuStock() {
+        // mock 方法：SKU 3 在数据库中已删除
+        when(skuStockRedisDAO.getSkuIds()).thenReturn(new LinkedHashSet<>(asList(1L, 2L, 3L)));
+        when(productSkuMapper.selectBatchIds(eq(asList(1L, 2L, 3L)))).thenReturn(asList(
+                buildSku(1L, 10L), buildSku(2L, 10L)));
+        when(skuStockRedisDAO.reconcile(eq(asList(1L, 2L, 3L)), any())).thenReturn(1);
+
+        // 调用
+        assertEquals(1, productSkuService.reconcileSkuStock());
+        // 断言：删除的 SKU 删除 Redis 中的可用库存
+        verify(skuStockRedisDAO).delete(eq(singletonList(3L)));
+        verifyNoInteractions(productSpuService);
+    }
+
+    @Test
+    public void testUpdateSkuStock_decrRollback() {
+        // mock 方法
+        when(skuStockProperties.getBufferEnable()).thenReturn(true);
+        when(skuStockRedisDAO.decr(any())).thenReturn(ProductSkuStockRedisDAO.DECR_SUCCESS);
+
+        // 调用：同一个 SKU 出现多次时，合并扣减
+        productSkuService.updateSkuStock(new ProductSkuUpdateStockReqDTO().setItems(asList(
+                new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(-2),
+                new ProductSkuUpdateStockReqDTO.Item().setId(2L).setIncrCount(-3),
+                new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(-1))));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        // 断言：下单的事务回滚，取消 Redis 中的预扣减，不更新数据库
+        Map<Long, Integer> decrCounts = new LinkedHashMap<>();
+        decrCounts.put(1L, 3);
+        decrCounts.put(2L, 3);
+        verify(skuStockRedisDAO).decr(eq(decrCounts));
+        verify(skuStockRedisDAO).cancelDecr(eq(decrCounts));
+        verify(skuStockRedisDAO, never()).confirmDecr(any());
+        verifyNoInteractions(productSkuMapper);
+    }
+
+    @Test
+    public void testUpdateSkuStock_decrCommit() {
+        // mock 方法
+        when(skuStockProperties.getBufferEnable()).thenReturn(true);
+        when(skuStockRedisDAO.decr(any())).thenReturn(ProductSkuStockRedisDAO.DECR_SUCCESS);
+
+        // 调用
+        productSkuService.updateSkuStock(new ProductSkuUpdateStockReqDTO().setItems(singletonList(
+                new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(-2))));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        // 断言：事务提交，确认预扣减，不更新数据库
+        verify(skuStockRedisDAO).confirmDecr(eq(singletonMap(1L, 2)));
+        verify(skuStockRedisDAO, never()).cancelDecr(any());
+        verifyNoInteractions(productSkuMapper);
+    }
+
+    @Test
+    public void testUpdateSkuStock_decrNotLoaded() {
+        // mock 方法：首次扣减时未加载
+        when(skuStockProperties.getBufferEnable()).thenReturn(true);
+        when(skuStockRedisDAO.decr(any())).thenReturn(ProductSkuStockRedisDAO.DECR_NOT_LOADED)
+                .thenReturn(ProductSkuStockRedisDAO.DECR_INSUFFICIENT);
+
+        // 调用，并断言：加载后库存不足
+        assertServiceException(() -> productSkuService.updateSkuStock(new ProductSkuUpdateStockReqDTO().setItems(
+                singletonList(new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(-2)))), SKU_STOCK_NOT_ENOUGH);
+        verify(skuStockRedisDAO).load(eq(singleton(1L)), any());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    public void testUpdateSkuStock_incr() {
+        // mock 方法
+        when(skuStockProperties.getBufferEnable()).thenReturn(true);
+
+        // 调用
+        productSkuService.updateSkuStock(new ProductSkuUpdateStockReqDTO().setItems(asList(
+                new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(2),
+                new ProductSkuUpdateStockReqDTO.Item().setId(1L).setIncrCount(1))));
+        // 断言：事务提交前，不归还
+        verify(skuStockRedisDAO, never()).incr(any());
+        // 断言：事务提交后，归还到 Redis，不直接更新数据库
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(skuStockRedisDAO).incr(eq(singletonMap(1L, 3)));
+        verifyNoInteractions(productSkuMapper);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private static ProductSkuDO buildSku(Long id, Long spuId) {
+        return ProductSkuDO.builder().id(id).spuId(spuId).build();
+    }
+
+}
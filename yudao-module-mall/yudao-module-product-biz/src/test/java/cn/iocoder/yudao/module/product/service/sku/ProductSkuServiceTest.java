@@ -7,6 +7,8 @@ import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuUpdateStockReqDTO;
 import cn.iocoder.yudao.module.product.controller.admin.spu.vo.ProductSkuSaveReqVO;
 import cn.iocoder.yudao.module.product.dal.dataobject.sku.ProductSkuDO;
 import cn.iocoder.yudao.module.product.dal.mysql.sku.ProductSkuMapper;
+import cn.iocoder.yudao.module.product.dal.redis.sku.ProductSkuStockRedisDAO;
+import cn.iocoder.yudao.module.product.framework.sku.config.ProductSkuStockProperties;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyService;
 import cn.iocoder.yudao.module.product.service.property.ProductPropertyValueService;
 import cn.iocoder.yudao.module.product.service.spu.ProductSpuService;
@@ -50,6 +52,10 @@ public class ProductSkuServiceTest extends BaseDbUnitTest {
     private ProductPropertyService productPropertyService;
     @MockBean
     private ProductPropertyValueService productPropertyValueService;
+    @MockBean
+    private ProductSkuStockRedisDAO skuStockRedisDAO;
+    @MockBean
+    private ProductSkuStockProperties skuStockProperties;
 
     public Long generateId() {
         return RandomUtil.randomLong(100000, 999999);
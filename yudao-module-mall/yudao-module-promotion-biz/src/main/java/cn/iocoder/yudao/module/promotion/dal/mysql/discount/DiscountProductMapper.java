@@ -41,13 +41,10 @@ public interface DiscountProductMapper extends BaseMapperX<DiscountProductDO> {
         delete(DiscountProductDO::getActivityId, activityId);
     }
 
-    default List<DiscountProductDO> selectListBySkuIdsAndStatusAndNow(Collection<Long> skuIds, Integer status) {
-        LocalDateTime now = LocalDateTime.now();
+    default List<DiscountProductDO> selectListByStatusAndEndTimeGt(Integer status, LocalDateTime endTime) {
         return selectList(new LambdaQueryWrapperX<DiscountProductDO>()
-                .in(DiscountProductDO::getSkuId, skuIds)
-                .eq(DiscountProductDO::getActivityStatus,status)
-                .lt(DiscountProductDO::getActivityStartTime, now)
-                .gt(DiscountProductDO::getActivityEndTime, now));
+                .eq(DiscountProductDO::getActivityStatus, status)
+                .gt(DiscountProductDO::getActivityEndTime, endTime));
     }
 
 }
@@ -65,6 +65,21 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
                 .setSql("stock = stock + " + count));
     }
 
+    /**
+     * 按照增量更新活动库存，用于将 Redis 中的秒杀库存增量写回数据库
+     *
+     * 增量已经在 Redis 中校验过库存，所以不再校验数据库中的库存
+     *
+     * @param id 活动编号
+     * @param delta 库存增量，可以为负数
+     * @return 影响的行数
+     */
+    default int updateStockByDelta(Long id, int delta) {
+        return update(null, new LambdaUpdateWrapper<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getId, id)
+                .setSql("stock = stock + (" + delta + ")"));
+    }
+
     default PageResult<SeckillActivityDO> selectPage(AppSeckillActivityPageReqVO pageReqVO, Integer status, LocalDateTime dateTime) {
         return selectPage(pageReqVO, new LambdaQueryWrapperX<SeckillActivityDO>()
                 .eqIfPresent(SeckillActivityDO::getStatus, status)
@@ -82,4 +97,18 @@ public interface SeckillActivityMapper extends BaseMapperX<SeckillActivityDO> {
                 .gt(SeckillActivityDO::getEndTime, now)); // 开始时间 < now < 结束时间，也就是说获取指定时间段的活动
     }
 
+    /**
+     * 获得即将开始、或者进行中的活动
+     *
+     * @param status 状态
+     * @param startTime 开始时间的上限
+     * @return 活动列表
+     */
+    default List<SeckillActivityDO> selectListByStatusAndStartTimeLe(Integer status, LocalDateTime startTime) {
+        return selectList(new LambdaQueryWrapperX<SeckillActivityDO>()
+                .eq(SeckillActivityDO::getStatus, status)
+                .le(SeckillActivityDO::getStartTime, startTime)
+                .gt(SeckillActivityDO::getEndTime, LocalDateTime.now()));
+    }
+
 }
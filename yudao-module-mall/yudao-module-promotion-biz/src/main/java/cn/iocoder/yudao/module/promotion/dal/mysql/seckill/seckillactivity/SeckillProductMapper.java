@@ -59,4 +59,19 @@ public interface SeckillProductMapper extends BaseMapperX<SeckillProductDO> {
                 .setSql("stock = stock + " + count));
     }
 
+    /**
+     * 按照增量更新活动商品库存，用于将 Redis 中的秒杀库存增量写回数据库
+     *
+     * 增量已经在 Redis 中校验过库存，所以不再校验数据库中的库存
+     *
+     * @param id 编号
+     * @param delta 库存增量，可以为负数
+     * @return 影响的行数
+     */
+    default int updateStockByDelta(Long id, int delta) {
+        return update(null, new LambdaUpdateWrapper<SeckillProductDO>()
+                .eq(SeckillProductDO::getId, id)
+                .setSql("stock = stock + (" + delta + ")"));
+    }
+
 }
@@ -0,0 +1,19 @@
+package cn.iocoder.yudao.module.promotion.dal.redis;
+
+/**
+ * 营销 Redis Key 枚举类
+ *
+ * @author 芋道源码
+ */
+public interface RedisKeyConstants {
+
+    /**
+     * 秒杀活动的库存缓冲，由 RedisStockBuffer 管理
+     *
+     * KEY 格式：{promotion_seckill_stock}:{activityId}，以及 {promotion_seckill_stock}:dirty 等辅助 KEY，使用相同的 hash tag
+     * VALUE 数据格式：HASH // s:activity 字段为活动库存，s:sku:{skuId} 字段为活动商品库存；r:、d:、p: 前缀的字段为预扣减、待写回、写回中的数量
+     * 过期时间：活动结束后 1 天
+     */
+    String SECKILL_STOCK = "promotion_seckill_stock";
+
+}
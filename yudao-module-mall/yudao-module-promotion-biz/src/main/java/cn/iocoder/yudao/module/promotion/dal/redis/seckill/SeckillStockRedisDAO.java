@@ -0,0 +1,288 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
+import cn.iocoder.yudao.framework.redis.core.stock.RedisStockBuffer;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.SECKILL_STOCK;
+
+/**
+ * 秒杀库存的 Redis DAO
+ *
+ * 秒杀时，所有买家扣减的都是同一个活动、同一个商品的库存，直接扣减数据库会在两行记录上激烈竞争。因此：
+ * 1. 活动开始时（或首次扣减时），将活动、活动商品的库存加载到 Redis 中
+ * 2. 通过 Lua 脚本原子预扣减，下单事务提交后确认，由定时任务按照增量批量写回数据库
+ * 3. 售罄后，在本地内存中标记，短时间内直接失败，不再访问 Redis
+ *
+ * 每个活动是 {@link RedisStockBuffer} 的一个分组，活动库存、活动商品库存是分组中的字段
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SeckillStockRedisDAO {
+
+    /**
+     * 扣减结果：库存未加载到 Redis，或者活动商品不存在
+     */
+    public static final long DECR_NOT_LOADED = RedisStockBuffer.RESERVE_NOT_LOADED;
+    /**
+     * 扣减结果：库存不足
+     */
+    public static final long DECR_INSUFFICIENT = RedisStockBuffer.RESERVE_INSUFFICIENT;
+    /**
+     * 扣减结果：已售罄
+     */
+    public static final long DECR_SOLD_OUT = RedisStockBuffer.RESERVE_SOLD_OUT;
+
+    private static final String FIELD_ACTIVITY = "activity";
+    private static final String FIELD_SKU_PREFIX = "sku:";
+
+    /**
+     * 本地售罄标记的有效期：期间直接失败；过期后，再访问 Redis 确认，避免取消订单归还的库存无法被购买
+     */
+    private static final Duration SOLD_OUT_EXPIRE = Duration.ofSeconds(3);
+
+    private final RedisStockBuffer stockBuffer;
+
+    /**
+     * 本地售罄标记
+     *
+     * KEY：活动编号 + SKU 编号
+     */
+    private final Cache<String, Boolean> soldOutCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(SOLD_OUT_EXPIRE)
+            .recordStats()
+            .build();
+
+    public SeckillStockRedisDAO(StringRedisTemplate stringRedisTemplate) {
+        this.stockBuffer = new RedisStockBuffer(stringRedisTemplate, SECKILL_STOCK);
+        CacheUtils.registerCache("promotion-seckill-sold-out", soldOutCache);
+    }
+
+    /**
+     * 从数据库加载秒杀库存到 Redis；已加载的字段忽略
+     *
+     * @param activity 秒杀活动，用于计算过期时间
+     * @param loader 从数据库读取活动、活动商品，需要在每次调用时重新读取
+     * @return 是否加载
+     */
+    public boolean load(SeckillActivityDO activity,
+                        Function<Long, KeyValue<SeckillActivityDO, List<SeckillProductDO>>> loader) {
+        // 活动结束 1 天后过期：留出时间，给订单取消归还库存、写回数据库
+        LocalDateTime expireTime = activity.getEndTime() != null ? activity.getEndTime().plusDays(1) : LocalDateTime.now().plusDays(1);
+        Duration expire = Duration.ofSeconds(Math.max(Duration.between(LocalDateTime.now(), expireTime).getSeconds(), 60));
+        return stockBuffer.load(Collections.singleton(activity.getId()), ids -> {
+            KeyValue<SeckillActivityDO, List<SeckillProductDO>> data = loader.apply(activity.getId());
+            if (data == null || data.getKey() == null) {
+                return Collections.emptyMap();
+            }
+            Map<String, Integer> stocks = new LinkedHashMap<>();
+            stocks.put(FIELD_ACTIVITY, ObjectUtil.defaultIfNull(data.getKey().getStock(), 0));
+            data.getValue().forEach(product -> stocks.put(formatSkuField(product.getSkuId()),
+                    ObjectUtil.defaultIfNull(product.getStock(), 0)));
+            return Collections.singletonMap(activity.getId(), stocks);
+        }, expire) > 0;
+    }
+
+    /**
+     * 预扣减库存，同时扣减活动库存、活动商品库存
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     * @return 成功时，为剩余库存（活动库存、商品库存的较小值）；失败时，为 DECR_XXX 结果
+     */
+    public long decr(Long activityId, Long skuId, int count) {
+        long result = stockBuffer.reserve(buildCounts(activityId, skuId, count));
+        if (result == 0 || result == DECR_SOLD_OUT) {
+            soldOutCache.put(formatSoldOutKey(activityId, skuId), Boolean.TRUE);
+        }
+        return result;
+    }
+
+    /**
+     * 确认预扣减，在下单事务提交后调用，由定时任务写回数据库
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     */
+    public void confirmDecr(Long activityId, Long skuId, int count) {
+        stockBuffer.confirm(buildCounts(activityId, skuId, count));
+    }
+
+    /**
+     * 取消预扣减，在下单事务回滚后调用
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     */
+    public void cancelDecr(Long activityId, Long skuId, int count) {
+        stockBuffer.cancel(buildCounts(activityId, skuId, count));
+        soldOutCache.invalidate(formatSoldOutKey(activityId, skuId));
+    }
+
+    /**
+     * 增加库存，在事务提交后调用，由定时任务写回数据库；库存未加载到 Redis 时，只记录增量
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @param count 数量
+     */
+    public void incr(Long activityId, Long skuId, int count) {
+        stockBuffer.incr(buildCounts(activityId, skuId, count));
+        soldOutCache.invalidate(formatSoldOutKey(activityId, skuId));
+    }
+
+    /**
+     * 是否在本地标记为售罄
+     *
+     * @param activityId 活动编号
+     * @param skuId SKU 编号
+     * @return 是否售罄
+     */
+    public boolean isSoldOut(Long activityId, Long skuId) {
+        return soldOutCache.getIfPresent(formatSoldOutKey(activityId, skuId)) != null;
+    }
+
+    /**
+     * 是否已加载库存到 Redis
+     *
+     * @param activityId 活动编号
+     * @return 是否加载
+     */
+    public boolean exists(Long activityId) {
+        return stockBuffer.isLoaded(activityId, FIELD_ACTIVITY);
+    }
+
+    /**
+     * 获得可用库存
+     *
+     * @param activityId 活动编号
+     * @return KEY 为活动库存，VALUE 为活动商品库存（KEY 为 SKU 编号）；未加载时，返回 null
+     */
+    public KeyValue<Integer, Map<Long, Integer>> getStock(Long activityId) {
+        Map<String, Integer> stocks = stockBuffer.getStock(activityId);
+        if (!stocks.containsKey(FIELD_ACTIVITY)) {
+            return null;
+        }
+        return parseFields(stocks);
+    }
+
+    /**
+     * 弹出待写回数据库的库存增量
+     *
+     * @param count 活动数量
+     * @return KEY 为活动编号，VALUE 同 {@link #getStock(Long)}，为活动库存、活动商品库存的增量
+     */
+    public Map<Long, KeyValue<Integer, Map<Long, Integer>>> popDeltas(int count) {
+        Map<Long, KeyValue<Integer, Map<Long, Integer>>> result = new LinkedHashMap<>();
+        stockBuffer.pop(count).forEach((activityId, deltas) -> result.put(activityId, parseFields(deltas)));
+        return result;
+    }
+
+    /**
+     * 写回数据库成功，在写回的事务提交后调用
+     *
+     * @param deltas 库存增量，即 {@link #popDeltas(int)} 的结果
+     */
+    public void commitDeltas(Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas) {
+        stockBuffer.commit(buildDeltas(deltas));
+    }
+
+    /**
+     * 写回数据库失败，在写回的事务回滚后调用，下次重新写回
+     *
+     * @param deltas 库存增量，即 {@link #popDeltas(int)} 的结果
+     */
+    public void rollbackDeltas(Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas) {
+        stockBuffer.rollback(buildDeltas(deltas));
+    }
+
+    /**
+     * 获得 Redis 中的活动编号，包括仅有待写回增量的活动
+     *
+     * @return 活动编号
+     */
+    public Set<Long> getActivityIds() {
+        return stockBuffer.getGroupIds();
+    }
+
+    /**
+     * 删除可用库存，例如说管理后台修改了活动库存，后续从数据库重新加载
+     *
+     * 尚未写回的增量保留，由定时任务继续写回数据库
+     *
+     * @param activityIds 活动编号数组
+     */
+    public void delete(Collection<Long> activityIds) {
+        stockBuffer.unload(activityIds);
+    }
+
+    /**
+     * 对账：归还超时未确认的预扣减、超时未完成的写回
+     *
+     * @param activityIds 活动编号数组
+     * @param timeout 超时时间
+     * @return 归还的字段数量
+     */
+    public int reconcile(Collection<Long> activityIds, Duration timeout) {
+        return stockBuffer.reconcile(activityIds, timeout);
+    }
+
+    private static Map<Long, Map<String, Integer>> buildCounts(Long activityId, Long skuId, int count) {
+        Map<String, Integer> counts = new LinkedHashMap<>(2);
+        counts.put(FIELD_ACTIVITY, count);
+        counts.put(formatSkuField(skuId), count);
+        return Collections.singletonMap(activityId, counts);
+    }
+
+    private static Map<Long, Map<String, Integer>> buildDeltas(Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas) {
+        Map<Long, Map<String, Integer>> result = new LinkedHashMap<>(deltas.size());
+        deltas.forEach((activityId, delta) -> {
+            Map<String, Integer> fields = new LinkedHashMap<>();
+            if (delta.getKey() != 0) {
+                fields.put(FIELD_ACTIVITY, delta.getKey());
+            }
+            delta.getValue().forEach((skuId, count) -> fields.put(formatSkuField(skuId), count));
+            result.put(activityId, fields);
+        });
+        return result;
+    }
+
+    private static KeyValue<Integer, Map<Long, Integer>> parseFields(Map<String, Integer> fields) {
+        Map<Long, Integer> productValues = new LinkedHashMap<>(fields.size());
+        fields.forEach((field, value) -> {
+            String skuId = StrUtil.removePrefix(field, FIELD_SKU_PREFIX);
+            if (!Objects.equals(skuId, field) && NumberUtil.isLong(skuId)) {
+                productValues.put(Long.valueOf(skuId), value);
+            }
+        });
+        return new KeyValue<>(fields.getOrDefault(FIELD_ACTIVITY, 0), productValues);
+    }
+
+    private static String formatSkuField(Long skuId) {
+        return FIELD_SKU_PREFIX + skuId;
+    }
+
+    private static String formatSoldOutKey(Long activityId, Long skuId) {
+        return activityId + ":" + skuId;
+    }
+
+}
@@ -0,0 +1,68 @@
+package cn.iocoder.yudao.module.promotion.job.seckill;
+
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.promotion.service.seckill.SeckillActivityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 秒杀库存的同步 Job
+ *
+ * 1. 预加载：每 10 秒，将即将开始的秒杀活动的库存加载到 Redis
+ * 2. 写回：每 1 秒，将 Redis 中秒杀库存的增量，在一个事务中批量写回数据库
+ * 3. 对账：每 1 分钟，归还 Redis 中超时未确认的预扣减、超时未完成的写回
+ *
+ * 由于需要秒级执行，且按照活动编号操作、与租户无关，所以使用 Spring 自带的定时任务，而不是 Quartz
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class SeckillStockSyncJob {
+
+    @Resource
+    private SeckillActivityService seckillActivityService;
+
+    @Scheduled(fixedDelay = 10000, initialDelay = 10000)
+    public void preload() {
+        TenantUtils.executeIgnore(() -> {
+            try {
+                int count = seckillActivityService.preloadSeckillStock();
+                if (count > 0) {
+                    log.info("[preload][预加载秒杀库存 {} 个活动]", count);
+                }
+            } catch (Exception ex) {
+                log.error("[preload][预加载秒杀库存异常]", ex);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 1000, initialDelay = 10000)
+    public void flush() {
+        TenantUtils.executeIgnore(() -> {
+            try {
+                seckillActivityService.flushSeckillStock();
+            } catch (Exception ex) {
+                log.error("[flush][写回秒杀库存异常]", ex);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void reconcile() {
+        TenantUtils.executeIgnore(() -> {
+            try {
+                int count = seckillActivityService.reconcileSeckillStock();
+                if (count > 0) {
+                    log.warn("[reconcile][对账归还 {} 个秒杀库存超时的预扣减或写回]", count);
+                }
+            } catch (Exception ex) {
+                log.error("[reconcile][对账秒杀库存异常]", ex);
+            }
+        });
+    }
+
+}
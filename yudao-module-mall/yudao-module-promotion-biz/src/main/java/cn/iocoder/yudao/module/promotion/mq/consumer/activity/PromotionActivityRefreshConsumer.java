@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.promotion.mq.consumer.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.message.activity.PromotionActivityRefreshMessage;
+import cn.iocoder.yudao.module.promotion.service.discount.DiscountActivityService;
+import cn.iocoder.yudao.module.promotion.service.reward.RewardActivityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Objects;
+
+/**
+ * 针对 {@link PromotionActivityRefreshMessage} 的消费者，清理活动匹配的本地索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PromotionActivityRefreshConsumer extends AbstractRedisChannelMessageListener<PromotionActivityRefreshMessage> {
+
+    @Resource
+    private DiscountActivityService discountActivityService;
+    @Resource
+    private RewardActivityService rewardActivityService;
+
+    @Override
+    public void onMessage(PromotionActivityRefreshMessage message) {
+        log.info("[onMessage][收到营销活动刷新消息({})]", message);
+        if (Objects.equals(message.getActivityType(), PromotionTypeEnum.DISCOUNT_ACTIVITY.getType())) {
+            discountActivityService.invalidateMatchLocalCache(message.getTenantId());
+        } else if (Objects.equals(message.getActivityType(), PromotionTypeEnum.REWARD_ACTIVITY.getType())) {
+            rewardActivityService.invalidateMatchLocalCache(message.getTenantId());
+        }
+    }
+
+}
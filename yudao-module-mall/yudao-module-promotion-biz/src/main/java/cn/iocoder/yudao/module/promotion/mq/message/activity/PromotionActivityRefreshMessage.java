@@ -0,0 +1,28 @@
+package cn.iocoder.yudao.module.promotion.mq.message.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import lombok.Data;
+
+/**
+ * 营销活动刷新的广播消息，用于清理各节点的活动匹配本地索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PromotionActivityRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 租户编号
+     *
+     * 为空时，表示未开启多租户
+     */
+    private Long tenantId;
+    /**
+     * 活动类型
+     *
+     * 枚举 {@link PromotionTypeEnum}
+     */
+    private Integer activityType;
+
+}
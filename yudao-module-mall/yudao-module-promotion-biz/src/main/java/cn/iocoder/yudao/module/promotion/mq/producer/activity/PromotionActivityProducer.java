@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.module.promotion.mq.producer.activity;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.promotion.mq.message.activity.PromotionActivityRefreshMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 营销活动相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class PromotionActivityProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PromotionActivityRefreshMessage} 消息
+     *
+     * @param tenantId     租户编号，允许空
+     * @param activityType 活动类型
+     */
+    public void sendActivityRefreshMessage(Long tenantId, Integer activityType) {
+        PromotionActivityRefreshMessage message = new PromotionActivityRefreshMessage()
+                .setTenantId(tenantId).setActivityType(activityType);
+        redisMQTemplate.send(message);
+    }
+
+}
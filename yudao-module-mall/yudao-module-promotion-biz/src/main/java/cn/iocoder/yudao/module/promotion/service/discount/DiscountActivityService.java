@@ -28,6 +28,13 @@ public interface DiscountActivityService {
      */
     List<DiscountProductDO> getMatchDiscountProductListBySkuIds(Collection<Long> skuIds);
 
+    /**
+     * 清理限时折扣商品匹配的本地索引，下次匹配时重新加载
+     *
+     * @param tenantId 租户编号，允许空
+     */
+    void invalidateMatchLocalCache(Long tenantId);
+
     /**
      * 创建限时折扣活动
      *
@@ -6,6 +6,8 @@ import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.cache.TenantLocalCache;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.product.api.sku.ProductSkuApi;
 import cn.iocoder.yudao.module.product.api.sku.dto.ProductSkuRespDTO;
 import cn.iocoder.yudao.module.promotion.controller.admin.discount.vo.DiscountActivityBaseVO;
@@ -17,11 +19,16 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountActivit
 import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -42,11 +49,20 @@ import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.*;
 @Validated
 public class DiscountActivityServiceImpl implements DiscountActivityService {
 
+    /**
+     * 限时折扣商品的本地匹配索引，每个租户一份：该租户开启、且未结束的活动商品的索引
+     */
+    private final TenantLocalCache<DiscountProductMatchIndex> matchIndexCache =
+            new TenantLocalCache<>("promotion-discount-match-index");
+
     @Resource
     private DiscountActivityMapper discountActivityMapper;
     @Resource
     private DiscountProductMapper discountProductMapper;
 
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Resource
     private ProductSkuApi productSkuApi;
 
@@ -68,6 +84,7 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
                         .setActivityName(discountActivity.getName()).setActivityStatus(discountActivity.getStatus())
                         .setActivityStartTime(createReqVO.getStartTime()).setActivityEndTime(createReqVO.getEndTime()));
         discountProductMapper.insertBatch(discountProducts);
+        refreshMatchLocalCache();
         // 返回
         return discountActivity.getId();
     }
@@ -90,6 +107,7 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         discountActivityMapper.updateById(updateObj);
         // 更新商品
         updateDiscountProduct(updateObj, updateReqVO.getProducts());
+        refreshMatchLocalCache();
     }
 
     private void updateDiscountProduct(DiscountActivityDO activity, List<DiscountActivityCreateReqVO.Product> products) {
@@ -179,6 +197,7 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
         // 更新活动商品状态
         discountProductMapper.updateByActivityId(new DiscountProductDO().setActivityId(id).setActivityStatus(
                 CommonStatusEnum.DISABLE.getStatus()));
+        refreshMatchLocalCache();
     }
 
     @Override
@@ -225,7 +244,49 @@ public class DiscountActivityServiceImpl implements DiscountActivityService {
 
     @Override
     public List<DiscountProductDO> getMatchDiscountProductListBySkuIds(Collection<Long> skuIds) {
-        return discountProductMapper.selectListBySkuIdsAndStatusAndNow(skuIds, CommonStatusEnum.ENABLE.getStatus());
+        return getMatchIndexFromLocalCache().getMatchList(skuIds, LocalDateTime.now());
+    }
+
+    // ========== 活动匹配本地索引的相关方法 ==========
+
+    @Override
+    public void invalidateMatchLocalCache(Long tenantId) {
+        matchIndexCache.invalidate(tenantId);
+    }
+
+    /**
+     * 活动变化时，清理本节点的匹配索引，并广播给其它节点清理
+     *
+     * 在事务中时，等到事务提交后再清理，避免其它请求在提交前重新加载到旧的数据
+     */
+    private void refreshMatchLocalCache() {
+        Long tenantId = TenantContextHolder.getTenantId();
+        Runnable refresh = () -> {
+            invalidateMatchLocalCache(tenantId);
+            promotionActivityProducer.sendActivityRefreshMessage(tenantId, PromotionTypeEnum.DISCOUNT_ACTIVITY.getType());
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                refresh.run();
+            }
+
+        });
+    }
+
+    /**
+     * 获得当前租户的匹配索引，优先从本地缓存中获取
+     *
+     * @return 匹配索引
+     */
+    private DiscountProductMatchIndex getMatchIndexFromLocalCache() {
+        return matchIndexCache.get(key -> new DiscountProductMatchIndex(
+                discountProductMapper.selectListByStatusAndEndTimeGt(CommonStatusEnum.ENABLE.getStatus(), LocalDateTime.now())));
     }
 
 }
@@ -0,0 +1,57 @@
+package cn.iocoder.yudao.module.promotion.service.discount;
+
+import cn.iocoder.yudao.module.promotion.dal.dataobject.discount.DiscountProductDO;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 限时折扣商品的匹配索引，用于在内存中匹配 SKU 参与的限时折扣
+ *
+ * 索引包含所有开启、且未结束的活动商品；是否已经开始、是否已经结束，在匹配时根据当前时间判断，
+ * 所以活动到达开始、结束时间时，无需重建索引
+ *
+ * @author 芋道源码
+ */
+public class DiscountProductMatchIndex {
+
+    /**
+     * 活动商品的 Map
+     *
+     * KEY：SKU 编号
+     * VALUE：活动商品列表
+     */
+    private final Map<Long, List<DiscountProductDO>> skuProducts;
+
+    public DiscountProductMatchIndex(Collection<DiscountProductDO> products) {
+        this.skuProducts = new HashMap<>(products.size() * 2);
+        products.forEach(product -> skuProducts.computeIfAbsent(product.getSkuId(), k -> new ArrayList<>(1)).add(product));
+    }
+
+    /**
+     * 获得 SKU 匹配的、进行中的活动商品
+     *
+     * @param skuIds SKU 编号数组
+     * @param now    当前时间
+     * @return 活动商品列表
+     */
+    public List<DiscountProductDO> getMatchList(Collection<Long> skuIds, LocalDateTime now) {
+        if (skuProducts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<DiscountProductDO> result = new ArrayList<>();
+        new LinkedHashSet<>(skuIds).forEach(skuId -> {
+            List<DiscountProductDO> products = skuProducts.get(skuId);
+            if (products == null) {
+                return;
+            }
+            products.forEach(product -> {
+                if (product.getActivityStartTime().isBefore(now) && product.getActivityEndTime().isAfter(now)) {
+                    result.add(product);
+                }
+            });
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,95 @@
+package cn.iocoder.yudao.module.promotion.service.reward;
+
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 满减送活动的匹配索引，用于在内存中匹配 SPU 参与的满减送活动
+ *
+ * 按照商品范围，将活动分成全部商品、指定商品（按 SPU 编号索引）、指定分类（按分类编号索引）三类。
+ * 是否已经开始、是否已经结束，在匹配时根据当前时间判断，所以活动到达开始、结束时间时，无需重建索引
+ *
+ * @author 芋道源码
+ */
+public class RewardActivityMatchIndex {
+
+    /**
+     * 商品范围为全部的活动
+     */
+    private final List<RewardActivityDO> allActivities = new ArrayList<>();
+    /**
+     * 商品范围为指定商品的活动
+     *
+     * KEY：SPU 编号
+     */
+    private final Map<Long, List<RewardActivityDO>> spuActivities = new HashMap<>();
+    /**
+     * 商品范围为指定分类的活动
+     *
+     * KEY：分类编号
+     */
+    private final Map<Long, List<RewardActivityDO>> categoryActivities = new HashMap<>();
+
+    public RewardActivityMatchIndex(Collection<RewardActivityDO> activities) {
+        activities.forEach(activity -> {
+            if (PromotionProductScopeEnum.isAll(activity.getProductScope())) {
+                allActivities.add(activity);
+            } else if (PromotionProductScopeEnum.isSpu(activity.getProductScope())) {
+                addAll(spuActivities, activity);
+            } else if (PromotionProductScopeEnum.isCategory(activity.getProductScope())) {
+                addAll(categoryActivities, activity);
+            }
+        });
+    }
+
+    private static void addAll(Map<Long, List<RewardActivityDO>> map, RewardActivityDO activity) {
+        if (activity.getProductScopeValues() == null) {
+            return;
+        }
+        activity.getProductScopeValues().forEach(id -> map.computeIfAbsent(id, k -> new ArrayList<>(1)).add(activity));
+    }
+
+    /**
+     * 是否没有任何活动。为 true 时，无需再查询商品信息
+     */
+    public boolean isEmpty() {
+        return allActivities.isEmpty() && spuActivities.isEmpty() && categoryActivities.isEmpty();
+    }
+
+    /**
+     * 是否存在商品范围为指定分类的活动。为 true 时，才需要查询 SPU 的分类
+     */
+    public boolean hasCategoryActivity() {
+        return !categoryActivities.isEmpty();
+    }
+
+    /**
+     * 获得 SPU 或分类匹配的、进行中的活动
+     *
+     * @param spuIds      SPU 编号数组
+     * @param categoryIds 分类编号数组
+     * @param now         当前时间
+     * @return 活动列表，按照编号倒序
+     */
+    public List<RewardActivityDO> getMatchList(Collection<Long> spuIds, Collection<Long> categoryIds, LocalDateTime now) {
+        Map<Long, RewardActivityDO> result = new HashMap<>();
+        allActivities.forEach(activity -> addIfActive(result, activity, now));
+        spuIds.forEach(spuId -> spuActivities.getOrDefault(spuId, Collections.emptyList())
+                .forEach(activity -> addIfActive(result, activity, now)));
+        categoryIds.forEach(categoryId -> categoryActivities.getOrDefault(categoryId, Collections.emptyList())
+                .forEach(activity -> addIfActive(result, activity, now)));
+        List<RewardActivityDO> list = new ArrayList<>(result.values());
+        list.sort(Comparator.comparing(RewardActivityDO::getId).reversed());
+        return list;
+    }
+
+    private static void addIfActive(Map<Long, RewardActivityDO> result, RewardActivityDO activity, LocalDateTime now) {
+        if (activity.getStartTime().isBefore(now) && activity.getEndTime().isAfter(now)) {
+            result.putIfAbsent(activity.getId(), activity);
+        }
+    }
+
+}
@@ -78,6 +78,13 @@ public interface RewardActivityService {
      */
     List<RewardActivityMatchRespDTO> getMatchRewardActivityListBySpuIds(Collection<Long> spuIds);
 
+    /**
+     * 清理满减送活动匹配的本地索引，下次匹配时重新加载
+     *
+     * @param tenantId 租户编号，允许空
+     */
+    void invalidateMatchLocalCache(Long tenantId);
+
     default String getRewardActivityRuleDescription(Integer conditionType, RewardActivityDO.Rule rule) {
         String description = "";
         if (PromotionConditionTypeEnum.PRICE.getType().equals(conditionType)) {
@@ -5,6 +5,8 @@ import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.cache.TenantLocalCache;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.product.api.category.ProductCategoryApi;
 import cn.iocoder.yudao.module.product.api.spu.ProductSpuApi;
 import cn.iocoder.yudao.module.product.api.spu.dto.ProductSpuRespDTO;
@@ -16,10 +18,13 @@ import cn.iocoder.yudao.module.promotion.controller.admin.reward.vo.RewardActivi
 import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static cn.hutool.core.collection.CollUtil.intersectionDistinct;
@@ -36,9 +41,18 @@ import static cn.iocoder.yudao.module.promotion.enums.ErrorCodeConstants.*;
 @Validated
 public class RewardActivityServiceImpl implements RewardActivityService {
 
+    /**
+     * 满减送活动的本地匹配索引，每个租户一份：该租户开启、且未结束的满减送活动的索引
+     */
+    private final TenantLocalCache<RewardActivityMatchIndex> matchIndexCache =
+            new TenantLocalCache<>("promotion-reward-match-index");
+
     @Resource
     private RewardActivityMapper rewardActivityMapper;
 
+    @Resource
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Resource
     private ProductCategoryApi productCategoryApi;
     @Resource
@@ -55,6 +69,7 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         RewardActivityDO rewardActivity = BeanUtils.toBean(createReqVO, RewardActivityDO.class)
                 .setStatus(CommonStatusEnum.ENABLE.getStatus());
         rewardActivityMapper.insert(rewardActivity);
+        refreshMatchLocalCache();
         // 返回
         return rewardActivity.getId();
     }
@@ -74,6 +89,7 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         // 2. 更新
         RewardActivityDO updateObj = BeanUtils.toBean(updateReqVO, RewardActivityDO.class);
         rewardActivityMapper.updateById(updateObj);
+        refreshMatchLocalCache();
     }
 
     @Override
@@ -86,6 +102,7 @@ public class RewardActivityServiceImpl implements RewardActivityService {
 
         // 更新
         rewardActivityMapper.updateById(new RewardActivityDO().setId(id).setStatus(CommonStatusEnum.DISABLE.getStatus()));
+        refreshMatchLocalCache();
     }
 
     @Override
@@ -194,16 +211,17 @@ public class RewardActivityServiceImpl implements RewardActivityService {
 
     @Override
     public List<RewardActivityMatchRespDTO> getMatchRewardActivityListBySpuIds(Collection<Long> spuIds) {
-        // 1. 查询商品分类
-        List<ProductSpuRespDTO> spuList = productSpuApi.getSpuList(spuIds);
-        if (CollUtil.isEmpty(spuList)) {
+        RewardActivityMatchIndex index = getMatchIndexFromLocalCache();
+        if (index.isEmpty() || CollUtil.isEmpty(spuIds)) {
             return Collections.emptyList();
         }
-        Map<Long, ProductSpuRespDTO> spuMap = convertMap(spuList, ProductSpuRespDTO::getId);
+        // 1. 查询商品分类：只有存在指定分类的活动时，才需要查询
+        Map<Long, ProductSpuRespDTO> spuMap = index.hasCategoryActivity()
+                ? convertMap(productSpuApi.getSpuList(spuIds), ProductSpuRespDTO::getId) : Collections.emptyMap();
 
-        // 2. 查询出指定 spuId 的 spu 参加的活动
-        List<RewardActivityDO> activityList = rewardActivityMapper.selectListBySpuIdAndStatusAndNow(
-                spuIds, convertSet(spuList, ProductSpuRespDTO::getCategoryId), CommonStatusEnum.ENABLE.getStatus());
+        // 2. 从本地索引中，匹配出指定 spuId 的 spu 参加的活动
+        List<RewardActivityDO> activityList = index.getMatchList(spuIds,
+                convertSet(spuMap.values(), ProductSpuRespDTO::getCategoryId), LocalDateTime.now());
         if (CollUtil.isEmpty(activityList)) {
             return Collections.emptyList();
         }
@@ -236,4 +254,30 @@ public class RewardActivityServiceImpl implements RewardActivityService {
         });
     }
 
+    // ========== 活动匹配本地索引的相关方法 ==========
+
+    @Override
+    public void invalidateMatchLocalCache(Long tenantId) {
+        matchIndexCache.invalidate(tenantId);
+    }
+
+    /**
+     * 活动变化时，清理本节点的匹配索引，并广播给其它节点清理
+     */
+    private void refreshMatchLocalCache() {
+        Long tenantId = TenantContextHolder.getTenantId();
+        invalidateMatchLocalCache(tenantId);
+        promotionActivityProducer.sendActivityRefreshMessage(tenantId, PromotionTypeEnum.REWARD_ACTIVITY.getType());
+    }
+
+    /**
+     * 获得当前租户的匹配索引，优先从本地缓存中获取
+     *
+     * @return 匹配索引
+     */
+    private RewardActivityMatchIndex getMatchIndexFromLocalCache() {
+        return matchIndexCache.get(key -> new RewardActivityMatchIndex(
+                rewardActivityMapper.selectListByStatusAndEndTimeGt(CommonStatusEnum.ENABLE.getStatus(), LocalDateTime.now())));
+    }
+
 }
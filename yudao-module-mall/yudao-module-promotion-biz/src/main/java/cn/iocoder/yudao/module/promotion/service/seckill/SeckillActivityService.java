@@ -53,6 +53,27 @@ public interface SeckillActivityService {
      */
     void updateSeckillStockIncr(Long id, Long skuId, Integer count);
 
+    /**
+     * 预加载即将开始、或者进行中的秒杀活动的库存到 Redis
+     *
+     * @return 加载的活动数量
+     */
+    int preloadSeckillStock();
+
+    /**
+     * 将 Redis 中秒杀库存的增量，批量写回数据库
+     *
+     * @return 写回的活动数量
+     */
+    int flushSeckillStock();
+
+    /**
+     * 对账 Redis 中的秒杀库存，归还超时未确认的预扣减、超时未完成的写回
+     *
+     * @return 归还的字段数量
+     */
+    int reconcileSeckillStock();
+
     /**
      * 关闭秒杀活动
      *
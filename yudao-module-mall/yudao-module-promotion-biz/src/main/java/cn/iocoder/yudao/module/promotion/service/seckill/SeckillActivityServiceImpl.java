@@ -1,7 +1,9 @@
 package cn.iocoder.yudao.module.promotion.service.seckill;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ObjectUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
@@ -21,15 +23,21 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillConfigDO;
 import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillActivityMapper;
 import cn.iocoder.yudao.module.promotion.dal.mysql.seckill.seckillactivity.SeckillProductMapper;
+import cn.iocoder.yudao.module.promotion.dal.redis.seckill.SeckillStockRedisDAO;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.hutool.core.collection.CollUtil.isNotEmpty;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -47,12 +55,28 @@ import static java.util.Collections.singletonList;
  */
 @Service
 @Validated
+@Slf4j
 public class SeckillActivityServiceImpl implements SeckillActivityService {
 
+    /**
+     * 提前加载库存到 Redis 的时间
+     */
+    private static final Duration STOCK_PRELOAD_AHEAD = Duration.ofMinutes(5);
+    /**
+     * 每次写回数据库的活动数量
+     */
+    private static final int STOCK_FLUSH_BATCH_SIZE = 100;
+    /**
+     * 预扣减、写回的超时时间，需要大于下单、写回事务的最长执行时间
+     */
+    private static final Duration STOCK_RECONCILE_TIMEOUT = Duration.ofMinutes(10);
+
     @Resource
     private SeckillActivityMapper seckillActivityMapper;
     @Resource
     private SeckillProductMapper seckillProductMapper;
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
 
     @Resource
     private SeckillConfigService seckillConfigService;
@@ -153,43 +177,142 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         seckillActivityMapper.updateById(updateObj);
         // 2.2 更新商品
         updateSeckillProduct(updateObj, updateReqVO.getProducts());
+        // 2.3 删除 Redis 中的库存，后续按照最新的库存重新加载
+        deleteSeckillStock(updateObj.getId());
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void updateSeckillStockDecr(Long id, Long skuId, Integer count) {
-        // 1.1 校验活动库存是否充足
-        SeckillActivityDO seckillActivity = validateSeckillActivityExists(id);
-        if (count > seckillActivity.getStock()) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
-        }
-        // 1.2 校验商品库存是否充足
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        if (product == null || count > product.getStock()) {
+        // 1. 本地已标记售罄，直接失败，无需访问 Redis
+        if (seckillStockRedisDAO.isSoldOut(id, skuId)) {
             throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
         }
 
-        // 2.1 更新活动商品库存
-        int updateCount = seckillProductMapper.updateStockDecr(product.getId(), count);
-        if (updateCount == 0) {
+        // 2. 通过 Redis 预扣减库存；库存未加载时，从数据库加载后再扣减
+        long result = seckillStockRedisDAO.decr(id, skuId, count);
+        if (result == SeckillStockRedisDAO.DECR_NOT_LOADED) {
+            loadSeckillStock(validateSeckillActivityExists(id));
+            result = seckillStockRedisDAO.decr(id, skuId, count);
+        }
+        if (result < 0) {
             throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
         }
 
-        // 2.2 更新活动库存
-        updateCount = seckillActivityMapper.updateStockDecr(seckillActivity.getId(), count);
-        if (updateCount == 0) {
-            throw exception(SECKILL_ACTIVITY_UPDATE_STOCK_FAIL);
+        // 3. 下单的事务提交后，确认预扣减，等待写回数据库；回滚后，归还预扣减的库存
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seckillStockRedisDAO.confirmDecr(id, skuId, count);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    seckillStockRedisDAO.confirmDecr(id, skuId, count);
+                } else {
+                    seckillStockRedisDAO.cancelDecr(id, skuId, count);
+                }
+            }
+
+        });
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void updateSeckillStockIncr(Long id, Long skuId, Integer count) {
-        SeckillProductDO product = seckillProductMapper.selectByActivityIdAndSkuId(id, skuId);
-        // 更新活动商品库存
-        seckillProductMapper.updateStockIncr(product.getId(), count);
-        // 更新活动库存
-        seckillActivityMapper.updateStockIncr(id, count);
+        // 在事务提交后归还，等待写回数据库；库存未加载到 Redis 时，也只记录增量，避免与写回并发更新数据库
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seckillStockRedisDAO.incr(id, skuId, count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                seckillStockRedisDAO.incr(id, skuId, count);
+            }
+
+        });
+    }
+
+    /**
+     * 加载秒杀活动的库存到 Redis
+     *
+     * 与写回并发时会重试，所以每次都重新读取数据库
+     *
+     * @param activity 秒杀活动
+     * @return 是否加载；已加载时，返回 false
+     */
+    private boolean loadSeckillStock(SeckillActivityDO activity) {
+        return seckillStockRedisDAO.load(activity, id -> new KeyValue<>(seckillActivityMapper.selectById(id),
+                seckillProductMapper.selectListByActivityId(id)));
+    }
+
+    @Override
+    public int preloadSeckillStock() {
+        List<SeckillActivityDO> activities = seckillActivityMapper.selectListByStatusAndStartTimeLe(
+                CommonStatusEnum.ENABLE.getStatus(), LocalDateTime.now().plus(STOCK_PRELOAD_AHEAD));
+        int count = 0;
+        for (SeckillActivityDO activity : activities) {
+            if (!seckillStockRedisDAO.exists(activity.getId()) && loadSeckillStock(activity)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int flushSeckillStock() {
+        // 1. 原子弹出待写回的库存增量
+        Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas = seckillStockRedisDAO.popDeltas(STOCK_FLUSH_BATCH_SIZE);
+        if (CollUtil.isEmpty(deltas)) {
+            return 0;
+        }
+        // 写回的事务提交后，清理写回中的增量；回滚后，归还增量，下次重试
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    seckillStockRedisDAO.commitDeltas(deltas);
+                } else {
+                    seckillStockRedisDAO.rollbackDeltas(deltas);
+                }
+            }
+
+        });
+
+        // 2. 在一个事务中，按照增量更新这一批活动、活动商品的库存
+        // 每个增量只会被一个节点弹出，所以多个节点并发写回时，不会覆盖、也不会重复累加
+        Map<String, SeckillProductDO> productMap = convertMap(seckillProductMapper.selectListByActivityId(deltas.keySet()),
+                product -> product.getActivityId() + ":" + product.getSkuId());
+        deltas.forEach((activityId, delta) -> {
+            if (delta.getKey() != 0) {
+                seckillActivityMapper.updateStockByDelta(activityId, delta.getKey());
+            }
+            delta.getValue().forEach((skuId, count) -> {
+                SeckillProductDO product = productMap.get(activityId + ":" + skuId);
+                if (product == null) { // 活动商品已删除，忽略
+                    return;
+                }
+                seckillProductMapper.updateStockByDelta(product.getId(), count);
+            });
+        });
+        return deltas.size();
+    }
+
+    @Override
+    public int reconcileSeckillStock() {
+        int count = 0;
+        for (List<Long> activityIds : CollUtil.split(seckillStockRedisDAO.getActivityIds(), STOCK_FLUSH_BATCH_SIZE)) {
+            // 数据库中已删除的活动，删除 Redis 中的可用库存
+            Set<Long> existsActivityIds = convertSet(seckillActivityMapper.selectBatchIds(activityIds), SeckillActivityDO::getId);
+            seckillStockRedisDAO.delete(filterList(activityIds, activityId -> !existsActivityIds.contains(activityId)));
+            // 归还超时未确认的预扣减（例如说下单的进程在事务完成前退出）、超时未完成的写回
+            count += seckillStockRedisDAO.reconcile(activityIds, STOCK_RECONCILE_TIMEOUT);
+        }
+        return count;
     }
 
     /**
@@ -249,6 +372,30 @@ public class SeckillActivityServiceImpl implements SeckillActivityService {
         // 删除活动商品
         List<SeckillProductDO> products = seckillProductMapper.selectListByActivityId(id);
         seckillProductMapper.deleteByIds(convertSet(products, SeckillProductDO::getId));
+        // 删除 Redis 中的库存
+        deleteSeckillStock(id);
+    }
+
+    /**
+     * 删除 Redis 中的秒杀库存，在事务提交后执行
+     *
+     * 如果在事务中删除，并发的下单可能把未提交的旧库存重新加载到 Redis 中
+     *
+     * @param id 活动编号
+     */
+    private void deleteSeckillStock(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seckillStockRedisDAO.delete(singletonList(id));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                seckillStockRedisDAO.delete(singletonList(id));
+            }
+
+        });
     }
 
     private SeckillActivityDO validateSeckillActivityExists(Long id) {
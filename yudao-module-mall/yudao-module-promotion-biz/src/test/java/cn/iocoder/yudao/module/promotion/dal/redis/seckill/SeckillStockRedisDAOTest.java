@@ -0,0 +1,274 @@
+package cn.iocoder.yudao.module.promotion.dal.redis.seckill;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillActivityDO;
+import cn.iocoder.yudao.module.promotion.dal.dataobject.seckill.SeckillProductDO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.module.promotion.dal.redis.RedisKeyConstants.SECKILL_STOCK;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SeckillStockRedisDAO} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(SeckillStockRedisDAO.class)
+public class SeckillStockRedisDAOTest extends BaseRedisUnitTest {
+
+    @Resource
+    private SeckillStockRedisDAO seckillStockRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("{" + SECKILL_STOCK + "}*"));
+    }
+
+    @Test
+    public void testLoad_notOverwrite() {
+        // 调用，首次加载
+        assertTrue(load(10, buildProduct(100L, 10)));
+        decrAndConfirm(100L, 3);
+        // 调用，再次加载，不覆盖未写回数据库的库存
+        assertFalse(load(10, buildProduct(100L, 10)));
+        // 断言
+        KeyValue<Integer, Map<Long, Integer>> stock = seckillStockRedisDAO.getStock(1L);
+        assertEquals(7, stock.getKey());
+        assertEquals(7, stock.getValue().get(100L));
+        assertTrue(seckillStockRedisDAO.exists(1L));
+    }
+
+    @Test
+    public void testDecr() {
+        // 调用，未加载
+        assertEquals(SeckillStockRedisDAO.DECR_NOT_LOADED, seckillStockRedisDAO.decr(1L, 100L, 1));
+        // 准备参数：活动库存 5，商品库存各 3
+        load(5, buildProduct(100L, 3), buildProduct(200L, 3));
+
+        // 调用，商品不存在
+        assertEquals(SeckillStockRedisDAO.DECR_NOT_LOADED, seckillStockRedisDAO.decr(1L, 300L, 1));
+        // 调用，商品库存不足
+        assertEquals(SeckillStockRedisDAO.DECR_INSUFFICIENT, seckillStockRedisDAO.decr(1L, 100L, 4));
+        // 调用，成功：返回活动库存、商品库存的较小值
+        assertEquals(1, seckillStockRedisDAO.decr(1L, 100L, 2));
+        assertEquals(1, seckillStockRedisDAO.decr(1L, 200L, 2));
+        // 调用，扣减最后一个活动库存，标记售罄
+        assertEquals(0, seckillStockRedisDAO.decr(1L, 200L, 1));
+        assertTrue(seckillStockRedisDAO.isSoldOut(1L, 200L));
+        // 调用，活动库存已售罄
+        assertEquals(SeckillStockRedisDAO.DECR_SOLD_OUT, seckillStockRedisDAO.decr(1L, 100L, 1));
+        // 断言：事务未提交，没有待写回的增量
+        assertTrue(seckillStockRedisDAO.popDeltas(10).isEmpty());
+
+        // 调用，确认预扣减
+        seckillStockRedisDAO.confirmDecr(1L, 100L, 2);
+        seckillStockRedisDAO.confirmDecr(1L, 200L, 3);
+        // 断言：待写回的增量
+        KeyValue<Integer, Map<Long, Integer>> delta = seckillStockRedisDAO.popDeltas(10).get(1L);
+        assertEquals(-5, delta.getKey());
+        assertEquals(-2, delta.getValue().get(100L));
+        assertEquals(-3, delta.getValue().get(200L));
+    }
+
+    @Test
+    public void testCancelDecr_afterReload() {
+        // 准备参数：预扣减 1 个后售罄，管理后台修改了活动，删除 Redis 中的可用库存，再从数据库（仍为 1）重新加载
+        load(1, buildProduct(100L, 1));
+        assertEquals(0, seckillStockRedisDAO.decr(1L, 100L, 1));
+        assertTrue(seckillStockRedisDAO.isSoldOut(1L, 100L));
+        seckillStockRedisDAO.delete(singletonList(1L));
+        assertNull(seckillStockRedisDAO.getStock(1L));
+        assertTrue(load(1, buildProduct(100L, 1)));
+        // 断言：重新加载时，计入尚未提交的预扣减
+        assertEquals(0, seckillStockRedisDAO.getStock(1L).getKey());
+
+        // 调用，下单事务回滚
+        seckillStockRedisDAO.cancelDecr(1L, 100L, 1);
+        // 断言：只归还预扣减的 1 个，不会多归还；售罄标记失效
+        assertFalse(seckillStockRedisDAO.isSoldOut(1L, 100L));
+        assertEquals(1, seckillStockRedisDAO.getStock(1L).getKey());
+        seckillStockRedisDAO.cancelDecr(1L, 100L, 1);
+        assertEquals(1, seckillStockRedisDAO.getStock(1L).getValue().get(100L));
+    }
+
+    @Test
+    public void testIncr() {
+        // 调用，未加载时，只记录增量
+        seckillStockRedisDAO.incr(1L, 100L, 1);
+        assertNull(seckillStockRedisDAO.getStock(1L));
+        assertEquals(1, seckillStockRedisDAO.popDeltas(10).get(1L).getKey());
+        seckillStockRedisDAO.rollbackDeltas(singletonMap(1L, new KeyValue<>(1, singletonMap(100L, 1))));
+        // 准备参数：加载时，计入尚未写回的增量
+        load(0, buildProduct(100L, 0));
+        assertEquals(0, seckillStockRedisDAO.decr(1L, 100L, 1));
+        assertTrue(seckillStockRedisDAO.isSoldOut(1L, 100L));
+        seckillStockRedisDAO.confirmDecr(1L, 100L, 1);
+
+        // 调用，归还库存
+        seckillStockRedisDAO.incr(1L, 100L, 1);
+        // 断言
+        assertFalse(seckillStockRedisDAO.isSoldOut(1L, 100L));
+        assertEquals(1, seckillStockRedisDAO.getStock(1L).getValue().get(100L));
+        KeyValue<Integer, Map<Long, Integer>> delta = seckillStockRedisDAO.popDeltas(10).get(1L);
+        assertEquals(1, delta.getKey());
+        assertEquals(1, delta.getValue().get(100L));
+    }
+
+    @Test
+    public void testPopDeltas_commit() {
+        // 准备参数
+        load(10, buildProduct(100L, 10));
+        decrAndConfirm(100L, 3);
+
+        // 调用，弹出增量
+        Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas = seckillStockRedisDAO.popDeltas(10);
+        assertEquals(-3, deltas.get(1L).getKey());
+        // 调用，写回期间又卖出 2 个
+        decrAndConfirm(100L, 2);
+        // 调用，写回成功
+        seckillStockRedisDAO.commitDeltas(deltas);
+        // 断言：只弹出写回期间新增的增量
+        KeyValue<Integer, Map<Long, Integer>> delta = seckillStockRedisDAO.popDeltas(10).get(1L);
+        assertEquals(-2, delta.getKey());
+        assertEquals(-2, delta.getValue().get(100L));
+        assertEquals(5, seckillStockRedisDAO.getStock(1L).getKey());
+    }
+
+    @Test
+    public void testPopDeltas_rollback() {
+        // 准备参数
+        load(10, buildProduct(100L, 10));
+        decrAndConfirm(100L, 3);
+        Map<Long, KeyValue<Integer, Map<Long, Integer>>> deltas = seckillStockRedisDAO.popDeltas(10);
+
+        // 调用，写回的事务回滚
+        seckillStockRedisDAO.rollbackDeltas(deltas);
+        // 断言：增量归还，下次重新写回
+        KeyValue<Integer, Map<Long, Integer>> delta = seckillStockRedisDAO.popDeltas(10).get(1L);
+        assertEquals(-3, delta.getKey());
+        assertEquals(-3, delta.getValue().get(100L));
+    }
+
+    @Test
+    public void testDelete_keepDeltas() {
+        // 准备参数
+        load(10, buildProduct(100L, 10));
+        decrAndConfirm(100L, 2);
+
+        // 调用
+        seckillStockRedisDAO.delete(singletonList(1L));
+        // 断言：可用库存被删除；尚未写回的增量保留
+        assertFalse(seckillStockRedisDAO.exists(1L));
+        assertEquals(Collections.singleton(1L), seckillStockRedisDAO.getActivityIds());
+        assertEquals(-2, seckillStockRedisDAO.popDeltas(10).get(1L).getKey());
+    }
+
+    @Test
+    public void testReconcile() {
+        // 准备参数：预扣减后，下单的进程退出，没有确认
+        load(10, buildProduct(100L, 10));
+        assertEquals(7, seckillStockRedisDAO.decr(1L, 100L, 3));
+        ThreadUtil.sleep(10);
+
+        // 调用，未超时，不处理
+        assertEquals(0, seckillStockRedisDAO.reconcile(singletonList(1L), Duration.ofMinutes(1)));
+        // 调用，超时，归还活动库存、活动商品库存
+        assertEquals(2, seckillStockRedisDAO.reconcile(singletonList(1L), Duration.ofMillis(1)));
+        // 断言
+        KeyValue<Integer, Map<Long, Integer>> stock = seckillStockRedisDAO.getStock(1L);
+        assertEquals(10, stock.getKey());
+        assertEquals(10, stock.getValue().get(100L));
+    }
+
+    /**
+     * 并发测试：数千个买家同时抢购，成功的数量恰好等于库存，不超卖
+     */
+    @Test
+    public void testDecr_concurrent() throws InterruptedException {
+        // 准备参数：活动库存 200，两个商品各 150
+        int buyerCount = 5000;
+        load(200, buildProduct(100L, 150), buildProduct(200L, 150));
+
+        // 调用：每个买家随机购买 1 个商品
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(buyerCount);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger sku100SuccessCount = new AtomicInteger();
+        for (int i = 0; i < buyerCount; i++) {
+            long skuId = i % 2 == 0 ? 100L : 200L;
+            executor.execute(() -> {
+                try {
+                    startLatch.await();
+                    if (seckillStockRedisDAO.decr(1L, skuId, 1) >= 0) {
+                        seckillStockRedisDAO.confirmDecr(1L, skuId, 1);
+                        successCount.incrementAndGet();
+                        if (skuId == 100L) {
+                            sku100SuccessCount.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertTrue(endLatch.await(2, TimeUnit.MINUTES));
+        executor.shutdown();
+
+        // 断言：成功数量等于活动库存，且每个商品不超过自己的库存
+        assertEquals(200, successCount.get());
+        assertTrue(sku100SuccessCount.get() <= 150);
+        assertTrue(200 - sku100SuccessCount.get() <= 150);
+        KeyValue<Integer, Map<Long, Integer>> stock = seckillStockRedisDAO.getStock(1L);
+        assertEquals(0, stock.getKey());
+        assertEquals(150 - sku100SuccessCount.get(), stock.getValue().get(100L));
+        assertEquals(150 - (200 - sku100SuccessCount.get()), stock.getValue().get(200L));
+        // 断言：待写回的增量，等于成功扣减的数量
+        KeyValue<Integer, Map<Long, Integer>> delta = seckillStockRedisDAO.popDeltas(10).get(1L);
+        assertEquals(-200, delta.getKey());
+        assertEquals(-sku100SuccessCount.get(), delta.getValue().get(100L));
+    }
+
+    private boolean load(int activityStock, SeckillProductDO... products) {
+        SeckillActivityDO activity = new SeckillActivityDO().setId(1L).setStock(activityStock)
+                .setEndTime(LocalDateTime.now().plusHours(1));
+        List<SeckillProductDO> list = Arrays.asList(products);
+        return seckillStockRedisDAO.load(activity, id -> new KeyValue<>(activity, list));
+    }
+
+    private void decrAndConfirm(Long skuId, int count) {
+        assertTrue(seckillStockRedisDAO.decr(1L, skuId, count) >= 0);
+        seckillStockRedisDAO.confirmDecr(1L, skuId, count);
+    }
+
+    private static SeckillProductDO buildProduct(Long skuId, int stock) {
+        return SeckillProductDO.builder().activityId(1L).skuId(skuId).stock(stock).build();
+    }
+
+}
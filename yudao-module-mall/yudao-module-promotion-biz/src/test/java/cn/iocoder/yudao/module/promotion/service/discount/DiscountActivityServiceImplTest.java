@@ -12,8 +12,10 @@ import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountActivityMapp
 import cn.iocoder.yudao.module.promotion.dal.mysql.discount.DiscountProductMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionActivityStatusEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionDiscountTypeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
@@ -49,6 +51,9 @@ public class DiscountActivityServiceImplTest extends BaseDbUnitTest {
     @Resource
     private DiscountProductMapper discountProductMapper;
 
+    @MockBean
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Test
     public void testCreateDiscountActivity_success() {
         // 准备参数
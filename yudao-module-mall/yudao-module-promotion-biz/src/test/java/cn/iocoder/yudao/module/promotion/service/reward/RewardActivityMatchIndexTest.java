@@ -0,0 +1,62 @@
+package cn.iocoder.yudao.module.promotion.service.reward;
+
+import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
+import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link RewardActivityMatchIndex} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class RewardActivityMatchIndexTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Test
+    public void testGetMatchList() {
+        // 准备参数
+        RewardActivityMatchIndex index = new RewardActivityMatchIndex(asList(
+                buildActivity(1L, PromotionProductScopeEnum.ALL, Collections.emptyList()),
+                buildActivity(2L, PromotionProductScopeEnum.SPU, asList(10L, 20L)),
+                buildActivity(3L, PromotionProductScopeEnum.CATEGORY, asList(100L)),
+                buildActivity(4L, PromotionProductScopeEnum.SPU, asList(30L))));
+
+        // 调用
+        List<RewardActivityDO> list = index.getMatchList(asList(10L, 20L), asList(100L, 200L), now);
+        // 断言：按照编号倒序，且不重复
+        assertEquals(asList(3L, 2L, 1L), convertList(list, RewardActivityDO::getId));
+        assertTrue(index.hasCategoryActivity());
+        assertFalse(index.isEmpty());
+    }
+
+    @Test
+    public void testGetMatchList_timeWindow() {
+        // 准备参数：一个未开始，一个已结束
+        RewardActivityDO notStarted = buildActivity(1L, PromotionProductScopeEnum.ALL, Collections.emptyList())
+                .setStartTime(now.plusMinutes(1)).setEndTime(now.plusDays(1));
+        RewardActivityDO ended = buildActivity(2L, PromotionProductScopeEnum.SPU, asList(10L))
+                .setStartTime(now.minusDays(1)).setEndTime(now.minusMinutes(1));
+        RewardActivityMatchIndex index = new RewardActivityMatchIndex(asList(notStarted, ended));
+
+        // 调用 + 断言：到达开始时间后，无需重建索引即可匹配
+        assertTrue(index.getMatchList(asList(10L), Collections.emptyList(), now).isEmpty());
+        assertEquals(asList(1L), convertList(index.getMatchList(asList(10L), Collections.emptyList(),
+                now.plusMinutes(2)), RewardActivityDO::getId));
+        assertFalse(index.hasCategoryActivity());
+    }
+
+    private RewardActivityDO buildActivity(Long id, PromotionProductScopeEnum scope, List<Long> scopeValues) {
+        return new RewardActivityDO().setId(id).setProductScope(scope.getScope()).setProductScopeValues(scopeValues)
+                .setStartTime(now.minusDays(1)).setEndTime(now.plusDays(1));
+    }
+
+}
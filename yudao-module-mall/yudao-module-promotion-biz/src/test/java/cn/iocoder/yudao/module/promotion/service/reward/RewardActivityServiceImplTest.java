@@ -12,6 +12,7 @@ import cn.iocoder.yudao.module.promotion.dal.dataobject.reward.RewardActivityDO;
 import cn.iocoder.yudao.module.promotion.dal.mysql.reward.RewardActivityMapper;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionConditionTypeEnum;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionProductScopeEnum;
+import cn.iocoder.yudao.module.promotion.mq.producer.activity.PromotionActivityProducer;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -48,6 +49,9 @@ public class RewardActivityServiceImplTest extends BaseMockitoUnitTest {
     @Mock
     private ProductSpuApi productSpuApi;
 
+    @Mock
+    private PromotionActivityProducer promotionActivityProducer;
+
     @Test
     public void testCreateRewardActivity_success() {
         // 准备参数
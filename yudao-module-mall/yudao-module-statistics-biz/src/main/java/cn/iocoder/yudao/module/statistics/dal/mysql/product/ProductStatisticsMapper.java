@@ -64,14 +64,16 @@ public interface ProductStatisticsMapper extends BaseMapperX<ProductStatisticsDO
     /**
      * 根据时间范围统计商品信息
      *
-     * @param page      分页参数
+     * @param page      分页参数，只使用 size，不查询 count
      * @param beginTime 起始时间
      * @param endTime   截止时间
+     * @param lastSpuId 上一页最后一个商品 SPU 编号，第一页为空
      * @return 统计
      */
     IPage<ProductStatisticsDO> selectStatisticsResultPageByTimeBetween(IPage<ProductStatisticsDO> page,
                                                                        @Param("beginTime") LocalDateTime beginTime,
-                                                                       @Param("endTime") LocalDateTime endTime);
+                                                                       @Param("endTime") LocalDateTime endTime,
+                                                                       @Param("lastSpuId") Long lastSpuId);
 
     default Long selectCountByTimeBetween(LocalDateTime beginTime, LocalDateTime endTime) {
         return selectCount(new LambdaQueryWrapperX<ProductStatisticsDO>().between(ProductStatisticsDO::getTime, beginTime, endTime));
@@ -1,19 +1,18 @@
 package cn.iocoder.yudao.module.statistics.service.product;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DatePattern;
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.util.ArrayUtil;
 import cn.hutool.core.util.ObjUtil;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.SortablePageParam;
+import cn.iocoder.yudao.framework.common.util.collection.KeysetBatchIterator;
 import cn.iocoder.yudao.framework.common.util.object.PageUtils;
 import cn.iocoder.yudao.module.statistics.controller.admin.common.vo.DataComparisonRespVO;
 import cn.iocoder.yudao.module.statistics.controller.admin.product.vo.ProductStatisticsReqVO;
 import cn.iocoder.yudao.module.statistics.controller.admin.product.vo.ProductStatisticsRespVO;
 import cn.iocoder.yudao.module.statistics.dal.dataobject.product.ProductStatisticsDO;
 import cn.iocoder.yudao.module.statistics.dal.mysql.product.ProductStatisticsMapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
@@ -22,6 +21,7 @@ import org.springframework.validation.annotation.Validated;
 import javax.annotation.Resource;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -94,22 +94,22 @@ public class ProductStatisticsServiceImpl implements ProductStatisticsService {
         StopWatch stopWatch = new StopWatch(dateStr);
         stopWatch.start();
         // 4. 分页统计，避免商品表数据较多时，出现超时问题
+        // 基于上一页最后一个 SPU 编号继续查询，避免 LIMIT offset 越往后越慢
         final int pageSize = 100;
-        for (int pageNo = 1; ; pageNo++) {
-            IPage<ProductStatisticsDO> page = productStatisticsMapper.selectStatisticsResultPageByTimeBetween(
-                    Page.of(pageNo, pageSize, false), beginTime, endTime);
-            if (CollUtil.isEmpty(page.getRecords())) {
-                break;
-            }
+        Iterator<List<ProductStatisticsDO>> iterator = new KeysetBatchIterator<>(lastSpuId ->
+                productStatisticsMapper.selectStatisticsResultPageByTimeBetween(Page.of(1, pageSize, false),
+                        beginTime, endTime, lastSpuId).getRecords(), ProductStatisticsDO::getSpuId, pageSize);
+        while (iterator.hasNext()) {
+            List<ProductStatisticsDO> records = iterator.next();
             // 4.1 计算访客支付转化率（百分比）
-            for (ProductStatisticsDO record : page.getRecords()) {
+            for (ProductStatisticsDO record : records) {
                 record.setTime(date.toLocalDate());
                 if (record.getBrowseUserCount() != null && ObjUtil.notEqual(record.getBrowseUserCount(), 0)) {
                     record.setBrowseConvertPercent(100 * record.getOrderPayCount() / record.getBrowseUserCount());
                 }
             }
             // 4.2 插入数据
-            productStatisticsMapper.insertBatch(page.getRecords());
+            productStatisticsMapper.insertBatch(records);
         }
         return stopWatch.prettyPrint();
     }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.trade.controller.admin.order;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
@@ -22,6 +23,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -70,6 +72,29 @@ public class TradeOrderController {
         return success(TradeOrderConvert.INSTANCE.convertPage(pageResult, orderItems, userMap));
     }
 
+    @GetMapping("/cursor-page")
+    @Operation(summary = "获得交易订单游标分页", description = "不支持跳页，翻页深度不影响查询速度")
+    @PreAuthorize("@ss.hasPermission('trade:order:query')")
+    public CommonResult<CursorPageResult<TradeOrderPageItemRespVO>> getOrderCursorPage(TradeOrderPageReqVO reqVO) {
+        // 查询订单
+        CursorPageResult<TradeOrderDO> pageResult = tradeOrderQueryService.getOrderCursorPage(reqVO);
+        if (CollUtil.isEmpty(pageResult.getList())) {
+            return success(new CursorPageResult<>(new ArrayList<>(), null, pageResult.getTotal()));
+        }
+
+        // 查询用户信息
+        Set<Long> userIds = CollUtil.unionDistinct(convertList(pageResult.getList(), TradeOrderDO::getUserId),
+                convertList(pageResult.getList(), TradeOrderDO::getBrokerageUserId, Objects::nonNull));
+        Map<Long, MemberUserRespDTO> userMap = memberUserApi.getUserMap(userIds);
+        // 查询订单项
+        List<TradeOrderItemDO> orderItems = tradeOrderQueryService.getOrderItemListByOrderId(
+                convertSet(pageResult.getList(), TradeOrderDO::getId));
+        // 最终组合
+        List<TradeOrderPageItemRespVO> list = TradeOrderConvert.INSTANCE.convertPage(
+                new PageResult<>(pageResult.getList(), pageResult.getTotal()), orderItems, userMap).getList();
+        return success(new CursorPageResult<>(list, pageResult.getNextCursor(), pageResult.getTotal()));
+    }
+
     @GetMapping("/summary")
     @Operation(summary = "获得交易订单统计")
     @PreAuthorize("@ss.hasPermission('trade:order:query')")
@@ -1,7 +1,7 @@
 package cn.iocoder.yudao.module.trade.controller.admin.order.vo;
 
 import cn.iocoder.yudao.framework.common.enums.TerminalEnum;
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import cn.iocoder.yudao.framework.common.validation.InEnum;
 import cn.iocoder.yudao.framework.common.validation.Mobile;
 import cn.iocoder.yudao.module.trade.enums.order.TradeOrderStatusEnum;
@@ -16,7 +16,7 @@ import static cn.iocoder.yudao.framework.common.util.date.DateUtils.FORMAT_YEAR_
 
 @Schema(description = "管理后台 - 交易订单的分页 Request VO")
 @Data
-public class TradeOrderPageReqVO extends PageParam {
+public class TradeOrderPageReqVO extends CursorPageParam {
 
     @Schema(description = "订单号", example = "88888888")
     private String no;
@@ -0,0 +1,61 @@
+package cn.iocoder.yudao.module.trade.dal.dataobject.brokerage;
+
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * 分销用户的上下级关系 DO，即闭包表
+ *
+ * 每个分销用户，与它的一级、二级推广员，各有一条记录。这样，查询某个推广员的下级时，
+ * 通过 (ancestor_id, depth) 索引一次查询即可，无需逐级展开 {@link BrokerageUserDO#getBindUserId()}。
+ * 由于分销只有两级，所以只维护 depth 为 1、2 的记录
+ *
+ * @author owen
+ */
+@TableName("trade_brokerage_user_closure")
+@KeySequence("trade_brokerage_user_closure_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrokerageUserClosureDO extends BaseDO {
+
+    /**
+     * 一级下级
+     */
+    public static final Integer DEPTH_FIRST = 1;
+    /**
+     * 二级下级
+     */
+    public static final Integer DEPTH_SECOND = 2;
+
+    /**
+     * 编号
+     */
+    @TableId
+    private Long id;
+    /**
+     * 推广员编号
+     *
+     * 关联 {@link BrokerageUserDO#getId()}
+     */
+    private Long ancestorId;
+    /**
+     * 下级用户编号
+     *
+     * 关联 {@link BrokerageUserDO#getId()}
+     */
+    private Long userId;
+    /**
+     * 层级
+     *
+     * 1 - 一级下级，即 userId 直接绑定 ancestorId；2 - 二级下级
+     */
+    private Integer depth;
+
+}
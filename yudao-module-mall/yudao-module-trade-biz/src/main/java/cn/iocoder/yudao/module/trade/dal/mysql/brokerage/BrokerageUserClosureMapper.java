@@ -0,0 +1,59 @@
+package cn.iocoder.yudao.module.trade.dal.mysql.brokerage;
+
+import cn.hutool.core.convert.Convert;
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserClosureDO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分销用户的上下级关系 Mapper
+ *
+ * @author owen
+ */
+@Mapper
+public interface BrokerageUserClosureMapper extends BaseMapperX<BrokerageUserClosureDO> {
+
+    /**
+     * 获得推广员的下级数量
+     *
+     * @param ancestorId 推广员编号
+     * @param depth      层级。为空时，查询 1+2 两个层级
+     * @return 下级数量
+     */
+    default Long selectCountByAncestorIdAndDepth(Long ancestorId, Integer depth) {
+        return selectCount(new LambdaQueryWrapperX<BrokerageUserClosureDO>()
+                .eq(BrokerageUserClosureDO::getAncestorId, ancestorId)
+                .eqIfPresent(BrokerageUserClosureDO::getDepth, depth));
+    }
+
+    /**
+     * 获得推广员的下级用户编号数组
+     *
+     * @param ancestorId 推广员编号
+     * @param depth      层级
+     * @return 用户编号数组
+     */
+    default List<Long> selectUserIdListByAncestorIdAndDepth(Long ancestorId, Integer depth) {
+        return Convert.toList(Long.class,
+                selectObjs(new LambdaQueryWrapperX<BrokerageUserClosureDO>()
+                        .select(Collections.singletonList(BrokerageUserClosureDO::getUserId)) // 只查询 userId 字段，加速返回速度
+                        .eq(BrokerageUserClosureDO::getAncestorId, ancestorId)
+                        .eq(BrokerageUserClosureDO::getDepth, depth)));
+    }
+
+    default int deleteByUserId(Long userId) {
+        return delete(BrokerageUserClosureDO::getUserId, userId);
+    }
+
+    default int deleteByUserIdsAndDepth(Collection<Long> userIds, Integer depth) {
+        return delete(new LambdaQueryWrapperX<BrokerageUserClosureDO>()
+                .in(BrokerageUserClosureDO::getUserId, userIds)
+                .eq(BrokerageUserClosureDO::getDepth, depth));
+    }
+
+}
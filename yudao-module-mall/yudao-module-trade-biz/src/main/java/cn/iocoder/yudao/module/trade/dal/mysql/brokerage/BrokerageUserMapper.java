@@ -1,14 +1,14 @@
 package cn.iocoder.yudao.module.trade.dal.mysql.brokerage;
 
-import cn.hutool.core.convert.Convert;
 import cn.hutool.core.lang.Assert;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.pojo.SortingField;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
-import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.MPJLambdaWrapperX;
 import cn.iocoder.yudao.module.trade.controller.admin.brokerage.vo.user.BrokerageUserPageReqVO;
 import cn.iocoder.yudao.module.trade.controller.app.brokerage.vo.user.AppBrokerageUserChildSummaryRespVO;
 import cn.iocoder.yudao.module.trade.controller.app.brokerage.vo.user.AppBrokerageUserRankByUserCountRespVO;
+import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserClosureDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserDO;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -19,8 +19,6 @@ import org.apache.ibatis.annotations.Select;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 
 /**
  * 分销用户 Mapper
@@ -30,13 +28,20 @@ import java.util.List;
 @Mapper
 public interface BrokerageUserMapper extends BaseMapperX<BrokerageUserDO> {
 
-    default PageResult<BrokerageUserDO> selectPage(BrokerageUserPageReqVO reqVO, List<Long> ids) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<BrokerageUserDO>()
-                .inIfPresent(BrokerageUserDO::getId, ids)
+    default PageResult<BrokerageUserDO> selectPage(BrokerageUserPageReqVO reqVO) {
+        MPJLambdaWrapperX<BrokerageUserDO> query = new MPJLambdaWrapperX<>();
+        // 有“绑定用户编号”查询条件时，关联闭包表，查询它的下级
+        if (reqVO.getBindUserId() != null) {
+            query.innerJoin(BrokerageUserClosureDO.class, BrokerageUserClosureDO::getUserId, BrokerageUserDO::getId)
+                    .eq(BrokerageUserClosureDO::getAncestorId, reqVO.getBindUserId())
+                    .eq(reqVO.getLevel() != null, BrokerageUserClosureDO::getDepth, reqVO.getLevel());
+        }
+        query.selectAll(BrokerageUserDO.class)
                 .eqIfPresent(BrokerageUserDO::getBrokerageEnabled, reqVO.getBrokerageEnabled())
                 .betweenIfPresent(BrokerageUserDO::getCreateTime, reqVO.getCreateTime())
                 .betweenIfPresent(BrokerageUserDO::getBindUserTime, reqVO.getBindUserTime())
-                .orderByDesc(BrokerageUserDO::getId));
+                .orderByDesc(BrokerageUserDO::getId);
+        return selectJoinPage(reqVO, BrokerageUserDO.class, query);
     }
 
     /**
@@ -141,27 +146,18 @@ public interface BrokerageUserMapper extends BaseMapperX<BrokerageUserDO> {
      *
      * @param bizType      业务类型
      * @param status       状态
-     * @param ids          用户编号列表
+     * @param bindUserId   推广员编号
+     * @param depth        下级的层级。为空时，查询 1+2 两个层级
+     * @param ids          用户编号列表，允许空
      * @param sortingField 排序字段
      * @return 下级分销统计分页列表
      */
     IPage<AppBrokerageUserChildSummaryRespVO> selectSummaryPageByUserId(Page<?> page,
                                                                         @Param("bizType") Integer bizType,
                                                                         @Param("status") Integer status,
+                                                                        @Param("bindUserId") Long bindUserId,
+                                                                        @Param("depth") Integer depth,
                                                                         @Param("ids") Collection<Long> ids,
                                                                         @Param("sortingField") SortingField sortingField);
 
-    /**
-     * 获得被 bindUserIds 推广的用户编号数组
-     *
-     * @param bindUserIds 推广员编号数组
-     * @return 用户编号数组
-     */
-    default List<Long> selectIdListByBindUserIdIn(Collection<Long> bindUserIds) {
-        return Convert.toList(Long.class,
-                selectObjs(new LambdaQueryWrapperX<BrokerageUserDO>()
-                        .select(Collections.singletonList(BrokerageUserDO::getId)) // 只查询 id 字段，加速返回速度
-                        .in(BrokerageUserDO::getBindUserId, bindUserIds)));
-    }
-
 }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.trade.dal.mysql.order;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
@@ -28,7 +29,15 @@ public interface TradeOrderMapper extends BaseMapperX<TradeOrderDO> {
     }
 
     default PageResult<TradeOrderDO> selectPage(TradeOrderPageReqVO reqVO, Set<Long> userIds) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<TradeOrderDO>()
+        return selectPage(reqVO, buildQuery(reqVO, userIds).orderByDesc(TradeOrderDO::getId));
+    }
+
+    default CursorPageResult<TradeOrderDO> selectCursorPage(TradeOrderPageReqVO reqVO, Set<Long> userIds) {
+        return selectCursorPage(reqVO, buildQuery(reqVO, userIds), TradeOrderDO::getId);
+    }
+
+    static LambdaQueryWrapperX<TradeOrderDO> buildQuery(TradeOrderPageReqVO reqVO, Set<Long> userIds) {
+        return new LambdaQueryWrapperX<TradeOrderDO>()
                 .likeIfPresent(TradeOrderDO::getNo, reqVO.getNo())
                 .eqIfPresent(TradeOrderDO::getUserId, reqVO.getUserId())
                 .eqIfPresent(TradeOrderDO::getDeliveryType, reqVO.getDeliveryType())
@@ -40,8 +49,7 @@ public interface TradeOrderMapper extends BaseMapperX<TradeOrderDO> {
                 .eqIfPresent(TradeOrderDO::getLogisticsId, reqVO.getLogisticsId())
                 .inIfPresent(TradeOrderDO::getPickUpStoreId, reqVO.getPickUpStoreIds())
                 .likeIfPresent(TradeOrderDO::getPickUpVerifyCode, reqVO.getPickUpVerifyCode())
-                .betweenIfPresent(TradeOrderDO::getCreateTime, reqVO.getCreateTime())
-                .orderByDesc(TradeOrderDO::getId));
+                .betweenIfPresent(TradeOrderDO::getCreateTime, reqVO.getCreateTime());
     }
 
     // TODO @疯狂：如果用 map 返回，要不这里直接用 TradeOrderSummaryRespVO 返回？也算合理，就当  sql 查询出这么个玩意~~
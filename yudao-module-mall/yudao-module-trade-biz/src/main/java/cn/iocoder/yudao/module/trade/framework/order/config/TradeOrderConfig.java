@@ -1,7 +1,12 @@
 package cn.iocoder.yudao.module.trade.framework.order.config;
 
+import com.alibaba.ttl.TtlRunnable;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @author LeeYan9
@@ -10,4 +15,26 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @EnableConfigurationProperties(TradeOrderProperties.class)
 public class TradeOrderConfig {
+
+    public static final String PRICE_PREFETCH_EXECUTOR = "TRADE_PRICE_PREFETCH_EXECUTOR";
+
+    /**
+     * 价格计算时，并行预取数据的线程池
+     *
+     * 使用独立的线程池，避免与 @Async 等共用，被其它慢任务拖慢下单；队列满时，由调用线程执行，退化为串行查询，而不是拒绝下单
+     */
+    @Bean(PRICE_PREFETCH_EXECUTOR)
+    public ThreadPoolTaskExecutor tradePricePrefetchExecutor(TradeOrderProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPricePrefetchThreads()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getPricePrefetchThreads()); // 设置最大线程数
+        executor.setQueueCapacity(properties.getPricePrefetchQueueCapacity()); // 设置队列大小
+        executor.setThreadNamePrefix("trade-price-prefetch-"); // 配置线程池的前缀
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(TtlRunnable::get); // 传递租户等上下文到预取线程
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
 }
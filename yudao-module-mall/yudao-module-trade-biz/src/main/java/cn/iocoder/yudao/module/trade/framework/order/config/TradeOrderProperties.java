@@ -47,4 +47,16 @@ public class TradeOrderProperties {
     @NotNull(message = "评论超时时间不能为空")
     private Duration commentExpireTime;
 
+    /**
+     * 价格计算时，并行预取数据的线程数
+     */
+    @NotNull(message = "价格计算的预取线程数不能为空")
+    private Integer pricePrefetchThreads = 8;
+
+    /**
+     * 价格计算时，并行预取数据的队列大小。队列满时，由调用线程执行
+     */
+    @NotNull(message = "价格计算的预取队列大小不能为空")
+    private Integer pricePrefetchQueueCapacity = 1024;
+
 }
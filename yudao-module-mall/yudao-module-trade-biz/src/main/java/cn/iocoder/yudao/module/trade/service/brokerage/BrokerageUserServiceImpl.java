@@ -19,8 +19,10 @@ import cn.iocoder.yudao.module.trade.controller.app.brokerage.vo.user.AppBrokera
 import cn.iocoder.yudao.module.trade.controller.app.brokerage.vo.user.AppBrokerageUserRankByUserCountRespVO;
 import cn.iocoder.yudao.module.trade.controller.app.brokerage.vo.user.AppBrokerageUserRankPageReqVO;
 import cn.iocoder.yudao.module.trade.convert.brokerage.BrokerageUserConvert;
+import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserClosureDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserDO;
 import cn.iocoder.yudao.module.trade.dal.dataobject.config.TradeConfigDO;
+import cn.iocoder.yudao.module.trade.dal.mysql.brokerage.BrokerageUserClosureMapper;
 import cn.iocoder.yudao.module.trade.dal.mysql.brokerage.BrokerageUserMapper;
 import cn.iocoder.yudao.module.trade.enums.brokerage.BrokerageBindModeEnum;
 import cn.iocoder.yudao.module.trade.enums.brokerage.BrokerageEnabledConditionEnum;
@@ -37,7 +39,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
-import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMapByFilter;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.*;
 
 /**
@@ -49,8 +51,15 @@ import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.*;
 @Validated
 public class BrokerageUserServiceImpl implements BrokerageUserService {
 
+    /**
+     * 维护闭包表时，每批处理的下级数量
+     */
+    private static final int CLOSURE_BATCH_SIZE = 1000;
+
     @Resource
     private BrokerageUserMapper brokerageUserMapper;
+    @Resource
+    private BrokerageUserClosureMapper brokerageUserClosureMapper;
 
     @Resource
     private TradeConfigService tradeConfigService;
@@ -65,15 +74,12 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
 
     @Override
     public PageResult<BrokerageUserDO> getBrokerageUserPage(BrokerageUserPageReqVO pageReqVO) {
-        List<Long> childIds = getChildUserIdsByLevel(pageReqVO.getBindUserId(), pageReqVO.getLevel());
-        // 有”绑定用户编号“查询条件时，没有查到下级会员，直接返回空
-        if (pageReqVO.getBindUserId() != null && CollUtil.isEmpty(childIds)) {
-            return PageResult.empty();
-        }
-        return brokerageUserMapper.selectPage(pageReqVO, childIds);
+        validateLevel(pageReqVO.getLevel());
+        return brokerageUserMapper.selectPage(pageReqVO);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void updateBrokerageUserId(Long id, Long bindUserId) {
         // 校验存在
         BrokerageUserDO brokerageUser = validateBrokerageUserExists(id);
@@ -86,12 +92,14 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
         if (bindUserId == null) {
             // 清除推广员
             brokerageUserMapper.updateBindUserIdAndBindUserTimeToNull(id);
+            updateBrokerageUserClosure(id, null);
             return;
         }
 
         // 情况二：修改推广员
         validateCanBindUser(brokerageUser, bindUserId);
         brokerageUserMapper.updateById(fillBindUserData(bindUserId, new BrokerageUserDO().setId(id)));
+        updateBrokerageUserClosure(id, bindUserId);
     }
 
     @Override
@@ -168,11 +176,15 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
 
     @Override
     public Long getBrokerageUserCountByBindUserId(Long bindUserId, Integer level) {
-        List<Long> childIds = getChildUserIdsByLevel(bindUserId, level);
-        return (long) CollUtil.size(childIds);
+        if (bindUserId == null) {
+            return 0L;
+        }
+        validateLevel(level);
+        return brokerageUserClosureMapper.selectCountByAncestorIdAndDepth(bindUserId, level);
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean bindBrokerageUser(Long userId, Long bindUserId) {
         // 1. 获得分销用户
         boolean isNewBrokerageUser = false;
@@ -201,6 +213,7 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
         } else {
             brokerageUserMapper.updateById(fillBindUserData(bindUserId, new BrokerageUserDO().setId(userId)));
         }
+        updateBrokerageUserClosure(userId, bindUserId);
         return true;
     }
 
@@ -219,9 +232,45 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
 
         // 2. 创建分销人
         brokerageUserMapper.insert(brokerageUser);
+        updateBrokerageUserClosure(brokerageUser.getId(), brokerageUser.getBindUserId());
         return brokerageUser.getId();
     }
 
+    /**
+     * 更新分销用户的推广员后，同步维护闭包表 {@link BrokerageUserClosureDO}
+     *
+     * 需要调整的记录：
+     * 1. 用户自己：与原一级、二级推广员的记录，改为与新的一级、二级推广员
+     * 2. 用户的一级下级：与原一级推广员的二级记录，改为与新的一级推广员
+     *
+     * @param userId     用户编号
+     * @param bindUserId 新的推广员编号，为空时表示清除推广员
+     */
+    private void updateBrokerageUserClosure(Long userId, Long bindUserId) {
+        // 1. 删除原有的记录
+        brokerageUserClosureMapper.deleteByUserId(userId);
+        List<Long> childIds = brokerageUserClosureMapper.selectUserIdListByAncestorIdAndDepth(
+                userId, BrokerageUserClosureDO.DEPTH_FIRST);
+        CollUtil.split(childIds, CLOSURE_BATCH_SIZE).forEach(ids ->
+                brokerageUserClosureMapper.deleteByUserIdsAndDepth(ids, BrokerageUserClosureDO.DEPTH_SECOND));
+        if (bindUserId == null) {
+            return;
+        }
+
+        // 2. 插入新的记录
+        List<BrokerageUserClosureDO> closures = new ArrayList<>();
+        closures.add(new BrokerageUserClosureDO().setAncestorId(bindUserId).setUserId(userId)
+                .setDepth(BrokerageUserClosureDO.DEPTH_FIRST));
+        BrokerageUserDO bindUser = brokerageUserMapper.selectById(bindUserId);
+        if (bindUser != null && bindUser.getBindUserId() != null) {
+            closures.add(new BrokerageUserClosureDO().setAncestorId(bindUser.getBindUserId()).setUserId(userId)
+                    .setDepth(BrokerageUserClosureDO.DEPTH_SECOND));
+        }
+        childIds.forEach(childId -> closures.add(new BrokerageUserClosureDO().setAncestorId(bindUserId)
+                .setUserId(childId).setDepth(BrokerageUserClosureDO.DEPTH_SECOND)));
+        brokerageUserClosureMapper.insertBatch(closures, CLOSURE_BATCH_SIZE);
+    }
+
     /**
      * 补全绑定用户的字段
      *
@@ -256,27 +305,26 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
 
     @Override
     public PageResult<AppBrokerageUserChildSummaryRespVO> getBrokerageUserChildSummaryPage(AppBrokerageUserChildSummaryPageReqVO pageReqVO, Long userId) {
-        // 1.1 查询下级用户编号列表
-        List<Long> childIds = getChildUserIdsByLevel(userId, pageReqVO.getLevel());
-        if (CollUtil.isEmpty(childIds)) {
-            return PageResult.empty();
-        }
-        // 1.2 根据昵称过滤下级用户
-        List<MemberUserRespDTO> users = memberUserApi.getUserList(childIds);
-        Map<Long, MemberUserRespDTO> userMap = convertMapByFilter(users,
-                user -> StrUtil.contains(user.getNickname(), pageReqVO.getNickname()),
-                MemberUserRespDTO::getId);
-        if (CollUtil.isEmpty(userMap)) {
-            return PageResult.empty();
+        validateLevel(pageReqVO.getLevel());
+        // 1. 根据昵称过滤下级用户：先按照昵称查询会员，再通过闭包表关联，避免加载全部下级
+        Set<Long> userIds = null;
+        if (StrUtil.isNotEmpty(pageReqVO.getNickname())) {
+            userIds = convertSet(memberUserApi.getUserListByNickname(pageReqVO.getNickname()), MemberUserRespDTO::getId);
+            if (CollUtil.isEmpty(userIds)) {
+                return PageResult.empty();
+            }
         }
 
         // 2. 分页查询
         IPage<AppBrokerageUserChildSummaryRespVO> pageResult = brokerageUserMapper.selectSummaryPageByUserId(
                 MyBatisUtils.buildPage(pageReqVO), BrokerageRecordBizTypeEnum.ORDER.getType(),
-                BrokerageRecordStatusEnum.SETTLEMENT.getStatus(), userMap.keySet(), pageReqVO.getSortingField()
+                BrokerageRecordStatusEnum.SETTLEMENT.getStatus(), userId, pageReqVO.getLevel(), userIds,
+                pageReqVO.getSortingField()
         );
 
         // 3. 拼接数据并返回
+        Map<Long, MemberUserRespDTO> userMap = memberUserApi.getUserMap(
+                convertSet(pageResult.getRecords(), AppBrokerageUserChildSummaryRespVO::getId));
         BrokerageUserConvert.INSTANCE.copyTo(pageResult.getRecords(), userMap);
         return new PageResult<>(pageResult.getRecords(), pageResult.getTotal());
     }
@@ -348,39 +396,11 @@ public class BrokerageUserServiceImpl implements BrokerageUserService {
         }
     }
 
-    /**
-     * 根据绑定用户编号，获得下级用户编号列表
-     *
-     * @param bindUserId 绑定用户编号
-     * @param level      下级用户的层级。
-     *                   如果 level 为空，则查询 1+2 两个层级
-     * @return 下级用户编号列表
-     */
-    private List<Long> getChildUserIdsByLevel(Long bindUserId, Integer level) {
-        if (bindUserId == null) {
-            return Collections.emptyList();
-        }
-        // 先查第 1 级
-        List<Long> bindUserIds = brokerageUserMapper.selectIdListByBindUserIdIn(Collections.singleton(bindUserId));
-        if (CollUtil.isEmpty(bindUserIds)) {
-            return Collections.emptyList();
-        }
-
-        // 情况一：level 为空，查询所有级别
-        if (level == null) {
-            // 再查第 2 级，并合并结果
-            bindUserIds.addAll(brokerageUserMapper.selectIdListByBindUserIdIn(bindUserIds));
-            return bindUserIds;
-        }
-        // 情况二：level 为 1，只查询第 1 级
-        if (level == 1) {
-            return bindUserIds;
-        }
-        // 情况三：level 为 1，只查询第 2 级
-        if (level == 2) {
-            return brokerageUserMapper.selectIdListByBindUserIdIn(bindUserIds);
+    private void validateLevel(Integer level) {
+        if (level != null && !BrokerageUserClosureDO.DEPTH_FIRST.equals(level)
+                && !BrokerageUserClosureDO.DEPTH_SECOND.equals(level)) {
+            throw exception(BROKERAGE_USER_LEVEL_NOT_SUPPORT);
         }
-        throw exception(BROKERAGE_USER_LEVEL_NOT_SUPPORT);
     }
 
 }
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.trade.service.order;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.trade.controller.admin.order.vo.TradeOrderPageReqVO;
 import cn.iocoder.yudao.module.trade.controller.admin.order.vo.TradeOrderSummaryRespVO;
@@ -65,6 +66,14 @@ public interface TradeOrderQueryService {
      */
     PageResult<TradeOrderDO> getOrderPage(TradeOrderPageReqVO reqVO);
 
+    /**
+     * 【管理员】获得交易订单游标分页
+     *
+     * @param reqVO 游标分页请求
+     * @return 交易订单
+     */
+    CursorPageResult<TradeOrderDO> getOrderCursorPage(TradeOrderPageReqVO reqVO);
+
     /**
      * 获得订单统计
      *
@@ -5,6 +5,7 @@ import cn.hutool.core.map.MapUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
 import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
@@ -97,6 +98,17 @@ public class TradeOrderQueryServiceImpl implements TradeOrderQueryService {
         return tradeOrderMapper.selectPage(reqVO, userIds);
     }
 
+    @Override
+    public CursorPageResult<TradeOrderDO> getOrderCursorPage(TradeOrderPageReqVO reqVO) {
+        // 根据用户查询条件构建用户编号列表
+        Set<Long> userIds = buildQueryConditionUserIds(reqVO);
+        if (userIds == null) { // 没查询到用户，说明肯定也没他的订单
+            return CursorPageResult.empty();
+        }
+        // 游标分页查询
+        return tradeOrderMapper.selectCursorPage(reqVO, userIds);
+    }
+
     private Set<Long> buildQueryConditionUserIds(TradeOrderPageReqVO reqVO) {
         // 获得 userId 相关的查询
         Set<Long> userIds = new HashSet<>();
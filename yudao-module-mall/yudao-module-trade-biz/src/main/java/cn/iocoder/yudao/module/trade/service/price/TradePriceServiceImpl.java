@@ -13,18 +13,24 @@ import cn.iocoder.yudao.module.promotion.api.reward.RewardActivityApi;
 import cn.iocoder.yudao.module.promotion.api.reward.dto.RewardActivityMatchRespDTO;
 import cn.iocoder.yudao.module.promotion.enums.common.PromotionTypeEnum;
 import cn.iocoder.yudao.module.trade.controller.app.order.vo.AppTradeProductSettlementRespVO;
+import cn.iocoder.yudao.module.trade.framework.order.config.TradeOrderConfig;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO;
 import cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradeDiscountActivityPriceCalculator;
+import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculator;
 import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
@@ -57,6 +63,15 @@ public class TradePriceServiceImpl implements TradePriceService {
     @Resource
     private TradeDiscountActivityPriceCalculator discountActivityPriceCalculator;
 
+    @Resource
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    /**
+     * 预取价格计算数据的线程池
+     */
+    @Resource(name = TradeOrderConfig.PRICE_PREFETCH_EXECUTOR)
+    private Executor prefetchExecutor;
+
     @Override
     public TradePriceCalculateRespBO calculateOrderPrice(TradePriceCalculateReqBO calculateReqBO) {
         // 1.1 获得商品 SKU 数组
@@ -64,10 +79,19 @@ public class TradePriceServiceImpl implements TradePriceService {
         // 1.2 获得商品 SPU 数组
         List<ProductSpuRespDTO> spuList = checkSpuList(skuList);
 
-        // 2.1 计算价格
+        // 2.1 计算价格：先并行预取各计算器依赖的数据，再按顺序计算
+        long start = System.nanoTime();
         TradePriceCalculateRespBO calculateRespBO = TradePriceCalculatorHelper
                 .buildCalculateResp(calculateReqBO, spuList, skuList);
-        priceCalculators.forEach(calculator -> calculator.calculate(calculateReqBO, calculateRespBO));
+        calculateReqBO.setContext(new TradePriceCalculateContext(prefetchExecutor));
+        priceCalculators.forEach(calculator -> calculator.prefetch(calculateReqBO, calculateRespBO));
+        priceCalculators.forEach(calculator -> {
+            long calculatorStart = System.nanoTime();
+            calculator.calculate(calculateReqBO, calculateRespBO);
+            recordLatency("yudao.trade.price.calculator", calculator.getClass().getSimpleName(),
+                    System.nanoTime() - calculatorStart);
+        });
+        recordLatency("yudao.trade.price.calculate", "all", System.nanoTime() - start);
         // 2.2  如果最终支付金额小于等于 0，则抛出业务异常
         if (calculateReqBO.getPointActivityId() == null // 积分订单，允许支付金额为 0
                 && calculateRespBO.getPrice().getPayPrice() <= 0) {
@@ -78,6 +102,18 @@ public class TradePriceServiceImpl implements TradePriceService {
         return calculateRespBO;
     }
 
+    /**
+     * 记录价格计算的耗时，用于定位下单慢的计算器
+     */
+    private void recordLatency(String name, String calculator, long nanos) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(name).tag("calculator", calculator)
+                .register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     private List<ProductSkuRespDTO> checkSkuList(TradePriceCalculateReqBO reqBO) {
         // 获得商品 SKU 数组
         Map<Long, Integer> skuIdCountMap = convertMap(reqBO.getItems(),
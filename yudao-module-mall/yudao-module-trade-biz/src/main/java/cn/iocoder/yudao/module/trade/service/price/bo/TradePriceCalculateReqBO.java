@@ -1,7 +1,10 @@
 package cn.iocoder.yudao.module.trade.service.price.bo;
 
 import cn.iocoder.yudao.module.trade.enums.delivery.DeliveryTypeEnum;
+import cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -90,6 +93,15 @@ public class TradePriceCalculateReqBO {
      */
     private Long pointActivityId;
 
+    /**
+     * 价格计算的上下文，缓存计算过程中查询的数据
+     *
+     * 由 TradePriceServiceImpl 在每次计算时重新设置，不需要调用方传递
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TradePriceCalculateContext context = new TradePriceCalculateContext();
+
     /**
      * 商品 SKU
      */
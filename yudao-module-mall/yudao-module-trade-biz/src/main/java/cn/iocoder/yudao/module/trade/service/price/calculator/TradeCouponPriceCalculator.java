@@ -18,6 +18,7 @@ import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -26,6 +27,7 @@ import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCULATE_COUPON_CAN_NOT_USE;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCULATE_COUPON_NOT_MATCH_NORMAL_ORDER;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_COUPON_LIST;
 
 /**
  * 优惠劵的 {@link TradePriceCalculator} 实现类
@@ -39,6 +41,15 @@ public class TradeCouponPriceCalculator implements TradePriceCalculator {
     @Resource
     private CouponApi couponApi;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
+            return;
+        }
+        param.getContext().prefetch(KEY_COUPON_LIST,
+                () -> couponApi.getCouponListByUserId(param.getUserId(), CouponStatusEnum.UNUSED.getStatus()));
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 只有【普通】订单，才允许使用优惠劵
@@ -50,7 +61,8 @@ public class TradeCouponPriceCalculator implements TradePriceCalculator {
         }
 
         // 1.1 加载用户的优惠劵列表
-        List<CouponRespDTO> coupons = couponApi.getCouponListByUserId(param.getUserId(), CouponStatusEnum.UNUSED.getStatus());
+        List<CouponRespDTO> coupons = new ArrayList<>(param.getContext().get(KEY_COUPON_LIST,
+                () -> couponApi.getCouponListByUserId(param.getUserId(), CouponStatusEnum.UNUSED.getStatus())));
         coupons.removeIf(coupon -> LocalDateTimeUtils.beforeNow(coupon.getValidEndTime()));
         // 1.2 计算优惠劵的使用条件
         result.setCoupons(calculateCoupons(coupons, result));
@@ -30,6 +30,7 @@ import java.util.Set;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.*;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.*;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_MEMBER_ADDRESS;
 
 /**
  * 运费的 {@link TradePriceCalculator} 实现类
@@ -51,6 +52,15 @@ public class TradeDeliveryPriceCalculator implements TradePriceCalculator {
     @Resource
     private TradeConfigService tradeConfigService;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (!DeliveryTypeEnum.EXPRESS.getType().equals(param.getDeliveryType()) || param.getAddressId() == null) {
+            return;
+        }
+        param.getContext().prefetch(KEY_MEMBER_ADDRESS,
+                () -> addressApi.getAddress(param.getAddressId(), param.getUserId()));
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         if (param.getDeliveryType() == null) {
@@ -87,7 +97,8 @@ public class TradeDeliveryPriceCalculator implements TradePriceCalculator {
             // 价格计算时，如果为空就不算~最终下单，会校验该字段不允许空
             return;
         }
-        MemberAddressRespDTO address = addressApi.getAddress(param.getAddressId(), param.getUserId());
+        MemberAddressRespDTO address = param.getContext().get(KEY_MEMBER_ADDRESS,
+                () -> addressApi.getAddress(param.getAddressId(), param.getUserId()));
         Assert.notNull(address, "收件人({})的地址，不能为空", param.getUserId());
 
         // 情况一：全局包邮
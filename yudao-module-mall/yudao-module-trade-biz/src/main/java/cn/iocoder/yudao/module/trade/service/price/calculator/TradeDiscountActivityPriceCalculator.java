@@ -19,10 +19,12 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertMap;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.number.MoneyUtils.calculateRatePrice;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.*;
 import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper.formatPrice;
 
 /**
@@ -43,6 +45,18 @@ public class TradeDiscountActivityPriceCalculator implements TradePriceCalculato
     @Resource
     private MemberUserApi memberUserApi;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
+            return;
+        }
+        TradePriceCalculateContext context = param.getContext();
+        Set<Long> skuIds = convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId);
+        context.prefetch(KEY_DISCOUNT_PRODUCT_LIST, () -> discountActivityApi.getMatchDiscountProductListBySkuIds(skuIds));
+        context.prefetch(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()));
+        context.<MemberUserRespDTO>prefetch(KEY_MEMBER_LEVEL, KEY_MEMBER_USER, this::getMemberLevel);
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 0. 只有【普通】订单，才计算该优惠
@@ -51,11 +65,14 @@ public class TradeDiscountActivityPriceCalculator implements TradePriceCalculato
         }
 
         // 1.1 获得 SKU 对应的限时折扣活动
-        List<DiscountProductRespDTO> discountProducts = discountActivityApi.getMatchDiscountProductListBySkuIds(
-                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId));
+        TradePriceCalculateContext context = param.getContext();
+        Set<Long> skuIds = convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSkuId);
+        List<DiscountProductRespDTO> discountProducts = context.get(KEY_DISCOUNT_PRODUCT_LIST,
+                () -> discountActivityApi.getMatchDiscountProductListBySkuIds(skuIds));
         Map<Long, DiscountProductRespDTO> discountProductMap = convertMap(discountProducts, DiscountProductRespDTO::getSkuId);
         // 1.2 获得会员等级
-        MemberLevelRespDTO level = getMemberLevel(param.getUserId());
+        MemberLevelRespDTO level = context.get(KEY_MEMBER_LEVEL, () -> getMemberLevel(
+                context.get(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()))));
 
         // 2. 计算每个 SKU 的优惠金额
         result.getItems().forEach(orderItem -> {
@@ -102,7 +119,10 @@ public class TradeDiscountActivityPriceCalculator implements TradePriceCalculato
      * @return 用户等级
      */
     public MemberLevelRespDTO getMemberLevel(Long userId) {
-        MemberUserRespDTO user = memberUserApi.getUser(userId);
+        return getMemberLevel(memberUserApi.getUser(userId));
+    }
+
+    private MemberLevelRespDTO getMemberLevel(MemberUserRespDTO user) {
         if (user == null || user.getLevelId() == null || user.getLevelId() <= 0) {
             return null;
         }
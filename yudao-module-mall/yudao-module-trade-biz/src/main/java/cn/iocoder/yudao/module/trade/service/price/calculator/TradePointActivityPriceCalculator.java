@@ -20,6 +20,7 @@ import javax.annotation.Resource;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCULATE_POINT_TOTAL_LIMIT_COUNT;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_MEMBER_USER;
 
 /**
  * 积分商城的 {@link TradePriceCalculator} 实现类
@@ -39,6 +40,14 @@ public class TradePointActivityPriceCalculator implements TradePriceCalculator {
     @Resource
     private TradeOrderQueryService tradeOrderQueryService;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.POINT.getType())) {
+            return;
+        }
+        param.getContext().prefetch(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()));
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 1.1 判断订单类型是否为积分商城活动
@@ -46,7 +55,7 @@ public class TradePointActivityPriceCalculator implements TradePriceCalculator {
             return;
         }
         // 1.2 初始化积分
-        MemberUserRespDTO user = memberUserApi.getUser(param.getUserId());
+        MemberUserRespDTO user = param.getContext().get(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()));
         result.setTotalPoint(user.getPoint()).setUsePoint(0);
 
         // 1.3 校验用户积分余额
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_MEMBER_CONFIG;
 
 /**
  * 赠送积分的 {@link TradePriceCalculator} 实现类
@@ -29,10 +30,15 @@ public class TradePointGiveCalculator implements TradePriceCalculator {
     @Resource
     private MemberConfigApi memberConfigApi;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        param.getContext().prefetch(KEY_MEMBER_CONFIG, memberConfigApi::getConfig);
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 1.1 校验积分功能是否开启
-        int givePointPerYuan = Optional.ofNullable(memberConfigApi.getConfig())
+        int givePointPerYuan = Optional.ofNullable(param.getContext().get(KEY_MEMBER_CONFIG, memberConfigApi::getConfig))
                 .filter(config -> BooleanUtil.isTrue(config.getPointTradeDeductEnable()))
                 .map(MemberConfigRespDTO::getPointTradeGivePoint)
                 .orElse(0);
@@ -21,6 +21,8 @@ import java.util.List;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
 import static cn.iocoder.yudao.module.trade.enums.ErrorCodeConstants.PRICE_CALCULATE_PAY_PRICE_ILLEGAL;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_MEMBER_CONFIG;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_MEMBER_USER;
 
 /**
  * 使用积分的 {@link TradePriceCalculator} 实现类
@@ -37,6 +39,17 @@ public class TradePointUsePriceCalculator implements TradePriceCalculator {
     @Resource
     private MemberUserApi memberUserApi;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (ObjectUtil.equal(result.getType(), TradeOrderTypeEnum.POINT.getType())) {
+            return;
+        }
+        param.getContext().prefetch(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()));
+        if (BooleanUtil.isTrue(param.getPointStatus())) {
+            param.getContext().prefetch(KEY_MEMBER_CONFIG, memberConfigApi::getConfig);
+        }
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 判断订单类型是否不为积分商城活动
@@ -44,7 +57,7 @@ public class TradePointUsePriceCalculator implements TradePriceCalculator {
             return;
         }
         // 0. 初始化积分
-        MemberUserRespDTO user = memberUserApi.getUser(param.getUserId());
+        MemberUserRespDTO user = param.getContext().get(KEY_MEMBER_USER, () -> memberUserApi.getUser(param.getUserId()));
         result.setTotalPoint(user.getPoint()).setUsePoint(0);
 
         // 1.1 校验是否使用积分
@@ -52,7 +65,7 @@ public class TradePointUsePriceCalculator implements TradePriceCalculator {
             return;
         }
         // 1.2 校验积分抵扣是否开启
-        MemberConfigRespDTO config = memberConfigApi.getConfig();
+        MemberConfigRespDTO config = param.getContext().get(KEY_MEMBER_CONFIG, memberConfigApi::getConfig);
         if (!isDeductPointEnable(config)) {
             return;
         }
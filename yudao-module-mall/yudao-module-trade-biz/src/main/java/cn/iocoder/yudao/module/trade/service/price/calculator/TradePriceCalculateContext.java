@@ -0,0 +1,113 @@
+package cn.iocoder.yudao.module.trade.service.price.calculator;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 价格计算的上下文，缓存一次价格计算中，各 {@link TradePriceCalculator} 依赖的数据
+ *
+ * 1. 预取：{@link TradePriceCalculator#prefetch(cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateReqBO,
+ *    cn.iocoder.yudao.module.trade.service.price.bo.TradePriceCalculateRespBO)} 中，通过 {@link #prefetch(String, Supplier)}
+ *    提交到 {@link #executor} 并行查询，例如说优惠劵、限时折扣、满减送、收件地址等相互独立的数据
+ * 2. 复用：calculate 时，通过 {@link #get(String, Supplier)} 获取，已预取的等待结果；未预取的当场查询。
+ *    同一份数据被多个计算器使用（例如说会员信息、会员配置）时，也只查询一次
+ *
+ * 注意，缓存只在一次价格计算内有效，不跨请求复用，避免库存、优惠劵等数据过期
+ *
+ * @author 芋道源码
+ */
+public class TradePriceCalculateContext {
+
+    public static final String KEY_MEMBER_USER = "memberUser";
+    public static final String KEY_MEMBER_LEVEL = "memberLevel";
+    public static final String KEY_MEMBER_CONFIG = "memberConfig";
+    public static final String KEY_MEMBER_ADDRESS = "memberAddress";
+    public static final String KEY_COUPON_LIST = "couponList";
+    public static final String KEY_DISCOUNT_PRODUCT_LIST = "discountProductList";
+    public static final String KEY_REWARD_ACTIVITY_LIST = "rewardActivityList";
+
+    /**
+     * 预取使用的线程池。为空时，不预取，全部在 {@link #get(String, Supplier)} 时查询
+     */
+    private final Executor executor;
+
+    /**
+     * 数据的缓存
+     *
+     * KEY：数据的标识，例如说 {@link #KEY_MEMBER_USER}
+     * VALUE：数据的查询结果
+     */
+    private final Map<String, CompletableFuture<Object>> values = new ConcurrentHashMap<>();
+
+    public TradePriceCalculateContext() {
+        this(null);
+    }
+
+    public TradePriceCalculateContext(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 异步预取数据。如果已经预取过，则忽略
+     *
+     * @param key    数据的标识
+     * @param loader 数据的查询逻辑
+     */
+    public void prefetch(String key, Supplier<?> loader) {
+        if (executor == null || values.containsKey(key)) {
+            return;
+        }
+        values.putIfAbsent(key, CompletableFuture.supplyAsync(loader, executor));
+    }
+
+    /**
+     * 异步预取依赖其它数据的数据，例如说会员等级依赖会员信息
+     *
+     * 在依赖的数据查询完成后，再提交查询，不会占用线程等待。如果依赖的数据没有被预取，则忽略
+     *
+     * @param key       数据的标识
+     * @param dependKey 依赖的数据的标识
+     * @param loader    数据的查询逻辑，参数为依赖的数据
+     */
+    @SuppressWarnings("unchecked")
+    public <D> void prefetch(String key, String dependKey, Function<D, ?> loader) {
+        CompletableFuture<Object> depend = values.get(dependKey);
+        if (executor == null || depend == null || values.containsKey(key)) {
+            return;
+        }
+        values.putIfAbsent(key, depend.thenApplyAsync(value -> loader.apply((D) value), executor));
+    }
+
+    /**
+     * 获得数据。已经预取的，等待预取的结果；否则，当场查询并缓存
+     *
+     * @param key    数据的标识
+     * @param loader 数据的查询逻辑
+     * @return 数据
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = values.get(key);
+        if (future == null) {
+            // 不使用 computeIfAbsent 的原因：loader 中可能再次调用 get，例如说会员等级依赖会员信息
+            T value = loader.get();
+            values.putIfAbsent(key, CompletableFuture.completedFuture(value));
+            return value;
+        }
+        try {
+            return (T) future.join();
+        } catch (CompletionException ex) {
+            // 还原查询时抛出的异常，例如说 ServiceException
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+}
@@ -35,6 +35,18 @@ public interface TradePriceCalculator {
      */
     int ORDER_POINT_GIVE = 999;
 
+    /**
+     * 预取计算依赖的数据，在所有计算器的 {@link #calculate(TradePriceCalculateReqBO, TradePriceCalculateRespBO)} 之前调用
+     *
+     * 通过 {@link TradePriceCalculateContext#prefetch(String, java.util.function.Supplier)} 并行查询，
+     * 计算时再通过 {@link TradePriceCalculateContext#get(String, java.util.function.Supplier)} 获取
+     *
+     * @param param  计算参数
+     * @param result 计算结果，此时只包含商品信息
+     */
+    default void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+    }
+
     void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result);
 
 }
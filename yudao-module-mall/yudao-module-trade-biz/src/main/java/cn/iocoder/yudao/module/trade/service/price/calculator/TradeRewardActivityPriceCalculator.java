@@ -16,9 +16,11 @@ import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.filterList;
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.KEY_REWARD_ACTIVITY_LIST;
 import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculatorHelper.formatPrice;
 
 // TODO @puhui999：相关的单测，建议改一改
@@ -35,6 +37,16 @@ public class TradeRewardActivityPriceCalculator implements TradePriceCalculator
     @Resource
     private RewardActivityApi rewardActivityApi;
 
+    @Override
+    public void prefetch(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
+        if (ObjectUtil.notEqual(result.getType(), TradeOrderTypeEnum.NORMAL.getType())) {
+            return;
+        }
+        Set<Long> spuIds = convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSpuId);
+        param.getContext().prefetch(KEY_REWARD_ACTIVITY_LIST,
+                () -> rewardActivityApi.getMatchRewardActivityListBySpuIds(spuIds));
+    }
+
     @Override
     public void calculate(TradePriceCalculateReqBO param, TradePriceCalculateRespBO result) {
         // 0. 只有【普通】订单，才计算该优惠
@@ -42,8 +54,9 @@ public class TradeRewardActivityPriceCalculator implements TradePriceCalculator
             return;
         }
         // 获得 SKU 对应的满减送活动
-        List<RewardActivityMatchRespDTO> rewardActivities = rewardActivityApi.getMatchRewardActivityListBySpuIds(
-                convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSpuId));
+        Set<Long> spuIds = convertSet(result.getItems(), TradePriceCalculateRespBO.OrderItem::getSpuId);
+        List<RewardActivityMatchRespDTO> rewardActivities = param.getContext().get(KEY_REWARD_ACTIVITY_LIST,
+                () -> rewardActivityApi.getMatchRewardActivityListBySpuIds(spuIds));
         if (CollUtil.isEmpty(rewardActivities)) {
             return;
         }
@@ -0,0 +1,118 @@
+package cn.iocoder.yudao.module.trade.service.brokerage;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.member.api.user.MemberUserApi;
+import cn.iocoder.yudao.module.member.api.user.dto.MemberUserRespDTO;
+import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserClosureDO;
+import cn.iocoder.yudao.module.trade.dal.dataobject.brokerage.BrokerageUserDO;
+import cn.iocoder.yudao.module.trade.dal.mysql.brokerage.BrokerageUserClosureMapper;
+import cn.iocoder.yudao.module.trade.dal.mysql.brokerage.BrokerageUserMapper;
+import cn.iocoder.yudao.module.trade.service.config.TradeConfigService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link BrokerageUserServiceImpl} 维护闭包表 {@link BrokerageUserClosureDO} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(BrokerageUserServiceImpl.class)
+public class BrokerageUserClosureServiceTest extends BaseDbUnitTest {
+
+    @Resource
+    private BrokerageUserServiceImpl brokerageUserService;
+
+    @Resource
+    private BrokerageUserMapper brokerageUserMapper;
+    @Resource
+    private BrokerageUserClosureMapper brokerageUserClosureMapper;
+
+    @MockBean
+    private TradeConfigService tradeConfigService;
+    @MockBean
+    private MemberUserApi memberUserApi;
+
+    @BeforeEach
+    public void setUp() {
+        // mock 数据：分销用户 1 ~ 6，都有分销资格，且没有推广员
+        for (long id = 1; id <= 6; id++) {
+            brokerageUserMapper.insert(new BrokerageUserDO().setId(id).setBrokerageEnabled(true)
+                    .setBrokeragePrice(0).setFrozenPrice(0));
+        }
+        // mock 方法
+        when(memberUserApi.getUser(any())).thenReturn(new MemberUserRespDTO());
+    }
+
+    @Test
+    public void testUpdateBrokerageUserId_firstBind() {
+        // 调用：2 绑定 1，3 绑定 2
+        brokerageUserService.updateBrokerageUserId(2L, 1L);
+        brokerageUserService.updateBrokerageUserId(3L, 2L);
+        // 断言：3 与一级推广员 2、二级推广员 1，各有一条记录
+        assertClosures("1-2-1",
+                "2-3-1", "1-3-2");
+        assertEquals(2L, brokerageUserMapper.selectById(3L).getBindUserId());
+    }
+
+    @Test
+    public void testUpdateBrokerageUserId_rebind() {
+        // mock 数据：6 <- 2；1 <- 3 <- 4 <- 5
+        brokerageUserService.updateBrokerageUserId(2L, 6L);
+        brokerageUserService.updateBrokerageUserId(3L, 1L);
+        brokerageUserService.updateBrokerageUserId(4L, 3L);
+        brokerageUserService.updateBrokerageUserId(5L, 4L);
+        assertClosures("6-2-1",
+                "1-3-1",
+                "3-4-1", "1-4-2",
+                "4-5-1", "3-5-2");
+
+        // 调用：3 改绑到 2
+        brokerageUserService.updateBrokerageUserId(3L, 2L);
+        // 断言：3 的一级、二级推广员改为 2、6；一级下级 4 的二级推广员改为 2；二级下级 5 不受影响
+        assertClosures("6-2-1",
+                "2-3-1", "6-3-2",
+                "3-4-1", "2-4-2",
+                "4-5-1", "3-5-2");
+    }
+
+    @Test
+    public void testUpdateBrokerageUserId_unbind() {
+        // mock 数据：1 <- 3 <- 4 <- 5
+        brokerageUserService.updateBrokerageUserId(3L, 1L);
+        brokerageUserService.updateBrokerageUserId(4L, 3L);
+        brokerageUserService.updateBrokerageUserId(5L, 4L);
+
+        // 调用：3 清除推广员
+        brokerageUserService.updateBrokerageUserId(3L, null);
+        // 断言：3 与 1 的记录、以及 4 与 1 的二级记录都被删除；3 的下级关系保留
+        assertClosures("3-4-1",
+                "4-5-1", "3-5-2");
+        assertNull(brokerageUserMapper.selectById(3L).getBindUserId());
+    }
+
+    /**
+     * 断言闭包表的全部记录
+     *
+     * @param expected 期望的记录，格式为 ancestorId-userId-depth
+     */
+    private void assertClosures(String... expected) {
+        Set<String> closures = convertSet(brokerageUserClosureMapper.selectList(),
+                closure -> closure.getAncestorId() + "-" + closure.getUserId() + "-" + closure.getDepth());
+        assertEquals(new HashSet<>(Arrays.asList(expected)), closures);
+        assertEquals(expected.length, brokerageUserClosureMapper.selectCount());
+    }
+
+}
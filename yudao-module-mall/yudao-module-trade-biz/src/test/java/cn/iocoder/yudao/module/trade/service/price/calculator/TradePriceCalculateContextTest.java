@@ -0,0 +1,127 @@
+package cn.iocoder.yudao.module.trade.service.price.calculator;
+
+import cn.hutool.core.thread.ThreadUtil;
+import cn.iocoder.yudao.framework.common.exception.ServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static cn.iocoder.yudao.module.trade.service.price.calculator.TradePriceCalculateContext.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link TradePriceCalculateContext} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class TradePriceCalculateContextTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGet_noPrefetch() {
+        // 准备参数
+        TradePriceCalculateContext context = new TradePriceCalculateContext();
+        AtomicInteger counter = new AtomicInteger();
+
+        // 调用：多次获取，只查询一次
+        assertEquals(1, (int) context.get(KEY_MEMBER_USER, counter::incrementAndGet));
+        assertEquals(1, (int) context.get(KEY_MEMBER_USER, counter::incrementAndGet));
+        // 断言
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testGet_prefetch() {
+        // 准备参数
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor);
+        AtomicInteger counter = new AtomicInteger();
+
+        // 调用：预取会员，以及依赖会员的会员等级
+        context.prefetch(KEY_MEMBER_USER, () -> counter.incrementAndGet() * 10);
+        context.<Integer>prefetch(KEY_MEMBER_LEVEL, KEY_MEMBER_USER, user -> user + 1);
+        // 断言：获取时使用预取的结果，不再查询
+        assertEquals(10, (int) context.get(KEY_MEMBER_USER, counter::incrementAndGet));
+        assertEquals(11, (int) context.get(KEY_MEMBER_LEVEL, () -> -1));
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testGet_prefetchException() {
+        // 准备参数
+        TradePriceCalculateContext context = new TradePriceCalculateContext(executor);
+        ServiceException exception = new ServiceException(1, "优惠劵不存在");
+
+        // 调用
+        context.prefetch(KEY_COUPON_LIST, () -> {
+            throw exception;
+        });
+        // 断言：抛出查询时的原始异常
+        assertSame(exception, assertThrows(ServiceException.class, () -> context.get(KEY_COUPON_LIST, () -> null)));
+    }
+
+    /**
+     * 对比串行查询与并行预取的耗时，模拟 1 ~ 50 个商品的购物车
+     *
+     * 注意：远程调用使用固定的 sleep 模拟（20ms，每个商品额外 1ms），对应限时折扣、满减送、优惠劵、会员、收件地址等 5 次查询。
+     * 所以它只能说明“多次远程调用由串行变为并行”的收益上限，以及预取本身（提交任务、等待结果）的额外开销，
+     * 不包含各计算器的计算耗时、远程调用的真实延迟分布。线上的真实耗时，以 yudao.trade.price.calculate 指标为准
+     */
+    @Test
+    @Disabled("基准测试，手动执行")
+    public void testBenchmark() {
+        String[] keys = {KEY_DISCOUNT_PRODUCT_LIST, KEY_REWARD_ACTIVITY_LIST, KEY_COUPON_LIST,
+                KEY_MEMBER_USER, KEY_MEMBER_ADDRESS};
+        int rounds = 10;
+        // 预热线程池，避免首轮的线程创建计入耗时
+        runBenchmark(keys, 0, true);
+        for (int itemCount : new int[]{1, 5, 10, 20, 50}) {
+            long serialCost = 0;
+            long parallelCost = 0;
+            for (int i = 0; i < rounds; i++) {
+                serialCost += runBenchmark(keys, 20 + itemCount, false);
+                parallelCost += runBenchmark(keys, 20 + itemCount, true);
+            }
+            // 扣除模拟的远程调用耗时，得到预取的额外开销
+            long serialAvg = serialCost / rounds / 1000;
+            long parallelAvg = parallelCost / rounds / 1000;
+            System.out.printf("[testBenchmark][items=%d, serial=%dus, parallel=%dus, prefetchOverhead=%dus]%n",
+                    itemCount, serialAvg, parallelAvg, parallelAvg - (20 + itemCount) * 1000L);
+        }
+    }
+
+    /**
+     * 执行一轮基准测试
+     *
+     * @param keys 查询的数据标识
+     * @param latency 每次远程调用的耗时（毫秒）
+     * @param parallel 是否并行预取
+     * @return 耗时（纳秒）
+     */
+    private long runBenchmark(String[] keys, long latency, boolean parallel) {
+        long start = System.nanoTime();
+        TradePriceCalculateContext context = parallel ? new TradePriceCalculateContext(executor)
+                : new TradePriceCalculateContext();
+        if (parallel) {
+            // 并行：先预取，calculate 时等待结果
+            for (String key : keys) {
+                context.prefetch(key, () -> ThreadUtil.sleep(latency));
+            }
+        }
+        // 串行：calculate 时逐个查询
+        for (String key : keys) {
+            context.get(key, () -> ThreadUtil.sleep(latency));
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -3,5 +3,6 @@ DELETE FROM trade_order_item;
 DELETE FROM trade_after_sale;
 DELETE FROM trade_after_sale_log;
 DELETE FROM trade_brokerage_user;
+DELETE FROM trade_brokerage_user_closure;
 DELETE FROM trade_brokerage_record;
 DELETE FROM "trade_brokerage_withdraw";
@@ -157,11 +157,11 @@ CREATE TABLE IF NOT EXISTS "trade_after_sale_log"
 CREATE TABLE IF NOT EXISTS "trade_brokerage_user"
 (
     "id"                bigint   NOT NULL GENERATED BY DEFAULT AS IDENTITY,
-    "bind_user_id"      bigint   NOT NULL,
-    "bind_user_time"    varchar,
+    "bind_user_id"      bigint,
+    "bind_user_time"    datetime,
     "brokerage_enabled" bit      NOT NULL,
-    "brokerage_time"    varchar,
-    "price"             int      NOT NULL,
+    "brokerage_time"    datetime,
+    "brokerage_price"   int      NOT NULL,
     "frozen_price"      int      NOT NULL,
     "creator"           varchar           DEFAULT '',
     "create_time"       datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -171,6 +171,20 @@ CREATE TABLE IF NOT EXISTS "trade_brokerage_user"
     "tenant_id"         bigint   NOT NULL DEFAULT '0',
     PRIMARY KEY ("id")
 ) COMMENT '分销用户';
+CREATE TABLE IF NOT EXISTS "trade_brokerage_user_closure"
+(
+    "id"          bigint   NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "ancestor_id" bigint   NOT NULL,
+    "user_id"     bigint   NOT NULL,
+    "depth"       int      NOT NULL,
+    "creator"     varchar           DEFAULT '',
+    "create_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater"     varchar           DEFAULT '',
+    "update_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted"     bit      NOT NULL DEFAULT FALSE,
+    "tenant_id"   bigint   NOT NULL DEFAULT '0',
+    PRIMARY KEY ("id")
+) COMMENT '分销用户的上下级关系';
 CREATE TABLE IF NOT EXISTS "trade_brokerage_record"
 (
     "id"            int      NOT NULL GENERATED BY DEFAULT AS IDENTITY,
@@ -25,12 +25,12 @@ import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.MapUtils.findAndThen;
 import static cn.iocoder.yudao.module.mp.enums.ErrorCodeConstants.USER_NOT_EXISTS;
 import static cn.iocoder.yudao.module.mp.enums.ErrorCodeConstants.USER_UPDATE_TAG_FAIL;
 
@@ -142,22 +142,10 @@ public class MpUserServiceImpl implements MpUserService {
                 CollectionUtils.convertList(wxUsers, WxMpUser::getOpenId));
         Map<String, MpUserDO> openId2Users = CollectionUtils.convertMap(dbUsers, MpUserDO::getOpenid);
 
-        // 2.1 根据情况，插入或更新
+        // 2. 批量插入或更新：已保存的粉丝，设置编号后更新；未保存的粉丝，插入
         List<MpUserDO> users = MpUserConvert.INSTANCE.convertList(account, wxUsers);
-        List<MpUserDO> newUsers = new ArrayList<>();
-        for (MpUserDO user : users) {
-            MpUserDO dbUser = openId2Users.get(user.getOpenid());
-            if (dbUser == null) { // 新增：稍后批量插入
-                newUsers.add(user);
-            } else { // 更新：直接执行更新
-                user.setId(dbUser.getId());
-                mpUserMapper.updateById(user);
-            }
-        }
-        // 2.2 批量插入
-        if (CollUtil.isNotEmpty(newUsers)) {
-            mpUserMapper.insertBatch(newUsers);
-        }
+        users.forEach(user -> findAndThen(openId2Users, user.getOpenid(), dbUser -> user.setId(dbUser.getId())));
+        mpUserMapper.upsertBatch(users);
     }
 
     @Override
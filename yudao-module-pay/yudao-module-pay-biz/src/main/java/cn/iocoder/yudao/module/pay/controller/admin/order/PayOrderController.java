@@ -3,7 +3,9 @@ package cn.iocoder.yudao.module.pay.controller.admin.order;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.collection.MapUtils;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
 import cn.iocoder.yudao.framework.excel.core.util.ExcelUtils;
 import cn.iocoder.yudao.framework.pay.core.enums.channel.PayChannelEnum;
@@ -118,6 +120,18 @@ public class PayOrderController {
         return success(PayOrderConvert.INSTANCE.convertPage(pageResult, appMap));
     }
 
+    @GetMapping("/cursor-page")
+    @Operation(summary = "获得支付订单游标分页", description = "不支持跳页，翻页深度不影响查询速度")
+    @PreAuthorize("@ss.hasPermission('pay:order:query')")
+    public CommonResult<CursorPageResult<PayOrderPageItemRespVO>> getOrderCursorPage(@Valid PayOrderPageReqVO pageVO) {
+        CursorPageResult<PayOrderDO> pageResult = orderService.getOrderCursorPage(pageVO);
+        // 拼接返回
+        Map<Long, PayAppDO> appMap = appService.getAppMap(convertList(pageResult.getList(), PayOrderDO::getAppId));
+        CursorPageResult<PayOrderPageItemRespVO> result = BeanUtils.toBean(pageResult, PayOrderPageItemRespVO.class);
+        result.getList().forEach(order -> MapUtils.findAndThen(appMap, order.getAppId(), app -> order.setAppName(app.getName())));
+        return success(result);
+    }
+
     @GetMapping("/export-excel")
     @Operation(summary = "导出支付订单 Excel")
     @PreAuthorize("@ss.hasPermission('pay:order:export')")
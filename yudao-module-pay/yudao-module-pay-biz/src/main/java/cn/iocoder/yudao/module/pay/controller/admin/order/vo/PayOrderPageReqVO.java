@@ -1,6 +1,6 @@
 package cn.iocoder.yudao.module.pay.controller.admin.order.vo;
 
-import cn.iocoder.yudao.framework.common.pojo.PageParam;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageParam;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -15,7 +15,7 @@ import static cn.iocoder.yudao.framework.common.util.date.DateUtils.FORMAT_YEAR_
 @Data
 @EqualsAndHashCode(callSuper = true)
 @ToString(callSuper = true)
-public class PayOrderPageReqVO extends PageParam {
+public class PayOrderPageReqVO extends CursorPageParam {
 
     @Schema(description = "应用编号", example = "1024")
     private Long appId;
@@ -97,4 +97,17 @@ public class PayNotifyTaskDO extends TenantBaseDO {
      */
     private String notifyUrl;
 
+    /**
+     * 租约持有者，即认领该任务的节点
+     *
+     * 通过 UPDATE 条件认领任务，保证同一时刻只有一个节点在通知，无需分布式锁
+     */
+    private String lockOwner;
+    /**
+     * 租约过期时间
+     *
+     * 超过该时间仍未完成通知（例如说节点宕机），任务可被其它节点重新认领
+     */
+    private LocalDateTime lockExpireTime;
+
 }
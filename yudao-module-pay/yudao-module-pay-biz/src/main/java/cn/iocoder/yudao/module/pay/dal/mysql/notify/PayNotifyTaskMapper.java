@@ -6,28 +6,90 @@ import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
 import cn.iocoder.yudao.module.pay.controller.admin.notify.vo.PayNotifyTaskPageReqVO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.notify.PayNotifyTaskDO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
+import com.baomidou.mybatisplus.core.conditions.AbstractLambdaWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 @Mapper
 public interface PayNotifyTaskMapper extends BaseMapperX<PayNotifyTaskDO> {
 
     /**
-     * 获得需要通知的 PayNotifyTaskDO 记录。需要满足如下条件：
+     * 获得需要通知的 PayNotifyTaskDO 编号数组。需要满足如下条件：
      *
      * 1. status 非成功
      * 2. nextNotifyTime 小于当前时间
+     * 3. 未被认领，或者认领的租约已过期
+     *
+     * @param now 当前时间
+     * @param limit 数量上限
+     * @return 编号数组
+     */
+    default List<Long> selectIdListByNotify(LocalDateTime now, int limit) {
+        List<PayNotifyTaskDO> tasks = selectPage(new Page<PayNotifyTaskDO>(1, limit, false), buildNotifyQuery(
+                new LambdaQueryWrapper<PayNotifyTaskDO>().select(PayNotifyTaskDO::getId), now)
+                .orderByAsc(PayNotifyTaskDO::getNextNotifyTime)).getRecords();
+        return convertList(tasks, PayNotifyTaskDO::getId);
+    }
+
+    /**
+     * 认领需要通知的任务：只有仍满足 {@link #selectIdListByNotify(LocalDateTime, int)} 条件的任务，才会被更新成功，
+     * 从而保证多个节点并发认领时，每个任务只会被一个节点认领
      *
-     * @return PayTransactionNotifyTaskDO 数组
+     * @param ids 编号数组
+     * @param lockOwner 租约持有者
+     * @param lockExpireTime 租约过期时间
+     * @param now 当前时间
+     * @return 认领成功的数量
      */
-    default List<PayNotifyTaskDO> selectListByNotify() {
+    default int updateByNotifyClaim(Collection<Long> ids, String lockOwner, LocalDateTime lockExpireTime,
+                                    LocalDateTime now) {
+        return update(null, buildNotifyQuery(new LambdaUpdateWrapper<PayNotifyTaskDO>()
+                .set(PayNotifyTaskDO::getLockOwner, lockOwner)
+                .set(PayNotifyTaskDO::getLockExpireTime, lockExpireTime)
+                .in(PayNotifyTaskDO::getId, ids), now));
+    }
+
+    default List<PayNotifyTaskDO> selectListByLock(Collection<Long> ids, String lockOwner, LocalDateTime lockExpireTime) {
         return selectList(new LambdaQueryWrapper<PayNotifyTaskDO>()
-                .in(PayNotifyTaskDO::getStatus, PayNotifyStatusEnum.WAITING.getStatus(),
+                .in(PayNotifyTaskDO::getId, ids)
+                .eq(PayNotifyTaskDO::getLockOwner, lockOwner)
+                .eq(PayNotifyTaskDO::getLockExpireTime, lockExpireTime));
+    }
+
+    /**
+     * 更新任务，并释放租约。只有租约持有者，才能更新成功，避免租约过期后被其它节点认领时，重复更新
+     *
+     * 租约持有者是必须的条件：未认领（lockOwner 为空）的任务，不会被更新
+     *
+     * @param update 更新对象
+     * @param lockOwner 租约持有者
+     * @return 更新数量
+     */
+    default int updateByIdAndLockOwner(PayNotifyTaskDO update, String lockOwner) {
+        if (lockOwner == null) {
+            return 0;
+        }
+        return update(update, new LambdaUpdateWrapper<PayNotifyTaskDO>()
+                .set(PayNotifyTaskDO::getLockOwner, null)
+                .set(PayNotifyTaskDO::getLockExpireTime, null)
+                .eq(PayNotifyTaskDO::getId, update.getId())
+                .eq(PayNotifyTaskDO::getLockOwner, lockOwner));
+    }
+
+    static <W extends AbstractLambdaWrapper<PayNotifyTaskDO, W>> W buildNotifyQuery(W wrapper, LocalDateTime now) {
+        return wrapper.in(PayNotifyTaskDO::getStatus, PayNotifyStatusEnum.WAITING.getStatus(),
                         PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus(), PayNotifyStatusEnum.REQUEST_FAILURE.getStatus())
-                .le(PayNotifyTaskDO::getNextNotifyTime, LocalDateTime.now()));
+                .le(PayNotifyTaskDO::getNextNotifyTime, now)
+                .and(w -> w.isNull(PayNotifyTaskDO::getLockExpireTime)
+                        .or().lt(PayNotifyTaskDO::getLockExpireTime, now));
     }
 
     default PageResult<PayNotifyTaskDO> selectPage(PayNotifyTaskPageReqVO reqVO) {
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.pay.dal.mysql.order;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
@@ -16,15 +17,22 @@ import java.util.List;
 public interface PayOrderMapper extends BaseMapperX<PayOrderDO> {
 
     default PageResult<PayOrderDO> selectPage(PayOrderPageReqVO reqVO) {
-        return selectPage(reqVO, new LambdaQueryWrapperX<PayOrderDO>()
+        return selectPage(reqVO, buildQuery(reqVO).orderByDesc(PayOrderDO::getId));
+    }
+
+    default CursorPageResult<PayOrderDO> selectCursorPage(PayOrderPageReqVO reqVO) {
+        return selectCursorPage(reqVO, buildQuery(reqVO), PayOrderDO::getId);
+    }
+
+    static LambdaQueryWrapperX<PayOrderDO> buildQuery(PayOrderPageReqVO reqVO) {
+        return new LambdaQueryWrapperX<PayOrderDO>()
                 .eqIfPresent(PayOrderDO::getAppId, reqVO.getAppId())
                 .eqIfPresent(PayOrderDO::getChannelCode, reqVO.getChannelCode())
                 .likeIfPresent(PayOrderDO::getMerchantOrderId, reqVO.getMerchantOrderId())
                 .likeIfPresent(PayOrderDO::getChannelOrderNo, reqVO.getChannelOrderNo())
                 .likeIfPresent(PayOrderDO::getNo, reqVO.getNo())
                 .eqIfPresent(PayOrderDO::getStatus, reqVO.getStatus())
-                .betweenIfPresent(PayOrderDO::getCreateTime, reqVO.getCreateTime())
-                .orderByDesc(PayOrderDO::getId));
+                .betweenIfPresent(PayOrderDO::getCreateTime, reqVO.getCreateTime());
     }
 
     default List<PayOrderDO> selectList(PayOrderExportReqVO reqVO) {
@@ -0,0 +1,44 @@
+package cn.iocoder.yudao.module.pay.job.notify;
+
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
+import cn.iocoder.yudao.module.pay.service.notify.PayNotifyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+import static cn.iocoder.yudao.module.pay.service.notify.PayNotifyServiceImpl.NOTIFY_CLAIM_SIZE;
+
+/**
+ * 支付通知的调度器
+ *
+ * 每秒认领一次到期的 PayNotifyTaskDO 任务；如果认领满一批，说明还有积压，立即继续认领，直到通知线程池满为止。
+ * 任务通过数据库的 UPDATE 条件认领，所以多个节点可同时运行，水平扩展通知能力。
+ *
+ * 相比 {@link PayNotifyJob}，无需等待一批任务全部通知完成，单个商户回调慢不会阻塞其它任务。
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PayNotifyDispatcher {
+
+    @Resource
+    private PayNotifyService payNotifyService;
+
+    @Scheduled(fixedDelay = 1000, initialDelay = 10000)
+    public void dispatch() {
+        TenantUtils.executeIgnore(() -> {
+            try {
+                int count;
+                do {
+                    count = payNotifyService.executeNotify();
+                } while (count >= NOTIFY_CLAIM_SIZE);
+            } catch (Exception ex) {
+                log.error("[dispatch][调度支付通知异常]", ex);
+            }
+        });
+    }
+
+}
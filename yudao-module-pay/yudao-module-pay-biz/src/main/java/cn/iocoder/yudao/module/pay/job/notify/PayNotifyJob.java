@@ -12,6 +12,8 @@ import javax.annotation.Resource;
  * 支付通知 Job
  * 通过不断扫描待通知的 PayNotifyTaskDO 记录，回调业务线的回调接口
  *
+ * 日常由 {@link PayNotifyDispatcher} 持续调度，该 Job 保留用于手动触发
+ *
  * @author 芋道源码
  */
 @Component
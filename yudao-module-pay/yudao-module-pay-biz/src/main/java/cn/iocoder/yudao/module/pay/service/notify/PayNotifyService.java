@@ -23,12 +23,12 @@ public interface PayNotifyService {
     void createPayNotifyTask(Integer type, Long dataId);
 
     /**
-     * 执行回调通知
+     * 执行回调通知：认领一批到期的任务，提交到线程池异步通知，不等待通知完成
      *
      * 注意，该方法提供给定时任务调用。目前是 yudao-server 进行调用
-     * @return 通知数量
+     * @return 认领的任务数量
      */
-    int executeNotify() throws InterruptedException;
+    int executeNotify();
 
     /**
      * 获得回调通知
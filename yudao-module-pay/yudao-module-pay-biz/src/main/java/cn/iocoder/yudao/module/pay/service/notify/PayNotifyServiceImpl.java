@@ -2,7 +2,9 @@ package cn.iocoder.yudao.module.pay.service.notify;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
-import cn.hutool.core.util.ObjectUtil;
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.URLUtil;
 import cn.hutool.extra.spring.SpringUtil;
 import cn.hutool.http.HttpResponse;
 import cn.hutool.http.HttpUtil;
@@ -22,14 +24,16 @@ import cn.iocoder.yudao.module.pay.dal.dataobject.refund.PayRefundDO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.transfer.PayTransferDO;
 import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyLogMapper;
 import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyTaskMapper;
-import cn.iocoder.yudao.module.pay.dal.redis.notify.PayNotifyLockRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.service.order.PayOrderService;
 import cn.iocoder.yudao.module.pay.service.refund.PayRefundService;
 import cn.iocoder.yudao.module.pay.service.transfer.PayTransferService;
 import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
@@ -41,11 +45,14 @@ import javax.annotation.Resource;
 import javax.validation.Valid;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import static cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils.addTime;
@@ -63,6 +70,8 @@ public class PayNotifyServiceImpl implements PayNotifyService {
 
     /**
      * 通知超时时间，单位：秒
+     *
+     * 即认领任务的租约时长，需要大于 HTTP 调用的超时时间：超过后，任务可被其它节点重新认领
      */
     public static final int NOTIFY_TIMEOUT = 120;
     /**
@@ -70,6 +79,38 @@ public class PayNotifyServiceImpl implements PayNotifyService {
      */
     public static final long NOTIFY_TIMEOUT_MILLIS = 120 * DateUtils.SECOND_MILLIS;
 
+    /**
+     * HTTP 连接超时时间，单位：毫秒
+     */
+    private static final int NOTIFY_CONNECT_TIMEOUT_MILLIS = 5 * (int) DateUtils.SECOND_MILLIS;
+    /**
+     * HTTP 读取超时时间，单位：毫秒
+     */
+    private static final int NOTIFY_READ_TIMEOUT_MILLIS = 30 * (int) DateUtils.SECOND_MILLIS;
+
+    /**
+     * 每次认领的最大任务数
+     */
+    public static final int NOTIFY_CLAIM_SIZE = 100;
+
+    /**
+     * 每个 host 的最大并发通知数，避免单个商户占满通知线程池
+     */
+    private static final int NOTIFY_HOST_MAX_CONCURRENCY = 8;
+    /**
+     * host 并发已满时，任务的延迟通知时间
+     */
+    private static final Duration NOTIFY_HOST_BUSY_DELAY = Duration.ofSeconds(1);
+
+    /**
+     * 熔断的连续失败次数
+     */
+    private static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+    /**
+     * 熔断的持续时间：期间该应用的任务延迟到熔断结束后，再尝试通知
+     */
+    private static final Duration CIRCUIT_BREAKER_OPEN_DURATION = Duration.ofSeconds(60);
+
     @Resource
     @Lazy // 循环依赖，避免报错
     private PayOrderService orderService;
@@ -89,7 +130,25 @@ public class PayNotifyServiceImpl implements PayNotifyService {
     private ThreadPoolTaskExecutor threadPoolTaskExecutor;
 
     @Resource
-    private PayNotifyLockRedisDAO notifyLockCoreRedisDAO;
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    /**
+     * 当前节点的租约持有者标识
+     */
+    private final String lockOwner = NetUtil.getLocalhostStr() + "@" + IdUtil.fastSimpleUUID().substring(0, 8);
+
+    /**
+     * 每个 host 的并发通知信号量
+     *
+     * KEY：host
+     */
+    private final Map<String, Semaphore> hostSemaphores = new ConcurrentHashMap<>();
+    /**
+     * 每个应用（商户）的熔断器
+     *
+     * KEY：应用编号
+     */
+    private final Map<Long, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -119,77 +178,105 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override
             public void afterCommit() {
-                executeNotify(task);
+                // 立即认领并通知，无需等待下一轮调度
+                claimNotifyTasks(Collections.singletonList(task.getId())).forEach(PayNotifyServiceImpl.this::submitNotify);
             }
         });
     }
 
     @Override
-    public int executeNotify() throws InterruptedException {
-        // 获得需要通知的任务
-        List<PayNotifyTaskDO> tasks = notifyTaskMapper.selectListByNotify();
-        if (CollUtil.isEmpty(tasks)) {
+    public int executeNotify() {
+        // 按照线程池的空闲容量认领，避免认领后长时间排队，导致租约过期
+        int limit = Math.min(NOTIFY_CLAIM_SIZE, getExecutorIdleCapacity());
+        if (limit <= 0) {
             return 0;
         }
-
-        // 遍历，逐个通知
-        CountDownLatch latch = new CountDownLatch(tasks.size());
-        tasks.forEach(task -> threadPoolTaskExecutor.execute(() -> {
-            try {
-                executeNotify(task);
-            } finally {
-                latch.countDown();
-            }
-        }));
-        // 等待完成
-        awaitExecuteNotify(latch);
-        // 返回执行完成的任务数（成功 + 失败)
+        // 获得并认领需要通知的任务
+        List<Long> ids = notifyTaskMapper.selectIdListByNotify(LocalDateTime.now(), limit);
+        List<PayNotifyTaskDO> tasks = claimNotifyTasks(ids);
+        // 提交到线程池，异步通知，不等待完成
+        tasks.forEach(this::submitNotify);
         return tasks.size();
     }
 
     /**
-     * 等待全部支付通知的完成
-     * 每 1 秒会打印一次剩余任务数量
+     * 认领通知任务：通过 UPDATE 的 WHERE 条件，保证多个节点并发认领时，每个任务只会被一个节点认领
      *
-     * @param latch Latch
-     * @throws InterruptedException 如果被打断
+     * @param ids 任务编号数组
+     * @return 认领成功的任务
      */
-    private void awaitExecuteNotify(CountDownLatch latch) throws InterruptedException {
-        long size = latch.getCount();
-        for (int i = 0; i < NOTIFY_TIMEOUT; i++) {
-            if (latch.await(1L, TimeUnit.SECONDS)) {
-                return;
-            }
-            log.info("[awaitExecuteNotify][任务处理中， 总任务数({}) 剩余任务数({})]", size, latch.getCount());
+    private List<PayNotifyTaskDO> claimNotifyTasks(List<Long> ids) {
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyList();
         }
-        log.error("[awaitExecuteNotify][任务未处理完，总任务数({}) 剩余任务数({})]", size, latch.getCount());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockExpireTime = now.plusSeconds(NOTIFY_TIMEOUT).withNano(0); // 去掉毫秒，避免数据库精度不同，导致查询不到
+        if (notifyTaskMapper.updateByNotifyClaim(ids, lockOwner, lockExpireTime, now) == 0) {
+            return Collections.emptyList();
+        }
+        return notifyTaskMapper.selectListByLock(ids, lockOwner, lockExpireTime);
+    }
+
+    private void submitNotify(PayNotifyTaskDO task) {
+        threadPoolTaskExecutor.execute(() -> TenantUtils.execute(task.getTenantId(), () -> executeNotify(task)));
+    }
+
+    private int getExecutorIdleCapacity() {
+        ThreadPoolExecutor executor = threadPoolTaskExecutor.getThreadPoolExecutor();
+        return executor.getMaximumPoolSize() - executor.getActiveCount() + executor.getQueue().remainingCapacity();
     }
 
     /**
-     * 同步执行单个支付通知
+     * 执行单个已认领的支付通知
      *
      * @param task 通知任务
      */
     public void executeNotify(PayNotifyTaskDO task) {
-        // 分布式锁，避免并发问题
-        notifyLockCoreRedisDAO.lock(task.getId(), NOTIFY_TIMEOUT_MILLIS, () -> {
-            // 校验，当前任务是否已经被通知过
-            // 虽然已经通过分布式加锁，但是可能同时满足通知的条件，然后都去获得锁。此时，第一个执行完后，第二个还是能拿到锁，然后会再执行一次。
-            // 因此，此处我们通过第 notifyTimes 通知次数是否匹配来判断
-            PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
-            if (ObjectUtil.notEqual(task.getNotifyTimes(), dbTask.getNotifyTimes())) {
-                log.warn("[executeNotifySync][task({}) 任务被忽略，原因是它的通知不是第 ({}) 次，可能是因为并发执行了]",
-                        JsonUtils.toJsonString(task), dbTask.getNotifyTimes());
+        // 1.1 校验 host 的并发数，已满则稍后再通知
+        Semaphore semaphore = hostSemaphores.computeIfAbsent(getHost(task.getNotifyUrl()),
+                key -> new Semaphore(NOTIFY_HOST_MAX_CONCURRENCY));
+        if (!semaphore.tryAcquire()) {
+            delayNotify(task, addTime(NOTIFY_HOST_BUSY_DELAY));
+            return;
+        }
+        try {
+            // 1.2 校验应用是否熔断，熔断则延迟到熔断结束后再通知
+            CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(task.getAppId(), key -> new CircuitBreaker());
+            if (!circuitBreaker.tryAcquire()) {
+                log.warn("[executeNotify][task({}) 应用({}) 已熔断，延迟通知]", task.getId(), task.getAppId());
+                delayNotify(task, circuitBreaker.getRetryTime());
                 return;
             }
 
-            // 执行通知
-            getSelf().executeNotify0(dbTask);
-        });
+            // 2. 执行通知
+            recordDispatchLag(task);
+            Integer status = null;
+            long startTime = System.nanoTime();
+            try {
+                status = getSelf().executeNotify0(task);
+                recordLatency(task, status, System.nanoTime() - startTime);
+            } finally {
+                // 3. 调用异常（包括超时）计入熔断；业务返回失败，说明商户可用，不计入
+                circuitBreaker.record(status != null ? !Objects.equals(status, PayNotifyStatusEnum.REQUEST_FAILURE.getStatus()) : null);
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 延迟通知：释放租约，但不增加通知次数
+     *
+     * @param task 通知任务
+     * @param nextNotifyTime 下一次通知时间
+     */
+    private void delayNotify(PayNotifyTaskDO task, LocalDateTime nextNotifyTime) {
+        notifyTaskMapper.updateByIdAndLockOwner(new PayNotifyTaskDO().setId(task.getId())
+                .setNextNotifyTime(nextNotifyTime), task.getLockOwner());
     }
 
     @Transactional(rollbackFor = Exception.class)
-    public void executeNotify0(PayNotifyTaskDO task) {
+    public Integer executeNotify0(PayNotifyTaskDO task) {
         // 发起回调
         CommonResult<?> invokeResult = null;
         Throwable invokeException = null;
@@ -201,12 +288,18 @@ public class PayNotifyServiceImpl implements PayNotifyService {
 
         // 处理结果
         Integer newStatus = processNotifyResult(task, invokeResult, invokeException);
+        if (newStatus == null) {
+            // 租约已过期，任务可能已被其它节点重新认领并通知，不记录本次的日志，避免重复的通知次数
+            return invokeException != null ? PayNotifyStatusEnum.REQUEST_FAILURE.getStatus()
+                    : PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus();
+        }
 
         // 记录 PayNotifyLog 日志
         String response = invokeException != null ? ExceptionUtil.getRootCauseMessage(invokeException) :
                 JsonUtils.toJsonString(invokeResult);
         notifyLogMapper.insert(PayNotifyLogDO.builder().taskId(task.getId())
                 .notifyTimes(task.getNotifyTimes() + 1).status(newStatus).response(response).build());
+        return newStatus;
     }
 
     /**
@@ -237,7 +330,8 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         // 发起请求
         try (HttpResponse response = HttpUtil.createPost(task.getNotifyUrl())
                 .body(JsonUtils.toJsonString(request)).addHeaders(headers)
-                .timeout((int) NOTIFY_TIMEOUT_MILLIS).execute()) {
+                .setConnectionTimeout(NOTIFY_CONNECT_TIMEOUT_MILLIS).setReadTimeout(NOTIFY_READ_TIMEOUT_MILLIS)
+                .execute()) {
             // 解析结果
             return JsonUtils.parseObject(response.body(), CommonResult.class);
         }
@@ -249,11 +343,11 @@ public class PayNotifyServiceImpl implements PayNotifyService {
      * @param task 通知任务
      * @param invokeResult 通知结果
      * @param invokeException 通知异常
-     * @return 最终任务的状态
+     * @return 最终任务的状态；null 表示租约已过期，未更新
      */
     @VisibleForTesting
     Integer processNotifyResult(PayNotifyTaskDO task, CommonResult<?> invokeResult, Throwable invokeException) {
-        // 设置通用的更新 PayNotifyTaskDO 的字段
+        // 设置通用的更新 PayNotifyTaskDO 的字段，并释放租约
         PayNotifyTaskDO updateTask = new PayNotifyTaskDO()
                 .setId(task.getId())
                 .setLastExecuteTime(LocalDateTime.now())
@@ -262,23 +356,65 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         // 情况一：调用成功
         if (invokeResult != null && invokeResult.isSuccess()) {
             updateTask.setStatus(PayNotifyStatusEnum.SUCCESS.getStatus());
-            notifyTaskMapper.updateById(updateTask);
-            return updateTask.getStatus();
+            return updateNotifyTask(updateTask, task.getLockOwner()) ? updateTask.getStatus() : null;
         }
 
         // 情况二：调用失败、调用异常
         // 2.1 超过最大回调次数
         if (updateTask.getNotifyTimes() >= PayNotifyTaskDO.NOTIFY_FREQUENCY.length) {
             updateTask.setStatus(PayNotifyStatusEnum.FAILURE.getStatus());
-            notifyTaskMapper.updateById(updateTask);
-            return updateTask.getStatus();
+            return updateNotifyTask(updateTask, task.getLockOwner()) ? updateTask.getStatus() : null;
         }
         // 2.2 未超过最大回调次数
         updateTask.setNextNotifyTime(addTime(Duration.ofSeconds(PayNotifyTaskDO.NOTIFY_FREQUENCY[updateTask.getNotifyTimes()])));
         updateTask.setStatus(invokeException != null ? PayNotifyStatusEnum.REQUEST_FAILURE.getStatus()
                 : PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus());
-        notifyTaskMapper.updateById(updateTask);
-        return updateTask.getStatus();
+        return updateNotifyTask(updateTask, task.getLockOwner()) ? updateTask.getStatus() : null;
+    }
+
+    private boolean updateNotifyTask(PayNotifyTaskDO updateTask, String lockOwner) {
+        if (notifyTaskMapper.updateByIdAndLockOwner(updateTask, lockOwner) == 0) {
+            log.warn("[updateNotifyTask][task({}) 租约已过期，可能已被其它节点重新认领，忽略本次更新]", updateTask.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private static String getHost(String notifyUrl) {
+        try {
+            return URLUtil.url(notifyUrl).getHost();
+        } catch (Exception ex) {
+            return notifyUrl;
+        }
+    }
+
+    // ========== 监控指标 ==========
+
+    /**
+     * 记录调度延迟：任务从应该通知（nextNotifyTime），到实际开始通知的时间
+     */
+    private void recordDispatchLag(PayNotifyTaskDO task) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null || task.getNextNotifyTime() == null) {
+            return;
+        }
+        Duration lag = Duration.between(task.getNextNotifyTime(), LocalDateTime.now());
+        Timer.builder("yudao.pay.notify.dispatch.lag").register(registry)
+                .record(Math.max(0, lag.toNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录每个应用的通知耗时
+     */
+    private void recordLatency(PayNotifyTaskDO task, Integer status, long nanos) {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder("yudao.pay.notify.latency")
+                .tag("app_id", String.valueOf(task.getAppId()))
+                .tag("status", String.valueOf(status))
+                .register(registry).record(nanos, TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -305,4 +441,58 @@ public class PayNotifyServiceImpl implements PayNotifyService {
         return SpringUtil.getBean(getClass());
     }
 
+    /**
+     * 应用（商户）维度的熔断器
+     *
+     * 1. 连续失败 {@link #CIRCUIT_BREAKER_FAILURE_THRESHOLD} 次后，熔断 {@link #CIRCUIT_BREAKER_OPEN_DURATION}
+     * 2. 熔断结束后，只放行一个任务试探：成功则恢复，失败则继续熔断
+     */
+    private static class CircuitBreaker {
+
+        private int failureCount;
+        private LocalDateTime openEndTime;
+        private boolean probing;
+
+        public synchronized boolean tryAcquire() {
+            if (openEndTime == null) {
+                return true;
+            }
+            if (probing || LocalDateTime.now().isBefore(openEndTime)) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        /**
+         * 记录通知结果
+         *
+         * @param success 是否成功；null 表示本地异常，和商户无关，只结束试探
+         */
+        public synchronized void record(Boolean success) {
+            probing = false;
+            if (success == null) {
+                return;
+            }
+            if (success) {
+                failureCount = 0;
+                openEndTime = null;
+                return;
+            }
+            failureCount++;
+            if (openEndTime != null || failureCount >= CIRCUIT_BREAKER_FAILURE_THRESHOLD) {
+                openEndTime = addTime(CIRCUIT_BREAKER_OPEN_DURATION);
+            }
+        }
+
+        /**
+         * 获得被拒绝的任务，下一次的通知时间：熔断中，等待熔断结束；试探中，稍后再试
+         */
+        public synchronized LocalDateTime getRetryTime() {
+            LocalDateTime now = LocalDateTime.now();
+            return openEndTime != null && openEndTime.isAfter(now) ? openEndTime : now.plus(NOTIFY_HOST_BUSY_DELAY);
+        }
+
+    }
+
 }
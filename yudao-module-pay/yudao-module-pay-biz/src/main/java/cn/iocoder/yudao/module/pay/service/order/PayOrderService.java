@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.pay.service.order;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.pay.core.client.dto.order.PayOrderRespDTO;
 import cn.iocoder.yudao.module.pay.api.order.dto.PayOrderCreateReqDTO;
@@ -64,6 +65,14 @@ public interface PayOrderService {
      */
     PageResult<PayOrderDO> getOrderPage(PayOrderPageReqVO pageReqVO);
 
+    /**
+     * 获得支付订单游标分页
+     *
+     * @param pageReqVO 游标分页查询
+     * @return 支付订单游标分页
+     */
+    CursorPageResult<PayOrderDO> getOrderCursorPage(PayOrderPageReqVO pageReqVO);
+
     /**
      * 获得支付订单列表, 用于 Excel 导出
      *
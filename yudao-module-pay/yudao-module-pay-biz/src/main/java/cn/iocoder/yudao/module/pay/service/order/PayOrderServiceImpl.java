@@ -4,6 +4,7 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.spring.SpringUtil;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.date.LocalDateTimeUtils;
 import cn.iocoder.yudao.framework.common.util.number.MoneyUtils;
@@ -103,6 +104,11 @@ public class PayOrderServiceImpl implements PayOrderService {
         return orderMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public CursorPageResult<PayOrderDO> getOrderCursorPage(PayOrderPageReqVO pageReqVO) {
+        return orderMapper.selectCursorPage(pageReqVO);
+    }
+
     @Override
     public List<PayOrderDO> getOrderList(PayOrderExportReqVO exportReqVO) {
         return orderMapper.selectList(exportReqVO);
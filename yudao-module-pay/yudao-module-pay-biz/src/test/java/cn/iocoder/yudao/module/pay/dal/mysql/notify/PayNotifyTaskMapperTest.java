@@ -0,0 +1,130 @@
+package cn.iocoder.yudao.module.pay.dal.mysql.notify;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.module.pay.dal.dataobject.notify.PayNotifyTaskDO;
+import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link PayNotifyTaskMapper} 认领通知任务的单元测试类
+ *
+ * @author 芋道源码
+ */
+public class PayNotifyTaskMapperTest extends BaseDbUnitTest {
+
+    private static final String OWNER_A = "node-a";
+    private static final String OWNER_B = "node-b";
+
+    @Resource
+    private PayNotifyTaskMapper notifyTaskMapper;
+
+    /**
+     * 当前时间，去掉毫秒，避免数据库精度不同
+     */
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    public void testSelectIdListByNotify() {
+        // mock 数据
+        PayNotifyTaskDO task01 = insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.minusMinutes(2), null, null);
+        PayNotifyTaskDO task02 = insertTask(PayNotifyStatusEnum.REQUEST_FAILURE.getStatus(), now.minusMinutes(3),
+                OWNER_A, now.minusSeconds(1)); // 租约已过期
+        PayNotifyTaskDO task03 = insertTask(PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus(), now.minusMinutes(1), null, null);
+        insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.minusMinutes(1), OWNER_A, now.plusMinutes(1)); // 租约未过期
+        insertTask(PayNotifyStatusEnum.SUCCESS.getStatus(), now.minusMinutes(1), null, null); // 不满足状态
+        insertTask(PayNotifyStatusEnum.FAILURE.getStatus(), now.minusMinutes(1), null, null); // 不满足状态
+        insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.plusMinutes(1), null, null); // 不满足时间
+
+        // 调用，并断言：按照 nextNotifyTime 升序
+        assertEquals(asList(task02.getId(), task01.getId(), task03.getId()),
+                notifyTaskMapper.selectIdListByNotify(now, 10));
+        // 调用，并断言：不超过 limit
+        assertEquals(asList(task02.getId(), task01.getId()), notifyTaskMapper.selectIdListByNotify(now, 2));
+    }
+
+    @Test
+    public void testUpdateByNotifyClaim() {
+        // mock 数据
+        PayNotifyTaskDO task01 = insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.minusMinutes(1), null, null);
+        PayNotifyTaskDO task02 = insertTask(PayNotifyStatusEnum.REQUEST_FAILURE.getStatus(), now.minusMinutes(1), null, null);
+        PayNotifyTaskDO task03 = insertTask(PayNotifyStatusEnum.SUCCESS.getStatus(), now.minusMinutes(1), null, null);
+        List<Long> ids = asList(task01.getId(), task02.getId(), task03.getId());
+        LocalDateTime lockExpireTime = now.plusMinutes(2);
+
+        // 调用：节点 A 认领，已成功的 task03 不会被认领
+        assertEquals(2, notifyTaskMapper.updateByNotifyClaim(ids, OWNER_A, lockExpireTime, now));
+        // 调用：节点 B 在租约有效期内认领，不会成功
+        assertEquals(0, notifyTaskMapper.updateByNotifyClaim(ids, OWNER_B, now.plusMinutes(3), now.plusMinutes(1)));
+        // 断言：只有节点 A 能查询到认领的任务
+        assertEquals(asSet(task01.getId(), task02.getId()), convertSet(
+                notifyTaskMapper.selectListByLock(ids, OWNER_A, lockExpireTime), PayNotifyTaskDO::getId));
+        assertTrue(notifyTaskMapper.selectListByLock(ids, OWNER_B, now.plusMinutes(3)).isEmpty());
+        assertNull(notifyTaskMapper.selectById(task03.getId()).getLockOwner());
+
+        // 调用：租约过期后，节点 B 可以重新认领
+        LocalDateTime later = lockExpireTime.plusSeconds(1);
+        assertEquals(2, notifyTaskMapper.updateByNotifyClaim(ids, OWNER_B, later.plusMinutes(2), later));
+        // 断言：节点 A 的租约失效
+        assertTrue(notifyTaskMapper.selectListByLock(ids, OWNER_A, lockExpireTime).isEmpty());
+        assertEquals(2, notifyTaskMapper.selectListByLock(ids, OWNER_B, later.plusMinutes(2)).size());
+    }
+
+    @Test
+    public void testUpdateByIdAndLockOwner() {
+        // mock 数据：节点 A 认领，租约过期后被节点 B 认领
+        PayNotifyTaskDO task = insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.minusMinutes(1), null, null);
+        List<Long> ids = singletonList(task.getId());
+        assertEquals(1, notifyTaskMapper.updateByNotifyClaim(ids, OWNER_A, now.plusMinutes(2), now));
+        LocalDateTime later = now.plusMinutes(3);
+        assertEquals(1, notifyTaskMapper.updateByNotifyClaim(ids, OWNER_B, later.plusMinutes(2), later));
+
+        // 调用：节点 A 的通知结束较晚，不能覆盖节点 B 的租约
+        assertEquals(0, notifyTaskMapper.updateByIdAndLockOwner(new PayNotifyTaskDO().setId(task.getId())
+                .setStatus(PayNotifyStatusEnum.SUCCESS.getStatus()), OWNER_A));
+        PayNotifyTaskDO dbTask = notifyTaskMapper.selectById(task.getId());
+        assertEquals(PayNotifyStatusEnum.WAITING.getStatus(), dbTask.getStatus());
+        assertEquals(OWNER_B, dbTask.getLockOwner());
+
+        // 调用：节点 B 更新成功，并释放租约
+        assertEquals(1, notifyTaskMapper.updateByIdAndLockOwner(new PayNotifyTaskDO().setId(task.getId())
+                .setStatus(PayNotifyStatusEnum.SUCCESS.getStatus()).setNotifyTimes(1), OWNER_B));
+        dbTask = notifyTaskMapper.selectById(task.getId());
+        assertEquals(PayNotifyStatusEnum.SUCCESS.getStatus(), dbTask.getStatus());
+        assertEquals(1, dbTask.getNotifyTimes());
+        assertNull(dbTask.getLockOwner());
+        assertNull(dbTask.getLockExpireTime());
+    }
+
+    @Test
+    public void testUpdateByIdAndLockOwner_noOwner() {
+        // mock 数据：未被认领的任务
+        PayNotifyTaskDO task = insertTask(PayNotifyStatusEnum.WAITING.getStatus(), now.minusMinutes(1), null, null);
+
+        // 调用：lockOwner 为空时，不会更新
+        assertEquals(0, notifyTaskMapper.updateByIdAndLockOwner(new PayNotifyTaskDO().setId(task.getId())
+                .setStatus(PayNotifyStatusEnum.FAILURE.getStatus()), null));
+        // 断言
+        assertEquals(PayNotifyStatusEnum.WAITING.getStatus(), notifyTaskMapper.selectById(task.getId()).getStatus());
+    }
+
+    private PayNotifyTaskDO insertTask(Integer status, LocalDateTime nextNotifyTime,
+                                       String lockOwner, LocalDateTime lockExpireTime) {
+        PayNotifyTaskDO task = randomPojo(PayNotifyTaskDO.class, o -> o.setStatus(status)
+                .setNextNotifyTime(nextNotifyTime).setLockOwner(lockOwner).setLockExpireTime(lockExpireTime)
+                .setNotifyTimes(0).setMaxNotifyTimes(9));
+        notifyTaskMapper.insert(task);
+        return task;
+    }
+
+}
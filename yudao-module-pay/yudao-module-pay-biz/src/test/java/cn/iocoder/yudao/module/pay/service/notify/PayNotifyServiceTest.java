@@ -11,7 +11,6 @@ import cn.iocoder.yudao.module.pay.dal.dataobject.order.PayOrderDO;
 import cn.iocoder.yudao.module.pay.dal.dataobject.refund.PayRefundDO;
 import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyLogMapper;
 import cn.iocoder.yudao.module.pay.dal.mysql.notify.PayNotifyTaskMapper;
-import cn.iocoder.yudao.module.pay.dal.redis.notify.PayNotifyLockRedisDAO;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyStatusEnum;
 import cn.iocoder.yudao.module.pay.enums.notify.PayNotifyTypeEnum;
 import cn.iocoder.yudao.module.pay.framework.job.config.PayJobConfiguration;
@@ -21,8 +20,6 @@ import cn.iocoder.yudao.module.pay.service.refund.PayRefundServiceImpl;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
@@ -38,7 +35,6 @@ import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -48,7 +44,7 @@ import static org.mockito.Mockito.*;
  * @author 芋艿
  */
 @Disabled // TODO 芋艿：后续 fix 补充的单测
-@Import({PayJobConfiguration.class, PayNotifyServiceImpl.class, PayNotifyLockRedisDAO.class})
+@Import({PayJobConfiguration.class, PayNotifyServiceImpl.class})
 public class PayNotifyServiceTest extends BaseDbUnitTest {
 
     @Resource
@@ -64,9 +60,6 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
     @Resource
     private PayNotifyLogMapper notifyLogMapper;
 
-    @MockBean
-    private RedissonClient redissonClient;
-
     @Test
     public void testCreatePayNotifyTask_order() {
         PayNotifyServiceImpl payNotifyService = mock(PayNotifyServiceImpl.class);
@@ -80,8 +73,6 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
             // mock 方法(order)
             PayOrderDO order = randomPojo(PayOrderDO.class);
             when(orderService.getOrder(eq(1L))).thenReturn(order);
-            // mock 方法（lock）
-            mockLock(null); // null 的原因，是咱没办法拿到 taskId 新增
 
             // 调用
             notifyService.createPayNotifyTask(type, dataId);
@@ -111,8 +102,6 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
             // mock 方法(refund)
             PayRefundDO refund = randomPojo(PayRefundDO.class);
             when(refundService.getRefund(eq(1L))).thenReturn(refund);
-            // mock 方法（lock）
-            mockLock(null); // null 的原因，是咱没办法拿到 taskId 新增
 
             // 调用
             notifyService.createPayNotifyTask(type, dataId);
@@ -134,15 +123,15 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         // mock 数据（notify）
         PayNotifyTaskDO dbTask01 = randomPojo(PayNotifyTaskDO.class,
                 o -> o.setStatus(PayNotifyStatusEnum.WAITING.getStatus())
-                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))));
+                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))).setLockExpireTime(null));
         notifyTaskMapper.insert(dbTask01);
         PayNotifyTaskDO dbTask02 = randomPojo(PayNotifyTaskDO.class,
                 o -> o.setStatus(PayNotifyStatusEnum.REQUEST_SUCCESS.getStatus())
-                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))));
+                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))).setLockExpireTime(null));
         notifyTaskMapper.insert(dbTask02);
         PayNotifyTaskDO dbTask03 = randomPojo(PayNotifyTaskDO.class,
                 o -> o.setStatus(PayNotifyStatusEnum.REQUEST_FAILURE.getStatus())
-                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))));
+                        .setNextNotifyTime(addTime(Duration.ofMinutes(-1))).setLockExpireTime(null));
         notifyTaskMapper.insert(dbTask03);
         PayNotifyTaskDO dbTask04 = randomPojo(PayNotifyTaskDO.class, // 不满足状态
                 o -> o.setStatus(PayNotifyStatusEnum.FAILURE.getStatus())
@@ -156,10 +145,6 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
                 o -> o.setStatus(PayNotifyStatusEnum.SUCCESS.getStatus())
                         .setNextNotifyTime(addTime(Duration.ofMinutes(1))));
         notifyTaskMapper.insert(dbTask06);
-        // mock 方法（lock）
-        mockLock(dbTask01.getId());
-        mockLock(dbTask02.getId());
-        mockLock(dbTask03.getId());
 
         // 调用
         int count = notifyService.executeNotify();
@@ -190,6 +175,24 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         assertEquals(dbLog.getStatus(), PayNotifyStatusEnum.REQUEST_FAILURE.getStatus());
     }
 
+    @Test
+    public void testExecuteNotify0_lockExpired() {
+        // mock 数据（task）：租约已被其它节点重新认领
+        PayNotifyTaskDO dbTask = randomPojo(PayNotifyTaskDO.class, o -> o.setType(-1)
+                .setNotifyTimes(0).setMaxNotifyTimes(9).setLockOwner("node-b"));
+        notifyTaskMapper.insert(dbTask);
+        PayNotifyTaskDO task = cloneIgnoreId(dbTask, o -> o.setId(dbTask.getId()).setLockOwner("node-a"));
+
+        // 调用
+        notifyService.executeNotify0(task);
+        // 断言：task 不变，不记录 log
+        PayNotifyTaskDO result = notifyTaskMapper.selectById(task.getId());
+        assertEquals(0, result.getNotifyTimes());
+        assertEquals(dbTask.getStatus(), result.getStatus());
+        assertEquals("node-b", result.getLockOwner());
+        assertNull(notifyLogMapper.selectOne(null));
+    }
+
     @Test
     public void testProcessNotifyResult_success() {
         // mock 数据（task）
@@ -339,15 +342,4 @@ public class PayNotifyServiceTest extends BaseDbUnitTest {
         assertPojoEquals(dbLog, logList.get(0));
     }
 
-    private void mockLock(Long id) {
-        RLock lock = mock(RLock.class);
-        if (id == null) {
-            when(redissonClient.getLock(anyString()))
-                    .thenReturn(lock);
-        } else {
-            when(redissonClient.getLock(eq("pay_notify:lock:" + id)))
-                    .thenReturn(lock);
-        }
-    }
-
 }
@@ -123,6 +123,8 @@ CREATE TABLE IF NOT EXISTS `pay_notify_task` (
     `notify_times`         int    NOT NULL,
     `max_notify_times`         int    NOT NULL,
     `notify_url`         varchar(1024) NOT NULL,
+    `lock_owner`         varchar(64)   NULL     DEFAULT NULL,
+    `lock_expire_time`   datetime(0)   NULL     DEFAULT NULL,
     `creator`            varchar(64)   NULL     DEFAULT '',
     `create_time`        datetime(0)   NOT NULL DEFAULT CURRENT_TIMESTAMP,
     `updater`            varchar(64)   NULL     DEFAULT '',
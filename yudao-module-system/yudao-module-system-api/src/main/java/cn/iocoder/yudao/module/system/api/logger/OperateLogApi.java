@@ -4,7 +4,6 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogRespDTO;
-import org.springframework.scheduling.annotation.Async;
 
 import javax.validation.Valid;
 
@@ -25,12 +24,11 @@ public interface OperateLogApi {
     /**
      * 【异步】创建操作日志
      *
+     * 不会阻塞调用方，具体的异步方式见实现类
+     *
      * @param createReqDTO 请求
      */
-    @Async
-    default void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO) {
-        createOperateLog(createReqDTO);
-    }
+    void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO);
 
     /**
      * 获取指定模块的指定数据的操作日志分页
@@ -1,8 +1,10 @@
 package cn.iocoder.yudao.module.system.api.notify;
 
+import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendBroadcastReqDTO;
 import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendSingleToUserReqDTO;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * 站内信发送 API 接口
@@ -27,4 +29,12 @@ public interface NotifyMessageSendApi {
      */
     Long sendSingleMessageToMember(@Valid NotifySendSingleToUserReqDTO reqDTO);
 
+    /**
+     * 广播站内信给一批用户，只存储一条，用户读取时按照受众匹配
+     *
+     * @param reqDTO 发送请求
+     * @return 广播编号数组。按租户广播时，每个租户一条
+     */
+    List<Long> sendBroadcastMessage(@Valid NotifySendBroadcastReqDTO reqDTO);
+
 }
@@ -0,0 +1,52 @@
+package cn.iocoder.yudao.module.system.api.notify.dto;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.validation.InEnum;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 站内信广播给一批 Admin 或者 Member 用户
+ *
+ * @author 芋道源码
+ */
+@Data
+public class NotifySendBroadcastReqDTO {
+
+    /**
+     * 用户类型
+     */
+    @NotNull(message = "用户类型不能为空")
+    @InEnum(value = UserTypeEnum.class, message = "用户类型必须是 {value}")
+    private Integer userType;
+
+    /**
+     * 受众类型
+     */
+    @NotNull(message = "受众类型不能为空")
+    @InEnum(value = NotifyBroadcastAudienceTypeEnum.class, message = "受众类型必须是 {value}")
+    private Integer audienceType;
+    /**
+     * 受众编号数组：角色编号、部门编号、租户编号
+     *
+     * 受众类型为 {@link NotifyBroadcastAudienceTypeEnum#ALL} 时，无需传递
+     */
+    private Set<Long> audienceIds;
+
+    /**
+     * 站内信模板编号
+     */
+    @NotEmpty(message = "站内信模板编号不能为空")
+    private String templateCode;
+
+    /**
+     * 站内信模板参数
+     */
+    private Map<String, Object> templateParams;
+
+}
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.api.sms;
 
+import cn.iocoder.yudao.module.system.api.sms.dto.send.SmsSendBatchToUserReqDTO;
 import cn.iocoder.yudao.module.system.api.sms.dto.send.SmsSendSingleToUserReqDTO;
 
 import javax.validation.Valid;
@@ -31,4 +32,13 @@ public interface SmsSendApi {
      */
     Long sendSingleSmsToMember(@Valid SmsSendSingleToUserReqDTO reqDTO);
 
+    /**
+     * 批量发送短信给 Admin 或 Member 用户
+     *
+     * 异步发送，通过短信日志查看每个手机号的发送结果
+     *
+     * @param reqDTO 发送请求
+     */
+    void sendBatchSms(@Valid SmsSendBatchToUserReqDTO reqDTO);
+
 }
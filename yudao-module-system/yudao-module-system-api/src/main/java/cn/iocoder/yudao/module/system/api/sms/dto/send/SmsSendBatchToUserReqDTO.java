@@ -0,0 +1,47 @@
+package cn.iocoder.yudao.module.system.api.sms.dto.send;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.validation.InEnum;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 短信批量发送给 Admin 或者 Member 用户
+ *
+ * 所有手机号使用相同的模板参数，例如说营销短信
+ *
+ * @author 芋道源码
+ */
+@Data
+public class SmsSendBatchToUserReqDTO {
+
+    /**
+     * 手机号数组
+     */
+    @NotEmpty(message = "手机号数组不能为空")
+    private List<String> mobiles;
+    /**
+     * 用户编号数组，与 mobiles 一一对应
+     */
+    private List<Long> userIds;
+    /**
+     * 用户类型
+     */
+    @NotNull(message = "用户类型不能为空")
+    @InEnum(UserTypeEnum.class)
+    private Integer userType;
+    /**
+     * 短信模板编号
+     */
+    @NotEmpty(message = "短信模板编号不能为空")
+    private String templateCode;
+    /**
+     * 短信模板参数
+     */
+    private Map<String, Object> templateParams;
+
+}
@@ -98,6 +98,8 @@ public interface ErrorCodeConstants {
     ErrorCode SMS_CODE_USED = new ErrorCode(1_002_014_002, "验证码已使用");
     ErrorCode SMS_CODE_EXCEED_SEND_MAXIMUM_QUANTITY_PER_DAY = new ErrorCode(1_002_014_004, "超过每日短信发送数量");
     ErrorCode SMS_CODE_SEND_TOO_FAST = new ErrorCode(1_002_014_005, "短信发送过于频繁");
+    ErrorCode SMS_CODE_IP_EXCEED_SEND_MAXIMUM_QUANTITY = new ErrorCode(1_002_014_006, "当前 IP 超过短信发送数量");
+    ErrorCode SMS_CODE_SCENE_SEND_TOO_FAST = new ErrorCode(1_002_014_007, "短信发送繁忙，请稍后再试");
 
     // ========== 租户信息 1-002-015-000 ==========
     ErrorCode TENANT_NOT_EXISTS = new ErrorCode(1_002_015_000, "租户不存在");
@@ -163,5 +165,8 @@ public interface ErrorCodeConstants {
 
     // ========== 站内信发送 1-002-028-000 ==========
     ErrorCode NOTIFY_SEND_TEMPLATE_PARAM_MISS = new ErrorCode(1_002_028_000, "模板参数({})缺失");
+    ErrorCode NOTIFY_BROADCAST_AUDIENCE_IDS_EMPTY = new ErrorCode(1_002_028_001, "广播的受众编号不能为空");
+    ErrorCode NOTIFY_BROADCAST_AUDIENCE_TYPE_NOT_SUPPORT = new ErrorCode(1_002_028_002, "会员用户不支持按角色、部门广播");
+    ErrorCode NOTIFY_BROADCAST_TENANT_NOT_SYSTEM = new ErrorCode(1_002_028_003, "只有系统租户，才能广播给其它租户");
 
 }
@@ -0,0 +1,39 @@
+package cn.iocoder.yudao.module.system.enums.notify;
+
+import cn.iocoder.yudao.framework.common.core.IntArrayValuable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 站内信广播的受众类型枚举
+ *
+ * @author 芋道源码
+ */
+@Getter
+@AllArgsConstructor
+public enum NotifyBroadcastAudienceTypeEnum implements IntArrayValuable {
+
+    ALL(1, "全部用户"), // 当前租户下，指定用户类型的全部用户
+    ROLE(2, "指定角色"), // 仅管理后台的用户
+    DEPT(3, "指定部门"), // 仅管理后台的用户
+    TENANT(4, "指定租户"); // 仅系统租户可发送，每个租户存储一条
+
+    public static final int[] ARRAYS = Arrays.stream(values()).mapToInt(NotifyBroadcastAudienceTypeEnum::getType).toArray();
+
+    /**
+     * 类型
+     */
+    private final Integer type;
+    /**
+     * 名字
+     */
+    private final String name;
+
+    @Override
+    public int[] array() {
+        return ARRAYS;
+    }
+
+}
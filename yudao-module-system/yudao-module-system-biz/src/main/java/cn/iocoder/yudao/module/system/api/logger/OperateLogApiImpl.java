@@ -30,6 +30,11 @@ public class OperateLogApiImpl implements OperateLogApi {
         operateLogService.createOperateLog(createReqDTO);
     }
 
+    @Override
+    public void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO) {
+        operateLogService.createOperateLogAsync(createReqDTO);
+    }
+
     @Override
     @TransMethodResult
     public PageResult<OperateLogRespDTO> getOperateLogPage(OperateLogPageReqDTO pageReqDTO) {
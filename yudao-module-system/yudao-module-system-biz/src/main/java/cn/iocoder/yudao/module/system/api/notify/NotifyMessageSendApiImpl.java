@@ -1,10 +1,12 @@
 package cn.iocoder.yudao.module.system.api.notify;
 
+import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendBroadcastReqDTO;
 import cn.iocoder.yudao.module.system.api.notify.dto.NotifySendSingleToUserReqDTO;
 import cn.iocoder.yudao.module.system.service.notify.NotifySendService;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.util.List;
 
 /**
  * 站内信发送 API 实现类
@@ -29,4 +31,10 @@ public class NotifyMessageSendApiImpl implements NotifyMessageSendApi {
                 reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
     }
 
+    @Override
+    public List<Long> sendBroadcastMessage(NotifySendBroadcastReqDTO reqDTO) {
+        return notifySendService.sendBroadcastNotify(reqDTO.getUserType(), reqDTO.getAudienceType(),
+                reqDTO.getAudienceIds(), reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
+    }
+
 }
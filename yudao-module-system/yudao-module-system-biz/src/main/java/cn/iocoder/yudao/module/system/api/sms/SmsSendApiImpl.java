@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.api.sms;
 
+import cn.iocoder.yudao.module.system.api.sms.dto.send.SmsSendBatchToUserReqDTO;
 import cn.iocoder.yudao.module.system.api.sms.dto.send.SmsSendSingleToUserReqDTO;
 import cn.iocoder.yudao.module.system.service.sms.SmsSendService;
 import org.springframework.stereotype.Service;
@@ -31,4 +32,10 @@ public class SmsSendApiImpl implements SmsSendApi {
                 reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
     }
 
+    @Override
+    public void sendBatchSms(SmsSendBatchToUserReqDTO reqDTO) {
+        smsSendService.sendBatchSms(reqDTO.getMobiles(), reqDTO.getUserIds(), reqDTO.getUserType(),
+                reqDTO.getTemplateCode(), reqDTO.getTemplateParams());
+    }
+
 }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.system.controller.admin.logger;
 
 import cn.iocoder.yudao.framework.apilog.core.annotation.ApiAccessLog;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageParam;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
@@ -45,6 +46,14 @@ public class OperateLogController {
         return success(BeanUtils.toBean(pageResult, OperateLogRespVO.class));
     }
 
+    @GetMapping("/cursor-page")
+    @Operation(summary = "查看操作日志游标分页列表", description = "不支持跳页，翻页深度不影响查询速度")
+    @PreAuthorize("@ss.hasPermission('system:operate-log:query')")
+    public CommonResult<CursorPageResult<OperateLogRespVO>> cursorPageOperateLog(@Valid OperateLogPageReqVO pageReqVO) {
+        CursorPageResult<OperateLogDO> pageResult = operateLogService.getOperateLogCursorPage(pageReqVO);
+        return success(BeanUtils.toBean(pageResult, OperateLogRespVO.class));
+    }
+
     @Operation(summary = "导出操作日志")
     @GetMapping("/export")
     @PreAuthorize("@ss.hasPermission('system:operate-log:export')")
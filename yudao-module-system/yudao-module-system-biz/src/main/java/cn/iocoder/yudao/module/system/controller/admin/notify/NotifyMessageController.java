@@ -5,10 +5,13 @@ import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.framework.common.pojo.CommonResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyBroadcastRespVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessageMyPageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessagePageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessageRespVO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyMessageDO;
+import cn.iocoder.yudao.module.system.service.notify.NotifyBroadcastService;
 import cn.iocoder.yudao.module.system.service.notify.NotifyMessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
@@ -32,6 +37,8 @@ public class NotifyMessageController {
 
     @Resource
     private NotifyMessageService notifyMessageService;
+    @Resource
+    private NotifyBroadcastService notifyBroadcastService;
 
     // ========== 管理所有的站内信 ==========
 
@@ -74,6 +81,7 @@ public class NotifyMessageController {
     @Operation(summary = "标记所有站内信为已读")
     public CommonResult<Boolean> updateAllNotifyMessageRead() {
         notifyMessageService.updateAllNotifyMessageRead(getLoginUserId(), UserTypeEnum.ADMIN.getValue());
+        notifyBroadcastService.updateAllNotifyBroadcastRead(getLoginUserId(), UserTypeEnum.ADMIN.getValue());
         return success(Boolean.TRUE);
     }
 
@@ -91,8 +99,32 @@ public class NotifyMessageController {
     @Operation(summary = "获得当前用户的未读站内信数量")
     @ApiAccessLog(enable = false) // 由于前端会不断轮询该接口，记录日志没有意义
     public CommonResult<Long> getUnreadNotifyMessageCount() {
-        return success(notifyMessageService.getUnreadNotifyMessageCount(
-                getLoginUserId(), UserTypeEnum.ADMIN.getValue()));
+        // 未读数量 = 未读的站内信 + 未读的站内信广播
+        return success(notifyMessageService.getUnreadNotifyMessageCount(getLoginUserId(), UserTypeEnum.ADMIN.getValue())
+                + notifyBroadcastService.getUnreadNotifyBroadcastCount(getLoginUserId(), UserTypeEnum.ADMIN.getValue()));
+    }
+
+    // ========== 查看自己的站内信广播 ==========
+
+    @GetMapping("/get-broadcast-list")
+    @Operation(summary = "获取当前用户的最新站内信广播列表，默认 10 条")
+    @Parameter(name = "size", description = "10")
+    public CommonResult<List<NotifyBroadcastRespVO>> getMyNotifyBroadcastList(
+            @RequestParam(name = "size", defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        List<NotifyBroadcastDO> list = notifyBroadcastService.getMyNotifyBroadcastList(
+                getLoginUserId(), UserTypeEnum.ADMIN.getValue(), size);
+        Long readBroadcastId = notifyBroadcastService.getNotifyBroadcastReadId(
+                getLoginUserId(), UserTypeEnum.ADMIN.getValue());
+        return success(BeanUtils.toBean(list, NotifyBroadcastRespVO.class,
+                broadcast -> broadcast.setReadStatus(broadcast.getId() <= readBroadcastId)));
+    }
+
+    @PutMapping("/update-broadcast-read")
+    @Operation(summary = "标记站内信广播为已读，编号小于等于它的广播都会标记为已读")
+    @Parameter(name = "id", description = "已读到的广播编号", required = true, example = "1024")
+    public CommonResult<Boolean> updateNotifyBroadcastRead(@RequestParam("id") Long id) {
+        notifyBroadcastService.updateNotifyBroadcastRead(id, getLoginUserId(), UserTypeEnum.ADMIN.getValue());
+        return success(Boolean.TRUE);
     }
 
 }
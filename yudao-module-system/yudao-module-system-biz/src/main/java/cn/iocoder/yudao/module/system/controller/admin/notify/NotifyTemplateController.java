@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.validation.Valid;
+import java.util.List;
 
 import static cn.iocoder.yudao.framework.common.pojo.CommonResult.success;
 
@@ -85,4 +86,12 @@ public class NotifyTemplateController {
                     sendReqVO.getTemplateCode(), sendReqVO.getTemplateParams()));
         }
     }
+
+    @PostMapping("/send-broadcast")
+    @Operation(summary = "广播站内信")
+    @PreAuthorize("@ss.hasPermission('system:notify-template:send-notify')")
+    public CommonResult<List<Long>> sendBroadcast(@Valid @RequestBody NotifyTemplateSendBroadcastReqVO sendReqVO) {
+        return success(notifySendService.sendBroadcastNotify(sendReqVO.getUserType(), sendReqVO.getAudienceType(),
+                sendReqVO.getAudienceIds(), sendReqVO.getTemplateCode(), sendReqVO.getTemplateParams()));
+    }
 }
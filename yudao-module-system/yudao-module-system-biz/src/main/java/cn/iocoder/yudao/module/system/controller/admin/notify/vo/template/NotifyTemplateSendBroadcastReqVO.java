@@ -0,0 +1,38 @@
+package cn.iocoder.yudao.module.system.controller.admin.notify.vo.template;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.validation.InEnum;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+import java.util.Set;
+
+@Schema(description = "管理后台 - 站内信模板的广播 Request VO")
+@Data
+public class NotifyTemplateSendBroadcastReqVO {
+
+    @Schema(description = "用户类型", requiredMode = Schema.RequiredMode.REQUIRED, example = "2")
+    @NotNull(message = "用户类型不能为空")
+    @InEnum(value = UserTypeEnum.class, message = "用户类型必须是 {value}")
+    private Integer userType;
+
+    @Schema(description = "受众类型，参见 NotifyBroadcastAudienceTypeEnum 枚举", requiredMode = Schema.RequiredMode.REQUIRED, example = "1")
+    @NotNull(message = "受众类型不能为空")
+    @InEnum(value = NotifyBroadcastAudienceTypeEnum.class, message = "受众类型必须是 {value}")
+    private Integer audienceType;
+
+    @Schema(description = "受众编号数组：角色编号、部门编号、租户编号", example = "1,2")
+    private Set<Long> audienceIds;
+
+    @Schema(description = "模板编码", requiredMode = Schema.RequiredMode.REQUIRED, example = "01")
+    @NotEmpty(message = "模板编码不能为空")
+    private String templateCode;
+
+    @Schema(description = "模板参数")
+    private Map<String, Object> templateParams;
+
+}
@@ -0,0 +1,104 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.notify;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import lombok.*;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 站内信广播 DO
+ *
+ * 与 {@link NotifyMessageDO} 每个用户一条不同，广播只存储一条，用户读取时按照受众匹配（读扩散），
+ * 已读状态通过 {@link NotifyBroadcastReadDO} 的已读水位记录
+ *
+ * @author 芋道源码
+ */
+@TableName(value = "system_notify_broadcast", autoResultMap = true)
+@KeySequence("system_notify_broadcast_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotifyBroadcastDO extends BaseDO {
+
+    /**
+     * 广播编号，自增
+     */
+    @TableId
+    private Long id;
+    /**
+     * 用户类型
+     *
+     * 枚举 {@link UserTypeEnum}
+     */
+    private Integer userType;
+
+    // ========= 受众相关字段 =========
+
+    /**
+     * 受众类型
+     *
+     * 枚举 {@link NotifyBroadcastAudienceTypeEnum}
+     */
+    private Integer audienceType;
+    /**
+     * 受众编号数组
+     *
+     * 1. 受众类型为 {@link NotifyBroadcastAudienceTypeEnum#ROLE} 时，为角色编号
+     * 2. 受众类型为 {@link NotifyBroadcastAudienceTypeEnum#DEPT} 时，为部门编号
+     * 3. 受众类型为 {@link NotifyBroadcastAudienceTypeEnum#TENANT} 时，为租户编号，仅做记录，读取时等同于 ALL
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private Set<Long> audienceIds;
+
+    // ========= 模板相关字段 =========
+
+    /**
+     * 模版编号
+     *
+     * 关联 {@link NotifyTemplateDO#getId()}
+     */
+    private Long templateId;
+    /**
+     * 模版编码
+     *
+     * 关联 {@link NotifyTemplateDO#getCode()}
+     */
+    private String templateCode;
+    /**
+     * 模版类型
+     *
+     * 冗余 {@link NotifyTemplateDO#getType()}
+     */
+    private Integer templateType;
+    /**
+     * 模版发送人名称
+     *
+     * 冗余 {@link NotifyTemplateDO#getNickname()}
+     */
+    private String templateNickname;
+    /**
+     * 模版内容
+     *
+     * 基于 {@link NotifyTemplateDO#getContent()} 格式化后的内容
+     */
+    private String templateContent;
+    /**
+     * 模版参数
+     *
+     * 基于 {@link NotifyTemplateDO#getParams()} 输入后的参数
+     */
+    @TableField(typeHandler = JacksonTypeHandler.class)
+    private Map<String, Object> templateParams;
+
+}
@@ -0,0 +1,51 @@
+package cn.iocoder.yudao.module.system.dal.dataobject.notify;
+
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.mybatis.core.dataobject.BaseDO;
+import com.baomidou.mybatisplus.annotation.KeySequence;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.*;
+
+/**
+ * 站内信广播的已读水位 DO
+ *
+ * 每个用户一条，编号小于等于 {@link #readBroadcastId} 的广播，都视为已读
+ *
+ * @author 芋道源码
+ */
+@TableName("system_notify_broadcast_read")
+@KeySequence("system_notify_broadcast_read_seq") // 用于 Oracle、PostgreSQL、Kingbase、DB2、H2 数据库的主键自增。如果是 MySQL 等数据库，可不写。
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotifyBroadcastReadDO extends BaseDO {
+
+    /**
+     * 编号，自增
+     */
+    @TableId
+    private Long id;
+    /**
+     * 用户编号
+     *
+     * 关联 MemberUserDO 的 id 字段、或者 AdminUserDO 的 id 字段
+     */
+    private Long userId;
+    /**
+     * 用户类型
+     *
+     * 枚举 {@link UserTypeEnum}
+     */
+    private Integer userType;
+    /**
+     * 已读到的广播编号
+     *
+     * 关联 {@link NotifyBroadcastDO#getId()}
+     */
+    private Long readBroadcastId;
+
+}
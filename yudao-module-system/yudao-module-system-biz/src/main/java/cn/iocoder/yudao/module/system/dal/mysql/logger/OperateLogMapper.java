@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.dal.mysql.logger;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
@@ -12,14 +13,21 @@ import org.apache.ibatis.annotations.Mapper;
 public interface OperateLogMapper extends BaseMapperX<OperateLogDO> {
 
     default PageResult<OperateLogDO> selectPage(OperateLogPageReqVO pageReqDTO) {
-        return selectPage(pageReqDTO, new LambdaQueryWrapperX<OperateLogDO>()
-                .eqIfPresent(OperateLogDO::getUserId, pageReqDTO.getUserId())
-                .eqIfPresent(OperateLogDO::getBizId, pageReqDTO.getBizId())
-                .likeIfPresent(OperateLogDO::getType, pageReqDTO.getType())
-                .likeIfPresent(OperateLogDO::getSubType, pageReqDTO.getSubType())
-                .likeIfPresent(OperateLogDO::getAction, pageReqDTO.getAction())
-                .betweenIfPresent(OperateLogDO::getCreateTime, pageReqDTO.getCreateTime())
-                .orderByDesc(OperateLogDO::getId));
+        return selectPage(pageReqDTO, buildQuery(pageReqDTO).orderByDesc(OperateLogDO::getId));
+    }
+
+    default CursorPageResult<OperateLogDO> selectCursorPage(OperateLogPageReqVO pageReqVO) {
+        return selectCursorPage(pageReqVO, buildQuery(pageReqVO), OperateLogDO::getId);
+    }
+
+    static LambdaQueryWrapperX<OperateLogDO> buildQuery(OperateLogPageReqVO pageReqVO) {
+        return new LambdaQueryWrapperX<OperateLogDO>()
+                .eqIfPresent(OperateLogDO::getUserId, pageReqVO.getUserId())
+                .eqIfPresent(OperateLogDO::getBizId, pageReqVO.getBizId())
+                .likeIfPresent(OperateLogDO::getType, pageReqVO.getType())
+                .likeIfPresent(OperateLogDO::getSubType, pageReqVO.getSubType())
+                .likeIfPresent(OperateLogDO::getAction, pageReqVO.getAction())
+                .betweenIfPresent(OperateLogDO::getCreateTime, pageReqVO.getCreateTime());
     }
 
     default PageResult<OperateLogDO> selectPage(OperateLogPageReqDTO pageReqDTO) {
@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.dal.mysql.notify;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastDO;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface NotifyBroadcastMapper extends BaseMapperX<NotifyBroadcastDO> {
+
+    default List<NotifyBroadcastDO> selectAudienceListByUserType(Integer userType) {
+        return selectList(new LambdaQueryWrapperX<NotifyBroadcastDO>()
+                .select(NotifyBroadcastDO::getId, NotifyBroadcastDO::getAudienceType, NotifyBroadcastDO::getAudienceIds)
+                .eq(NotifyBroadcastDO::getUserType, userType));
+    }
+
+    default NotifyBroadcastDO selectLastByUserType(Integer userType) {
+        return selectOne(new QueryWrapperX<NotifyBroadcastDO>() // 由于要使用 limitN 语句，所以只能用 QueryWrapperX
+                .select("id")
+                .eq("user_type", userType)
+                .orderByDesc("id").limitN(1));
+    }
+
+}
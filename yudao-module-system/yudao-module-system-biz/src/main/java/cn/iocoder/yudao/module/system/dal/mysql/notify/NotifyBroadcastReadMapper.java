@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.dal.mysql.notify;
+
+import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastReadDO;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface NotifyBroadcastReadMapper extends BaseMapperX<NotifyBroadcastReadDO> {
+
+    default NotifyBroadcastReadDO selectByUserIdAndUserType(Long userId, Integer userType) {
+        return selectOne(NotifyBroadcastReadDO::getUserId, userId,
+                NotifyBroadcastReadDO::getUserType, userType);
+    }
+
+    /**
+     * 推进已读水位：只允许变大，避免并发时回退
+     */
+    default int updateReadBroadcastId(Long userId, Integer userType, Long readBroadcastId) {
+        return update(new NotifyBroadcastReadDO().setReadBroadcastId(readBroadcastId),
+                new LambdaQueryWrapperX<NotifyBroadcastReadDO>()
+                        .eq(NotifyBroadcastReadDO::getUserId, userId)
+                        .eq(NotifyBroadcastReadDO::getUserType, userType)
+                        .lt(NotifyBroadcastReadDO::getReadBroadcastId, readBroadcastId));
+    }
+
+}
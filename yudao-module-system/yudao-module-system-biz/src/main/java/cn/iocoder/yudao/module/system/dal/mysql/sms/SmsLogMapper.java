@@ -3,10 +3,13 @@ package cn.iocoder.yudao.module.system.dal.mysql.sms;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.framework.mybatis.core.mapper.BaseMapperX;
 import cn.iocoder.yudao.framework.mybatis.core.query.LambdaQueryWrapperX;
+import cn.iocoder.yudao.framework.mybatis.core.query.QueryWrapperX;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.log.SmsLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.util.Collection;
+
 @Mapper
 public interface SmsLogMapper extends BaseMapperX<SmsLogDO> {
 
@@ -22,4 +25,15 @@ public interface SmsLogMapper extends BaseMapperX<SmsLogDO> {
                 .orderByDesc(SmsLogDO::getId));
     }
 
+    default SmsLogDO selectByApiSerialNoAndMobile(String apiSerialNo, String mobile) {
+        return selectOne(new QueryWrapperX<SmsLogDO>()
+                .eq("api_serial_no", apiSerialNo)
+                .eqIfPresent("mobile", mobile)
+                .limitN(1));
+    }
+
+    default int updateByIds(Collection<Long> ids, SmsLogDO update) {
+        return update(update, new LambdaQueryWrapperX<SmsLogDO>().in(SmsLogDO::getId, ids));
+    }
+
 }
@@ -9,14 +9,6 @@ import cn.iocoder.yudao.module.system.dal.dataobject.oauth2.OAuth2AccessTokenDO;
  */
 public interface RedisKeyConstants {
 
-    /**
-     * 指定部门的所有子部门编号数组的缓存
-     * <p>
-     * KEY 格式：dept_children_ids:{id}
-     * VALUE 数据类型：String 子部门编号集合
-     */
-    String DEPT_CHILDREN_ID_LIST = "dept_children_ids";
-
     /**
      * 角色的缓存
      * <p>
@@ -33,22 +25,6 @@ public interface RedisKeyConstants {
      */
     String USER_ROLE_ID_LIST = "user_role_ids";
 
-    /**
-     * 拥有指定菜单的角色编号的缓存
-     * <p>
-     * KEY 格式：menu_role_ids:{menuId}
-     * VALUE 数据类型：String 角色编号集合
-     */
-    String MENU_ROLE_ID_LIST = "menu_role_ids";
-
-    /**
-     * 拥有权限对应的菜单编号数组的缓存
-     * <p>
-     * KEY 格式：permission_menu_ids:{permission}
-     * VALUE 数据类型：String 菜单编号数组
-     */
-    String PERMISSION_MENU_ID_LIST = "permission_menu_ids";
-
     /**
      * OAuth2 客户端的缓存
      * <p>
@@ -75,6 +51,34 @@ public interface RedisKeyConstants {
      */
     String NOTIFY_TEMPLATE = "notify_template";
 
+    /**
+     * 用户未读站内信数量的计数器，用于前端轮询的未读角标
+     * <p>
+     * KEY 格式：notify_message_unread_count:{userType}:{userId}
+     * VALUE 数据格式：String 未读数量
+     * 过期时间：10 分钟，过期后从 DB 重新统计
+     */
+    String NOTIFY_MESSAGE_UNREAD_COUNT = "notify_message_unread_count:%d:%d";
+
+    /**
+     * 站内信广播的受众索引
+     * <p>
+     * KEY 格式：notify_broadcast_ids:{${tenantId}:${userType}}:${受众}，受众例如说 all、role_1、dept_100。
+     * 其中 {} 是 Hash Tag，保证同一用户的多个受众在 Redis Cluster 的同一个 slot，可以在一个 Lua 脚本中统计
+     * VALUE 数据格式：ZSET 广播编号，score 同为广播编号，只保留最新的 1000 个。额外存储一个 0 作为占位，表示已经从 DB 重建完成
+     * 过期时间：1 天，过期后从 DB 重建
+     */
+    String NOTIFY_BROADCAST_IDS = "notify_broadcast_ids:{%s:%d}:%s";
+
+    /**
+     * 用户站内信广播的已读水位的缓存
+     * <p>
+     * KEY 格式：notify_broadcast_read_id:{userType}:{userId}
+     * VALUE 数据格式：String 已读到的广播编号
+     * 过期时间：1 天
+     */
+    String NOTIFY_BROADCAST_READ_ID = "notify_broadcast_read_id:%d:%d";
+
     /**
      * 邮件账号的缓存
      * <p>
@@ -99,6 +103,25 @@ public interface RedisKeyConstants {
      */
     String SMS_TEMPLATE = "sms_template";
 
+    /**
+     * 短信验证码发送的滑动窗口
+     * <p>
+     * KEY 格式：{sms_code_send_window}:{维度}:{值}:{窗口毫秒数}，例如说 {sms_code_send_window}:mobile:15601691300:60000
+     * VALUE 数据格式：ZSET 窗口内的发送记录，score 为发送时间
+     *
+     * 注意，{sms_code_send_window} 是 Redis Cluster 的 hash tag，保证同一次校验的多个窗口落在同一个 slot
+     */
+    String SMS_CODE_SEND_WINDOW = "{sms_code_send_window}:%s:%s:%d";
+
+    /**
+     * 短信渠道的令牌桶，用于批量发送短信时，控制调用短信平台 API 的速率
+     * <p>
+     * KEY 格式：sms_channel_rate_limit:{渠道编号}
+     * VALUE 数据格式：HASH // tokens：剩余令牌数；timestamp：上次补充令牌的时间（毫秒）
+     * 过期时间：2 秒
+     */
+    String SMS_CHANNEL_RATE_LIMIT = "sms_channel_rate_limit:%d";
+
     /**
      * 小程序订阅模版的缓存
      *
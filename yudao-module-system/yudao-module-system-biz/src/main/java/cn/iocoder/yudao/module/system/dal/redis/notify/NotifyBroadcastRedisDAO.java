@@ -0,0 +1,177 @@
+package cn.iocoder.yudao.module.system.dal.redis.notify;
+
+import cn.hutool.core.convert.Convert;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.NOTIFY_BROADCAST_IDS;
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.NOTIFY_BROADCAST_READ_ID;
+
+/**
+ * 站内信广播的 Redis DAO
+ *
+ * 广播是读扩散的，每个受众（全部用户、角色、部门）一个 ZSET，记录发给它的广播编号，只保留最新的 {@link #MAX_SIZE} 个。
+ * 用户的未读数量 = 用户所属受众的 ZSET 中，大于已读水位的广播数量（去重）。用户所属的受众只有几个，每个 ZSET 又有上限，与广播的总数、用户的总数无关
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class NotifyBroadcastRedisDAO {
+
+    /**
+     * 过期时间，过期后从 DB 重建，兜底与 DB 不一致的情况
+     */
+    private static final Duration EXPIRE = Duration.ofDays(1);
+
+    /**
+     * 每个受众最多保留的广播数量，同时也是未读数量的上限
+     */
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * 占位的广播编号，存在时表示已经从 DB 重建完成，用于区分“没有广播”与“需要重建”
+     */
+    private static final String PLACEHOLDER_ID = "0";
+
+    /**
+     * 统计未读数量，同一个广播可能发给用户所属的多个受众，所以需要去重；只有一个受众时，直接 ZCOUNT
+     *
+     * KEYS：各个受众的 KEY；ARGV[1]：已读水位
+     * 返回：未读数量；-1 表示存在未重建的 KEY，需要从 DB 重建
+     */
+    private static final RedisScript<Long> COUNT_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do\n" +
+            "    if not redis.call('ZSCORE', KEYS[i], '" + PLACEHOLDER_ID + "') then\n" +
+            "        return -1\n" +
+            "    end\n" +
+            "end\n" +
+            "if #KEYS == 1 then\n" +
+            "    return redis.call('ZCOUNT', KEYS[1], '(' .. ARGV[1], '+inf')\n" +
+            "end\n" +
+            "local ids = {}\n" +
+            "local count = 0\n" +
+            "for i = 1, #KEYS do\n" +
+            "    for _, id in ipairs(redis.call('ZRANGEBYSCORE', KEYS[i], '(' .. ARGV[1], '+inf')) do\n" +
+            "        if not ids[id] then\n" +
+            "            ids[id] = true\n" +
+            "            count = count + 1\n" +
+            "        end\n" +
+            "    end\n" +
+            "end\n" +
+            "return count", Long.class);
+
+    /**
+     * 添加广播编号，并裁剪到 {@link #MAX_SIZE} 个（保留排名第 0 的占位）
+     *
+     * 无论 KEY 是否存在都添加：并发从 DB 重建时，重建只合并、不删除，所以不会丢失重建期间新增的广播
+     *
+     * KEYS：各个受众的 KEY；ARGV[1]：广播编号；ARGV[2]：裁剪的结束排名；ARGV[3]：过期秒数
+     */
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do\n" +
+            "    redis.call('ZADD', KEYS[i], ARGV[1], ARGV[1])\n" +
+            "    redis.call('ZREMRANGEBYRANK', KEYS[i], 1, ARGV[2])\n" +
+            "    if redis.call('TTL', KEYS[i]) < 0 then\n" +
+            "        redis.call('EXPIRE', KEYS[i], ARGV[3])\n" +
+            "    end\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 统计未读数量
+     *
+     * @param keys            用户所属受众的 KEY 数组
+     * @param readBroadcastId 已读水位
+     * @return 未读数量；null 表示存在 KEY 需要重建
+     */
+    public Long getUnreadCount(List<String> keys, Long readBroadcastId) {
+        Long count = stringRedisTemplate.execute(COUNT_SCRIPT, keys, String.valueOf(readBroadcastId));
+        return count != null && count >= 0 ? count : null;
+    }
+
+    public void add(List<String> keys, Long broadcastId) {
+        stringRedisTemplate.execute(ADD_SCRIPT, keys, String.valueOf(broadcastId),
+                String.valueOf(-(MAX_SIZE + 1)), String.valueOf(EXPIRE.getSeconds()));
+    }
+
+    /**
+     * 从 DB 重建受众的索引
+     *
+     * 与已有的编号合并，而不是删除后重建：读取 DB 之后新增的广播，已经由 {@link #add(List, Long)} 写入，不会被覆盖。
+     * 占位在广播编号之后写入，保证统计时看到的都是完整的索引
+     *
+     * @param key          受众的 KEY
+     * @param broadcastIds 从 DB 读取的广播编号
+     */
+    public void rebuild(String key, Collection<Long> broadcastIds) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = broadcastIds.stream()
+                .sorted(Comparator.reverseOrder()).limit(MAX_SIZE)
+                .map(id -> ZSetOperations.TypedTuple.of(String.valueOf(id), id.doubleValue()))
+                .collect(Collectors.toSet());
+        if (!tuples.isEmpty()) {
+            stringRedisTemplate.opsForZSet().add(key, tuples);
+        }
+        stringRedisTemplate.opsForZSet().add(key, PLACEHOLDER_ID, 0D);
+        stringRedisTemplate.opsForZSet().removeRange(key, 1, -(MAX_SIZE + 1));
+        stringRedisTemplate.expire(key, EXPIRE);
+    }
+
+    /**
+     * 获得最新的广播编号，多个受众合并去重
+     *
+     * @param keys 受众的 KEY 数组
+     * @param size 数量
+     * @return 广播编号数组，按照编号倒序
+     */
+    public List<Long> getLatestIdList(List<String> keys, int size) {
+        Set<Long> ids = new TreeSet<>(Comparator.reverseOrder());
+        keys.forEach(key -> {
+            Set<String> members = stringRedisTemplate.opsForZSet().reverseRangeByScore(key,
+                    1, Double.POSITIVE_INFINITY, 0, size);
+            if (members != null) {
+                members.forEach(member -> ids.add(Long.valueOf(member)));
+            }
+        });
+        return ids.stream().limit(size).collect(Collectors.toList());
+    }
+
+    public Long getReadBroadcastId(Long userId, Integer userType) {
+        return Convert.toLong(stringRedisTemplate.opsForValue().get(formatReadKey(userId, userType)));
+    }
+
+    public void setReadBroadcastId(Long userId, Integer userType, Long readBroadcastId) {
+        stringRedisTemplate.opsForValue().set(formatReadKey(userId, userType), String.valueOf(readBroadcastId), EXPIRE);
+    }
+
+    public void deleteReadBroadcastId(Long userId, Integer userType) {
+        stringRedisTemplate.delete(formatReadKey(userId, userType));
+    }
+
+    /**
+     * 格式化受众的 KEY
+     *
+     * @param tenantId 租户编号
+     * @param userType 用户类型
+     * @param audience 受众，例如说 all、role_1、dept_100
+     * @return 受众的 KEY
+     */
+    public static String formatKey(Long tenantId, Integer userType, String audience) {
+        return String.format(NOTIFY_BROADCAST_IDS, tenantId, userType, audience);
+    }
+
+    private static String formatReadKey(Long userId, Integer userType) {
+        return String.format(NOTIFY_BROADCAST_READ_ID, userType, userId);
+    }
+
+}
@@ -0,0 +1,50 @@
+package cn.iocoder.yudao.module.system.dal.redis.notify;
+
+import cn.hutool.core.convert.Convert;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.NOTIFY_MESSAGE_UNREAD_COUNT;
+
+/**
+ * 用户未读站内信数量的 Redis DAO
+ *
+ * 前端会不断轮询未读数量，所以缓存 COUNT 查询的结果：
+ * 1. 缓存不存在时，从 DB 统计后，使用 SET NX 写入，不覆盖其它线程写入的结果
+ * 2. 新增、已读站内信时，删除缓存，下次轮询时重新统计
+ *
+ * 统计与删除之间仍可能交错（统计读到旧数据，删除后才写入），所以过期时间较短，兜底这种情况
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class NotifyMessageUnreadCountRedisDAO {
+
+    /**
+     * 缓存的过期时间，兜底计数与 DB 不一致的情况
+     */
+    private static final Duration EXPIRE = Duration.ofMinutes(10);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    public Long get(Long userId, Integer userType) {
+        return Convert.toLong(stringRedisTemplate.opsForValue().get(formatKey(userId, userType)));
+    }
+
+    public void setIfAbsent(Long userId, Integer userType, Long count) {
+        stringRedisTemplate.opsForValue().setIfAbsent(formatKey(userId, userType), String.valueOf(count), EXPIRE);
+    }
+
+    public void delete(Long userId, Integer userType) {
+        stringRedisTemplate.delete(formatKey(userId, userType));
+    }
+
+    private static String formatKey(Long userId, Integer userType) {
+        return String.format(NOTIFY_MESSAGE_UNREAD_COUNT, userType, userId);
+    }
+
+}
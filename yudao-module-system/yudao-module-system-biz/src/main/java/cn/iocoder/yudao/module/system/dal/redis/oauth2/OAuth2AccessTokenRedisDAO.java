@@ -1,16 +1,25 @@
 package cn.iocoder.yudao.module.system.dal.redis.oauth2;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.LocalDateTimeUtil;
+import cn.iocoder.yudao.framework.common.util.cache.CacheUtils;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
 import cn.iocoder.yudao.framework.common.util.json.JsonUtils;
 import cn.iocoder.yudao.module.system.dal.dataobject.oauth2.OAuth2AccessTokenDO;
+import cn.iocoder.yudao.module.system.mq.producer.oauth2.OAuth2AccessTokenProducer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -19,17 +28,60 @@ import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.OAUTH2_
 /**
  * {@link OAuth2AccessTokenDO} 的 RedisDAO
  *
+ * 考虑到每个请求都需要校验访问令牌，在 Redis 之前增加一层本地缓存（二级缓存）：
+ * 1. 本地缓存的过期时间，为访问令牌的过期时间，同时不超过 {@link #LOCAL_CACHE_EXPIRE_MAX}，兜底 Redis Pub/Sub 消息丢失的情况
+ * 2. 删除访问令牌时，通过 {@link OAuth2AccessTokenProducer} 广播，让所有节点清理本地缓存
+ *
  * @author 芋道源码
  */
 @Repository
 public class OAuth2AccessTokenRedisDAO {
 
+    /**
+     * 本地缓存的最大数量
+     */
+    private static final long LOCAL_CACHE_MAXIMUM_SIZE = 10000;
+    /**
+     * 本地缓存的最大过期时间
+     */
+    private static final Duration LOCAL_CACHE_EXPIRE_MAX = Duration.ofMinutes(1);
+
     @Resource
     private StringRedisTemplate stringRedisTemplate;
 
+    @Resource
+    private OAuth2AccessTokenProducer oauth2AccessTokenProducer;
+
+    /**
+     * 访问令牌的本地缓存
+     *
+     * KEY：访问令牌
+     * VALUE：访问令牌信息
+     */
+    private final Cache<String, OAuth2AccessTokenDO> localCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAXIMUM_SIZE)
+            .expireAfter(new AccessTokenExpiry())
+            .recordStats()
+            .build();
+
+    public OAuth2AccessTokenRedisDAO() {
+        CacheUtils.registerCache("system-oauth2-access-token", localCache);
+    }
+
     public OAuth2AccessTokenDO get(String accessToken) {
+        // 优先从本地缓存中获取
+        OAuth2AccessTokenDO accessTokenDO = localCache.getIfPresent(accessToken);
+        if (accessTokenDO != null) {
+            return accessTokenDO;
+        }
+
+        // 获取不到，从 Redis 中获取，并写入本地缓存
         String redisKey = formatKey(accessToken);
-        return JsonUtils.parseObject(stringRedisTemplate.opsForValue().get(redisKey), OAuth2AccessTokenDO.class);
+        accessTokenDO = JsonUtils.parseObject(stringRedisTemplate.opsForValue().get(redisKey), OAuth2AccessTokenDO.class);
+        if (accessTokenDO != null && accessTokenDO.getExpiresTime() != null) {
+            localCache.put(accessToken, accessTokenDO);
+        }
+        return accessTokenDO;
     }
 
     public void set(OAuth2AccessTokenDO accessTokenDO) {
@@ -45,15 +97,65 @@ public class OAuth2AccessTokenRedisDAO {
     public void delete(String accessToken) {
         String redisKey = formatKey(accessToken);
         stringRedisTemplate.delete(redisKey);
+        // 清理本地缓存
+        invalidateLocalCache(Collections.singletonList(accessToken));
+        oauth2AccessTokenProducer.sendAccessTokenDeleteMessage(Collections.singletonList(accessToken));
     }
 
     public void deleteList(Collection<String> accessTokens) {
         List<String> redisKeys = CollectionUtils.convertList(accessTokens, OAuth2AccessTokenRedisDAO::formatKey);
         stringRedisTemplate.delete(redisKeys);
+        // 清理本地缓存
+        invalidateLocalCache(accessTokens);
+        oauth2AccessTokenProducer.sendAccessTokenDeleteMessage(accessTokens);
+    }
+
+    /**
+     * 清理本地缓存，用于接收到访问令牌删除的广播消息
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void invalidateLocalCache(Collection<String> accessTokens) {
+        if (CollUtil.isEmpty(accessTokens)) {
+            return;
+        }
+        localCache.invalidateAll(accessTokens);
+    }
+
+    /**
+     * 获得本地缓存的统计信息，包括命中、未命中、淘汰次数等
+     *
+     * @return 统计信息
+     */
+    public CacheStats getLocalCacheStats() {
+        return localCache.stats();
     }
 
     private static String formatKey(String accessToken) {
         return String.format(OAUTH2_ACCESS_TOKEN, accessToken);
     }
 
+    /**
+     * 基于访问令牌过期时间的 {@link Expiry} 实现类
+     */
+    private static class AccessTokenExpiry implements Expiry<String, OAuth2AccessTokenDO> {
+
+        @Override
+        public long expireAfterCreate(String key, OAuth2AccessTokenDO value, long currentTime) {
+            long expireNanos = Duration.between(LocalDateTime.now(), value.getExpiresTime()).toNanos();
+            return Math.max(0, Math.min(expireNanos, LOCAL_CACHE_EXPIRE_MAX.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, OAuth2AccessTokenDO value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, OAuth2AccessTokenDO value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
 }
@@ -0,0 +1,98 @@
+package cn.iocoder.yudao.module.system.dal.redis.sms;
+
+import cn.hutool.core.thread.ThreadUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.SMS_CHANNEL_RATE_LIMIT;
+
+/**
+ * 短信渠道限流的 Redis DAO
+ *
+ * 基于 HASH 实现令牌桶：每个短信渠道一个令牌桶，容量为 QPS，按照流逝的时间补充令牌。
+ * 令牌桶存储在 Redis 中，所以多个节点同时批量发送时，合计的速率也不会超过短信平台的限制
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SmsChannelRateLimitRedisDAO {
+
+    /**
+     * 令牌桶的过期时间（毫秒），超过该时间未使用，令牌桶必然已经补满
+     */
+    private static final long EXPIRE_MILLIS = 2000;
+
+    /**
+     * 获取令牌
+     *
+     * 当前时间使用 Redis 服务端的 TIME，而不是各节点的时钟，避免节点之间的时钟偏差导致多补充或少补充令牌。
+     * 因为 TIME 是非确定性命令，所以需要 redis.replicate_commands() 按照执行效果复制（Redis 5.0+ 默认开启，7.0 起废弃，所以先判断是否存在）
+     *
+     * KEYS[1]：令牌桶 KEY
+     * ARGV[1]：QPS，即令牌桶容量；ARGV[2]：过期时间（毫秒）
+     * 返回：0 表示获取成功；否则，为下一个令牌的等待时间（毫秒）
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.replicate_commands then\n" +
+            "    redis.replicate_commands()\n" +
+            "end\n" +
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'timestamp')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local timestamp = tonumber(bucket[2])\n" +
+            "if tokens == nil or timestamp == nil then\n" +
+            "    tokens = capacity\n" +
+            "    timestamp = now\n" +
+            "end\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - timestamp) * capacity / 1000)\n" +
+            "local wait = 0\n" +
+            "if tokens >= 1 then\n" +
+            "    tokens = tokens - 1\n" +
+            "else\n" +
+            "    wait = math.ceil((1 - tokens) * 1000 / capacity)\n" +
+            "end\n" +
+            "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'timestamp', tostring(math.max(now, timestamp)))\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "return wait", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param channelId 渠道编号
+     * @param qps       每秒 API 调用次数
+     * @return 0 表示获取成功；否则，为下一个令牌的等待时间（毫秒）
+     */
+    public long tryAcquire(Long channelId, int qps) {
+        Long wait = stringRedisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(formatKey(channelId)),
+                String.valueOf(Math.max(1, qps)), String.valueOf(EXPIRE_MILLIS));
+        return wait != null ? wait : 0;
+    }
+
+    /**
+     * 获取一个令牌，令牌不足时，阻塞等待
+     *
+     * @param channelId 渠道编号
+     * @param qps       每秒 API 调用次数
+     */
+    public void acquire(Long channelId, int qps) {
+        long wait;
+        while ((wait = tryAcquire(channelId, qps)) > 0) {
+            ThreadUtil.sleep(wait);
+        }
+    }
+
+    private static String formatKey(Long channelId) {
+        return String.format(SMS_CHANNEL_RATE_LIMIT, channelId);
+    }
+
+}
@@ -0,0 +1,94 @@
+package cn.iocoder.yudao.module.system.dal.redis.sms;
+
+import cn.hutool.core.util.IdUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants.SMS_CODE_SEND_WINDOW;
+
+/**
+ * 短信验证码发送限流的 Redis DAO
+ *
+ * 基于 ZSET 实现滑动窗口：每个限流维度（手机号、IP、场景）+ 窗口大小，对应一个 ZSET，记录窗口内的发送时间。
+ * 通过 Lua 脚本，先校验所有窗口，全部未达到上限时，再统一记录本次发送，保证并发下不会超发。
+ * 因为一个脚本同时操作多个窗口，所以 KEY 使用相同的 hash tag，保证 Redis Cluster 下落在同一个 slot
+ *
+ * @author 芋道源码
+ */
+@Repository
+public class SmsCodeLimitRedisDAO {
+
+    /**
+     * 校验并记录发送
+     *
+     * 当前时间使用 Redis 服务端的 TIME，而不是各节点的时钟，避免节点之间的时钟偏差导致窗口提前或延后滑过。
+     * 因为 TIME 是非确定性命令，所以需要 redis.replicate_commands() 按照执行效果复制（Redis 5.0+ 默认开启，7.0 起废弃，所以先判断是否存在）
+     *
+     * KEYS：各个窗口的 KEY；ARGV[1]：本次发送的编号；ARGV[2..]：各个窗口的大小（毫秒）、上限交替
+     * 返回：0 表示通过；否则，为达到上限的窗口序号（从 1 开始）
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.replicate_commands then\n" +
+            "    redis.replicate_commands()\n" +
+            "end\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "for i = 1, #KEYS do\n" +
+            "    local window = tonumber(ARGV[i * 2])\n" +
+            "    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window)\n" +
+            "    if redis.call('ZCARD', KEYS[i]) >= tonumber(ARGV[i * 2 + 1]) then\n" +
+            "        return i\n" +
+            "    end\n" +
+            "end\n" +
+            "for i = 1, #KEYS do\n" +
+            "    redis.call('ZADD', KEYS[i], now, ARGV[1])\n" +
+            "    redis.call('PEXPIRE', KEYS[i], ARGV[i * 2])\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 尝试发送：所有窗口都未达到上限时，记录本次发送
+     *
+     * @param limits 窗口 KEY 与（窗口大小、上限）的映射，按照校验的优先级排序
+     * @return 达到上限的窗口 KEY；null 表示通过
+     */
+    public String tryAcquire(LinkedHashMap<String, KeyValue<Duration, Integer>> limits) {
+        if (limits.isEmpty()) {
+            return null;
+        }
+        List<String> keys = new ArrayList<>(limits.keySet());
+        List<String> args = new ArrayList<>(1 + limits.size() * 2);
+        args.add(IdUtil.fastSimpleUUID());
+        limits.values().forEach(limit -> {
+            args.add(String.valueOf(limit.getKey().toMillis()));
+            args.add(String.valueOf(limit.getValue()));
+        });
+        Long index = stringRedisTemplate.execute(ACQUIRE_SCRIPT, keys, args.toArray());
+        return index == null || index == 0 ? null : keys.get(index.intValue() - 1);
+    }
+
+    /**
+     * 格式化窗口 KEY
+     *
+     * @param dimension 维度，例如说 mobile、ip、scene
+     * @param value     维度的值
+     * @param window    窗口大小
+     * @return 窗口 KEY
+     */
+    public static String formatKey(String dimension, Object value, Duration window) {
+        return String.format(SMS_CODE_SEND_WINDOW, dimension, value, window.toMillis());
+    }
+
+}
@@ -27,6 +27,20 @@ public class SmsCodeProperties {
      */
     @NotNull(message = "每日发送最大数量不能为空")
     private Integer sendMaximumQuantityPerDay;
+    /**
+     * 每个 IP 每小时发送最大数量，为空时不限制
+     */
+    private Integer sendMaximumQuantityPerIpPerHour;
+    /**
+     * 每个 IP 每日发送最大数量，为空时不限制
+     */
+    private Integer sendMaximumQuantityPerIpPerDay;
+    /**
+     * 每个场景每分钟发送最大数量，为空时不限制
+     *
+     * 用于兜底更换手机号、IP 的短信轰炸
+     */
+    private Integer sendMaximumQuantityPerScenePerMinute;
     /**
      * 验证码最小值
      */
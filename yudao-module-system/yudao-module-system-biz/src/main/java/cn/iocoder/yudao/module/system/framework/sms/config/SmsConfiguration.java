@@ -5,19 +5,40 @@ import cn.iocoder.yudao.module.system.framework.sms.core.client.impl.SmsClientFa
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
- * 短信配置类，包括短信客户端、短信验证码两部分
+ * 短信配置类，包括短信客户端、短信验证码、批量发送三部分
  *
  * @author 芋道源码
  */
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties(SmsCodeProperties.class)
+@EnableConfigurationProperties({SmsCodeProperties.class, SmsSendProperties.class})
 public class SmsConfiguration {
 
+    public static final String SMS_BATCH_SEND_EXECUTOR = "SMS_BATCH_SEND_EXECUTOR";
+
     @Bean
     public SmsClientFactory smsClientFactory() {
         return new SmsClientFactoryImpl();
     }
 
+    @Bean(SMS_BATCH_SEND_EXECUTOR)
+    public ThreadPoolTaskExecutor smsBatchSendExecutor(SmsSendProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getBatchSendThreads()); // 设置核心线程数
+        executor.setMaxPoolSize(properties.getBatchSendThreads()); // 设置最大线程数
+        executor.setQueueCapacity(properties.getBatchSendQueueCapacity()); // 设置队列大小
+        executor.setThreadNamePrefix("sms-batch-send-"); // 配置线程池的前缀
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 关闭时，等待已投递的批次发送完成，避免短信日志停留在发送中
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        // 进行加载
+        executor.initialize();
+        return executor;
+    }
+
 }
@@ -0,0 +1,77 @@
+package cn.iocoder.yudao.module.system.framework.sms.config;
+
+import cn.iocoder.yudao.module.system.framework.sms.core.enums.SmsChannelEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 批量发送短信的配置项
+ *
+ * @author 芋道源码
+ */
+@ConfigurationProperties(prefix = "yudao.sms-send")
+@Validated
+@Data
+public class SmsSendProperties {
+
+    /**
+     * 每批的手机号数量：按批创建短信日志、投递一条 MQ 消息
+     */
+    @NotNull(message = "每批的手机号数量不能为空")
+    private Integer batchSize = 1000;
+
+    /**
+     * 批量发送的线程数
+     *
+     * 批量发送会阻塞等待渠道的令牌，所以使用独立的线程池，不占用 @Async 共享的线程池
+     */
+    @NotNull(message = "批量发送的线程数不能为空")
+    private Integer batchSendThreads = 2;
+    /**
+     * 批量发送的队列大小，队列满时由投递 MQ 消息的线程执行发送，从而反压批量发送的调用方
+     */
+    @NotNull(message = "批量发送的队列大小不能为空")
+    private Integer batchSendQueueCapacity = 100;
+
+    /**
+     * 默认的每秒 API 调用次数
+     */
+    @NotNull(message = "默认的每秒 API 调用次数不能为空")
+    private Integer defaultQps = 100;
+    /**
+     * 各短信平台的每秒 API 调用次数，需要与短信平台的 QPS 限制匹配
+     *
+     * key：渠道编码，枚举 {@link SmsChannelEnum}
+     * value：每秒 API 调用次数
+     */
+    private Map<String, Integer> channelQps = Collections.emptyMap();
+
+    /**
+     * 切换到备用模板的连续失败次数
+     */
+    @NotNull(message = "切换到备用模板的连续失败次数不能为空")
+    private Integer failoverErrorCount = 5;
+    /**
+     * 切换到备用模板后，暂停使用原渠道的时长
+     */
+    @NotNull(message = "暂停使用原渠道的时长不能为空")
+    private Duration failoverDuration = Duration.ofMinutes(1);
+    /**
+     * 备用模板
+     *
+     * key：短信模板编码
+     * value：备用的短信模板编码，一般配置在另一个短信渠道，并且模板参数相同
+     */
+    private Map<String, String> failoverTemplateCodes = Collections.emptyMap();
+
+    public int getQps(String channelCode) {
+        return channelQps.getOrDefault(channelCode, defaultQps);
+    }
+
+}
@@ -5,6 +5,7 @@ import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsReceiveRe
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsTemplateRespDTO;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,6 +35,37 @@ public interface SmsClient {
     SmsSendRespDTO sendSms(Long logId, String mobile, String apiTemplateId,
                            List<KeyValue<String, Object>> templateParams) throws Throwable;
 
+    /**
+     * 获得单次批量发送的最大手机号数量
+     *
+     * 默认为 1，即短信平台不支持批量发送，由 {@link #sendBatchSms(List, List, String, List)} 逐条发送
+     *
+     * @return 最大手机号数量
+     */
+    default int getMaxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * 批量发送消息，所有手机号使用相同的模板参数
+     *
+     * 支持批量发送的短信平台，需要重写该方法，通过一次 API 调用发送
+     *
+     * @param logIds 日志编号，与 mobiles 一一对应
+     * @param mobiles 手机号，数量不超过 {@link #getMaxBatchSize()}
+     * @param apiTemplateId 短信 API 的模板编号
+     * @param templateParams 短信模板参数。通过 List 数组，保证参数的顺序
+     * @return 短信发送结果，与 mobiles 一一对应
+     */
+    default List<SmsSendRespDTO> sendBatchSms(List<Long> logIds, List<String> mobiles, String apiTemplateId,
+                                              List<KeyValue<String, Object>> templateParams) throws Throwable {
+        List<SmsSendRespDTO> results = new ArrayList<>(mobiles.size());
+        for (int i = 0; i < mobiles.size(); i++) {
+            results.add(sendSms(logIds.get(i), mobiles.get(i), apiTemplateId, templateParams));
+        }
+        return results;
+    }
+
     /**
      * 解析接收短信的接收结果
      *
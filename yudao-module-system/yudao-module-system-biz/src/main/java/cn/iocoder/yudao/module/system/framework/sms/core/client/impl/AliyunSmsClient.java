@@ -44,6 +44,11 @@ public class AliyunSmsClient extends AbstractSmsClient {
 
     private static final String RESPONSE_CODE_SUCCESS = "OK";
 
+    /**
+     * SendSms 单次最多支持的手机号数量
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
     public AliyunSmsClient(SmsChannelProperties properties) {
         super(properties);
         Assert.notEmpty(properties.getApiKey(), "apiKey 不能为空");
@@ -73,6 +78,35 @@ public class AliyunSmsClient extends AbstractSmsClient {
                 .setApiMsg(response.getStr("Message"));
     }
 
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public List<SmsSendRespDTO> sendBatchSms(List<Long> logIds, List<String> mobiles, String apiTemplateId,
+                                             List<KeyValue<String, Object>> templateParams) throws Throwable {
+        Assert.notBlank(properties.getSignature(), "短信签名不能为空");
+        // 1. 执行请求：多个手机号使用逗号分隔，共用一个 BizId；不传递 OutId，回执通过 BizId + 手机号匹配日志
+        // 参考链接 https://api.aliyun.com/document/Dysmsapi/2017-05-25/SendSms
+        TreeMap<String, Object> queryParam = new TreeMap<>();
+        queryParam.put("PhoneNumbers", String.join(",", mobiles));
+        queryParam.put("SignName", properties.getSignature());
+        queryParam.put("TemplateCode", apiTemplateId);
+        queryParam.put("TemplateParam", JsonUtils.toJsonString(MapUtils.convertMap(templateParams)));
+        JSONObject response = request("SendSms", queryParam);
+
+        // 2. 解析请求：整批成功或失败
+        List<SmsSendRespDTO> results = new ArrayList<>(mobiles.size());
+        mobiles.forEach(mobile -> results.add(new SmsSendRespDTO()
+                .setSuccess(Objects.equals(response.getStr("Code"), RESPONSE_CODE_SUCCESS))
+                .setSerialNo(response.getStr("BizId"))
+                .setApiRequestId(response.getStr("RequestId"))
+                .setApiCode(response.getStr("Code"))
+                .setApiMsg(response.getStr("Message"))));
+        return results;
+    }
+
     @Override
     public List<SmsReceiveRespDTO> parseSmsReceiveStatus(String text) {
         JSONArray statuses = JSONUtil.parseArray(text);
@@ -1,8 +1,10 @@
 package cn.iocoder.yudao.module.system.framework.sms.core.client.impl;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.format.FastDateFormat;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.HexUtil;
+import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.crypto.digest.DigestUtil;
 import cn.hutool.crypto.digest.HmacAlgorithm;
@@ -51,6 +53,11 @@ public class TencentSmsClient extends AbstractSmsClient {
      */
     private static final long INTERNATIONAL_CHINA = 0L;
 
+    /**
+     * SendSms 单次最多支持的手机号数量
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
     public TencentSmsClient(SmsChannelProperties properties) {
         super(properties);
         Assert.notEmpty(properties.getApiSecret(), "apiSecret 不能为空");
@@ -110,6 +117,81 @@ public class TencentSmsClient extends AbstractSmsClient {
                 .setApiMsg(sendResult.getStr("Message"));
     }
 
+    @Override
+    public int getMaxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public List<SmsSendRespDTO> sendBatchSms(List<Long> logIds, List<String> mobiles, String apiTemplateId,
+                                             List<KeyValue<String, Object>> templateParams) throws Throwable {
+        // 1. 执行请求
+        // 参考链接 https://cloud.tencent.com/document/product/382/55981
+        TreeMap<String, Object> body = new TreeMap<>();
+        body.put("PhoneNumberSet", mobiles.toArray(new String[0]));
+        body.put("SmsSdkAppId", getSdkAppId());
+        body.put("SignName", properties.getSignature());
+        body.put("TemplateId", apiTemplateId);
+        body.put("TemplateParamSet", ArrayUtils.toArray(templateParams, param -> String.valueOf(param.getValue())));
+        JSONObject response = request("SendSms", body);
+
+        // 2.1 整批失败
+        JSONObject responseResult = response.getJSONObject("Response");
+        String requestId = responseResult.getStr("RequestId");
+        JSONObject error = responseResult.getJSONObject("Error");
+        List<SmsSendRespDTO> results = new ArrayList<>(mobiles.size());
+        if (error != null) {
+            mobiles.forEach(mobile -> results.add(new SmsSendRespDTO().setSuccess(false).setApiRequestId(requestId)
+                    .setApiCode(error.getStr("Code")).setApiMsg(error.getStr("Message"))));
+            return results;
+        }
+        // 2.2 逐个手机号的结果。返回的手机号为 E.164 格式，例如说 +8618511122233，所以按照规范化后的手机号建立索引
+        Map<String, List<JSONObject>> sendResultMap = new HashMap<>();
+        JSONArray sendResults = responseResult.getJSONArray("SendStatusSet");
+        for (int i = 0; i < sendResults.size(); i++) {
+            JSONObject sendResult = sendResults.getJSONObject(i);
+            sendResultMap.computeIfAbsent(normalizeMobile(sendResult.getStr("PhoneNumber")), key -> new ArrayList<>())
+                    .add(sendResult);
+        }
+        // 同一个手机号出现多次时，按照出现的顺序，依次对应返回的结果
+        Map<String, Integer> matchCounts = new HashMap<>();
+        for (String mobile : mobiles) {
+            String key = normalizeMobile(mobile);
+            List<JSONObject> sendResultList = sendResultMap.get(key);
+            if (CollUtil.isEmpty(sendResultList)) {
+                results.add(new SmsSendRespDTO().setSuccess(false).setApiRequestId(requestId)
+                        .setApiMsg("未返回该手机号的发送结果"));
+                continue;
+            }
+            int index = matchCounts.merge(key, 1, Integer::sum) - 1;
+            JSONObject sendResult = sendResultList.get(Math.min(index, sendResultList.size() - 1));
+            results.add(new SmsSendRespDTO().setSuccess(Objects.equals(API_CODE_SUCCESS, sendResult.getStr("Code")))
+                    .setApiRequestId(requestId)
+                    .setSerialNo(sendResult.getStr("SerialNo"))
+                    .setApiCode(sendResult.getStr("Code"))
+                    .setApiMsg(sendResult.getStr("Message")));
+        }
+        return results;
+    }
+
+    /**
+     * 规范化手机号：去掉非数字的字符，以及国内手机号的 86、0086 国家码
+     *
+     * @param mobile 手机号，例如说 +8618511122233、18511122233
+     * @return 规范化后的手机号，例如说 18511122233
+     */
+    @VisibleForTesting
+    static String normalizeMobile(String mobile) {
+        String digits = ReUtil.delAll("\\D", StrUtil.nullToEmpty(mobile));
+        if (digits.startsWith("0086")) {
+            return digits.substring(4);
+        }
+        if (digits.startsWith("86") && digits.length() == 13) {
+            return digits.substring(2);
+        }
+        return digits;
+    }
+
     @Override
     public List<SmsReceiveRespDTO> parseSmsReceiveStatus(String text) {
         JSONArray statuses = JSONUtil.parseArray(text);
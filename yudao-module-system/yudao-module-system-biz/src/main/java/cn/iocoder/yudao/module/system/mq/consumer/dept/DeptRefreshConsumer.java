@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.dept.DeptRefreshMessage;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link DeptRefreshMessage} 的消费者，清理部门树的本地索引
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class DeptRefreshConsumer extends AbstractRedisChannelMessageListener<DeptRefreshMessage> {
+
+    @Resource
+    private DeptService deptService;
+
+    @Override
+    public void onMessage(DeptRefreshMessage message) {
+        log.info("[onMessage][收到部门刷新消息({})]", message);
+        deptService.invalidateDeptTreeLocalCache(message.getTenantId());
+    }
+
+}
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.dal.redis.oauth2.OAuth2AccessTokenRedisDAO;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenDeleteMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link OAuth2AccessTokenDeleteMessage} 的消费者，清理本地缓存的访问令牌
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class OAuth2AccessTokenDeleteConsumer extends AbstractRedisChannelMessageListener<OAuth2AccessTokenDeleteMessage> {
+
+    @Resource
+    private OAuth2AccessTokenRedisDAO oauth2AccessTokenRedisDAO;
+
+    @Override
+    public void onMessage(OAuth2AccessTokenDeleteMessage message) {
+        log.debug("[onMessage][收到访问令牌删除消息，数量({})]", message.getAccessTokens().size());
+        oauth2AccessTokenRedisDAO.invalidateLocalCache(message.getAccessTokens());
+    }
+
+}
@@ -0,0 +1,29 @@
+package cn.iocoder.yudao.module.system.mq.consumer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessageListener;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionRefreshMessage;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link PermissionRefreshMessage} 的消费者，清理权限的本地缓存
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class PermissionRefreshConsumer extends AbstractRedisChannelMessageListener<PermissionRefreshMessage> {
+
+    @Resource
+    private PermissionService permissionService;
+
+    @Override
+    public void onMessage(PermissionRefreshMessage message) {
+        log.info("[onMessage][收到权限刷新消息({})]", message);
+        permissionService.invalidatePermissionLocalCache(message.getUserId(), message.getRoleId());
+    }
+
+}
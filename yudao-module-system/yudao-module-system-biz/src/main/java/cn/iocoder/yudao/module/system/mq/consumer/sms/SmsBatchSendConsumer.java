@@ -0,0 +1,32 @@
+package cn.iocoder.yudao.module.system.mq.consumer.sms;
+
+import cn.iocoder.yudao.module.system.framework.sms.config.SmsConfiguration;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsBatchSendMessage;
+import cn.iocoder.yudao.module.system.service.sms.SmsSendService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 针对 {@link SmsBatchSendMessage} 的消费者
+ *
+ * @author 芋道源码
+ */
+@Component
+@Slf4j
+public class SmsBatchSendConsumer {
+
+    @Resource
+    private SmsSendService smsSendService;
+
+    @EventListener
+    @Async(SmsConfiguration.SMS_BATCH_SEND_EXECUTOR) // 使用独立的线程池异步执行，避免阻塞等待令牌时，占满 @Async 共享的线程池
+    public void onMessage(SmsBatchSendMessage message) {
+        log.info("[onMessage][短信模板({}) 手机号数量({})]", message.getTemplateCode(), message.getMobiles().size());
+        smsSendService.doSendBatchSms(message);
+    }
+
+}
@@ -0,0 +1,21 @@
+package cn.iocoder.yudao.module.system.mq.message.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 部门数据刷新的广播消息，用于清理各节点的部门树本地索引
+ *
+ * @author 芋道源码
+ */
+@Data
+public class DeptRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 租户编号
+     *
+     * 为空时，表示未开启多租户
+     */
+    private Long tenantId;
+
+}
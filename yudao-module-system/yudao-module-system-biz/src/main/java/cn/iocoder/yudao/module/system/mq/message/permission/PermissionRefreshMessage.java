@@ -0,0 +1,27 @@
+package cn.iocoder.yudao.module.system.mq.message.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.pubsub.AbstractRedisChannelMessage;
+import lombok.Data;
+
+/**
+ * 权限数据刷新的广播消息，用于清理各节点的权限本地缓存
+ *
+ * @author 芋道源码
+ */
+@Data
+public class PermissionRefreshMessage extends AbstractRedisChannelMessage {
+
+    /**
+     * 用户编号
+     *
+     * 非空时，表示该用户的角色发生变化
+     */
+    private Long userId;
+    /**
+     * 角色编号
+     *
+     * 非空时，表示该角色的菜单、状态等发生变化
+     */
+    private Long roleId;
+
+}
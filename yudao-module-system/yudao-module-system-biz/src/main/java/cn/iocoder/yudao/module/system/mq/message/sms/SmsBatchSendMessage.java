@@ -0,0 +1,50 @@
+package cn.iocoder.yudao.module.system.mq.message.sms;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 短信批量发送消息
+ *
+ * 所有手机号使用相同的短信模板、模板参数
+ *
+ * @author 芋道源码
+ */
+@Data
+public class SmsBatchSendMessage {
+
+    /**
+     * 短信日志编号数组，与 {@link #mobiles} 一一对应
+     */
+    @NotEmpty(message = "短信日志编号数组不能为空")
+    private List<Long> logIds;
+    /**
+     * 手机号数组
+     */
+    @NotEmpty(message = "手机号数组不能为空")
+    private List<String> mobiles;
+    /**
+     * 短信模板编码，用于失败时查找备用模板
+     */
+    @NotNull(message = "短信模板编码不能为空")
+    private String templateCode;
+    /**
+     * 短信渠道编号
+     */
+    @NotNull(message = "短信渠道编号不能为空")
+    private Long channelId;
+    /**
+     * 短信 API 的模板编号
+     */
+    @NotNull(message = "短信 API 的模板编号不能为空")
+    private String apiTemplateId;
+    /**
+     * 短信模板参数
+     */
+    private List<KeyValue<String, Object>> templateParams;
+
+}
@@ -0,0 +1,30 @@
+package cn.iocoder.yudao.module.system.mq.producer.dept;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.dept.DeptRefreshMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * Dept 部门相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class DeptProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link DeptRefreshMessage} 消息
+     *
+     * @param tenantId 租户编号，允许空
+     */
+    public void sendDeptRefreshMessage(Long tenantId) {
+        DeptRefreshMessage message = new DeptRefreshMessage().setTenantId(tenantId);
+        redisMQTemplate.send(message);
+    }
+
+}
@@ -0,0 +1,33 @@
+package cn.iocoder.yudao.module.system.mq.producer.oauth2;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.oauth2.OAuth2AccessTokenDeleteMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * OAuth 2.0 访问令牌相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class OAuth2AccessTokenProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link OAuth2AccessTokenDeleteMessage} 消息
+     *
+     * @param accessTokens 访问令牌数组
+     */
+    public void sendAccessTokenDeleteMessage(Collection<String> accessTokens) {
+        OAuth2AccessTokenDeleteMessage message = new OAuth2AccessTokenDeleteMessage()
+                .setAccessTokens(new ArrayList<>(accessTokens));
+        redisMQTemplate.send(message);
+    }
+
+}
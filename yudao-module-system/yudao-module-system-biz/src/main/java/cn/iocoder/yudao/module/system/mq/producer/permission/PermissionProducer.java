@@ -0,0 +1,31 @@
+package cn.iocoder.yudao.module.system.mq.producer.permission;
+
+import cn.iocoder.yudao.framework.mq.redis.core.RedisMQTemplate;
+import cn.iocoder.yudao.module.system.mq.message.permission.PermissionRefreshMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * Permission 权限相关消息的 Producer
+ *
+ * @author 芋道源码
+ */
+@Component
+public class PermissionProducer {
+
+    @Resource
+    private RedisMQTemplate redisMQTemplate;
+
+    /**
+     * 发送 {@link PermissionRefreshMessage} 消息
+     *
+     * @param userId 用户编号，允许空
+     * @param roleId 角色编号，允许空
+     */
+    public void sendPermissionRefreshMessage(Long userId, Long roleId) {
+        PermissionRefreshMessage message = new PermissionRefreshMessage().setUserId(userId).setRoleId(roleId);
+        redisMQTemplate.send(message);
+    }
+
+}
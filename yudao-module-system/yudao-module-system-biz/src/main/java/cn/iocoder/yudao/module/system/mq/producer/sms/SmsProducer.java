@@ -1,6 +1,7 @@
 package cn.iocoder.yudao.module.system.mq.producer.sms;
 
 import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsBatchSendMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
@@ -38,4 +39,22 @@ public class SmsProducer {
         applicationContext.publishEvent(message);
     }
 
+    /**
+     * 发送 {@link SmsBatchSendMessage} 消息
+     *
+     * @param logIds 短信日志编号数组
+     * @param mobiles 手机号数组
+     * @param templateCode 短信模板编码
+     * @param channelId 渠道编号
+     * @param apiTemplateId 短信模板编号
+     * @param templateParams 短信模板参数
+     */
+    public void sendSmsBatchSendMessage(List<Long> logIds, List<String> mobiles, String templateCode,
+                                        Long channelId, String apiTemplateId, List<KeyValue<String, Object>> templateParams) {
+        SmsBatchSendMessage message = new SmsBatchSendMessage().setLogIds(logIds).setMobiles(mobiles)
+                .setTemplateCode(templateCode);
+        message.setChannelId(channelId).setApiTemplateId(apiTemplateId).setTemplateParams(templateParams);
+        applicationContext.publishEvent(message);
+    }
+
 }
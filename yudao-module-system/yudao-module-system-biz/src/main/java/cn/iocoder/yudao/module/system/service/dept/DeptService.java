@@ -105,6 +105,13 @@ public interface DeptService {
      */
     Set<Long> getChildDeptIdListFromCache(Long id);
 
+    /**
+     * 清理部门树的本地索引，例如说接收到其它节点的刷新广播时
+     *
+     * @param tenantId 租户编号。为空时，表示未开启多租户
+     */
+    void invalidateDeptTreeLocalCache(Long tenantId);
+
     /**
      * 校验部门们是否有效。如下情况，视为无效：
      * 1. 部门编号不存在
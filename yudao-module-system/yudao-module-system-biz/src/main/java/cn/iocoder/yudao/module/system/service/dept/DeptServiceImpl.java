@@ -4,16 +4,16 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
-import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
+import cn.iocoder.yudao.framework.datapermission.core.util.DataPermissionUtils;
+import cn.iocoder.yudao.framework.tenant.core.cache.TenantLocalCache;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptListReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptMapper;
-import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
+import cn.iocoder.yudao.module.system.mq.producer.dept.DeptProducer;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -34,12 +34,18 @@ import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 @Slf4j
 public class DeptServiceImpl implements DeptService {
 
+    /**
+     * 部门树的本地索引，每个租户一份
+     */
+    private final TenantLocalCache<DeptTreeIndex> deptTreeIndexCache = new TenantLocalCache<>("system-dept-tree-index");
+
     @Resource
     private DeptMapper deptMapper;
 
+    @Resource
+    private DeptProducer deptProducer;
+
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public Long createDept(DeptSaveReqVO createReqVO) {
         if (createReqVO.getParentId() == null) {
             createReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
@@ -52,12 +58,13 @@ public class DeptServiceImpl implements DeptService {
         // 插入部门
         DeptDO dept = BeanUtils.toBean(createReqVO, DeptDO.class);
         deptMapper.insert(dept);
+
+        // 刷新部门树的本地索引
+        refreshDeptTreeLocalCache(dept.getId());
         return dept.getId();
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public void updateDept(DeptSaveReqVO updateReqVO) {
         if (updateReqVO.getParentId() == null) {
             updateReqVO.setParentId(DeptDO.PARENT_ID_ROOT);
@@ -72,11 +79,12 @@ public class DeptServiceImpl implements DeptService {
         // 更新部门
         DeptDO updateObj = BeanUtils.toBean(updateReqVO, DeptDO.class);
         deptMapper.updateById(updateObj);
+
+        // 刷新部门树的本地索引
+        refreshDeptTreeLocalCache(updateObj.getId());
     }
 
     @Override
-    @CacheEvict(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，因为操作一个部门，涉及到多个缓存
     public void deleteDept(Long id) {
         // 校验是否存在
         validateDeptExists(id);
@@ -86,6 +94,9 @@ public class DeptServiceImpl implements DeptService {
         }
         // 删除部门
         deptMapper.deleteById(id);
+
+        // 刷新部门树的本地索引
+        refreshDeptTreeLocalCache(id);
     }
 
     @VisibleForTesting
@@ -171,21 +182,10 @@ public class DeptServiceImpl implements DeptService {
 
     @Override
     public List<DeptDO> getChildDeptList(Collection<Long> ids) {
-        List<DeptDO> children = new LinkedList<>();
-        // 遍历每一层
-        Collection<Long> parentIds = ids;
-        for (int i = 0; i < Short.MAX_VALUE; i++) { // 使用 Short.MAX_VALUE 避免 bug 场景下，存在死循环
-            // 查询当前层，所有的子部门
-            List<DeptDO> depts = deptMapper.selectListByParentId(parentIds);
-            // 1. 如果没有子部门，则结束遍历
-            if (CollUtil.isEmpty(depts)) {
-                break;
-            }
-            // 2. 如果有子部门，继续遍历
-            children.addAll(depts);
-            parentIds = convertSet(depts, DeptDO::getId);
+        if (CollUtil.isEmpty(ids)) {
+            return new ArrayList<>();
         }
-        return children;
+        return getDeptTreeIndexFromLocalCache().getChildDeptList(ids);
     }
 
     @Override
@@ -194,13 +194,45 @@ public class DeptServiceImpl implements DeptService {
     }
 
     @Override
-    @DataPermission(enable = false) // 禁用数据权限，避免建立不正确的缓存
-    @Cacheable(cacheNames = RedisKeyConstants.DEPT_CHILDREN_ID_LIST, key = "#id")
     public Set<Long> getChildDeptIdListFromCache(Long id) {
-        List<DeptDO> children = getChildDeptList(id);
+        List<DeptDO> children = getDeptTreeIndexFromLocalCache().getChildDeptList(id);
         return convertSet(children, DeptDO::getId);
     }
 
+    // ========== 部门树本地索引的相关方法  ==========
+
+    @Override
+    public void invalidateDeptTreeLocalCache(Long tenantId) {
+        deptTreeIndexCache.invalidate(tenantId);
+    }
+
+    /**
+     * 在本地的部门树索引上，增量应用部门的变化，并广播给其它节点清理
+     *
+     * 本节点的索引在内存中重建，无需重新查询全部部门；其它节点收到广播后，下次访问时重新加载
+     *
+     * @param id 变化的部门编号
+     */
+    private void refreshDeptTreeLocalCache(Long id) {
+        // 查询最新的部门。不存在时，说明已经被删除
+        DeptDO dept = DataPermissionUtils.executeIgnore(() -> deptMapper.selectById(id));
+        deptTreeIndexCache.update(index -> dept != null ? index.withDept(dept) : index.withoutDept(id));
+        deptProducer.sendDeptRefreshMessage(TenantContextHolder.getTenantId());
+    }
+
+    /**
+     * 获得当前租户的部门树索引，优先从本地缓存中获取
+     *
+     * @return 部门树索引
+     */
+    private DeptTreeIndex getDeptTreeIndexFromLocalCache() {
+        return deptTreeIndexCache.get(key -> {
+            // 禁用数据权限，避免建立不正确的索引
+            List<DeptDO> list = DataPermissionUtils.executeIgnore(() -> deptMapper.selectList());
+            return new DeptTreeIndex(list);
+        });
+    }
+
     @Override
     public void validateDeptList(Collection<Long> ids) {
         if (CollUtil.isEmpty(ids)) {
@@ -0,0 +1,155 @@
+package cn.iocoder.yudao.module.system.service.dept;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
+
+import java.util.*;
+
+/**
+ * 部门树的索引，用于 O(1) 定位某个部门的所有子部门
+ *
+ * 基于 Euler Tour（欧拉序）实现：按照先序遍历部门树，得到部门数组 {@link #orders}，
+ * 每个部门的所有子部门，在数组中是连续的一段 [{@link #ins}, {@link #outs})，所以查询时无需逐层访问数据库。
+ *
+ * 索引是不可变的，部门变化时通过 {@link #withDept(DeptDO)}、{@link #withoutDept(Long)} 在内存中重建出新的索引，
+ * 从而读取时不需要加锁
+ *
+ * @author 芋道源码
+ */
+public class DeptTreeIndex {
+
+    /**
+     * 部门 Map
+     *
+     * KEY：部门编号
+     */
+    private final Map<Long, DeptDO> depts;
+    /**
+     * 子部门编号的 Map
+     *
+     * KEY：父部门编号。可能不存在对应的部门，例如说 {@link DeptDO#PARENT_ID_ROOT}
+     * VALUE：直接子部门编号的列表
+     */
+    private final Map<Long, List<Long>> childIds;
+    /**
+     * 先序遍历得到的部门数组
+     */
+    private final DeptDO[] orders;
+    /**
+     * 部门在 {@link #orders} 中的位置，即区间的开始（包含）
+     */
+    private final Map<Long, Integer> ins;
+    /**
+     * 部门的最后一个子孙部门在 {@link #orders} 中的位置 + 1，即区间的结束（不包含）
+     */
+    private final Map<Long, Integer> outs;
+
+    public DeptTreeIndex(Collection<DeptDO> list) {
+        this.depts = new HashMap<>(list.size() * 2);
+        this.childIds = new HashMap<>();
+        list.forEach(dept -> depts.put(dept.getId(), dept));
+        // 按照 sort 排序，保证同一层的顺序与列表展示的一致
+        List<DeptDO> sorted = new ArrayList<>(depts.values());
+        sorted.sort(Comparator.comparing(DeptDO::getSort, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(DeptDO::getId));
+        sorted.forEach(dept -> childIds.computeIfAbsent(dept.getParentId(), k -> new ArrayList<>()).add(dept.getId()));
+
+        // 先序遍历：从父部门不存在的部门开始，所以脏数据（父部门被删除）也能被遍历到
+        this.orders = new DeptDO[depts.size()];
+        this.ins = new HashMap<>(depts.size() * 2);
+        this.outs = new HashMap<>(depts.size() * 2);
+        int[] index = {0};
+        sorted.stream().filter(dept -> !depts.containsKey(dept.getParentId()))
+                .forEach(dept -> traverse(dept.getId(), index));
+        // 兜底：环路的部门，不存在父部门不存在的起点，不会被遍历到，只作为独立的部门
+        sorted.stream().filter(dept -> !ins.containsKey(dept.getId()))
+                .forEach(dept -> traverse(dept.getId(), index));
+    }
+
+    /**
+     * 非递归的先序遍历，避免部门层级过深时栈溢出
+     */
+    private void traverse(Long rootId, int[] index) {
+        // 栈中的元素为 [部门编号, 是否已经访问过子部门]
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{rootId, false});
+        while (!stack.isEmpty()) {
+            Object[] top = stack.pop();
+            Long id = (Long) top[0];
+            if ((Boolean) top[1]) {
+                outs.put(id, index[0]);
+                continue;
+            }
+            if (ins.containsKey(id)) { // 环路的情况下，已经遍历过
+                continue;
+            }
+            ins.put(id, index[0]);
+            orders[index[0]++] = depts.get(id);
+            stack.push(new Object[]{id, true});
+            List<Long> children = childIds.getOrDefault(id, Collections.emptyList());
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new Object[]{children.get(i), false});
+            }
+        }
+    }
+
+    /**
+     * 获得指定部门的所有子部门，不包括自己
+     *
+     * @param id 部门编号。允许不存在对应的部门，例如说 {@link DeptDO#PARENT_ID_ROOT}，此时返回它下面所有的部门
+     * @return 子部门列表，先序遍历的顺序
+     */
+    public List<DeptDO> getChildDeptList(Long id) {
+        Integer in = ins.get(id);
+        if (in != null) {
+            return Arrays.asList(orders).subList(in + 1, outs.get(id));
+        }
+        // 部门不存在的情况，拼接它的直接子部门的区间
+        List<Long> children = childIds.get(id);
+        if (children == null) {
+            return Collections.emptyList();
+        }
+        List<DeptDO> result = new ArrayList<>();
+        children.forEach(childId -> result.addAll(Arrays.asList(orders).subList(ins.get(childId), outs.get(childId))));
+        return result;
+    }
+
+    /**
+     * 获得多个部门的所有子部门，不包括自己，并去重
+     *
+     * @param ids 部门编号数组
+     * @return 子部门列表
+     */
+    public List<DeptDO> getChildDeptList(Collection<Long> ids) {
+        if (ids.size() == 1) {
+            return new ArrayList<>(getChildDeptList(ids.iterator().next()));
+        }
+        Map<Long, DeptDO> result = new LinkedHashMap<>();
+        ids.forEach(id -> getChildDeptList(id).forEach(dept -> result.putIfAbsent(dept.getId(), dept)));
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * 基于新增或修改的部门，在内存中重建出新的索引
+     *
+     * @param dept 部门
+     * @return 新的索引
+     */
+    public DeptTreeIndex withDept(DeptDO dept) {
+        Map<Long, DeptDO> list = new HashMap<>(depts);
+        list.put(dept.getId(), dept);
+        return new DeptTreeIndex(list.values());
+    }
+
+    /**
+     * 基于删除的部门，在内存中重建出新的索引
+     *
+     * @param id 部门编号
+     * @return 新的索引
+     */
+    public DeptTreeIndex withoutDept(Long id) {
+        Map<Long, DeptDO> list = new HashMap<>(depts);
+        list.remove(id);
+        return new DeptTreeIndex(list.values());
+    }
+
+}
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.logger;
 
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
@@ -20,6 +21,15 @@ public interface OperateLogService {
      */
     void createOperateLog(OperateLogCreateReqDTO createReqDTO);
 
+    /**
+     * 【异步】记录操作日志
+     *
+     * 写入批量缓冲队列，由后台线程批量插入
+     *
+     * @param createReqDTO 创建请求
+     */
+    void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO);
+
     /**
      * 获得操作日志分页列表
      *
@@ -28,6 +38,14 @@ public interface OperateLogService {
      */
     PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqVO pageReqVO);
 
+    /**
+     * 获得操作日志游标分页列表
+     *
+     * @param pageReqVO 游标分页条件
+     * @return 操作日志游标分页列表
+     */
+    CursorPageResult<OperateLogDO> getOperateLogCursorPage(OperateLogPageReqVO pageReqVO);
+
     /**
      * 获得操作日志分页列表
      *
@@ -1,7 +1,12 @@
 package cn.iocoder.yudao.module.system.service.logger;
 
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.common.pojo.CursorPageResult;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
+import cn.iocoder.yudao.framework.common.util.concurrent.BatchBuffer;
 import cn.iocoder.yudao.framework.common.util.object.BeanUtils;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogCreateReqDTO;
 import cn.iocoder.yudao.module.system.api.logger.dto.OperateLogPageReqDTO;
 import cn.iocoder.yudao.module.system.controller.admin.logger.vo.operatelog.OperateLogPageReqVO;
@@ -11,7 +16,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import java.util.List;
 
 /**
  * 操作日志 Service 实现类
@@ -26,17 +34,58 @@ public class OperateLogServiceImpl implements OperateLogService {
     @Resource
     private OperateLogMapper operateLogMapper;
 
+    /**
+     * 操作日志的批量缓冲队列
+     *
+     * KEY：租户编号
+     * VALUE：操作日志
+     */
+    private BatchBuffer<KeyValue<Long, OperateLogDO>> operateLogBuffer;
+
+    @PostConstruct
+    public void initOperateLogBuffer() {
+        operateLogBuffer = BatchBuffer.create("system-operate-log", this::createOperateLogList);
+    }
+
+    @PreDestroy
+    public void destroyOperateLogBuffer() {
+        operateLogBuffer.shutdown();
+    }
+
     @Override
     public void createOperateLog(OperateLogCreateReqDTO createReqDTO) {
         OperateLogDO log = BeanUtils.toBean(createReqDTO, OperateLogDO.class);
         operateLogMapper.insert(log);
     }
 
+    @Override
+    public void createOperateLogAsync(OperateLogCreateReqDTO createReqDTO) {
+        OperateLogDO operateLog = BeanUtils.toBean(createReqDTO, OperateLogDO.class);
+        if (!operateLogBuffer.offer(new KeyValue<>(TenantContextHolder.getTenantId(), operateLog))) {
+            log.warn("[createOperateLogAsync][bizId({}) type({}) 缓冲队列积压，丢弃操作日志]",
+                    operateLog.getBizId(), operateLog.getType());
+        }
+    }
+
+    /**
+     * 批量插入操作日志，按照租户分组插入
+     *
+     * @param operateLogs 操作日志（带租户编号）
+     */
+    private void createOperateLogList(List<KeyValue<Long, OperateLogDO>> operateLogs) {
+        TenantUtils.executeByTenant(operateLogs, operateLogMapper::insertBatch);
+    }
+
     @Override
     public PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqVO pageReqVO) {
         return operateLogMapper.selectPage(pageReqVO);
     }
 
+    @Override
+    public CursorPageResult<OperateLogDO> getOperateLogCursorPage(OperateLogPageReqVO pageReqVO) {
+        return operateLogMapper.selectCursorPage(pageReqVO);
+    }
+
     @Override
     public PageResult<OperateLogDO> getOperateLogPage(OperateLogPageReqDTO pageReqDTO) {
         return operateLogMapper.selectPage(pageReqDTO);
@@ -0,0 +1,76 @@
+package cn.iocoder.yudao.module.system.service.notify;
+
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 站内信广播 Service 接口
+ *
+ * @author 芋道源码
+ */
+public interface NotifyBroadcastService {
+
+    /**
+     * 创建站内信广播，在当前租户下存储一条
+     *
+     * @param userType 用户类型
+     * @param audienceType 受众类型
+     * @param audienceIds 受众编号数组
+     * @param template 模版信息
+     * @param templateContent 模版内容
+     * @param templateParams 模版参数
+     * @return 广播编号
+     */
+    Long createNotifyBroadcast(Integer userType, Integer audienceType, Set<Long> audienceIds,
+                               NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams);
+
+    /**
+     * 获得【我的】最新站内信广播列表
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @param size 数量
+     * @return 广播列表，按照编号倒序
+     */
+    List<NotifyBroadcastDO> getMyNotifyBroadcastList(Long userId, Integer userType, Integer size);
+
+    /**
+     * 统计用户未读站内信广播条数
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @return 未读条数
+     */
+    Long getUnreadNotifyBroadcastCount(Long userId, Integer userType);
+
+    /**
+     * 获得用户的已读水位，编号小于等于它的广播都已读
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @return 已读到的广播编号；从未读过时，返回 0
+     */
+    Long getNotifyBroadcastReadId(Long userId, Integer userType);
+
+    /**
+     * 标记站内信广播为已读，编号小于等于 id 的广播都会标记为已读
+     *
+     * @param id 已读到的广播编号
+     * @param userId 用户编号
+     * @param userType 用户类型
+     */
+    void updateNotifyBroadcastRead(Long id, Long userId, Integer userType);
+
+    /**
+     * 标记所有站内信广播为已读
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     */
+    void updateAllNotifyBroadcastRead(Long userId, Integer userType);
+
+}
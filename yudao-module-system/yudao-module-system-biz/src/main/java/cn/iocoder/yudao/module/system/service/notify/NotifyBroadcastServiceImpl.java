@@ -0,0 +1,212 @@
+package cn.iocoder.yudao.module.system.service.notify;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastReadDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyBroadcastMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyBroadcastReadMapper;
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyBroadcastRedisDAO;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import cn.iocoder.yudao.module.system.service.user.AdminUserService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.annotation.Resource;
+import java.util.*;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
+/**
+ * 站内信广播 Service 实现类
+ *
+ * 广播只存储一条，用户读取时，按照所属的受众（全部用户、角色、部门）匹配：
+ * 1. 每个受众在 Redis 中有一个广播编号的索引，统计未读数量时，只需要统计用户所属的几个受众
+ * 2. 已读状态使用水位记录，每个用户只需要一条 {@link NotifyBroadcastReadDO}。水位不超过最新的广播，避免未来的广播被提前标记为已读
+ *
+ * @author 芋道源码
+ */
+@Service
+@Validated
+public class NotifyBroadcastServiceImpl implements NotifyBroadcastService {
+
+    private static final String AUDIENCE_ALL = "all";
+    private static final String AUDIENCE_ROLE_PREFIX = "role_";
+    private static final String AUDIENCE_DEPT_PREFIX = "dept_";
+
+    @Resource
+    private NotifyBroadcastMapper notifyBroadcastMapper;
+    @Resource
+    private NotifyBroadcastReadMapper notifyBroadcastReadMapper;
+
+    @Resource
+    private NotifyBroadcastRedisDAO notifyBroadcastRedisDAO;
+
+    @Resource
+    private PermissionService permissionService;
+    @Resource
+    private AdminUserService adminUserService;
+    @Resource
+    private DeptService deptService;
+
+    @Override
+    public Long createNotifyBroadcast(Integer userType, Integer audienceType, Set<Long> audienceIds,
+                                      NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        NotifyBroadcastDO broadcast = new NotifyBroadcastDO().setUserType(userType)
+                .setAudienceType(audienceType).setAudienceIds(audienceIds)
+                .setTemplateId(template.getId()).setTemplateCode(template.getCode())
+                .setTemplateType(template.getType()).setTemplateNickname(template.getNickname())
+                .setTemplateContent(templateContent).setTemplateParams(templateParams);
+        notifyBroadcastMapper.insert(broadcast);
+        // 追加到受众的索引
+        notifyBroadcastRedisDAO.add(formatKeys(userType, getBroadcastAudienceList(broadcast)),
+                broadcast.getId());
+        return broadcast.getId();
+    }
+
+    @Override
+    public List<NotifyBroadcastDO> getMyNotifyBroadcastList(Long userId, Integer userType, Integer size) {
+        List<String> audiences = getUserAudienceList(userId, userType);
+        getUnreadCount(userType, audiences, 0L); // 统计的同时，会重建不存在的受众索引
+        List<Long> ids = notifyBroadcastRedisDAO.getLatestIdList(formatKeys(userType, audiences), size);
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        List<NotifyBroadcastDO> list = notifyBroadcastMapper.selectBatchIds(ids);
+        list.sort(Comparator.comparing(NotifyBroadcastDO::getId).reversed());
+        return list;
+    }
+
+    @Override
+    public Long getUnreadNotifyBroadcastCount(Long userId, Integer userType) {
+        return getUnreadCount(userType, getUserAudienceList(userId, userType),
+                getNotifyBroadcastReadId(userId, userType));
+    }
+
+    private Long getUnreadCount(Integer userType, List<String> audiences, Long readBroadcastId) {
+        List<String> keys = formatKeys(userType, audiences);
+        Long count = notifyBroadcastRedisDAO.getUnreadCount(keys, readBroadcastId);
+        if (count != null) {
+            return count;
+        }
+        // 受众索引未重建，从 DB 重建后，重新统计
+        buildAudienceIndex(userType, audiences);
+        count = notifyBroadcastRedisDAO.getUnreadCount(keys, readBroadcastId);
+        return count != null ? count : 0L;
+    }
+
+    private void buildAudienceIndex(Integer userType, Collection<String> audiences) {
+        Map<String, List<Long>> audienceBroadcastIds = new HashMap<>();
+        audiences.forEach(audience -> audienceBroadcastIds.put(audience, new ArrayList<>()));
+        notifyBroadcastMapper.selectAudienceListByUserType(userType).forEach(broadcast ->
+                getBroadcastAudienceList(broadcast).forEach(audience -> {
+                    List<Long> ids = audienceBroadcastIds.get(audience);
+                    if (ids != null) {
+                        ids.add(broadcast.getId());
+                    }
+                }));
+        audienceBroadcastIds.forEach((audience, ids) ->
+                notifyBroadcastRedisDAO.rebuild(formatKey(userType, audience), ids));
+    }
+
+    @Override
+    public Long getNotifyBroadcastReadId(Long userId, Integer userType) {
+        Long readBroadcastId = notifyBroadcastRedisDAO.getReadBroadcastId(userId, userType);
+        if (readBroadcastId != null) {
+            return readBroadcastId;
+        }
+        NotifyBroadcastReadDO read = notifyBroadcastReadMapper.selectByUserIdAndUserType(userId, userType);
+        readBroadcastId = read != null ? read.getReadBroadcastId() : 0L;
+        notifyBroadcastRedisDAO.setReadBroadcastId(userId, userType, readBroadcastId);
+        return readBroadcastId;
+    }
+
+    @Override
+    public void updateNotifyBroadcastRead(Long id, Long userId, Integer userType) {
+        // 水位不超过最新的广播，避免传入一个很大的编号，导致之后的广播都被标记为已读
+        NotifyBroadcastDO last = notifyBroadcastMapper.selectLastByUserType(userType);
+        if (last == null) {
+            return;
+        }
+        updateReadBroadcastId(Math.min(id, last.getId()), userId, userType);
+    }
+
+    @Override
+    public void updateAllNotifyBroadcastRead(Long userId, Integer userType) {
+        NotifyBroadcastDO last = notifyBroadcastMapper.selectLastByUserType(userType);
+        if (last == null) {
+            return;
+        }
+        updateReadBroadcastId(last.getId(), userId, userType);
+    }
+
+    private void updateReadBroadcastId(Long id, Long userId, Integer userType) {
+        // 优先推进已有的水位；未更新时，可能是水位不存在，也可能是水位已经更大
+        if (notifyBroadcastReadMapper.updateReadBroadcastId(userId, userType, id) == 0) {
+            try {
+                notifyBroadcastReadMapper.insert(new NotifyBroadcastReadDO().setUserId(userId).setUserType(userType)
+                        .setReadBroadcastId(id));
+            } catch (DuplicateKeyException ex) {
+                // 水位已存在（唯一索引），或者被并发插入，重新推进一次
+                notifyBroadcastReadMapper.updateReadBroadcastId(userId, userType, id);
+            }
+        }
+        notifyBroadcastRedisDAO.deleteReadBroadcastId(userId, userType);
+    }
+
+    /**
+     * 获得用户所属的受众
+     *
+     * @param userId 用户编号
+     * @param userType 用户类型
+     * @return 受众数组
+     */
+    private List<String> getUserAudienceList(Long userId, Integer userType) {
+        List<String> audiences = new ArrayList<>();
+        audiences.add(AUDIENCE_ALL);
+        if (!UserTypeEnum.ADMIN.getValue().equals(userType)) {
+            return audiences;
+        }
+        permissionService.getUserRoleIdListByUserIdFromCache(userId)
+                .forEach(roleId -> audiences.add(AUDIENCE_ROLE_PREFIX + roleId));
+        AdminUserDO user = adminUserService.getUser(userId);
+        if (user != null && user.getDeptId() != null) {
+            audiences.add(AUDIENCE_DEPT_PREFIX + user.getDeptId());
+        }
+        return audiences;
+    }
+
+    /**
+     * 获得广播发送到的受众。按部门广播时，包含子部门
+     *
+     * @param broadcast 广播
+     * @return 受众数组
+     */
+    private List<String> getBroadcastAudienceList(NotifyBroadcastDO broadcast) {
+        if (NotifyBroadcastAudienceTypeEnum.ROLE.getType().equals(broadcast.getAudienceType())) {
+            return convertList(broadcast.getAudienceIds(), roleId -> AUDIENCE_ROLE_PREFIX + roleId);
+        }
+        if (NotifyBroadcastAudienceTypeEnum.DEPT.getType().equals(broadcast.getAudienceType())) {
+            Set<Long> deptIds = new HashSet<>(broadcast.getAudienceIds());
+            broadcast.getAudienceIds().forEach(deptId -> deptIds.addAll(deptService.getChildDeptIdListFromCache(deptId)));
+            return convertList(deptIds, deptId -> AUDIENCE_DEPT_PREFIX + deptId);
+        }
+        // ALL、TENANT 都是当前租户的全部用户
+        return Collections.singletonList(AUDIENCE_ALL);
+    }
+
+    private static List<String> formatKeys(Integer userType, List<String> audiences) {
+        return convertList(audiences, audience -> formatKey(userType, audience));
+    }
+
+    private static String formatKey(Integer userType, String audience) {
+        return NotifyBroadcastRedisDAO.formatKey(TenantContextHolder.getTenantId(), userType, audience);
+    }
+
+}
@@ -6,6 +6,7 @@ import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyM
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyMessageDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyMessageMapper;
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyMessageUnreadCountRedisDAO;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
@@ -26,6 +27,9 @@ public class NotifyMessageServiceImpl implements NotifyMessageService {
     @Resource
     private NotifyMessageMapper notifyMessageMapper;
 
+    @Resource
+    private NotifyMessageUnreadCountRedisDAO notifyMessageUnreadCountRedisDAO;
+
     @Override
     public Long createNotifyMessage(Long userId, Integer userType,
                                     NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams) {
@@ -34,6 +38,7 @@ public class NotifyMessageServiceImpl implements NotifyMessageService {
                 .setTemplateType(template.getType()).setTemplateNickname(template.getNickname())
                 .setTemplateContent(templateContent).setTemplateParams(templateParams).setReadStatus(false);
         notifyMessageMapper.insert(message);
+        notifyMessageUnreadCountRedisDAO.delete(userId, userType);
         return message.getId();
     }
 
@@ -59,17 +64,33 @@ public class NotifyMessageServiceImpl implements NotifyMessageService {
 
     @Override
     public Long getUnreadNotifyMessageCount(Long userId, Integer userType) {
-        return notifyMessageMapper.selectUnreadCountByUserIdAndUserType(userId, userType);
+        // 优先从 Redis 缓存中获取
+        Long count = notifyMessageUnreadCountRedisDAO.get(userId, userType);
+        if (count != null) {
+            return count;
+        }
+        // 获取不到，从 DB 中统计，并写入 Redis
+        count = notifyMessageMapper.selectUnreadCountByUserIdAndUserType(userId, userType);
+        notifyMessageUnreadCountRedisDAO.setIfAbsent(userId, userType, count);
+        return count;
     }
 
     @Override
     public int updateNotifyMessageRead(Collection<Long> ids, Long userId, Integer userType) {
-        return notifyMessageMapper.updateListRead(ids, userId, userType);
+        int count = notifyMessageMapper.updateListRead(ids, userId, userType);
+        if (count > 0) {
+            notifyMessageUnreadCountRedisDAO.delete(userId, userType);
+        }
+        return count;
     }
 
     @Override
     public int updateAllNotifyMessageRead(Long userId, Integer userType) {
-        return notifyMessageMapper.updateListRead(userId, userType);
+        int count = notifyMessageMapper.updateListRead(userId, userType);
+        if (count > 0) {
+            notifyMessageUnreadCountRedisDAO.delete(userId, userType);
+        }
+        return count;
     }
 
 }
@@ -2,6 +2,7 @@ package cn.iocoder.yudao.module.system.service.notify;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 站内信发送 Service 接口
@@ -47,6 +48,21 @@ public interface NotifySendService {
     Long sendSingleNotify( Long userId, Integer userType,
                            String templateCode, Map<String, Object> templateParams);
 
+    /**
+     * 广播站内信给一批用户
+     *
+     * 与 {@link #sendSingleNotify(Long, Integer, String, Map)} 每个用户存储一条不同，广播只存储一条，用户读取时按照受众匹配
+     *
+     * @param userType 用户类型
+     * @param audienceType 受众类型
+     * @param audienceIds 受众编号数组
+     * @param templateCode 站内信模板编号
+     * @param templateParams 站内信模板参数
+     * @return 广播编号数组。按租户广播时，每个租户一条
+     */
+    List<Long> sendBroadcastNotify(Integer userType, Integer audienceType, Set<Long> audienceIds,
+                                   String templateCode, Map<String, Object> templateParams);
+
     default void sendBatchNotify(List<String> mobiles, List<Long> userIds, Integer userType,
                                  String templateCode, Map<String, Object> templateParams) {
         throw new UnsupportedOperationException("暂时不支持该操作，感兴趣可以实现该功能哟！");
@@ -1,18 +1,25 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.ObjUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
+import cn.iocoder.yudao.framework.tenant.core.util.TenantUtils;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.tenant.TenantDO;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import cn.iocoder.yudao.module.system.service.tenant.TenantService;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
 /**
@@ -31,6 +38,12 @@ public class NotifySendServiceImpl implements NotifySendService {
     @Resource
     private NotifyMessageService notifyMessageService;
 
+    @Resource
+    private NotifyBroadcastService notifyBroadcastService;
+
+    @Resource
+    private TenantService tenantService;
+
     @Override
     public Long sendSingleNotifyToAdmin(Long userId, String templateCode, Map<String, Object> templateParams) {
         return sendSingleNotify(userId, UserTypeEnum.ADMIN.getValue(), templateCode, templateParams);
@@ -57,6 +70,31 @@ public class NotifySendServiceImpl implements NotifySendService {
         return notifyMessageService.createNotifyMessage(userId, userType, template, content, templateParams);
     }
 
+    @Override
+    public List<Long> sendBroadcastNotify(Integer userType, Integer audienceType, Set<Long> audienceIds,
+                                          String templateCode, Map<String, Object> templateParams) {
+        // 校验模版
+        NotifyTemplateDO template = validateNotifyTemplate(templateCode);
+        if (Objects.equals(template.getStatus(), CommonStatusEnum.DISABLE.getStatus())) {
+            log.info("[sendBroadcastNotify][模版({})已经关闭，无法广播给用户({}/{})]", templateCode, userType, audienceType);
+            return Collections.emptyList();
+        }
+        // 校验参数、受众
+        validateTemplateParams(template, templateParams);
+        validateBroadcastAudience(userType, audienceType, audienceIds);
+
+        // 广播站内信
+        String content = notifyTemplateService.formatNotifyTemplateContent(template.getContent(), templateParams);
+        if (NotifyBroadcastAudienceTypeEnum.TENANT.getType().equals(audienceType)) {
+            // 按租户广播时，在每个租户下存储一条，从而读取时仍然走租户隔离
+            return convertList(audienceIds, tenantId -> TenantUtils.execute(tenantId,
+                    () -> notifyBroadcastService.createNotifyBroadcast(userType, audienceType, audienceIds,
+                            template, content, templateParams)));
+        }
+        return Collections.singletonList(notifyBroadcastService.createNotifyBroadcast(userType, audienceType, audienceIds,
+                template, content, templateParams));
+    }
+
     @VisibleForTesting
     public NotifyTemplateDO validateNotifyTemplate(String templateCode) {
         // 获得站内信模板。考虑到效率，从缓存中获取
@@ -83,4 +121,27 @@ public class NotifySendServiceImpl implements NotifySendService {
             }
         });
     }
+
+    @VisibleForTesting
+    void validateBroadcastAudience(Integer userType, Integer audienceType, Set<Long> audienceIds) {
+        if (NotifyBroadcastAudienceTypeEnum.ALL.getType().equals(audienceType)) {
+            return;
+        }
+        if (CollUtil.isEmpty(audienceIds)) {
+            throw exception(NOTIFY_BROADCAST_AUDIENCE_IDS_EMPTY);
+        }
+        if (NotifyBroadcastAudienceTypeEnum.TENANT.getType().equals(audienceType)) {
+            // 只有系统租户，才能广播给其它租户
+            TenantDO tenant = tenantService.getTenant(TenantContextHolder.getTenantId());
+            if (tenant == null || ObjUtil.notEqual(tenant.getPackageId(), TenantDO.PACKAGE_ID_SYSTEM)) {
+                throw exception(NOTIFY_BROADCAST_TENANT_NOT_SYSTEM);
+            }
+            return;
+        }
+        // 角色、部门，只有管理后台的用户才有
+        if (ObjUtil.notEqual(userType, UserTypeEnum.ADMIN.getValue())) {
+            throw exception(NOTIFY_BROADCAST_AUDIENCE_TYPE_NOT_SUPPORT);
+        }
+    }
+
 }
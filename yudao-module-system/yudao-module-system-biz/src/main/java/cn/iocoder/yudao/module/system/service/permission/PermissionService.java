@@ -33,6 +33,15 @@ public interface PermissionService {
      */
     boolean hasAnyRoles(Long userId, String... roles);
 
+    /**
+     * 清理权限的本地缓存，例如说接收到其它节点的刷新广播时
+     *
+     * @param userId 用户编号。非空时，清理该用户的缓存
+     * @param roleId 角色编号。非空时，清理该角色及所有用户的缓存
+     *               两者都为空时，清理全部缓存
+     */
+    void invalidatePermissionLocalCache(Long userId, Long roleId);
+
     // ========== 角色-菜单的相关方法  ==========
 
     /**
@@ -57,6 +66,20 @@ public interface PermissionService {
      */
     void processMenuDeleted(Long menuId);
 
+    /**
+     * 处理角色更新时，刷新关联的权限缓存
+     *
+     * @param roleId 角色编号
+     */
+    void processRoleUpdated(Long roleId);
+
+    /**
+     * 处理菜单更新时，刷新关联的权限缓存
+     *
+     * @param menuId 菜单编号
+     */
+    void processMenuUpdated(Long menuId);
+
     /**
      * 获得角色拥有的菜单编号集合
      *
@@ -75,14 +98,6 @@ public interface PermissionService {
      */
     Set<Long> getRoleMenuListByRoleId(Collection<Long> roleIds);
 
-    /**
-     * 获得拥有指定菜单的角色编号数组，从缓存中获取
-     *
-     * @param menuId 菜单编号
-     * @return 角色编号数组
-     */
-    Set<Long> getMenuRoleIdListByMenuIdFromCache(Long menuId);
-
     // ========== 用户-角色的相关方法  ==========
 
     /**
@@ -3,6 +3,7 @@ package cn.iocoder.yudao.module.system.service.permission;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.util.ArrayUtil;
+import cn.hutool.core.util.StrUtil;
 import cn.hutool.extra.spring.SpringUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.util.collection.CollectionUtils;
@@ -16,21 +17,30 @@ import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
-import com.baomidou.dynamic.datasource.annotation.DSTransactional;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.Sets;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertSet;
@@ -39,12 +49,52 @@ import static cn.iocoder.yudao.framework.common.util.json.JsonUtils.toJsonString
 /**
  * 权限 Service 实现类
  *
+ * 为了 {@link #hasAnyPermissions(Long, String...)} 等鉴权方法不访问 Redis，在本地维护编译后的权限索引：
+ * 1. 每个权限标识，映射成一个 int 序号
+ * 2. 每个角色，拥有的权限使用 {@link BitSet} 存储
+ * 3. 每个用户，合并开启角色的 {@link BitSet}，鉴权时 O(1) 判断
+ * 授权数据变更时，按用户、角色粒度清理，并通过 {@link PermissionProducer} 广播给其它节点
+ *
  * @author 芋道源码
  */
 @Service
 @Slf4j
 public class PermissionServiceImpl implements PermissionService {
 
+    /**
+     * 权限本地缓存的最大数量
+     */
+    private static final long LOCAL_CACHE_MAXIMUM_SIZE = 10000;
+    /**
+     * 权限本地缓存的过期时间，兜底 Redis Pub/Sub 广播消息丢失的情况
+     */
+    private static final Duration LOCAL_CACHE_EXPIRE = Duration.ofMinutes(1);
+
+    /**
+     * 权限标识与序号的映射
+     *
+     * KEY：权限标识
+     * VALUE：序号，即 {@link BitSet} 中的下标
+     */
+    private final ConcurrentMap<String, Integer> permissionIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger permissionIndexSequence = new AtomicInteger();
+    /**
+     * 角色拥有的权限的本地缓存
+     *
+     * KEY：角色编号
+     * VALUE：权限序号的 {@link BitSet}
+     */
+    private final Cache<Long, BitSet> rolePermissionCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAXIMUM_SIZE).expireAfterWrite(LOCAL_CACHE_EXPIRE).build();
+    /**
+     * 用户权限的本地缓存
+     *
+     * KEY：用户编号
+     * VALUE：用户权限
+     */
+    private final Cache<Long, UserPermission> userPermissionCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_CACHE_MAXIMUM_SIZE).expireAfterWrite(LOCAL_CACHE_EXPIRE).build();
+
     @Resource
     private RoleMenuMapper roleMenuMapper;
     @Resource
@@ -59,6 +109,9 @@ public class PermissionServiceImpl implements PermissionService {
     @Resource
     private AdminUserService userService;
 
+    @Resource
+    private PermissionProducer permissionProducer;
+
     @Override
     public boolean hasAnyPermissions(Long userId, String... permissions) {
         // 如果为空，说明已经有权限
@@ -66,48 +119,23 @@ public class PermissionServiceImpl implements PermissionService {
             return true;
         }
 
-        // 获得当前登录的角色。如果为空，说明没有权限
-        List<RoleDO> roles = getEnableUserRoleListByUserIdFromCache(userId);
-        if (CollUtil.isEmpty(roles)) {
+        // 获得当前登录的用户权限。如果没有开启的角色，说明没有权限
+        UserPermission userPermission = getUserPermissionFromLocalCache(userId);
+        if (CollUtil.isEmpty(userPermission.getRoleCodes())) {
             return false;
         }
 
         // 情况一：遍历判断每个权限，如果有一满足，说明有权限
+        // 采用严格模式，如果权限找不到对应的 Menu 的话，也就没有对应的序号，认为没有权限
         for (String permission : permissions) {
-            if (hasAnyPermission(roles, permission)) {
+            Integer index = permissionIndexes.get(permission);
+            if (index != null && userPermission.getPermissions().get(index)) {
                 return true;
             }
         }
 
         // 情况二：如果是超管，也说明有权限
-        return roleService.hasAnySuperAdmin(convertSet(roles, RoleDO::getId));
-    }
-
-    /**
-     * 判断指定角色，是否拥有该 permission 权限
-     *
-     * @param roles 指定角色数组
-     * @param permission 权限标识
-     * @return 是否拥有
-     */
-    private boolean hasAnyPermission(List<RoleDO> roles, String permission) {
-        List<Long> menuIds = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 采用严格模式，如果权限找不到对应的 Menu 的话，也认为没有权限
-        if (CollUtil.isEmpty(menuIds)) {
-            return false;
-        }
-
-        // 判断是否有权限
-        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
-        for (Long menuId : menuIds) {
-            // 获得拥有该菜单的角色编号集合
-            Set<Long> menuRoleIds = getSelf().getMenuRoleIdListByMenuIdFromCache(menuId);
-            // 如果有交集，说明有权限
-            if (CollUtil.containsAny(menuRoleIds, roleIds)) {
-                return true;
-            }
-        }
-        return false;
+        return userPermission.isSuperAdmin();
     }
 
     @Override
@@ -118,26 +146,127 @@ public class PermissionServiceImpl implements PermissionService {
         }
 
         // 获得当前登录的角色。如果为空，说明没有权限
-        List<RoleDO> roleList = getEnableUserRoleListByUserIdFromCache(userId);
-        if (CollUtil.isEmpty(roleList)) {
+        Set<String> userRoles = getUserPermissionFromLocalCache(userId).getRoleCodes();
+        if (CollUtil.isEmpty(userRoles)) {
             return false;
         }
 
         // 判断是否有角色
-        Set<String> userRoles = convertSet(roleList, RoleDO::getCode);
         return CollUtil.containsAny(userRoles, Sets.newHashSet(roles));
     }
 
+    // ========== 权限本地缓存的相关方法  ==========
+
+    @Override
+    public void invalidatePermissionLocalCache(Long userId, Long roleId) {
+        // 情况一：全部清理
+        if (userId == null && roleId == null) {
+            rolePermissionCache.invalidateAll();
+            userPermissionCache.invalidateAll();
+            return;
+        }
+        // 情况二：角色变化，用户的权限由角色合并而来，所以也需要清理全部用户
+        if (roleId != null) {
+            rolePermissionCache.invalidate(roleId);
+            userPermissionCache.invalidateAll();
+        }
+        // 情况三：用户的角色变化
+        if (userId != null) {
+            userPermissionCache.invalidate(userId);
+        }
+    }
+
+    /**
+     * 清理本地的权限缓存，并广播给其它节点
+     *
+     * 在事务提交后执行：如果在事务中清理，并发的鉴权可能把未提交前的旧权限，重新加载到本地缓存中
+     *
+     * @param userId 用户编号
+     * @param roleId 角色编号
+     */
+    private void refreshPermissionLocalCache(Long userId, Long roleId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidatePermissionLocalCache(userId, roleId);
+            permissionProducer.sendPermissionRefreshMessage(userId, roleId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+                invalidatePermissionLocalCache(userId, roleId);
+                permissionProducer.sendPermissionRefreshMessage(userId, roleId);
+            }
+
+        });
+    }
+
+    /**
+     * 获得用户权限，优先从本地缓存中获取
+     *
+     * @param userId 用户编号
+     * @return 用户权限
+     */
+    private UserPermission getUserPermissionFromLocalCache(Long userId) {
+        return userPermissionCache.get(userId, this::buildUserPermission);
+    }
+
+    private UserPermission buildUserPermission(Long userId) {
+        List<RoleDO> roles = getEnableUserRoleListByUserIdFromCache(userId);
+        if (CollUtil.isEmpty(roles)) {
+            return new UserPermission(Collections.emptySet(), new BitSet(), false);
+        }
+        // 合并角色拥有的权限
+        BitSet permissions = new BitSet();
+        roles.forEach(role -> permissions.or(rolePermissionCache.get(role.getId(), this::buildRolePermission)));
+        Set<Long> roleIds = convertSet(roles, RoleDO::getId);
+        return new UserPermission(convertSet(roles, RoleDO::getCode), permissions, roleService.hasAnySuperAdmin(roleIds));
+    }
+
+    private BitSet buildRolePermission(Long roleId) {
+        BitSet permissions = new BitSet();
+        Set<Long> menuIds = convertSet(roleMenuMapper.selectListByRoleId(roleId), RoleMenuDO::getMenuId);
+        if (CollUtil.isEmpty(menuIds)) {
+            return permissions;
+        }
+        menuService.getMenuList(menuIds).forEach(menu -> {
+            if (StrUtil.isNotEmpty(menu.getPermission())) {
+                permissions.set(getPermissionIndex(menu.getPermission()));
+            }
+        });
+        return permissions;
+    }
+
+    private int getPermissionIndex(String permission) {
+        return permissionIndexes.computeIfAbsent(permission, key -> permissionIndexSequence.getAndIncrement());
+    }
+
+    /**
+     * 用户权限，由用户开启的角色编译而来
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class UserPermission {
+
+        /**
+         * 开启的角色标识的集合
+         */
+        private final Set<String> roleCodes;
+        /**
+         * 拥有的权限序号的 {@link BitSet}
+         */
+        private final BitSet permissions;
+        /**
+         * 是否为超级管理员
+         */
+        private final boolean superAdmin;
+
+    }
+
     // ========== 角色-菜单的相关方法  ==========
 
     @Override
-    @DSTransactional // 多数据源，使用 @DSTransactional 保证本地事务，以及数据源的切换
-    @Caching(evict = {
-            @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST,
-            allEntries = true),
-            @CacheEvict(value = RedisKeyConstants.PERMISSION_MENU_ID_LIST,
-            allEntries = true) // allEntries 清空所有缓存，主要一次更新涉及到的 menuIds 较多，反倒批量会更快
-    })
+    @Transactional(rollbackFor = Exception.class) // 使用 Spring 事务，从而在事务提交后刷新权限的本地缓存
     public void assignRoleMenu(Long roleId, Set<Long> menuIds) {
         // 获得角色拥有菜单编号
         Set<Long> dbMenuIds = convertSet(roleMenuMapper.selectListByRoleId(roleId), RoleMenuDO::getMenuId);
@@ -157,27 +286,40 @@ public class PermissionServiceImpl implements PermissionService {
         if (CollUtil.isNotEmpty(deleteMenuIds)) {
             roleMenuMapper.deleteListByRoleIdAndMenuIds(roleId, deleteMenuIds);
         }
+        // 刷新权限的本地缓存
+        refreshPermissionLocalCache(null, roleId);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    @Caching(evict = {
-            @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST,
-                    allEntries = true), // allEntries 清空所有缓存，此处无法方便获得 roleId 对应的 menu 缓存们
-            @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST,
-                    allEntries = true) // allEntries 清空所有缓存，此处无法方便获得 roleId 对应的 user 缓存们
-    })
+    @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST,
+            allEntries = true) // allEntries 清空所有缓存，此处无法方便获得 roleId 对应的 user 缓存们
     public void processRoleDeleted(Long roleId) {
         // 标记删除 UserRole
         userRoleMapper.deleteListByRoleId(roleId);
         // 标记删除 RoleMenu
         roleMenuMapper.deleteListByRoleId(roleId);
+        // 刷新权限的本地缓存
+        refreshPermissionLocalCache(null, roleId);
     }
 
     @Override
-    @CacheEvict(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
     public void processMenuDeleted(Long menuId) {
         roleMenuMapper.deleteListByMenuId(menuId);
+        // 刷新权限的本地缓存。此时不知道哪些角色拥有该菜单，直接全部清理
+        refreshPermissionLocalCache(null, null);
+    }
+
+    @Override
+    public void processRoleUpdated(Long roleId) {
+        // 角色的状态、标识可能变化，刷新权限的本地缓存
+        refreshPermissionLocalCache(null, roleId);
+    }
+
+    @Override
+    public void processMenuUpdated(Long menuId) {
+        // 菜单的权限标识可能变化，且不知道哪些角色拥有该菜单，直接全部清理
+        refreshPermissionLocalCache(null, null);
     }
 
     @Override
@@ -194,16 +336,10 @@ public class PermissionServiceImpl implements PermissionService {
         return convertSet(roleMenuMapper.selectListByRoleId(roleIds), RoleMenuDO::getMenuId);
     }
 
-    @Override
-    @Cacheable(value = RedisKeyConstants.MENU_ROLE_ID_LIST, key = "#menuId")
-    public Set<Long> getMenuRoleIdListByMenuIdFromCache(Long menuId) {
-        return convertSet(roleMenuMapper.selectListByMenuId(menuId), RoleMenuDO::getRoleId);
-    }
-
     // ========== 用户-角色的相关方法  ==========
 
     @Override
-    @DSTransactional // 多数据源，使用 @DSTransactional 保证本地事务，以及数据源的切换
+    @Transactional(rollbackFor = Exception.class) // 使用 Spring 事务，从而在事务提交后刷新权限的本地缓存
     @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST, key = "#userId")
     public void assignUserRole(Long userId, Set<Long> roleIds) {
         // 获得角色拥有角色编号
@@ -225,12 +361,16 @@ public class PermissionServiceImpl implements PermissionService {
         if (!CollectionUtil.isEmpty(deleteMenuIds)) {
             userRoleMapper.deleteListByUserIdAndRoleIdIds(userId, deleteMenuIds);
         }
+        // 刷新权限的本地缓存
+        refreshPermissionLocalCache(userId, null);
     }
 
     @Override
     @CacheEvict(value = RedisKeyConstants.USER_ROLE_ID_LIST, key = "#userId")
     public void processUserDeleted(Long userId) {
         userRoleMapper.deleteListByUserId(userId);
+        // 刷新权限的本地缓存
+        refreshPermissionLocalCache(userId, null);
     }
 
     @Override
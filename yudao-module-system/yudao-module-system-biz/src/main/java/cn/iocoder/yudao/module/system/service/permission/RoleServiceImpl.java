@@ -84,6 +84,7 @@ public class RoleServiceImpl implements RoleService {
         // 2. 更新到数据库
         RoleDO updateObj = BeanUtils.toBean(updateReqVO, RoleDO.class);
         roleMapper.updateById(updateObj);
+        permissionService.processRoleUpdated(updateObj.getId());
 
         // 3. 记录操作日志上下文
         LogRecordContext.putVariable("role", role);
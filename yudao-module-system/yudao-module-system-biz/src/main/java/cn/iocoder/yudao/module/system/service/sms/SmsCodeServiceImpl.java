@@ -3,18 +3,26 @@ package cn.iocoder.yudao.module.system.service.sms;
 import cn.hutool.core.date.LocalDateTimeUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.map.MapUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.common.exception.ErrorCode;
 import cn.iocoder.yudao.module.system.api.sms.dto.code.SmsCodeSendReqDTO;
 import cn.iocoder.yudao.module.system.api.sms.dto.code.SmsCodeUseReqDTO;
 import cn.iocoder.yudao.module.system.api.sms.dto.code.SmsCodeValidateReqDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsCodeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.sms.SmsCodeMapper;
+import cn.iocoder.yudao.module.system.dal.redis.sms.SmsCodeLimitRedisDAO;
 import cn.iocoder.yudao.module.system.enums.sms.SmsSceneEnum;
 import cn.iocoder.yudao.module.system.framework.sms.config.SmsCodeProperties;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.Resource;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static cn.hutool.core.util.RandomUtil.randomInt;
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
@@ -35,6 +43,8 @@ public class SmsCodeServiceImpl implements SmsCodeService {
 
     @Resource
     private SmsCodeMapper smsCodeMapper;
+    @Resource
+    private SmsCodeLimitRedisDAO smsCodeLimitRedisDAO;
 
     @Resource
     private SmsSendService smsSendService;
@@ -51,22 +61,11 @@ public class SmsCodeServiceImpl implements SmsCodeService {
     }
 
     private String createSmsCode(String mobile, Integer scene, String ip) {
-        // 校验是否可以发送验证码，不用筛选场景
-        SmsCodeDO lastSmsCode = smsCodeMapper.selectLastByMobile(mobile, null, null);
-        if (lastSmsCode != null) {
-            if (LocalDateTimeUtil.between(lastSmsCode.getCreateTime(), LocalDateTime.now()).toMillis()
-                    < smsCodeProperties.getSendFrequency().toMillis()) { // 发送过于频繁
-                throw exception(SMS_CODE_SEND_TOO_FAST);
-            }
-            if (isToday(lastSmsCode.getCreateTime()) && // 必须是今天，才能计算超过当天的上限
-                    lastSmsCode.getTodayIndex() >= smsCodeProperties.getSendMaximumQuantityPerDay()) { // 超过当天发送的上限。
-                throw exception(SMS_CODE_EXCEED_SEND_MAXIMUM_QUANTITY_PER_DAY);
-            }
-            // TODO 芋艿：提升，每个 IP 每天可发送数量
-            // TODO 芋艿：提升，每个 IP 每小时可发送数量
-        }
+        // 校验是否可以发送验证码：基于 Redis 滑动窗口，被拒绝的请求不访问数据库
+        validateSendLimit(mobile, scene, ip);
 
         // 创建验证码记录
+        SmsCodeDO lastSmsCode = smsCodeMapper.selectLastByMobile(mobile, null, null);
         String code = String.format("%0" + smsCodeProperties.getEndCode().toString().length() + "d",
                 randomInt(smsCodeProperties.getBeginCode(), smsCodeProperties.getEndCode() + 1));
         SmsCodeDO newSmsCode = SmsCodeDO.builder().mobile(mobile).code(code).scene(scene)
@@ -76,6 +75,40 @@ public class SmsCodeServiceImpl implements SmsCodeService {
         return code;
     }
 
+    private void validateSendLimit(String mobile, Integer scene, String ip) {
+        // 按照校验的优先级，添加各个窗口；手机号的窗口不区分场景
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = new LinkedHashMap<>();
+        Map<String, ErrorCode> errorCodes = new HashMap<>();
+        addLimit(limits, errorCodes, "mobile", mobile, smsCodeProperties.getSendFrequency(), 1,
+                SMS_CODE_SEND_TOO_FAST);
+        addLimit(limits, errorCodes, "mobile", mobile, Duration.ofDays(1),
+                smsCodeProperties.getSendMaximumQuantityPerDay(), SMS_CODE_EXCEED_SEND_MAXIMUM_QUANTITY_PER_DAY);
+        if (StrUtil.isNotEmpty(ip)) {
+            addLimit(limits, errorCodes, "ip", ip, Duration.ofHours(1),
+                    smsCodeProperties.getSendMaximumQuantityPerIpPerHour(), SMS_CODE_IP_EXCEED_SEND_MAXIMUM_QUANTITY);
+            addLimit(limits, errorCodes, "ip", ip, Duration.ofDays(1),
+                    smsCodeProperties.getSendMaximumQuantityPerIpPerDay(), SMS_CODE_IP_EXCEED_SEND_MAXIMUM_QUANTITY);
+        }
+        addLimit(limits, errorCodes, "scene", scene, Duration.ofMinutes(1),
+                smsCodeProperties.getSendMaximumQuantityPerScenePerMinute(), SMS_CODE_SCENE_SEND_TOO_FAST);
+
+        // 校验并记录本次发送
+        String rejectedKey = smsCodeLimitRedisDAO.tryAcquire(limits);
+        if (rejectedKey != null) {
+            throw exception(errorCodes.get(rejectedKey));
+        }
+    }
+
+    private static void addLimit(LinkedHashMap<String, KeyValue<Duration, Integer>> limits, Map<String, ErrorCode> errorCodes,
+                                 String dimension, Object value, Duration window, Integer maximum, ErrorCode errorCode) {
+        if (maximum == null || window.isZero()) { // 未配置，不限制
+            return;
+        }
+        String key = SmsCodeLimitRedisDAO.formatKey(dimension, value, window);
+        limits.put(key, new KeyValue<>(window, maximum));
+        errorCodes.put(key, errorCode);
+    }
+
     @Override
     public void useSmsCode(SmsCodeUseReqDTO reqDTO) {
         // 检测验证码是否有效
@@ -4,8 +4,10 @@ import cn.iocoder.yudao.framework.common.pojo.PageResult;
 import cn.iocoder.yudao.module.system.controller.admin.sms.vo.log.SmsLogPageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
+import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,6 +33,21 @@ public interface SmsLogService {
     Long createSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
                       SmsTemplateDO template, String templateContent, Map<String, Object> templateParams);
 
+    /**
+     * 批量创建短信日志
+     *
+     * @param mobiles 手机号数组
+     * @param userIds 用户编号数组，与 mobiles 一一对应；为 null 时，表示都没有用户编号
+     * @param userType 用户类型
+     * @param isSend 是否发送
+     * @param template 短信模板
+     * @param templateContent 短信内容
+     * @param templateParams 短信参数
+     * @return 发送日志编号数组，与 mobiles 一一对应
+     */
+    List<Long> createSmsLogList(List<String> mobiles, List<Long> userIds, Integer userType, Boolean isSend,
+                                SmsTemplateDO template, String templateContent, Map<String, Object> templateParams);
+
     /**
      * 更新日志的发送结果
      *
@@ -45,6 +62,23 @@ public interface SmsLogService {
                              String apiSendCode, String apiSendMsg,
                              String apiRequestId, String apiSerialNo);
 
+    /**
+     * 批量更新日志的发送结果
+     *
+     * @param ids 日志编号数组
+     * @param results 短信 API 的发送结果，与 ids 一一对应
+     */
+    void updateSmsSendResultList(List<Long> ids, List<SmsSendRespDTO> results);
+
+    /**
+     * 批量更新日志的短信模板、短信渠道，用于切换到备用模板发送的场景
+     *
+     * @param ids 日志编号数组
+     * @param template 新的短信模板
+     * @param templateContent 使用新的短信模板，格式化后的短信内容
+     */
+    void updateSmsLogTemplate(List<Long> ids, SmsTemplateDO template, String templateContent);
+
     /**
      * 更新日志的接收结果
      *
@@ -57,6 +91,17 @@ public interface SmsLogService {
     void updateSmsReceiveResult(Long id, Boolean success,
                                 LocalDateTime receiveTime, String apiReceiveCode, String apiReceiveMsg);
 
+    /**
+     * 获得短信日志
+     *
+     * 用于短信平台的接收结果中，没有日志编号的场景，例如说批量发送时，多个手机号共用一个序号
+     *
+     * @param apiSerialNo 短信 API 发送返回的序号
+     * @param mobile 手机号
+     * @return 短信日志
+     */
+    SmsLogDO getSmsLogByApiSerialNo(String apiSerialNo, String mobile);
+
     /**
      * 获得短信日志分页
      *
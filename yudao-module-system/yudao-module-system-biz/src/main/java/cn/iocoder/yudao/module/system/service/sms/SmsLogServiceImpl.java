@@ -7,14 +7,19 @@ import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.sms.SmsLogMapper;
 import cn.iocoder.yudao.module.system.enums.sms.SmsReceiveStatusEnum;
 import cn.iocoder.yudao.module.system.enums.sms.SmsSendStatusEnum;
+import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+
 /**
  * 短信日志 Service 实现类
  *
@@ -30,6 +35,26 @@ public class SmsLogServiceImpl implements SmsLogService {
     @Override
     public Long createSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
                              SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        SmsLogDO logDO = buildSmsLog(mobile, userId, userType, isSend, template, templateContent, templateParams);
+        smsLogMapper.insert(logDO);
+        return logDO.getId();
+    }
+
+    @Override
+    public List<Long> createSmsLogList(List<String> mobiles, List<Long> userIds, Integer userType, Boolean isSend,
+                                       SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        List<SmsLogDO> logs = new ArrayList<>(mobiles.size());
+        for (int i = 0; i < mobiles.size(); i++) {
+            logs.add(buildSmsLog(mobiles.get(i), userIds != null ? userIds.get(i) : null, userType, isSend,
+                    template, templateContent, templateParams));
+        }
+        // 多行插入，并回填编号
+        smsLogMapper.insertBatch(logs);
+        return convertList(logs, SmsLogDO::getId);
+    }
+
+    private static SmsLogDO buildSmsLog(String mobile, Long userId, Integer userType, Boolean isSend,
+                                        SmsTemplateDO template, String templateContent, Map<String, Object> templateParams) {
         SmsLogDO.SmsLogDOBuilder logBuilder = SmsLogDO.builder();
         // 根据是否要发送，设置状态
         logBuilder.sendStatus(Objects.equals(isSend, true) ? SmsSendStatusEnum.INIT.getStatus()
@@ -45,10 +70,7 @@ public class SmsLogServiceImpl implements SmsLogService {
         // 设置接收相关字段
         logBuilder.receiveStatus(SmsReceiveStatusEnum.INIT.getStatus());
 
-        // 插入数据库
-        SmsLogDO logDO = logBuilder.build();
-        smsLogMapper.insert(logDO);
-        return logDO.getId();
+        return logBuilder.build();
     }
 
     @Override
@@ -62,6 +84,30 @@ public class SmsLogServiceImpl implements SmsLogService {
                 .apiRequestId(apiRequestId).apiSerialNo(apiSerialNo).build());
     }
 
+    @Override
+    public void updateSmsSendResultList(List<Long> ids, List<SmsSendRespDTO> results) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SmsLogDO> updateList = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            SmsSendRespDTO result = results.get(i);
+            SmsSendStatusEnum sendStatus = Objects.equals(result.getSuccess(), true) ? SmsSendStatusEnum.SUCCESS
+                    : SmsSendStatusEnum.FAILURE;
+            updateList.add(SmsLogDO.builder().id(ids.get(i))
+                    .sendStatus(sendStatus.getStatus()).sendTime(now)
+                    .apiSendCode(result.getApiCode()).apiSendMsg(result.getApiMsg())
+                    .apiRequestId(result.getApiRequestId()).apiSerialNo(result.getSerialNo()).build());
+        }
+        smsLogMapper.updateBatch(updateList);
+    }
+
+    @Override
+    public void updateSmsLogTemplate(List<Long> ids, SmsTemplateDO template, String templateContent) {
+        smsLogMapper.updateByIds(ids, SmsLogDO.builder()
+                .templateId(template.getId()).templateCode(template.getCode()).templateType(template.getType())
+                .templateContent(templateContent).apiTemplateId(template.getApiTemplateId())
+                .channelId(template.getChannelId()).channelCode(template.getChannelCode()).build());
+    }
+
     @Override
     public void updateSmsReceiveResult(Long id, Boolean success, LocalDateTime receiveTime,
                                        String apiReceiveCode, String apiReceiveMsg) {
@@ -71,6 +117,11 @@ public class SmsLogServiceImpl implements SmsLogService {
                 .receiveTime(receiveTime).apiReceiveCode(apiReceiveCode).apiReceiveMsg(apiReceiveMsg).build());
     }
 
+    @Override
+    public SmsLogDO getSmsLogByApiSerialNo(String apiSerialNo, String mobile) {
+        return smsLogMapper.selectByApiSerialNoAndMobile(apiSerialNo, mobile);
+    }
+
     @Override
     public PageResult<SmsLogDO> getSmsLogPage(SmsLogPageReqVO pageReqVO) {
         return smsLogMapper.selectPage(pageReqVO);
@@ -1,5 +1,6 @@
 package cn.iocoder.yudao.module.system.service.sms;
 
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsBatchSendMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 
 import java.util.List;
@@ -53,10 +54,19 @@ public interface SmsSendService {
     Long sendSingleSms(String mobile, Long userId, Integer userType,
                        String templateCode, Map<String, Object> templateParams);
 
-    default void sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
-                              String templateCode, Map<String, Object> templateParams) {
-        throw new UnsupportedOperationException("暂时不支持该操作，感兴趣可以实现该功能哟！");
-    }
+    /**
+     * 批量发送短信给用户，所有手机号使用相同的模板参数，例如说营销短信
+     *
+     * 按批创建发送日志、投递 MQ 消息，由 {@link #doSendBatchSms(SmsBatchSendMessage)} 调用短信平台的批量发送接口
+     *
+     * @param mobiles 手机号数组，为空的手机号会被忽略
+     * @param userIds 用户编号数组，与 mobiles 一一对应；允许为 null
+     * @param userType 用户类型
+     * @param templateCode 短信模板编号
+     * @param templateParams 短信模板参数
+     */
+    void sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
+                      String templateCode, Map<String, Object> templateParams);
 
     /**
      * 执行真正的短信发送
@@ -66,6 +76,14 @@ public interface SmsSendService {
      */
     void doSendSms(SmsSendMessage message);
 
+    /**
+     * 执行真正的短信批量发送
+     * 注意，该方法仅仅提供给 MQ Consumer 使用
+     *
+     * @param message 短信
+     */
+    void doSendBatchSms(SmsBatchSendMessage message);
+
     /**
      * 接收短信的接收结果
      *
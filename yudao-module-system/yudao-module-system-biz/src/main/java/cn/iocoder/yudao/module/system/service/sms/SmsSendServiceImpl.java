@@ -3,17 +3,23 @@ package cn.iocoder.yudao.module.system.service.sms;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.exceptions.ExceptionUtil;
 import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.ObjUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.iocoder.yudao.framework.common.core.KeyValue;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.common.util.collection.MapUtils;
 import cn.iocoder.yudao.framework.datapermission.core.annotation.DataPermission;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.SmsClient;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsReceiveRespDTO;
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsChannelDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.redis.sms.SmsChannelRateLimitRedisDAO;
+import cn.iocoder.yudao.module.system.framework.sms.config.SmsSendProperties;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsBatchSendMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import cn.iocoder.yudao.module.system.mq.producer.sms.SmsProducer;
 import cn.iocoder.yudao.module.system.service.member.MemberService;
@@ -23,11 +29,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static cn.iocoder.yudao.framework.common.exception.util.ServiceExceptionUtil.exception;
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 
 /**
@@ -50,9 +62,22 @@ public class SmsSendServiceImpl implements SmsSendService {
     @Resource
     private SmsLogService smsLogService;
 
+    @Resource
+    private SmsChannelRateLimitRedisDAO smsChannelRateLimitRedisDAO;
+
     @Resource
     private SmsProducer smsProducer;
 
+    @Resource
+    private SmsSendProperties smsSendProperties;
+
+    /**
+     * 短信渠道的失败切换状态
+     *
+     * key：渠道编号
+     */
+    private final ConcurrentMap<Long, ChannelFailover> channelFailovers = new ConcurrentHashMap<>();
+
     @Override
     @DataPermission(enable = false) // 发送短信时，无需考虑数据权限
     public Long sendSingleSmsToAdmin(String mobile, Long userId, String templateCode, Map<String, Object> templateParams) {
@@ -104,6 +129,50 @@ public class SmsSendServiceImpl implements SmsSendService {
         return sendLogId;
     }
 
+    @Override
+    public void sendBatchSms(List<String> mobiles, List<Long> userIds, Integer userType,
+                             String templateCode, Map<String, Object> templateParams) {
+        Assert.isTrue(userIds == null || userIds.size() == mobiles.size(), "手机号与用户编号的数量不一致");
+        // 校验短信模板、短信渠道是否合法
+        SmsTemplateDO template = validateSmsTemplate(templateCode);
+        SmsChannelDO smsChannel = validateSmsChannel(template.getChannelId());
+        // 构建有序的模板参数、短信内容。所有手机号共用，只需要构建一次
+        List<KeyValue<String, Object>> newTemplateParams = buildTemplateParams(template, templateParams);
+        String content = smsTemplateService.formatSmsTemplateContent(template.getContent(), templateParams);
+        Boolean isSend = CommonStatusEnum.ENABLE.getStatus().equals(template.getStatus())
+                && CommonStatusEnum.ENABLE.getStatus().equals(smsChannel.getStatus());
+
+        // 过滤掉为空的手机号
+        List<String> sendMobiles = new ArrayList<>(mobiles.size());
+        List<Long> sendUserIds = userIds != null ? new ArrayList<>(mobiles.size()) : null;
+        for (int i = 0; i < mobiles.size(); i++) {
+            if (StrUtil.isEmpty(mobiles.get(i))) {
+                continue;
+            }
+            sendMobiles.add(mobiles.get(i));
+            if (sendUserIds != null) {
+                sendUserIds.add(userIds.get(i));
+            }
+        }
+        if (sendMobiles.size() < mobiles.size()) {
+            log.warn("[sendBatchSms][短信模板({}) 忽略 {} 个为空的手机号]", templateCode, mobiles.size() - sendMobiles.size());
+        }
+
+        // 按批创建发送日志，并发送 MQ 消息，异步执行批量发送
+        int batchSize = smsSendProperties.getBatchSize();
+        for (int from = 0; from < sendMobiles.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, sendMobiles.size());
+            List<String> batchMobiles = sendMobiles.subList(from, to);
+            List<Long> logIds = smsLogService.createSmsLogList(batchMobiles,
+                    sendUserIds != null ? sendUserIds.subList(from, to) : null, userType,
+                    isSend, template, content, templateParams);
+            if (isSend) {
+                smsProducer.sendSmsBatchSendMessage(logIds, new ArrayList<>(batchMobiles), template.getCode(),
+                        template.getChannelId(), template.getApiTemplateId(), newTemplateParams);
+            }
+        }
+    }
+
     @VisibleForTesting
     SmsChannelDO validateSmsChannel(Long channelId) {
         // 获得短信模板。考虑到效率，从缓存中获取
@@ -159,7 +228,8 @@ public class SmsSendServiceImpl implements SmsSendService {
         // 获得渠道对应的 SmsClient 客户端
         SmsClient smsClient = smsChannelService.getSmsClient(message.getChannelId());
         Assert.notNull(smsClient, "短信客户端({}) 不存在", message.getChannelId());
-        // 发送短信
+        // 发送短信。和批量发送共用渠道的令牌桶，避免批量发送占满短信平台的 QPS 后，单条发送被短信平台限流
+        acquireSendToken(message.getChannelId());
         try {
             SmsSendRespDTO sendResponse = smsClient.sendSms(message.getLogId(), message.getMobile(),
                     message.getApiTemplateId(), message.getTemplateParams());
@@ -173,6 +243,132 @@ public class SmsSendServiceImpl implements SmsSendService {
         }
     }
 
+    @Override
+    public void doSendBatchSms(SmsBatchSendMessage message) {
+        // 获得渠道对应的 SmsClient 客户端
+        SmsClient smsClient = smsChannelService.getSmsClient(message.getChannelId());
+        Assert.notNull(smsClient, "短信客户端({}) 不存在", message.getChannelId());
+        // 按照短信平台单次支持的手机号数量，拆分发送
+        int size = smsClient.getMaxBatchSize();
+        for (int from = 0; from < message.getMobiles().size(); from += size) {
+            int to = Math.min(from + size, message.getMobiles().size());
+            doSendBatchSms(message, smsClient, message.getLogIds().subList(from, to),
+                    message.getMobiles().subList(from, to));
+        }
+    }
+
+    private void doSendBatchSms(SmsBatchSendMessage message, SmsClient smsClient,
+                                List<Long> logIds, List<String> mobiles) {
+        // 1. 原渠道处于连续失败的状态时，优先使用备用模板发送
+        ChannelFailover failover = getChannelFailover(message.getChannelId());
+        if (failover.isOpen() && sendBatchSmsByFailoverTemplate(message, logIds, mobiles)) {
+            return;
+        }
+
+        // 2.1 使用原渠道发送
+        List<SmsSendRespDTO> results = sendBatchSms(smsClient, message.getChannelId(), logIds, mobiles,
+                message.getApiTemplateId(), message.getTemplateParams());
+        if (!isAllFailure(results)) {
+            failover.recordSuccess();
+            smsLogService.updateSmsSendResultList(logIds, results);
+            return;
+        }
+        // 2.2 整批失败时，累加失败次数；达到阈值后，使用备用模板重新发送
+        if (failover.recordFailure(smsSendProperties.getFailoverErrorCount(), smsSendProperties.getFailoverDuration())
+                && sendBatchSmsByFailoverTemplate(message, logIds, mobiles)) {
+            return;
+        }
+        smsLogService.updateSmsSendResultList(logIds, results);
+    }
+
+    /**
+     * 使用备用模板，批量发送短信
+     *
+     * @param message 短信
+     * @param logIds 日志编号数组
+     * @param mobiles 手机号数组
+     * @return 是否发送。未配置备用模板、或备用模板不可用时，返回 false
+     */
+    private boolean sendBatchSmsByFailoverTemplate(SmsBatchSendMessage message, List<Long> logIds, List<String> mobiles) {
+        // 1. 校验备用模板、备用渠道是否可用
+        String failoverTemplateCode = smsSendProperties.getFailoverTemplateCodes().get(message.getTemplateCode());
+        if (StrUtil.isEmpty(failoverTemplateCode)) {
+            return false;
+        }
+        SmsTemplateDO template = smsTemplateService.getSmsTemplateByCodeFromCache(failoverTemplateCode);
+        if (template == null || ObjUtil.notEqual(template.getStatus(), CommonStatusEnum.ENABLE.getStatus())) {
+            log.warn("[sendBatchSmsByFailoverTemplate][备用模板({}) 不存在或被禁用]", failoverTemplateCode);
+            return false;
+        }
+        SmsChannelDO channel = smsChannelService.getSmsChannel(template.getChannelId());
+        SmsClient smsClient = smsChannelService.getSmsClient(template.getChannelId());
+        if (channel == null || ObjUtil.notEqual(channel.getStatus(), CommonStatusEnum.ENABLE.getStatus())
+                || smsClient == null) {
+            log.warn("[sendBatchSmsByFailoverTemplate][备用模板({}) 的渠道({}) 不可用]",
+                    failoverTemplateCode, template.getChannelId());
+            return false;
+        }
+
+        Map<String, Object> paramMap = MapUtils.convertMap(message.getTemplateParams());
+        if (!paramMap.keySet().containsAll(template.getParams())) {
+            log.warn("[sendBatchSmsByFailoverTemplate][备用模板({}) 的参数({}) 与原模板的参数({}) 不匹配]",
+                    failoverTemplateCode, template.getParams(), paramMap.keySet());
+            return false;
+        }
+
+        // 2. 使用备用模板发送
+        log.warn("[sendBatchSmsByFailoverTemplate][渠道({}) 连续失败，使用备用模板({}) 发送 {} 条短信]",
+                message.getChannelId(), failoverTemplateCode, mobiles.size());
+        List<KeyValue<String, Object>> templateParams = buildTemplateParams(template, paramMap);
+        List<SmsSendRespDTO> results = new ArrayList<>(mobiles.size());
+        int size = smsClient.getMaxBatchSize();
+        for (int from = 0; from < mobiles.size(); from += size) {
+            int to = Math.min(from + size, mobiles.size());
+            results.addAll(sendBatchSms(smsClient, template.getChannelId(), logIds.subList(from, to),
+                    mobiles.subList(from, to), template.getApiTemplateId(), templateParams));
+        }
+        String content = smsTemplateService.formatSmsTemplateContent(template.getContent(), paramMap);
+        smsLogService.updateSmsLogTemplate(logIds, template, content);
+        smsLogService.updateSmsSendResultList(logIds, results);
+        return true;
+    }
+
+    /**
+     * 调用短信平台，批量发送短信
+     *
+     * 每次调用前，从渠道的令牌桶中获取令牌，保证调用速率不超过短信平台的限制
+     */
+    private List<SmsSendRespDTO> sendBatchSms(SmsClient smsClient, Long channelId, List<Long> logIds, List<String> mobiles,
+                                              String apiTemplateId, List<KeyValue<String, Object>> templateParams) {
+        acquireSendToken(channelId);
+        try {
+            return smsClient.sendBatchSms(logIds, mobiles, apiTemplateId, templateParams);
+        } catch (Throwable ex) {
+            log.error("[sendBatchSms][批量发送短信异常，渠道编号({}) 日志编号({})]", channelId, logIds, ex);
+            String apiMsg = ExceptionUtil.getRootCauseMessage(ex);
+            return convertList(logIds, logId -> new SmsSendRespDTO().setSuccess(false)
+                    .setApiCode("EXCEPTION").setApiMsg(apiMsg));
+        }
+    }
+
+    /**
+     * 从渠道的令牌桶中获取令牌，令牌不足时阻塞等待。单条发送、批量发送共用同一个令牌桶
+     *
+     * @param channelId 渠道编号
+     */
+    private void acquireSendToken(Long channelId) {
+        SmsChannelDO channel = smsChannelService.getSmsChannel(channelId);
+        smsChannelRateLimitRedisDAO.acquire(channelId, smsSendProperties.getQps(channel != null ? channel.getCode() : null));
+    }
+
+    private static boolean isAllFailure(List<SmsSendRespDTO> results) {
+        return results.stream().noneMatch(result -> Boolean.TRUE.equals(result.getSuccess()));
+    }
+
+    private ChannelFailover getChannelFailover(Long channelId) {
+        return channelFailovers.computeIfAbsent(channelId, key -> new ChannelFailover());
+    }
+
     @Override
     public void receiveSmsStatus(String channelCode, String text) throws Throwable {
         // 获得渠道对应的 SmsClient 客户端
@@ -184,8 +380,60 @@ public class SmsSendServiceImpl implements SmsSendService {
             return;
         }
         // 更新短信日志的接收结果. 因为量一般不大，所以先使用 for 循环更新
-        receiveResults.forEach(result -> smsLogService.updateSmsReceiveResult(result.getLogId(),
-                result.getSuccess(), result.getReceiveTime(), result.getErrorCode(), result.getErrorMsg()));
+        receiveResults.forEach(result -> {
+            // 批量发送时，接收结果中没有日志编号，需要通过序号 + 手机号查找
+            Long logId = result.getLogId();
+            if (logId == null && StrUtil.isNotEmpty(result.getSerialNo())) {
+                SmsLogDO smsLog = smsLogService.getSmsLogByApiSerialNo(result.getSerialNo(), result.getMobile());
+                logId = smsLog != null ? smsLog.getId() : null;
+            }
+            if (logId == null) {
+                log.warn("[receiveSmsStatus][渠道({}) 接收结果({}) 找不到对应的日志]", channelCode, result);
+                return;
+            }
+            smsLogService.updateSmsReceiveResult(logId, result.getSuccess(), result.getReceiveTime(),
+                    result.getErrorCode(), result.getErrorMsg());
+        });
+    }
+
+    /**
+     * 短信渠道的失败切换状态
+     *
+     * 连续整批失败达到阈值后，在一段时间内，优先使用备用模板发送；状态只保存在当前节点
+     */
+    @VisibleForTesting
+    static class ChannelFailover {
+
+        /**
+         * 连续失败次数
+         */
+        private final AtomicInteger errorCount = new AtomicInteger();
+        /**
+         * 切换到备用模板的截止时间（毫秒）
+         */
+        private volatile long openUntil;
+
+        boolean isOpen() {
+            return System.currentTimeMillis() < openUntil;
+        }
+
+        void recordSuccess() {
+            errorCount.set(0);
+        }
+
+        /**
+         * 记录一次失败
+         *
+         * @return 记录后，是否处于切换状态
+         */
+        boolean recordFailure(int threshold, Duration duration) {
+            if (errorCount.incrementAndGet() >= threshold) {
+                errorCount.set(0);
+                openUntil = System.currentTimeMillis() + duration.toMillis();
+            }
+            return isOpen();
+        }
+
     }
 
 }
@@ -28,9 +28,9 @@ import cn.iocoder.yudao.module.system.dal.redis.RedisKeyConstants;
 import cn.iocoder.yudao.module.system.enums.social.SocialTypeEnum;
 import com.binarywang.spring.starter.wxjava.miniapp.properties.WxMaProperties;
 import com.binarywang.spring.starter.wxjava.mp.properties.WxMpProperties;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.xingyuv.jushauth.config.AuthConfig;
 import com.xingyuv.jushauth.model.AuthCallback;
 import com.xingyuv.jushauth.model.AuthResponse;
@@ -109,7 +109,7 @@ public class SocialClientServiceImpl implements SocialClientService {
      * 为什么要做 WxMpService 缓存？因为 WxMpService 构建成本比较大，所以尽量保证它是单例。
      */
     private final LoadingCache<String, WxMpService> wxMpServiceCache = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofSeconds(10L),
+            "system-social-wx-mp-service", Duration.ofSeconds(10L),
             new CacheLoader<String, WxMpService>() {
 
                 @Override
@@ -130,7 +130,7 @@ public class SocialClientServiceImpl implements SocialClientService {
      * 说明同 {@link #wxMpServiceCache} 变量
      */
     private final LoadingCache<String, WxMaService> wxMaServiceCache = CacheUtils.buildAsyncReloadingCache(
-            Duration.ofSeconds(10L),
+            "system-social-wx-ma-service", Duration.ofSeconds(10L),
             new CacheLoader<String, WxMaService>() {
 
                 @Override
@@ -220,7 +220,7 @@ public class SocialClientServiceImpl implements SocialClientService {
         SocialClientDO client = socialClientMapper.selectBySocialTypeAndUserType(
                 SocialTypeEnum.WECHAT_MP.getType(), userType);
         if (client != null && Objects.equals(client.getStatus(), CommonStatusEnum.ENABLE.getStatus())) {
-            return wxMpServiceCache.getUnchecked(client.getClientId() + ":" + client.getClientSecret());
+            return wxMpServiceCache.get(client.getClientId() + ":" + client.getClientSecret());
         }
         // 第二步，不存在 DB 配置项，则使用 application-*.yaml 对应的 WxMpService 对象
         return wxMpService;
@@ -339,7 +339,7 @@ public class SocialClientServiceImpl implements SocialClientService {
         SocialClientDO client = socialClientMapper.selectBySocialTypeAndUserType(
                 SocialTypeEnum.WECHAT_MINI_APP.getType(), userType);
         if (client != null && Objects.equals(client.getStatus(), CommonStatusEnum.ENABLE.getStatus())) {
-            return wxMaServiceCache.getUnchecked(client.getClientId() + ":" + client.getClientSecret());
+            return wxMaServiceCache.get(client.getClientId() + ":" + client.getClientSecret());
         }
         // 第二步，不存在 DB 配置项，则使用 application-*.yaml 对应的 WxMaService 对象
         return wxMaService;
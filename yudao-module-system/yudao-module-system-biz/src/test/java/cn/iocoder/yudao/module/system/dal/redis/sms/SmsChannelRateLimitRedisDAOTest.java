@@ -0,0 +1,64 @@
+package cn.iocoder.yudao.module.system.dal.redis.sms;
+
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SmsChannelRateLimitRedisDAO} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(SmsChannelRateLimitRedisDAO.class)
+public class SmsChannelRateLimitRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final Long CHANNEL_ID = 1L;
+
+    @Resource
+    private SmsChannelRateLimitRedisDAO smsChannelRateLimitRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("sms_channel_rate_limit:*"));
+    }
+
+    @Test
+    public void testTryAcquire() {
+        // 调用：令牌桶初始是满的，可以连续获取 QPS 个令牌
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, smsChannelRateLimitRedisDAO.tryAcquire(CHANNEL_ID, 10));
+        }
+        // 断言：令牌用尽后，返回下一个令牌的等待时间，不超过 1 / QPS 秒
+        long wait = smsChannelRateLimitRedisDAO.tryAcquire(CHANNEL_ID, 10);
+        assertTrue(wait > 0 && wait <= 100, "等待时间：" + wait);
+        // 断言：不同渠道的令牌桶相互独立
+        assertEquals(0, smsChannelRateLimitRedisDAO.tryAcquire(2L, 10));
+    }
+
+    @Test
+    public void testAcquire() {
+        // 准备参数：先用尽令牌
+        for (int i = 0; i < 20; i++) {
+            smsChannelRateLimitRedisDAO.tryAcquire(CHANNEL_ID, 20);
+        }
+
+        // 调用：再获取 10 个令牌，需要按照 QPS 补充
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            smsChannelRateLimitRedisDAO.acquire(CHANNEL_ID, 20);
+        }
+        // 断言：耗时约 10 / 20 秒
+        long cost = System.currentTimeMillis() - start;
+        assertTrue(cost >= 400, "耗时：" + cost);
+    }
+
+}
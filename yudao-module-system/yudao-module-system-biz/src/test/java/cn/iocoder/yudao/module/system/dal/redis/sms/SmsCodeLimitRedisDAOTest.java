@@ -0,0 +1,155 @@
+package cn.iocoder.yudao.module.system.dal.redis.sms;
+
+import cn.iocoder.yudao.framework.common.core.KeyValue;
+import cn.iocoder.yudao.framework.test.core.ut.BaseRedisUnitTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SmsCodeLimitRedisDAO} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import(SmsCodeLimitRedisDAO.class)
+public class SmsCodeLimitRedisDAOTest extends BaseRedisUnitTest {
+
+    private static final String MOBILE = "15601691300";
+    private static final String IP = "127.0.0.1";
+
+    @Resource
+    private SmsCodeLimitRedisDAO smsCodeLimitRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("{sms_code_send_window}:*"));
+    }
+
+    @Test
+    public void testTryAcquire() {
+        // 准备参数：手机号每分钟 1 条，IP 每小时 2 条
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = buildLimits(MOBILE, 1, 2);
+        String mobileKey = SmsCodeLimitRedisDAO.formatKey("mobile", MOBILE, Duration.ofMinutes(1));
+        String ipKey = SmsCodeLimitRedisDAO.formatKey("ip", IP, Duration.ofHours(1));
+        // 断言：多个窗口使用相同的 hash tag，Redis Cluster 下落在同一个 slot
+        assertTrue(mobileKey.startsWith("{sms_code_send_window}:"));
+        assertTrue(ipKey.startsWith("{sms_code_send_window}:"));
+
+        // 调用，第一次通过
+        assertNull(smsCodeLimitRedisDAO.tryAcquire(limits));
+        // 调用，手机号达到上限
+        assertEquals(mobileKey, smsCodeLimitRedisDAO.tryAcquire(limits));
+        // 断言：被拒绝时，IP 的窗口不记录
+        assertEquals(1L, stringRedisTemplate.opsForZSet().zCard(ipKey));
+
+        // 调用，更换手机号，第二次通过；再更换手机号，IP 达到上限
+        assertNull(smsCodeLimitRedisDAO.tryAcquire(buildLimits("15601691301", 1, 2)));
+        assertEquals(ipKey, smsCodeLimitRedisDAO.tryAcquire(buildLimits("15601691302", 1, 2)));
+    }
+
+    @Test
+    public void testTryAcquire_windowSlide() throws InterruptedException {
+        // 准备参数：手机号每 200 毫秒 1 条
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = new LinkedHashMap<>();
+        limits.put(SmsCodeLimitRedisDAO.formatKey("mobile", MOBILE, Duration.ofMillis(200)),
+                new KeyValue<>(Duration.ofMillis(200), 1));
+
+        // 调用
+        assertNull(smsCodeLimitRedisDAO.tryAcquire(limits));
+        assertNotNull(smsCodeLimitRedisDAO.tryAcquire(limits));
+        // 调用，窗口滑过后，再次通过
+        Thread.sleep(250);
+        assertNull(smsCodeLimitRedisDAO.tryAcquire(limits));
+    }
+
+    /**
+     * 并发测试：同一手机号并发请求，只有上限数量的请求通过
+     */
+    @Test
+    public void testTryAcquire_concurrent() throws InterruptedException {
+        // 准备参数：每日 10 条
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = new LinkedHashMap<>();
+        limits.put(SmsCodeLimitRedisDAO.formatKey("mobile", MOBILE, Duration.ofDays(1)),
+                new KeyValue<>(Duration.ofDays(1), 10));
+
+        // 调用
+        AtomicInteger acquiredCount = new AtomicInteger();
+        runConcurrently(500, 32, () -> {
+            if (smsCodeLimitRedisDAO.tryAcquire(limits) == null) {
+                acquiredCount.incrementAndGet();
+            }
+        });
+        // 断言
+        assertEquals(10, acquiredCount.get());
+    }
+
+    /**
+     * 压测：模拟短信轰炸，单个手机号以 10k RPS 请求，全部在 Redis 被拒绝
+     *
+     * 依赖本地 Redis 的性能，默认不执行
+     */
+    @Test
+    @Disabled
+    public void benchmark_rejectAt10kRps() throws InterruptedException {
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = buildLimits(MOBILE, 1, 20);
+        assertNull(smsCodeLimitRedisDAO.tryAcquire(limits));
+
+        int requestCount = 100000;
+        AtomicInteger rejectedCount = new AtomicInteger();
+        long start = System.nanoTime();
+        runConcurrently(requestCount, 64, () -> {
+            if (smsCodeLimitRedisDAO.tryAcquire(limits) != null) {
+                rejectedCount.incrementAndGet();
+            }
+        });
+        long costMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long rps = requestCount * 1000L / Math.max(costMillis, 1);
+        System.out.printf("[benchmark_rejectAt10kRps][请求 %d 次，拒绝 %d 次，耗时 %d ms，RPS %d]%n",
+                requestCount, rejectedCount.get(), costMillis, rps);
+        assertEquals(requestCount, rejectedCount.get());
+        assertTrue(rps >= 10000, "RPS 未达到 10k：" + rps);
+    }
+
+    private static LinkedHashMap<String, KeyValue<Duration, Integer>> buildLimits(String mobile,
+                                                                                 int mobilePerMinute, int ipPerHour) {
+        LinkedHashMap<String, KeyValue<Duration, Integer>> limits = new LinkedHashMap<>();
+        limits.put(SmsCodeLimitRedisDAO.formatKey("mobile", mobile, Duration.ofMinutes(1)),
+                new KeyValue<>(Duration.ofMinutes(1), mobilePerMinute));
+        limits.put(SmsCodeLimitRedisDAO.formatKey("ip", IP, Duration.ofHours(1)),
+                new KeyValue<>(Duration.ofHours(1), ipPerHour));
+        return limits;
+    }
+
+    private static void runConcurrently(int count, int threads, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(1, TimeUnit.MINUTES));
+        executor.shutdown();
+    }
+
+}
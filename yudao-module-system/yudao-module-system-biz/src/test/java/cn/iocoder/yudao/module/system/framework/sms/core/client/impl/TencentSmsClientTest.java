@@ -142,6 +142,108 @@ public class TencentSmsClientTest extends BaseMockitoUnitTest {
         }
     }
 
+    @Test
+    public void testSendBatchSms() throws Throwable {
+        try (MockedStatic<HttpUtils> httpUtilsMockedStatic = mockStatic(HttpUtils.class)) {
+            // 准备参数
+            List<Long> logIds = Lists.newArrayList(1L, 2L, 3L);
+            List<String> mobiles = Lists.newArrayList("18511122233", "18511122234", "18511122235");
+            String apiTemplateId = randomString();
+            List<KeyValue<String, Object>> templateParams = Lists.newArrayList(new KeyValue<>("1", "双十一"));
+            // mock 方法：返回的顺序与请求不同，且缺少第 3 个手机号
+            httpUtilsMockedStatic.when(() -> HttpUtils.post(anyString(), anyMap(), anyString()))
+                    .thenReturn("{\n" +
+                                    "    \"Response\": {\n" +
+                                    "        \"SendStatusSet\": [\n" +
+                                    "            {\n" +
+                                    "                \"SerialNo\": \"5000:002\",\n" +
+                                    "                \"PhoneNumber\": \"+8618511122234\",\n" +
+                                    "                \"Code\": \"LimitExceeded.PhoneNumberDailyLimit\",\n" +
+                                    "                \"Message\": \"daily limit\"\n" +
+                                    "            },\n" +
+                                    "            {\n" +
+                                    "                \"SerialNo\": \"5000:001\",\n" +
+                                    "                \"PhoneNumber\": \"+8618511122233\",\n" +
+                                    "                \"Code\": \"Ok\",\n" +
+                                    "                \"Message\": \"send success\"\n" +
+                                    "            }\n" +
+                                    "        ],\n" +
+                                    "        \"RequestId\": \"a0aabda6-cf91-4f3e-a81f-9198114a2279\"\n" +
+                                    "    }\n" +
+                                    "}");
+
+            // 调用
+            List<SmsSendRespDTO> results = smsClient.sendBatchSms(logIds, mobiles, apiTemplateId, templateParams);
+            // 断言：按照手机号匹配结果
+            assertEquals(3, results.size());
+            assertTrue(results.get(0).getSuccess());
+            assertEquals("5000:001", results.get(0).getSerialNo());
+            assertFalse(results.get(1).getSuccess());
+            assertEquals("5000:002", results.get(1).getSerialNo());
+            assertEquals("LimitExceeded.PhoneNumberDailyLimit", results.get(1).getApiCode());
+            assertFalse(results.get(2).getSuccess());
+            assertEquals("a0aabda6-cf91-4f3e-a81f-9198114a2279", results.get(2).getApiRequestId());
+        }
+    }
+
+    @Test
+    public void testSendBatchSms_normalizeMobile() throws Throwable {
+        try (MockedStatic<HttpUtils> httpUtilsMockedStatic = mockStatic(HttpUtils.class)) {
+            // 准备参数：同一个手机号出现两次，且格式不同；以及一个是其它手机号后缀的号码
+            List<Long> logIds = Lists.newArrayList(1L, 2L, 3L, 4L);
+            List<String> mobiles = Lists.newArrayList("+86 185-1112-2233", "18511122233", "008618511122234", "1122234");
+            String apiTemplateId = randomString();
+            List<KeyValue<String, Object>> templateParams = Lists.newArrayList(new KeyValue<>("1", "双十一"));
+            // mock 方法
+            httpUtilsMockedStatic.when(() -> HttpUtils.post(anyString(), anyMap(), anyString()))
+                    .thenReturn("{\n" +
+                                    "    \"Response\": {\n" +
+                                    "        \"SendStatusSet\": [\n" +
+                                    "            {\n" +
+                                    "                \"SerialNo\": \"5000:001\",\n" +
+                                    "                \"PhoneNumber\": \"+8618511122233\",\n" +
+                                    "                \"Code\": \"Ok\",\n" +
+                                    "                \"Message\": \"send success\"\n" +
+                                    "            },\n" +
+                                    "            {\n" +
+                                    "                \"SerialNo\": \"5000:003\",\n" +
+                                    "                \"PhoneNumber\": \"+8618511122234\",\n" +
+                                    "                \"Code\": \"Ok\",\n" +
+                                    "                \"Message\": \"send success\"\n" +
+                                    "            },\n" +
+                                    "            {\n" +
+                                    "                \"SerialNo\": \"5000:002\",\n" +
+                                    "                \"PhoneNumber\": \"+8618511122233\",\n" +
+                                    "                \"Code\": \"Ok\",\n" +
+                                    "                \"Message\": \"send success\"\n" +
+                                    "            }\n" +
+                                    "        ],\n" +
+                                    "        \"RequestId\": \"a0aabda6-cf91-4f3e-a81f-9198114a2279\"\n" +
+                                    "    }\n" +
+                                    "}");
+
+            // 调用
+            List<SmsSendRespDTO> results = smsClient.sendBatchSms(logIds, mobiles, apiTemplateId, templateParams);
+            // 断言：重复的手机号，依次对应不同的结果
+            assertEquals(4, results.size());
+            assertEquals("5000:001", results.get(0).getSerialNo());
+            assertEquals("5000:002", results.get(1).getSerialNo());
+            assertEquals("5000:003", results.get(2).getSerialNo());
+            // 断言：只是后缀相同的号码，不匹配
+            assertFalse(results.get(3).getSuccess());
+            assertNull(results.get(3).getSerialNo());
+        }
+    }
+
+    @Test
+    public void testNormalizeMobile() {
+        assertEquals("18511122233", TencentSmsClient.normalizeMobile("18511122233"));
+        assertEquals("18511122233", TencentSmsClient.normalizeMobile("+8618511122233"));
+        assertEquals("18511122233", TencentSmsClient.normalizeMobile("0086 185 1112 2233"));
+        assertEquals("85212345678", TencentSmsClient.normalizeMobile("+85212345678"));
+        assertEquals("", TencentSmsClient.normalizeMobile(null));
+    }
+
     @Test
     public void testParseSmsReceiveStatus() {
         // 准备参数
@@ -7,7 +7,10 @@ import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptListReqV
 import cn.iocoder.yudao.module.system.controller.admin.dept.vo.dept.DeptSaveReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.dept.DeptDO;
 import cn.iocoder.yudao.module.system.dal.mysql.dept.DeptMapper;
+import cn.iocoder.yudao.module.system.mq.producer.dept.DeptProducer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
@@ -15,12 +18,17 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
+import static cn.iocoder.yudao.framework.common.util.collection.SetUtils.asSet;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * {@link DeptServiceImpl} 的单元测试类
@@ -35,6 +43,15 @@ public class DeptServiceImplTest extends BaseDbUnitTest {
     @Resource
     private DeptMapper deptMapper;
 
+    @MockBean
+    private DeptProducer deptProducer;
+
+    @BeforeEach
+    public void setUp() {
+        // 清理部门树的本地索引，避免上一个测试的数据影响
+        deptService.invalidateDeptTreeLocalCache(null);
+    }
+
     @Test
     public void testCreateDept() {
         // 准备参数
@@ -260,6 +277,34 @@ public class DeptServiceImplTest extends BaseDbUnitTest {
         assertTrue(result.contains(dept1a.getId()));
     }
 
+    @Test
+    public void testGetChildDeptListFromCache_refresh() {
+        // mock 数据
+        DeptDO dept1 = randomPojo(DeptDO.class, o -> o.setName("1"));
+        deptMapper.insert(dept1);
+        DeptDO dept1a = randomPojo(DeptDO.class, o -> o.setName("1-a").setParentId(dept1.getId()));
+        deptMapper.insert(dept1a);
+        // 建立部门树的本地索引
+        assertEquals(singleton(dept1a.getId()), deptService.getChildDeptIdListFromCache(dept1.getId()));
+
+        // 调用：新增 1-a 的子部门，增量更新本地索引
+        DeptSaveReqVO createReqVO = randomPojo(DeptSaveReqVO.class, o -> {
+            o.setId(null);
+            o.setParentId(dept1a.getId());
+            o.setStatus(randomCommonStatus());
+        });
+        Long deptId = deptService.createDept(createReqVO);
+        // 断言
+        assertEquals(asSet(dept1a.getId(), deptId), deptService.getChildDeptIdListFromCache(dept1.getId()));
+        assertEquals(singleton(deptId), deptService.getChildDeptIdListFromCache(dept1a.getId()));
+
+        // 调用：删除新增的部门
+        deptService.deleteDept(deptId);
+        // 断言
+        assertEquals(singleton(dept1a.getId()), deptService.getChildDeptIdListFromCache(dept1.getId()));
+        verify(deptProducer, times(2)).sendDeptRefreshMessage(isNull());
+    }
+
     @Test
     public void testValidateDeptList_success() {
         // mock 数据
@@ -0,0 +1,271 @@
+package cn.iocoder.yudao.module.system.service.notify;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.map.MapUtil;
+import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbAndRedisUnitTest;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyBroadcastReadDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyBroadcastMapper;
+import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyBroadcastReadMapper;
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyBroadcastRedisDAO;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import cn.iocoder.yudao.module.system.service.dept.DeptService;
+import cn.iocoder.yudao.module.system.service.permission.PermissionService;
+import cn.iocoder.yudao.module.system.service.user.AdminUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static cn.iocoder.yudao.framework.common.util.collection.CollectionUtils.convertList;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
+import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomString;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link NotifyBroadcastServiceImpl} 的单元测试类
+ *
+ * @author 芋道源码
+ */
+@Import({NotifyBroadcastServiceImpl.class, NotifyBroadcastRedisDAO.class})
+public class NotifyBroadcastServiceImplTest extends BaseDbAndRedisUnitTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Integer USER_TYPE = UserTypeEnum.ADMIN.getValue();
+
+    @Resource
+    private NotifyBroadcastServiceImpl notifyBroadcastService;
+
+    @Resource
+    private NotifyBroadcastMapper notifyBroadcastMapper;
+    @Resource
+    private NotifyBroadcastReadMapper notifyBroadcastReadMapper;
+
+    @Resource
+    private NotifyBroadcastRedisDAO notifyBroadcastRedisDAO;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @MockBean
+    private PermissionService permissionService;
+    @MockBean
+    private AdminUserService adminUserService;
+    @MockBean
+    private DeptService deptService;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("notify_broadcast_*"));
+        // mock 用户：角色 10，部门 100；部门 100 是部门 99 的子部门
+        when(permissionService.getUserRoleIdListByUserIdFromCache(eq(USER_ID))).thenReturn(singleton(10L));
+        when(adminUserService.getUser(eq(USER_ID))).thenReturn(new AdminUserDO().setId(USER_ID).setDeptId(100L));
+        when(deptService.getChildDeptIdListFromCache(eq(99L))).thenReturn(singleton(100L));
+    }
+
+    @Test
+    public void testCreateNotifyBroadcast() {
+        // 准备参数
+        NotifyTemplateDO template = randomPojo(NotifyTemplateDO.class);
+        String templateContent = randomString();
+        Map<String, Object> templateParams = MapUtil.of("name", randomString());
+
+        // 调用
+        Long id = createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, CollUtil.newHashSet(10L, 11L),
+                template, templateContent, templateParams);
+        // 断言
+        NotifyBroadcastDO broadcast = notifyBroadcastMapper.selectById(id);
+        assertNotNull(broadcast);
+        assertEquals(USER_TYPE, broadcast.getUserType());
+        assertEquals(NotifyBroadcastAudienceTypeEnum.ROLE.getType(), broadcast.getAudienceType());
+        assertEquals(CollUtil.newHashSet(10L, 11L), broadcast.getAudienceIds());
+        assertEquals(template.getId(), broadcast.getTemplateId());
+        assertEquals(template.getCode(), broadcast.getTemplateCode());
+        assertEquals(template.getType(), broadcast.getTemplateType());
+        assertEquals(template.getNickname(), broadcast.getTemplateNickname());
+        assertEquals(templateContent, broadcast.getTemplateContent());
+        assertEquals(templateParams, broadcast.getTemplateParams());
+    }
+
+    @Test
+    public void testGetUnreadNotifyBroadcastCount() {
+        // mock 数据
+        Long allId = createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null); // 匹配
+        Long roleId = createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, CollUtil.newHashSet(10L, 11L)); // 匹配
+        createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, singleton(11L)); // 角色不匹配
+        Long deptId = createBroadcast(NotifyBroadcastAudienceTypeEnum.DEPT, singleton(99L)); // 匹配子部门
+        createBroadcast(NotifyBroadcastAudienceTypeEnum.DEPT, singleton(101L)); // 部门不匹配
+        notifyBroadcastService.createNotifyBroadcast(UserTypeEnum.MEMBER.getValue(), // 用户类型不匹配
+                NotifyBroadcastAudienceTypeEnum.ALL.getType(), null,
+                randomPojo(NotifyTemplateDO.class), randomString(), MapUtil.empty());
+
+        // 调用：受众索引不存在，从 DB 重建
+        assertEquals(3, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+        // 调用：受众索引存在时，新的广播直接追加到索引
+        Long newRoleId = createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, singleton(10L));
+        assertEquals(4, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+        // 调用：已读到 roleId，之前的广播都已读
+        notifyBroadcastService.updateNotifyBroadcastRead(roleId, USER_ID, USER_TYPE);
+        assertEquals(roleId, notifyBroadcastService.getNotifyBroadcastReadId(USER_ID, USER_TYPE));
+        assertEquals(2, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+        // 调用：已读水位不会回退
+        notifyBroadcastService.updateNotifyBroadcastRead(allId, USER_ID, USER_TYPE);
+        assertEquals(2, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+        // 调用：全部已读
+        notifyBroadcastService.updateAllNotifyBroadcastRead(USER_ID, USER_TYPE);
+        assertEquals(0, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+        assertTrue(notifyBroadcastService.getNotifyBroadcastReadId(USER_ID, USER_TYPE) >= Math.max(deptId, newRoleId));
+    }
+
+    @Test
+    public void testGetMyNotifyBroadcastList() {
+        // mock 数据
+        Long allId = createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null);
+        Long roleId = createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, CollUtil.newHashSet(10L, 11L));
+        createBroadcast(NotifyBroadcastAudienceTypeEnum.ROLE, singleton(11L)); // 角色不匹配
+        Long deptId = createBroadcast(NotifyBroadcastAudienceTypeEnum.DEPT, singleton(100L));
+
+        // 调用
+        List<NotifyBroadcastDO> list = notifyBroadcastService.getMyNotifyBroadcastList(USER_ID, USER_TYPE, 10);
+        // 断言：按照编号倒序
+        assertEquals(asList(deptId, roleId, allId), convertList(list, NotifyBroadcastDO::getId));
+        // 断言：数量限制
+        list = notifyBroadcastService.getMyNotifyBroadcastList(USER_ID, USER_TYPE, 2);
+        assertEquals(asList(deptId, roleId), convertList(list, NotifyBroadcastDO::getId));
+    }
+
+    @Test
+    public void testUpdateNotifyBroadcastRead_lower() {
+        // mock 数据：已读水位已经更大
+        notifyBroadcastReadMapper.insert(new NotifyBroadcastReadDO().setUserId(USER_ID).setUserType(USER_TYPE)
+                .setReadBroadcastId(100L));
+
+        // 调用：插入时唯一索引冲突，不会插入第二条
+        notifyBroadcastService.updateNotifyBroadcastRead(50L, USER_ID, USER_TYPE);
+        // 断言：水位不会回退
+        List<NotifyBroadcastReadDO> list = notifyBroadcastReadMapper.selectList();
+        assertEquals(1, list.size());
+        assertEquals(100L, list.get(0).getReadBroadcastId());
+        assertEquals(100L, notifyBroadcastService.getNotifyBroadcastReadId(USER_ID, USER_TYPE));
+    }
+
+    @Test
+    public void testUpdateNotifyBroadcastRead_concurrent() throws Exception {
+        // mock 数据
+        int threadCount = 8;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            ids.add(createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null));
+        }
+        Long lastId = ids.get(threadCount - 1);
+
+        // 调用：多个线程同时首次已读
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long id : ids) {
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    notifyBroadcastService.updateNotifyBroadcastRead(id, USER_ID, USER_TYPE);
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(); // 不应该抛出异常
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // 断言：只有一条水位，且是最大的
+        List<NotifyBroadcastReadDO> list = notifyBroadcastReadMapper.selectList();
+        assertEquals(1, list.size());
+        assertEquals(lastId, list.get(0).getReadBroadcastId());
+        assertEquals(lastId, notifyBroadcastService.getNotifyBroadcastReadId(USER_ID, USER_TYPE));
+    }
+
+    @Test
+    public void testUpdateNotifyBroadcastRead_clamp() {
+        // mock 数据
+        Long id = createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null);
+
+        // 调用：传入超过最新广播的编号
+        notifyBroadcastService.updateNotifyBroadcastRead(Long.MAX_VALUE, USER_ID, USER_TYPE);
+        // 断言：水位不超过最新的广播，之后的广播仍然未读
+        assertEquals(id, notifyBroadcastService.getNotifyBroadcastReadId(USER_ID, USER_TYPE));
+        createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null);
+        assertEquals(1, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+    }
+
+    @Test
+    public void testGetUnreadNotifyBroadcastCount_rebuildRace() {
+        // mock 数据：重建读取 DB 之后，才新增的广播
+        createBroadcast(NotifyBroadcastAudienceTypeEnum.ALL, null);
+        // 调用：使用读取 DB 时的旧数据（不包含新增的广播）重建
+        String key = NotifyBroadcastRedisDAO.formatKey(null, USER_TYPE, "all");
+        notifyBroadcastRedisDAO.rebuild(key, Collections.emptyList());
+        // 断言：重建是合并，不会丢失新增的广播
+        assertEquals(1, notifyBroadcastRedisDAO.getUnreadCount(Collections.singletonList(key), 0L));
+    }
+
+    @Test
+    public void testGetUnreadNotifyBroadcastCount_maxSize() {
+        // mock 数据：超过上限的广播
+        long maxSize = NotifyBroadcastRedisDAO.MAX_SIZE;
+        List<String> keys = Collections.singletonList(NotifyBroadcastRedisDAO.formatKey(null, USER_TYPE, "all"));
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= maxSize + 10; i++) {
+            ids.add(i);
+        }
+        notifyBroadcastRedisDAO.rebuild(keys.get(0), ids);
+        notifyBroadcastRedisDAO.add(keys, maxSize + 11);
+
+        // 调用，并断言：只保留最新的广播，未读数量不超过上限
+        assertEquals(maxSize, notifyBroadcastRedisDAO.getUnreadCount(keys, 0L));
+        assertEquals(asList(maxSize + 11, maxSize + 10), notifyBroadcastRedisDAO.getLatestIdList(keys, 2));
+    }
+
+    @Test
+    public void testGetUnreadNotifyBroadcastCount_member() {
+        // mock 数据
+        Integer userType = UserTypeEnum.MEMBER.getValue();
+        notifyBroadcastService.createNotifyBroadcast(userType, NotifyBroadcastAudienceTypeEnum.ALL.getType(), null,
+                randomPojo(NotifyTemplateDO.class), randomString(), MapUtil.empty());
+
+        // 调用，并断言：会员只匹配全部用户
+        assertEquals(1, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, userType));
+        assertEquals(0, notifyBroadcastService.getUnreadNotifyBroadcastCount(USER_ID, USER_TYPE));
+    }
+
+    private Long createBroadcast(NotifyBroadcastAudienceTypeEnum audienceType, Set<Long> audienceIds) {
+        return createBroadcast(audienceType, audienceIds, randomPojo(NotifyTemplateDO.class),
+                randomString(), MapUtil.empty());
+    }
+
+    private Long createBroadcast(NotifyBroadcastAudienceTypeEnum audienceType, Set<Long> audienceIds,
+                                 NotifyTemplateDO template, String templateContent, Map<String, Object> templateParams) {
+        return notifyBroadcastService.createNotifyBroadcast(USER_TYPE, audienceType.getType(), audienceIds,
+                template, templateContent, templateParams);
+    }
+
+}
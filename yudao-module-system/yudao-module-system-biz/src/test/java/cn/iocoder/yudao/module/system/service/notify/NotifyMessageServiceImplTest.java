@@ -3,18 +3,22 @@ package cn.iocoder.yudao.module.system.service.notify;
 import cn.hutool.core.map.MapUtil;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
 import cn.iocoder.yudao.framework.common.pojo.PageResult;
-import cn.iocoder.yudao.framework.test.core.ut.BaseDbUnitTest;
+import cn.iocoder.yudao.framework.test.core.ut.BaseDbAndRedisUnitTest;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessageMyPageReqVO;
 import cn.iocoder.yudao.module.system.controller.admin.notify.vo.message.NotifyMessagePageReqVO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyMessageDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
 import cn.iocoder.yudao.module.system.dal.mysql.notify.NotifyMessageMapper;
+import cn.iocoder.yudao.module.system.dal.redis.notify.NotifyMessageUnreadCountRedisDAO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import javax.annotation.Resource;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -31,8 +35,8 @@ import static org.junit.jupiter.api.Assertions.*;
 *
 * @author 芋道源码
 */
-@Import(NotifyMessageServiceImpl.class)
-public class NotifyMessageServiceImplTest extends BaseDbUnitTest {
+@Import({NotifyMessageServiceImpl.class, NotifyMessageUnreadCountRedisDAO.class})
+public class NotifyMessageServiceImplTest extends BaseDbAndRedisUnitTest {
 
     @Resource
     private NotifyMessageServiceImpl notifyMessageService;
@@ -40,6 +44,14 @@ public class NotifyMessageServiceImplTest extends BaseDbUnitTest {
     @Resource
     private NotifyMessageMapper notifyMessageMapper;
 
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        stringRedisTemplate.delete(stringRedisTemplate.keys("notify_message_unread_count:*"));
+    }
+
     @Test
     public void testCreateNotifyMessage_success() {
         // 准备参数
@@ -206,6 +218,31 @@ public class NotifyMessageServiceImplTest extends BaseDbUnitTest {
         assertEquals(1, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
     }
 
+    @Test
+    public void testGetUnreadNotifyMessageCount_counter() {
+        // 准备参数
+        Long userId = 1L;
+        Integer userType = UserTypeEnum.ADMIN.getValue();
+        NotifyTemplateDO template = randomPojo(NotifyTemplateDO.class);
+        // 调用：缓存不存在时，创建站内信，不会写入缓存
+        Long messageId = notifyMessageService.createNotifyMessage(userId, userType,
+                template, randomString(), randomTemplateParams());
+        assertEquals(1, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
+
+        // 调用：缓存存在时，直接修改 DB，缓存不变，说明未读数量来自缓存
+        notifyMessageMapper.insert(cloneIgnoreId(notifyMessageMapper.selectById(messageId), o -> {}));
+        assertEquals(1, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
+        // 调用：创建站内信，删除缓存，重新统计（包括直接插入 DB 的那条）
+        notifyMessageService.createNotifyMessage(userId, userType, template, randomString(), randomTemplateParams());
+        assertEquals(3, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
+        // 调用：标记已读，删除缓存，重新统计
+        notifyMessageService.updateNotifyMessageRead(Collections.singletonList(messageId), userId, userType);
+        assertEquals(2, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
+        // 调用：标记全部已读
+        notifyMessageService.updateAllNotifyMessageRead(userId, userType);
+        assertEquals(0, notifyMessageService.getUnreadNotifyMessageCount(userId, userType));
+    }
+
     @Test
     public void testUpdateNotifyMessageRead() {
         // mock 数据
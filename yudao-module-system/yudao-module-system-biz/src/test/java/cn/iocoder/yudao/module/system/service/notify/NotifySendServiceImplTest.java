@@ -1,26 +1,30 @@
 package cn.iocoder.yudao.module.system.service.notify;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.map.MapUtil;
 import cn.iocoder.yudao.framework.common.enums.CommonStatusEnum;
 import cn.iocoder.yudao.framework.common.enums.UserTypeEnum;
+import cn.iocoder.yudao.framework.tenant.core.context.TenantContextHolder;
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
 import cn.iocoder.yudao.module.system.dal.dataobject.notify.NotifyTemplateDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.tenant.TenantDO;
+import cn.iocoder.yudao.module.system.enums.notify.NotifyBroadcastAudienceTypeEnum;
+import cn.iocoder.yudao.module.system.service.tenant.TenantService;
 import org.assertj.core.util.Lists;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import static cn.hutool.core.util.RandomUtil.randomEle;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
-import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.NOTICE_NOT_FOUND;
-import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.NOTIFY_SEND_TEMPLATE_PARAM_MISS;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +37,15 @@ class NotifySendServiceImplTest extends BaseMockitoUnitTest {
     private NotifyTemplateService notifyTemplateService;
     @Mock
     private NotifyMessageService notifyMessageService;
+    @Mock
+    private NotifyBroadcastService notifyBroadcastService;
+    @Mock
+    private TenantService tenantService;
+
+    @AfterEach
+    public void tearDown() {
+        TenantContextHolder.clear();
+    }
 
     @Test
     public void testSendSingleNotifyToAdmin() {
@@ -173,6 +186,113 @@ class NotifySendServiceImplTest extends BaseMockitoUnitTest {
                 NOTIFY_SEND_TEMPLATE_PARAM_MISS, "code");
     }
 
+    @Test
+    public void testSendBroadcastNotify_all() {
+        // 准备参数
+        Integer userType = UserTypeEnum.ADMIN.getValue();
+        Integer audienceType = NotifyBroadcastAudienceTypeEnum.ALL.getType();
+        String templateCode = randomString();
+        Map<String, Object> templateParams = MapUtil.<String, Object>builder().put("code", "1234").build();
+        // mock NotifyTemplateService 的方法
+        NotifyTemplateDO template = randomPojo(NotifyTemplateDO.class, o -> {
+            o.setStatus(CommonStatusEnum.ENABLE.getStatus());
+            o.setContent("验证码为{code}");
+            o.setParams(Lists.newArrayList("code"));
+        });
+        when(notifyTemplateService.getNotifyTemplateByCodeFromCache(eq(templateCode))).thenReturn(template);
+        String content = randomString();
+        when(notifyTemplateService.formatNotifyTemplateContent(eq(template.getContent()), eq(templateParams)))
+                .thenReturn(content);
+        // mock NotifyBroadcastService 的方法
+        Long broadcastId = randomLongId();
+        when(notifyBroadcastService.createNotifyBroadcast(eq(userType), eq(audienceType), isNull(),
+                eq(template), eq(content), eq(templateParams))).thenReturn(broadcastId);
+
+        // 调用
+        List<Long> result = notifySendService.sendBroadcastNotify(userType, audienceType, null,
+                templateCode, templateParams);
+        // 断言：只存储一条广播
+        assertEquals(Collections.singletonList(broadcastId), result);
+    }
+
+    @Test
+    public void testSendBroadcastNotify_tenant() {
+        // 准备参数
+        Integer userType = UserTypeEnum.ADMIN.getValue();
+        Integer audienceType = NotifyBroadcastAudienceTypeEnum.TENANT.getType();
+        Set<Long> tenantIds = CollUtil.newLinkedHashSet(1L, 2L);
+        String templateCode = randomString();
+        Map<String, Object> templateParams = new HashMap<>();
+        // mock NotifyTemplateService 的方法
+        NotifyTemplateDO template = randomPojo(NotifyTemplateDO.class, o -> {
+            o.setStatus(CommonStatusEnum.ENABLE.getStatus());
+            o.setParams(Collections.emptyList());
+        });
+        when(notifyTemplateService.getNotifyTemplateByCodeFromCache(eq(templateCode))).thenReturn(template);
+        String content = randomString();
+        when(notifyTemplateService.formatNotifyTemplateContent(eq(template.getContent()), eq(templateParams)))
+                .thenReturn(content);
+        // mock TenantService 的方法：当前是系统租户
+        TenantContextHolder.setTenantId(1L);
+        when(tenantService.getTenant(eq(1L))).thenReturn(new TenantDO().setId(1L).setPackageId(TenantDO.PACKAGE_ID_SYSTEM));
+        // mock NotifyBroadcastService 的方法：记录创建时所在的租户
+        List<Long> createTenantIds = new ArrayList<>();
+        when(notifyBroadcastService.createNotifyBroadcast(eq(userType), eq(audienceType), eq(tenantIds),
+                eq(template), eq(content), eq(templateParams))).thenAnswer(invocation -> {
+            createTenantIds.add(TenantContextHolder.getTenantId());
+            return TenantContextHolder.getTenantId() * 10;
+        });
+
+        // 调用
+        List<Long> result = notifySendService.sendBroadcastNotify(userType, audienceType, tenantIds,
+                templateCode, templateParams);
+        // 断言：每个租户下存储一条
+        assertEquals(Arrays.asList(10L, 20L), result);
+        assertEquals(Arrays.asList(1L, 2L), createTenantIds);
+    }
+
+    @Test
+    public void testSendBroadcastNotify_whenTemplateDisable() {
+        // 准备参数
+        String templateCode = randomString();
+        // mock NotifyTemplateService 的方法
+        NotifyTemplateDO template = randomPojo(NotifyTemplateDO.class,
+                o -> o.setStatus(CommonStatusEnum.DISABLE.getStatus()));
+        when(notifyTemplateService.getNotifyTemplateByCodeFromCache(eq(templateCode))).thenReturn(template);
+
+        // 调用
+        List<Long> result = notifySendService.sendBroadcastNotify(UserTypeEnum.ADMIN.getValue(),
+                NotifyBroadcastAudienceTypeEnum.ALL.getType(), null, templateCode, new HashMap<>());
+        // 断言
+        assertTrue(result.isEmpty());
+        verify(notifyBroadcastService, never()).createNotifyBroadcast(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testValidateBroadcastAudience_idsEmpty() {
+        // 调用，并断言异常
+        assertServiceException(() -> notifySendService.validateBroadcastAudience(UserTypeEnum.ADMIN.getValue(),
+                NotifyBroadcastAudienceTypeEnum.ROLE.getType(), null), NOTIFY_BROADCAST_AUDIENCE_IDS_EMPTY);
+    }
+
+    @Test
+    public void testValidateBroadcastAudience_typeNotSupport() {
+        // 调用，并断言异常：会员没有角色、部门
+        assertServiceException(() -> notifySendService.validateBroadcastAudience(UserTypeEnum.MEMBER.getValue(),
+                NotifyBroadcastAudienceTypeEnum.DEPT.getType(), singleton(1L)), NOTIFY_BROADCAST_AUDIENCE_TYPE_NOT_SUPPORT);
+    }
+
+    @Test
+    public void testValidateBroadcastAudience_tenantNotSystem() {
+        // mock 方法：当前是普通租户
+        TenantContextHolder.setTenantId(2L);
+        when(tenantService.getTenant(eq(2L))).thenReturn(new TenantDO().setId(2L).setPackageId(randomLongId()));
+
+        // 调用，并断言异常
+        assertServiceException(() -> notifySendService.validateBroadcastAudience(UserTypeEnum.ADMIN.getValue(),
+                NotifyBroadcastAudienceTypeEnum.TENANT.getType(), singleton(1L)), NOTIFY_BROADCAST_TENANT_NOT_SYSTEM);
+    }
+
     @Test
     public void testSendBatchNotify() {
         // 准备参数
@@ -187,23 +187,6 @@ public class MenuServiceImplTest extends BaseDbUnitTest {
         assertPojoEquals(menu100, result.get(0));
     }
 
-    @Test
-    public void testGetMenuIdListByPermissionFromCache() {
-        // mock 数据
-        MenuDO menu100 = randomPojo(MenuDO.class);
-        menuMapper.insert(menu100);
-        MenuDO menu101 = randomPojo(MenuDO.class);
-        menuMapper.insert(menu101);
-        // 准备参数
-        String permission = menu100.getPermission();
-
-        // 调用
-        List<Long> ids = menuService.getMenuIdListByPermissionFromCache(permission);
-        // 断言
-        assertEquals(1, ids.size());
-        assertEquals(menu100.getId(), ids.get(0));
-    }
-
     @Test
     public void testGetMenuList_ids() {
         // mock 数据
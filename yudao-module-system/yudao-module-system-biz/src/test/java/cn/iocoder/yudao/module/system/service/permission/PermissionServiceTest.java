@@ -14,15 +14,20 @@ import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.RoleMenuMapper;
 import cn.iocoder.yudao.module.system.dal.mysql.permission.UserRoleMapper;
 import cn.iocoder.yudao.module.system.enums.permission.DataScopeEnum;
+import cn.iocoder.yudao.module.system.mq.producer.permission.PermissionProducer;
 import cn.iocoder.yudao.module.system.service.dept.DeptService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Resource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -56,6 +61,19 @@ public class PermissionServiceTest extends BaseDbUnitTest {
     private DeptService deptService;
     @MockBean
     private AdminUserService userService;
+    @MockBean
+    private PermissionProducer permissionProducer;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        // 清理权限的本地缓存，避免单测之间相互影响
+        permissionService.invalidatePermissionLocalCache(null, null);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Test
     public void testHasAnyPermissions_superAdmin() {
@@ -95,8 +113,8 @@ public class PermissionServiceTest extends BaseDbUnitTest {
             when(roleService.getRoleListFromCache(eq(singleton(100L)))).thenReturn(toList(role));
             // mock 菜单
             Long menuId = 1000L;
-            when(menuService.getMenuIdListByPermissionFromCache(
-                    eq("system:user:create"))).thenReturn(singletonList(menuId));
+            MenuDO menu = randomPojo(MenuDO.class, o -> o.setId(menuId).setPermission("system:user:create"));
+            when(menuService.getMenuList(eq(asSet(menuId)))).thenReturn(singletonList(menu));
             roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1000L));
 
             // 调用，并断言
@@ -146,6 +164,32 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         assertEquals(200L, roleMenuList.get(0).getMenuId());
         assertEquals(1L, roleMenuList.get(1).getRoleId());
         assertEquals(300L, roleMenuList.get(1).getMenuId());
+        // 断言广播
+        verify(permissionProducer).sendPermissionRefreshMessage(isNull(), eq(roleId));
+    }
+
+    @Test
+    public void testAssignRoleMenu_refreshAfterCommit() {
+        try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
+            springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PermissionServiceImpl.class)))
+                    .thenReturn(permissionService);
+            // mock 数据：用户拥有角色 100，角色 100 拥有 system:user:create 权限
+            Long userId = 1L;
+            Long roleId = 100L;
+            mockUserPermission(userId, roleId, "system:user:create");
+            assertTrue(permissionService.hasAnyPermissions(userId, "system:user:create"));
+
+            // 调用：在事务中，取消角色的全部菜单
+            transactionTemplate.executeWithoutResult(status -> {
+                permissionService.assignRoleMenu(roleId, Collections.emptySet());
+                // 断言：事务提交前，不刷新本地缓存，也不广播
+                assertTrue(permissionService.hasAnyPermissions(userId, "system:user:create"));
+                verify(permissionProducer, never()).sendPermissionRefreshMessage(any(), any());
+            });
+            // 断言：事务提交后，本地缓存失效，并广播
+            assertFalse(permissionService.hasAnyPermissions(userId, "system:user:create"));
+            verify(permissionProducer).sendPermissionRefreshMessage(isNull(), eq(roleId));
+        }
     }
 
     @Test
@@ -224,22 +268,6 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         assertEquals(asSet(1L, 2L), menuIds);
     }
 
-    @Test
-    public void testGetMenuRoleIdListByMenuIdFromCache() {
-        // 准备参数
-        Long menuId = 1L;
-        // mock 数据
-        RoleMenuDO roleMenu01 = randomPojo(RoleMenuDO.class).setRoleId(100L).setMenuId(1L);
-        roleMenuMapper.insert(roleMenu01);
-        RoleMenuDO roleMenu02 = randomPojo(RoleMenuDO.class).setRoleId(200L).setMenuId(1L);
-        roleMenuMapper.insert(roleMenu02);
-
-        // 调用
-        Set<Long> roleIds = permissionService.getMenuRoleIdListByMenuIdFromCache(menuId);
-        // 断言
-        assertEquals(asSet(100L, 200L), roleIds);
-    }
-
     // ========== 用户-角色的相关方法  ==========
 
     @Test
@@ -262,6 +290,35 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         assertEquals(200L, userRoleDOList.get(0).getRoleId());
         assertEquals(1L, userRoleDOList.get(1).getUserId());
         assertEquals(300L, userRoleDOList.get(1).getRoleId());
+        // 断言广播
+        verify(permissionProducer).sendPermissionRefreshMessage(eq(userId), isNull());
+    }
+
+    @Test
+    public void testAssignUserRole_refreshAfterCommit() {
+        try (MockedStatic<SpringUtil> springUtilMockedStatic = mockStatic(SpringUtil.class)) {
+            springUtilMockedStatic.when(() -> SpringUtil.getBean(eq(PermissionServiceImpl.class)))
+                    .thenReturn(permissionService);
+            // mock 数据：用户拥有角色 100，角色 100 拥有 system:user:create 权限
+            Long userId = 1L;
+            mockUserPermission(userId, 100L, "system:user:create");
+            assertTrue(permissionService.hasAnyPermissions(userId, "system:user:create"));
+
+            // 调用：在事务中，取消用户的全部角色，但事务回滚
+            transactionTemplate.executeWithoutResult(status -> {
+                permissionService.assignUserRole(userId, Collections.emptySet());
+                status.setRollbackOnly();
+            });
+            // 断言：事务回滚，不刷新本地缓存，也不广播
+            assertTrue(permissionService.hasAnyPermissions(userId, "system:user:create"));
+            verify(permissionProducer, never()).sendPermissionRefreshMessage(any(), any());
+
+            // 调用：在事务中，取消用户的全部角色
+            transactionTemplate.executeWithoutResult(status -> permissionService.assignUserRole(userId, Collections.emptySet()));
+            // 断言：事务提交后，本地缓存失效，并广播
+            assertFalse(permissionService.hasAnyPermissions(userId, "system:user:create"));
+            verify(permissionProducer).sendPermissionRefreshMessage(eq(userId), isNull());
+        }
     }
 
     @Test
@@ -524,4 +581,14 @@ public class PermissionServiceTest extends BaseDbUnitTest {
         }
     }
 
+    private void mockUserPermission(Long userId, Long roleId, String permission) {
+        userRoleMapper.insert(randomPojo(UserRoleDO.class).setUserId(userId).setRoleId(roleId));
+        RoleDO role = randomPojo(RoleDO.class, o -> o.setId(roleId)
+                .setStatus(CommonStatusEnum.ENABLE.getStatus()));
+        when(roleService.getRoleListFromCache(eq(singleton(roleId)))).thenReturn(toList(role));
+        MenuDO menu = randomPojo(MenuDO.class, o -> o.setId(1000L).setPermission(permission));
+        when(menuService.getMenuList(eq(asSet(1000L)))).thenReturn(singletonList(menu));
+        roleMenuMapper.insert(randomPojo(RoleMenuDO.class).setRoleId(roleId).setMenuId(1000L));
+    }
+
 }
@@ -7,6 +7,7 @@ import cn.iocoder.yudao.module.system.api.sms.dto.code.SmsCodeUseReqDTO;
 import cn.iocoder.yudao.module.system.api.sms.dto.code.SmsCodeValidateReqDTO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsCodeDO;
 import cn.iocoder.yudao.module.system.dal.mysql.sms.SmsCodeMapper;
+import cn.iocoder.yudao.module.system.dal.redis.sms.SmsCodeLimitRedisDAO;
 import cn.iocoder.yudao.module.system.enums.sms.SmsSceneEnum;
 import cn.iocoder.yudao.module.system.framework.sms.config.SmsCodeProperties;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +18,8 @@ import org.springframework.context.annotation.Import;
 import javax.annotation.Resource;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 import static cn.hutool.core.util.RandomUtil.randomEle;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEquals;
@@ -24,6 +27,8 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServic
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.randomPojo;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
@@ -42,6 +47,8 @@ public class SmsCodeServiceImplTest extends BaseDbUnitTest {
     private SmsCodeProperties smsCodeProperties;
     @MockBean
     private SmsSendService smsSendService;
+    @MockBean
+    private SmsCodeLimitRedisDAO smsCodeLimitRedisDAO;
 
     @BeforeEach
     public void setUp() {
@@ -75,10 +82,9 @@ public class SmsCodeServiceImplTest extends BaseDbUnitTest {
 
     @Test
     public void sendSmsCode_tooFast() {
-        // mock 数据
-        SmsCodeDO smsCodeDO = randomPojo(SmsCodeDO.class,
-                o -> o.setMobile("15601691300").setTodayIndex(1));
-        smsCodeMapper.insert(smsCodeDO);
+        // mock 方法：手机号的发送频率窗口达到上限
+        when(smsCodeLimitRedisDAO.tryAcquire(any())).thenReturn(
+                SmsCodeLimitRedisDAO.formatKey("mobile", "15601691300", Duration.ofMinutes(1)));
         // 准备参数
         SmsCodeSendReqDTO reqDTO = randomPojo(SmsCodeSendReqDTO.class, o -> {
             o.setMobile("15601691300");
@@ -88,26 +94,54 @@ public class SmsCodeServiceImplTest extends BaseDbUnitTest {
         // 调用，并断言异常
         assertServiceException(() -> smsCodeService.sendSmsCode(reqDTO),
                 SMS_CODE_SEND_TOO_FAST);
+        // 断言：被拒绝时，不记录验证码
+        assertNull(smsCodeMapper.selectOne(null));
     }
 
     @Test
     public void sendSmsCode_exceedDay() {
-        // mock 数据
-        SmsCodeDO smsCodeDO = randomPojo(SmsCodeDO.class,
-                o -> o.setMobile("15601691300").setTodayIndex(10).setCreateTime(LocalDateTime.now()));
-        smsCodeMapper.insert(smsCodeDO);
+        // mock 方法：手机号的每日窗口达到上限
+        when(smsCodeLimitRedisDAO.tryAcquire(any())).thenReturn(
+                SmsCodeLimitRedisDAO.formatKey("mobile", "15601691300", Duration.ofDays(1)));
         // 准备参数
         SmsCodeSendReqDTO reqDTO = randomPojo(SmsCodeSendReqDTO.class, o -> {
             o.setMobile("15601691300");
             o.setScene(SmsSceneEnum.MEMBER_LOGIN.getScene());
         });
-        when(smsCodeProperties.getSendFrequency()).thenReturn(Duration.ofMillis(0));
 
         // 调用，并断言异常
         assertServiceException(() -> smsCodeService.sendSmsCode(reqDTO),
                 SMS_CODE_EXCEED_SEND_MAXIMUM_QUANTITY_PER_DAY);
     }
 
+    @Test
+    public void sendSmsCode_ipExceed() {
+        // mock 方法
+        when(smsCodeProperties.getSendMaximumQuantityPerIpPerHour()).thenReturn(20);
+        when(smsCodeLimitRedisDAO.tryAcquire(any())).thenReturn(
+                SmsCodeLimitRedisDAO.formatKey("ip", "127.0.0.1", Duration.ofHours(1)));
+        // 准备参数
+        SmsCodeSendReqDTO reqDTO = randomPojo(SmsCodeSendReqDTO.class, o -> {
+            o.setMobile("15601691300");
+            o.setScene(SmsSceneEnum.MEMBER_LOGIN.getScene());
+            o.setCreateIp("127.0.0.1");
+        });
+
+        // 调用，并断言异常
+        assertServiceException(() -> smsCodeService.sendSmsCode(reqDTO),
+                SMS_CODE_IP_EXCEED_SEND_MAXIMUM_QUANTITY);
+        // 断言：按照优先级传入各个窗口
+        verify(smsCodeLimitRedisDAO).tryAcquire(argThat(limits -> {
+            assertEquals(Arrays.asList(
+                    SmsCodeLimitRedisDAO.formatKey("mobile", "15601691300", Duration.ofMinutes(1)),
+                    SmsCodeLimitRedisDAO.formatKey("mobile", "15601691300", Duration.ofDays(1)),
+                    SmsCodeLimitRedisDAO.formatKey("ip", "127.0.0.1", Duration.ofHours(1))),
+                    new ArrayList<>(limits.keySet()));
+            assertEquals(20, limits.get(SmsCodeLimitRedisDAO.formatKey("ip", "127.0.0.1", Duration.ofHours(1))).getValue());
+            return true;
+        }));
+    }
+
     @Test
     public void testUseSmsCode_success() {
         // 准备参数
@@ -12,11 +12,15 @@ import cn.iocoder.yudao.module.system.dal.mysql.sms.SmsLogMapper;
 import cn.iocoder.yudao.module.system.enums.sms.SmsReceiveStatusEnum;
 import cn.iocoder.yudao.module.system.enums.sms.SmsSendStatusEnum;
 import cn.iocoder.yudao.module.system.enums.sms.SmsTemplateTypeEnum;
+import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.Import;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -29,6 +33,7 @@ import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertPojoEq
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @Import(SmsLogServiceImpl.class)
 public class SmsLogServiceImplTest extends BaseDbUnitTest {
@@ -145,6 +150,92 @@ public class SmsLogServiceImplTest extends BaseDbUnitTest {
         assertEquals(apiSerialNo, dbSmsLog.getApiSerialNo());
     }
 
+    @Test
+    public void testCreateSmsLogList() {
+        // 准备参数
+        List<String> mobiles = Arrays.asList("15601691300", "15601691301", "15601691302");
+        List<Long> userIds = Arrays.asList(1L, null, 3L);
+        Integer userType = randomEle(UserTypeEnum.values()).getValue();
+        SmsTemplateDO templateDO = randomPojo(SmsTemplateDO.class,
+                o -> o.setType(randomEle(SmsTemplateTypeEnum.values()).getType()));
+        String templateContent = randomString();
+        Map<String, Object> templateParams = randomTemplateParams();
+
+        // 调用
+        List<Long> logIds = smsLogService.createSmsLogList(mobiles, userIds, userType, true,
+                templateDO, templateContent, templateParams);
+        // 断言：编号与手机号一一对应
+        assertEquals(mobiles.size(), logIds.size());
+        for (int i = 0; i < mobiles.size(); i++) {
+            SmsLogDO logDO = smsLogMapper.selectById(logIds.get(i));
+            assertEquals(mobiles.get(i), logDO.getMobile());
+            assertEquals(userIds.get(i), logDO.getUserId());
+            assertEquals(SmsSendStatusEnum.INIT.getStatus(), logDO.getSendStatus());
+            assertEquals(templateDO.getChannelId(), logDO.getChannelId());
+            assertEquals(templateContent, logDO.getTemplateContent());
+            assertEquals(templateParams, logDO.getTemplateParams());
+        }
+    }
+
+    @Test
+    public void testUpdateSmsSendResultList() {
+        // mock 数据
+        SmsLogDO dbSmsLog01 = randomSmsLogDO(o -> o.setSendStatus(SmsSendStatusEnum.INIT.getStatus()));
+        smsLogMapper.insert(dbSmsLog01);
+        SmsLogDO dbSmsLog02 = randomSmsLogDO(o -> o.setSendStatus(SmsSendStatusEnum.INIT.getStatus()));
+        smsLogMapper.insert(dbSmsLog02);
+        // 准备参数
+        SmsSendRespDTO result01 = randomPojo(SmsSendRespDTO.class, o -> o.setSuccess(true));
+        SmsSendRespDTO result02 = randomPojo(SmsSendRespDTO.class, o -> o.setSuccess(false));
+
+        // 调用
+        smsLogService.updateSmsSendResultList(Arrays.asList(dbSmsLog01.getId(), dbSmsLog02.getId()),
+                Arrays.asList(result01, result02));
+        // 断言
+        dbSmsLog01 = smsLogMapper.selectById(dbSmsLog01.getId());
+        assertEquals(SmsSendStatusEnum.SUCCESS.getStatus(), dbSmsLog01.getSendStatus());
+        assertNotNull(dbSmsLog01.getSendTime());
+        assertEquals(result01.getSerialNo(), dbSmsLog01.getApiSerialNo());
+        dbSmsLog02 = smsLogMapper.selectById(dbSmsLog02.getId());
+        assertEquals(SmsSendStatusEnum.FAILURE.getStatus(), dbSmsLog02.getSendStatus());
+        assertEquals(result02.getApiCode(), dbSmsLog02.getApiSendCode());
+        assertEquals(result02.getApiMsg(), dbSmsLog02.getApiSendMsg());
+    }
+
+    @Test
+    public void testUpdateSmsLogTemplate() {
+        // mock 数据
+        SmsLogDO dbSmsLog = randomSmsLogDO(o -> o.setSendStatus(SmsSendStatusEnum.INIT.getStatus()));
+        smsLogMapper.insert(dbSmsLog);
+        // 准备参数
+        SmsTemplateDO template = randomPojo(SmsTemplateDO.class,
+                o -> o.setType(randomEle(SmsTemplateTypeEnum.values()).getType()));
+        String templateContent = randomString();
+
+        // 调用
+        smsLogService.updateSmsLogTemplate(Collections.singletonList(dbSmsLog.getId()), template, templateContent);
+        // 断言：模板、渠道、内容切换为备用模板的
+        SmsLogDO smsLog = smsLogMapper.selectById(dbSmsLog.getId());
+        assertEquals(template.getId(), smsLog.getTemplateId());
+        assertEquals(template.getCode(), smsLog.getTemplateCode());
+        assertEquals(template.getApiTemplateId(), smsLog.getApiTemplateId());
+        assertEquals(template.getChannelId(), smsLog.getChannelId());
+        assertEquals(templateContent, smsLog.getTemplateContent());
+        assertEquals(dbSmsLog.getMobile(), smsLog.getMobile());
+    }
+
+    @Test
+    public void testGetSmsLogByApiSerialNo() {
+        // mock 数据：同一个序号，不同手机号
+        SmsLogDO dbSmsLog = randomSmsLogDO(o -> o.setApiSerialNo("biz_001").setMobile("15601691300"));
+        smsLogMapper.insert(dbSmsLog);
+        smsLogMapper.insert(cloneIgnoreId(dbSmsLog, o -> o.setMobile("15601691301")));
+
+        // 调用，并断言
+        assertPojoEquals(dbSmsLog, smsLogService.getSmsLogByApiSerialNo("biz_001", "15601691300"));
+        assertNull(smsLogService.getSmsLogByApiSerialNo("biz_002", "15601691300"));
+    }
+
     @Test
     public void testUpdateSmsReceiveResult() {
         // mock 数据
@@ -9,18 +9,25 @@ import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsReceiveRe
 import cn.iocoder.yudao.module.system.framework.sms.core.client.dto.SmsSendRespDTO;
 import cn.iocoder.yudao.framework.test.core.ut.BaseMockitoUnitTest;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsChannelDO;
+import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsLogDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.sms.SmsTemplateDO;
 import cn.iocoder.yudao.module.system.dal.dataobject.user.AdminUserDO;
+import cn.iocoder.yudao.module.system.dal.redis.sms.SmsChannelRateLimitRedisDAO;
+import cn.iocoder.yudao.module.system.framework.sms.config.SmsSendProperties;
+import cn.iocoder.yudao.module.system.mq.message.sms.SmsBatchSendMessage;
 import cn.iocoder.yudao.module.system.mq.message.sms.SmsSendMessage;
 import cn.iocoder.yudao.module.system.mq.producer.sms.SmsProducer;
 import cn.iocoder.yudao.module.system.service.member.MemberService;
 import cn.iocoder.yudao.module.system.service.user.AdminUserService;
 import org.assertj.core.util.Lists;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,7 +36,9 @@ import static cn.hutool.core.util.RandomUtil.randomEle;
 import static cn.iocoder.yudao.framework.test.core.util.AssertUtils.assertServiceException;
 import static cn.iocoder.yudao.framework.test.core.util.RandomUtils.*;
 import static cn.iocoder.yudao.module.system.enums.ErrorCodeConstants.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -49,7 +58,11 @@ public class SmsSendServiceImplTest extends BaseMockitoUnitTest {
     @Mock
     private SmsLogService smsLogService;
     @Mock
+    private SmsChannelRateLimitRedisDAO smsChannelRateLimitRedisDAO;
+    @Mock
     private SmsProducer smsProducer;
+    @Spy
+    private SmsSendProperties smsSendProperties = new SmsSendProperties();
 
     @Test
     public void testSendSingleSmsToAdmin() {
@@ -243,17 +256,148 @@ public class SmsSendServiceImplTest extends BaseMockitoUnitTest {
     }
 
     @Test
-    public void testSendBatchNotify() {
+    public void testSendBatchSms() {
+        // 准备参数：批量大小为 2，其中一个手机号为空
+        smsSendProperties.setBatchSize(2);
+        List<String> mobiles = Arrays.asList("15601691300", "", "15601691302", "15601691303");
+        List<Long> userIds = Arrays.asList(1L, 2L, 3L, 4L);
+        Integer userType = UserTypeEnum.MEMBER.getValue();
+        String templateCode = randomString();
+        Map<String, Object> templateParams = MapUtil.<String, Object>builder().put("name", "芋艿").build();
+        // mock SmsTemplateService 的方法
+        SmsTemplateDO template = randomPojo(SmsTemplateDO.class, o -> {
+            o.setCode(templateCode);
+            o.setStatus(CommonStatusEnum.ENABLE.getStatus());
+            o.setContent("{name} 你好");
+            o.setParams(Lists.newArrayList("name"));
+        });
+        when(smsTemplateService.getSmsTemplateByCodeFromCache(eq(templateCode))).thenReturn(template);
+        String content = randomString();
+        when(smsTemplateService.formatSmsTemplateContent(eq(template.getContent()), eq(templateParams)))
+                .thenReturn(content);
+        // mock SmsChannelService 的方法
+        SmsChannelDO smsChannel = randomPojo(SmsChannelDO.class, o -> o.setStatus(CommonStatusEnum.ENABLE.getStatus()));
+        when(smsChannelService.getSmsChannel(eq(template.getChannelId()))).thenReturn(smsChannel);
+        // mock SmsLogService 的方法
+        when(smsLogService.createSmsLogList(eq(Arrays.asList("15601691300", "15601691302")), eq(Arrays.asList(1L, 3L)),
+                eq(userType), eq(Boolean.TRUE), eq(template), eq(content), eq(templateParams)))
+                .thenReturn(Arrays.asList(11L, 13L));
+        when(smsLogService.createSmsLogList(eq(Collections.singletonList("15601691303")), eq(Collections.singletonList(4L)),
+                eq(userType), eq(Boolean.TRUE), eq(template), eq(content), eq(templateParams)))
+                .thenReturn(Collections.singletonList(14L));
+
+        // 调用
+        smsSendService.sendBatchSms(mobiles, userIds, userType, templateCode, templateParams);
+        // 断言：按批发送 MQ 消息
+        List<KeyValue<String, Object>> newTemplateParams = Lists.newArrayList(new KeyValue<>("name", "芋艿"));
+        verify(smsProducer).sendSmsBatchSendMessage(eq(Arrays.asList(11L, 13L)), eq(Arrays.asList("15601691300", "15601691302")),
+                eq(templateCode), eq(template.getChannelId()), eq(template.getApiTemplateId()), eq(newTemplateParams));
+        verify(smsProducer).sendSmsBatchSendMessage(eq(Collections.singletonList(14L)), eq(Collections.singletonList("15601691303")),
+                eq(templateCode), eq(template.getChannelId()), eq(template.getApiTemplateId()), eq(newTemplateParams));
+    }
+
+    @Test
+    public void testDoSendBatchSms() throws Throwable {
         // 准备参数
-        // mock 方法
+        SmsBatchSendMessage message = randomPojo(SmsBatchSendMessage.class, o -> {
+            o.setLogIds(Arrays.asList(1L, 2L, 3L));
+            o.setMobiles(Arrays.asList("15601691301", "15601691302", "15601691303"));
+        });
+        // mock SmsClient 的方法：每次最多 2 个手机号
+        SmsClient smsClient = mock(SmsClient.class);
+        when(smsClient.getMaxBatchSize()).thenReturn(2);
+        when(smsChannelService.getSmsClient(eq(message.getChannelId()))).thenReturn(smsClient);
+        when(smsChannelService.getSmsChannel(eq(message.getChannelId())))
+                .thenReturn(randomPojo(SmsChannelDO.class, o -> o.setCode("ALIYUN")));
+        List<SmsSendRespDTO> results01 = Arrays.asList(randomPojo(SmsSendRespDTO.class, o -> o.setSuccess(true)),
+                randomPojo(SmsSendRespDTO.class, o -> o.setSuccess(false)));
+        when(smsClient.sendBatchSms(eq(Arrays.asList(1L, 2L)), eq(Arrays.asList("15601691301", "15601691302")),
+                eq(message.getApiTemplateId()), eq(message.getTemplateParams()))).thenReturn(results01);
+        when(smsClient.sendBatchSms(eq(Collections.singletonList(3L)), eq(Collections.singletonList("15601691303")),
+                eq(message.getApiTemplateId()), eq(message.getTemplateParams()))).thenThrow(new RuntimeException("超时"));
 
         // 调用
-        UnsupportedOperationException exception = Assertions.assertThrows(
-                UnsupportedOperationException.class,
-                () -> smsSendService.sendBatchSms(null, null, null, null, null)
-        );
+        smsSendService.doSendBatchSms(message);
+        // 断言：每次调用短信平台前，获取令牌
+        verify(smsChannelRateLimitRedisDAO, times(2)).acquire(eq(message.getChannelId()),
+                eq(smsSendProperties.getQps("ALIYUN")));
+        // 断言：批量更新发送结果
+        verify(smsLogService).updateSmsSendResultList(eq(Arrays.asList(1L, 2L)), eq(results01));
+        verify(smsLogService).updateSmsSendResultList(eq(Collections.singletonList(3L)),
+                argThat(results -> results.size() == 1 && !results.get(0).getSuccess()
+                        && "EXCEPTION".equals(results.get(0).getApiCode())));
+    }
+
+    @Test
+    public void testDoSendBatchSms_failover() throws Throwable {
+        // 准备参数：连续失败 2 次后，切换到备用模板
+        smsSendProperties.setFailoverErrorCount(2);
+        SmsBatchSendMessage message = randomPojo(SmsBatchSendMessage.class, o -> {
+            o.setLogIds(Arrays.asList(1L, 2L));
+            o.setMobiles(Arrays.asList("15601691301", "15601691302"));
+            o.setTemplateParams(Lists.newArrayList(new KeyValue<>("name", "芋艿")));
+        });
+        // mock 原渠道：一直失败
+        SmsClient smsClient = mock(SmsClient.class);
+        when(smsClient.getMaxBatchSize()).thenReturn(1);
+        when(smsChannelService.getSmsClient(eq(message.getChannelId()))).thenReturn(smsClient);
+        when(smsChannelService.getSmsChannel(eq(message.getChannelId()))).thenReturn(randomPojo(SmsChannelDO.class));
+        when(smsClient.sendBatchSms(any(), any(), eq(message.getApiTemplateId()), any()))
+                .thenThrow(new RuntimeException("限流"));
+        // mock 备用模板、备用渠道
+        String failoverTemplateCode = randomString();
+        smsSendProperties.setFailoverTemplateCodes(MapUtil.of(message.getTemplateCode(), failoverTemplateCode));
+        SmsTemplateDO failoverTemplate = randomPojo(SmsTemplateDO.class, o -> {
+            o.setStatus(CommonStatusEnum.ENABLE.getStatus());
+            o.setParams(Lists.newArrayList("name"));
+        });
+        when(smsTemplateService.getSmsTemplateByCodeFromCache(eq(failoverTemplateCode))).thenReturn(failoverTemplate);
+        String failoverContent = randomString();
+        when(smsTemplateService.formatSmsTemplateContent(eq(failoverTemplate.getContent()),
+                eq(MapUtil.<String, Object>of("name", "芋艿")))).thenReturn(failoverContent);
+        when(smsChannelService.getSmsChannel(eq(failoverTemplate.getChannelId())))
+                .thenReturn(randomPojo(SmsChannelDO.class, o -> o.setStatus(CommonStatusEnum.ENABLE.getStatus())));
+        SmsClient failoverClient = mock(SmsClient.class);
+        when(failoverClient.getMaxBatchSize()).thenReturn(100);
+        when(smsChannelService.getSmsClient(eq(failoverTemplate.getChannelId()))).thenReturn(failoverClient);
+        List<SmsSendRespDTO> failoverResults = Collections.singletonList(
+                randomPojo(SmsSendRespDTO.class, o -> o.setSuccess(true)));
+        when(failoverClient.sendBatchSms(any(), any(), eq(failoverTemplate.getApiTemplateId()),
+                eq(message.getTemplateParams()))).thenReturn(failoverResults);
+
+        // 调用
+        smsSendService.doSendBatchSms(message);
+        // 断言：第 1 条在原渠道失败；第 2 条失败达到阈值后，使用备用模板重新发送
+        verify(smsLogService).updateSmsSendResultList(eq(Collections.singletonList(1L)),
+                argThat(results -> !results.get(0).getSuccess()));
+        verify(smsLogService).updateSmsLogTemplate(eq(Collections.singletonList(2L)), eq(failoverTemplate),
+                eq(failoverContent));
+        verify(smsLogService).updateSmsSendResultList(eq(Collections.singletonList(2L)), eq(failoverResults));
+
+        // 调用：切换期间，直接使用备用模板发送
+        smsSendService.doSendBatchSms(message);
         // 断言
-        assertEquals("暂时不支持该操作，感兴趣可以实现该功能哟！", exception.getMessage());
+        verify(smsClient, times(2)).sendBatchSms(any(), any(), any(), any());
+        verify(smsLogService).updateSmsLogTemplate(eq(Collections.singletonList(1L)), eq(failoverTemplate),
+                eq(failoverContent));
+        verify(smsLogService, times(2)).updateSmsLogTemplate(eq(Collections.singletonList(2L)), eq(failoverTemplate),
+                eq(failoverContent));
+    }
+
+    @Test
+    public void testChannelFailover() {
+        SmsSendServiceImpl.ChannelFailover failover = new SmsSendServiceImpl.ChannelFailover();
+        Duration duration = Duration.ofMinutes(1);
+        // 连续失败未达到阈值
+        assertFalse(failover.recordFailure(3, duration));
+        assertFalse(failover.recordFailure(3, duration));
+        // 成功后，重新计数
+        failover.recordSuccess();
+        assertFalse(failover.recordFailure(3, duration));
+        assertFalse(failover.recordFailure(3, duration));
+        // 达到阈值
+        assertTrue(failover.recordFailure(3, duration));
+        assertTrue(failover.isOpen());
     }
 
     @Test
@@ -271,12 +415,36 @@ public class SmsSendServiceImplTest extends BaseMockitoUnitTest {
 
         // 调用
         smsSendService.doSendSms(message);
+        // 断言：和批量发送共用渠道的令牌桶
+        verify(smsChannelRateLimitRedisDAO).acquire(eq(message.getChannelId()), eq(smsSendProperties.getQps(null)));
         // 断言
         verify(smsLogService).updateSmsSendResult(eq(message.getLogId()),
                 eq(sendResult.getSuccess()), eq(sendResult.getApiCode()),
                 eq(sendResult.getApiMsg()), eq(sendResult.getApiRequestId()), eq(sendResult.getSerialNo()));
     }
 
+    @Test
+    public void testReceiveSmsStatus_bySerialNo() throws Throwable {
+        // 准备参数
+        String channelCode = randomString();
+        String text = randomString();
+        // mock SmsClient 的方法：批量发送的接收结果，没有日志编号
+        SmsClient smsClient = mock(SmsClient.class);
+        when(smsChannelService.getSmsClient(eq(channelCode))).thenReturn(smsClient);
+        SmsReceiveRespDTO receiveResult = randomPojo(SmsReceiveRespDTO.class, o -> o.setLogId(null));
+        when(smsClient.parseSmsReceiveStatus(eq(text))).thenReturn(Collections.singletonList(receiveResult));
+        // mock SmsLogService 的方法
+        SmsLogDO smsLog = randomPojo(SmsLogDO.class);
+        when(smsLogService.getSmsLogByApiSerialNo(eq(receiveResult.getSerialNo()), eq(receiveResult.getMobile())))
+                .thenReturn(smsLog);
+
+        // 调用
+        smsSendService.receiveSmsStatus(channelCode, text);
+        // 断言
+        verify(smsLogService).updateSmsReceiveResult(eq(smsLog.getId()), eq(receiveResult.getSuccess()),
+                eq(receiveResult.getReceiveTime()), eq(receiveResult.getErrorCode()), eq(receiveResult.getErrorMsg()));
+    }
+
     @Test
     public void testReceiveSmsStatus() throws Throwable {
         // 准备参数
@@ -593,6 +593,41 @@ CREATE TABLE IF NOT EXISTS "system_notify_template" (
     PRIMARY KEY ("id")
 ) COMMENT '站内信模板表';
 
+CREATE TABLE IF NOT EXISTS "system_notify_broadcast" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "user_type" int NOT NULL,
+    "audience_type" int NOT NULL,
+    "audience_ids" varchar,
+    "template_id" bigint NOT NULL,
+    "template_code" varchar NOT NULL,
+    "template_nickname" varchar NOT NULL,
+    "template_content" varchar NOT NULL,
+    "template_type" int NOT NULL,
+    "template_params" varchar NOT NULL,
+    "creator" varchar DEFAULT '',
+    "create_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar DEFAULT '',
+    "update_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY ("id")
+) COMMENT '站内信广播表';
+
+CREATE TABLE IF NOT EXISTS "system_notify_broadcast_read" (
+    "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
+    "user_id" bigint NOT NULL,
+    "user_type" int NOT NULL,
+    "read_broadcast_id" bigint NOT NULL,
+    "creator" varchar DEFAULT '',
+    "create_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    "updater" varchar DEFAULT '',
+    "update_time" datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    "deleted" bit NOT NULL DEFAULT FALSE,
+    "tenant_id" bigint not null default  '0',
+    PRIMARY KEY ("id"),
+    UNIQUE ("user_id", "user_type", "tenant_id")
+) COMMENT '站内信广播已读水位表';
+
 CREATE TABLE IF NOT EXISTS "system_notify_message" (
     "id" bigint NOT NULL GENERATED BY DEFAULT AS IDENTITY,
     "user_id" bigint NOT NULL,